@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# ===========================
+# AIMS Synthetic Dataset Generator
+# Writes a seedable SQLite dataset for load and benchmark runs
+# ===========================
+#
+# Usage: scripts/generate-dataset.sh --db target/aims-prod.db --preset production
+#        scripts/generate-dataset.sh --db target/aims.db --products 50000 --users 5000 --orders 200000 --seed 7
+#
+# Presets: small (2k products / 500 users / 5k orders), medium (100k / 10k / 500k),
+#          production (1M / 100k / 5M). Explicit counts override the preset.
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+CLASSPATH_FILE="target/dataset-generator.classpath"
+
+mvn -q -DskipTests test-compile
+mvn -q dependency:build-classpath -Dmdep.outputFile="$CLASSPATH_FILE" -Dmdep.includeScope=test
+
+java -Xmx2g -cp "target/test-classes:target/classes:$(cat "$CLASSPATH_FILE")" \
+    com.aims.test.data.SyntheticDataGenerator "$@"
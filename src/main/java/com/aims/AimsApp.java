@@ -2,7 +2,10 @@ package com.aims;
 
 import com.aims.core.presentation.controllers.MainLayoutController;
 import com.aims.core.presentation.utils.FXMLSceneManager;
+import com.aims.core.presentation.utils.FXMLViewFactory;
 import com.aims.core.presentation.utils.MainLayoutControllerRegistry;
+import com.aims.core.presentation.utils.ProductChangeFeedClient;
+import com.aims.core.presentation.utils.UIRefreshScheduler;
 import com.aims.core.shared.constants.FXMLPaths;
 import com.aims.core.shared.ServiceFactory;
 
@@ -128,6 +131,14 @@ public class AimsApp extends Application {
                         // Any cleanup needed by services
                         logger.info("ServiceFactory cleanup completed");
                     }
+                    ServiceFactory.getCartService().shutdown();
+                    ServiceFactory.getProductManagerAuditService().shutdown();
+                    ServiceFactory.getPaymentReconciliationService().shutdown();
+                    ServiceFactory.getOrderArchiveService().shutdown();
+                    ServiceFactory.getPaymentFlowLogger().shutdown();
+                    ProductChangeFeedClient.getInstance().stop();
+                    FXMLViewFactory.getInstance().shutdown();
+                    UIRefreshScheduler.getInstance().shutdown();
                     System.out.println("AIMS Application is closing...");
                 } catch (Exception e) {
                     logger.log(Level.WARNING, "Error during application shutdown", e);
@@ -146,6 +157,12 @@ public class AimsApp extends Application {
             // Complete initialization after stage is shown
             mainLayoutController.completeInitialization();
             
+            // Cache FXML templates and pre-build pooled views while the user is idle
+            FXMLViewFactory.getInstance().preWarmInBackground();
+            
+            // Keep cards and detail screens in sync with stock/product changes
+            ProductChangeFeedClient.getInstance().start();
+            
             // PHASE 1 FIX: Verify MainLayoutController registration after initialization
             if (!MainLayoutControllerRegistry.isAvailable()) {
                 logger.warning("MainLayoutController registry validation failed after initialization");
@@ -0,0 +1,318 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.infrastructure.database.dao.IProductManagerAuditDAO;
+import com.aims.core.shared.dto.AuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes Product Manager audit rows off the caller's thread.
+ *
+ * Rows go into a bounded queue drained by one writer thread, which inserts
+ * everything queued so far in one transaction. A batch is written when it
+ * reaches the maximum size, when the oldest row has waited for the flush
+ * interval, when a caller waits for its row (a synchronous write or
+ * {@link #flush()}), or on shutdown. If the queue is full the caller writes
+ * its row itself, so rows are never dropped.
+ *
+ * If a batch is rejected, its rows are retried one by one so that one bad row
+ * (e.g. an unknown manager ID) does not lose the others.
+ */
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+    private static final long ENQUEUE_TIMEOUT_MILLIS = 50;
+
+    /**
+     * When a logged operation is known to be stored.
+     */
+    public enum Durability {
+        /** Every row is written on the caller's thread before logging returns (no writer thread) */
+        SYNC,
+        /** DELETE rows are written before logging returns; other rows are written in the background */
+        SYNC_DELETES,
+        /** Every row is written in the background */
+        ASYNC;
+
+        public static Durability fromString(String value) {
+            if (value != null) {
+                for (Durability durability : values()) {
+                    if (durability.name().equalsIgnoreCase(value.trim())) {
+                        return durability;
+                    }
+                }
+            }
+            return SYNC_DELETES;
+        }
+    }
+
+    /**
+     * A queued row, or a flush marker when record is null.
+     */
+    private static final class PendingRecord {
+        final AuditLogRecord record;
+        final CompletableFuture<Void> written;
+
+        PendingRecord(AuditLogRecord record, boolean waited) {
+            this.record = record;
+            this.written = waited ? new CompletableFuture<>() : null;
+        }
+    }
+
+    private final IProductManagerAuditDAO auditDAO;
+    private final Durability durability;
+    private final int maxBatchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<PendingRecord> queue;
+    private final Thread writerThread;
+    private volatile boolean running;
+
+    // Statistics
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    public AuditLogWriter(IProductManagerAuditDAO auditDAO, Durability durability) {
+        this(auditDAO, durability, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public AuditLogWriter(IProductManagerAuditDAO auditDAO, Durability durability,
+                          int queueCapacity, int maxBatchSize, long flushIntervalMillis) {
+        this.auditDAO = auditDAO;
+        this.durability = durability != null ? durability : Durability.SYNC_DELETES;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (this.durability == Durability.SYNC) {
+            this.writerThread = null;
+        } else {
+            this.running = true;
+            this.writerThread = new Thread(this::runWriter, "audit-log-writer");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Logs rows. Returns once they are stored if the durability mode requires
+     * it for any of them, otherwise as soon as they are queued.
+     *
+     * @throws SQLException If a row that had to be stored synchronously was rejected
+     */
+    public void submit(List<AuditLogRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (writerThread == null || !running) {
+            writeNow(records);
+            return;
+        }
+        boolean waitForWrite = durability == Durability.SYNC_DELETES && records.stream().anyMatch(AuditLogWriter::isDelete);
+        PendingRecord last = null;
+        for (int i = 0; i < records.size(); i++) {
+            last = enqueue(records.get(i), waitForWrite && i == records.size() - 1);
+        }
+        if (waitForWrite) {
+            // Rows are written in queue order, so the last one completing covers the others
+            await(last);
+        }
+    }
+
+    /**
+     * Waits until every row queued before this call is stored.
+     */
+    public void flush() throws SQLException {
+        if (writerThread == null || !running) {
+            return;
+        }
+        await(enqueue(null, true));
+    }
+
+    /**
+     * Writes the queued rows and stops the writer thread. Rows logged
+     * afterwards are written on the caller's thread.
+     */
+    public void shutdown() {
+        if (writerThread == null || !running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainRemaining();
+        logger.info("AuditLogWriter shut down: {}", getStatisticsSummary());
+    }
+
+    public String getStatisticsSummary() {
+        long batchCount = batches.get();
+        return String.format("durability=%s, rowsWritten=%d, batches=%d, avgBatch=%.1f, callerWrites=%d, failedRows=%d, queued=%d",
+            durability, rowsWritten.get(), batchCount, batchCount > 0 ? (double) rowsWritten.get() / batchCount : 0.0,
+            callerWrites.get(), failedRows.get(), queue.size());
+    }
+
+    static boolean isDelete(AuditLogRecord record) {
+        if ("DELETE".equalsIgnoreCase(record.operationType())) {
+            return true;
+        }
+        // Operation keys recorded by the constraint service
+        String details = record.details();
+        return details != null && (details.startsWith("DELETE_") || details.startsWith("BULK_DELETE_"));
+    }
+
+    private PendingRecord enqueue(AuditLogRecord record, boolean waited) throws SQLException {
+        PendingRecord pending = new PendingRecord(record, waited);
+        try {
+            if (queue.offer(pending, ENQUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    // Raced with shutdown: the writer may already be gone
+                    drainRemaining();
+                }
+                return pending;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Queue full (or interrupted): store it on this thread rather than dropping it
+        callerWrites.incrementAndGet();
+        if (record != null) {
+            writeNow(List.of(record));
+        }
+        if (pending.written != null) {
+            pending.written.complete(null);
+        }
+        return pending;
+    }
+
+    private void await(PendingRecord pending) throws SQLException {
+        try {
+            pending.written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the audit log", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Audit log write failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    // Synchronized with writeBatch: a caller writing its own row when the queue is full
+    // must not run its insert alongside the writer thread's
+    private synchronized void writeNow(List<AuditLogRecord> records) throws SQLException {
+        auditDAO.insertAuditRecords(records);
+        rowsWritten.addAndGet(records.size());
+        batches.incrementAndGet();
+    }
+
+    // Writes rows left in the queue after the writer thread stopped
+    private synchronized void drainRemaining() {
+        List<PendingRecord> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            writeBatch(rest);
+        }
+    }
+
+    private void runWriter() {
+        List<PendingRecord> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                boolean callerWaiting = first.written != null;
+                while (batch.size() < maxBatchSize && !callerWaiting && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    callerWaiting = next.written != null;
+                }
+                // Take whatever else is already queued, up to the batch size
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Only shutdown() stops the writer; keep draining
+                Thread.interrupted();
+            } catch (RuntimeException e) {
+                logger.error("Audit log writer failed on a batch of {} rows", batch.size(), e);
+                batch.forEach(pending -> {
+                    if (pending.written != null) {
+                        pending.written.completeExceptionally(e);
+                    }
+                });
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private synchronized void writeBatch(List<PendingRecord> batch) {
+        List<AuditLogRecord> records = new ArrayList<>(batch.size());
+        for (PendingRecord pending : batch) {
+            if (pending.record != null) {
+                records.add(pending.record);
+            }
+        }
+        try {
+            if (!records.isEmpty()) {
+                writeNow(records);
+            }
+            batch.forEach(pending -> {
+                if (pending.written != null) {
+                    pending.written.complete(null);
+                }
+            });
+        } catch (SQLException batchError) {
+            logger.warn("Audit batch of {} rows rejected ({}), retrying row by row", records.size(), batchError.getMessage());
+            for (PendingRecord pending : batch) {
+                try {
+                    if (pending.record != null) {
+                        writeNow(List.of(pending.record));
+                    }
+                    if (pending.written != null) {
+                        pending.written.complete(null);
+                    }
+                } catch (SQLException rowError) {
+                    failedRows.incrementAndGet();
+                    logger.error("Audit row dropped: {} - {}", pending.record, rowError.getMessage());
+                    if (pending.written != null) {
+                        pending.written.completeExceptionally(rowError);
+                    }
+                }
+            }
+        }
+    }
+}
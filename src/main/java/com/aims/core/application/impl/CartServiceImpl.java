@@ -1,5 +1,6 @@
 package com.aims.core.application.impl; // Or com.aims.core.application.services.impl;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.aims.core.application.services.ICartService;
@@ -33,13 +34,40 @@ public class CartServiceImpl implements ICartService {
     private final IProductDAO productDAO;
     private final IUserAccountDAO userAccountDAO; // For associating cart with user
     private final IStockValidationService stockValidationService; // For real-time stock validation
+    private final CartWriteBehindStore cartStore; // In-memory carts, stored in coalesced batches when write-behind
 
+    /**
+     * Write-through: every cart change is written to the database immediately.
+     */
+    @Autowired
     public CartServiceImpl(ICartDAO cartDAO, ICartItemDAO cartItemDAO, IProductDAO productDAO, IUserAccountDAO userAccountDAO, IStockValidationService stockValidationService) {
+        this(cartDAO, cartItemDAO, productDAO, userAccountDAO, stockValidationService, new CartWriteBehindStore(cartDAO, false));
+    }
+
+    public CartServiceImpl(ICartDAO cartDAO, ICartItemDAO cartItemDAO, IProductDAO productDAO, IUserAccountDAO userAccountDAO,
+                           IStockValidationService stockValidationService, CartWriteBehindStore cartStore) {
         this.cartDAO = cartDAO;
         this.cartItemDAO = cartItemDAO;
         this.productDAO = productDAO;
         this.userAccountDAO = userAccountDAO;
         this.stockValidationService = stockValidationService;
+        this.cartStore = cartStore;
+    }
+
+    private boolean isWriteBehind() {
+        return cartStore.isWriteBehind();
+    }
+
+    /**
+     * Records a change to a leased cart: written now in write-through mode, with the next flush otherwise.
+     */
+    private void cartChanged(CartWriteBehindStore.Lease lease, Cart cart) throws SQLException {
+        cart.setLastUpdated(LocalDateTime.now());
+        if (isWriteBehind()) {
+            lease.changed();
+        } else {
+            cartDAO.saveOrUpdate(cart);
+        }
     }
 
     /**
@@ -128,7 +156,15 @@ public class CartServiceImpl implements ICartService {
             // Or create a new guest cart here if policy dictates
             return null;
         }
-        Cart cart = cartDAO.getBySessionId(cartSessionId);
+        Cart cart;
+        if (isWriteBehind()) {
+            // Callers get a copy; the cached cart is only changed under a lease
+            try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+                cart = CartWriteBehindStore.copyOf(lease.cart());
+            }
+        } else {
+            cart = cartDAO.getBySessionId(cartSessionId);
+        }
         if (cart != null) {
             // Items are typically loaded by cartDAO.getBySessionId() via ICartItemDAO
             // We might want to refresh stock status here for display purposes
@@ -162,99 +198,98 @@ public class CartServiceImpl implements ICartService {
         // Enhanced stock validation will be done after we determine if item exists in cart
         // This prevents premature stock validation before considering existing cart quantities
 
-        Cart cart = cartDAO.getBySessionId(cartSessionId);
-        if (cart == null) {
-            logger.info("Cart not found for session {}, creating new cart", cartSessionId);
-            // CRITICAL FIX: Create cart with specific session ID to prevent FK constraint violation
-            cart = createNewCartWithSessionId(cartSessionId, null);
-            logger.info("Created new cart with session ID: {}", cartSessionId);
-        }
-
-        CartItem existingItem = null;
-        for(CartItem item : cart.getItems()){
-            if(item.getProduct().getProductId().equals(productId)){
-                existingItem = item;
-                break;
+        try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+            Cart cart = lease.cart();
+            if (cart == null) {
+                logger.info("Cart not found for session {}, creating new cart", cartSessionId);
+                // CRITICAL FIX: Create cart with specific session ID to prevent FK constraint violation
+                cart = createNewCartWithSessionId(cartSessionId, null);
+                lease.setCart(cart);
+                logger.info("Created new cart with session ID: {}", cartSessionId);
             }
-        }
 
-        try {
-            if (existingItem != null) {
-                // Use cart-aware stock validation for existing item update
-                validateStockAvailability(product, quantity, existingItem.getQuantity());
-                int newQuantity = existingItem.getQuantity() + quantity;
-                logger.info("Updating existing cart item - Product: {}, Old Quantity: {}, New Quantity: {}",
-                           productId, existingItem.getQuantity(), newQuantity);
-                
-                existingItem.setQuantity(newQuantity);
-                cartItemDAO.update(existingItem);
-                logger.info("Successfully updated cart item quantity");
-            } else {
-                // Use cart-aware stock validation for new item (0 current quantity)
-                validateStockAvailability(product, quantity, 0);
-                logger.info("Adding new cart item - Cart Session: {}, Product: {}, Quantity: {}",
-                           cartSessionId, productId, quantity);
-                CartItem newItem = new CartItem(cart, product, quantity);
-                cart.getItems().add(newItem); // Add to in-memory list first
-                cartItemDAO.add(newItem);     // Persist with consistent session ID
-                logger.info("Successfully added new cart item");
+            CartItem existingItem = null;
+            for(CartItem item : cart.getItems()){
+                if(item.getProduct().getProductId().equals(productId)){
+                    existingItem = item;
+                    break;
+                }
             }
-            
-            cart.setLastUpdated(LocalDateTime.now());
-            cartDAO.saveOrUpdate(cart); // Update lastUpdated timestamp
-            logger.info("Cart successfully updated for session: {}", cartSessionId);
 
-            // CRITICAL FIX: Notify ProductStateManager of product state changes
             try {
-                Product updatedProduct = productDAO.getById(productId);
-                if (updatedProduct != null) {
-                    ProductStateManager.updateProduct(updatedProduct);
-                    logger.info("Updated product state for {} - Current stock: {}",
-                               productId, updatedProduct.getQuantityInStock());
+                if (existingItem != null) {
+                    // Use cart-aware stock validation for existing item update
+                    validateStockAvailability(product, quantity, existingItem.getQuantity());
+                    int newQuantity = existingItem.getQuantity() + quantity;
+                    logger.info("Updating existing cart item - Product: {}, Old Quantity: {}, New Quantity: {}",
+                               productId, existingItem.getQuantity(), newQuantity);
+                
+                    existingItem.setQuantity(newQuantity);
+                    if (!isWriteBehind()) {
+                        cartItemDAO.update(existingItem);
+                    }
+                    logger.info("Successfully updated cart item quantity");
                 } else {
-                    logger.warn("Could not refresh product state for {} - product not found", productId);
+                    // Use cart-aware stock validation for new item (0 current quantity)
+                    validateStockAvailability(product, quantity, 0);
+                    logger.info("Adding new cart item - Cart Session: {}, Product: {}, Quantity: {}",
+                               cartSessionId, productId, quantity);
+                    CartItem newItem = new CartItem(cart, product, quantity);
+                    cart.getItems().add(newItem); // Add to in-memory list first
+                    if (!isWriteBehind()) {
+                        cartItemDAO.add(newItem); // Persist with consistent session ID
+                    }
+                    logger.info("Successfully added new cart item");
                 }
+            
+                cartChanged(lease, cart); // Update lastUpdated timestamp
+                logger.info("Cart successfully updated for session: {}", cartSessionId);
+
+                // CRITICAL FIX: Notify ProductStateManager of product state changes.
+                // Adding to the cart does not change stock, so the product loaded above is current.
+                ProductStateManager.updateProduct(product);
+                logger.info("Updated product state for {} - Current stock: {}",
+                           productId, product.getQuantityInStock());
             } catch (SQLException e) {
-                logger.error("Error refreshing product state for {}: {}", productId, e.getMessage());
-                // Don't fail the cart operation due to state management issues
+                logger.error("Database error while adding item to cart - Session: {}, Product: {}, Error: {}",
+                            cartSessionId, productId, e.getMessage(), e);
+                throw e;
+            } catch (Exception e) {
+                logger.error("Unexpected error while adding item to cart - Session: {}, Product: {}, Error: {}",
+                            cartSessionId, productId, e.getMessage(), e);
+                throw new SQLException("Failed to add item to cart: " + e.getMessage(), e);
             }
-
-            return getCart(cart.getCartSessionId()); // Return the refreshed cart
-        } catch (SQLException e) {
-            logger.error("Database error while adding item to cart - Session: {}, Product: {}, Error: {}",
-                        cartSessionId, productId, e.getMessage(), e);
-            throw e;
-        } catch (Exception e) {
-            logger.error("Unexpected error while adding item to cart - Session: {}, Product: {}, Error: {}",
-                        cartSessionId, productId, e.getMessage(), e);
-            throw new SQLException("Failed to add item to cart: " + e.getMessage(), e);
         }
+        return getCart(cartSessionId); // Return the refreshed cart
     }
 
     @Override
     public Cart removeItemFromCart(String cartSessionId, String productId)
             throws SQLException, ResourceNotFoundException {
-        Cart cart = getCart(cartSessionId);
-        if (cart == null) {
-            throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
-        }
+        try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+            Cart cart = lease.cart();
+            if (cart == null) {
+                throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
+            }
 
-        CartItem itemToRemove = null;
-        for (CartItem item : cart.getItems()) {
-            if (item.getProduct().getProductId().equals(productId)) {
-                itemToRemove = item;
-                break;
+            CartItem itemToRemove = null;
+            for (CartItem item : cart.getItems()) {
+                if (item.getProduct().getProductId().equals(productId)) {
+                    itemToRemove = item;
+                    break;
+                }
             }
-        }
 
-        if (itemToRemove == null) {
-            throw new ResourceNotFoundException("Product with ID " + productId + " not found in cart " + cartSessionId);
-        }
+            if (itemToRemove == null) {
+                throw new ResourceNotFoundException("Product with ID " + productId + " not found in cart " + cartSessionId);
+            }
 
-        cartItemDAO.delete(cartSessionId, productId);
-        cart.getItems().remove(itemToRemove); // Remove from in-memory list
-        cart.setLastUpdated(LocalDateTime.now());
-        cartDAO.saveOrUpdate(cart);
+            if (!isWriteBehind()) {
+                cartItemDAO.delete(cartSessionId, productId);
+            }
+            cart.getItems().remove(itemToRemove); // Remove from in-memory list
+            cartChanged(lease, cart);
+        }
 
         // CRITICAL FIX: Notify ProductStateManager of product state changes
         try {
@@ -279,71 +314,67 @@ public class CartServiceImpl implements ICartService {
             throw new ValidationException("New quantity cannot be negative.");
         }
 
-        Cart cart = getCart(cartSessionId);
-        if (cart == null) {
-            throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
-        }
+        try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+            Cart cart = lease.cart();
+            if (cart == null) {
+                throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
+            }
 
-        Product product = productDAO.getById(productId);
-        if (product == null) {
-            throw new ResourceNotFoundException("Product with ID " + productId + " not found.");
-        }
+            Product product = productDAO.getById(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product with ID " + productId + " not found.");
+            }
 
-        CartItem itemToUpdate = null;
-        for (CartItem item : cart.getItems()) {
-            if (item.getProduct().getProductId().equals(productId)) {
-                itemToUpdate = item;
-                break;
+            CartItem itemToUpdate = null;
+            for (CartItem item : cart.getItems()) {
+                if (item.getProduct().getProductId().equals(productId)) {
+                    itemToUpdate = item;
+                    break;
+                }
             }
-        }
 
-        if (itemToUpdate == null) {
-            throw new ResourceNotFoundException("Product with ID " + productId + " not found in cart " + cartSessionId);
-        }
+            if (itemToUpdate == null) {
+                throw new ResourceNotFoundException("Product with ID " + productId + " not found in cart " + cartSessionId);
+            }
 
-        if (newQuantity == 0) {
-            return removeItemFromCart(cartSessionId, productId);
-        }
+            if (newQuantity == 0) {
+                return removeItemFromCart(cartSessionId, productId);
+            }
 
-        // Use StockValidationService for comprehensive stock validation
-        try {
-            IStockValidationService.StockValidationResult validationResult =
-                stockValidationService.validateProductStock(product.getProductId(), newQuantity);
+            // Use StockValidationService for comprehensive stock validation
+            try {
+                IStockValidationService.StockValidationResult validationResult =
+                    stockValidationService.validateProductStock(product.getProductId(), newQuantity);
             
-            if (!validationResult.isValid()) {
-                logger.warn("Stock validation failed for updateItemQuantity - Product: {}, Requested: {}, Available: {}",
-                           product.getProductId(), newQuantity, validationResult.getAvailableStock());
+                if (!validationResult.isValid()) {
+                    logger.warn("Stock validation failed for updateItemQuantity - Product: {}, Requested: {}, Available: {}",
+                               product.getProductId(), newQuantity, validationResult.getAvailableStock());
                 
-                throw new InventoryException(String.format(
-                    "Insufficient stock for %s. Available: %d, Requested: %d. %s",
-                    product.getTitle(), validationResult.getAvailableStock(), newQuantity, validationResult.getMessage()
-                ));
-            }
+                    throw new InventoryException(String.format(
+                        "Insufficient stock for %s. Available: %d, Requested: %d. %s",
+                        product.getTitle(), validationResult.getAvailableStock(), newQuantity, validationResult.getMessage()
+                    ));
+                }
             
-            logger.debug("Stock validation successful for updateItemQuantity - Product: {}, Quantity: {}",
-                        product.getProductId(), newQuantity);
+                logger.debug("Stock validation successful for updateItemQuantity - Product: {}, Quantity: {}",
+                            product.getProductId(), newQuantity);
             
-        } catch (ResourceNotFoundException e) {
-            logger.error("Product not found during stock validation: {}", product.getProductId());
-            throw new InventoryException("Product " + product.getTitle() + " is no longer available.");
-        }
-
-        itemToUpdate.setQuantity(newQuantity);
-        cartItemDAO.update(itemToUpdate);
-        cart.setLastUpdated(LocalDateTime.now());
-        cartDAO.saveOrUpdate(cart);
+            } catch (ResourceNotFoundException e) {
+                logger.error("Product not found during stock validation: {}", product.getProductId());
+                throw new InventoryException("Product " + product.getTitle() + " is no longer available.");
+            }
 
-        // CRITICAL FIX: Notify ProductStateManager of product state changes
-        try {
-            Product updatedProduct = productDAO.getById(productId);
-            if (updatedProduct != null) {
-                ProductStateManager.updateProduct(updatedProduct);
-                logger.info("Updated product state for {} after quantity change - Current stock: {}",
-                           productId, updatedProduct.getQuantityInStock());
+            itemToUpdate.setQuantity(newQuantity);
+            if (!isWriteBehind()) {
+                cartItemDAO.update(itemToUpdate);
             }
-        } catch (SQLException e) {
-            logger.error("Error refreshing product state for {}: {}", productId, e.getMessage());
-            // Don't fail the cart operation due to state management issues
+            cartChanged(lease, cart);
+
+            // CRITICAL FIX: Notify ProductStateManager of product state changes.
+            // Changing a cart quantity does not change stock, so the product loaded above is current.
+            ProductStateManager.updateProduct(product);
+            logger.info("Updated product state for {} after quantity change - Current stock: {}",
+                       productId, product.getQuantityInStock());
         }
 
         return getCart(cartSessionId);
@@ -351,39 +382,43 @@ public class CartServiceImpl implements ICartService {
 
     @Override
     public Cart clearCart(String cartSessionId) throws SQLException, ResourceNotFoundException {
-        Cart cart = cartDAO.getBySessionId(cartSessionId); // Ensure cart exists
-        if (cart == null) {
-            throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
-        }
-        cartItemDAO.deleteByCartSessionId(cartSessionId);
-        cart.getItems().clear(); // Clear in-memory list
-        cart.setLastUpdated(LocalDateTime.now());
-        cartDAO.saveOrUpdate(cart); // Update timestamp
-        // The problem statement implies cart is emptied after successful payment [cite: 553]
+        try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+            Cart cart = lease.cart(); // Ensure cart exists
+            if (cart == null) {
+                throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
+            }
+            if (!isWriteBehind()) {
+                cartItemDAO.deleteByCartSessionId(cartSessionId);
+            }
+            cart.getItems().clear(); // Clear in-memory list
+            cartChanged(lease, cart); // Update timestamp
+            // The problem statement implies cart is emptied after successful payment [cite: 553]
 
-        return cart;
+            return isWriteBehind() ? CartWriteBehindStore.copyOf(cart) : cart;
+        }
     }
 
     @Override
     public Cart associateCartWithUser(String cartSessionId, String userId)
             throws SQLException, ResourceNotFoundException, ValidationException {
-        Cart cart = cartDAO.getBySessionId(cartSessionId);
-        if (cart == null) {
-            throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
-        }
-        if (cart.getUserAccount() != null && !cart.getUserAccount().getUserId().equals(userId)) {
-            throw new ValidationException("Cart is already associated with another user.");
-        }
+        try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+            Cart cart = lease.cart();
+            if (cart == null) {
+                throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found.");
+            }
+            if (cart.getUserAccount() != null && !cart.getUserAccount().getUserId().equals(userId)) {
+                throw new ValidationException("Cart is already associated with another user.");
+            }
 
-        UserAccount user = userAccountDAO.getById(userId);
-        if (user == null) {
-            throw new ResourceNotFoundException("User with ID " + userId + " not found.");
-        }
+            UserAccount user = userAccountDAO.getById(userId);
+            if (user == null) {
+                throw new ResourceNotFoundException("User with ID " + userId + " not found.");
+            }
 
-        cart.setUserAccount(user);
-        cart.setLastUpdated(LocalDateTime.now());
-        cartDAO.saveOrUpdate(cart);
-        return cart;
+            cart.setUserAccount(user);
+            cartChanged(lease, cart);
+            return isWriteBehind() ? CartWriteBehindStore.copyOf(cart) : cart;
+        }
     }
 
     @Override
@@ -395,7 +430,14 @@ public class CartServiceImpl implements ICartService {
             // Optionally handle if user not found, though typically userId should be valid
         }
         Cart newCart = new Cart(newCartSessionId, user, LocalDateTime.now());
+        // New carts are written through, so the row exists before any write-behind flush
         cartDAO.saveOrUpdate(newCart);
+        if (isWriteBehind()) {
+            try (CartWriteBehindStore.Lease lease = cartStore.lease(newCartSessionId)) {
+                lease.setCart(newCart);
+            }
+            return CartWriteBehindStore.copyOf(newCart);
+        }
         return newCart;
     }
 
@@ -411,7 +453,10 @@ public class CartServiceImpl implements ICartService {
         }
         Cart newCart = new Cart(cartSessionId, user, LocalDateTime.now());
         cartDAO.saveOrUpdate(newCart);
-        return newCart;
+        try (CartWriteBehindStore.Lease lease = cartStore.lease(cartSessionId)) {
+            lease.setCart(newCart);
+        }
+        return isWriteBehind() ? CartWriteBehindStore.copyOf(newCart) : newCart;
     }
 
     /**
@@ -425,6 +470,8 @@ public class CartServiceImpl implements ICartService {
         
         System.out.println("CART COMPLETE DATA: Loading cart with full product metadata for session: " + cartSessionId);
         
+        // Order conversion reads the stored cart, so pending changes are written first
+        flushCart(cartSessionId);
         Cart cart = cartDAO.getBySessionId(cartSessionId);
         if (cart == null) {
             throw new ResourceNotFoundException("Cart with session ID " + cartSessionId + " not found");
@@ -467,4 +514,16 @@ public class CartServiceImpl implements ICartService {
                           cart.getItems().size() + " items");
         return cart;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void flushCart(String cartSessionId) throws SQLException {
+        if (cartSessionId != null && !cartSessionId.trim().isEmpty()) {
+            cartStore.flush(cartSessionId);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        cartStore.shutdown();
+    }
+}
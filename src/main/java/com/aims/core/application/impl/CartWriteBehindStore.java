@@ -0,0 +1,409 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.entities.Cart;
+import com.aims.core.entities.CartItem;
+import com.aims.core.infrastructure.database.dao.ICartDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory authoritative cart state with write-behind persistence.
+ *
+ * The cart service works on the cached cart under a per-cart lease and marks
+ * it changed; a background task stores every changed cart once per flush
+ * window, all of them in one transaction, so a burst of quantity changes
+ * becomes one write holding the final state. {@link #flush(String)} stores a
+ * cart immediately (used before checkout) and {@link #shutdown()} stores
+ * everything pending. Carts not in the cache are loaded from the database on
+ * first use, and idle, fully stored carts are evicted.
+ *
+ * A cart that repeatedly fails to store is evicted with its pending changes
+ * logged as lost and counted in {@link #getDiscardedCount()}, so the database
+ * becomes authoritative for it again.
+ * Changes made by another process to a cached cart are not seen until the
+ * cart is evicted.
+ *
+ * In write-through mode nothing is cached: a lease reads the cart from the
+ * database and the caller writes its own changes.
+ */
+public class CartWriteBehindStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartWriteBehindStore.class);
+
+    public static final long DEFAULT_FLUSH_WINDOW_MILLIS = 250;
+    public static final long DEFAULT_IDLE_EVICTION_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final int MAX_FAILED_FLUSHES = 5;
+    private static final long EVICTION_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final class Entry {
+        final String cartSessionId;
+        final ReentrantLock lock = new ReentrantLock();
+        Cart cart;
+        boolean loaded;
+        boolean evicted;
+        long version;
+        long storedVersion;
+        int failedFlushes;
+        volatile long lastAccessNanos = System.nanoTime();
+
+        Entry(String cartSessionId) {
+            this.cartSessionId = cartSessionId;
+        }
+
+        boolean isDirty() {
+            return version != storedVersion;
+        }
+    }
+
+    private record Snapshot(Entry entry, Cart cart, long version) {
+    }
+
+    /**
+     * Exclusive access to one cart until closed.
+     */
+    public final class Lease implements AutoCloseable {
+        private final String cartSessionId;
+        private final Entry entry;
+        private Cart uncached;
+
+        private Lease(String cartSessionId, Entry entry) {
+            this.cartSessionId = cartSessionId;
+            this.entry = entry;
+        }
+
+        /**
+         * @return the cart (loaded from the database on a cache miss), or null if it does not exist
+         */
+        public Cart cart() throws SQLException {
+            if (entry == null) {
+                if (uncached == null) {
+                    uncached = cartDAO.getBySessionId(cartSessionId);
+                }
+                return uncached;
+            }
+            if (!entry.loaded) {
+                entry.cart = cartDAO.getBySessionId(cartSessionId);
+                entry.loaded = true;
+                cacheMisses.incrementAndGet();
+            }
+            return entry.cart;
+        }
+
+        /**
+         * Replaces the cart, e.g. with one just created.
+         */
+        public void setCart(Cart cart) {
+            if (entry == null) {
+                uncached = cart;
+            } else {
+                entry.cart = cart;
+                entry.loaded = true;
+            }
+        }
+
+        /**
+         * Marks the cart as changed; it is stored with the next flush.
+         */
+        public void changed() {
+            if (entry != null) {
+                entry.version++;
+                dirty.add(cartSessionId);
+                mutations.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (entry != null) {
+                entry.lastAccessNanos = System.nanoTime();
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private final ICartDAO cartDAO;
+    private final boolean writeBehind;
+    private final long idleEvictionNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // Flushes run one at a time, so a later snapshot of a cart is never overwritten by an earlier one
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private volatile long lastEvictionCheckNanos = System.nanoTime();
+
+    // Statistics
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong cartsStored = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    public CartWriteBehindStore(ICartDAO cartDAO, boolean writeBehind) {
+        this(cartDAO, writeBehind, DEFAULT_FLUSH_WINDOW_MILLIS, DEFAULT_IDLE_EVICTION_MILLIS);
+    }
+
+    public CartWriteBehindStore(ICartDAO cartDAO, boolean writeBehind, long flushWindowMillis, long idleEvictionMillis) {
+        this.cartDAO = cartDAO;
+        this.writeBehind = writeBehind;
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMillis);
+        if (writeBehind) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "cart-write-behind");
+                t.setDaemon(true);
+                return t;
+            });
+            long window = Math.max(1, flushWindowMillis);
+            this.flusher.scheduleWithFixedDelay(this::flushDue, window, window, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Takes exclusive access to a cart; close the lease when done.
+     */
+    public Lease lease(String cartSessionId) {
+        if (!writeBehind) {
+            return new Lease(cartSessionId, null);
+        }
+        while (true) {
+            Entry entry = entries.computeIfAbsent(cartSessionId, Entry::new);
+            entry.lock.lock();
+            if (!entry.evicted) {
+                return new Lease(cartSessionId, entry);
+            }
+            // Evicted while we waited for it: use the new entry
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the cart now if it has pending changes (e.g. before checkout).
+     *
+     * @throws SQLException If the cart could not be stored
+     */
+    public void flush(String cartSessionId) throws SQLException {
+        if (writeBehind) {
+            store(List.of(cartSessionId), true);
+        }
+    }
+
+    /**
+     * Stores every cart with pending changes.
+     */
+    public void flushAll() throws SQLException {
+        if (writeBehind) {
+            store(new ArrayList<>(dirty), false);
+        }
+    }
+
+    /**
+     * Stops the background flush and stores everything pending.
+     */
+    public void shutdown() {
+        if (flusher == null || flusher.isShutdown()) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flushAll();
+        } catch (SQLException e) {
+            logger.error("Failed to store pending carts on shutdown: {}", e.getMessage(), e);
+        }
+        logger.info("CartWriteBehindStore shut down: {}", getStatisticsSummary());
+    }
+
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * @return the number of carts whose unsaved changes were discarded after failing to store
+     */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public String getStatisticsSummary() {
+        return String.format("writeBehind=%s, cached=%d, pending=%d, mutations=%d, cartsStored=%d, transactions=%d, cacheMisses=%d, evictions=%d, discarded=%d",
+            writeBehind, entries.size(), dirty.size(), mutations.get(), cartsStored.get(), transactions.get(),
+            cacheMisses.get(), evictions.get(), discarded.get());
+    }
+
+    /**
+     * Copies a cart and its items so that callers never share the cached instance.
+     */
+    public static Cart copyOf(Cart cart) {
+        if (cart == null) {
+            return null;
+        }
+        Cart copy = new Cart(cart.getCartSessionId(), cart.getUserAccount(), cart.getLastUpdated());
+        List<CartItem> items = new ArrayList<>(cart.getItems().size());
+        for (CartItem item : cart.getItems()) {
+            items.add(new CartItem(copy, item.getProduct(), item.getQuantity()));
+        }
+        copy.setItems(items);
+        return copy;
+    }
+
+    private void flushDue() {
+        try {
+            flushAll();
+        } catch (Exception e) {
+            logger.error("Cart write-behind flush failed: {}", e.getMessage(), e);
+        }
+        if (System.nanoTime() - lastEvictionCheckNanos >= EVICTION_CHECK_INTERVAL_NANOS) {
+            lastEvictionCheckNanos = System.nanoTime();
+            evictIdle();
+        }
+    }
+
+    private void store(List<String> cartSessionIds, boolean throwOnFailure) throws SQLException {
+        synchronized (flushLock) {
+            List<Snapshot> snapshots = new ArrayList<>();
+            for (String cartSessionId : cartSessionIds) {
+                Entry entry = entries.get(cartSessionId);
+                if (entry == null) {
+                    dirty.remove(cartSessionId);
+                    continue;
+                }
+                entry.lock.lock();
+                try {
+                    dirty.remove(cartSessionId);
+                    if (!entry.isDirty()) {
+                        continue;
+                    }
+                    if (entry.cart == null) {
+                        entry.storedVersion = entry.version;
+                    } else {
+                        snapshots.add(new Snapshot(entry, copyOf(entry.cart), entry.version));
+                    }
+                } finally {
+                    entry.lock.unlock();
+                }
+            }
+            if (snapshots.isEmpty()) {
+                return;
+            }
+
+            try {
+                write(snapshots);
+                snapshots.forEach(this::markStored);
+                return;
+            } catch (SQLException batchError) {
+                if (snapshots.size() == 1) {
+                    markFailed(snapshots.get(0), batchError);
+                    if (throwOnFailure) {
+                        throw batchError;
+                    }
+                    return;
+                }
+                logger.warn("Storing {} carts failed ({}), retrying one by one", snapshots.size(), batchError.getMessage());
+            }
+            SQLException firstFailure = null;
+            for (Snapshot snapshot : snapshots) {
+                try {
+                    write(List.of(snapshot));
+                    markStored(snapshot);
+                } catch (SQLException e) {
+                    markFailed(snapshot, e);
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                }
+            }
+            if (throwOnFailure && firstFailure != null) {
+                throw firstFailure;
+            }
+        }
+    }
+
+    private void write(List<Snapshot> snapshots) throws SQLException {
+        List<Cart> carts = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots) {
+            carts.add(snapshot.cart());
+        }
+        cartDAO.saveCarts(carts);
+        transactions.incrementAndGet();
+        cartsStored.addAndGet(carts.size());
+    }
+
+    private void markStored(Snapshot snapshot) {
+        Entry entry = snapshot.entry();
+        entry.lock.lock();
+        try {
+            entry.storedVersion = Math.max(entry.storedVersion, snapshot.version());
+            entry.failedFlushes = 0;
+            if (entry.isDirty()) {
+                dirty.add(entry.cartSessionId);
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private void markFailed(Snapshot snapshot, SQLException error) {
+        Entry entry = snapshot.entry();
+        entry.lock.lock();
+        try {
+            entry.failedFlushes++;
+            if (entry.failedFlushes >= MAX_FAILED_FLUSHES) {
+                long total = discarded.incrementAndGet();
+                logger.error("Cart {} could not be stored after {} attempts, discarding its unsaved changes ({} carts discarded so far): {}",
+                    entry.cartSessionId, entry.failedFlushes, total, error.getMessage(), error);
+                evict(entry);
+            } else {
+                logger.warn("Cart {} could not be stored (attempt {}): {}",
+                    entry.cartSessionId, entry.failedFlushes, error.getMessage());
+                dirty.add(entry.cartSessionId);
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Entry entry : entries.values()) {
+            if (now - entry.lastAccessNanos < idleEvictionNanos || !entry.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (!entry.isDirty() && now - entry.lastAccessNanos >= idleEvictionNanos) {
+                    evict(entry);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    // Caller holds the entry's lock
+    private void evict(Entry entry) {
+        entry.evicted = true;
+        entries.remove(entry.cartSessionId, entry);
+        dirty.remove(entry.cartSessionId);
+        evictions.incrementAndGet();
+    }
+}
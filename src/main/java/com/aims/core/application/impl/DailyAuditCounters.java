@@ -0,0 +1,112 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.DailyOperationCounts;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory audit counters for one day, so that quota checks are map lookups
+ * instead of COUNT(*) queries over the audit log.
+ *
+ * Counts mirror the audit DAO queries: operation counts by operation type
+ * (UPDATE and DELETE), price update counts by manager and product, and the
+ * operation key classification used by the operation constraint service.
+ * Not thread-safe; the audit service guards it with its own lock.
+ */
+final class DailyAuditCounters {
+
+    /** Operation key counts of one manager */
+    private static final class KeyCounts {
+        int additions;
+        int edits;
+        int deletions;
+        int priceUpdates;
+        final Map<String, Integer> priceUpdatesByProduct = new HashMap<>();
+    }
+
+    private LocalDate date;
+    private final Map<String, Integer> limitedOperationsByManager = new HashMap<>();
+    private final Map<String, Integer> priceUpdatesByManagerProduct = new HashMap<>();
+    private final Map<String, KeyCounts> keyCountsByManager = new HashMap<>();
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Starts counting a new day from the rows already stored for it.
+     */
+    void reset(LocalDate newDate, List<AuditLogRecord> storedRecords) {
+        date = newDate;
+        limitedOperationsByManager.clear();
+        priceUpdatesByManagerProduct.clear();
+        keyCountsByManager.clear();
+        for (AuditLogRecord record : storedRecords) {
+            add(record);
+        }
+    }
+
+    /**
+     * Counts a record of the current day; records of other days are ignored.
+     */
+    void add(AuditLogRecord record) {
+        if (date == null || !date.equals(record.operationDateTime().toLocalDate())) {
+            return;
+        }
+        String managerId = record.managerId();
+        String operationType = record.operationType();
+        if ("UPDATE".equals(operationType) || "DELETE".equals(operationType)) {
+            limitedOperationsByManager.merge(managerId, 1, Integer::sum);
+        } else if ("PRICE_UPDATE".equals(operationType)) {
+            priceUpdatesByManagerProduct.merge(productKey(managerId, record.productId()), 1, Integer::sum);
+        }
+
+        String key = record.details();
+        if (key == null) {
+            return;
+        }
+        if (key.startsWith("ADD_")) {
+            keyCounts(managerId).additions++;
+        } else if (key.startsWith("EDIT_")) {
+            keyCounts(managerId).edits++;
+        } else if (key.startsWith("DELETE_")) {
+            keyCounts(managerId).deletions++;
+        } else if (key.startsWith("PRICE_UPDATE_")) {
+            KeyCounts counts = keyCounts(managerId);
+            counts.priceUpdates++;
+            String productId = DailyOperationCounts.priceUpdateProductId(key);
+            if (productId != null) {
+                counts.priceUpdatesByProduct.merge(productId, 1, Integer::sum);
+            }
+        }
+    }
+
+    int getOperationCount(String managerId) {
+        return limitedOperationsByManager.getOrDefault(managerId, 0);
+    }
+
+    int getPriceUpdateCount(String managerId, String productId) {
+        return priceUpdatesByManagerProduct.getOrDefault(productKey(managerId, productId), 0);
+    }
+
+    DailyOperationCounts getOperationCounts(String managerId) {
+        KeyCounts counts = keyCountsByManager.get(managerId);
+        if (counts == null) {
+            return new DailyOperationCounts(date, 0, 0, 0, 0, Map.of());
+        }
+        return new DailyOperationCounts(date, counts.additions, counts.edits, counts.deletions, counts.priceUpdates,
+            new HashMap<>(counts.priceUpdatesByProduct));
+    }
+
+    private KeyCounts keyCounts(String managerId) {
+        return keyCountsByManager.computeIfAbsent(managerId, id -> new KeyCounts());
+    }
+
+    private static String productKey(String managerId, String productId) {
+        return managerId + '\u0000' + productId;
+    }
+}
@@ -6,6 +6,7 @@ import com.aims.core.entities.OrderItem;
 import com.aims.core.entities.Product;
 import com.aims.core.entities.DeliveryInfo;
 import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.Money;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -167,11 +168,22 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
     /**
      * Enhanced method to calculate rush delivery fee separately
      */
-    private float calculateRushDeliveryFee(List<OrderItem> rushItems) {
+    private long calculateRushDeliveryFee(List<OrderItem> rushItems) {
         if (rushItems == null || rushItems.isEmpty()) {
-            return 0f;
+            return 0;
         }
-        return rushItems.size() * RUSH_DELIVERY_SURCHARGE_PER_ITEM;
+        return Money.times(Money.fromFloat(RUSH_DELIVERY_SURCHARGE_PER_ITEM), rushItems.size());
+    }
+    
+    /**
+     * VAT-exclusive value of a group of items, in minor units
+     */
+    private static long itemsValueExclVAT(List<OrderItem> items) {
+        long value = 0;
+        for (OrderItem item : items) {
+            value += Money.times(item.getPriceAtTimeOfOrderMinor(), item.getQuantity());
+        }
+        return value;
     }
     
     /**
@@ -241,7 +253,7 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
                           " | Address: " + deliveryInfo.getDeliveryAddress() +
                           " | Item count: " + order.getOrderItems().size());
         List<OrderItem> allItems = order.getOrderItems();
-        float totalShippingFee = 0f;
+        long totalShippingFee = 0;
 
         List<OrderItem> standardDeliveryItems = new ArrayList<>();
         List<OrderItem> rushDeliveryItems = new ArrayList<>();
@@ -271,36 +283,36 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
 
         // Calculate fee for standard delivery items
         if (!standardDeliveryItems.isEmpty()) {
-            float standardItemsFee = calculateFeeForItemGroup(standardDeliveryItems, deliveryInfo, false);
-            float standardItemsValueExclVAT = 0;
-            for(OrderItem item : standardDeliveryItems) {
-                standardItemsValueExclVAT += item.getPriceAtTimeOfOrder() * item.getQuantity();
-            }
-            float discount = getFreeShippingDiscount(standardItemsValueExclVAT);
+            long standardItemsFee = calculateFeeForItemGroup(standardDeliveryItems, deliveryInfo, false);
+            long standardItemsValueExclVAT = itemsValueExclVAT(standardDeliveryItems);
+            long discount = Money.fromFloat(getFreeShippingDiscount(Money.toFloat(standardItemsValueExclVAT)));
             totalShippingFee += Math.max(0, standardItemsFee - discount);
         }
 
         // Enhanced: Calculate fee for rush delivery items with separate rush fee calculation
         if (!rushDeliveryItems.isEmpty()) {
             // Calculate base shipping fee for rush items (without rush surcharge)
-            float rushItemsBaseFee = calculateFeeForItemGroup(rushDeliveryItems, deliveryInfo, false);
+            long rushItemsBaseFee = calculateFeeForItemGroup(rushDeliveryItems, deliveryInfo, false);
             // Calculate rush delivery surcharge separately as per specification
-            float rushDeliveryFee = calculateRushDeliveryFee(rushDeliveryItems);
+            long rushDeliveryFee = calculateRushDeliveryFee(rushDeliveryItems);
             totalShippingFee += rushItemsBaseFee + rushDeliveryFee;
             
-            System.out.println("DELIVERY_CALC: Rush items - Base fee: " + rushItemsBaseFee +
-                              ", Rush surcharge: " + rushDeliveryFee +
+            System.out.println("DELIVERY_CALC: Rush items - Base fee: " + Money.toFloat(rushItemsBaseFee) +
+                              ", Rush surcharge: " + Money.toFloat(rushDeliveryFee) +
                               ", Items count: " + rushDeliveryItems.size());
         }
 
-        System.out.println("DELIVERY_CALC: Total shipping fee calculated: " + totalShippingFee +
+        System.out.println("DELIVERY_CALC: Total shipping fee calculated: " + Money.toFloat(totalShippingFee) +
                           " for Order " + orderId);
-        return totalShippingFee;
+        return Money.toFloat(totalShippingFee);
     }
 
-    private float calculateFeeForItemGroup(List<OrderItem> items, DeliveryInfo deliveryInfo, boolean isRushGroup) throws ValidationException {
+    /**
+     * Shipping fee of a group of items, in minor units
+     */
+    private long calculateFeeForItemGroup(List<OrderItem> items, DeliveryInfo deliveryInfo, boolean isRushGroup) throws ValidationException {
         if (items.isEmpty()) {
-            return 0f;
+            return 0;
         }
 
         float totalWeightKg = 0f;
@@ -318,7 +330,7 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
         if (totalWeightKg <= 0 && !items.isEmpty()) {
              // Or handle as free if it's a digital product with no weight, though problem says physical media
             System.err.println("Warning: Total weight for item group is zero or negative. Fee might be incorrect.");
-            return 0f;
+            return 0;
         }
 
 
@@ -326,7 +338,7 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
         RegionType regionType = determineRegionType(deliveryInfo);
         float regionMultiplier = getRegionRateMultiplier(regionType);
         
-        float baseFee;
+        long baseFee;
         
         // Determine if this is a major city (Hanoi/HCM) for weight tier calculation
         boolean isMajorCity = (regionType == RegionType.HANOI_INNER || regionType == RegionType.HANOI_OUTER ||
@@ -334,32 +346,32 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
 
         if (isMajorCity) {
             // Major cities: 3kg base tier
-            baseFee = HANOI_HCM_BASE_FEE_FIRST_3KG;
+            baseFee = Money.fromFloat(HANOI_HCM_BASE_FEE_FIRST_3KG);
             if (totalWeightKg > 3f) {
                 float additionalWeight = totalWeightKg - 3f;
-                baseFee += Math.ceil(additionalWeight / 0.5f) * ADDITIONAL_FEE_PER_0_5KG;
+                baseFee += Money.times(Money.fromFloat(ADDITIONAL_FEE_PER_0_5KG), (int) Math.ceil(additionalWeight / 0.5f));
             }
         } else {
             // Other provinces: 0.5kg base tier
-            baseFee = OTHER_PLACES_BASE_FEE_FIRST_0_5KG;
+            baseFee = Money.fromFloat(OTHER_PLACES_BASE_FEE_FIRST_0_5KG);
             if (totalWeightKg > 0.5f) {
                 float additionalWeight = totalWeightKg - 0.5f;
-                baseFee += Math.ceil(additionalWeight / 0.5f) * ADDITIONAL_FEE_PER_0_5KG;
+                baseFee += Money.times(Money.fromFloat(ADDITIONAL_FEE_PER_0_5KG), (int) Math.ceil(additionalWeight / 0.5f));
             }
         }
 
         // Apply region-specific multiplier for enhanced pricing
-        baseFee *= regionMultiplier;
+        baseFee = Money.scale(baseFee, regionMultiplier);
         
         System.out.println("DELIVERY_CALC: Fee calculation - Region: " + regionType +
                           ", Multiplier: " + regionMultiplier +
                           ", Weight: " + totalWeightKg + "kg" +
-                          ", Base fee: " + baseFee +
+                          ", Base fee: " + Money.toFloat(baseFee) +
                           ", Rush group: " + isRushGroup);
 
         if (isRushGroup) {
             // Add rush surcharge per item line in the rush group
-            baseFee += items.size() * RUSH_DELIVERY_SURCHARGE_PER_ITEM;
+            baseFee += calculateRushDeliveryFee(items);
         }
         return baseFee;
     }
@@ -454,22 +466,19 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
             standardItems.addAll(allItems);
         }
         
-        float standardBaseFee = 0f;
-        float rushBaseFee = 0f;
-        float rushSurcharge = 0f;
-        float freeShippingDiscount = 0f;
-        float regionalAdjustment = 0f;
+        long standardBaseFee = 0;
+        long rushBaseFee = 0;
+        long rushSurcharge = 0;
+        long freeShippingDiscount = 0;
+        long regionalAdjustment = 0;
         
         // Calculate standard items
         if (!standardItems.isEmpty()) {
             standardBaseFee = calculateFeeForItemGroup(standardItems, deliveryInfo, false);
             
             // Calculate free shipping discount
-            float standardValue = 0f;
-            for (OrderItem item : standardItems) {
-                standardValue += item.getPriceAtTimeOfOrder() * item.getQuantity();
-            }
-            freeShippingDiscount = getFreeShippingDiscount(standardValue);
+            long standardValue = itemsValueExclVAT(standardItems);
+            freeShippingDiscount = Money.fromFloat(getFreeShippingDiscount(Money.toFloat(standardValue)));
         }
         
         // Calculate rush items
@@ -482,13 +491,14 @@ public class DeliveryCalculationServiceImpl implements IDeliveryCalculationServi
         RegionType regionType = determineRegionType(deliveryInfo);
         float regionMultiplier = getRegionRateMultiplier(regionType);
         if (regionMultiplier != 1.0f) {
-            regionalAdjustment = (standardBaseFee + rushBaseFee) * (regionMultiplier - 1.0f);
+            regionalAdjustment = Money.scale(standardBaseFee + rushBaseFee, regionMultiplier - 1.0f);
         }
         
-        float totalFee = Math.max(0, standardBaseFee - freeShippingDiscount) + rushBaseFee + rushSurcharge;
+        long totalFee = Math.max(0, standardBaseFee - freeShippingDiscount) + rushBaseFee + rushSurcharge;
         
-        return new DeliveryFeeBreakdown(totalFee, standardBaseFee + rushBaseFee,
-                                       regionalAdjustment, rushSurcharge, freeShippingDiscount);
+        return new DeliveryFeeBreakdown(Money.toFloat(totalFee), Money.toFloat(standardBaseFee + rushBaseFee),
+                                       Money.toFloat(regionalAdjustment), Money.toFloat(rushSurcharge),
+                                       Money.toFloat(freeShippingDiscount));
     }
 
     /**
@@ -2,6 +2,7 @@ package com.aims.core.application.impl;
 
 import com.aims.core.application.services.IOperationConstraintService;
 import com.aims.core.application.services.IProductManagerAuditService;
+import com.aims.core.shared.dto.DailyOperationCounts;
 import com.aims.core.shared.exceptions.ValidationException;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -73,45 +74,20 @@ public class OperationConstraintServiceImpl implements IOperationConstraintServi
 
     @Override
     public OperationQuotaStatus getQuotaStatus(String managerId, LocalDate date) throws SQLException {
-        String dateKey = date.format(DateTimeFormatter.ISO_LOCAL_DATE);
-        
-        // Get all operations for the manager on the given date
-        List<String> operations = auditService.getManagerOperations(managerId, dateKey);
-        
-        // Count operations by type
-        int totalOperations = 0;
-        int additionsToday = 0;
-        int editsToday = 0;
-        int deletionsToday = 0;
-        int priceUpdatesTotal = 0;
-        
-        for (String operation : operations) {
-            if (operation.startsWith("ADD_")) {
-                additionsToday++;
-                // Additions don't count toward daily limit
-            } else if (operation.startsWith("EDIT_")) {
-                editsToday++;
-                totalOperations++;
-            } else if (operation.startsWith("DELETE_")) {
-                deletionsToday++;
-                totalOperations++;
-            } else if (operation.startsWith("PRICE_UPDATE_")) {
-                priceUpdatesTotal++;
-                totalOperations++;
-            }
-        }
+        // Operation counts for the manager on the given date (kept in memory for today)
+        DailyOperationCounts counts = auditService.getDailyOperationCounts(managerId, date);
         
         // Check for active edit session
         boolean hasActiveSession = hasActiveEditSession(managerId);
         String activeEditProductId = activeEditSessions.get(managerId);
         
         return new OperationQuotaStatus(
-            totalOperations,
+            counts.limitedOperations(),
             DAILY_OPERATIONS_LIMIT,
-            additionsToday,
-            editsToday,
-            deletionsToday,
-            priceUpdatesTotal,
+            counts.additions(),
+            counts.edits(),
+            counts.deletions(),
+            counts.priceUpdates(),
             hasActiveSession,
             activeEditProductId,
             date
@@ -262,18 +238,9 @@ public class OperationConstraintServiceImpl implements IOperationConstraintServi
      * This integrates with the PriceManagementService constraints.
      */
     public boolean canUpdatePriceForProduct(String managerId, String productId) throws SQLException {
-        String dateKey = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        List<String> operations = auditService.getManagerOperations(managerId, dateKey);
-        
         // Count price updates for this specific product today
-        int priceUpdatesForProduct = 0;
-        String priceUpdatePrefix = "PRICE_UPDATE_" + productId;
-        
-        for (String operation : operations) {
-            if (operation.startsWith(priceUpdatePrefix)) {
-                priceUpdatesForProduct++;
-            }
-        }
+        DailyOperationCounts counts = auditService.getDailyOperationCounts(managerId, LocalDate.now());
+        int priceUpdatesForProduct = counts.priceUpdatesFor(productId);
         
         return priceUpdatesForProduct < MAX_PRICE_UPDATES_PER_PRODUCT_PER_DAY;
     }
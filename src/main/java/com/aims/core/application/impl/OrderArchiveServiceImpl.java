@@ -0,0 +1,195 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IOrderArchiveService;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.dao.IOrderArchiveDAO;
+import com.aims.core.shared.dto.OrderArchiveMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves finished orders older than the cutoff into the per-year archives.
+ *
+ * Each pass archives year by year, oldest first, one batch per transaction,
+ * pausing between batches so that checkout writes are not held up behind a
+ * long archive run. Only orders that can no longer change are moved; orders
+ * waiting for payment, processing or delivery stay in the main database
+ * whatever their age.
+ */
+public class OrderArchiveServiceImpl implements IOrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveServiceImpl.class);
+
+    static final Set<OrderStatus> ARCHIVABLE_STATUSES =
+        EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.REJECTED);
+
+    /**
+     * Archiver tuning. {@link #fromSystemProperties()} reads
+     * {@code -Daims.archive.*} overrides of the defaults.
+     *
+     * @param archiveAfter Age of a finished order before it is archived
+     * @param interval     Delay between background passes
+     * @param batchSize    Orders moved per transaction
+     * @param batchPause   Pause between batches
+     */
+    public record Settings(Duration archiveAfter, Duration interval, int batchSize, Duration batchPause) {
+
+        public static Settings defaults() {
+            return new Settings(Duration.ofDays(365), Duration.ofHours(24), 500, Duration.ofMillis(50));
+        }
+
+        public static Settings fromSystemProperties() {
+            Settings defaults = defaults();
+            return new Settings(
+                Duration.ofDays(Long.getLong("aims.archive.afterDays", defaults.archiveAfter().toDays())),
+                Duration.ofHours(Long.getLong("aims.archive.intervalHours", defaults.interval().toHours())),
+                Integer.getInteger("aims.archive.batchSize", defaults.batchSize()),
+                Duration.ofMillis(Long.getLong("aims.archive.pauseMillis", defaults.batchPause().toMillis())));
+        }
+    }
+
+    private final IOrderArchiveDAO archiveDAO;
+    private final Settings settings;
+    private final Object passLock = new Object();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean stopping;
+
+    // Metrics
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong ordersArchived = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicInteger lastRunOrders = new AtomicInteger();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong maxBatchMillis = new AtomicLong();
+
+    public OrderArchiveServiceImpl(IOrderArchiveDAO archiveDAO, Settings settings) {
+        this.archiveDAO = archiveDAO;
+        this.settings = settings != null ? settings : Settings.defaults();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        stopping = false;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, settings.interval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::runScheduledPass, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Order archiver started: orders finished over {} ago, every {}, {} orders per batch",
+            settings.archiveAfter(), settings.interval(), settings.batchSize());
+    }
+
+    private void runScheduledPass() {
+        try {
+            archiveOrders();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next pass picks up the remaining orders
+            errors.incrementAndGet();
+            logger.error("Order archive pass failed", e);
+        }
+    }
+
+    @Override
+    public int archiveOrders() {
+        // One pass at a time, whether scheduled or run on demand
+        synchronized (passLock) {
+            long passStart = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minus(settings.archiveAfter());
+            int archived = 0;
+            try {
+                List<String> years = archiveDAO.findArchivableYears(cutoff, ARCHIVABLE_STATUSES);
+                for (String year : years) {
+                    int moved;
+                    do {
+                        if (stopping) {
+                            return archived;
+                        }
+                        long batchStart = System.nanoTime();
+                        moved = archiveDAO.archiveBatch(year, cutoff, ARCHIVABLE_STATUSES, settings.batchSize());
+                        maxBatchMillis.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStart), Math::max);
+                        if (moved > 0) {
+                            archived += moved;
+                            ordersArchived.addAndGet(moved);
+                            batches.incrementAndGet();
+                            pause();
+                        }
+                    } while (moved == settings.batchSize());
+                }
+            } catch (SQLException e) {
+                errors.incrementAndGet();
+                logger.error("Order archiving stopped after {} orders: {}", archived, e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.info("Order archiving interrupted after {} orders", archived);
+            } finally {
+                runs.incrementAndGet();
+                lastRunOrders.set(archived);
+                lastRunMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - passStart));
+            }
+            if (archived > 0) {
+                logger.info("Archived {} orders placed before {} in {} ms", archived, cutoff, lastRunMillis.get());
+            }
+            return archived;
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        long millis = settings.batchPause().toMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    @Override
+    public OrderArchiveMetrics getMetrics() {
+        int files;
+        try {
+            files = archiveDAO.getArchiveFiles().size();
+        } catch (SQLException e) {
+            files = -1;
+        }
+        return new OrderArchiveMetrics(runs.get(), ordersArchived.get(), batches.get(), errors.get(),
+            lastRunOrders.get(), lastRunMillis.get(), maxBatchMillis.get(), files);
+    }
+
+    @Override
+    public void shutdown() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        stopping = true;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(10, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Order archiver shut down after {} runs, {} orders archived", runs.get(), ordersArchived.get());
+    }
+}
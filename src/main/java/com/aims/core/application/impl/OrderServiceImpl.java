@@ -6,6 +6,7 @@ import com.aims.core.application.services.ICartService;
 import com.aims.core.application.services.IDeliveryCalculationService;
 import com.aims.core.application.services.INotificationService;
 import com.aims.core.application.services.IPaymentService;
+import com.aims.core.application.services.IPaymentSettlementService;
 import com.aims.core.application.services.IProductService;
 import com.aims.core.application.services.IOrderDataLoaderService;
 import com.aims.core.application.services.IStockValidationService;
@@ -16,6 +17,8 @@ import com.aims.core.enums.TransactionType;
 import com.aims.core.infrastructure.database.dao.*;
 import com.aims.core.shared.exceptions.*;
 import com.aims.core.shared.dto.SearchResult;
+import com.aims.core.shared.dto.SettlementResult;
+import com.aims.core.shared.utils.Money;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -40,6 +43,8 @@ public class OrderServiceImpl implements IOrderService {
     private final IOrderDataLoaderService orderDataLoaderService;
     private final IStockValidationService stockValidationService;
     private final IOrderStateManagementService orderStateManagementService;
+    // Commits the writes of a successful payment together; without it they are committed one by one
+    private IPaymentSettlementService paymentSettlementService;
 
     private static final float VAT_RATE = 0.10f;
 
@@ -73,6 +78,10 @@ public class OrderServiceImpl implements IOrderService {
         this.orderStateManagementService = orderStateManagementService;
     }
 
+    public void setPaymentSettlementService(IPaymentSettlementService paymentSettlementService) {
+        this.paymentSettlementService = paymentSettlementService;
+    }
+
     @Override
     public OrderEntity createOrder(String userId) throws ValidationException {
         if (userId == null || userId.trim().isEmpty()) {
@@ -114,6 +123,8 @@ public class OrderServiceImpl implements IOrderService {
         }
         
         try {
+            // The order is built from the stored cart, so pending cart changes are written first
+            cartService.flushCart(cartSessionId);
             Cart cart = cartService.getCart(cartSessionId);
             if (cart == null) {
                 System.err.println("ORDER CREATION ERROR: Cart is null for session: " + cartSessionId);
@@ -137,7 +148,7 @@ public class OrderServiceImpl implements IOrderService {
                 order.setUserAccount(user);
             }
 
-            float totalProductPriceExclVAT = 0f;
+            long totalProductPriceExclVAT = 0;
             List<OrderItem> orderItems = new ArrayList<>();
 
             for (CartItem cartItem : cart.getItems()) {
@@ -160,11 +171,11 @@ public class OrderServiceImpl implements IOrderService {
                 OrderItem orderItem = new OrderItem(order, product, cartItem.getQuantity(), product.getPrice(), 
                     product.getProductType() != com.aims.core.enums.ProductType.BOOK);
                 orderItems.add(orderItem);
-                totalProductPriceExclVAT += product.getPrice() * cartItem.getQuantity();
+                totalProductPriceExclVAT += Money.times(Money.fromFloat(product.getPrice()), cartItem.getQuantity());
             }
 
-            order.setTotalProductPriceExclVAT(totalProductPriceExclVAT);
-            order.setTotalProductPriceInclVAT(totalProductPriceExclVAT * (1 + VAT_RATE));
+            order.setTotalProductPriceExclVATMinor(totalProductPriceExclVAT);
+            order.setTotalProductPriceInclVATMinor(Money.withVat(totalProductPriceExclVAT));
 
             orderDAO.add(order);
             for (OrderItem item : orderItems) {
@@ -247,6 +258,7 @@ public class OrderServiceImpl implements IOrderService {
                 return cartServiceImpl.getCartWithCompleteProductData(cartSessionId);
             } else {
                 // Fallback to regular cart loading
+                cartService.flushCart(cartSessionId);
                 Cart cart = cartService.getCart(cartSessionId);
                 if (cart == null) {
                     throw new ValidationException("Cart not found for session ID: " + cartSessionId);
@@ -424,25 +436,25 @@ public class OrderServiceImpl implements IOrderService {
      * Enhanced pricing calculations with detailed breakdown
      */
     private void calculateEnhancedPricing(OrderEntity order, List<OrderItem> orderItems) {
-        float totalProductPriceExclVAT = 0f;
+        long totalProductPriceExclVAT = 0;
         
         for (OrderItem item : orderItems) {
-            float itemTotal = item.getPriceAtTimeOfOrder() * item.getQuantity();
+            long itemTotal = Money.times(item.getPriceAtTimeOfOrderMinor(), item.getQuantity());
             totalProductPriceExclVAT += itemTotal;
             
             System.out.println("PRICING: Item " + item.getProduct().getProductId() +
                              " - Unit Price: " + item.getPriceAtTimeOfOrder() +
                              ", Quantity: " + item.getQuantity() +
-                             ", Total: " + itemTotal);
+                             ", Total: " + Money.toFloat(itemTotal));
         }
         
-        float totalProductPriceInclVAT = totalProductPriceExclVAT * (1 + VAT_RATE);
+        long totalProductPriceInclVAT = Money.withVat(totalProductPriceExclVAT);
         
-        order.setTotalProductPriceExclVAT(totalProductPriceExclVAT);
-        order.setTotalProductPriceInclVAT(totalProductPriceInclVAT);
+        order.setTotalProductPriceExclVATMinor(totalProductPriceExclVAT);
+        order.setTotalProductPriceInclVATMinor(totalProductPriceInclVAT);
         
-        System.out.println("PRICING: Total Excl VAT: " + totalProductPriceExclVAT +
-                          ", Total Incl VAT: " + totalProductPriceInclVAT +
+        System.out.println("PRICING: Total Excl VAT: " + Money.toFloat(totalProductPriceExclVAT) +
+                          ", Total Incl VAT: " + Money.toFloat(totalProductPriceInclVAT) +
                           ", VAT Rate: " + (VAT_RATE * 100) + "%");
     }
     
@@ -553,6 +565,18 @@ public class OrderServiceImpl implements IOrderService {
         }
     }
 
+    @Override
+    public List<OrderEntity> getOrdersByUserId(String userId, boolean includeArchived) throws ResourceNotFoundException {
+        if (!includeArchived) {
+            return getOrdersByUserId(userId);
+        }
+        try {
+            return orderDAO.getByUserId(userId, true);
+        } catch (SQLException e) {
+            throw new ResourceNotFoundException("Unable to retrieve orders for user: " + e.getMessage());
+        }
+    }
+
     @Override
     public List<OrderEntity> getOrdersByStatus(OrderStatus status) {
         if (status == null) {
@@ -678,7 +702,7 @@ public class OrderServiceImpl implements IOrderService {
             
             float shippingFee = deliveryCalculationService.calculateShippingFee(order, actualRushOrderApplicable);
             order.setCalculatedDeliveryFee(shippingFee);
-            order.setTotalAmountPaid(order.getTotalProductPriceInclVAT() + shippingFee);
+            order.setTotalAmountPaidMinor(order.getTotalProductPriceInclVATMinor() + order.getCalculatedDeliveryFeeMinor());
             order.setOrderStatus(OrderStatus.PENDING_PAYMENT);
 
             DeliveryInfo existingDeliveryInfo = deliveryInfoDAO.getByOrderId(orderId);
@@ -780,6 +804,21 @@ public class OrderServiceImpl implements IOrderService {
 
             PaymentTransaction paymentTransactionResult = paymentService.processPayment(order, paymentMethodId);
 
+            if (paymentSettlementService != null) {
+                // Transaction record, stock, invoice and order status in one commit
+                SettlementResult settlement = paymentSettlementService.settlePaidOrder(
+                    order, paymentTransactionResult, OrderStatus.PENDING_PROCESSING);
+                if (settlement.outcome() == SettlementResult.Outcome.INSUFFICIENT_STOCK) {
+                    System.err.println("CRITICAL: Payment succeeded but failed to update stock for product " +
+                        settlement.productId() + ". Order " + orderId + " marked PAYMENT_FAILED.");
+                    throw new ValidationException("Payment successful, but stock update failed. Please contact support.");
+                }
+                // ALREADY_SETTLED: a gateway notification settled the order first and created the invoice
+                Invoice invoice = order.getInvoice() != null ? order.getInvoice() : invoiceDAO.getByOrderId(orderId);
+                notificationService.sendOrderConfirmationEmail(order, invoice, paymentTransactionResult);
+                return;
+            }
+
             // Update product stock
             for (OrderItem item : order.getOrderItems()) {
                 try {
@@ -20,6 +20,7 @@ import com.aims.core.infrastructure.database.dao.IInvoiceDAO;
 import com.aims.core.infrastructure.database.dao.IPaymentTransactionDAO;
 import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
+import com.aims.core.shared.utils.Money;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -701,21 +702,20 @@ public class OrderValidationServiceImpl implements IOrderValidationService {
      * Validate amount calculations consistency
      */
     private void validateAmountConsistency(OrderEntity order) throws ValidationException {
-        float calculatedExclVAT = 0f;
+        // Totals are computed in minor units, so they must match to the cent
+        long calculatedExclVAT = 0;
         for (OrderItem item : order.getOrderItems()) {
-            calculatedExclVAT += item.getPriceAtTimeOfOrder() * item.getQuantity();
+            calculatedExclVAT += Money.times(item.getPriceAtTimeOfOrderMinor(), item.getQuantity());
         }
         
-        float tolerance = 0.01f; // Allow small floating point differences
-        if (Math.abs(order.getTotalProductPriceExclVAT() - calculatedExclVAT) > tolerance) {
-            throw new ValidationException("Product price calculation inconsistency detected. Expected: " + calculatedExclVAT +
+        if (order.getTotalProductPriceExclVATMinor() != calculatedExclVAT) {
+            throw new ValidationException("Product price calculation inconsistency detected. Expected: " + Money.toFloat(calculatedExclVAT) +
                                         ", but order shows: " + order.getTotalProductPriceExclVAT() +
                                         ". Please refresh your cart and try again.");
         }
         
         // Validate VAT calculation (10% VAT)
-        float expectedInclVAT = calculatedExclVAT * 1.10f;
-        if (Math.abs(order.getTotalProductPriceInclVAT() - expectedInclVAT) > tolerance) {
+        if (order.getTotalProductPriceInclVATMinor() != Money.withVat(calculatedExclVAT)) {
             throw new ValidationException("VAT calculation inconsistency detected. Please refresh your cart and try again.");
         }
     }
@@ -0,0 +1,417 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IPaymentReconciliationService;
+import com.aims.core.application.services.IPaymentSettlementService;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.adapters.external.payment_gateway.IPaymentGatewayAdapter;
+import com.aims.core.infrastructure.database.dao.IJobCheckpointDAO;
+import com.aims.core.infrastructure.database.dao.IPaymentTransactionDAO;
+import com.aims.core.shared.dto.PaymentReconciliationMetrics;
+import com.aims.core.shared.dto.PaymentStatusUpdate;
+import com.aims.core.shared.dto.SettlementResult;
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves payments left pending because the gateway result never reached us.
+ *
+ * Each pass walks the pending PAYMENT transactions older than the stale age
+ * in transaction ID order (a partial index holds only pending rows), one batch
+ * at a time. Every batch is queried with asynchronous gateway calls, at most
+ * {@code maxConcurrency} in flight and no more than {@code maxQueriesPerSecond}
+ * started. Paid results are settled per order (transaction, stock, invoice
+ * and order status together); failed, cancelled and expired results are
+ * written in one batched status update. The position is saved after every
+ * batch, so a pass resumes after a restart instead of starting over.
+ *
+ * Payments the gateway still reports as incomplete stay pending until they
+ * are older than the expiry age, then they are marked FAILED. Their orders
+ * stay PENDING_PAYMENT, so the customer can pay again. Failed queries are
+ * retried in the next pass.
+ */
+public class PaymentReconciliationServiceImpl implements IPaymentReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationServiceImpl.class);
+
+    static final String JOB_NAME = "payment-reconciliation";
+
+    /**
+     * Reconciler tuning. {@link #fromSystemProperties()} reads
+     * {@code -Daims.payment.reconcile.*} overrides of the defaults.
+     *
+     * @param staleAfter          Age after which a pending payment is queried (VNPay payment URLs expire after 15 minutes)
+     * @param expireAfter         Age after which a payment the gateway still reports as incomplete is marked FAILED
+     * @param interval            Delay between background passes
+     * @param batchSize           Pending payments read and applied per batch
+     * @param maxConcurrency      Gateway queries in flight at once
+     * @param maxQueriesPerSecond Gateway queries started per second; 0 for no limit
+     */
+    public record Settings(Duration staleAfter, Duration expireAfter, Duration interval,
+                           int batchSize, int maxConcurrency, double maxQueriesPerSecond) {
+
+        public static Settings defaults() {
+            return new Settings(Duration.ofMinutes(20), Duration.ofHours(1), Duration.ofMinutes(1), 100, 4, 10);
+        }
+
+        public static Settings fromSystemProperties() {
+            Settings defaults = defaults();
+            return new Settings(
+                Duration.ofMinutes(Long.getLong("aims.payment.reconcile.staleAfterMinutes", defaults.staleAfter().toMinutes())),
+                Duration.ofMinutes(Long.getLong("aims.payment.reconcile.expireAfterMinutes", defaults.expireAfter().toMinutes())),
+                Duration.ofSeconds(Long.getLong("aims.payment.reconcile.intervalSeconds", defaults.interval().toSeconds())),
+                Integer.getInteger("aims.payment.reconcile.batchSize", defaults.batchSize()),
+                Integer.getInteger("aims.payment.reconcile.concurrency", defaults.maxConcurrency()),
+                Double.parseDouble(System.getProperty("aims.payment.reconcile.queriesPerSecond",
+                    String.valueOf(defaults.maxQueriesPerSecond()))));
+        }
+    }
+
+    /**
+     * A gateway query result; status is null when the query failed.
+     */
+    private record QueryResult(PaymentTransaction transaction, String status, Map<String, String> response, Throwable error) {
+    }
+
+    private final IPaymentTransactionDAO transactionDAO;
+    private final IJobCheckpointDAO checkpointDAO;
+    private final IPaymentGatewayAdapter gatewayAdapter;
+    private final IPaymentSettlementService settlementService;
+    private final Settings settings;
+    private final Semaphore inFlight;
+    private final Object passLock = new Object();
+    private final long permitIntervalNanos;
+    private final Gson gson = new Gson();
+    private long nextPermitNanos;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean stopping;
+
+    // Metrics
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong queried = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong stillPending = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong totalQueryNanos = new AtomicLong();
+    private final AtomicLong maxQueryNanos = new AtomicLong();
+    private final AtomicLong lastPassMillis = new AtomicLong();
+    private final AtomicLong maxResolutionLagMillis = new AtomicLong();
+    private volatile String checkpoint;
+
+    /**
+     * @param settlementService Settles paid results; when null they are only recorded as SUCCESS
+     */
+    public PaymentReconciliationServiceImpl(IPaymentTransactionDAO transactionDAO, IJobCheckpointDAO checkpointDAO,
+                                            IPaymentGatewayAdapter gatewayAdapter,
+                                            IPaymentSettlementService settlementService, Settings settings) {
+        this.transactionDAO = transactionDAO;
+        this.checkpointDAO = checkpointDAO;
+        this.gatewayAdapter = gatewayAdapter;
+        this.settlementService = settlementService;
+        this.settings = settings != null ? settings : Settings.defaults();
+        this.inFlight = new Semaphore(Math.max(1, this.settings.maxConcurrency()));
+        this.permitIntervalNanos = this.settings.maxQueriesPerSecond() > 0
+            ? (long) (TimeUnit.SECONDS.toNanos(1) / this.settings.maxQueriesPerSecond()) : 0;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        stopping = false;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "payment-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, settings.interval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::runScheduledPass, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Payment reconciler started: stale after {}, every {}, {} queries in flight, {} queries/s",
+            settings.staleAfter(), settings.interval(), settings.maxConcurrency(), settings.maxQueriesPerSecond());
+    }
+
+    private void runScheduledPass() {
+        try {
+            reconcilePendingPayments();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next pass retries from the checkpoint
+            errors.incrementAndGet();
+            logger.error("Payment reconciliation pass failed", e);
+        }
+    }
+
+    @Override
+    public int reconcilePendingPayments() {
+        // One pass at a time, whether scheduled or run on demand
+        synchronized (passLock) {
+            long passStart = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minus(settings.staleAfter());
+            int resolved = 0;
+            try {
+                backlog.set(transactionDAO.countStalePendingPayments(cutoff));
+                String position = checkpointDAO.getPosition(JOB_NAME);
+                checkpoint = position;
+                while (!stopping) {
+                    List<PaymentTransaction> batch = transactionDAO.getStalePendingPayments(cutoff, position, settings.batchSize());
+                    if (!batch.isEmpty()) {
+                        resolved += reconcileBatch(batch, now);
+                        position = batch.get(batch.size() - 1).getTransactionId();
+                    }
+                    if (batch.size() < settings.batchSize()) {
+                        // End of the pending rows: the next pass starts from the first one again
+                        position = null;
+                    }
+                    checkpointDAO.savePosition(JOB_NAME, position);
+                    checkpoint = position;
+                    if (position == null) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                errors.incrementAndGet();
+                logger.error("Payment reconciliation stopped at checkpoint {}: {}", checkpoint, e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.info("Payment reconciliation interrupted at checkpoint {}", checkpoint);
+            } finally {
+                passes.incrementAndGet();
+                lastPassMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - passStart));
+            }
+            if (resolved > 0) {
+                logger.info("Payment reconciliation resolved {} of {} stale pending payments in {} ms",
+                    resolved, backlog.get(), lastPassMillis.get());
+            }
+            return resolved;
+        }
+    }
+
+    private int reconcileBatch(List<PaymentTransaction> batch, LocalDateTime now) throws SQLException, InterruptedException {
+        List<CompletableFuture<QueryResult>> calls = new ArrayList<>(batch.size());
+        for (PaymentTransaction transaction : batch) {
+            calls.add(query(transaction));
+        }
+
+        int resolved = 0;
+        List<PaymentStatusUpdate> updates = new ArrayList<>();
+        for (CompletableFuture<QueryResult> call : calls) {
+            QueryResult result = call.join();
+            PaymentTransaction transaction = result.transaction();
+            if (result.status() == null) {
+                errors.incrementAndGet();
+                logger.warn("Status query for payment {} failed, retrying next pass: {}",
+                    transaction.getTransactionId(), result.error() != null ? result.error().getMessage() : "no status");
+                continue;
+            }
+            boolean expired = transaction.getTransactionDateTime().isBefore(now.minus(settings.expireAfter()));
+            switch (result.status()) {
+                case "SUCCESS":
+                    if (settle(transaction, result.response())) {
+                        resolved++;
+                        recordResolution(transaction, now);
+                    }
+                    break;
+                case "PENDING":
+                    stillPending.incrementAndGet();
+                    if (expired) {
+                        updates.add(update(transaction, "FAILED", "EXPIRED", result.response()));
+                        recordResolution(transaction, now);
+                    }
+                    break;
+                default:
+                    updates.add(update(transaction, result.status(), result.status(), result.response()));
+                    recordResolution(transaction, now);
+                    break;
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            int updated = transactionDAO.updateStatusAndGatewayData(updates);
+            failed.addAndGet(updated);
+            resolved += updated;
+        }
+        return resolved;
+    }
+
+    private CompletableFuture<QueryResult> query(PaymentTransaction transaction) throws InterruptedException {
+        String gatewayReference = transaction.getExternalTransactionId();
+        if (gatewayReference == null || gatewayReference.isBlank()) {
+            // No payment URL was ever issued, so the gateway has nothing to report; only expiry resolves it
+            return CompletableFuture.completedFuture(new QueryResult(transaction, "PENDING", null, null));
+        }
+
+        awaitRatePermit();
+        inFlight.acquire();
+        long start = System.nanoTime();
+        CompletableFuture<Map<String, String>> call;
+        try {
+            call = gatewayAdapter.queryTransactionStatusAsync(gatewayReference,
+                transaction.getOrder().getOrderId(), transaction.getTransactionDateTime());
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((response, error) -> {
+            inFlight.release();
+            long elapsed = System.nanoTime() - start;
+            queried.incrementAndGet();
+            totalQueryNanos.addAndGet(elapsed);
+            maxQueryNanos.accumulateAndGet(elapsed, Math::max);
+            if (error != null) {
+                return new QueryResult(transaction, null, null, error.getCause() != null ? error.getCause() : error);
+            }
+            return new QueryResult(transaction, statusOf(transaction, response), response, null);
+        });
+    }
+
+    // Spaces query starts evenly; only the pass thread calls it
+    private void awaitRatePermit() throws InterruptedException {
+        if (permitIntervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        nextPermitNanos = Math.max(nextPermitNanos, now);
+        long wait = nextPermitNanos - now;
+        nextPermitNanos += permitIntervalNanos;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Payment status from a query response: SUCCESS, PENDING, FAILED or
+     * CANCELLED, or null when the response cannot be trusted.
+     */
+    private String statusOf(PaymentTransaction transaction, Map<String, String> response) {
+        String status;
+        String transactionStatus = response.get("vnp_TransactionStatus");
+        if (transactionStatus != null) {
+            // VNPay querydr: 00 paid, 01 not completed yet, anything else failed or reversed
+            status = switch (transactionStatus) {
+                case "00" -> "SUCCESS";
+                case "01" -> "PENDING";
+                default -> "FAILED";
+            };
+        } else {
+            String responseCode = response.getOrDefault("vnp_ResponseCode", response.get("responseCode"));
+            if (responseCode == null) {
+                return null;
+            }
+            status = gatewayAdapter.mapResponseCodeToStatus(responseCode);
+        }
+
+        String amount = response.get("vnp_Amount");
+        if ("SUCCESS".equals(status) && amount != null
+                && !amount.equals(String.valueOf(transaction.getAmountMinor()))) {
+            // Never settle an order on a payment of a different amount
+            logger.error("Payment {} reported paid with amount {} but {} was expected; left pending",
+                transaction.getTransactionId(), amount, transaction.getAmountMinor());
+            return null;
+        }
+        return status;
+    }
+
+    private boolean settle(PaymentTransaction transaction, Map<String, String> response) throws SQLException {
+        transaction.setTransactionStatus("SUCCESS");
+        transaction.setGatewayResponseData(gatewayData("SUCCESS", response));
+        if (settlementService == null) {
+            int updated = transactionDAO.updateStatusAndGatewayData(List.of(
+                new PaymentStatusUpdate(transaction.getTransactionId(), "SUCCESS", null, transaction.getGatewayResponseData())));
+            settled.addAndGet(updated);
+            return updated > 0;
+        }
+        try {
+            SettlementResult result = settlementService.settlePaidOrder(transaction.getOrder(), transaction,
+                OrderStatus.PENDING_PROCESSING);
+            settled.incrementAndGet();
+            if (result.outcome() == SettlementResult.Outcome.INSUFFICIENT_STOCK) {
+                logger.warn("Reconciled payment {} for order {} could not be fulfilled: product {} is short of stock; refund required",
+                    transaction.getTransactionId(), transaction.getOrder().getOrderId(), result.productId());
+            }
+            return true;
+        } catch (SQLException e) {
+            errors.incrementAndGet();
+            logger.error("Settling reconciled payment {} failed, retrying next pass: {}",
+                transaction.getTransactionId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private PaymentStatusUpdate update(PaymentTransaction transaction, String status, String reason, Map<String, String> response) {
+        return new PaymentStatusUpdate(transaction.getTransactionId(), status, null, gatewayData(reason, response));
+    }
+
+    private String gatewayData(String reason, Map<String, String> response) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("reconciledAt", LocalDateTime.now().toString());
+        data.put("reason", reason);
+        if (response != null) {
+            data.put("response", response);
+        }
+        return gson.toJson(data);
+    }
+
+    private void recordResolution(PaymentTransaction transaction, LocalDateTime now) {
+        long lagMillis = Duration.between(transaction.getTransactionDateTime(), now).toMillis();
+        maxResolutionLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    @Override
+    public PaymentReconciliationMetrics getMetrics() {
+        long queryCount = queried.get();
+        return new PaymentReconciliationMetrics(backlog.get(), passes.get(), queryCount, settled.get(), failed.get(),
+            stillPending.get(), errors.get(),
+            queryCount > 0 ? totalQueryNanos.get() / (double) queryCount / 1_000_000.0 : 0.0,
+            TimeUnit.NANOSECONDS.toMillis(maxQueryNanos.get()), lastPassMillis.get(),
+            maxResolutionLagMillis.get(), checkpoint);
+    }
+
+    public String getStatisticsSummary() {
+        PaymentReconciliationMetrics metrics = getMetrics();
+        return String.format("backlog=%d, passes=%d, queried=%d, settled=%d, failed=%d, stillPending=%d, errors=%d, avgQuery=%.1fms, maxQuery=%dms, lastPass=%dms",
+            metrics.backlog(), metrics.passes(), metrics.queried(), metrics.settled(), metrics.failed(),
+            metrics.stillPending(), metrics.errors(), metrics.averageQueryMillis(), metrics.maxQueryMillis(),
+            metrics.lastPassMillis());
+    }
+
+    @Override
+    public void shutdown() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        stopping = true;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(10, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Payment reconciler shut down: {}", getStatisticsSummary());
+    }
+}
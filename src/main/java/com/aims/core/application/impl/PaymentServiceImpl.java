@@ -17,6 +17,8 @@ import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.infrastructure.database.dao.IOrderEntityDAO;
 import com.aims.core.application.services.IOrderValidationService;
+import com.aims.core.application.services.IPaymentSettlementService;
+import com.aims.core.enums.OrderStatus;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -317,7 +319,12 @@ public class PaymentServiceImpl implements IPaymentService {
             transaction.setExternalTransactionId(gatewayTransactionRef);
             
             // Update in database
-            paymentTransactionDAO.updateStatus(transaction.getTransactionId(), newStatus, gatewayTransactionRef);
+            if ("SUCCESS".equals(newStatus) && paymentSettlementService != null && transaction.getOrder() != null) {
+                // Transaction record, stock, invoice and order status in one commit
+                paymentSettlementService.settlePaidOrder(transaction.getOrder(), transaction, OrderStatus.PENDING_PROCESSING);
+            } else {
+                paymentTransactionDAO.updateStatus(transaction.getTransactionId(), newStatus, gatewayTransactionRef);
+            }
             
             return transaction;
             
@@ -441,7 +448,7 @@ public class PaymentServiceImpl implements IPaymentService {
         transaction.setOrder(order);
         transaction.setPaymentMethod(method);
         transaction.setTransactionType(TransactionType.PAYMENT);
-        transaction.setAmount(order.getTotalAmountPaid());
+        transaction.setAmountMinor(order.getTotalAmountPaidMinor());
         transaction.setTransactionDateTime(LocalDateTime.now());
         transaction.setTransactionStatus("PENDING_GATEWAY");
         return transaction;
@@ -497,4 +504,10 @@ public class PaymentServiceImpl implements IPaymentService {
     public void setOrderDAO(IOrderEntityDAO orderDAO) {
         this.orderDAO = orderDAO;
     }
+
+    // Settles successful gateway callbacks; without it only the transaction status is updated
+    private IPaymentSettlementService paymentSettlementService;
+    public void setPaymentSettlementService(IPaymentSettlementService paymentSettlementService) {
+        this.paymentSettlementService = paymentSettlementService;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IPaymentSettlementService;
+import com.aims.core.entities.Invoice;
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.entities.OrderItem;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.dao.IOrderItemDAO;
+import com.aims.core.infrastructure.database.dao.IPaymentSettlementDAO;
+import com.aims.core.shared.dto.PaymentSettlement;
+import com.aims.core.shared.dto.SettlementResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class PaymentSettlementServiceImpl implements IPaymentSettlementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementServiceImpl.class);
+
+    private final IPaymentSettlementDAO settlementDAO;
+    private final IOrderItemDAO orderItemDAO;
+
+    public PaymentSettlementServiceImpl(IPaymentSettlementDAO settlementDAO, IOrderItemDAO orderItemDAO) {
+        this.settlementDAO = settlementDAO;
+        this.orderItemDAO = orderItemDAO;
+    }
+
+    @Override
+    public SettlementResult settlePaidOrder(OrderEntity order, PaymentTransaction transaction, OrderStatus paidStatus)
+            throws SQLException {
+        String orderId = order.getOrderId();
+        List<OrderItem> items = order.getOrderItems();
+        if (items == null || items.isEmpty()) {
+            items = orderItemDAO.getItemsByOrderId(orderId);
+        }
+
+        // One decrement per product, even if it appears on several lines
+        Map<String, Integer> decrements = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            if (item.getProduct() != null && item.getQuantity() > 0) {
+                decrements.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+
+        float invoicedAmount = order.getTotalAmountPaid() > 0 ? order.getTotalAmountPaid() : transaction.getAmount();
+        Invoice invoice = new Invoice("INV-" + orderId, order, LocalDateTime.now(), invoicedAmount);
+
+        SettlementResult result = settlementDAO.settle(new PaymentSettlement(transaction, orderId, paidStatus, decrements, invoice));
+        switch (result.outcome()) {
+            case SETTLED:
+                order.setOrderStatus(paidStatus);
+                order.setInvoice(invoice);
+                logger.info("Order {} settled: {} products, invoice {}", orderId, decrements.size(), invoice.getInvoiceId());
+                break;
+            case ALREADY_SETTLED:
+                if (result.orderStatus() != null) {
+                    order.setOrderStatus(result.orderStatus());
+                }
+                logger.info("Order {} was already settled ({}); recorded transaction {}",
+                    orderId, result.orderStatus(), transaction.getTransactionId());
+                break;
+            case INSUFFICIENT_STOCK:
+                logger.error("Payment for order {} succeeded but product {} is short of stock; marking the order {}",
+                    orderId, result.productId(), OrderStatus.PAYMENT_FAILED);
+                settlementDAO.settle(new PaymentSettlement(transaction, orderId, OrderStatus.PAYMENT_FAILED, Map.of(), null));
+                order.setOrderStatus(OrderStatus.PAYMENT_FAILED);
+                break;
+        }
+        return result;
+    }
+
+    @Override
+    public void recordFailedPayment(PaymentTransaction transaction, OrderStatus failedStatus) throws SQLException {
+        String orderId = transaction.getOrder().getOrderId();
+        SettlementResult result = settlementDAO.settle(new PaymentSettlement(transaction, orderId, failedStatus, Map.of(), null));
+        if (result.outcome() == SettlementResult.Outcome.SETTLED) {
+            transaction.getOrder().setOrderStatus(failedStatus);
+        } else if (result.orderStatus() != null) {
+            // A failed retry of an order that was paid or cancelled meanwhile leaves it as it is
+            logger.info("Order {} is already {}; recorded failed transaction {}",
+                orderId, result.orderStatus(), transaction.getTransactionId());
+            transaction.getOrder().setOrderStatus(result.orderStatus());
+        }
+    }
+}
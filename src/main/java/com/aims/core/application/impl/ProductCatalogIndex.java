@@ -0,0 +1,519 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.events.ProductChangeBus;
+import com.aims.core.shared.events.ProductChangeEvent;
+import com.aims.core.shared.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of the catalogue for filtering and sorting without the database.
+ *
+ * The index keeps one slot per product with its price in minor units
+ * (hundredths, excluding VAT), stock, entry date as an epoch day and type,
+ * plus the slots sorted by each sort key and bitsets of in-stock, per-type and
+ * per-category membership. A query ANDs the bitsets, narrows the price range
+ * by binary search on the price order, then walks the requested order to the
+ * page; only the page's product IDs leave the index, for the caller to load.
+ *
+ * It is loaded from PRODUCT by {@link #start()} and follows the writes
+ * published on the {@link ProductChangeBus}: stock changes and deletes are
+ * applied from the event, created and updated products are re-read. The bus
+ * only publishes a write once it has committed, and the re-read runs without
+ * the index lock, so queries are not held up by the database. Events are
+ * applied in the background as they arrive, and any still pending are applied
+ * before a query, so a query never misses a write the bus has seen. Slot
+ * orders are rebuilt on the first query after a change. Like the catalogue
+ * response cache, writes by another process sharing the database are only seen
+ * after {@link #reload()}.
+ */
+public class ProductCatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogIndex.class);
+
+    private static final int NO_ENTRY_DAY = Integer.MIN_VALUE;
+
+    /**
+     * Sort keys, with the same names and default as the database search.
+     */
+    public enum SortKey {
+        TITLE, PRICE, CATEGORY, ENTRY_DATE, QUANTITY;
+
+        /**
+         * Maps a requested sort field (title, price, category, entryDate,
+         * quantity) to its key, TITLE for unknown ones.
+         */
+        public static SortKey fromString(String sortBy) {
+            if (sortBy == null) {
+                return TITLE;
+            }
+            switch (sortBy.trim().toLowerCase()) {
+                case "price":
+                    return PRICE;
+                case "category":
+                    return CATEGORY;
+                case "entrydate":
+                    return ENTRY_DATE;
+                case "quantity":
+                    return QUANTITY;
+                default:
+                    return TITLE;
+            }
+        }
+    }
+
+    /**
+     * A filtered, sorted page request.
+     *
+     * @param minPriceMinor Lowest price in minor units (excluding VAT), or null for no bound
+     * @param maxPriceMinor Highest price in minor units (excluding VAT), or null for no bound
+     * @param inStockOnly   Only products with stock
+     * @param type          Product type, or null for all
+     * @param category      Exact category, or null for all
+     * @param sortKey       Order of the results
+     * @param descending    Whether the order is reversed
+     * @param offset        Matches to skip
+     * @param limit         Maximum product IDs returned
+     */
+    public record Query(Long minPriceMinor, Long maxPriceMinor, boolean inStockOnly, ProductType type, String category,
+                        SortKey sortKey, boolean descending, int offset, int limit) {
+
+        public Query {
+            sortKey = sortKey != null ? sortKey : SortKey.TITLE;
+            offset = Math.max(0, offset);
+            limit = Math.max(0, limit);
+        }
+    }
+
+    /**
+     * @param productIds   The page's product IDs, in order
+     * @param totalMatches Products matching the filters
+     */
+    public record Page(List<String> productIds, int totalMatches) {
+    }
+
+    private record Row(String productId, String title, String category, ProductType type,
+                       long priceMinor, int stock, int entryDay) {
+
+        static Row of(Product product) {
+            return new Row(product.getProductId(), product.getTitle(), product.getCategory(), product.getProductType(),
+                Money.fromFloat(product.getPrice()), product.getQuantityInStock(),
+                product.getEntryDate() != null ? (int) product.getEntryDate().toEpochDay() : NO_ENTRY_DAY);
+        }
+
+        Row withStock(int newStock) {
+            return new Row(productId, title, category, type, priceMinor, newStock, entryDay);
+        }
+    }
+
+    private final IProductDAO productDAO;
+    private final ProductChangeBus changeBus;
+    private final Object lock = new Object();
+    // Serializes reloads and catch-ups, which read the database without holding lock
+    private final Object updateLock = new Object();
+    // Guarded by lock
+    private final Map<String, Row> rows = new LinkedHashMap<>();
+    // Set under lock when rows change; the next query rebuilds the snapshot
+    private volatile boolean dirty = true;
+    private volatile long appliedSequence;
+    private volatile boolean loaded;
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+    private ProductChangeBus.Subscription subscription;
+
+    public ProductCatalogIndex(IProductDAO productDAO, ProductChangeBus changeBus) {
+        this.productDAO = productDAO;
+        this.changeBus = changeBus;
+    }
+
+    /**
+     * An index of a fixed list of products that does not follow changes, for
+     * callers without a started index.
+     */
+    public static ProductCatalogIndex of(Collection<? extends Product> products) {
+        ProductCatalogIndex index = new ProductCatalogIndex(null, null);
+        synchronized (index.lock) {
+            for (Product product : products) {
+                index.rows.put(product.getProductId(), Row.of(product));
+            }
+            index.loaded = true;
+        }
+        return index;
+    }
+
+    /**
+     * Subscribes to product changes and loads the catalogue. Calling it again
+     * has no effect.
+     *
+     * @throws SQLException If the catalogue cannot be read; the index stays
+     *                      unloaded and a later query or {@link #reload()} retries
+     */
+    public void start() throws SQLException {
+        synchronized (lock) {
+            if (subscription == null) {
+                subscription = changeBus.subscribe(event -> catchUp());
+            }
+        }
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Replaces the index contents with the current PRODUCT table.
+     */
+    public void reload() throws SQLException {
+        synchronized (updateLock) {
+            long sequence = changeBus.getLatestSequence();
+            List<Product> products = productDAO.getAll();
+            synchronized (lock) {
+                rows.clear();
+                for (Product product : products) {
+                    rows.put(product.getProductId(), Row.of(product));
+                }
+                // Events after this position may or may not be in the rows read; applying them again is harmless
+                appliedSequence = sequence;
+                dirty = true;
+                loaded = true;
+            }
+            logger.info("Product catalogue index loaded: {} products", products.size());
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return the number of products indexed
+     */
+    public int size() {
+        return current().size;
+    }
+
+    /**
+     * Runs a query against the index.
+     *
+     * @throws SQLException If the index is not loaded yet and loading it fails
+     */
+    public Page query(Query query) throws SQLException {
+        if (!loaded) {
+            reload();
+        }
+        catchUp();
+        return current().query(query);
+    }
+
+    /**
+     * Stops following product changes.
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            if (subscription != null) {
+                subscription.close();
+                subscription = null;
+            }
+        }
+    }
+
+    /**
+     * Applies the bus events published since the last one applied.
+     */
+    private void catchUp() {
+        if (changeBus == null || changeBus.getLatestSequence() <= appliedSequence) {
+            return;
+        }
+        synchronized (updateLock) {
+            if (!loaded) {
+                return;
+            }
+            try {
+                List<ProductChangeEvent> events = changeBus.getEventsSince(appliedSequence);
+                if (events == null) {
+                    logger.info("Product changes since {} are no longer retained; reloading the catalogue index", appliedSequence);
+                    reload();
+                    return;
+                }
+                apply(events);
+            } catch (SQLException e) {
+                // Left at the last applied position, so the next query retries
+                logger.warn("Could not apply product changes to the catalogue index: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds updateLock, so appliedSequence only moves here
+    private void apply(List<ProductChangeEvent> events) throws SQLException {
+        // Created and updated products are re-read once, after the cheaper changes are applied
+        Set<String> reread = new LinkedHashSet<>();
+        long lastSequence = appliedSequence;
+        synchronized (lock) {
+            for (ProductChangeEvent event : events) {
+                if (event.sequence() <= appliedSequence) {
+                    continue;
+                }
+                String productId = event.productId();
+                switch (event.type()) {
+                    case DELETE:
+                        rows.remove(productId);
+                        reread.remove(productId);
+                        break;
+                    case STOCK:
+                        Row row = rows.get(productId);
+                        if (row != null && event.quantityInStock() != null) {
+                            rows.put(productId, row.withStock(event.quantityInStock()));
+                        } else {
+                            reread.add(productId);
+                        }
+                        break;
+                    default:
+                        reread.add(productId);
+                        break;
+                }
+                lastSequence = event.sequence();
+            }
+            dirty = true;
+        }
+        if (!reread.isEmpty()) {
+            // Read without the lock: the events were published after their writes committed
+            Map<String, Product> current = new HashMap<>();
+            for (Product product : productDAO.getByIds(reread)) {
+                current.put(product.getProductId(), product);
+            }
+            synchronized (lock) {
+                for (String productId : reread) {
+                    Product product = current.get(productId);
+                    if (product != null) {
+                        rows.put(productId, Row.of(product));
+                    } else {
+                        rows.remove(productId);
+                    }
+                }
+                dirty = true;
+            }
+        }
+        appliedSequence = lastSequence;
+    }
+
+    private Snapshot current() {
+        if (!dirty) {
+            return snapshot;
+        }
+        synchronized (lock) {
+            if (dirty) {
+                long startedAt = System.nanoTime();
+                snapshot = Snapshot.build(new ArrayList<>(rows.values()));
+                dirty = false;
+                logger.debug("Product catalogue index rebuilt: {} products in {} µs", snapshot.size,
+                    (System.nanoTime() - startedAt) / 1000);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Immutable columns and orders of one version of the catalogue.
+     */
+    private static final class Snapshot {
+        final int size;
+        final String[] productIds;
+        final long[] prices;
+        final int[] byTitle;
+        final int[] byPrice;
+        final int[] byCategory;
+        final int[] byEntryDate;
+        final int[] byQuantity;
+        final BitSet all;
+        final BitSet inStock;
+        final BitSet[] byType;
+        final Map<String, BitSet> categories;
+
+        private Snapshot(List<Row> rows) {
+            size = rows.size();
+            productIds = new String[size];
+            prices = new long[size];
+            long[] stocks = new long[size];
+            long[] entryDays = new long[size];
+            String[] titles = new String[size];
+            String[] categoryNames = new String[size];
+            all = new BitSet(size);
+            all.set(0, size);
+            inStock = new BitSet(size);
+            byType = new BitSet[ProductType.values().length];
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] = new BitSet(size);
+            }
+            categories = new HashMap<>();
+
+            for (int slot = 0; slot < size; slot++) {
+                Row row = rows.get(slot);
+                productIds[slot] = row.productId();
+                prices[slot] = row.priceMinor();
+                stocks[slot] = row.stock();
+                entryDays[slot] = row.entryDay();
+                titles[slot] = row.title();
+                categoryNames[slot] = row.category();
+                if (row.stock() > 0) {
+                    inStock.set(slot);
+                }
+                if (row.type() != null) {
+                    byType[row.type().ordinal()].set(slot);
+                }
+                if (row.category() != null) {
+                    categories.computeIfAbsent(row.category(), c -> new BitSet(size)).set(slot);
+                }
+            }
+            byTitle = sortedSlots(ranks(titles));
+            byPrice = sortedSlots(prices);
+            byCategory = sortedSlots(ranks(categoryNames));
+            byEntryDate = sortedSlots(entryDays);
+            byQuantity = sortedSlots(stocks);
+        }
+
+        static Snapshot build(List<Row> rows) {
+            return new Snapshot(rows);
+        }
+
+        Page query(Query query) {
+            BitSet filter = (BitSet) (query.inStockOnly() ? inStock : all).clone();
+            if (query.type() != null) {
+                filter.and(byType[query.type().ordinal()]);
+            }
+            if (query.category() != null) {
+                BitSet members = categories.get(query.category());
+                if (members == null) {
+                    return new Page(List.of(), 0);
+                }
+                filter.and(members);
+            }
+
+            // Positions [from, to) of byPrice hold the prices within the range
+            int from = query.minPriceMinor() != null ? lowerBound(query.minPriceMinor()) : 0;
+            int to = query.maxPriceMinor() != null ? lowerBound(query.maxPriceMinor() + 1) : size;
+            if (from >= to) {
+                return new Page(List.of(), 0);
+            }
+            int[] order;
+            if (query.sortKey() == SortKey.PRICE) {
+                order = byPrice;
+            } else {
+                if (from > 0 || to < size) {
+                    BitSet inRange = new BitSet(size);
+                    for (int i = from; i < to; i++) {
+                        inRange.set(byPrice[i]);
+                    }
+                    filter.and(inRange);
+                }
+                order = orderOf(query.sortKey());
+                from = 0;
+                to = size;
+            }
+
+            List<String> page = new ArrayList<>(Math.min(query.limit(), size));
+            int matches = 0;
+            for (int i = 0; i < to - from; i++) {
+                int slot = order[query.descending() ? to - 1 - i : from + i];
+                if (!filter.get(slot)) {
+                    continue;
+                }
+                if (matches >= query.offset() && page.size() < query.limit()) {
+                    page.add(productIds[slot]);
+                }
+                matches++;
+            }
+            return new Page(page, matches);
+        }
+
+        private int[] orderOf(SortKey sortKey) {
+            switch (sortKey) {
+                case PRICE:
+                    return byPrice;
+                case CATEGORY:
+                    return byCategory;
+                case ENTRY_DATE:
+                    return byEntryDate;
+                case QUANTITY:
+                    return byQuantity;
+                default:
+                    return byTitle;
+            }
+        }
+
+        /**
+         * @return the first position in byPrice whose price is at least {@code price}
+         */
+        private int lowerBound(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[byPrice[mid]] < price) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Replaces strings by their rank in sorted order; null ranks first, as in SQLite.
+         */
+        private static long[] ranks(String[] values) {
+            String[] distinct = Arrays.stream(values).filter(v -> v != null).distinct().sorted().toArray(String[]::new);
+            long[] ranks = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                ranks[i] = values[i] == null ? -1 : Arrays.binarySearch(distinct, values[i]);
+            }
+            return ranks;
+        }
+
+        /**
+         * @return the slots sorted by key; equal keys keep slot order
+         */
+        private static int[] sortedSlots(long[] keys) {
+            int[] slots = new int[keys.length];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = i;
+            }
+            mergeSort(slots, new int[slots.length], 0, slots.length, keys);
+            return slots;
+        }
+
+        private static void mergeSort(int[] slots, int[] buffer, int from, int to, long[] keys) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(slots, buffer, from, mid, keys);
+            mergeSort(slots, buffer, mid, to, keys);
+            if (keys[slots[mid - 1]] <= keys[slots[mid]]) {
+                return; // Already in order
+            }
+            System.arraycopy(slots, from, buffer, from, to - from);
+            int left = from;
+            int right = mid;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < mid && keys[buffer[left]] <= keys[buffer[right]])) {
+                    slots[i] = buffer[left++];
+                } else {
+                    slots[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IProductImportExportService;
+import com.aims.core.application.services.IProductManagerAuditService;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.dto.ProductAuditEntry;
+import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.CsvCodec;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Streaming catalogue import/export.
+ *
+ * The import is a three-stage pipeline: the calling thread reads raw records
+ * and groups them into chunks, a fixed pool of workers maps and validates the
+ * chunks in parallel, and the calling thread writes validated chunks back in
+ * input order, one transaction per chunk. At most {@code 2 x workers} chunks
+ * are in flight, which bounds memory regardless of file size. Only the calling
+ * thread touches the database.
+ *
+ * When a chunk is rejected by the database (duplicate ID or barcode), it is
+ * retried one product per transaction so that only the offending rows are
+ * rejected.
+ */
+public class ProductImportExportServiceImpl implements IProductImportExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportExportServiceImpl.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static final float MIN_PRICE_PERCENTAGE_OF_VALUE = 0.30f;
+    private static final float MAX_PRICE_PERCENTAGE_OF_VALUE = 1.50f;
+    private static final int SQLITE_CONSTRAINT = 19;
+    private static final int MAX_TRACKED_IMPORTS = 20;
+
+    private final IProductDAO productDAO;
+    private final IProductManagerAuditService auditService;
+    private final int chunkSize;
+    private final int workerCount;
+    private final Gson gson = new Gson();
+
+    // Recent imports for progress queries; finished ones are evicted oldest first
+    private final Map<String, ImportReport> imports = Collections.synchronizedMap(
+        new LinkedHashMap<String, ImportReport>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportReport> eldest) {
+                return size() > MAX_TRACKED_IMPORTS && eldest.getValue().getStatus() != ImportReport.Status.RUNNING;
+            }
+        });
+
+    /**
+     * One record as read from the input; parsing beyond field splitting is
+     * left to the validation workers.
+     */
+    private record RawRecord(long lineNumber, List<String> values, String json) {
+    }
+
+    private record ValidRow(long lineNumber, Product product) {
+    }
+
+    private record ValidatedChunk(List<ValidRow> valid, List<RejectedRow> rejected) {
+    }
+
+    public ProductImportExportServiceImpl(IProductDAO productDAO, IProductManagerAuditService auditService) {
+        this(productDAO, auditService, DEFAULT_CHUNK_SIZE, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ProductImportExportServiceImpl(IProductDAO productDAO, IProductManagerAuditService auditService,
+                                          int chunkSize, int workerCount) {
+        this.productDAO = productDAO;
+        this.auditService = auditService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.workerCount = Math.max(1, workerCount);
+    }
+
+    @Override
+    public ImportReport importProducts(InputStream input, Format format, String managerId, String importId)
+            throws IOException, SQLException, ValidationException {
+        if (input == null) throw new ValidationException("Import data cannot be null.");
+        if (format == null) throw new ValidationException("Import format must be specified.");
+
+        String id = importId != null && !importId.isBlank()
+            ? importId.trim()
+            : "IMP-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        ImportReport report = new ImportReport(id, format);
+        synchronized (imports) {
+            ImportReport existing = imports.get(id);
+            if (existing != null && existing.getStatus() == ImportReport.Status.RUNNING) {
+                throw new ValidationException("Import " + id + " is already running.");
+            }
+            imports.put(id, report);
+        }
+        String auditManagerId = managerId != null && !managerId.isBlank() ? managerId : "SYSTEM";
+        logger.info("Catalogue import {} started ({}, chunk size {}, {} validation workers)", id, format, chunkSize, workerCount);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService validators = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "catalog-import-validator-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<ValidatedChunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = workerCount * 2;
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            RecordSource source = format == Format.CSV ? new CsvRecordSource(reader) : new JsonLinesRecordSource(reader);
+            Function<RawRecord, Function<String, String>> fieldAccess = source.fieldAccess();
+
+            List<RawRecord> chunk = new ArrayList<>(chunkSize);
+            RawRecord record;
+            while ((record = source.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() >= chunkSize) {
+                    report.recordRowsRead(chunk.size());
+                    List<RawRecord> toValidate = chunk;
+                    inFlight.add(validators.submit(() -> validateChunk(toValidate, fieldAccess)));
+                    chunk = new ArrayList<>(chunkSize);
+                    // Back-pressure: the reader waits for the oldest chunk, keeping writes in input order
+                    while (inFlight.size() >= maxInFlight) {
+                        writeChunk(await(inFlight.poll()), auditManagerId, report);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                report.recordRowsRead(chunk.size());
+                List<RawRecord> toValidate = chunk;
+                inFlight.add(validators.submit(() -> validateChunk(toValidate, fieldAccess)));
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(await(inFlight.poll()), auditManagerId, report);
+            }
+
+            report.complete();
+            logger.info("Catalogue import finished: {}", report);
+            return report;
+        } catch (IOException | SQLException | ValidationException | RuntimeException e) {
+            report.fail(e.getMessage());
+            logger.error("Catalogue import {} failed after {} rows: {}", id, report.getRowsRead(), e.getMessage());
+            throw e;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            validators.shutdownNow();
+        }
+    }
+
+    @Override
+    public ImportReport getImportStatus(String importId) {
+        return importId != null ? imports.get(importId.trim()) : null;
+    }
+
+    @Override
+    public int exportProducts(OutputStream output, Format format, ProductType productType) throws IOException, SQLException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        IProductDAO.ProductRowHandler handler;
+        if (format == Format.JSONL) {
+            handler = product -> {
+                gson.toJson(ProductRecordMapper.toJson(product), writer);
+                writer.write('\n');
+            };
+        } else {
+            CsvCodec.writeRecord(writer, ProductRecordMapper.COLUMNS);
+            handler = product -> CsvCodec.writeRecord(writer, ProductRecordMapper.toValues(product));
+        }
+        int count = productDAO.streamProducts(productType, handler);
+        writer.flush();
+        logger.info("Exported {} products as {}{}", count, format, productType != null ? " (type " + productType + ")" : "");
+        return count;
+    }
+
+    private ValidatedChunk validateChunk(List<RawRecord> records, Function<RawRecord, Function<String, String>> fieldAccess) {
+        List<ValidRow> valid = new ArrayList<>(records.size());
+        List<RejectedRow> rejected = new ArrayList<>();
+        for (RawRecord record : records) {
+            String productId = null;
+            try {
+                Function<String, String> field = fieldAccess.apply(record);
+                productId = field.apply("productId");
+                Product product = ProductRecordMapper.toProduct(field);
+                validateProduct(product);
+                if (product.getProductId() == null) {
+                    product.setProductId("PROD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+                }
+                if (product.getEntryDate() == null) {
+                    product.setEntryDate(LocalDate.now());
+                }
+                valid.add(new ValidRow(record.lineNumber(), product));
+            } catch (ValidationException e) {
+                rejected.add(new RejectedRow(record.lineNumber(), productId, e.getMessage()));
+            } catch (RuntimeException e) {
+                rejected.add(new RejectedRow(record.lineNumber(), productId, "Malformed record: " + e.getMessage()));
+            }
+        }
+        return new ValidatedChunk(valid, rejected);
+    }
+
+    // Same rules as the single-product add endpoints
+    private void validateProduct(Product product) throws ValidationException {
+        if (product.getPrice() <= 0) {
+            throw new ValidationException("price must be positive");
+        }
+        if (product.getQuantityInStock() < 0) {
+            throw new ValidationException("quantityInStock cannot be negative");
+        }
+        if (product.getPrice() < product.getValueAmount() * MIN_PRICE_PERCENTAGE_OF_VALUE ||
+            product.getPrice() > product.getValueAmount() * MAX_PRICE_PERCENTAGE_OF_VALUE) {
+            throw new ValidationException(
+                String.format("Product price must be between %.0f%% and %.0f%% of its value. Value: %.2f, Price: %.2f",
+                    MIN_PRICE_PERCENTAGE_OF_VALUE * 100,
+                    MAX_PRICE_PERCENTAGE_OF_VALUE * 100,
+                    product.getValueAmount(),
+                    product.getPrice()));
+        }
+    }
+
+    private ValidatedChunk await(Future<ValidatedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation worker failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    private void writeChunk(ValidatedChunk chunk, String managerId, ImportReport report) throws SQLException {
+        chunk.rejected().forEach(report::recordRejected);
+        if (chunk.valid().isEmpty()) {
+            return;
+        }
+
+        List<ValidRow> written;
+        try {
+            List<Product> products = new ArrayList<>(chunk.valid().size());
+            chunk.valid().forEach(row -> products.add(row.product()));
+            productDAO.addProductsBatch(products);
+            written = chunk.valid();
+        } catch (SQLException e) {
+            // Isolate the offending rows: retry the chunk one product per transaction
+            logger.warn("Import {}: chunk of {} rows rejected ({}), retrying row by row",
+                report.getImportId(), chunk.valid().size(), e.getMessage());
+            written = new ArrayList<>();
+            for (ValidRow row : chunk.valid()) {
+                try {
+                    productDAO.addProductsBatch(List.of(row.product()));
+                    written.add(row);
+                } catch (SQLException ex) {
+                    if ((ex.getErrorCode() & 0xff) != SQLITE_CONSTRAINT) {
+                        throw ex; // Not a problem with this row
+                    }
+                    report.recordRejected(new RejectedRow(row.lineNumber(), row.product().getProductId(),
+                        "Rejected by database: " + ex.getMessage()));
+                }
+            }
+        }
+        report.recordImported(written.size());
+
+        List<ProductAuditEntry> auditEntries = new ArrayList<>(written.size());
+        for (ValidRow row : written) {
+            Product product = row.product();
+            auditEntries.add(new ProductAuditEntry("ADD", product.getProductId(),
+                "Imported " + product.getProductType() + ": " + product.getTitle()));
+        }
+        try {
+            auditService.logOperations(managerId, auditEntries);
+        } catch (SQLException e) {
+            // Log error but don't fail the import
+            logger.warn("Import {}: failed to log ADD operations: {}", report.getImportId(), e.getMessage());
+        }
+        logger.debug("Import {}: {} read, {} imported, {} rejected", report.getImportId(),
+            report.getRowsRead(), report.getRowsImported(), report.getRowsRejected());
+    }
+
+    /**
+     * Reads raw records from the input one at a time.
+     */
+    private interface RecordSource {
+        RawRecord next() throws IOException;
+
+        /** @return how a worker looks up the fields of a record from this source */
+        Function<RawRecord, Function<String, String>> fieldAccess();
+    }
+
+    private static final class CsvRecordSource implements RecordSource {
+        private final CsvCodec csv;
+        private final Map<String, Integer> columnIndex = new HashMap<>();
+
+        CsvRecordSource(BufferedReader reader) throws IOException, ValidationException {
+            this.csv = new CsvCodec(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new ValidationException("CSV input is empty; a header row is required.");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i);
+                if (name == null) continue;
+                name = name.replace("\uFEFF", "").trim(); // UTF-8 byte order mark
+                columnIndex.put(name, i);
+            }
+            if (!columnIndex.containsKey("productType") || !columnIndex.containsKey("title")) {
+                throw new ValidationException("CSV header must include the columns " + ProductRecordMapper.COLUMNS);
+            }
+        }
+
+        @Override
+        public RawRecord next() throws IOException {
+            List<String> values = csv.readRecord();
+            return values != null ? new RawRecord(csv.getRecordStartLine(), values, null) : null;
+        }
+
+        @Override
+        public Function<RawRecord, Function<String, String>> fieldAccess() {
+            return record -> column -> {
+                Integer index = columnIndex.get(column);
+                return index != null && index < record.values().size() ? record.values().get(index) : null;
+            };
+        }
+    }
+
+    private static final class JsonLinesRecordSource implements RecordSource {
+        private final BufferedReader reader;
+        private long lineNumber = 0;
+
+        JsonLinesRecordSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRecord next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    return new RawRecord(lineNumber, null, line);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Function<RawRecord, Function<String, String>> fieldAccess() {
+            return record -> {
+                // Parsed on the worker thread; a malformed line only rejects that row
+                JsonObject json = JsonParser.parseString(record.json()).getAsJsonObject();
+                return column -> {
+                    JsonElement value = json.get(column);
+                    if (value == null || value.isJsonNull()) {
+                        return null;
+                    }
+                    return value.isJsonPrimitive() ? value.getAsString() : value.toString();
+                };
+            };
+        }
+    }
+}
@@ -2,28 +2,64 @@ package com.aims.core.application.impl;
 
 import com.aims.core.application.services.IProductManagerAuditService;
 import com.aims.core.infrastructure.database.dao.IProductManagerAuditDAO;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.DailyOperationCounts;
+import com.aims.core.shared.dto.ProductAuditEntry;
 import com.aims.core.shared.exceptions.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * Product Manager audit service.
+ *
+ * Operations are written through an AuditLogWriter, which batches them in the
+ * background according to its durability mode. Today's counts are kept in
+ * memory, read back from the database on first use each day, so limit checks
+ * do not query the audit log. Counts for other days are read from the
+ * database after pending rows are stored. Operations logged by another
+ * process sharing the database are only picked up at the next read-back,
+ * when the date changes.
+ */
 @Service
 public class ProductManagerAuditServiceImpl implements IProductManagerAuditService {
 
     private final IProductManagerAuditDAO auditDAO;
+    private final AuditLogWriter writer;
+    private final Clock clock;
+    // Guards the counters; never held while rows are written
+    private final DailyAuditCounters counters = new DailyAuditCounters();
     
     private static final int MAX_OPERATIONS_PER_DAY = 30;
     private static final int MAX_PRICE_UPDATES_PER_PRODUCT_PER_DAY = 2;
 
+    @Autowired
     public ProductManagerAuditServiceImpl(IProductManagerAuditDAO auditDAO) {
+        this(auditDAO, AuditLogWriter.Durability.SYNC);
+    }
+
+    public ProductManagerAuditServiceImpl(IProductManagerAuditDAO auditDAO, AuditLogWriter.Durability durability) {
+        this(auditDAO, new AuditLogWriter(auditDAO, durability), Clock.systemDefaultZone());
+    }
+
+    ProductManagerAuditServiceImpl(IProductManagerAuditDAO auditDAO, AuditLogWriter writer, Clock clock) {
         this.auditDAO = auditDAO;
+        this.writer = writer;
+        this.clock = clock;
     }
 
     @Override
     public void checkDailyOperationLimit(String managerId, int operationsCount) throws ValidationException, SQLException {
-        LocalDate today = LocalDate.now();
-        int currentOperations = auditDAO.getOperationCount(managerId, today);
+        int currentOperations = getOperationCount(managerId, LocalDate.now(clock));
         
         if (currentOperations + operationsCount > MAX_OPERATIONS_PER_DAY) {
             throw new ValidationException(
@@ -35,8 +71,7 @@ public class ProductManagerAuditServiceImpl implements IProductManagerAuditServi
 
     @Override
     public void checkPriceUpdateLimit(String managerId, String productId) throws ValidationException, SQLException {
-        LocalDate today = LocalDate.now();
-        int currentPriceUpdates = auditDAO.getPriceUpdateCount(managerId, productId, today);
+        int currentPriceUpdates = getPriceUpdateCount(managerId, productId, LocalDate.now(clock));
         
         if (currentPriceUpdates >= MAX_PRICE_UPDATES_PER_PRODUCT_PER_DAY) {
             throw new ValidationException(
@@ -48,25 +83,100 @@ public class ProductManagerAuditServiceImpl implements IProductManagerAuditServi
 
     @Override
     public void logOperation(String managerId, String operationType, String productId, String details) throws SQLException {
-        auditDAO.logOperation(managerId, operationType, productId, details);
+        log(List.of(new AuditLogRecord(managerId, operationType, productId, LocalDateTime.now(clock), details)));
+    }
+
+    @Override
+    public void logOperations(String managerId, List<ProductAuditEntry> entries) throws SQLException {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<AuditLogRecord> records = new ArrayList<>(entries.size());
+        for (ProductAuditEntry entry : entries) {
+            records.add(new AuditLogRecord(managerId, entry.operationType(), entry.productId(), now, entry.details()));
+        }
+        log(records);
+    }
+
+    @Override
+    public List<AuditLogRecord> prepareOperations(String managerId, List<ProductAuditEntry> entries) throws SQLException {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<AuditLogRecord> records = new ArrayList<>(entries.size());
+        for (ProductAuditEntry entry : entries) {
+            records.add(new AuditLogRecord(managerId, entry.operationType(), entry.productId(), now, entry.details()));
+        }
+        synchronized (counters) {
+            // Rolled before the rows are stored, so no later read-back of their day can count them twice
+            rollCounters();
+        }
+        return records;
+    }
+
+    @Override
+    public void countStoredOperations(List<AuditLogRecord> records) throws SQLException {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        synchronized (counters) {
+            rollCounters();
+            records.forEach(counters::add);
+        }
+    }
+
+    @Override
+    public Set<String> getProductsAtPriceUpdateLimit(String managerId, Collection<String> productIds) throws SQLException {
+        Set<String> atLimit = new HashSet<>();
+        synchronized (counters) {
+            rollCounters();
+            for (String productId : productIds) {
+                if (counters.getPriceUpdateCount(managerId, productId) >= MAX_PRICE_UPDATES_PER_PRODUCT_PER_DAY) {
+                    atLimit.add(productId);
+                }
+            }
+        }
+        return atLimit;
     }
 
     @Override
     public int getOperationCount(String managerId, LocalDate date) throws SQLException {
+        synchronized (counters) {
+            if (rollCounters().equals(date)) {
+                return counters.getOperationCount(managerId);
+            }
+        }
+        writer.flush();
         return auditDAO.getOperationCount(managerId, date);
     }
 
     @Override
     public int getPriceUpdateCount(String managerId, String productId, LocalDate date) throws SQLException {
+        synchronized (counters) {
+            if (rollCounters().equals(date)) {
+                return counters.getPriceUpdateCount(managerId, productId);
+            }
+        }
+        writer.flush();
         return auditDAO.getPriceUpdateCount(managerId, productId, date);
     }
 
+    @Override
+    public DailyOperationCounts getDailyOperationCounts(String managerId, LocalDate date) throws SQLException {
+        synchronized (counters) {
+            if (rollCounters().equals(date)) {
+                return counters.getOperationCounts(managerId);
+            }
+        }
+        writer.flush();
+        return DailyOperationCounts.fromOperationKeys(auditDAO.getManagerOperations(managerId, date), date);
+    }
+
     @Override
     public java.util.List<String> getManagerOperations(String managerId, String dateKey) throws SQLException {
         // Convert dateKey to LocalDate for DAO call
         LocalDate date = LocalDate.parse(dateKey);
-        // For now, return a simple implementation - in production this would query the database
-        // This method should return operation keys for the given manager and date
+        // The full list is only available from the database
+        writer.flush();
         return auditDAO.getManagerOperations(managerId, date);
     }
 
@@ -85,4 +195,43 @@ public class ProductManagerAuditServiceImpl implements IProductManagerAuditServi
             logOperation(managerId, "UNKNOWN", "", operationKey);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void flush() throws SQLException {
+        writer.flush();
+    }
+
+    @Override
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    public String getStatisticsSummary() {
+        return writer.getStatisticsSummary();
+    }
+
+    private void log(List<AuditLogRecord> records) throws SQLException {
+        synchronized (counters) {
+            // Rolled before the rows are queued, so no later read-back of their day can count them twice
+            rollCounters();
+        }
+        writer.submit(records);
+        countStoredOperations(records);
+    }
+
+    /**
+     * Moves the counters to today, reading today's stored rows when the day
+     * changes (at first use and after midnight). Caller must hold the counters lock.
+     *
+     * @return today's date
+     */
+    private LocalDate rollCounters() throws SQLException {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(counters.getDate())) {
+            // Rows still queued must be stored before the day is read back
+            writer.flush();
+            counters.reset(today, auditDAO.getOperationsOn(today));
+        }
+        return today;
+    }
+}
@@ -0,0 +1,280 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.entities.Book;
+import com.aims.core.entities.CD;
+import com.aims.core.entities.DVD;
+import com.aims.core.entities.LP;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+import com.aims.core.shared.exceptions.ValidationException;
+import com.google.gson.JsonObject;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Flat record layout shared by catalogue import and export.
+ *
+ * Every product type uses the same columns; subtype columns that do not apply
+ * to a type are left empty. CSV files use these names as the header row and
+ * JSONL lines use them as object keys, so an export can be re-imported as is.
+ */
+public final class ProductRecordMapper {
+
+    public static final List<String> COLUMNS = List.of(
+        "productType", "productId", "title", "category", "valueAmount", "price", "quantityInStock",
+        "description", "imageUrl", "barcode", "dimensionsCm", "weightKg", "entryDate",
+        "authors", "coverType", "publisher", "publicationDate", "numPages", "language",
+        "artists", "recordLabel", "tracklist", "discType", "director", "runtimeMinutes",
+        "studio", "subtitles", "releaseDate", "genre");
+
+    private static final Set<String> NUMERIC_COLUMNS = Set.of(
+        "valueAmount", "price", "quantityInStock", "weightKg", "numPages", "runtimeMinutes");
+
+    private ProductRecordMapper() {
+    }
+
+    /**
+     * Builds a product of the record's type from its fields.
+     *
+     * @param field Returns the value of a column, or null/blank when absent
+     * @return a Book, CD, DVD, LP or (for OTHER) a plain Product
+     * @throws ValidationException if a required field is missing or a value cannot be parsed
+     */
+    public static Product toProduct(Function<String, String> field) throws ValidationException {
+        String typeValue = text(field, "productType");
+        if (typeValue == null) {
+            throw new ValidationException("productType is required");
+        }
+        ProductType type;
+        try {
+            type = ProductType.valueOf(typeValue.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown productType: '" + typeValue + "'");
+        }
+
+        Product product;
+        switch (type) {
+            case BOOK -> {
+                Book book = new Book();
+                book.setAuthors(text(field, "authors"));
+                book.setCoverType(text(field, "coverType"));
+                book.setPublisher(text(field, "publisher"));
+                book.setPublicationDate(date(field, "publicationDate"));
+                book.setNumPages(integer(field, "numPages", 0));
+                book.setLanguage(text(field, "language"));
+                book.setBookGenre(text(field, "genre"));
+                product = book;
+            }
+            case CD -> {
+                CD cd = new CD();
+                cd.setArtists(text(field, "artists"));
+                cd.setRecordLabel(text(field, "recordLabel"));
+                cd.setTracklist(text(field, "tracklist"));
+                cd.setCdGenre(text(field, "genre"));
+                cd.setReleaseDate(date(field, "releaseDate"));
+                product = cd;
+            }
+            case DVD -> {
+                DVD dvd = new DVD();
+                dvd.setDiscType(text(field, "discType"));
+                dvd.setDirector(text(field, "director"));
+                dvd.setRuntimeMinutes(integer(field, "runtimeMinutes", 0));
+                dvd.setStudio(text(field, "studio"));
+                dvd.setDvdLanguage(text(field, "language"));
+                dvd.setSubtitles(text(field, "subtitles"));
+                dvd.setDvdReleaseDate(date(field, "releaseDate"));
+                dvd.setDvdGenre(text(field, "genre"));
+                product = dvd;
+            }
+            case LP -> {
+                LP lp = new LP();
+                lp.setArtists(text(field, "artists"));
+                lp.setRecordLabel(text(field, "recordLabel"));
+                lp.setTracklist(text(field, "tracklist"));
+                lp.setGenre(text(field, "genre"));
+                lp.setReleaseDate(date(field, "releaseDate"));
+                product = lp;
+            }
+            default -> {
+                product = new Product();
+                product.setProductType(type);
+            }
+        }
+
+        product.setProductId(text(field, "productId"));
+        String title = text(field, "title");
+        if (title == null) {
+            throw new ValidationException("title is required");
+        }
+        product.setTitle(title);
+        product.setCategory(text(field, "category"));
+        product.setValueAmount(decimal(field, "valueAmount", true));
+        product.setPrice(decimal(field, "price", true));
+        product.setQuantityInStock(integer(field, "quantityInStock", 0));
+        product.setDescription(text(field, "description"));
+        product.setImageUrl(text(field, "imageUrl"));
+        product.setBarcode(text(field, "barcode"));
+        product.setDimensionsCm(text(field, "dimensionsCm"));
+        product.setWeightKg(decimal(field, "weightKg", false));
+        product.setEntryDate(date(field, "entryDate"));
+        return product;
+    }
+
+    /**
+     * @return the product's values in {@link #COLUMNS} order (null for empty columns)
+     */
+    public static List<String> toValues(Product product) {
+        List<String> values = new ArrayList<>(COLUMNS.size());
+        for (String column : COLUMNS) {
+            values.add(value(product, column));
+        }
+        return values;
+    }
+
+    /**
+     * @return the product as a JSON object keyed by column name; empty columns are omitted
+     */
+    public static JsonObject toJson(Product product) {
+        JsonObject json = new JsonObject();
+        for (String column : COLUMNS) {
+            String value = value(product, column);
+            if (value == null) {
+                continue;
+            }
+            if (NUMERIC_COLUMNS.contains(column)) {
+                boolean integral = value.indexOf('.') < 0 && value.indexOf('E') < 0;
+                json.addProperty(column, integral ? (Number) Long.parseLong(value) : (Number) Double.parseDouble(value));
+            } else {
+                json.addProperty(column, value);
+            }
+        }
+        return json;
+    }
+
+    private static String value(Product product, String column) {
+        switch (column) {
+            case "productType": return product.getProductType() != null ? product.getProductType().name() : null;
+            case "productId": return product.getProductId();
+            case "title": return product.getTitle();
+            case "category": return product.getCategory();
+            case "valueAmount": return String.valueOf(product.getValueAmount());
+            case "price": return String.valueOf(product.getPrice());
+            case "quantityInStock": return String.valueOf(product.getQuantityInStock());
+            case "description": return product.getDescription();
+            case "imageUrl": return product.getImageUrl();
+            case "barcode": return product.getBarcode();
+            case "dimensionsCm": return product.getDimensionsCm();
+            case "weightKg": return String.valueOf(product.getWeightKg());
+            case "entryDate": return dateString(product.getEntryDate());
+            default: break;
+        }
+        if (product instanceof Book book) {
+            switch (column) {
+                case "authors": return book.getAuthors();
+                case "coverType": return book.getCoverType();
+                case "publisher": return book.getPublisher();
+                case "publicationDate": return dateString(book.getPublicationDate());
+                case "numPages": return String.valueOf(book.getNumPages());
+                case "language": return book.getLanguage();
+                case "genre": return book.getBookGenre();
+                default: return null;
+            }
+        }
+        if (product instanceof CD cd) {
+            switch (column) {
+                case "artists": return cd.getArtists();
+                case "recordLabel": return cd.getRecordLabel();
+                case "tracklist": return cd.getTracklist();
+                case "genre": return cd.getCdGenre();
+                case "releaseDate": return dateString(cd.getReleaseDate());
+                default: return null;
+            }
+        }
+        if (product instanceof DVD dvd) {
+            switch (column) {
+                case "discType": return dvd.getDiscType();
+                case "director": return dvd.getDirector();
+                case "runtimeMinutes": return String.valueOf(dvd.getRuntimeMinutes());
+                case "studio": return dvd.getStudio();
+                case "language": return dvd.getDvdLanguage();
+                case "subtitles": return dvd.getSubtitles();
+                case "releaseDate": return dateString(dvd.getDvdReleaseDate());
+                case "genre": return dvd.getDvdGenre();
+                default: return null;
+            }
+        }
+        if (product instanceof LP lp) {
+            switch (column) {
+                case "artists": return lp.getArtists();
+                case "recordLabel": return lp.getRecordLabel();
+                case "tracklist": return lp.getTracklist();
+                case "genre": return lp.getGenre();
+                case "releaseDate": return dateString(lp.getReleaseDate());
+                default: return null;
+            }
+        }
+        return null;
+    }
+
+    private static String dateString(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+
+    private static String text(Function<String, String> field, String column) {
+        String value = field.apply(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static float decimal(Function<String, String> field, String column, boolean required) throws ValidationException {
+        String value = text(field, column);
+        if (value == null) {
+            if (required) {
+                throw new ValidationException(column + " is required");
+            }
+            return 0f;
+        }
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+
+    private static int integer(Function<String, String> field, String column, int defaultValue) throws ValidationException {
+        String value = text(field, column);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            // JSON numbers may arrive as "12.0"
+            double parsed = Double.parseDouble(value);
+            if (parsed != Math.rint(parsed)) {
+                throw new NumberFormatException();
+            }
+            return (int) parsed;
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+
+    private static LocalDate date(Function<String, String> field, String column) throws ValidationException {
+        String value = text(field, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid " + column + " (expected YYYY-MM-DD): '" + value + "'");
+        }
+    }
+}
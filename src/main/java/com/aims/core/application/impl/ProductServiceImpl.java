@@ -3,6 +3,7 @@ package com.aims.core.application.impl; // Or com.aims.core.application.services
 import com.aims.core.application.services.IProductService;
 import com.aims.core.application.services.IProductManagerAuditService;
 import com.aims.core.application.services.IStockValidationService;
+import com.aims.core.application.services.IStockDecrementService;
 import com.aims.core.entities.Product;
 import com.aims.core.entities.Book;
 import com.aims.core.entities.CD;
@@ -10,19 +11,32 @@ import com.aims.core.entities.DVD;
 import com.aims.core.entities.LP;
 import com.aims.core.enums.ProductType;
 import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.ProductAuditEntry;
+import com.aims.core.shared.dto.ProductStockSnapshot;
 import com.aims.core.shared.exceptions.ValidationException; // Assuming you have these custom exceptions
 import com.aims.core.shared.exceptions.ResourceNotFoundException; // Assuming you have these custom exceptions
+import com.aims.core.shared.events.ProductChangeBus;
 import com.aims.core.shared.exceptions.InventoryException;
+import com.aims.core.shared.utils.FacetedSearchResult;
+import com.aims.core.shared.utils.SearchFacets;
 import com.aims.core.shared.utils.SearchResult; // Assuming a SearchResult utility class
 import com.aims.core.utils.ProductTypeDisplayMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -34,11 +48,17 @@ public class ProductServiceImpl implements IProductService {
     private final IProductDAO productDAO;
     private final IProductManagerAuditService auditService;
     private final IStockValidationService stockValidationService;
+    private final IStockDecrementService stockDecrementService;
+    private volatile ProductCatalogIndex catalogIndex;
+    private final ProductChangeBus changeBus = ProductChangeBus.getInstance();
 
     private static final float VAT_RATE = 0.10f; // 10% VAT
     private static final float MIN_PRICE_PERCENTAGE_OF_VALUE = 0.30f;
     private static final float MAX_PRICE_PERCENTAGE_OF_VALUE = 1.50f;
     private static final int MAX_DELETIONS_AT_ONCE = 10;
+    private static final int MAX_BULK_UPDATES_AT_ONCE = 100;
+    // VAT-inclusive upper bounds (VND) of the price facet ranges
+    private static final double[] PRICE_FACET_BOUNDS = {100_000, 200_000, 500_000, 1_000_000};
     
     // Retry configuration for optimistic locking
     private static final int MAX_RETRY_ATTEMPTS = 3;
@@ -50,10 +70,30 @@ public class ProductServiceImpl implements IProductService {
     // private static final int MAX_PRICE_UPDATES_PER_DAY_PER_PRODUCT = 2;
 
 
+    @Autowired
     public ProductServiceImpl(IProductDAO productDAO, IProductManagerAuditService auditService, IStockValidationService stockValidationService) {
+        this(productDAO, auditService, stockValidationService, null);
+    }
+
+    /**
+     * @param stockDecrementService Engine for stock reductions; when null, reductions
+     *                              use the versioned read-validate-write path with retries.
+     */
+    public ProductServiceImpl(IProductDAO productDAO, IProductManagerAuditService auditService,
+                              IStockValidationService stockValidationService, IStockDecrementService stockDecrementService) {
         this.productDAO = productDAO;
         this.auditService = auditService;
         this.stockValidationService = stockValidationService;
+        this.stockDecrementService = stockDecrementService;
+    }
+
+    /**
+     * Serves keyword-less listings and {@link #browseProducts} from the index
+     * instead of the database. Without one, browsing indexes a fresh copy of
+     * the catalogue per call.
+     */
+    public void setCatalogIndex(ProductCatalogIndex catalogIndex) {
+        this.catalogIndex = catalogIndex;
     }
 
     private void validateProductPrice(Product product) throws ValidationException {
@@ -96,6 +136,14 @@ public class ProductServiceImpl implements IProductService {
         return "DEFAULT_MANAGER_001";
     }
 
+    /**
+     * Announces a new product once its base and detail rows are both stored,
+     * so listings invalidated by the event never load it without its details.
+     */
+    private void publishCreated(Product product) {
+        changeBus.publishCreate(product.getProductId(), product.getQuantityInStock(), product.getPrice());
+    }
+
     // --- Product Management (for Product Managers) ---
 
     @Override
@@ -105,6 +153,7 @@ public class ProductServiceImpl implements IProductService {
         // ADD operations are unlimited per problem statement
         book.setEntryDate(LocalDate.now()); // Set entry date
         productDAO.addBookDetails(book); // This DAO method should handle base product and book details
+        publishCreated(book);
         
         // Log the operation
         try {
@@ -123,6 +172,7 @@ public class ProductServiceImpl implements IProductService {
         validateProductPrice(cd);
         cd.setEntryDate(LocalDate.now());
         productDAO.addCDDetails(cd);
+        publishCreated(cd);
         
         // Log the operation
         try {
@@ -140,6 +190,7 @@ public class ProductServiceImpl implements IProductService {
         validateProductPrice(dvd);
         dvd.setEntryDate(LocalDate.now());
         productDAO.addDVDDetails(dvd);
+        publishCreated(dvd);
         
         // Log the operation
         try {
@@ -157,6 +208,7 @@ public class ProductServiceImpl implements IProductService {
         validateProductPrice(lp);
         lp.setEntryDate(LocalDate.now());
         productDAO.addLPDetails(lp);
+        publishCreated(lp);
         
         // Log the operation
         try {
@@ -277,28 +329,228 @@ public class ProductServiceImpl implements IProductService {
 
     @Override
     public void deleteProducts(List<String> productIds, String managerId) throws SQLException, ValidationException {
+        BulkOperationResult result = bulkDeleteProducts(productIds, managerId);
+        if (!result.isAllSucceeded()) {
+            List<String> errors = new ArrayList<>();
+            for (ItemResult item : result.getFailedItems()) {
+                errors.add("Product ID " + item.getProductId() + ": " + item.getMessage());
+            }
+            throw new ValidationException("Errors occurred during batch deletion: " + String.join("; ", errors));
+        }
+    }
+
+    @Override
+    public BulkOperationResult bulkDeleteProducts(List<String> productIds, String managerId) throws SQLException, ValidationException {
         if (productIds == null || productIds.isEmpty()) throw new ValidationException("Product ID list cannot be empty.");
         if (productIds.size() > MAX_DELETIONS_AT_ONCE) {
             throw new ValidationException("Cannot delete more than " + MAX_DELETIONS_AT_ONCE + " products at once."); // [cite: 521]
         }
+        List<String> ids = distinctIds(productIds);
+
+        // One query for existence/titles and one for order usage, for the whole batch
+        Map<String, Product> products = loadBaseProducts(ids);
+        Set<String> inOrders = productDAO.findProductIdsInOrders(products.keySet());
+
+        Map<String, ItemResult> outcomes = new HashMap<>();
+        List<String> deletable = new ArrayList<>();
+        for (String productId : ids) {
+            if (!products.containsKey(productId)) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.NOT_FOUND,
+                    "Product with ID " + productId + " not found for deletion."));
+            } else if (inOrders.contains(productId)) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.IN_USE,
+                    "Product " + productId + " cannot be deleted as it is part of existing orders."));
+            } else {
+                deletable.add(productId);
+            }
+        }
+
+        if (!deletable.isEmpty()) {
+            // Check Product Manager daily DELETE limits once for the batch
+            auditService.checkDailyOperationLimit(managerId, deletable.size());
 
-        // Check Product Manager daily DELETE limits for the total count
-        auditService.checkDailyOperationLimit(managerId, productIds.size());
+            // The audit log's productId references PRODUCT, so rows for deleted
+            // products keep the ID in the details only
+            List<ProductAuditEntry> auditEntries = new ArrayList<>();
+            for (String productId : deletable) {
+                auditEntries.add(new ProductAuditEntry("DELETE", null,
+                    "Deleted product " + productId + ": " + products.get(productId).getTitle()));
+            }
+            List<AuditLogRecord> auditRecords = auditService.prepareOperations(managerId, auditEntries);
+            Map<String, AuditLogRecord> auditRecordsById = new HashMap<>();
+            for (int i = 0; i < deletable.size(); i++) {
+                auditRecordsById.put(deletable.get(i), auditRecords.get(i));
+            }
 
-        List<String> errors = new ArrayList<>();
-        for (String productId : productIds) {
+            // Audit rows are written in the delete transaction, so neither commits without the other
+            Set<String> deleted;
             try {
-                deleteProduct(productId, managerId); // Leverages the single delete logic (which includes its own checks, though manager limit check might be duplicated or better handled once for the batch)
-            } catch (ResourceNotFoundException e) {
-                errors.add("Product ID " + productId + " not found: " + e.getMessage());
-            } catch (ValidationException e) {
-                errors.add("Validation failed for product ID " + productId + ": " + e.getMessage());
+                deleted = productDAO.deleteByIds(deletable, auditRecordsById);
+            } catch (SQLException e) {
+                if (e.getMessage() != null && (e.getMessage().toLowerCase().contains("constraint failed") || e.getMessage().toLowerCase().contains("foreign key"))) {
+                    throw new ValidationException("Products could not be deleted as some became part of existing orders; nothing was deleted.", e);
+                }
+                throw e;
             }
-            // SQLException will propagate up and stop the loop
+
+            List<AuditLogRecord> storedRecords = new ArrayList<>();
+            for (String productId : deletable) {
+                if (deleted.contains(productId)) {
+                    storedRecords.add(auditRecordsById.get(productId));
+                    outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.SUCCESS, "Deleted"));
+                } else {
+                    outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.NOT_FOUND,
+                        "Product with ID " + productId + " was removed concurrently."));
+                }
+            }
+            auditService.countStoredOperations(storedRecords);
         }
-        if (!errors.isEmpty()) {
-            throw new ValidationException("Errors occurred during batch deletion: " + String.join("; ", errors));
+
+        BulkOperationResult result = collectResult("DELETE", ids, outcomes);
+        logger.info("Bulk delete by {}: {} of {} products deleted", managerId, result.getSucceededCount(), result.getTotalItems());
+        return result;
+    }
+
+    @Override
+    public BulkOperationResult bulkUpdatePrices(Map<String, Float> newPrices, String managerId) throws SQLException, ValidationException {
+        if (newPrices == null || newPrices.isEmpty()) throw new ValidationException("Price update list cannot be empty.");
+        if (newPrices.size() > MAX_BULK_UPDATES_AT_ONCE) {
+            throw new ValidationException("Cannot update more than " + MAX_BULK_UPDATES_AT_ONCE + " products at once.");
+        }
+        List<String> ids = distinctIds(new ArrayList<>(newPrices.keySet()));
+        Map<String, Product> products = loadBaseProducts(ids);
+        // Check Product Manager daily PRICE UPDATE limits for every product in one query
+        Set<String> atLimit = auditService.getProductsAtPriceUpdateLimit(managerId, products.keySet());
+
+        Map<String, ItemResult> outcomes = new HashMap<>();
+        Map<String, Float> validPrices = new LinkedHashMap<>();
+        for (String productId : ids) {
+            Product product = products.get(productId);
+            Float newPrice = newPrices.get(productId);
+            if (product == null) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.NOT_FOUND,
+                    "Product with ID " + productId + " not found."));
+            } else if (atLimit.contains(productId)) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.LIMIT_EXCEEDED,
+                    "Price update limit exceeded for product " + productId + " today."));
+            } else if (newPrice == null ||
+                       newPrice < product.getValueAmount() * MIN_PRICE_PERCENTAGE_OF_VALUE ||
+                       newPrice > product.getValueAmount() * MAX_PRICE_PERCENTAGE_OF_VALUE) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.INVALID,
+                    String.format("New price must be between %.0f%% and %.0f%% of product value (%.2f). Attempted price: %s",
+                        MIN_PRICE_PERCENTAGE_OF_VALUE * 100,
+                        MAX_PRICE_PERCENTAGE_OF_VALUE * 100,
+                        product.getValueAmount(),
+                        newPrice == null ? "none" : String.format("%.2f", newPrice))));
+            } else {
+                validPrices.put(productId, newPrice);
+            }
+        }
+
+        if (!validPrices.isEmpty()) {
+            Set<String> updated = productDAO.updatePrices(validPrices);
+            List<ProductAuditEntry> auditEntries = new ArrayList<>();
+            for (Map.Entry<String, Float> entry : validPrices.entrySet()) {
+                String productId = entry.getKey();
+                if (updated.contains(productId)) {
+                    Product product = products.get(productId);
+                    auditEntries.add(new ProductAuditEntry("PRICE_UPDATE", productId,
+                        String.format("Price updated from %.2f to %.2f for %s", product.getPrice(), entry.getValue(), product.getTitle())));
+                    outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.SUCCESS, "Price updated"));
+                } else {
+                    outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.NOT_FOUND,
+                        "Product with ID " + productId + " was removed concurrently."));
+                }
+            }
+            auditService.logOperations(managerId, auditEntries);
+        }
+
+        BulkOperationResult result = collectResult("PRICE_UPDATE", ids, outcomes);
+        logger.info("Bulk price update by {}: {} of {} products updated", managerId, result.getSucceededCount(), result.getTotalItems());
+        return result;
+    }
+
+    @Override
+    public BulkOperationResult bulkAdjustStock(Map<String, Integer> quantityChanges, String managerId) throws SQLException, ValidationException {
+        if (quantityChanges == null || quantityChanges.isEmpty()) throw new ValidationException("Stock adjustment list cannot be empty.");
+        if (quantityChanges.size() > MAX_BULK_UPDATES_AT_ONCE) {
+            throw new ValidationException("Cannot adjust more than " + MAX_BULK_UPDATES_AT_ONCE + " products at once.");
+        }
+        List<String> ids = distinctIds(new ArrayList<>(quantityChanges.keySet()));
+
+        Map<String, ItemResult> outcomes = new HashMap<>();
+        Map<String, Integer> changes = new LinkedHashMap<>();
+        for (String productId : ids) {
+            Integer change = quantityChanges.get(productId);
+            if (change == null || change == 0) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.INVALID,
+                    "Quantity change must be non-zero."));
+            } else {
+                changes.put(productId, change);
+            }
+        }
+
+        Map<String, Integer> applied = productDAO.adjustStock(changes);
+
+        // Only the adjustments that did not apply need a read, to tell missing from insufficient
+        List<String> skipped = new ArrayList<>();
+        for (String productId : changes.keySet()) {
+            if (!applied.containsKey(productId)) {
+                skipped.add(productId);
+            }
+        }
+        Map<String, ProductStockSnapshot> skippedSnapshots = productDAO.getStockSnapshots(skipped);
+
+        List<ProductAuditEntry> auditEntries = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : changes.entrySet()) {
+            String productId = entry.getKey();
+            Integer newStock = applied.get(productId);
+            if (newStock != null) {
+                auditEntries.add(new ProductAuditEntry("STOCK_UPDATE", productId,
+                    String.format("Stock adjusted by %d to %d", entry.getValue(), newStock)));
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.SUCCESS,
+                    "New stock: " + newStock));
+            } else if (skippedSnapshots.containsKey(productId)) {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.INSUFFICIENT_STOCK,
+                    "Stock quantity cannot be negative. Current stock: " + skippedSnapshots.get(productId).quantityInStock() +
+                    ", Change: " + entry.getValue()));
+            } else {
+                outcomes.put(productId, new ItemResult(productId, BulkOperationResult.ItemStatus.NOT_FOUND,
+                    "Product with ID " + productId + " not found."));
+            }
+        }
+        if (!auditEntries.isEmpty()) {
+            auditService.logOperations(managerId, auditEntries);
+        }
+
+        BulkOperationResult result = collectResult("STOCK_UPDATE", ids, outcomes);
+        logger.info("Bulk stock adjustment by {}: {} of {} products adjusted", managerId, result.getSucceededCount(), result.getTotalItems());
+        return result;
+    }
+
+    private List<String> distinctIds(List<String> productIds) throws ValidationException {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        if (ids.contains(null)) {
+            throw new ValidationException("Product ID cannot be null.");
+        }
+        return ids;
+    }
+
+    private Map<String, Product> loadBaseProducts(List<String> productIds) throws SQLException {
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productDAO.getByIds(productIds)) {
+            products.put(product.getProductId(), product);
+        }
+        return products;
+    }
+
+    private BulkOperationResult collectResult(String operationType, List<String> orderedIds, Map<String, ItemResult> outcomes) {
+        BulkOperationResult result = new BulkOperationResult(operationType);
+        for (String productId : orderedIds) {
+            ItemResult item = outcomes.get(productId);
+            result.addItem(productId, item.getStatus(), item.getMessage());
         }
+        return result;
     }
 
     @Override
@@ -337,8 +589,60 @@ public class ProductServiceImpl implements IProductService {
 
     @Override
     public Product updateProductStock(String productId, int quantityChange) throws SQLException, ValidationException, ResourceNotFoundException, InventoryException {
+        if (quantityChange < 0 && stockDecrementService != null) {
+            return decrementProductStock(productId, -quantityChange);
+        }
         return updateProductStockWithRetry(productId, quantityChange, MAX_RETRY_ATTEMPTS);
     }
+
+    /**
+     * Removes stock through the decrement engine: after the reservation-aware
+     * availability check, a single conditional UPDATE instead of a versioned
+     * read-validate-write cycle, so concurrent sales of the same product
+     * neither oversell nor fail on optimistic-lock conflicts.
+     */
+    private Product decrementProductStock(String productId, int quantity)
+            throws SQLException, ValidationException, ResourceNotFoundException, InventoryException {
+        // Units held by active reservations are not visible to the conditional UPDATE
+        IStockValidationService.StockValidationResult validationResult =
+            stockValidationService.validateProductStock(productId, quantity);
+        if (!validationResult.isValid()) {
+            if (validationResult.getActualStock() < quantity) {
+                throw new ValidationException("Stock quantity cannot be negative. Current stock: " +
+                                           validationResult.getActualStock() + ", Change: " + -quantity);
+            }
+            throw new InventoryException(String.format(
+                "Stock validation failed for product %s: %s. Available: %d, Requested reduction: %d",
+                validationResult.getProductTitle(), validationResult.getMessage(),
+                validationResult.getAvailableStock(), quantity));
+        }
+
+        IStockDecrementService.DecrementResult result = stockDecrementService.decrementStock(productId, quantity);
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                throw new ResourceNotFoundException("Product with ID " + productId + " not found.");
+            case INSUFFICIENT_STOCK:
+                // Validation passed, but concurrent sales took the units before this decrement applied
+                throw new InventoryException(String.format(
+                    "Stock validation failed for product %s: stock was sold concurrently. Requested reduction: %d",
+                    validationResult.getProductTitle(), quantity));
+            default:
+                break;
+        }
+
+        if (result.getRemainingStock() <= 10) {
+            logger.warn("Product {} has critically low stock after update: {} units",
+                       productId, result.getRemainingStock());
+        }
+        logger.info("Successfully updated stock for product {} by {} units. New stock: {}",
+                   productId, -quantity, result.getRemainingStock());
+
+        Product product = productDAO.getById(productId);
+        if (product != null) {
+            product.setQuantityInStock(result.getRemainingStock());
+        }
+        return product;
+    }
     
     /**
      * Updates product stock with optimistic locking and retry mechanism
@@ -445,69 +749,27 @@ public class ProductServiceImpl implements IProductService {
 
     @Override
     public SearchResult<Product> getProductsForDisplay(int pageNumber, int pageSize) throws SQLException {
-        // Basic implementation: get all and then manually paginate.
-        // A more performant DAO would support LIMIT and OFFSET.
-        // For now, this illustrates the concept.
-        // This method should also apply VAT to prices.
-        List<Product> allProducts = productDAO.getAll(); // This currently fetches base products only from ProductDAOImpl
-        // TODO: Enhance ProductDAOImpl.getAll() or this service to fetch full subtype details for display
-        // or implement proper pagination in DAO.
-
-        List<Product> productsWithVAT = addVAT(new ArrayList<>(allProducts)); // Create new list to avoid modifying original
-
-        int totalResults = productsWithVAT.size();
-        int fromIndex = (pageNumber - 1) * pageSize;
-        if (fromIndex >= totalResults) {
-            return new SearchResult<>(new ArrayList<>(), pageNumber, 0, 0);
-        }
-
-        int toIndex = Math.min(fromIndex + pageSize, totalResults);
-        List<Product> pageResults = productsWithVAT.subList(fromIndex, toIndex);
-        
-        int totalPages = (int) Math.ceil((double) totalResults / pageSize);
-        if (totalPages == 0 && totalResults > 0) totalPages = 1;
-
-        return new SearchResult<>(pageResults, pageNumber, totalPages, totalResults);
+        return findPageForDisplay(null, null, null, pageNumber, pageSize);
     }
 
     public SearchResult<Product> searchProducts(String searchTerm, String category, int pageNumber, int pageSize, String sortByPrice) throws SQLException {
-        // This is a simplified search. Real search might involve full-text search or more complex queries.
-        // The DAO's findByTitle/findByCategory are basic. Sorting and pagination would ideally be done at DB level.
-        List<Product> results;
-        if (category != null && !category.trim().isEmpty()) {
-            results = productDAO.findByCategory(category);
-            if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-                String lowerSearchTerm = searchTerm.toLowerCase();
-                results = results.stream()
-                                 .filter(p -> p.getTitle().toLowerCase().contains(lowerSearchTerm))
-                                 .collect(Collectors.toList());
-            }
-        } else if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            results = productDAO.findByTitle(searchTerm);
-        } else {
-            results = productDAO.getAll(); // Fallback to all if no criteria
-        }
-        
-        // TODO: Enhance to fetch full subtype details if results only contain base Product info.
-
-        List<Product> productsWithVAT = addVAT(new ArrayList<>(results));
+        // Filtering, price sorting and pagination are done by the database
+        return findPageForDisplay(searchTerm, category, sortByPrice, pageNumber, pageSize);
+    }
 
-        // Sorting
-        if ("ASC".equalsIgnoreCase(sortByPrice)) {
-            productsWithVAT.sort((p1, p2) -> Float.compare(p1.getPrice(), p2.getPrice()));
-        } else if ("DESC".equalsIgnoreCase(sortByPrice)) {
-            productsWithVAT.sort((p1, p2) -> Float.compare(p2.getPrice(), p1.getPrice()));
+    /**
+     * Loads one page of base products from the database and applies VAT to that
+     * page only. VAT is a constant factor, so ordering by the stored price is
+     * the same as ordering by the VAT-inclusive display price.
+     */
+    private SearchResult<Product> findPageForDisplay(String searchTerm, String category, String sortByPrice,
+                                                     int pageNumber, int pageSize) throws SQLException {
+        int totalResults = productDAO.countPage(searchTerm, category);
+        List<Product> pageResults = new ArrayList<>();
+        if ((long) (pageNumber - 1) * pageSize < totalResults) {
+            pageResults = addVAT(productDAO.findPage(searchTerm, category, sortByPrice, pageNumber, pageSize));
         }
 
-        // Pagination (manual, for example)
-        int totalResults = productsWithVAT.size();
-        int fromIndex = (pageNumber - 1) * pageSize;
-        if (fromIndex >= totalResults) {
-            return new SearchResult<>(new ArrayList<>(), pageNumber, 0, 0); // Return empty result if fromIndex is out of bounds
-        }
-        int toIndex = Math.min(fromIndex + pageSize, totalResults);
-        List<Product> pageResults = productsWithVAT.subList(fromIndex, toIndex);
-        
         int totalPages = (int) Math.ceil((double) totalResults / pageSize);
         if (totalPages == 0 && totalResults > 0) totalPages = 1;
 
@@ -529,6 +791,13 @@ public class ProductServiceImpl implements IProductService {
         // Enhanced search implementation that supports both category and product type filtering
         ProductType enumType = ProductTypeDisplayMapper.fromDisplayName(productType);
         
+        ProductCatalogIndex index = catalogIndex;
+        if (index != null && (keyword == null || keyword.trim().isEmpty())) {
+            // Without a keyword every filter and sort key is in the index; as in the database search, only products in stock are listed
+            String categoryFilter = enumType == null ? categoryFilter(category) : null;
+            return indexedPage(index, null, null, true, enumType, categoryFilter, sortBy, sortOrder, pageNumber, pageSize);
+        }
+        
         List<Product> products;
         int totalResults;
         
@@ -558,6 +827,49 @@ public class ProductServiceImpl implements IProductService {
         return new SearchResult<>(productsWithVAT, pageNumber, totalPages, totalResults);
     }
 
+    @Override
+    public SearchResult<Product> browseProducts(String category, String productType, Double minPrice, Double maxPrice,
+                                                boolean inStockOnly, String sortBy, String sortOrder,
+                                                int pageNumber, int pageSize) throws SQLException {
+        ProductCatalogIndex index = catalogIndex != null ? catalogIndex : ProductCatalogIndex.of(productDAO.getAll());
+        ProductType typeFilter = ProductTypeDisplayMapper.fromDisplayName(productType);
+        if (typeFilter == null && productType != null && !productType.trim().isEmpty()) {
+            return new SearchResult<>(new ArrayList<>(), pageNumber, 0, 0);
+        }
+        // The index holds prices excluding VAT; the bounds are VAT-inclusive display prices
+        double priceFactor = 1 + VAT_RATE;
+        Long minPriceMinor = minPrice != null ? (long) Math.ceil(minPrice * 100 / priceFactor - 1e-6) : null;
+        Long maxPriceMinor = maxPrice != null ? (long) Math.floor(maxPrice * 100 / priceFactor + 1e-6) : null;
+        return indexedPage(index, minPriceMinor, maxPriceMinor, inStockOnly, typeFilter, categoryFilter(category),
+            sortBy, sortOrder, pageNumber, pageSize);
+    }
+
+    private static String categoryFilter(String category) {
+        return category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category) ? category : null;
+    }
+
+    /**
+     * Queries the index and loads the page's products, with subtype details, in index order.
+     */
+    private SearchResult<Product> indexedPage(ProductCatalogIndex index, Long minPriceMinor, Long maxPriceMinor,
+                                              boolean inStockOnly, ProductType type, String category,
+                                              String sortBy, String sortOrder, int pageNumber, int pageSize) throws SQLException {
+        boolean descending = sortBy != null && !sortBy.trim().isEmpty() && "DESC".equalsIgnoreCase(sortOrder);
+        ProductCatalogIndex.Page page = index.query(new ProductCatalogIndex.Query(minPriceMinor, maxPriceMinor,
+            inStockOnly, type, category, ProductCatalogIndex.SortKey.fromString(sortBy), descending,
+            (Math.max(1, pageNumber) - 1) * pageSize, pageSize));
+
+        List<Product> products = new ArrayList<>(page.productIds().size());
+        for (String productId : page.productIds()) {
+            Product product = productDAO.getById(productId);
+            if (product != null) {
+                products.add(addVAT(product));
+            }
+        }
+        int totalPages = (int) Math.ceil((double) page.totalMatches() / pageSize);
+        return new SearchResult<>(products, pageNumber, totalPages, page.totalMatches());
+    }
+
     @Override
     public SearchResult<Product> advancedSearchProducts(String keyword, String category, String sortBy, String sortOrder, int pageNumber, int pageSize) throws SQLException {
         // Check if category is a product type display name first
@@ -628,6 +940,69 @@ public class ProductServiceImpl implements IProductService {
         return new SearchResult<>(productsWithVAT, pageNumber, totalPages, totalResults);
     }
 
+    @Override
+    public FacetedSearchResult<Product> searchProductsWithFacets(String keyword, String category, String productType, String sortBy, String sortOrder, int pageNumber, int pageSize) throws SQLException {
+        // Same filter precedence as searchProducts: a product type replaces the category filter
+        ProductType typeFilter = ProductTypeDisplayMapper.fromDisplayName(productType);
+        String categoryFilter = typeFilter == null && category != null && !category.trim().isEmpty()
+            && !"All".equalsIgnoreCase(category) ? category : null;
+        
+        List<Product> products;
+        if (typeFilter != null) {
+            products = productDAO.searchProductsByType(keyword, typeFilter, sortBy, sortOrder, pageNumber, pageSize);
+        } else {
+            products = productDAO.searchProducts(keyword, categoryFilter, sortBy, sortOrder, pageNumber, pageSize);
+        }
+        
+        double priceFactor = 1 + VAT_RATE;
+        List<IProductDAO.FacetCount> cells = productDAO.getSearchFacetCounts(keyword, priceFactor, PRICE_FACET_BOUNDS);
+        
+        Map<String, Long> categoryCounts = new TreeMap<>();
+        Map<String, Long> typeCounts = new LinkedHashMap<>();
+        for (String displayName : ProductTypeDisplayMapper.getAllDisplayNames()) {
+            typeCounts.put(displayName, 0L);
+        }
+        long[] priceCounts = new long[PRICE_FACET_BOUNDS.length + 1];
+        long inStock = 0;
+        long outOfStock = 0;
+        
+        for (IProductDAO.FacetCount cell : cells) {
+            // Selecting a type runs the type search, which ignores the category filter
+            if (cell.inStock() && cell.strictKeywordMatch() && cell.productType() != ProductType.OTHER) {
+                typeCounts.merge(ProductTypeDisplayMapper.getDisplayName(cell.productType()), cell.count(), Long::sum);
+            }
+            boolean matchesType = typeFilter == null || (cell.productType() == typeFilter && cell.strictKeywordMatch());
+            if (!matchesType) {
+                continue;
+            }
+            if (cell.inStock() && cell.category() != null && !cell.category().isEmpty()) {
+                categoryCounts.merge(cell.category(), cell.count(), Long::sum);
+            }
+            if (categoryFilter != null && !categoryFilter.equals(cell.category())) {
+                continue;
+            }
+            if (cell.inStock()) {
+                inStock += cell.count();
+                priceCounts[cell.priceBucket()] += cell.count();
+            } else {
+                outOfStock += cell.count();
+            }
+        }
+        
+        List<SearchFacets.PriceRange> priceRanges = new ArrayList<>(priceCounts.length);
+        for (int i = 0; i < priceCounts.length; i++) {
+            double min = i == 0 ? 0 : PRICE_FACET_BOUNDS[i - 1];
+            Double max = i < PRICE_FACET_BOUNDS.length ? PRICE_FACET_BOUNDS[i] : null;
+            priceRanges.add(new SearchFacets.PriceRange(min, max, priceCounts[i]));
+        }
+        SearchFacets facets = new SearchFacets(categoryCounts, typeCounts, priceRanges, inStock, outOfStock);
+        
+        // Listed products are those in stock, so the facet query also yields the total
+        int totalPages = (int) Math.ceil((double) inStock / pageSize);
+        SearchResult<Product> page = new SearchResult<>(addVAT(products), pageNumber, totalPages, inStock);
+        return new FacetedSearchResult<>(page, facets);
+    }
+
     // --- Enhanced Inventory Management Methods using StockValidationService ---
     
     /**
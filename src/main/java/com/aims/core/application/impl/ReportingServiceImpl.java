@@ -0,0 +1,112 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IReportingService;
+import com.aims.core.infrastructure.database.dao.IReportingDAO;
+import com.aims.core.shared.dto.CategorySales;
+import com.aims.core.shared.dto.DailyRevenue;
+import com.aims.core.shared.dto.OrderStatusCount;
+import com.aims.core.shared.dto.ProductSales;
+import com.aims.core.shared.exceptions.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+public class ReportingServiceImpl implements IReportingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingServiceImpl.class);
+
+    public static final int MAX_TOP_PRODUCTS = 100;
+    // Ten years of daily rows is still only a few thousand rows per report
+    static final long MAX_RANGE_DAYS = 3660;
+
+    private final IReportingDAO reportingDAO;
+    private final int backfillChunkDays;
+
+    public ReportingServiceImpl(IReportingDAO reportingDAO) {
+        this(reportingDAO, Integer.getInteger("aims.reports.backfillChunkDays", 31));
+    }
+
+    ReportingServiceImpl(IReportingDAO reportingDAO, int backfillChunkDays) {
+        this.reportingDAO = reportingDAO;
+        this.backfillChunkDays = Math.max(1, backfillChunkDays);
+    }
+
+    @Override
+    public List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) throws ValidationException, SQLException {
+        validateRange(from, to);
+        return reportingDAO.getDailyRevenue(from, to);
+    }
+
+    @Override
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) throws ValidationException, SQLException {
+        validateRange(from, to);
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_TOP_PRODUCTS);
+        }
+        return reportingDAO.getTopProducts(from, to, limit);
+    }
+
+    @Override
+    public List<CategorySales> getCategorySales(LocalDate from, LocalDate to) throws ValidationException, SQLException {
+        validateRange(from, to);
+        return reportingDAO.getCategorySales(from, to);
+    }
+
+    @Override
+    public List<OrderStatusCount> getStatusCounts(LocalDate from, LocalDate to) throws ValidationException, SQLException {
+        validateRange(from, to);
+        return reportingDAO.getStatusCounts(from, to);
+    }
+
+    @Override
+    public int backfill(LocalDate from, LocalDate to) throws ValidationException, SQLException {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : reportingDAO.getFirstOrderDay();
+        if (start == null) {
+            logger.info("Report backfill skipped: there are no orders");
+            return 0;
+        }
+        if (start.isAfter(end)) {
+            throw new ValidationException("Backfill start " + start + " is after its end " + end);
+        }
+        LocalDate firstRebuildable = reportingDAO.getFirstRebuildableDay();
+        if (firstRebuildable != null && start.isBefore(firstRebuildable)) {
+            if (from != null || end.isBefore(firstRebuildable)) {
+                throw new ValidationException("Orders before " + firstRebuildable + " are archived, so their rollups cannot be rebuilt");
+            }
+            // The archived years keep the rollups they had
+            logger.info("Report backfill starts at {}: earlier orders are archived", firstRebuildable);
+            start = firstRebuildable;
+        }
+
+        long startedAt = System.nanoTime();
+        int orders = 0;
+        for (LocalDate chunkStart = start; !chunkStart.isAfter(end); chunkStart = chunkStart.plusDays(backfillChunkDays)) {
+            LocalDate chunkEnd = chunkStart.plusDays(backfillChunkDays - 1L);
+            if (chunkEnd.isAfter(end)) {
+                chunkEnd = end;
+            }
+            orders += reportingDAO.rebuildRollups(chunkStart, chunkEnd);
+            logger.debug("Report rollups rebuilt for {} to {}", chunkStart, chunkEnd);
+        }
+        logger.info("Report backfill of {} to {} aggregated {} orders in {} ms", start, end, orders,
+            (System.nanoTime() - startedAt) / 1_000_000);
+        return orders;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) throws ValidationException {
+        if (from == null || to == null) {
+            throw new ValidationException("Report range requires a start and an end date");
+        }
+        if (from.isAfter(to)) {
+            throw new ValidationException("Report start " + from + " is after its end " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Report range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
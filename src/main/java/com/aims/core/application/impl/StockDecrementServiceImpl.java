@@ -0,0 +1,273 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IStockDecrementService;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.exceptions.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock decrement engine.
+ *
+ * DIRECT mode issues one conditional UPDATE per request. GROUP_COMMIT mode
+ * queues requests and lets a single writer thread commit everything queued so
+ * far in one transaction: while one batch commits, the next one accumulates,
+ * so under heavy contention on a hot product many sales share one commit
+ * instead of each retrying an optimistic-lock conflict.
+ */
+public class StockDecrementServiceImpl implements IStockDecrementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockDecrementServiceImpl.class);
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+
+    /**
+     * A queued request and the future its caller waits on.
+     */
+    private static final class PendingDecrement {
+        final String productId;
+        final int quantity;
+        final CompletableFuture<DecrementResult> future = new CompletableFuture<>();
+
+        PendingDecrement(String productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    private final IProductDAO productDAO;
+    private final Mode mode;
+    private final int maxBatchSize;
+
+    private final ConcurrentLinkedQueue<PendingDecrement> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final ExecutorService writer;
+
+    // Statistics
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile int largestBatch = 0;
+
+    public StockDecrementServiceImpl(IProductDAO productDAO, Mode mode) {
+        this(productDAO, mode, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public StockDecrementServiceImpl(IProductDAO productDAO, Mode mode, int maxBatchSize) {
+        this.productDAO = productDAO;
+        this.mode = mode != null ? mode : Mode.DIRECT;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        if (this.mode == Mode.GROUP_COMMIT) {
+            this.writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "stock-group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.writer = null;
+        }
+    }
+
+    @Override
+    public DecrementResult decrementStock(String productId, int quantity) throws SQLException, ValidationException {
+        validate(productId, quantity);
+        if (mode == Mode.DIRECT) {
+            requests.incrementAndGet();
+            return decrementDirect(productId, quantity);
+        }
+
+        try {
+            return decrementStockAsync(productId, quantity).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Stock decrement interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof ValidationException validationException) {
+                throw validationException;
+            }
+            throw new SQLException("Stock decrement failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<DecrementResult> decrementStockAsync(String productId, int quantity) {
+        try {
+            validate(productId, quantity);
+        } catch (ValidationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        requests.incrementAndGet();
+
+        if (mode == Mode.DIRECT) {
+            try {
+                return CompletableFuture.completedFuture(decrementDirect(productId, quantity));
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        PendingDecrement request = new PendingDecrement(productId, quantity);
+        pending.add(request);
+        scheduleDrain();
+        return request.future;
+    }
+
+    @Override
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public String getStatisticsSummary() {
+        long commitCount = commits.get();
+        long batchedRequests = applied.get() + rejected.get();
+        return String.format("mode=%s, requests=%d, applied=%d, rejected=%d, commits=%d, avgBatch=%.1f, largestBatch=%d, fallbacks=%d",
+            mode, requests.get(), applied.get(), rejected.get(), commitCount,
+            commitCount > 0 ? (double) batchedRequests / commitCount : 0.0, largestBatch, fallbacks.get());
+    }
+
+    @Override
+    public void shutdown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+        logger.info("StockDecrementService shutting down: {}", getStatisticsSummary());
+    }
+
+    private void validate(String productId, int quantity) throws ValidationException {
+        if (productId == null || productId.trim().isEmpty()) {
+            throw new ValidationException("Product ID cannot be null or empty");
+        }
+        if (quantity <= 0) {
+            throw new ValidationException("Decrement quantity must be positive: " + quantity);
+        }
+    }
+
+    private DecrementResult decrementDirect(String productId, int quantity) throws SQLException {
+        Integer remaining = productDAO.decrementStockIfAvailable(productId, quantity);
+        commits.incrementAndGet();
+        if (remaining != null) {
+            applied.incrementAndGet();
+            return new DecrementResult(productId, quantity, DecrementResult.Status.APPLIED, remaining);
+        }
+        rejected.incrementAndGet();
+        // Only the failure path pays for a read, to tell "unknown product" from "sold out"
+        DecrementResult.Status status = productDAO.getById(productId) == null
+            ? DecrementResult.Status.NOT_FOUND
+            : DecrementResult.Status.INSUFFICIENT_STOCK;
+        return new DecrementResult(productId, quantity, status, -1);
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shut down: serve whatever is queued on the caller's thread
+                drainScheduled.set(false);
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<PendingDecrement> batch = new ArrayList<>();
+            PendingDecrement next;
+            while (true) {
+                batch.clear();
+                while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+                    batch.add(next);
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                commitBatch(batch);
+            }
+        } finally {
+            drainScheduled.set(false);
+            // A request may have been queued after the last poll but before the flag was cleared
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private void commitBatch(List<PendingDecrement> batch) {
+        Map<String, List<PendingDecrement>> byProduct = new LinkedHashMap<>();
+        for (PendingDecrement request : batch) {
+            byProduct.computeIfAbsent(request.productId, k -> new ArrayList<>()).add(request);
+        }
+        Map<String, List<Integer>> quantities = new LinkedHashMap<>();
+        for (Map.Entry<String, List<PendingDecrement>> entry : byProduct.entrySet()) {
+            List<Integer> list = new ArrayList<>(entry.getValue().size());
+            for (PendingDecrement request : entry.getValue()) {
+                list.add(request.quantity);
+            }
+            quantities.put(entry.getKey(), list);
+        }
+
+        Map<String, int[]> outcomes;
+        try {
+            outcomes = productDAO.decrementStockGrouped(quantities);
+            commits.incrementAndGet();
+            largestBatch = Math.max(largestBatch, batch.size());
+        } catch (SQLException e) {
+            logger.warn("Grouped stock commit of {} requests failed, applying individually: {}", batch.size(), e.getMessage());
+            fallbacks.incrementAndGet();
+            for (PendingDecrement request : batch) {
+                try {
+                    request.future.complete(decrementDirect(request.productId, request.quantity));
+                } catch (SQLException ex) {
+                    request.future.completeExceptionally(ex);
+                } catch (RuntimeException ex) {
+                    request.future.completeExceptionally(ex);
+                }
+            }
+            return;
+        } catch (RuntimeException e) {
+            batch.forEach(request -> request.future.completeExceptionally(e));
+            return;
+        }
+
+        for (Map.Entry<String, List<PendingDecrement>> entry : byProduct.entrySet()) {
+            int[] outcome = outcomes.get(entry.getKey());
+            List<PendingDecrement> requestsForProduct = entry.getValue();
+            for (int i = 0; i < requestsForProduct.size(); i++) {
+                PendingDecrement request = requestsForProduct.get(i);
+                DecrementResult result;
+                if (outcome == null) {
+                    rejected.incrementAndGet();
+                    result = new DecrementResult(request.productId, request.quantity, DecrementResult.Status.NOT_FOUND, -1);
+                } else if (outcome[i] >= 0) {
+                    applied.incrementAndGet();
+                    result = new DecrementResult(request.productId, request.quantity, DecrementResult.Status.APPLIED, outcome[i]);
+                } else {
+                    rejected.incrementAndGet();
+                    result = new DecrementResult(request.productId, request.quantity, DecrementResult.Status.INSUFFICIENT_STOCK, -1);
+                }
+                request.future.complete(result);
+            }
+        }
+    }
+}
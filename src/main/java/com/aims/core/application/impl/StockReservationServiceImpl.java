@@ -12,6 +12,8 @@ import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
@@ -201,6 +203,23 @@ public class StockReservationServiceImpl implements IStockReservationService {
         return calculateAvailableStock(productId, product.getQuantityInStock());
     }
     
+    @Override
+    public Map<String, Integer> getReservedQuantities(Collection<String> productIds) {
+        Map<String, Integer> reserved = new HashMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return reserved;
+        }
+        for (String productId : productIds) {
+            reserved.put(productId, 0);
+        }
+        for (StockReservation reservation : activeReservations.values()) {
+            if (!reservation.isExpired() && reserved.containsKey(reservation.getProductId())) {
+                reserved.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+            }
+        }
+        return reserved;
+    }
+    
     @Override
     public int cleanupExpiredReservations() throws SQLException {
         int cleanedUp = 0;
@@ -7,6 +7,7 @@ import com.aims.core.entities.CartItem;
 import com.aims.core.entities.OrderItem;
 import com.aims.core.entities.Product;
 import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.dto.ProductStockSnapshot;
 import com.aims.core.shared.exceptions.InventoryException;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
@@ -83,6 +84,34 @@ public class StockValidationServiceImpl implements IStockValidationService {
         );
     }
     
+    /**
+     * Builds a validation result from a stock snapshot and the quantity
+     * currently held by active reservations.
+     */
+    private StockValidationResult buildValidationResult(ProductStockSnapshot snapshot, int requestedQuantity,
+                                                        int reservedQuantity) {
+        int actualStock = snapshot.quantityInStock();
+        int availableStock = Math.max(0, actualStock - reservedQuantity);
+        int reservedStock = actualStock - availableStock;
+        
+        if (availableStock >= requestedQuantity) {
+            return new StockValidationResult(
+                true, snapshot.productId(), snapshot.title(), requestedQuantity,
+                actualStock, reservedStock, availableStock,
+                String.format("Stock validation passed for %s", snapshot.title()), "STOCK_AVAILABLE"
+            );
+        }
+        logger.warn("Stock validation failed for product {}: requested={}, available={}", 
+                   snapshot.productId(), requestedQuantity, availableStock);
+        return new StockValidationResult(
+            false, snapshot.productId(), snapshot.title(), requestedQuantity,
+            actualStock, reservedStock, availableStock,
+            String.format("Insufficient stock for %s. Requested: %d, Available: %d", 
+                          snapshot.title(), requestedQuantity, availableStock),
+            "INSUFFICIENT_STOCK"
+        );
+    }
+    
     @Override
     public BulkStockValidationResult validateBulkStock(List<CartItem> items) 
             throws SQLException {
@@ -99,27 +128,34 @@ public class StockValidationServiceImpl implements IStockValidationService {
         List<StockValidationResult> individualResults = new ArrayList<>();
         List<StockValidationResult> failedValidations = new ArrayList<>();
         
+        // One IN query for stock plus one pass over reservations, instead of
+        // loading every product (and its subtype row) twice per line
+        Set<String> productIds = new LinkedHashSet<>();
         for (CartItem item : items) {
-            try {
-                String productId = item.getProduct().getProductId();
-                int quantity = item.getQuantity();
-                
-                StockValidationResult result = validateProductStock(productId, quantity);
-                individualResults.add(result);
-                
-                if (!result.isValid()) {
-                    failedValidations.add(result);
-                }
-                
-            } catch (ResourceNotFoundException e) {
-                logger.error("Product not found during bulk validation: {}", e.getMessage());
-                StockValidationResult errorResult = new StockValidationResult(
-                    false, item.getProduct().getProductId(), 
-                    item.getProduct().getTitle(), item.getQuantity(),
-                    0, 0, 0, "Product not found: " + e.getMessage(), "PRODUCT_NOT_FOUND"
+            productIds.add(item.getProduct().getProductId());
+        }
+        Map<String, ProductStockSnapshot> snapshots = productDAO.getStockSnapshots(productIds);
+        Map<String, Integer> reservedQuantities = stockReservationService.getReservedQuantities(productIds);
+        
+        for (CartItem item : items) {
+            String productId = item.getProduct().getProductId();
+            int quantity = item.getQuantity();
+            ProductStockSnapshot snapshot = snapshots.get(productId);
+            
+            StockValidationResult result;
+            if (snapshot == null) {
+                logger.error("Product not found during bulk validation: {}", productId);
+                result = new StockValidationResult(
+                    false, productId, item.getProduct().getTitle(), quantity,
+                    0, 0, 0, "Product not found: Product with ID " + productId + " not found", "PRODUCT_NOT_FOUND"
                 );
-                individualResults.add(errorResult);
-                failedValidations.add(errorResult);
+            } else {
+                result = buildValidationResult(snapshot, quantity, reservedQuantities.getOrDefault(productId, 0));
+            }
+            individualResults.add(result);
+            
+            if (!result.isValid()) {
+                failedValidations.add(result);
             }
         }
         
@@ -244,19 +280,27 @@ public class StockValidationServiceImpl implements IStockValidationService {
         logger.debug("Retrieving bulk stock info for {} products", productIds.size());
         
         Map<String, StockInfo> stockInfoMap = new HashMap<>();
+        Map<String, ProductStockSnapshot> snapshots = productDAO.getStockSnapshots(productIds);
+        Map<String, Integer> reservedQuantities = stockReservationService.getReservedQuantities(productIds);
         
         for (String productId : productIds) {
-            try {
-                StockInfo stockInfo = getStockInfo(productId);
-                stockInfoMap.put(productId, stockInfo);
-            } catch (ResourceNotFoundException e) {
+            ProductStockSnapshot snapshot = snapshots.get(productId);
+            if (snapshot == null) {
                 logger.warn("Product {} not found during bulk stock info retrieval", productId);
                 // Create empty stock info for missing products
                 StockInfo emptyStockInfo = new StockInfo(
                     productId, "Product Not Found", 0, 0, 0, false, false, 0
                 );
                 stockInfoMap.put(productId, emptyStockInfo);
+                continue;
             }
+            
+            int actualStock = snapshot.quantityInStock();
+            int availableStock = Math.max(0, actualStock - reservedQuantities.getOrDefault(productId, 0));
+            stockInfoMap.put(productId, new StockInfo(
+                productId, snapshot.title(), actualStock, actualStock - availableStock,
+                availableStock, availableStock > 0, actualStock <= DEFAULT_LOW_STOCK_THRESHOLD, DEFAULT_LOW_STOCK_THRESHOLD
+            ));
         }
         
         return stockInfoMap;
@@ -14,6 +14,7 @@ import com.aims.core.shared.exceptions.AuthenticationException;
 import com.aims.core.shared.exceptions.AuthorizationException;
 import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
+import com.aims.core.shared.utils.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -30,6 +31,8 @@ public class UserAccountServiceImpl implements IUserAccountService {
     private final IRoleDAO roleDAO;
     private final IUserRoleAssignmentDAO userRoleAssignmentDAO;
     private final INotificationService notificationService;
+
+    private static final int MAX_USER_PAGE_SIZE = 200;
     // private final PasswordUtils passwordUtils; // Injected or static access
 
     @Autowired
@@ -171,6 +174,24 @@ public class UserAccountServiceImpl implements IUserAccountService {
         return userAccountDAO.getAll();
     }
 
+    @Override
+    public SearchResult<UserAccount> searchUsers(String adminId, String keyword, UserStatus status, String roleId,
+                                                 String sortBy, String sortOrder, int pageNumber, int pageSize)
+            throws SQLException, AuthorizationException {
+        requireAdmin(adminId);
+        int page = Math.max(1, pageNumber);
+        int size = Math.max(1, Math.min(pageSize, MAX_USER_PAGE_SIZE));
+
+        int totalResults = userAccountDAO.countUsers(keyword, status, roleId);
+        int totalPages = (int) Math.ceil((double) totalResults / size);
+        if (totalResults == 0 || page > totalPages) {
+            return new SearchResult<>(List.of(), page, totalPages, totalResults);
+        }
+
+        List<UserAccount> users = userAccountDAO.searchUsers(keyword, status, roleId, sortBy, sortOrder, page, size);
+        return new SearchResult<>(users, page, totalPages, totalResults);
+    }
+
     @Override
     public UserAccount blockUser(String userIdToBlock, String adminId)
             throws SQLException, ResourceNotFoundException, AuthorizationException, ValidationException {
@@ -294,6 +315,21 @@ public class UserAccountServiceImpl implements IUserAccountService {
         return roleDAO.getAll();
     }
 
+    /**
+     * Throws unless {@code adminId} is a user holding the ADMIN role.
+     */
+    private void requireAdmin(String adminId) throws SQLException, AuthorizationException {
+        if (adminId == null || adminId.isBlank()) {
+            throw new AuthorizationException("An administrator ID is required.");
+        }
+        Set<Role> roles = userRoleAssignmentDAO.getRolesByUserId(adminId);
+        boolean isAdmin = roles != null && roles.stream()
+            .anyMatch(role -> UserRole.ADMIN.name().equalsIgnoreCase(role.getRoleId()));
+        if (!isAdmin) {
+            throw new AuthorizationException("User " + adminId + " is not an administrator.");
+        }
+    }
+
     @Override
     public UserAccount login(String username, String plainTextPassword)
             throws AuthenticationException, SQLException, ResourceNotFoundException {
@@ -2,24 +2,26 @@ package com.aims.core.application.impl;
 
 import com.aims.core.application.services.IVATCalculationService;
 import com.aims.core.entities.OrderItem;
+import com.aims.core.shared.utils.Money;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Implementation of IVATCalculationService.
  * Handles 10% VAT calculations per problem statement lines 22-23.
+ *
+ * All arithmetic is done in {@link Money} minor units: every amount is rounded
+ * once on the way in, VAT is applied in basis points, and sums are exact. The
+ * breakdowns are consistent by construction, so validation compares amounts to
+ * the cent instead of within a tolerance.
  */
 @Service
 public class VATCalculationServiceImpl implements IVATCalculationService {
 
     // Business rule constants from problem statement lines 22-23
-    private static final float VAT_RATE = 0.10f; // 10% VAT
-    private static final float VAT_MULTIPLIER = 1.0f + VAT_RATE; // 1.10 for inclusive calculations
-    private static final float CALCULATION_TOLERANCE = 0.01f; // 1 cent tolerance for validation
+    private static final float VAT_RATE = (float) Money.VAT_BASIS_POINTS / Money.BASIS_POINTS; // 10% VAT
 
     @Override
     public float calculateVATInclusivePrice(float basePrice) {
@@ -27,8 +29,7 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
             return 0;
         }
         
-        float vatInclusivePrice = basePrice * VAT_MULTIPLIER;
-        return roundToTwoDecimals(vatInclusivePrice);
+        return Money.toFloat(Money.withVat(Money.fromFloat(basePrice)));
     }
 
     @Override
@@ -37,8 +38,7 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
             return 0;
         }
         
-        float basePrice = vatInclusivePrice / VAT_MULTIPLIER;
-        return roundToTwoDecimals(basePrice);
+        return Money.toFloat(Money.withoutVat(Money.fromFloat(vatInclusivePrice)));
     }
 
     @Override
@@ -58,15 +58,14 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
             return 0;
         }
         
-        float vatAmount = basePrice * VAT_RATE;
-        return roundToTwoDecimals(vatAmount);
+        return Money.toFloat(Money.vat(Money.fromFloat(basePrice)));
     }
 
     @Override
     public OrderPriceBreakdown calculateOrderPricingWithDelivery(List<OrderItem> items, float deliveryFee) {
-        List<ItemPriceBreakdown> itemBreakdowns = new ArrayList<>();
-        float subtotalExclVAT = 0;
-        float totalVATAmount = 0;
+        List<ItemPriceBreakdown> itemBreakdowns = new ArrayList<>(items.size());
+        long subtotalExclVAT = 0;
+        long totalVATAmount = 0;
 
         // Calculate pricing for each item
         for (OrderItem item : items) {
@@ -79,18 +78,16 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
             int quantity = item.getQuantity();
             
             // Assuming stored prices are VAT-exclusive
-            float unitPriceExclVAT = item.getProduct().getPrice();
-            float unitVATAmount = calculateVATAmount(unitPriceExclVAT);
-            float unitPriceInclVAT = calculateVATInclusivePrice(unitPriceExclVAT);
+            long unitPriceExclVAT = Money.fromFloat(item.getProduct().getPrice());
+            long unitVATAmount = Money.vat(unitPriceExclVAT);
             
-            float totalPriceExclVAT = roundToTwoDecimals(unitPriceExclVAT * quantity);
-            float totalVATForItem = roundToTwoDecimals(unitVATAmount * quantity);
-            float totalPriceInclVAT = roundToTwoDecimals(unitPriceInclVAT * quantity);
+            long totalPriceExclVAT = Money.times(unitPriceExclVAT, quantity);
+            long totalVATForItem = Money.times(unitVATAmount, quantity);
 
             ItemPriceBreakdown itemBreakdown = new ItemPriceBreakdown(
                 productId, productTitle, quantity,
-                unitPriceExclVAT, unitVATAmount, unitPriceInclVAT,
-                totalPriceExclVAT, totalVATForItem, totalPriceInclVAT
+                Money.toFloat(unitPriceExclVAT), Money.toFloat(unitVATAmount), Money.toFloat(unitPriceExclVAT + unitVATAmount),
+                Money.toFloat(totalPriceExclVAT), Money.toFloat(totalVATForItem), Money.toFloat(totalPriceExclVAT + totalVATForItem)
             );
 
             itemBreakdowns.add(itemBreakdown);
@@ -98,18 +95,15 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
             totalVATAmount += totalVATForItem;
         }
 
-        // Round subtotals
-        subtotalExclVAT = roundToTwoDecimals(subtotalExclVAT);
-        totalVATAmount = roundToTwoDecimals(totalVATAmount);
-        float subtotalInclVAT = roundToTwoDecimals(subtotalExclVAT + totalVATAmount);
+        long subtotalInclVAT = subtotalExclVAT + totalVATAmount;
         
         // Delivery fee is VAT exempt, so add it directly to total
-        float deliveryFeeRounded = roundToTwoDecimals(deliveryFee);
-        float totalAmount = roundToTwoDecimals(subtotalInclVAT + deliveryFeeRounded);
+        long deliveryFeeMinor = Money.fromFloat(deliveryFee);
+        long totalAmount = subtotalInclVAT + deliveryFeeMinor;
 
         return new OrderPriceBreakdown(
-            subtotalExclVAT, totalVATAmount, subtotalInclVAT,
-            deliveryFeeRounded, totalAmount, itemBreakdowns
+            Money.toFloat(subtotalExclVAT), Money.toFloat(totalVATAmount), Money.toFloat(subtotalInclVAT),
+            Money.toFloat(deliveryFeeMinor), Money.toFloat(totalAmount), itemBreakdowns
         );
     }
 
@@ -119,21 +113,12 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
             return vatInclusivePrice == 0;
         }
         
-        float expectedVATInclusivePrice = calculateVATInclusivePrice(basePrice);
-        float difference = Math.abs(vatInclusivePrice - expectedVATInclusivePrice);
-        
-        return difference <= CALCULATION_TOLERANCE;
+        return Money.fromFloat(vatInclusivePrice) == Money.withVat(Money.fromFloat(basePrice));
     }
 
     @Override
     public float roundToTwoDecimals(float price) {
-        if (Float.isNaN(price) || Float.isInfinite(price)) {
-            return 0;
-        }
-        
-        BigDecimal bd = new BigDecimal(Float.toString(price));
-        bd = bd.setScale(2, RoundingMode.HALF_UP);
-        return bd.floatValue();
+        return Money.round(price);
     }
 
     /**
@@ -157,26 +142,36 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
      * @return true if all calculations are accurate
      */
     public boolean validateOrderVATCalculations(OrderPriceBreakdown orderBreakdown) {
-        // Validate subtotal calculations
-        float expectedSubtotalInclVAT = orderBreakdown.getSubtotalExclVAT() + orderBreakdown.getTotalVATAmount();
-        if (Math.abs(orderBreakdown.getSubtotalInclVAT() - expectedSubtotalInclVAT) > CALCULATION_TOLERANCE) {
-            return false;
+        // Validate item calculations; the subtotals are the exact sums of the items
+        long subtotalExclVAT;
+        long totalVATAmount;
+        if (orderBreakdown.getItemBreakdowns().isEmpty()) {
+            subtotalExclVAT = Money.fromFloat(orderBreakdown.getSubtotalExclVAT());
+            totalVATAmount = Money.fromFloat(orderBreakdown.getTotalVATAmount());
+        } else {
+            subtotalExclVAT = 0;
+            totalVATAmount = 0;
+            for (ItemPriceBreakdown item : orderBreakdown.getItemBreakdowns()) {
+                if (!validateItemVATCalculations(item)) {
+                    return false;
+                }
+                subtotalExclVAT += Money.fromFloat(item.getTotalPriceExclVAT());
+                totalVATAmount += Money.fromFloat(item.getTotalVATAmount());
+            }
+            if (!matches(orderBreakdown.getSubtotalExclVAT(), subtotalExclVAT)
+                    || !matches(orderBreakdown.getTotalVATAmount(), totalVATAmount)) {
+                return false;
+            }
         }
         
-        // Validate total amount
-        float expectedTotalAmount = orderBreakdown.getSubtotalInclVAT() + orderBreakdown.getDeliveryFee();
-        if (Math.abs(orderBreakdown.getTotalAmount() - expectedTotalAmount) > CALCULATION_TOLERANCE) {
+        // Validate subtotal calculations
+        long subtotalInclVAT = subtotalExclVAT + totalVATAmount;
+        if (!matches(orderBreakdown.getSubtotalInclVAT(), subtotalInclVAT)) {
             return false;
         }
         
-        // Validate individual item calculations
-        for (ItemPriceBreakdown item : orderBreakdown.getItemBreakdowns()) {
-            if (!validateItemVATCalculations(item)) {
-                return false;
-            }
-        }
-        
-        return true;
+        // Validate total amount
+        return matches(orderBreakdown.getTotalAmount(), subtotalInclVAT + Money.fromFloat(orderBreakdown.getDeliveryFee()));
     }
 
     /**
@@ -187,28 +182,28 @@ public class VATCalculationServiceImpl implements IVATCalculationService {
      */
     private boolean validateItemVATCalculations(ItemPriceBreakdown item) {
         // Validate unit price calculations
-        float expectedUnitVAT = calculateVATAmount(item.getUnitPriceExclVAT());
-        if (Math.abs(item.getUnitVATAmount() - expectedUnitVAT) > CALCULATION_TOLERANCE) {
-            return false;
-        }
-        
-        float expectedUnitInclVAT = calculateVATInclusivePrice(item.getUnitPriceExclVAT());
-        if (Math.abs(item.getUnitPriceInclVAT() - expectedUnitInclVAT) > CALCULATION_TOLERANCE) {
+        long unitPriceExclVAT = Money.fromFloat(item.getUnitPriceExclVAT());
+        long unitVATAmount = Money.vat(unitPriceExclVAT);
+        if (!matches(item.getUnitVATAmount(), unitVATAmount)
+                || !matches(item.getUnitPriceInclVAT(), unitPriceExclVAT + unitVATAmount)) {
             return false;
         }
         
         // Validate total calculations
-        float expectedTotalExclVAT = item.getUnitPriceExclVAT() * item.getQuantity();
-        if (Math.abs(item.getTotalPriceExclVAT() - expectedTotalExclVAT) > CALCULATION_TOLERANCE) {
-            return false;
-        }
-        
-        float expectedTotalVAT = item.getUnitVATAmount() * item.getQuantity();
-        if (Math.abs(item.getTotalVATAmount() - expectedTotalVAT) > CALCULATION_TOLERANCE) {
-            return false;
-        }
-        
-        return true;
+        long totalPriceExclVAT = Money.times(unitPriceExclVAT, item.getQuantity());
+        long totalVATAmount = Money.times(unitVATAmount, item.getQuantity());
+        return matches(item.getTotalPriceExclVAT(), totalPriceExclVAT)
+            && matches(item.getTotalVATAmount(), totalVATAmount)
+            && matches(item.getTotalPriceInclVAT(), totalPriceExclVAT + totalVATAmount);
+    }
+
+    /**
+     * Whether a float amount is the expected amount, to the cent. Floats hold
+     * whole cents exactly only up to about 131,000, so large amounts compare as
+     * the closest float to the expected amount.
+     */
+    private static boolean matches(float actual, long expectedMinor) {
+        return Money.round(actual) == Money.toFloat(expectedMinor);
     }
 
     /**
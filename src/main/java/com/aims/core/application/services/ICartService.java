@@ -104,6 +104,20 @@ public interface ICartService {
      */
     Cart createNewCart(String userId) throws SQLException;
 
+    /**
+     * Writes any cart changes not yet stored to the database, e.g. before the cart is converted into an order.
+     * A no-op when cart changes are written through.
+     *
+     * @param cartSessionId The session ID of the cart.
+     * @throws SQLException If the cart could not be stored.
+     */
+    void flushCart(String cartSessionId) throws SQLException;
+
+    /**
+     * Stores all pending cart changes and stops background persistence. Called when the application exits.
+     */
+    void shutdown();
+
     /**
      * Calculates the total price of products in the cart, excluding VAT. [cite: 325]
      * Also checks and provides information about inventory shortages for items in the cart. [cite: 326]
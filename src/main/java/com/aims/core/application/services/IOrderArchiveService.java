@@ -0,0 +1,35 @@
+package com.aims.core.application.services;
+
+import com.aims.core.shared.dto.OrderArchiveMetrics;
+
+/**
+ * Service interface for keeping the main database small by moving finished
+ * orders (delivered, cancelled or rejected) past a cutoff age into per-year
+ * archive databases. Archived orders stay readable for the customer's order
+ * history, but no longer slow down the status, user and date queries.
+ */
+public interface IOrderArchiveService {
+
+    /**
+     * Starts archiving in the background at the configured interval.
+     * Calling it again has no effect.
+     */
+    void start();
+
+    /**
+     * Runs one archive pass now, in batches of one transaction each.
+     *
+     * @return The number of orders archived
+     */
+    int archiveOrders();
+
+    /**
+     * @return Counters and durations of the runs so far
+     */
+    OrderArchiveMetrics getMetrics();
+
+    /**
+     * Stops background archiving after the batch in progress.
+     */
+    void shutdown();
+}
@@ -49,6 +49,11 @@ public interface IOrderService {
      */
     List<OrderEntity> getOrdersByUserId(String userId) throws ResourceNotFoundException;
     
+    /**
+     * Get orders for a user, including archived ones when asked to (full order history)
+     */
+    List<OrderEntity> getOrdersByUserId(String userId, boolean includeArchived) throws ResourceNotFoundException;
+    
     /**
      * Get orders by status
      */
@@ -0,0 +1,38 @@
+package com.aims.core.application.services;
+
+import com.aims.core.shared.dto.PaymentReconciliationMetrics;
+
+/**
+ * Service interface for reconciling payments left pending with the gateway.
+ * A payment stays pending when the customer closes the browser before the
+ * return URL or the gateway notification is lost; the reconciler asks the
+ * gateway for the result of such payments and applies it.
+ */
+public interface IPaymentReconciliationService {
+
+    /**
+     * Starts reconciling in the background at the configured interval.
+     * Calling it again has no effect.
+     */
+    void start();
+
+    /**
+     * Runs one pass now: walks the stale pending payments in transaction ID
+     * order from the saved checkpoint, queries the gateway for each, and
+     * applies the results. The checkpoint is saved after every batch, so a
+     * pass interrupted by a restart resumes where it stopped.
+     *
+     * @return The number of payments resolved (settled, failed or expired)
+     */
+    int reconcilePendingPayments();
+
+    /**
+     * @return Current backlog, counters and latencies
+     */
+    PaymentReconciliationMetrics getMetrics();
+
+    /**
+     * Stops background reconciliation after the batch in progress.
+     */
+    void shutdown();
+}
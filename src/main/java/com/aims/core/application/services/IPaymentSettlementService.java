@@ -0,0 +1,48 @@
+package com.aims.core.application.services;
+
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.shared.dto.SettlementResult;
+
+import java.sql.SQLException;
+
+/**
+ * Service interface for settling payment results.
+ * Every write a payment result causes (transaction record, stock, invoice,
+ * order status) is committed together, whether the result comes from a direct
+ * charge or from a gateway notification, and settling the same order twice
+ * never takes its stock twice.
+ */
+public interface IPaymentSettlementService {
+
+    /**
+     * Settles a successful payment: records the transaction, takes the ordered
+     * units from stock, creates the invoice and moves the order to
+     * {@code paidStatus}, in one commit. If a product is short of stock nothing
+     * of that is written; the transaction is then recorded with the order in
+     * PAYMENT_FAILED, so the charge can be refunded.
+     *
+     * @param order Order being paid; its items are loaded when not present
+     * @param transaction Successful payment transaction
+     * @param paidStatus Status the order moves to
+     * @return SETTLED, ALREADY_SETTLED (the order had left PENDING_PAYMENT before; only the
+     *         transaction is recorded, and {@code order} takes the status it already has),
+     *         or INSUFFICIENT_STOCK
+     * @throws SQLException Database error; nothing is written
+     */
+    SettlementResult settlePaidOrder(OrderEntity order, PaymentTransaction transaction, OrderStatus paidStatus)
+            throws SQLException;
+
+    /**
+     * Records an unsuccessful payment result: the transaction record and the
+     * order status, in one commit. Only an order still in PENDING_PAYMENT moves
+     * to {@code failedStatus}; one that was paid or cancelled meanwhile keeps
+     * its status.
+     *
+     * @param transaction Failed or cancelled payment transaction
+     * @param failedStatus Status a pending order moves to
+     * @throws SQLException Database error; nothing is written
+     */
+    void recordFailedPayment(PaymentTransaction transaction, OrderStatus failedStatus) throws SQLException;
+}
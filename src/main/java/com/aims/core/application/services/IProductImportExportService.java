@@ -0,0 +1,179 @@
+package com.aims.core.application.services;
+
+import com.aims.core.enums.ProductType;
+import com.aims.core.shared.exceptions.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for loading and dumping the product catalogue in bulk.
+ *
+ * Imports are streamed: records are read one at a time, validated by a pool of
+ * worker threads and written in chunked transactions, so memory use does not
+ * depend on the size of the file. Rows that fail validation or are rejected by
+ * the database are reported individually and do not stop the import.
+ * Exports are written straight from the database cursor to the output stream.
+ */
+public interface IProductImportExportService {
+
+    /**
+     * Supported file formats. Both use the columns of ProductRecordMapper.
+     */
+    enum Format {
+        /** Comma-separated values with a header row */
+        CSV,
+        /** One JSON object per line */
+        JSONL;
+
+        public static Format fromString(String value) throws ValidationException {
+            if (value != null) {
+                for (Format format : values()) {
+                    if (format.name().equalsIgnoreCase(value.trim())) {
+                        return format;
+                    }
+                }
+            }
+            throw new ValidationException("Unsupported format: " + value + " (expected csv or jsonl)");
+        }
+    }
+
+    /**
+     * Imports products from a stream. The stream is read to the end but not closed.
+     *
+     * @param input UTF-8 encoded CSV or JSONL data
+     * @param format Format of the data
+     * @param managerId Manager performing the import (recorded in the audit log)
+     * @param importId Identifier for progress queries; generated when null
+     * @return Final report with counts and rejected rows
+     * @throws IOException If the input cannot be read or is malformed beyond a single row
+     * @throws SQLException If the database fails in a way that is not specific to a row
+     * @throws ValidationException If the CSV header is missing or invalid
+     */
+    ImportReport importProducts(InputStream input, Format format, String managerId, String importId)
+        throws IOException, SQLException, ValidationException;
+
+    /**
+     * Returns the live report of a running import, or the final report of a
+     * recently finished one.
+     *
+     * @param importId The import identifier
+     * @return The report, or null if unknown
+     */
+    ImportReport getImportStatus(String importId);
+
+    /**
+     * Writes products to a stream without loading the catalogue into memory.
+     * The stream is flushed but not closed.
+     *
+     * @param output Destination for UTF-8 encoded CSV or JSONL data
+     * @param format Output format
+     * @param productType Only export this type (null for all)
+     * @return Number of products written
+     */
+    int exportProducts(OutputStream output, Format format, ProductType productType) throws IOException, SQLException;
+
+    /**
+     * Progress and outcome of one import. Counters are updated while the
+     * import runs, so a report can be polled for progress.
+     */
+    class ImportReport {
+        public enum Status { RUNNING, COMPLETED, FAILED }
+
+        /** Only the first rejected rows are kept; the rest are counted */
+        public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+        private final String importId;
+        private final Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile String failureMessage;
+        private volatile long rowsRead;
+        private volatile long rowsImported;
+        private volatile long rowsRejected;
+        private final List<RejectedRow> rejectedRows = new ArrayList<>();
+
+        public ImportReport(String importId, Format format) {
+            this.importId = importId;
+            this.format = format;
+        }
+
+        public String getImportId() { return importId; }
+        public Format getFormat() { return format; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public Status getStatus() { return status; }
+        public String getFailureMessage() { return failureMessage; }
+        public long getRowsRead() { return rowsRead; }
+        public long getRowsImported() { return rowsImported; }
+        public long getRowsRejected() { return rowsRejected; }
+
+        public synchronized List<RejectedRow> getRejectedRows() {
+            return new ArrayList<>(rejectedRows);
+        }
+
+        public long getElapsedMillis() {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            return Duration.between(startedAt, end).toMillis();
+        }
+
+        public synchronized void recordRowsRead(long count) { rowsRead += count; }
+        public synchronized void recordImported(long count) { rowsImported += count; }
+
+        public synchronized void recordRejected(RejectedRow row) {
+            rowsRejected++;
+            if (rejectedRows.size() < MAX_REPORTED_REJECTIONS) {
+                rejectedRows.add(row);
+            }
+        }
+
+        public void complete() {
+            finishedAt = LocalDateTime.now();
+            status = Status.COMPLETED;
+        }
+
+        public void fail(String message) {
+            finishedAt = LocalDateTime.now();
+            failureMessage = message;
+            status = Status.FAILED;
+        }
+
+        @Override
+        public String toString() {
+            return "ImportReport{" + importId + ": " + status + ", read=" + rowsRead + ", imported=" + rowsImported +
+                   ", rejected=" + rowsRejected + ", elapsedMs=" + getElapsedMillis() + "}";
+        }
+    }
+
+    /**
+     * A row that was not imported.
+     */
+    class RejectedRow {
+        private final long lineNumber;
+        private final String productId;
+        private final String reason;
+
+        public RejectedRow(long lineNumber, String productId, String reason) {
+            this.lineNumber = lineNumber;
+            this.productId = productId;
+            this.reason = reason;
+        }
+
+        /** @return line of the input on which the row starts (1-based, header included) */
+        public long getLineNumber() { return lineNumber; }
+        public String getProductId() { return productId; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + (productId != null ? " (" + productId + ")" : "") + ": " + reason;
+        }
+    }
+}
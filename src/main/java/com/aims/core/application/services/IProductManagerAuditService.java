@@ -1,12 +1,20 @@
 package com.aims.core.application.services;
 
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.DailyOperationCounts;
+import com.aims.core.shared.dto.ProductAuditEntry;
 import com.aims.core.shared.exceptions.ValidationException;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Service interface for Product Manager audit operations.
  * Handles tracking and validation of Product Manager daily operation limits.
+ * Depending on the durability mode, logged operations may be stored in the
+ * background; daily limits always account for them immediately.
  */
 public interface IProductManagerAuditService {
 
@@ -83,4 +91,68 @@ public interface IProductManagerAuditService {
      * @throws SQLException If a database error occurs
      */
     void recordOperation(String managerId, String operationKey) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Logs several operations of one manager as a single batched insert.
+     *
+     * @param managerId The ID of the product manager
+     * @param entries The operations to record
+     * @throws SQLException If a database error occurs
+     */
+    void logOperations(String managerId, List<ProductAuditEntry> entries) throws SQLException;
+
+    /**
+     * Builds the audit rows of operations whose caller stores them itself, in
+     * the same transaction as the change they describe. Once that transaction
+     * commits, pass the rows it stored to {@link #countStoredOperations(List)}.
+     *
+     * @param managerId The ID of the product manager
+     * @param entries The operations to record
+     * @return One audit row per entry, in the same order
+     * @throws SQLException If a database error occurs
+     */
+    List<AuditLogRecord> prepareOperations(String managerId, List<ProductAuditEntry> entries) throws SQLException;
+
+    /**
+     * Counts audit rows from {@link #prepareOperations(String, List)} that the
+     * caller's transaction committed towards the daily limits.
+     *
+     * @param records The committed rows
+     * @throws SQLException If a database error occurs
+     */
+    void countStoredOperations(List<AuditLogRecord> records) throws SQLException;
+
+    /**
+     * Finds which of the given products have already reached today's price
+     * update limit for the manager, with one query for the whole batch.
+     *
+     * @param managerId The ID of the product manager
+     * @param productIds The products about to be repriced
+     * @return The IDs of the products that may not be repriced again today
+     * @throws SQLException If a database error occurs
+     */
+    Set<String> getProductsAtPriceUpdateLimit(String managerId, Collection<String> productIds) throws SQLException;
+
+    /**
+     * Gets a manager's operations on a specific date, counted by operation key
+     * type. Today's counts are served from memory.
+     *
+     * @param managerId The ID of the product manager
+     * @param date The date to check
+     * @return The counts for that manager and date
+     * @throws SQLException If a database error occurs
+     */
+    DailyOperationCounts getDailyOperationCounts(String managerId, LocalDate date) throws SQLException;
+
+    /**
+     * Waits until every operation logged so far is stored.
+     *
+     * @throws SQLException If a database error occurs
+     */
+    void flush() throws SQLException;
+
+    /**
+     * Stores pending operations and stops background writing.
+     */
+    void shutdown();
+}
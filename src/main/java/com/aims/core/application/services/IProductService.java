@@ -12,10 +12,14 @@ import com.aims.core.entities.LP;
 import com.aims.core.shared.exceptions.ValidationException; // Assuming you have these custom exceptions
 import com.aims.core.shared.exceptions.ResourceNotFoundException; // Assuming you have these custom exceptions
 import com.aims.core.shared.exceptions.InventoryException; // For stock-related exceptions
+import com.aims.core.shared.utils.FacetedSearchResult;
 import com.aims.core.shared.utils.SearchResult; // Assuming a SearchResult utility class
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing products.
@@ -172,6 +176,45 @@ public interface IProductService {
      */
     Product updateProductStock(String productId, int quantityChange) throws SQLException, ValidationException, ResourceNotFoundException, InventoryException;
 
+    /**
+     * Deletes multiple products (up to 10 at once) as one set-based operation.
+     * Existence and order-usage checks run once for the batch, the daily limit
+     * is checked once for the deletable products, the deletes run in one
+     * transaction and the audit entries are written as one batched insert.
+     *
+     * @param productIds List of product IDs to delete.
+     * @param managerId The ID of the product manager performing the action.
+     * @return Per-item report; products that are missing or part of orders are reported, not deleted.
+     * @throws SQLException If a database error occurs.
+     * @throws ValidationException If the list is empty or too long, or the daily limit would be exceeded.
+     */
+    BulkOperationResult bulkDeleteProducts(List<String> productIds, String managerId) throws SQLException, ValidationException;
+
+    /**
+     * Updates the prices of multiple products as one set-based operation.
+     * Each price is checked against the 30%-150% of value rule and the per-product
+     * daily price update limit; valid updates are applied in one transaction.
+     *
+     * @param newPrices New price (excluding VAT) per product ID.
+     * @param managerId The ID of the product manager performing the action.
+     * @return Per-item report.
+     * @throws SQLException If a database error occurs.
+     * @throws ValidationException If the request is empty or too large.
+     */
+    BulkOperationResult bulkUpdatePrices(Map<String, Float> newPrices, String managerId) throws SQLException, ValidationException;
+
+    /**
+     * Adjusts the stock of multiple products in one transaction. Adjustments
+     * that would make stock negative are skipped and reported.
+     *
+     * @param quantityChanges Quantity change per product ID (positive adds stock).
+     * @param managerId The ID of the product manager performing the action.
+     * @return Per-item report.
+     * @throws SQLException If a database error occurs.
+     * @throws ValidationException If the request is empty or too large.
+     */
+    BulkOperationResult bulkAdjustStock(Map<String, Integer> quantityChanges, String managerId) throws SQLException, ValidationException;
+
 
     // --- Product Viewing/Searching (for Customers) ---
 
@@ -202,6 +245,27 @@ public interface IProductService {
      */
     SearchResult<Product> searchProducts(String keyword, String category, String productType, String sortBy, String sortOrder, int pageNumber, int pageSize) throws SQLException;
 
+    /**
+     * Lists products by price range, stock, type and category, sorted and
+     * paginated. Filtering and sorting run on the in-memory catalogue index;
+     * only the returned page is loaded from the database.
+     *
+     * @param category Exact category (can be null, empty or "All").
+     * @param productType Product type display name (can be null or empty).
+     * @param minPrice Lowest VAT-inclusive price, or null for no bound.
+     * @param maxPrice Highest VAT-inclusive price, or null for no bound.
+     * @param inStockOnly Whether to leave out products without stock.
+     * @param sortBy The field to sort by (title, price, category, entryDate, quantity).
+     * @param sortOrder The sort order (ASC or DESC).
+     * @param pageNumber The page number for pagination (1-indexed).
+     * @param pageSize The number of products per page.
+     * @return A SearchResult of matching products (with VAT-inclusive prices).
+     * @throws SQLException If a database error occurs.
+     */
+    SearchResult<Product> browseProducts(String category, String productType, Double minPrice, Double maxPrice,
+                                         boolean inStockOnly, String sortBy, String sortOrder,
+                                         int pageNumber, int pageSize) throws SQLException;
+
     /**
      * Retrieves detailed information for a single product, including subtype details.
      * The price returned should be inclusive of 10% VAT for customer display.
@@ -257,6 +321,79 @@ public interface IProductService {
      */
     SearchResult<Product> searchByProductType(String productType, String keyword, String sortBy, String sortOrder, int pageNumber, int pageSize) throws SQLException;
 
+    /**
+     * Searches products like {@link #searchProducts(String, String, String, String, String, int, int)}
+     * and also returns facet counts (category, product type, VAT-inclusive price
+     * range, stock availability) for the whole query, so a UI can render filter
+     * badges without extra round trips. The facets and the result total come
+     * from one aggregate query, which replaces the separate count query.
+     * A product type count is the number of results when that type is selected;
+     * category, price and stock counts are computed within the product type filter.
+     *
+     * @param keyword The term to search for (can be null or empty).
+     * @param category Filter by category (ignored when a product type is given, as in searchProducts).
+     * @param productType Filter by product type display name (can be null or empty).
+     * @param sortBy The field to sort by (title, price, category, entryDate, quantity).
+     * @param sortOrder The sort order (ASC or DESC).
+     * @param pageNumber The page number for pagination (1-indexed).
+     * @param pageSize The number of products per page.
+     * @return The page of matching products (with VAT-inclusive prices) and the facet counts.
+     * @throws SQLException If a database error occurs.
+     */
+    FacetedSearchResult<Product> searchProductsWithFacets(String keyword, String category, String productType, String sortBy, String sortOrder, int pageNumber, int pageSize) throws SQLException;
+
     // --- Helper or Internal methods (if any, might not be in interface) ---
     // float calculatePriceWithVAT(float priceExclVAT);
-}
\ No newline at end of file
+
+    /**
+     * Per-item outcome of a bulk product operation.
+     */
+    public static class BulkOperationResult {
+        public enum ItemStatus { SUCCESS, NOT_FOUND, IN_USE, INVALID, LIMIT_EXCEEDED, INSUFFICIENT_STOCK }
+
+        private final String operationType;
+        private final List<ItemResult> items = new ArrayList<>();
+
+        public BulkOperationResult(String operationType) {
+            this.operationType = operationType;
+        }
+
+        public void addItem(String productId, ItemStatus status, String message) {
+            items.add(new ItemResult(productId, status, message));
+        }
+
+        // Getters
+        public String getOperationType() { return operationType; }
+        public List<ItemResult> getItems() { return Collections.unmodifiableList(items); }
+        public int getTotalItems() { return items.size(); }
+        public int getSucceededCount() {
+            return (int) items.stream().filter(ItemResult::isSuccess).count();
+        }
+        public int getFailedCount() { return items.size() - getSucceededCount(); }
+        public boolean isAllSucceeded() { return getFailedCount() == 0; }
+        public List<ItemResult> getFailedItems() {
+            return items.stream().filter(item -> !item.isSuccess()).toList();
+        }
+    }
+
+    /**
+     * Outcome for a single product in a bulk operation.
+     */
+    public static class ItemResult {
+        private final String productId;
+        private final BulkOperationResult.ItemStatus status;
+        private final String message;
+
+        public ItemResult(String productId, BulkOperationResult.ItemStatus status, String message) {
+            this.productId = productId;
+            this.status = status;
+            this.message = message;
+        }
+
+        // Getters
+        public String getProductId() { return productId; }
+        public BulkOperationResult.ItemStatus getStatus() { return status; }
+        public String getMessage() { return message; }
+        public boolean isSuccess() { return status == BulkOperationResult.ItemStatus.SUCCESS; }
+    }
+}
@@ -0,0 +1,70 @@
+package com.aims.core.application.services;
+
+import com.aims.core.shared.dto.CategorySales;
+import com.aims.core.shared.dto.DailyRevenue;
+import com.aims.core.shared.dto.OrderStatusCount;
+import com.aims.core.shared.dto.ProductSales;
+import com.aims.core.shared.exceptions.ValidationException;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service interface for sales and operations reports for managers and the
+ * admin dashboard. Reports are answered from daily rollups maintained as
+ * orders settle and cancel, so a year of data costs a few hundred rows per
+ * report, not a load of every order.
+ *
+ * Ranges are order days, {@code from} and {@code to} inclusive.
+ */
+public interface IReportingService {
+
+    /**
+     * Revenue, sold orders and units per day.
+     *
+     * @throws ValidationException If the range is invalid
+     * @throws SQLException If a database error occurs
+     */
+    List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) throws ValidationException, SQLException;
+
+    /**
+     * Best-selling products by revenue.
+     *
+     * @param limit Number of products, 1 to 100
+     * @throws ValidationException If the range or limit is invalid
+     * @throws SQLException If a database error occurs
+     */
+    List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) throws ValidationException, SQLException;
+
+    /**
+     * Sales per product category with each category's share of revenue.
+     *
+     * @throws ValidationException If the range is invalid
+     * @throws SQLException If a database error occurs
+     */
+    List<CategorySales> getCategorySales(LocalDate from, LocalDate to) throws ValidationException, SQLException;
+
+    /**
+     * Orders placed in the range per current status.
+     *
+     * @throws ValidationException If the range is invalid
+     * @throws SQLException If a database error occurs
+     */
+    List<OrderStatusCount> getStatusCounts(LocalDate from, LocalDate to) throws ValidationException, SQLException;
+
+    /**
+     * Recomputes the rollups of a range from the orders, one chunk of days per
+     * transaction so order writes are not held up for the whole range.
+     * Archived years keep their rollups: without a start the backfill begins
+     * after the newest archived year, and an explicit range reaching into one
+     * is refused.
+     *
+     * @param from First day, or null for the first order day
+     * @param to   Last day, or null for today
+     * @return The number of orders aggregated
+     * @throws ValidationException If the range is invalid
+     * @throws SQLException If a database error occurs
+     */
+    int backfill(LocalDate from, LocalDate to) throws ValidationException, SQLException;
+}
@@ -0,0 +1,95 @@
+package com.aims.core.application.services;
+
+import com.aims.core.shared.exceptions.ValidationException;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for removing sold units from stock under contention.
+ * Every decrement is a single conditional UPDATE that succeeds only when
+ * enough stock is available, so concurrent buyers of the same product never
+ * conflict or oversell. In group-commit mode, decrements that arrive while a
+ * commit is in progress are applied together in the next transaction, and
+ * each caller still receives its own result.
+ */
+public interface IStockDecrementService {
+
+    /**
+     * How decrements are written to the database.
+     */
+    enum Mode {
+        /** One conditional UPDATE per request on the caller's thread */
+        DIRECT,
+        /** Requests are queued and committed in batches by a single writer thread */
+        GROUP_COMMIT
+    }
+
+    /**
+     * Removes {@code quantity} units of a product from stock.
+     *
+     * @param productId Product to decrement
+     * @param quantity Units to remove (must be positive)
+     * @return DecrementResult describing whether the units were taken
+     * @throws SQLException Database error
+     * @throws ValidationException Invalid parameters
+     */
+    DecrementResult decrementStock(String productId, int quantity) throws SQLException, ValidationException;
+
+    /**
+     * Asynchronous variant of {@link #decrementStock(String, int)}. The future
+     * completes exceptionally with a SQLException or ValidationException.
+     */
+    CompletableFuture<DecrementResult> decrementStockAsync(String productId, int quantity);
+
+    /**
+     * @return the write mode of this service
+     */
+    Mode getMode();
+
+    /**
+     * @return request/commit counters for monitoring
+     */
+    String getStatisticsSummary();
+
+    /**
+     * Stops the writer thread (group-commit mode). Pending requests are
+     * committed before the thread exits.
+     */
+    void shutdown();
+
+    /**
+     * Outcome of a single decrement request.
+     */
+    class DecrementResult {
+        public enum Status { APPLIED, INSUFFICIENT_STOCK, NOT_FOUND }
+
+        private final String productId;
+        private final int requestedQuantity;
+        private final Status status;
+        private final int remainingStock;
+
+        public DecrementResult(String productId, int requestedQuantity, Status status, int remainingStock) {
+            this.productId = productId;
+            this.requestedQuantity = requestedQuantity;
+            this.status = status;
+            this.remainingStock = remainingStock;
+        }
+
+        public String getProductId() { return productId; }
+        public int getRequestedQuantity() { return requestedQuantity; }
+        public Status getStatus() { return status; }
+        public boolean isApplied() { return status == Status.APPLIED; }
+
+        /**
+         * @return stock left after this request was applied, or -1 when not applied
+         */
+        public int getRemainingStock() { return remainingStock; }
+
+        @Override
+        public String toString() {
+            return "DecrementResult{" + productId + " x" + requestedQuantity + ": " + status +
+                   (status == Status.APPLIED ? ", remaining=" + remainingStock : "") + "}";
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -64,6 +65,14 @@ public interface IStockReservationService {
     int getAvailableStock(String productId) 
             throws SQLException, ResourceNotFoundException;
     
+    /**
+     * Sums active (unexpired) reservations for a set of products in one pass,
+     * so bulk validation can combine them with a single stock query
+     * @param productIds Products to check
+     * @return Map of product ID to reserved quantity (0 when nothing is reserved)
+     */
+    Map<String, Integer> getReservedQuantities(Collection<String> productIds);
+    
     /**
      * Cleans up expired reservations
      * @return Number of expired reservations cleaned up
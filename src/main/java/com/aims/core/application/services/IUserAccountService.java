@@ -2,10 +2,12 @@ package com.aims.core.application.services;
 
 import com.aims.core.entities.UserAccount;
 import com.aims.core.entities.Role;
+import com.aims.core.enums.UserStatus;
 import com.aims.core.shared.exceptions.AuthenticationException;
 import com.aims.core.shared.exceptions.AuthorizationException;
 import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
+import com.aims.core.shared.utils.SearchResult;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -85,6 +87,26 @@ public interface IUserAccountService {
      */
     List<UserAccount> getAllUsers(String adminId) throws SQLException, AuthorizationException;
 
+    /**
+     * Retrieves one page of user accounts matching the given filters. Filtering,
+     * sorting and paging are done by the database, and each returned user has
+     * its roles populated.
+     * @param adminId The ID of the admin requesting the list (for authorization).
+     * @param keyword Text matched against username and email (case-insensitive), or null.
+     * @param status Only users with this status, or null.
+     * @param roleId Only users holding this role, or null.
+     * @param sortBy "username", "email", "status" or "userId".
+     * @param sortOrder "ASC" or "DESC".
+     * @param pageNumber 1-based page number.
+     * @param pageSize Number of users per page.
+     * @return The requested page with total counts.
+     * @throws SQLException If a database error occurs.
+     * @throws AuthorizationException If the performing admin does not have rights.
+     */
+    SearchResult<UserAccount> searchUsers(String adminId, String keyword, UserStatus status, String roleId,
+                                          String sortBy, String sortOrder, int pageNumber, int pageSize)
+            throws SQLException, AuthorizationException;
+
     /**
      * Blocks a user account.
      *
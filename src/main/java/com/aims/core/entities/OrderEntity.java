@@ -1,6 +1,7 @@
 package com.aims.core.entities;
 
 import com.aims.core.enums.OrderStatus;
+import com.aims.core.shared.utils.Money;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -26,17 +27,18 @@ public class OrderEntity {
     @Column(name = "order_status", nullable = false, length = 30)
     private OrderStatus orderStatus;
 
-    @Column(name = "totalProductPriceExclVAT")
-    private float totalProductPriceExclVAT;
+    // Amounts in minor units (hundredths of a dong); see Money
+    @Column(name = "totalProductPriceExclVATMinor")
+    private long totalProductPriceExclVATMinor;
 
-    @Column(name = "totalProductPriceInclVAT")
-    private float totalProductPriceInclVAT;
+    @Column(name = "totalProductPriceInclVATMinor")
+    private long totalProductPriceInclVATMinor;
 
-    @Column(name = "calculatedDeliveryFee")
-    private float calculatedDeliveryFee;
+    @Column(name = "calculatedDeliveryFeeMinor")
+    private long calculatedDeliveryFeeMinor;
 
-    @Column(name = "totalAmountPaid")
-    private float totalAmountPaid;
+    @Column(name = "totalAmountPaidMinor")
+    private long totalAmountPaidMinor;
 
     @OneToMany(mappedBy = "orderEntity", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
@@ -61,10 +63,10 @@ public class OrderEntity {
         this.userAccount = userAccount;
         this.orderDate = orderDate;
         this.orderStatus = orderStatus;
-        this.totalProductPriceExclVAT = totalProductPriceExclVAT;
-        this.totalProductPriceInclVAT = totalProductPriceInclVAT;
-        this.calculatedDeliveryFee = calculatedDeliveryFee;
-        this.totalAmountPaid = totalAmountPaid;
+        setTotalProductPriceExclVAT(totalProductPriceExclVAT);
+        setTotalProductPriceInclVAT(totalProductPriceInclVAT);
+        setCalculatedDeliveryFee(calculatedDeliveryFee);
+        setTotalAmountPaid(totalAmountPaid);
     }
 
     // Getters and Setters
@@ -100,36 +102,69 @@ public class OrderEntity {
         this.orderStatus = orderStatus;
     }
 
+    public long getTotalProductPriceExclVATMinor() {
+        return totalProductPriceExclVATMinor;
+    }
+
+    public void setTotalProductPriceExclVATMinor(long totalProductPriceExclVATMinor) {
+        this.totalProductPriceExclVATMinor = totalProductPriceExclVATMinor;
+    }
+
+    public long getTotalProductPriceInclVATMinor() {
+        return totalProductPriceInclVATMinor;
+    }
+
+    public void setTotalProductPriceInclVATMinor(long totalProductPriceInclVATMinor) {
+        this.totalProductPriceInclVATMinor = totalProductPriceInclVATMinor;
+    }
+
+    public long getCalculatedDeliveryFeeMinor() {
+        return calculatedDeliveryFeeMinor;
+    }
+
+    public void setCalculatedDeliveryFeeMinor(long calculatedDeliveryFeeMinor) {
+        this.calculatedDeliveryFeeMinor = calculatedDeliveryFeeMinor;
+    }
+
+    public long getTotalAmountPaidMinor() {
+        return totalAmountPaidMinor;
+    }
+
+    public void setTotalAmountPaidMinor(long totalAmountPaidMinor) {
+        this.totalAmountPaidMinor = totalAmountPaidMinor;
+    }
+
+    // Amounts in dong for display; setting one rounds it to minor units
     public float getTotalProductPriceExclVAT() {
-        return totalProductPriceExclVAT;
+        return Money.toFloat(totalProductPriceExclVATMinor);
     }
 
     public void setTotalProductPriceExclVAT(float totalProductPriceExclVAT) {
-        this.totalProductPriceExclVAT = totalProductPriceExclVAT;
+        this.totalProductPriceExclVATMinor = Money.fromFloat(totalProductPriceExclVAT);
     }
 
     public float getTotalProductPriceInclVAT() {
-        return totalProductPriceInclVAT;
+        return Money.toFloat(totalProductPriceInclVATMinor);
     }
 
     public void setTotalProductPriceInclVAT(float totalProductPriceInclVAT) {
-        this.totalProductPriceInclVAT = totalProductPriceInclVAT;
+        this.totalProductPriceInclVATMinor = Money.fromFloat(totalProductPriceInclVAT);
     }
 
     public float getCalculatedDeliveryFee() {
-        return calculatedDeliveryFee;
+        return Money.toFloat(calculatedDeliveryFeeMinor);
     }
 
     public void setCalculatedDeliveryFee(float calculatedDeliveryFee) {
-        this.calculatedDeliveryFee = calculatedDeliveryFee;
+        this.calculatedDeliveryFeeMinor = Money.fromFloat(calculatedDeliveryFee);
     }
 
     public float getTotalAmountPaid() {
-        return totalAmountPaid;
+        return Money.toFloat(totalAmountPaidMinor);
     }
 
     public void setTotalAmountPaid(float totalAmountPaid) {
-        this.totalAmountPaid = totalAmountPaid;
+        this.totalAmountPaidMinor = Money.fromFloat(totalAmountPaid);
     }
 
     public List<OrderItem> getOrderItems() {
@@ -202,7 +237,7 @@ public class OrderEntity {
                ", user=" + (userAccount != null ? userAccount.getUserId() : "guest") +
                ", orderDate=" + orderDate +
                ", orderStatus=" + orderStatus +
-               ", totalAmountPaid=" + totalAmountPaid +
+               ", totalAmountPaid=" + Money.toDouble(totalAmountPaidMinor) +
                '}';
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.aims.core.entities;
 
 import com.aims.core.entities.pks.OrderItemId;
+import com.aims.core.shared.utils.Money;
 import jakarta.persistence.*;
 import java.util.Objects;
 
@@ -22,8 +23,9 @@ public class OrderItem {
     @Column(name = "quantity", nullable = false)
     private int quantity;
 
-    @Column(name = "priceAtTimeOfOrder", nullable = false)
-    private float priceAtTimeOfOrder;
+    // Unit price in minor units (hundredths of a dong); see Money
+    @Column(name = "priceAtTimeOfOrderMinor", nullable = false)
+    private long priceAtTimeOfOrderMinor;
 
     @Column(name = "isEligibleForRushDelivery")
     private boolean eligibleForRushDelivery; // Sửa tên cho đúng chuẩn Java naming
@@ -35,7 +37,7 @@ public class OrderItem {
         this.orderEntity = orderEntity;
         this.product = product;
         this.quantity = quantity;
-        this.priceAtTimeOfOrder = priceAtTimeOfOrder;
+        setPriceAtTimeOfOrder(priceAtTimeOfOrder);
         this.eligibleForRushDelivery = eligibleForRushDelivery;
     }
 
@@ -64,12 +66,21 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
+    public long getPriceAtTimeOfOrderMinor() {
+        return priceAtTimeOfOrderMinor;
+    }
+
+    public void setPriceAtTimeOfOrderMinor(long priceAtTimeOfOrderMinor) {
+        this.priceAtTimeOfOrderMinor = priceAtTimeOfOrderMinor;
+    }
+
+    // Unit price in dong for display; setting it rounds it to minor units
     public float getPriceAtTimeOfOrder() {
-        return priceAtTimeOfOrder;
+        return Money.toFloat(priceAtTimeOfOrderMinor);
     }
 
     public void setPriceAtTimeOfOrder(float priceAtTimeOfOrder) {
-        this.priceAtTimeOfOrder = priceAtTimeOfOrder;
+        this.priceAtTimeOfOrderMinor = Money.fromFloat(priceAtTimeOfOrder);
     }
 
     public boolean isEligibleForRushDelivery() {
@@ -100,7 +111,7 @@ public class OrderItem {
                "orderId=" + (orderEntity != null ? orderEntity.getOrderId() : "null") +
                ", productId=" + (product != null ? product.getProductId() : "null") +
                ", quantity=" + quantity +
-               ", priceAtTimeOfOrder=" + priceAtTimeOfOrder +
+               ", priceAtTimeOfOrder=" + Money.toDouble(priceAtTimeOfOrderMinor) +
                '}';
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.aims.core.entities;
 
 import com.aims.core.enums.TransactionType;
+import com.aims.core.shared.utils.Money;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -34,8 +35,9 @@ public class PaymentTransaction {
     @Column(name = "transactionDateTime", nullable = false)
     private LocalDateTime transactionDateTime;
 
-    @Column(name = "amount", nullable = false)
-    private float amount;
+    // In minor units (hundredths of a dong); see Money
+    @Column(name = "amountMinor", nullable = false)
+    private long amountMinor;
 
     @Lob
     @Column(name = "transactionContent")
@@ -56,7 +58,7 @@ public class PaymentTransaction {
         this.externalTransactionId = externalTransactionId;
         this.transactionStatus = transactionStatus;
         this.transactionDateTime = transactionDateTime;
-        this.amount = amount;
+        setAmount(amount);
         this.transactionContent = transactionContent;
     }
 
@@ -117,12 +119,21 @@ public class PaymentTransaction {
         this.transactionDateTime = transactionDateTime;
     }
 
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    // Amount in dong for display; setting it rounds it to minor units
     public float getAmount() {
-        return amount;
+        return Money.toFloat(amountMinor);
     }
 
     public void setAmount(float amount) {
-        this.amount = amount;
+        this.amountMinor = Money.fromFloat(amount);
     }
 
     public String getTransactionContent() {
@@ -161,7 +172,7 @@ public class PaymentTransaction {
                ", orderId=" + (order != null ? order.getOrderId() : "null") +
                ", type=" + transactionType +
                ", status='" + transactionStatus + '\'' +
-               ", amount=" + amount +
+               ", amount=" + Money.toDouble(amountMinor) +
                '}';
     }
 }
\ No newline at end of file
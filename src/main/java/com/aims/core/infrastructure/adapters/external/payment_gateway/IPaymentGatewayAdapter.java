@@ -8,6 +8,7 @@ import com.aims.core.shared.exceptions.ValidationException;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Universal Payment Gateway Adapter Interface
@@ -65,6 +66,22 @@ public interface IPaymentGatewayAdapter {
      */
     Map<String, String> processRefund(Map<String, Object> refundParams) throws PaymentException;
 
+    /**
+     * Asynchronous variant of {@link #processRefund(Map)}. The future completes
+     * exceptionally with a PaymentException. Gateways without a non-blocking
+     * client run the call on the caller's thread.
+     *
+     * @param refundParams Parameters prepared by prepareRefundParameters
+     * @return Future of the gateway response
+     */
+    default CompletableFuture<Map<String, String>> processRefundAsync(Map<String, Object> refundParams) {
+        try {
+            return CompletableFuture.completedFuture(processRefund(refundParams));
+        } catch (PaymentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Query transaction status from the gateway
      * 
@@ -76,6 +93,24 @@ public interface IPaymentGatewayAdapter {
      */
     Map<String, String> queryTransactionStatus(String gatewayTransactionRef, String aimsOrderId, LocalDateTime originalTransactionDate) throws PaymentException;
 
+    /**
+     * Asynchronous variant of {@link #queryTransactionStatus(String, String, LocalDateTime)}.
+     * The future completes exceptionally with a PaymentException.
+     *
+     * @param gatewayTransactionRef Gateway's transaction reference
+     * @param aimsOrderId Internal order ID for reference
+     * @param originalTransactionDate Date of original transaction
+     * @return Future of the gateway response
+     */
+    default CompletableFuture<Map<String, String>> queryTransactionStatusAsync(String gatewayTransactionRef, String aimsOrderId,
+                                                                             LocalDateTime originalTransactionDate) {
+        try {
+            return CompletableFuture.completedFuture(queryTransactionStatus(gatewayTransactionRef, aimsOrderId, originalTransactionDate));
+        } catch (PaymentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Validate response signature from gateway callback
      * 
@@ -34,6 +34,8 @@ public class StubPaymentGatewayAdapter implements IPaymentGatewayAdapter {
         params.put("orderInfo", "Payment for order " + order.getOrderId());
         params.put("amount", String.valueOf(order.getTotalAmountPaid()));
         params.put("transactionRef", "STUB_" + UUID.randomUUID().toString());
+        // Same reference format as VNPay, which the callback handler parses the order ID from
+        params.put("vnp_TxnRef", order.getOrderId() + "_" + System.currentTimeMillis());
         return params;
     }
 
@@ -58,6 +60,12 @@ public class StubPaymentGatewayAdapter implements IPaymentGatewayAdapter {
         response.put("responseCode", "00");
         response.put("message", "Success");
         response.put("transactionId", "STUB_TX_" + UUID.randomUUID().toString());
+        // Like VNPay, hand back a payment URL; the payment completes through the callback
+        Object txnRef = paymentParams.get("vnp_TxnRef");
+        if (txnRef != null) {
+            response.put("vnp_TxnRef", txnRef.toString());
+            response.put("paymentUrl", "https://stub-gateway.local/pay?vnp_TxnRef=" + txnRef);
+        }
         return response;
     }
 
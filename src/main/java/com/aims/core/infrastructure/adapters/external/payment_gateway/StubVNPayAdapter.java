@@ -5,6 +5,7 @@ import com.aims.core.entities.PaymentMethod;
 import com.aims.core.entities.CardDetails;
 import com.aims.core.shared.exceptions.PaymentException;
 import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.Money;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -30,7 +31,7 @@ public class StubVNPayAdapter implements IVNPayAdapter {
         params.put("vnp_Version", "2.1.0");
         params.put("vnp_Command", "pay");
         params.put("vnp_TmnCode", "STUBMERCHANT");
-        params.put("vnp_Amount", order != null ? (int)(order.getTotalAmountPaid() * 100) : 0); // VNPay uses cents
+        params.put("vnp_Amount", order != null ? order.getTotalAmountPaidMinor() : 0L); // VND x 100, i.e. minor units
         params.put("vnp_CurrCode", "VND");
         params.put("vnp_TxnRef", "STUB_" + (order != null ? order.getOrderId() : "TEST"));
         params.put("vnp_OrderInfo", "Stub payment for order " + (order != null ? order.getOrderId() : "TEST"));
@@ -54,7 +55,7 @@ public class StubVNPayAdapter implements IVNPayAdapter {
         params.put("vnp_Version", "2.1.0");
         params.put("vnp_Command", "refund");
         params.put("vnp_TmnCode", "STUBMERCHANT");
-        params.put("vnp_Amount", (int)(refundAmount * 100)); // VNPay uses cents
+        params.put("vnp_Amount", Money.fromFloat(refundAmount)); // VND x 100, i.e. minor units
         params.put("vnp_TransactionType", "02"); // Full refund
         params.put("vnp_TxnRef", originalGatewayTransactionId);
         params.put("vnp_OrderInfo", "Stub refund: " + reason);
@@ -6,6 +6,7 @@ import com.aims.core.entities.CardDetails;
 import com.aims.core.enums.PaymentMethodType;
 import com.aims.core.shared.exceptions.PaymentException;
 import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.Money;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -40,7 +41,7 @@ public class VNPayAdapterImpl implements IVNPayAdapter {
 
     @Override
     public Map<String, Object> preparePaymentParameters(OrderEntity order, PaymentMethod paymentMethod, CardDetails cardDetails) throws ValidationException {
-        if (order == null || order.getTotalAmountPaid() <= 0) {
+        if (order == null || order.getTotalAmountPaidMinor() <= 0) {
             throw new ValidationException("Order information and a valid positive amount are required for VNPay payment.");
         }
 
@@ -48,7 +49,7 @@ public class VNPayAdapterImpl implements IVNPayAdapter {
         vnpParams.put("vnp_Version", VNPayConfig.VNP_VERSION);
         vnpParams.put("vnp_Command", "pay");
         vnpParams.put("vnp_TmnCode", VNPayConfig.VNP_TMN_CODE);
-        vnpParams.put("vnp_Amount", String.valueOf((int) (order.getTotalAmountPaid() * 100))); // Amount in cents
+        vnpParams.put("vnp_Amount", String.valueOf(order.getTotalAmountPaidMinor())); // VND x 100, i.e. minor units
         vnpParams.put("vnp_CurrCode", "VND");
 
         // Bank Code logic based on payment method type
@@ -101,9 +102,9 @@ public class VNPayAdapterImpl implements IVNPayAdapter {
         // For refund type: 02 for full refund after transaction date, 03 for partial refund
         // This depends on whether the refundAmount matches the original order.getTotalAmountPaid()
         // and whether it's same day or later. For simplicity, let's assume type based on amount.
-        vnpParams.put("vnp_TransactionType", (refundAmount == order.getTotalAmountPaid()) ? "02" : "03");
+        vnpParams.put("vnp_TransactionType", (Money.fromFloat(refundAmount) == order.getTotalAmountPaidMinor()) ? "02" : "03");
         vnpParams.put("vnp_TxnRef", order.getOrderId()); // AIMS's original transaction reference for the order
-        vnpParams.put("vnp_Amount", String.valueOf((int) (refundAmount * 100)));
+        vnpParams.put("vnp_Amount", String.valueOf(Money.fromFloat(refundAmount)));
         vnpParams.put("vnp_OrderInfo", "Hoan tien don hang AIMS: " + order.getOrderId() + ". Ly do: " + reason);
         vnpParams.put("vnp_TransactionNo", originalGatewayTransactionId); // VNPay's transaction number for the original payment
 
@@ -6,16 +6,10 @@ import com.aims.core.entities.CardDetails;
 import com.aims.core.enums.PaymentMethodType;
 import com.aims.core.shared.exceptions.PaymentException;
 import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.Money;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
-import java.io.BufferedReader;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -23,6 +17,8 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -40,9 +36,10 @@ import java.util.stream.Collectors;
 public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
 
     private static final String GATEWAY_TYPE = "VNPAY";
-    private static final int CONNECT_TIMEOUT = 15000; // milliseconds
-    private static final int READ_TIMEOUT = 15000; // milliseconds
     private final Gson gson = new Gson();
+    // Refund and query calls share one pooled client; timeouts are configured there
+    private final VNPayHttpClient httpClient;
+    private final String apiUrl;
     
     // Field mappings for standardization
     private static final Map<String, String> FIELD_MAPPINGS = Map.of(
@@ -56,6 +53,16 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
     );
 
     public VNPayGatewayAdapter() {
+        this(VNPayHttpClient.getInstance(), null);
+    }
+
+    /**
+     * @param httpClient Client for the merchant API
+     * @param apiUrl     Merchant API URL, or null for {@link VNPayConfig#VNP_API_URL}
+     */
+    public VNPayGatewayAdapter(VNPayHttpClient httpClient, String apiUrl) {
+        this.httpClient = httpClient;
+        this.apiUrl = apiUrl;
         // Ensure config is loaded
         if (!isConfigured()) {
             System.err.println("WARNING: VNPayGatewayAdapter initialized with missing configuration. Please check vnpay_config.properties.");
@@ -64,7 +71,7 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
 
     @Override
     public Map<String, Object> preparePaymentParameters(OrderEntity order, PaymentMethod paymentMethod, CardDetails cardDetails) throws ValidationException {
-        if (order == null || order.getTotalAmountPaid() <= 0) {
+        if (order == null || order.getTotalAmountPaidMinor() <= 0) {
             throw new ValidationException("Order information and a valid positive amount are required for VNPay payment.");
         }
 
@@ -72,7 +79,7 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
         vnpParams.put("vnp_Version", VNPayConfig.VNP_VERSION);
         vnpParams.put("vnp_Command", "pay");
         vnpParams.put("vnp_TmnCode", VNPayConfig.VNP_TMN_CODE);
-        vnpParams.put("vnp_Amount", String.valueOf((int) (order.getTotalAmountPaid() * 100))); // Amount in cents
+        vnpParams.put("vnp_Amount", String.valueOf(order.getTotalAmountPaidMinor())); // VND x 100, i.e. minor units
         vnpParams.put("vnp_CurrCode", "VND");
 
         // Bank Code logic based on payment method type
@@ -117,9 +124,9 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
         vnpParams.put("vnp_TmnCode", VNPayConfig.VNP_TMN_CODE);
         
         // Determine refund type: 02 for full refund, 03 for partial refund
-        vnpParams.put("vnp_TransactionType", (refundAmount == order.getTotalAmountPaid()) ? "02" : "03");
+        vnpParams.put("vnp_TransactionType", (Money.fromFloat(refundAmount) == order.getTotalAmountPaidMinor()) ? "02" : "03");
         vnpParams.put("vnp_TxnRef", order.getOrderId()); // AIMS's original transaction reference
-        vnpParams.put("vnp_Amount", String.valueOf((int) (refundAmount * 100)));
+        vnpParams.put("vnp_Amount", String.valueOf(Money.fromFloat(refundAmount)));
         vnpParams.put("vnp_OrderInfo", "Hoan tien don hang AIMS: " + order.getOrderId() + ". Ly do: " + reason);
         vnpParams.put("vnp_TransactionNo", originalGatewayTransactionId); // VNPay's transaction number
 
@@ -174,6 +181,11 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
 
     @Override
     public Map<String, String> processRefund(Map<String, Object> refundParamsObj) throws PaymentException {
+        return VNPayHttpClient.await(processRefundAsync(refundParamsObj));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> processRefundAsync(Map<String, Object> refundParamsObj) {
         Map<String, String> refundParams = refundParamsObj.entrySet().stream()
                 .filter(entry -> entry.getValue() != null)
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> String.valueOf(e.getValue())));
@@ -183,20 +195,26 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
         refundParams.put("vnp_SecureHash", vnp_SecureHash);
 
         String jsonPayload = gson.toJson(refundParams);
-        Map<String, String> responseMap = sendPostRequest(VNPayConfig.VNP_API_URL, jsonPayload);
-        
-        if (!"00".equals(responseMap.get("vnp_ResponseCode"))) {
-            throw new PaymentException("VNPay refund request failed. Code: " + responseMap.get("vnp_ResponseCode") +
-                                       " Message: " + responseMap.get("vnp_Message") + " (TxnRef: "+ refundParams.get("vnp_TxnRef") +")");
-        }
-        
-        // Add gateway type to response
-        responseMap.put("gateway_type", GATEWAY_TYPE);
-        return responseMap;
+        return httpClient.postJson(apiUrl(), jsonPayload).thenApply(responseMap -> {
+            if (!"00".equals(responseMap.get("vnp_ResponseCode"))) {
+                throw new CompletionException(new PaymentException("VNPay refund request failed. Code: " + responseMap.get("vnp_ResponseCode") +
+                                           " Message: " + responseMap.get("vnp_Message") + " (TxnRef: "+ refundParams.get("vnp_TxnRef") +")"));
+            }
+            
+            // Add gateway type to response
+            responseMap.put("gateway_type", GATEWAY_TYPE);
+            return responseMap;
+        });
     }
 
     @Override
     public Map<String, String> queryTransactionStatus(String gatewayTransactionRef, String aimsOrderId, LocalDateTime originalTransactionDate) throws PaymentException {
+        return VNPayHttpClient.await(queryTransactionStatusAsync(gatewayTransactionRef, aimsOrderId, originalTransactionDate));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> queryTransactionStatusAsync(String gatewayTransactionRef, String aimsOrderId,
+                                                                            LocalDateTime originalTransactionDate) {
         Map<String, String> vnpParams = new HashMap<>();
         vnpParams.put("vnp_RequestId", "QUERY_" + aimsOrderId + "_" + System.currentTimeMillis());
         vnpParams.put("vnp_Version", VNPayConfig.VNP_VERSION);
@@ -218,16 +236,16 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
         vnpParams.put("vnp_SecureHash", vnp_SecureHash);
 
         String jsonPayload = gson.toJson(vnpParams);
-        Map<String, String> responseMap = sendPostRequest(VNPayConfig.VNP_API_URL, jsonPayload);
-
-        if (!"00".equals(responseMap.get("vnp_ResponseCode"))) {
-             throw new PaymentException("VNPay query transaction API call failed. Code: " + responseMap.get("vnp_ResponseCode") +
-                                       " Message: " + responseMap.get("vnp_Message"));
-        }
-        
-        // Add gateway type to response
-        responseMap.put("gateway_type", GATEWAY_TYPE);
-        return responseMap;
+        return httpClient.postJson(apiUrl(), jsonPayload).thenApply(responseMap -> {
+            if (!"00".equals(responseMap.get("vnp_ResponseCode"))) {
+                 throw new CompletionException(new PaymentException("VNPay query transaction API call failed. Code: " + responseMap.get("vnp_ResponseCode") +
+                                           " Message: " + responseMap.get("vnp_Message")));
+            }
+            
+            // Add gateway type to response
+            responseMap.put("gateway_type", GATEWAY_TYPE);
+            return responseMap;
+        });
     }
 
     @Override
@@ -303,46 +321,7 @@ public class VNPayGatewayAdapter implements IPaymentGatewayAdapter {
         return new HashMap<>(FIELD_MAPPINGS);
     }
 
-    /**
-     * Send HTTP POST request to VNPay API
-     */
-    private Map<String, String> sendPostRequest(String requestUrl, String payload) throws PaymentException {
-        try {
-            URL url = new URL(requestUrl);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(CONNECT_TIMEOUT);
-            conn.setReadTimeout(READ_TIMEOUT);
-
-            try (DataOutputStream dos = new DataOutputStream(conn.getOutputStream())) {
-                dos.writeBytes(payload);
-            }
-
-            int responseCode = conn.getResponseCode();
-            StringBuilder responseContent = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(
-                    (responseCode == 200) ? conn.getInputStream() : conn.getErrorStream()))) {
-                String output;
-                while ((output = br.readLine()) != null) {
-                    responseContent.append(output);
-                }
-            }
-            conn.disconnect();
-
-            System.out.println("VNPay API Response (" + requestUrl + " - " + responseCode + "): " + responseContent.toString());
-            
-            Map<String, String> responseMap = gson.fromJson(responseContent.toString(), new TypeToken<Map<String, String>>(){}.getType());
-            if (responseMap == null) {
-                throw new PaymentException("Failed to parse VNPay API response. Raw: " + responseContent.toString());
-            }
-            return responseMap;
-
-        } catch (IOException e) {
-            throw new PaymentException("IOException during VNPay API request to " + requestUrl + ": " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new PaymentException("Unexpected error during VNPay API request to " + requestUrl + ": " + e.getMessage(), e);
-        }
+    private String apiUrl() {
+        return apiUrl != null ? apiUrl : VNPayConfig.VNP_API_URL;
     }
 }
\ No newline at end of file
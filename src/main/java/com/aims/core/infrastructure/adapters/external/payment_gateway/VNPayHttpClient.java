@@ -0,0 +1,164 @@
+package com.aims.core.infrastructure.adapters.external.payment_gateway;
+
+import com.aims.core.shared.exceptions.PaymentException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared HTTP client for the VNPay merchant API (refund and query calls).
+ *
+ * One {@link HttpClient} is reused for every call, so connections to the API
+ * host are kept alive and reused instead of opened per request. Payloads are
+ * sent as UTF-8, and the JSON response is parsed as a stream straight from
+ * the response body. Calls never block the caller: {@link #postJson} returns a
+ * future that completes with the response fields, or exceptionally with a
+ * {@link PaymentException}.
+ *
+ * Timeouts come from {@code -Daims.vnpay.connectTimeoutMillis} and
+ * {@code -Daims.vnpay.requestTimeoutMillis} (default 15000 each).
+ */
+public class VNPayHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(VNPayHttpClient.class);
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 15_000;
+
+    private static VNPayHttpClient instance;
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+
+    public VNPayHttpClient(Duration connectTimeout, Duration requestTimeout) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Runs the client's I/O callbacks and the response parsing; idle threads are released after a minute
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "vnpay-http-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .executor(executor)
+            .build();
+    }
+
+    public static synchronized VNPayHttpClient getInstance() {
+        if (instance == null) {
+            instance = new VNPayHttpClient(
+                Duration.ofMillis(Long.getLong("aims.vnpay.connectTimeoutMillis", DEFAULT_TIMEOUT_MILLIS)),
+                Duration.ofMillis(Long.getLong("aims.vnpay.requestTimeoutMillis", DEFAULT_TIMEOUT_MILLIS)));
+        }
+        return instance;
+    }
+
+    /**
+     * POSTs a JSON payload and parses the JSON object in the response.
+     *
+     * Non-200 responses are parsed too: VNPay reports errors through
+     * {@code vnp_ResponseCode} in the body, which callers check.
+     *
+     * @param requestUrl API endpoint
+     * @param payload    JSON request body, sent as UTF-8
+     * @return future of the top-level response fields, each as a string
+     */
+    public CompletableFuture<Map<String, String>> postJson(String requestUrl, String payload) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(requestUrl))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+                .build();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return CompletableFuture.failedFuture(new PaymentException("Invalid VNPay API URL: " + requestUrl, e));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+            // Reading the stream blocks, so it runs on the executor rather than in the client's completion stage
+            .thenApplyAsync(response -> parse(requestUrl, response), executor)
+            .exceptionallyCompose(e -> CompletableFuture.failedFuture(toPaymentException(requestUrl, e)));
+    }
+
+    /**
+     * Waits for a call and rethrows its failure as the PaymentException it completed with.
+     */
+    public static Map<String, String> await(CompletableFuture<Map<String, String>> call) throws PaymentException {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PaymentException paymentException) {
+                throw paymentException;
+            }
+            throw new PaymentException("VNPay API request failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * Stops the client's threads. Only for clients created by tests and
+     * benchmarks; the shared instance lives as long as the application.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Map<String, String> parse(String requestUrl, HttpResponse<InputStream> response) {
+        InputStream body = response.body();
+        try (JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Map<String, String> fields = new HashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                JsonToken token = reader.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                    fields.put(name, reader.nextString());
+                } else if (token == JsonToken.BOOLEAN) {
+                    fields.put(name, String.valueOf(reader.nextBoolean()));
+                } else {
+                    // null, nested objects and arrays are not part of VNPay's flat responses
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            // Read to the end of the body: closing it early would drop the connection instead of returning it to the pool
+            body.transferTo(OutputStream.nullOutputStream());
+            logger.debug("VNPay API response ({} - {}): {}", requestUrl, response.statusCode(), fields);
+            return fields;
+        } catch (IOException | IllegalStateException e) {
+            throw new CompletionException(new PaymentException(
+                "Failed to parse VNPay API response (HTTP " + response.statusCode() + ") from " + requestUrl + ": " + e.getMessage(), e));
+        }
+    }
+
+    private static Throwable toPaymentException(String requestUrl, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof PaymentException) {
+            return cause;
+        }
+        if (cause instanceof IOException) {
+            return new PaymentException("IOException during VNPay API request to " + requestUrl + ": " + cause.getMessage(), cause);
+        }
+        return new PaymentException("Unexpected error during VNPay API request to " + requestUrl + ": " + cause.getMessage(), cause);
+    }
+}
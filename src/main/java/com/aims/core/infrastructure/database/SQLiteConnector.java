@@ -7,6 +7,9 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -15,8 +18,10 @@ public class SQLiteConnector {
     private static final Logger logger = Logger.getLogger(SQLiteConnector.class.getName());
     private static final String DEFAULT_DB_URL = "jdbc:sqlite:src/main/resources/aims_database.db";
     private static volatile SQLiteConnector instance;
-    private Connection connection;
+    private Connection connection; // Statement-caching view of the physical connection
+    private StatementCache statementCache; // Owns the physical connection
     private String currentDbUrl; // To track the URL of the current connection
+    private final Map<String, Connection> dedicatedConnections = new HashMap<>(); // Background writers, by name
 
     private SQLiteConnector() {
         try {
@@ -46,9 +51,9 @@ public class SQLiteConnector {
             if (this.connection == null || this.connection.isClosed() || !dbUrlToUse.equals(this.currentDbUrl)) {
                 // System.out.println("SQLiteConnector: Establishing new connection to: " + dbUrlToUse);
                 if (this.connection != null && !this.connection.isClosed()) {
-                    this.connection.close(); // Close existing connection if URL is changing
+                    closePhysicalConnection(); // Close existing connection if URL is changing
                 }
-                this.connection = DriverManager.getConnection(dbUrlToUse);
+                useConnection(DriverManager.getConnection(dbUrlToUse));
                 this.currentDbUrl = dbUrlToUse; // Store the URL of the new connection
                 
                 // Enhanced foreign key constraint setup with validation
@@ -83,8 +88,9 @@ public class SQLiteConnector {
             try {
                 if (this.connection != null && !this.connection.isClosed()) {
                     // System.out.println("SQLiteConnector: Closing default DB connection: " + this.currentDbUrl);
-                    this.connection.close();
+                    closePhysicalConnection();
                     this.connection = null;
+                    this.statementCache = null;
                     this.currentDbUrl = null;
                 }
             } catch (SQLException e) {
@@ -103,22 +109,29 @@ public class SQLiteConnector {
     // Also used to reset the connection for testing purposes.
     public void setConnection(Connection conn) {
         // System.out.println("SQLiteConnector: setConnection called.");
-        if (this.connection != null && conn != this.connection) {
+        if (conn != null && statementCache != null
+                && (conn == statementCache.getPhysicalConnection() || conn == this.connection)) {
+            return; // Already in use
+        }
+        if (this.connection != null) {
             try {
                 if (!this.connection.isClosed()) {
                     // System.out.println("SQLiteConnector: Closing previous connection before setting new one.");
-                    this.connection.close();
+                    closePhysicalConnection();
                 }
             } catch (SQLException e) {
                 System.err.println("SQLiteConnector Error: Failed to close existing connection during setConnection.");
                 printSQLException(e);
             }
         }
-        this.connection = conn;
         if (conn == null) {
+            closeDedicatedConnections();
+            this.connection = null;
+            this.statementCache = null;
             this.currentDbUrl = null; // Reset currentDbUrl if connection is nulled
             // System.out.println("SQLiteConnector: Connection set to null.");
         } else {
+            useConnection(conn);
             try {
                 if (!conn.isClosed()) {
                     this.currentDbUrl = conn.getMetaData().getURL(); // Update currentDbUrl from the new connection
@@ -137,6 +150,100 @@ public class SQLiteConnector {
         }
     }
 
+    /**
+     * Puts a new physical connection in use behind a statement cache sized by
+     * -Daims.db.statementCacheSize. DAOs get the caching view, whose close() is a no-op.
+     */
+    private void useConnection(Connection physical) {
+        closeDedicatedConnections();
+        this.statementCache = new StatementCache(physical, StatementCache.configuredCapacity());
+        this.connection = statementCache.getConnection();
+    }
+
+    private void closePhysicalConnection() throws SQLException {
+        closeDedicatedConnections();
+        if (statementCache != null) {
+            statementCache.close();
+        } else if (connection != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Returns a separate physical connection to the current database file for a
+     * background writer thread, opened on first use under {@code name} and
+     * closed whenever the shared connection is replaced or closed.
+     *
+     * A transaction on the shared connection would take in every statement
+     * other threads run on it meanwhile, and their commit, rollback or
+     * setAutoCommit would end it half way; a writer thread that runs
+     * transactions needs its own connection. Its transactions start IMMEDIATE,
+     * so they wait for the write lock up front instead of failing to upgrade a
+     * read lock. Callers must serialize their own use of the connection and
+     * publish after-commit work themselves.
+     *
+     * @throws SQLException if the current database is in memory, which a second connection cannot see
+     */
+    public synchronized Connection getDedicatedConnection(String name) throws SQLException {
+        Connection existing = dedicatedConnections.get(name);
+        if (existing != null && !existing.isClosed()) {
+            return existing;
+        }
+        String file = null;
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA database_list;")) {
+            while (rs.next()) {
+                if ("main".equals(rs.getString("name"))) {
+                    file = rs.getString("file");
+                }
+            }
+        }
+        if (file == null || file.isEmpty()) {
+            throw new SQLException("A dedicated connection for " + name + " needs a database file, but the current database is in memory");
+        }
+        Properties properties = new Properties();
+        properties.setProperty("foreign_keys", "true");
+        properties.setProperty("transaction_mode", "IMMEDIATE");
+        properties.setProperty("busy_timeout", "5000");
+        Connection dedicated = DriverManager.getConnection("jdbc:sqlite:" + file, properties);
+        dedicatedConnections.put(name, dedicated);
+        logger.log(Level.INFO, "Opened dedicated connection '" + name + "' to " + file);
+        return dedicated;
+    }
+
+    private synchronized void closeDedicatedConnections() {
+        for (Map.Entry<String, Connection> entry : dedicatedConnections.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to close dedicated connection '" + entry.getKey() + "'", e);
+            }
+        }
+        dedicatedConnections.clear();
+    }
+
+    /**
+     * @return the statement cache of the current connection, or null if there is none
+     */
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Runs {@code action} once the work done so far on {@code conn} is
+     * committed; see {@link StatementCache#runAfterCommit(Runnable)}. For any
+     * connection other than the shared one the action runs at once, so callers
+     * on their own connections must call this after their own commit.
+     */
+    public void runAfterCommit(Connection conn, Runnable action) throws SQLException {
+        StatementCache cache = this.statementCache;
+        if (cache != null && conn == cache.getConnection()) {
+            cache.runAfterCommit(action);
+        } else {
+            action.run();
+        }
+    }
+
     /**
      * Validates the database schema and repairs it if necessary
      * Specifically addresses the missing LP table issue that breaks search functionality
@@ -267,9 +374,9 @@ public class SQLiteConnector {
             try {
                 String dbUrlToUse = System.getProperty("TEST_DB_URL", DEFAULT_DB_URL);
                 if (this.connection != null && !this.connection.isClosed()) {
-                    this.connection.close();
+                    closePhysicalConnection();
                 }
-                this.connection = DriverManager.getConnection(dbUrlToUse);
+                useConnection(DriverManager.getConnection(dbUrlToUse));
                 this.currentDbUrl = dbUrlToUse;
                 configureForeignKeyConstraints();
                 validateForeignKeyConstraints();
@@ -284,17 +391,35 @@ public class SQLiteConnector {
     }
 
     public static void printSQLException(SQLException ex) {
+        if (!logger.isLoggable(Level.WARNING)) {
+            return;
+        }
+        // One record per exception chain, built only when it will be written
+        StringBuilder message = new StringBuilder();
         for (Throwable e : ex) {
             if (e instanceof SQLException) {
-                System.err.println("SQLState: " + ((SQLException) e).getSQLState());
-                System.err.println("Error Code: " + ((SQLException) e).getErrorCode());
-                System.err.println("Message: " + e.getMessage());
+                message.append("SQLState: ").append(((SQLException) e).getSQLState())
+                       .append(", Error Code: ").append(((SQLException) e).getErrorCode())
+                       .append(", Message: ").append(e.getMessage());
                 Throwable t = ex.getCause();
                 while (t != null) {
-                    System.err.println("Cause: " + t);
+                    message.append(", Cause: ").append(t);
                     t = t.getCause();
                 }
+                message.append('\n');
             }
         }
+        logger.warning(message.toString().trim());
+    }
+
+    /**
+     * True when the statement failed on an enforced foreign key
+     * (SQLITE_CONSTRAINT, or its extended code SQLITE_CONSTRAINT_FOREIGNKEY).
+     * Lets DAOs map the constraint error instead of pre-querying parent rows.
+     */
+    public static boolean isForeignKeyViolation(SQLException ex) {
+        int code = ex.getErrorCode();
+        return (code == 19 || code == 787)
+            && ex.getMessage() != null && ex.getMessage().contains("FOREIGN KEY constraint failed");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,378 @@
+package com.aims.core.infrastructure.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ *
+ * {@link #getConnection()} returns a view of the physical connection whose
+ * {@code prepareStatement(String)} hands out a cached statement when one for
+ * the same SQL is idle, so SQLite parses and plans each statement once per
+ * connection instead of once per DAO call. Closing a handed-out statement
+ * closes its open result set, clears its parameters and batch, and returns it
+ * to the cache; a statement already in use by another caller is never shared,
+ * the second caller gets an uncached one instead.
+ *
+ * Closing the view is a no-op, like returning a pooled connection: DAOs close
+ * the connection they got after each call, and the physical connection (with
+ * its statements) is only closed through {@link #close()}.
+ *
+ * A capacity of 0 disables caching; statements are then prepared and closed
+ * as usual.
+ *
+ * The view also runs the actions registered with {@link #runAfterCommit}
+ * once the transaction they were registered in commits, so that side effects
+ * of a write (such as change events) are never seen before the write is.
+ */
+public final class StatementCache {
+
+    private static final Logger logger = Logger.getLogger(StatementCache.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private static final class Entry {
+        final String sql;
+        final PreparedStatement statement;
+        boolean inUse;
+
+        Entry(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+    }
+
+    private final Connection physical;
+    private final int capacity;
+    private final Connection view;
+    // Access-ordered: iteration starts at the least recently used statement
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private boolean closed;
+    // Actions waiting for the open transaction to commit
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong busy = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StatementCache(Connection physical, int capacity) {
+        this.physical = physical;
+        this.capacity = Math.max(0, capacity);
+        this.view = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, new ConnectionHandler());
+    }
+
+    /**
+     * Cache capacity from {@code -Daims.db.statementCacheSize} (default 128, 0 disables caching).
+     */
+    public static int configuredCapacity() {
+        return Integer.getInteger("aims.db.statementCacheSize", DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @return the connection DAOs should use
+     */
+    public Connection getConnection() {
+        return view;
+    }
+
+    public Connection getPhysicalConnection() {
+        return physical;
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Returns a statement for the SQL, cached if one is idle.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        if (capacity == 0) {
+            misses.incrementAndGet();
+            return physical.prepareStatement(sql);
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(sql);
+            if (entry != null && !entry.inUse) {
+                entry.inUse = true;
+                hits.incrementAndGet();
+                return handle(entry);
+            }
+        }
+        if (entry != null) {
+            // In use by another caller: never share it
+            busy.incrementAndGet();
+            return physical.prepareStatement(sql);
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        synchronized (entries) {
+            if (closed || entries.containsKey(sql)) {
+                // Prepared concurrently by another caller; this one stays uncached
+                return statement;
+            }
+            Entry created = new Entry(sql, statement);
+            created.inUse = true;
+            entries.put(sql, created);
+            evictOverCapacity();
+            return handle(created);
+        }
+    }
+
+    /**
+     * Runs {@code action} once the work done so far on the connection is
+     * committed: right away in auto-commit mode, otherwise when the open
+     * transaction commits. Actions registered in a transaction that is rolled
+     * back are dropped.
+     */
+    public void runAfterCommit(Runnable action) throws SQLException {
+        if (physical.getAutoCommit()) {
+            action.run();
+            return;
+        }
+        synchronized (afterCommit) {
+            afterCommit.add(action);
+        }
+    }
+
+    private void transactionEnded(boolean committed) {
+        List<Runnable> actions;
+        synchronized (afterCommit) {
+            if (afterCommit.isEmpty()) {
+                return;
+            }
+            actions = new ArrayList<>(afterCommit);
+            afterCommit.clear();
+        }
+        if (!committed) {
+            return;
+        }
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The transaction is already committed; don't report it as failed
+                logger.log(Level.WARNING, "After-commit action failed", e);
+            }
+        }
+    }
+
+    /**
+     * Closes the cached statements and the physical connection.
+     */
+    public void close() throws SQLException {
+        synchronized (entries) {
+            closed = true;
+            for (Entry entry : entries.values()) {
+                closeQuietly(entry.statement);
+            }
+            entries.clear();
+        }
+        transactionEnded(false);
+        physical.close();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return hits / (hits + misses + busy), or 0 before the first statement
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get() + busy.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public String getStatisticsSummary() {
+        return String.format("capacity=%d, cached=%d, hits=%d, misses=%d, busy=%d, evictions=%d, hitRate=%.1f%%",
+            capacity, size(), hits.get(), misses.get(), busy.get(), evictions.get(), getHitRate() * 100);
+    }
+
+    // Caller holds the entries lock
+    private void evictOverCapacity() {
+        Iterator<Entry> eldestFirst = entries.values().iterator();
+        while (entries.size() > capacity && eldestFirst.hasNext()) {
+            Entry eldest = eldestFirst.next();
+            if (!eldest.inUse) {
+                eldestFirst.remove();
+                closeQuietly(eldest.statement);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void release(Entry entry, ResultSet openResultSet) {
+        boolean reusable = true;
+        try {
+            if (openResultSet != null) {
+                openResultSet.close();
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.clearWarnings();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Dropping cached statement that could not be reset: " + e.getMessage());
+            reusable = false;
+        }
+        synchronized (entries) {
+            entry.inUse = false;
+            if (!reusable || closed) {
+                if (entries.get(entry.sql) == entry) {
+                    entries.remove(entry.sql);
+                }
+                closeQuietly(entry.statement);
+            } else {
+                evictOverCapacity();
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Failed to close cached statement: " + e.getMessage());
+        }
+    }
+
+    private PreparedStatement handle(Entry entry) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class }, new StatementHandler(entry));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One checkout of a cached statement; closing it returns the statement to the cache.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Entry entry;
+        private ResultSet openResultSet;
+        private boolean released;
+
+        StatementHandler(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(entry, openResultSet);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || entry.statement.isClosed();
+                case "getConnection":
+                    return view;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.sql + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Statement is closed");
+            }
+            Object result = StatementCache.invoke(entry.statement, method, args);
+            if (result instanceof ResultSet resultSet) {
+                openResultSet = resultSet;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The connection view: caches {@code prepareStatement(String)}, ignores
+     * close() and runs the after-commit actions when a transaction ends.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    if (args.length == 1) {
+                        return prepare((String) args[0]);
+                    }
+                    break;
+                case "close":
+                    return null;
+                case "commit": {
+                    Object result = StatementCache.invoke(physical, method, args);
+                    transactionEnded(true);
+                    return result;
+                }
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        Object result = StatementCache.invoke(physical, method, args);
+                        transactionEnded(false);
+                        return result;
+                    }
+                    break;
+                case "setAutoCommit": {
+                    // Switching auto-commit back on commits the open transaction
+                    boolean commits = (Boolean) args[0] && !physical.getAutoCommit();
+                    Object result = StatementCache.invoke(physical, method, args);
+                    if (commits) {
+                        transactionEnded(true);
+                    }
+                    return result;
+                }
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : physical.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || physical.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StatementCachingConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            return StatementCache.invoke(physical, method, args);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -201,4 +202,69 @@ public class CartDAOImpl implements ICartDAO {
         // Deletes all CartItems associated with this cartSessionId
         cartItemDAO.deleteByCartSessionId(cartSessionId); // Assuming CartItemDAO has this method
     }
-}
\ No newline at end of file
+
+    @Override
+    public void saveCarts(Collection<Cart> carts) throws SQLException {
+        if (carts == null || carts.isEmpty()) {
+            return;
+        }
+        String upsertCartSql = "INSERT INTO CART (cartSessionID, userID, lastUpdated) VALUES (?, ?, ?) " +
+                               "ON CONFLICT(cartSessionID) DO UPDATE SET userID = excluded.userID, lastUpdated = excluded.lastUpdated";
+        String deleteItemsSql = "DELETE FROM CART_ITEM WHERE cartSessionID = ?";
+        String insertItemSql = "INSERT INTO CART_ITEM (cartSessionID, productID, quantity) VALUES (?, ?, ?)";
+
+        // Called from the write-behind thread: a transaction on the shared
+        // connection would pick up statements other threads run on it meanwhile
+        Connection conn = SQLiteConnector.getInstance().getDedicatedConnection("cart-write-behind");
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (PreparedStatement upsertCart = conn.prepareStatement(upsertCartSql);
+                     PreparedStatement deleteItems = conn.prepareStatement(deleteItemsSql);
+                     PreparedStatement insertItem = conn.prepareStatement(insertItemSql)) {
+                    for (Cart cart : carts) {
+                        upsertCart.setString(1, cart.getCartSessionId());
+                        if (cart.getUserAccount() != null) {
+                            upsertCart.setString(2, cart.getUserAccount().getUserId());
+                        } else {
+                            upsertCart.setNull(2, Types.VARCHAR);
+                        }
+                        LocalDateTime lastUpdated = cart.getLastUpdated() != null ? cart.getLastUpdated() : LocalDateTime.now();
+                        upsertCart.setString(3, lastUpdated.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                        upsertCart.addBatch();
+
+                        deleteItems.setString(1, cart.getCartSessionId());
+                        deleteItems.addBatch();
+
+                        for (CartItem item : cart.getItems()) {
+                            insertItem.setString(1, cart.getCartSessionId());
+                            insertItem.setString(2, item.getProduct().getProductId());
+                            insertItem.setInt(3, item.getQuantity());
+                            insertItem.addBatch();
+                        }
+                    }
+                    // Cart rows first (items reference them), then the old items, then the new ones
+                    upsertCart.executeBatch();
+                    deleteItems.executeBatch();
+                    insertItem.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.dao.ICartDAO; // May not be needed directly if Cart object is passed
 import com.aims.core.infrastructure.database.dao.ICartItemDAO;
 import com.aims.core.infrastructure.database.dao.IProductDAO; // To fetch Product details
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
@@ -20,6 +22,8 @@ import java.util.List;
 @Repository
 public class CartItemDAOImpl implements ICartItemDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(CartItemDAOImpl.class);
+
     private final IProductDAO productDAO; // Used to reconstruct Product objects
 
     @Autowired
@@ -39,7 +43,7 @@ public class CartItemDAOImpl implements ICartItemDAO {
         if (product == null) {
             // This case should ideally not happen if data integrity is maintained
             // or handle it by skipping the item or throwing an error
-            System.err.println("Warning: Product with ID " + productId + " not found for cart item.");
+            logger.warn("Product with ID {} not found for cart item.", productId);
             return null;
         }
 
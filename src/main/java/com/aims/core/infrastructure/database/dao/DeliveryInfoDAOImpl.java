@@ -7,6 +7,8 @@ import com.aims.core.infrastructure.database.dao.IDeliveryInfoDAO;
 // Assuming IOrderEntityDAO exists if we need to fully reconstruct OrderEntity
 // import com.aims.infrastructure.database.dao.IOrderEntityDAO;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
@@ -17,6 +19,8 @@ import java.time.format.DateTimeParseException; // Added import
 @Repository
 public class DeliveryInfoDAOImpl implements IDeliveryInfoDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryInfoDAOImpl.class);
+
     // Optional: Inject IOrderEntityDAO if you need to fetch the full OrderEntity object
     // private final IOrderEntityDAO orderEntityDAO;
     // public DeliveryInfoDAOImpl(IOrderEntityDAO orderEntityDAO) {
@@ -62,13 +66,12 @@ public class DeliveryInfoDAOImpl implements IDeliveryInfoDAO {
             try {
                  deliveryInfo.setRequestedRushDeliveryTime(LocalDateTime.parse(rushTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
             } catch (DateTimeParseException e) { // More specific exception for format issues
-                System.err.println("Error parsing requestedRushDeliveryTime '" + rushTimeStr +
-                                   "' due to invalid format for deliveryInfoID: " + deliveryInfo.getDeliveryInfoId() +
-                                   ". Expected ISO_LOCAL_DATE_TIME. Details: " + e.getMessage());
+                logger.warn("Error parsing requestedRushDeliveryTime '{}' due to invalid format for deliveryInfoID: {}. Expected ISO_LOCAL_DATE_TIME. Details: {}",
+                            rushTimeStr, deliveryInfo.getDeliveryInfoId(), e.getMessage());
                 deliveryInfo.setRequestedRushDeliveryTime(null); // Fallback to null
             } catch (Exception e) { // Catch any other unexpected error during parsing
-                System.err.println("An unexpected error occurred while parsing requestedRushDeliveryTime '" + rushTimeStr +
-                                   "' for deliveryInfoID: " + deliveryInfo.getDeliveryInfoId() + ". Details: " + e.getMessage());
+                logger.warn("An unexpected error occurred while parsing requestedRushDeliveryTime '{}' for deliveryInfoID: {}. Details: {}",
+                            rushTimeStr, deliveryInfo.getDeliveryInfoId(), e.getMessage());
                 deliveryInfo.setRequestedRushDeliveryTime(null); // Fallback to null
             }
         } else {
@@ -5,6 +5,7 @@ import com.aims.core.entities.CartItem; // For methods that might add/remove ite
 import com.aims.core.entities.UserAccount;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 public interface ICartDAO {
@@ -87,4 +88,15 @@ public interface ICartDAO {
      */
     void clearCart(String cartSessionId) throws SQLException;
 
+    /**
+     * Stores the complete state of several carts in one transaction: each
+     * cart row is inserted or updated and its items are replaced by the
+     * cart's current item list. Runs on the dedicated "cart-write-behind"
+     * connection, as it is called from the write-behind flush thread.
+     *
+     * @param carts The carts to store.
+     * @throws SQLException If a database access error occurs; nothing is stored.
+     */
+    void saveCarts(Collection<Cart> carts) throws SQLException;
+
 }
\ No newline at end of file
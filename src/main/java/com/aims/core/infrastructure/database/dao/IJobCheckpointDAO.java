@@ -0,0 +1,28 @@
+package com.aims.core.infrastructure.database.dao;
+
+import java.sql.SQLException;
+
+/**
+ * DAO interface for the positions of background jobs, so a job that walks a
+ * table in key order can resume where it stopped after a restart.
+ */
+public interface IJobCheckpointDAO {
+
+    /**
+     * Retrieves the stored position of a job.
+     *
+     * @param jobName The job's name
+     * @return The last position saved, or null if the job has none
+     * @throws SQLException If a database access error occurs
+     */
+    String getPosition(String jobName) throws SQLException;
+
+    /**
+     * Stores the position of a job, replacing the previous one.
+     *
+     * @param jobName  The job's name
+     * @param position The position to resume from; null to start over
+     * @throws SQLException If a database access error occurs
+     */
+    void savePosition(String jobName, String position) throws SQLException;
+}
@@ -0,0 +1,51 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.enums.OrderStatus;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DAO interface for moving finished orders out of the main database into
+ * per-year archive database files. An order is archived together with its
+ * items, delivery info, invoice and payment transactions.
+ *
+ * Archived orders are read back through the {@code includeArchived} variants
+ * of {@link IOrderEntityDAO} and {@link IOrderItemDAO}.
+ */
+public interface IOrderArchiveDAO {
+
+    /**
+     * Finds the years that have orders to archive.
+     *
+     * @param before   Only orders placed before this time
+     * @param statuses Only orders in these statuses
+     * @return The years (YYYY), oldest first
+     * @throws SQLException If a database access error occurs
+     */
+    List<String> findArchivableYears(LocalDateTime before, Collection<OrderStatus> statuses) throws SQLException;
+
+    /**
+     * Moves up to {@code limit} orders of a year, oldest first, into that
+     * year's archive file in one transaction, on a connection of its own: a
+     * transaction open on the shared connection neither includes the move
+     * nor can roll it back.
+     *
+     * @param year     The year (YYYY) of the orders' orderDate
+     * @param before   Only orders placed before this time
+     * @param statuses Only orders in these statuses
+     * @param limit    Maximum number of orders to move
+     * @return The number of orders moved; 0 when the year has none left
+     * @throws SQLException If a database access error occurs, or the main database is in memory or has no archive directory
+     */
+    int archiveBatch(String year, LocalDateTime before, Collection<OrderStatus> statuses, int limit) throws SQLException;
+
+    /**
+     * @return The existing archive files, newest year first
+     * @throws SQLException If a database access error occurs
+     */
+    List<Path> getArchiveFiles() throws SQLException;
+}
@@ -20,6 +20,17 @@ public interface IOrderEntityDAO {
      */
     OrderEntity getById(String orderId) throws SQLException;
 
+    /**
+     * Retrieves an OrderEntity by its ID, falling through to the order
+     * archives when asked to and the order is not in the main database.
+     *
+     * @param orderId The ID of the order to retrieve.
+     * @param includeArchived Whether to look in the order archives.
+     * @return The OrderEntity object with its items if found, otherwise null.
+     * @throws SQLException If a database access error occurs.
+     */
+    OrderEntity getById(String orderId, boolean includeArchived) throws SQLException;
+
     /**
      * Retrieves all OrderEntities from the database.
      * Optionally, this could be paginated or filtered.
@@ -38,6 +49,17 @@ public interface IOrderEntityDAO {
      */
     List<OrderEntity> getByUserId(String userId) throws SQLException;
 
+    /**
+     * Retrieves all OrderEntities for a specific user, including the archived
+     * ones when asked to (e.g. for the customer's full order history).
+     *
+     * @param userId The ID of the user whose orders are to be retrieved.
+     * @param includeArchived Whether to add the user's orders from the order archives.
+     * @return A list of OrderEntity objects for the user, newest first.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<OrderEntity> getByUserId(String userId, boolean includeArchived) throws SQLException;
+
     /**
      * Retrieves OrderEntities based on their status.
      *
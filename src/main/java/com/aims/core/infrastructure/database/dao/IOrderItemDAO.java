@@ -59,4 +59,15 @@ public interface IOrderItemDAO {
      * @throws SQLException If a database access error occurs.
      */
     List<OrderItem> getItemsByOrderId(String orderId) throws SQLException;
+
+    /**
+     * Retrieves the OrderItems of an order, looking in the order archives
+     * when asked to and the order has no items in the main database.
+     *
+     * @param orderId The ID of the order.
+     * @param includeArchived Whether to look in the order archives.
+     * @return A list of OrderItem objects for the given order.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<OrderItem> getItemsByOrderId(String orderId, boolean includeArchived) throws SQLException;
 }
\ No newline at end of file
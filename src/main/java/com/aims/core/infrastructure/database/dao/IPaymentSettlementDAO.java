@@ -0,0 +1,32 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.shared.dto.PaymentSettlement;
+import com.aims.core.shared.dto.SettlementResult;
+
+import java.sql.SQLException;
+
+/**
+ * DAO interface for settling a payment result in one database transaction.
+ */
+public interface IPaymentSettlementDAO {
+
+    /**
+     * Writes the payment transaction record, the stock decrements, the invoice
+     * and the order status together, with one commit.
+     *
+     * The order is claimed with a conditional status update: stock and invoice
+     * are only written when the order was still PENDING_PAYMENT, so a repeated
+     * gateway notification never takes stock twice. An order that has left
+     * PENDING_PAYMENT is never moved: a late or second result only records its
+     * transaction, and the order's current status is returned. Stock is decremented with
+     * one batched conditional UPDATE per product; if any product is short, the
+     * whole settlement is rolled back.
+     *
+     * @param settlement The writes to apply
+     * @return SETTLED, ALREADY_SETTLED with the order's current status, or
+     *         INSUFFICIENT_STOCK (nothing written)
+     * @throws SQLException If a database error occurs, or the order or payment
+     *                      method does not exist; nothing is written
+     */
+    SettlementResult settle(PaymentSettlement settlement) throws SQLException;
+}
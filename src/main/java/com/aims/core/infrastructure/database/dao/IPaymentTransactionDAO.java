@@ -2,6 +2,7 @@ package com.aims.core.infrastructure.database.dao;
 
 import com.aims.core.entities.PaymentTransaction;
 import com.aims.core.enums.TransactionType; // Assuming TransactionType enum exists
+import com.aims.core.shared.dto.PaymentStatusUpdate;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
@@ -85,6 +86,39 @@ public interface IPaymentTransactionDAO {
      */
     void updateStatusAndGatewayData(String transactionId, String newStatus, String externalTransactionId, String gatewayResponseData) throws SQLException;
 
+    /**
+     * Applies several status and gateway data updates in one transaction.
+     * Updates of transactions that no longer exist are skipped.
+     *
+     * @param updates The updates to apply.
+     * @return The number of transactions updated.
+     * @throws SQLException If a database access error occurs; no update is applied.
+     */
+    int updateStatusAndGatewayData(List<PaymentStatusUpdate> updates) throws SQLException;
+
+    /**
+     * Retrieves pending PAYMENT transactions created before a cut-off, in
+     * transaction ID order, starting after a given ID (keyset paging).
+     * The order and payment method are only populated with their IDs (and the
+     * order's status and total), without further lookups.
+     *
+     * @param createdBefore Only transactions created before this time.
+     * @param afterTransactionId Only transactions with a greater ID; null to start from the first.
+     * @param limit Maximum number of transactions to return.
+     * @return Up to {@code limit} pending transactions.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<PaymentTransaction> getStalePendingPayments(LocalDateTime createdBefore, String afterTransactionId, int limit) throws SQLException;
+
+    /**
+     * Counts pending PAYMENT transactions created before a cut-off.
+     *
+     * @param createdBefore Only transactions created before this time.
+     * @return The number of such transactions.
+     * @throws SQLException If a database access error occurs.
+     */
+    int countStalePendingPayments(LocalDateTime createdBefore) throws SQLException;
+
     // Note: Deleting transactions is typically not done or heavily restricted
     // due to auditing and financial record-keeping requirements.
     // If needed, a method could be added, but with caution.
@@ -6,9 +6,15 @@ import com.aims.core.entities.CD;
 import com.aims.core.entities.DVD;
 import com.aims.core.entities.LP;
 import com.aims.core.enums.ProductType;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.ProductStockSnapshot;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface IProductDAO {
 
@@ -31,6 +37,26 @@ public interface IProductDAO {
      */
     List<Product> getAll() throws SQLException;
 
+    /**
+     * Retrieves the base Product details for a set of IDs in a single query.
+     * Unknown IDs are skipped; the order of the result is unspecified.
+     *
+     * @param productIds The IDs of the products to retrieve.
+     * @return A list of the Product objects found.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<Product> getByIds(Collection<String> productIds) throws SQLException;
+
+    /**
+     * Reads only the stock-related columns for a set of IDs in a single query,
+     * without loading subtype rows. Used by bulk stock validation.
+     *
+     * @param productIds The IDs of the products to read.
+     * @return Snapshots keyed by product ID; unknown IDs are absent.
+     * @throws SQLException If a database access error occurs.
+     */
+    Map<String, ProductStockSnapshot> getStockSnapshots(Collection<String> productIds) throws SQLException;
+
     /**
      * Adds a new base Product to the database.
      * This method should be called first before adding subtype details.
@@ -74,6 +100,7 @@ public interface IProductDAO {
 
     /**
      * Updates an existing Product's base information in the database.
+     * Publishes an UPDATE event to the product change feed when a row is changed.
      *
      * @param product The Product object with updated information.
      * @throws SQLException If a database access error occurs.
@@ -114,6 +141,7 @@ public interface IProductDAO {
 
     /**
      * Deletes a Product (and its associated subtype data due to CASCADE ON DELETE) from the database by its ID.
+     * Publishes a DELETE event to the product change feed when a row is removed.
      *
      * @param productId The ID of the product to delete.
      * @throws SQLException If a database access error occurs.
@@ -138,8 +166,34 @@ public interface IProductDAO {
      */
     List<Product> findByCategory(String category) throws SQLException;
 
+    /**
+     * Retrieves one page of base products (no subtype details), filtered and
+     * ordered in the database, so the cost depends on the page size rather
+     * than the catalogue size.
+     *
+     * @param titleKeyword Only products whose title contains this (null or empty for all).
+     * @param category Only products of this category (null or empty for all).
+     * @param priceOrder "ASC" or "DESC" to order by price; anything else keeps insertion order.
+     * @param page The page number (1-based).
+     * @param pageSize The number of items per page.
+     * @return The products on the page.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<Product> findPage(String titleKeyword, String category, String priceOrder, int page, int pageSize) throws SQLException;
+
+    /**
+     * Counts the products matched by {@link #findPage(String, String, String, int, int)}.
+     *
+     * @param titleKeyword Title filter (null or empty for all).
+     * @param category Category filter (null or empty for all).
+     * @return The number of matching products.
+     * @throws SQLException If a database access error occurs.
+     */
+    int countPage(String titleKeyword, String category) throws SQLException;
+
     /**
      * Updates the stock quantity of a product.
+     * Publishes a STOCK event to the product change feed when a row is changed.
      * @param productId The ID of the product.
      * @param newQuantity The new stock quantity.
      * @throws SQLException If a database access error occurs.
@@ -148,6 +202,7 @@ public interface IProductDAO {
 
     /**
      * Updates the stock quantity of a product with optimistic locking.
+     * Publishes a STOCK event to the product change feed on success.
      * @param productId The ID of the product.
      * @param newQuantity The new stock quantity.
      * @param expectedVersion The expected version for optimistic locking.
@@ -155,6 +210,32 @@ public interface IProductDAO {
      */
     void updateStockWithVersion(String productId, int newQuantity, Long expectedVersion) throws SQLException;
 
+    /**
+     * Atomically decrements stock if enough is available, using a single
+     * conditional UPDATE (no prior read, no version check). Publishes a STOCK
+     * event to the product change feed on success.
+     * @param productId The ID of the product.
+     * @param quantity The quantity to remove (must be positive).
+     * @return The remaining stock, or null if the product does not exist or has fewer than {@code quantity} units.
+     * @throws SQLException If a database access error occurs.
+     */
+    Integer decrementStockIfAvailable(String productId, int quantity) throws SQLException;
+
+    /**
+     * Applies many stock decrements in one transaction (group commit). For each
+     * product, requests are granted in the given order while stock lasts and
+     * the granted total is subtracted with one conditional UPDATE. Publishes a
+     * STOCK event per changed product after commit. Runs on the dedicated
+     * "stock-group-commit" connection, never inside a transaction open on the
+     * shared one.
+     * @param requestedQuantities Requested quantities per product, in arrival order.
+     * @return Per product, one entry per request: the stock remaining after that
+     *         request was granted, or -1 if it was not granted. Products that do
+     *         not exist are absent from the map.
+     * @throws SQLException If a database access error occurs; nothing is applied.
+     */
+    Map<String, int[]> decrementStockGrouped(Map<String, List<Integer>> requestedQuantities) throws SQLException;
+
     /**
      * Advanced search for products with filtering, sorting, and pagination.
      * @param keyword The search keyword (searches across title, description, category, and subtype-specific fields)
@@ -217,4 +298,114 @@ public interface IProductDAO {
      */
     int getSearchResultsCountByType(String keyword, ProductType productType) throws SQLException;
 
-}
\ No newline at end of file
+    /**
+     * Counts the products matching a search keyword in one aggregate query,
+     * grouped by every facet dimension at once (category, product type, price
+     * bucket, stock availability). The caller derives the result total and all
+     * facet counts for any combination of filters from the returned cells,
+     * without further queries.
+     *
+     * @param keyword The search keyword (null or empty matches every product)
+     * @param priceFactor Multiplier applied to the stored price before bucketing (e.g. 1 + VAT rate)
+     * @param priceBounds Ascending upper bounds of the price buckets; bucket i holds
+     *                    prices below priceBounds[i], the last bucket the rest
+     * @return One cell per non-empty combination of dimensions
+     * @throws SQLException If a database access error occurs.
+     */
+    List<FacetCount> getSearchFacetCounts(String keyword, double priceFactor, double[] priceBounds) throws SQLException;
+
+    /**
+     * One cell of {@link #getSearchFacetCounts(String, double, double[])}.
+     * @param category The category (may be null)
+     * @param productType The product type
+     * @param priceBucket Index of the price bucket
+     * @param inStock Whether the products have stock
+     * @param strictKeywordMatch Whether the products also match the keyword without
+     *                           counting category matches, as the product-type search does
+     * @param count Number of products in the cell
+     */
+    record FacetCount(String category, ProductType productType, int priceBucket, boolean inStock,
+                      boolean strictKeywordMatch, long count) {
+    }
+
+    /**
+     * Inserts many products (base rows and Book/CD/DVD/LP detail rows) with
+     * batched prepared statements inside one transaction. Publishes a CREATE
+     * event per product after commit.
+     * @param products The products to insert.
+     * @return The number of products inserted.
+     * @throws SQLException If any row is rejected (e.g. duplicate ID or barcode); nothing is inserted.
+     */
+    int addProductsBatch(List<? extends Product> products) throws SQLException;
+
+    /**
+     * Passes every product, with its subtype details, to a handler straight from
+     * the ResultSet, ordered by product ID. No list is built, so memory use does
+     * not grow with the size of the catalogue.
+     * @param productType Only stream products of this type (null for all).
+     * @param handler Receives each product; an exception from it stops the stream.
+     * @return The number of products streamed.
+     * @throws SQLException If a database access error occurs.
+     * @throws IOException If the handler fails to write a product.
+     */
+    int streamProducts(ProductType productType, ProductRowHandler handler) throws SQLException, IOException;
+
+    /**
+     * Receives products from {@link #streamProducts(ProductType, ProductRowHandler)}.
+     */
+    @FunctionalInterface
+    interface ProductRowHandler {
+        void handle(Product product) throws IOException;
+    }
+
+    /**
+     * Finds which of the given products are referenced by order items, in a
+     * single query. Such products cannot be deleted.
+     * @param productIds The product IDs to check.
+     * @return The subset of IDs that appear in ORDER_ITEM.
+     * @throws SQLException If a database access error occurs.
+     */
+    Set<String> findProductIdsInOrders(Collection<String> productIds) throws SQLException;
+
+    /**
+     * Deletes a set of products (subtype rows and base rows) with set-based
+     * DELETE statements inside one transaction. Publishes a DELETE event per
+     * removed product after commit.
+     * @param productIds The IDs of the products to delete.
+     * @return The IDs of the products that were deleted.
+     * @throws SQLException If a database access error occurs; nothing is deleted.
+     */
+    Set<String> deleteByIds(Collection<String> productIds) throws SQLException;
+
+    /**
+     * Deletes a set of products like {@link #deleteByIds(Collection)} and, in
+     * the same transaction, writes the audit row of each product it removes,
+     * so a deletion and its audit record commit or roll back together.
+     * @param productIds The IDs of the products to delete.
+     * @param auditRecords The audit row to write per product ID, if that product is deleted.
+     * @return The IDs of the products that were deleted.
+     * @throws SQLException If a database access error occurs; nothing is deleted or logged.
+     */
+    Set<String> deleteByIds(Collection<String> productIds, Map<String, AuditLogRecord> auditRecords) throws SQLException;
+
+    /**
+     * Sets the price of several products inside one transaction. Publishes an
+     * UPDATE event per changed product after commit.
+     * @param newPrices New price (excluding VAT) per product ID.
+     * @return The IDs of the products that were updated.
+     * @throws SQLException If a database access error occurs; nothing is updated.
+     */
+    Set<String> updatePrices(Map<String, Float> newPrices) throws SQLException;
+
+    /**
+     * Applies stock adjustments to several products inside one transaction.
+     * Each adjustment is a conditional UPDATE that is skipped (not failed) if
+     * it would make the stock negative. Publishes a STOCK event per changed
+     * product after commit.
+     * @param quantityChanges Quantity change per product ID (positive adds stock).
+     * @return New stock per product ID for the adjustments that were applied;
+     *         skipped and unknown products are absent.
+     * @throws SQLException If a database access error occurs; nothing is applied.
+     */
+    Map<String, Integer> adjustStock(Map<String, Integer> quantityChanges) throws SQLException;
+}
@@ -1,7 +1,13 @@
 package com.aims.core.infrastructure.database.dao;
 
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.ProductAuditEntry;
+
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * DAO interface for Product Manager audit operations.
@@ -20,6 +26,36 @@ public interface IProductManagerAuditDAO {
      */
     void logOperation(String managerId, String operationType, String productId, String details) throws SQLException;
 
+    /**
+     * Logs several operations performed by a Product Manager as one batched
+     * insert inside a single transaction.
+     *
+     * @param managerId The ID of the product manager
+     * @param entries The operations to record
+     * @throws SQLException If a database error occurs; no entry is recorded
+     */
+    void logOperations(String managerId, List<ProductAuditEntry> entries) throws SQLException;
+
+    /**
+     * Inserts audit rows of any managers as one batched insert inside a single
+     * transaction. Each row keeps its own operation time. Runs on the
+     * dedicated "audit-log-writer" connection, so the background writer's
+     * transactions never share the connection other threads use.
+     *
+     * @param records The rows to insert
+     * @throws SQLException If a database error occurs; no row is inserted
+     */
+    void insertAuditRecords(List<AuditLogRecord> records) throws SQLException;
+
+    /**
+     * Gets every audit row of a specific date, for all managers.
+     *
+     * @param date The date to read
+     * @return The rows of that date
+     * @throws SQLException If a database error occurs
+     */
+    List<AuditLogRecord> getOperationsOn(LocalDate date) throws SQLException;
+
     /**
      * Gets the total operation count for a manager on a specific date.
      * Counts UPDATE and DELETE operations (ADD operations are unlimited).
@@ -42,6 +78,18 @@ public interface IProductManagerAuditDAO {
      */
     int getPriceUpdateCount(String managerId, String productId, LocalDate date) throws SQLException;
 
+    /**
+     * Gets the price update counts for a manager and several products on a
+     * specific date in a single query.
+     *
+     * @param managerId The ID of the product manager
+     * @param productIds The IDs of the products
+     * @param date The date to check
+     * @return Map of product ID to price update count; products without updates are absent
+     * @throws SQLException If a database error occurs
+     */
+    Map<String, Integer> getPriceUpdateCounts(String managerId, Collection<String> productIds, LocalDate date) throws SQLException;
+
     /**
      * Gets all operations performed by a manager on a specific date.
      *
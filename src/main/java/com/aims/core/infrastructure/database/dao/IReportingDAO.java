@@ -0,0 +1,89 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.shared.dto.CategorySales;
+import com.aims.core.shared.dto.DailyRevenue;
+import com.aims.core.shared.dto.OrderStatusCount;
+import com.aims.core.shared.dto.ProductSales;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DAO interface for sales and operations reports. Reports read the daily
+ * rollup tables, which the order DAOs keep current as orders are placed,
+ * settled and cancelled, so their cost depends on the number of days and
+ * products in the range rather than the number of orders.
+ *
+ * All ranges are order days, {@code from} and {@code to} inclusive.
+ */
+public interface IReportingDAO {
+
+    /**
+     * Retrieves sold orders, units and revenue per day.
+     *
+     * @param from First day
+     * @param to   Last day
+     * @return One entry per day with sales, in date order
+     * @throws SQLException If a database access error occurs
+     */
+    List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Retrieves the best-selling products by item revenue.
+     *
+     * @param from  First day
+     * @param to    Last day
+     * @param limit Maximum number of products
+     * @return Products in descending revenue order
+     * @throws SQLException If a database access error occurs
+     */
+    List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) throws SQLException;
+
+    /**
+     * Retrieves sales per product category.
+     *
+     * @param from First day
+     * @param to   Last day
+     * @return Categories in descending revenue order
+     * @throws SQLException If a database access error occurs
+     */
+    List<CategorySales> getCategorySales(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Retrieves the number of orders placed in the range per current status.
+     *
+     * @param from First day
+     * @param to   Last day
+     * @return Statuses with at least one order
+     * @throws SQLException If a database access error occurs
+     */
+    List<OrderStatusCount> getStatusCounts(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Recomputes the rollups of a range of days from the orders, in one
+     * transaction. Used to fill the rollups for orders placed before they
+     * existed, and to repair them after bulk changes.
+     *
+     * @param from First day, no earlier than {@link #getFirstRebuildableDay()}
+     * @param to   Last day
+     * @return The number of orders in the range
+     * @throws SQLException If a database access error occurs, or the range reaches into an archived year
+     */
+    int rebuildRollups(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Archived orders are gone from the main database, so the rollups of
+     * their years can only be kept, not rebuilt.
+     *
+     * @return The day after the newest archived year, or null when no orders are archived
+     * @throws SQLException If a database access error occurs
+     */
+    LocalDate getFirstRebuildableDay() throws SQLException;
+
+    /**
+     * @return The earliest order day, or null when there are no orders
+     * @throws SQLException If a database access error occurs
+     */
+    LocalDate getFirstOrderDay() throws SQLException;
+}
@@ -5,7 +5,9 @@ import com.aims.core.entities.Role; // Cần thiết nếu có phương thức l
 import com.aims.core.enums.UserStatus;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface IUserAccountDAO {
@@ -45,6 +47,40 @@ public interface IUserAccountDAO {
      */
     List<UserAccount> getAll() throws SQLException;
 
+    /**
+     * Retrieves one page of UserAccounts matching the given filters. Filtering,
+     * sorting and paging happen in the database; the roles of every user on the
+     * page are loaded with a single query and attached as role assignments.
+     *
+     * @param keyword   Case-insensitive text matched against username and email, or null.
+     * @param status    Only users with this status, or null for any status.
+     * @param roleId    Only users holding this role, or null for any role.
+     * @param sortBy    One of "username", "email", "status", "userId" (defaults to username).
+     * @param sortOrder "ASC" or "DESC".
+     * @param page      1-based page number.
+     * @param pageSize  Number of users per page.
+     * @return The users on the requested page, with roles populated.
+     * @throws SQLException If a database access error occurs.
+     */
+    List<UserAccount> searchUsers(String keyword, UserStatus status, String roleId,
+                                  String sortBy, String sortOrder, int page, int pageSize) throws SQLException;
+
+    /**
+     * Counts the UserAccounts matching the same filters as {@link #searchUsers}.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    int countUsers(String keyword, UserStatus status, String roleId) throws SQLException;
+
+    /**
+     * Retrieves the roles of several users in one query.
+     *
+     * @param userIds The IDs of the users.
+     * @return Roles keyed by user ID; users without roles map to an empty set.
+     * @throws SQLException If a database access error occurs.
+     */
+    Map<String, Set<Role>> getRolesForUsers(Collection<String> userIds) throws SQLException;
+
     /**
      * Adds a new UserAccount to the database.
      *
@@ -4,6 +4,7 @@ import com.aims.core.entities.Invoice;
 import com.aims.core.entities.OrderEntity; // For setting the order reference
 import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.dao.IInvoiceDAO;
+import com.aims.core.shared.utils.Money;
 // Assuming IOrderEntityDAO exists if we need to fully reconstruct OrderEntity
 // import com.aims.infrastructure.database.dao.IOrderEntityDAO;
 
@@ -65,7 +66,7 @@ public class InvoiceDAOImpl implements IInvoiceDAO {
             pstmt.setString(1, invoice.getInvoiceId());
             pstmt.setString(2, invoice.getOrderEntity().getOrderId()); // Changed from getOrder to getOrderEntity
             pstmt.setString(3, invoice.getInvoiceDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setFloat(4, invoice.getInvoicedTotalAmount());
+            pstmt.setDouble(4, Money.toColumn(invoice.getInvoicedTotalAmount()));
             pstmt.executeUpdate();
         } catch (SQLException e) {
             // Check for specific SQLite error code for UNIQUE constraint violation (e.g., on orderID)
@@ -89,7 +90,7 @@ public class InvoiceDAOImpl implements IInvoiceDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, invoice.getInvoiceDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setFloat(2, invoice.getInvoicedTotalAmount());
+            pstmt.setDouble(2, Money.toColumn(invoice.getInvoicedTotalAmount()));
             pstmt.setString(3, invoice.getInvoiceId());
             pstmt.setString(4, invoice.getOrderEntity().getOrderId()); // Changed from getOrder to getOrderEntity
 
@@ -0,0 +1,63 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+@Repository
+public class JobCheckpointDAOImpl implements IJobCheckpointDAO {
+
+    private volatile boolean tableEnsured;
+
+    private Connection getConnection() throws SQLException {
+        Connection conn = SQLiteConnector.getInstance().getConnection();
+        ensureTable(conn);
+        return conn;
+    }
+
+    @Override
+    public String getPosition(String jobName) throws SQLException {
+        String sql = "SELECT position FROM JOB_CHECKPOINT WHERE jobName = ?";
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, jobName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void savePosition(String jobName, String position) throws SQLException {
+        String sql = "INSERT INTO JOB_CHECKPOINT (jobName, position, updatedAt) VALUES (?, ?, ?) " +
+                     "ON CONFLICT(jobName) DO UPDATE SET position = excluded.position, updatedAt = excluded.updatedAt";
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, jobName);
+            pstmt.setString(2, position);
+            pstmt.setString(3, LocalDateTime.now().toString());
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+
+    private void ensureTable(Connection conn) throws SQLException {
+        if (tableEnsured) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS JOB_CHECKPOINT (" +
+                         "jobName TEXT PRIMARY KEY, position TEXT, updatedAt TEXT NOT NULL)");
+            tableEnsured = true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.shared.utils.Money;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Reads and writes the INTEGER minor-unit amount columns of ORDER_ENTITY,
+ * ORDER_ITEM and PAYMENT_TRANSACTION (V3__add_minor_unit_amounts.sql).
+ *
+ * The writers store each amount in its minor-unit column and, for SQL readers
+ * such as the report rollups, the same amount in the REAL column next to it.
+ * On a database without the V3 columns only the REAL columns are written.
+ * Readers take the minor-unit column and fall back to the REAL one for rows
+ * written before the migration filled it in, including rows in older
+ * archive files.
+ */
+final class MinorUnitColumns {
+
+    // Connections seen with the columns; they are never dropped again
+    private static final Set<Connection> migratedConnections = Collections.synchronizedSet(
+        Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private MinorUnitColumns() {
+    }
+
+    /**
+     * @return whether the database behind {@code conn} has the minor-unit columns
+     */
+    static boolean exist(Connection conn) {
+        if (migratedConnections.contains(conn)) {
+            return true;
+        }
+        if (ProductDAOImpl.columnExists(conn, "PAYMENT_TRANSACTION", "amountMinor")) {
+            migratedConnections.add(conn);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the amount of the current row in minor units
+     */
+    static long read(ResultSet rs, String minorColumn, String realColumn) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (minorColumn.equalsIgnoreCase(meta.getColumnLabel(i))) {
+                long minor = rs.getLong(i);
+                if (!rs.wasNull()) {
+                    return minor;
+                }
+                break;
+            }
+        }
+        return Money.fromColumn(rs.getDouble(realColumn));
+    }
+}
@@ -0,0 +1,169 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import org.springframework.stereotype.Repository;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves orders into the archive files of {@link OrderArchives}.
+ *
+ * A batch is copied with INSERT OR REPLACE and then deleted from the main
+ * database in the same transaction, with the year's file attached to a
+ * dedicated connection. When the main database uses a rollback journal the
+ * move is atomic across both files; in WAL mode it is atomic per file, and
+ * an interrupted batch leaves orders in both, which the next run copies
+ * again and deletes.
+ *
+ * Deleting archived orders bypasses the reporting rollups on purpose, so
+ * sales reports keep counting them.
+ */
+@Repository
+public class OrderArchiveDAOImpl implements IOrderArchiveDAO {
+
+    private static final String ARCHIVE_SCHEMA = "order_archive";
+    static final String ARCHIVER_CONNECTION = "order-archiver";
+
+    private Connection getConnection() throws SQLException {
+        return SQLiteConnector.getInstance().getConnection();
+    }
+
+    @Override
+    public List<String> findArchivableYears(LocalDateTime before, Collection<OrderStatus> statuses) throws SQLException {
+        List<String> years = new ArrayList<>();
+        if (statuses.isEmpty()) {
+            return years;
+        }
+        String sql = "SELECT DISTINCT substr(orderDate, 1, 4) FROM ORDER_ENTITY WHERE orderDate < ? " +
+                     "AND order_status IN " + placeholders(statuses.size()) + " ORDER BY 1";
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, before.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            bindStatuses(pstmt, 2, statuses);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    years.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return years;
+    }
+
+    @Override
+    public int archiveBatch(String year, LocalDateTime before, Collection<OrderStatus> statuses, int limit) throws SQLException {
+        if (!year.matches("\\d{4}")) {
+            throw new IllegalArgumentException("Not a year: " + year);
+        }
+        if (statuses.isEmpty() || limit <= 0) {
+            return 0;
+        }
+        // The archive is attached and the move committed on a connection of its own, so
+        // neither the ATTACH nor the transaction mixes with what other threads run on the shared one
+        Connection conn = SQLiteConnector.getInstance().getDedicatedConnection(ARCHIVER_CONNECTION);
+        synchronized (conn) {
+            Path directory = OrderArchives.directory(conn);
+            if (directory == null) {
+                throw new SQLException("The database has no file to archive next to; set -Daims.archive.dir");
+            }
+
+            OrderArchives.attach(conn, OrderArchives.file(directory, year), ARCHIVE_SCHEMA);
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                List<String> orderIds = selectBatch(conn, year, before, statuses, limit);
+                if (!orderIds.isEmpty()) {
+                    String in = placeholders(orderIds.size());
+                    for (String table : OrderArchives.TABLES.keySet()) {
+                        String columns = String.join(", ", OrderArchives.columns(conn, table));
+                        execute(conn, "INSERT OR REPLACE INTO " + ARCHIVE_SCHEMA + "." + table + " (" + columns + ") " +
+                                      "SELECT " + columns + " FROM main." + table + " WHERE orderID IN " + in, orderIds);
+                    }
+                    // Children first, since PAYMENT_TRANSACTION restricts deleting its order
+                    for (String table : OrderArchives.TABLES.keySet()) {
+                        execute(conn, "DELETE FROM main." + table + " WHERE orderID IN " + in, orderIds);
+                    }
+                }
+                conn.commit();
+                return orderIds.size();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                    OrderArchives.detach(conn, ARCHIVE_SCHEMA);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Path> getArchiveFiles() throws SQLException {
+        return OrderArchives.files(getConnection());
+    }
+
+    private static List<String> selectBatch(Connection conn, String year, LocalDateTime before,
+                                            Collection<OrderStatus> statuses, int limit) throws SQLException {
+        // orderDate is ISO text, so the year is a prefix range on the orderDate index
+        String cutoff = before.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        String nextYear = (Integer.parseInt(year) + 1) + "-01-01";
+        String sql = "SELECT orderID FROM main.ORDER_ENTITY WHERE orderDate >= ? AND orderDate < ? " +
+                     "AND order_status IN " + placeholders(statuses.size()) + " ORDER BY orderDate LIMIT ?";
+        List<String> orderIds = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, year + "-01-01");
+            pstmt.setString(2, cutoff.compareTo(nextYear) < 0 ? cutoff : nextYear);
+            int index = bindStatuses(pstmt, 3, statuses);
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    orderIds.add(rs.getString(1));
+                }
+            }
+        }
+        return orderIds;
+    }
+
+    private static void execute(Connection conn, String sql, List<String> orderIds) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < orderIds.size(); i++) {
+                pstmt.setString(i + 1, orderIds.get(i));
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * @return the next parameter index
+     */
+    private static int bindStatuses(PreparedStatement pstmt, int index, Collection<OrderStatus> statuses) throws SQLException {
+        for (OrderStatus status : statuses) {
+            pstmt.setString(index++, status.name());
+        }
+        return index;
+    }
+
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+}
@@ -0,0 +1,187 @@
+package com.aims.core.infrastructure.database.dao;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Locates and prepares the archive database files that old orders are moved to.
+ *
+ * There is one file per year of {@code orderDate}, {@code orders_<year>.db},
+ * in the directory given by {@code -Daims.archive.dir} or else an
+ * {@code archive} directory next to the main database file. Each file holds
+ * the archived rows of {@link #TABLES} with the main database's columns; the
+ * foreign keys are not copied, since SQLite can't enforce them across files,
+ * but every table has a unique index on its key so that copying an order
+ * again replaces it.
+ *
+ * The mover attaches a file only for the duration of a run, and on a
+ * dedicated connection to the main database rather than the shared one.
+ * Readers open the files on connections of their own, so archives are never
+ * attached to the connection the application works on.
+ */
+final class OrderArchives {
+
+    /**
+     * Archived tables and their key columns, children first: the order they
+     * are deleted from the main database in.
+     */
+    static final Map<String, String> TABLES = new LinkedHashMap<>();
+    static {
+        TABLES.put("PAYMENT_TRANSACTION", "transactionID");
+        TABLES.put("INVOICE", "orderID");
+        TABLES.put("DELIVERY_INFO", "orderID");
+        TABLES.put("ORDER_ITEM", "orderID, productID");
+        TABLES.put("ORDER_ENTITY", "orderID");
+    }
+
+    private static final Pattern FILE_NAME = Pattern.compile("orders_\\d{4}\\.db");
+
+    private OrderArchives() {
+    }
+
+    /**
+     * @return the archive directory, or null when the main database is in memory
+     */
+    static Path directory(Connection main) throws SQLException {
+        String configured = System.getProperty("aims.archive.dir");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        try (Statement stmt = main.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA database_list")) {
+            while (rs.next()) {
+                if ("main".equals(rs.getString("name"))) {
+                    String file = rs.getString("file");
+                    if (file == null || file.isEmpty()) {
+                        return null;
+                    }
+                    Path parent = Path.of(file).toAbsolutePath().getParent();
+                    return parent.resolve("archive");
+                }
+            }
+        }
+        return null;
+    }
+
+    static Path file(Path directory, String year) {
+        return directory.resolve("orders_" + year + ".db");
+    }
+
+    /**
+     * @return the existing archive files, newest year first
+     */
+    static List<Path> files(Connection main) throws SQLException {
+        Path directory = directory(main);
+        List<Path> files = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "orders_*.db")) {
+            for (Path entry : entries) {
+                if (FILE_NAME.matcher(entry.getFileName().toString()).matches()) {
+                    files.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Unable to list order archives in " + directory, e);
+        }
+        files.sort(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed());
+        return files;
+    }
+
+    /**
+     * Attaches an archive file as {@code schema} to {@code main}, the mover's
+     * dedicated connection to the main database, creating the file and
+     * bringing its tables up to the main database's columns. Must be called
+     * outside a transaction.
+     */
+    static void attach(Connection main, Path file, String schema) throws SQLException {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new SQLException("Unable to create order archive directory for " + file, e);
+        }
+        try (PreparedStatement pstmt = main.prepareStatement("ATTACH DATABASE ? AS " + schema)) {
+            pstmt.setString(1, file.toAbsolutePath().toString());
+            pstmt.execute();
+        }
+        try {
+            for (Map.Entry<String, String> table : TABLES.entrySet()) {
+                prepareTable(main, schema, table.getKey(), table.getValue());
+            }
+        } catch (SQLException e) {
+            detach(main, schema);
+            throw e;
+        }
+    }
+
+    static void detach(Connection main, String schema) throws SQLException {
+        try (Statement stmt = main.createStatement()) {
+            stmt.execute("DETACH DATABASE " + schema);
+        }
+    }
+
+    /**
+     * Opens an archive file for reading on a connection of its own.
+     */
+    static Connection open(Path file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+    }
+
+    /**
+     * @return the archive tables' columns, in the main database's order
+     */
+    static List<String> columns(Connection main, String table) throws SQLException {
+        return new ArrayList<>(columnTypes(main, "main", table).keySet());
+    }
+
+    private static void prepareTable(Connection main, String schema, String table, String key) throws SQLException {
+        Map<String, String> archived = columnTypes(main, schema, table);
+        try (Statement stmt = main.createStatement()) {
+            if (archived.isEmpty()) {
+                stmt.execute("CREATE TABLE " + schema + "." + table + " AS SELECT * FROM main." + table + " WHERE 0");
+            } else {
+                // Columns added to the main table since this archive was created
+                for (Map.Entry<String, String> column : columnTypes(main, "main", table).entrySet()) {
+                    if (!archived.containsKey(column.getKey())) {
+                        stmt.execute("ALTER TABLE " + schema + "." + table + " ADD COLUMN " + column.getKey()
+                            + " " + column.getValue());
+                    }
+                }
+            }
+            String index = table.toLowerCase();
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + schema + ".ux_" + index + " ON " + table + "(" + key + ")");
+            if ("ORDER_ENTITY".equals(table)) {
+                // Customer order history
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + schema + ".idx_order_entity_user ON ORDER_ENTITY(userID, orderDate)");
+            } else if ("PAYMENT_TRANSACTION".equals(table)) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + schema + ".idx_payment_transaction_order ON PAYMENT_TRANSACTION(orderID)");
+            }
+        }
+    }
+
+    private static Map<String, String> columnTypes(Connection conn, String schema, String table) throws SQLException {
+        Map<String, String> columns = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.put(rs.getString("name"), rs.getString("type"));
+            }
+        }
+        return columns;
+    }
+}
@@ -10,14 +10,19 @@ import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.dao.IOrderEntityDAO;
 import com.aims.core.infrastructure.database.dao.IOrderItemDAO; // For loading order items
 import com.aims.core.infrastructure.database.dao.IUserAccountDAO; // For loading user account
+import com.aims.core.shared.utils.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -26,6 +31,7 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
 
     private final IOrderItemDAO orderItemDAO; // To load associated order items
     private final IUserAccountDAO userAccountDAO; // To load associated user
+    private final ReportRollups rollups = new ReportRollups();
     // Inject other DAOs as needed (e.g., IDeliveryInfoDAO, IInvoiceDAO)
 
     @Autowired
@@ -46,10 +52,10 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         String userId = rs.getString("userID");
         String orderDateStr = rs.getString("orderDate");
         String orderStatusStr = rs.getString("order_status");
-        float totalProductPriceExclVAT = rs.getFloat("totalProductPriceExclVAT");
-        float totalProductPriceInclVAT = rs.getFloat("totalProductPriceInclVAT");
-        float calculatedDeliveryFee = rs.getFloat("calculatedDeliveryFee");
-        float totalAmountPaid = rs.getFloat("totalAmountPaid");
+        long totalProductPriceExclVAT = MinorUnitColumns.read(rs, "totalProductPriceExclVATMinor", "totalProductPriceExclVAT");
+        long totalProductPriceInclVAT = MinorUnitColumns.read(rs, "totalProductPriceInclVATMinor", "totalProductPriceInclVAT");
+        long calculatedDeliveryFee = MinorUnitColumns.read(rs, "calculatedDeliveryFeeMinor", "calculatedDeliveryFee");
+        long totalAmountPaid = MinorUnitColumns.read(rs, "totalAmountPaidMinor", "totalAmountPaid");
 
         // Now create and populate the OrderEntity
         OrderEntity order = new OrderEntity();
@@ -70,10 +76,10 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         if (orderStatusStr != null) {
             order.setOrderStatus(OrderStatus.valueOf(orderStatusStr));
         }
-        order.setTotalProductPriceExclVAT(totalProductPriceExclVAT);
-        order.setTotalProductPriceInclVAT(totalProductPriceInclVAT);
-        order.setCalculatedDeliveryFee(calculatedDeliveryFee);
-        order.setTotalAmountPaid(totalAmountPaid);
+        order.setTotalProductPriceExclVATMinor(totalProductPriceExclVAT);
+        order.setTotalProductPriceInclVATMinor(totalProductPriceInclVAT);
+        order.setCalculatedDeliveryFeeMinor(calculatedDeliveryFee);
+        order.setTotalAmountPaidMinor(totalAmountPaid);
 
         // Note: Associated collections like orderItems, deliveryInfo, invoice, paymentTransactions
         // are typically loaded separately (lazy loading) or via JOINs in more complex queries.
@@ -115,6 +121,21 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         return order;
     }
 
+    @Override
+    public OrderEntity getById(String orderId, boolean includeArchived) throws SQLException {
+        OrderEntity order = getById(orderId);
+        if (order != null || !includeArchived) {
+            return order;
+        }
+        List<OrderEntity> archived = queryArchives("SELECT * FROM ORDER_ENTITY WHERE orderID = ?", orderId);
+        if (archived.isEmpty()) {
+            return null;
+        }
+        order = archived.get(0);
+        order.setOrderItems(orderItemDAO.getItemsByOrderId(orderId, true));
+        return order;
+    }
+
     /**
      * UNIVERSAL ORDER LOADING WITH COMPLETE RELATIONSHIPS
      * Loads order with ALL related entities to prevent ANY lazy loading issues
@@ -243,7 +264,7 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         item.setOrderEntity(order);
         item.setProduct(product);
         item.setQuantity(rs.getInt("quantity"));
-        item.setPriceAtTimeOfOrder(rs.getFloat("priceAtTimeOfOrder"));
+        item.setPriceAtTimeOfOrderMinor(MinorUnitColumns.read(rs, "priceAtTimeOfOrderMinor", "priceAtTimeOfOrder"));
         item.setEligibleForRushDelivery(rs.getBoolean("eligibleForRushDelivery"));
         
         return item;
@@ -294,6 +315,49 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         return orders;
     }
 
+    @Override
+    public List<OrderEntity> getByUserId(String userId, boolean includeArchived) throws SQLException {
+        List<OrderEntity> orders = getByUserId(userId);
+        if (!includeArchived) {
+            return orders;
+        }
+        Set<String> hot = new HashSet<>();
+        for (OrderEntity order : orders) {
+            hot.add(order.getOrderId());
+        }
+        for (OrderEntity order : queryArchives("SELECT * FROM ORDER_ENTITY WHERE userID = ? ORDER BY orderDate DESC", userId)) {
+            // An order caught between the copy and the delete of an interrupted archive run is still hot
+            if (hot.add(order.getOrderId())) {
+                orders.add(order);
+            }
+        }
+        orders.sort(Comparator.comparing(OrderEntity::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        return orders;
+    }
+
+    /**
+     * Runs an ORDER_ENTITY query with one string parameter on every order
+     * archive, newest year first, on connections of its own.
+     */
+    private List<OrderEntity> queryArchives(String sql, String parameter) throws SQLException {
+        List<OrderEntity> orders = new ArrayList<>();
+        for (Path file : OrderArchives.files(getConnection())) {
+            try (Connection archive = OrderArchives.open(file);
+                 PreparedStatement pstmt = archive.prepareStatement(sql)) {
+                pstmt.setString(1, parameter);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        orders.add(mapResultSetToOrderEntity(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            }
+        }
+        return orders;
+    }
+
     @Override
     public List<OrderEntity> getByStatus(OrderStatus status) throws SQLException {
         List<OrderEntity> orders = new ArrayList<>();
@@ -337,14 +401,15 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         String sql = "INSERT INTO ORDER_ENTITY (orderID, userID, orderDate, order_status, " +
                      "totalProductPriceExclVAT, totalProductPriceInclVAT, calculatedDeliveryFee, totalAmountPaid) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        Connection conn = null;
-        try {
-            conn = getConnection();
-            // Transaction management should ideally be handled at the service layer
-            // if adding OrderItems, DeliveryInfo etc. needs to be atomic with OrderEntity.
-            // conn.setAutoCommit(false); // If managing transaction here
-
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        String minorSql = "INSERT INTO ORDER_ENTITY (orderID, userID, orderDate, order_status, " +
+                          "totalProductPriceExclVAT, totalProductPriceInclVAT, calculatedDeliveryFee, totalAmountPaid, " +
+                          "totalProductPriceExclVATMinor, totalProductPriceInclVATMinor, calculatedDeliveryFeeMinor, totalAmountPaidMinor) " +
+                          "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        // OrderItems, DeliveryInfo etc. are added by their own DAOs; the service layer
+        // decides whether those writes are atomic with the order.
+        writeWithRollups(conn -> {
+            boolean minorColumns = MinorUnitColumns.exist(conn);
+            try (PreparedStatement pstmt = conn.prepareStatement(minorColumns ? minorSql : sql)) {
                 pstmt.setString(1, order.getOrderId());
                 if (order.getUserAccount() != null) {
                     pstmt.setString(2, order.getUserAccount().getUserId());
@@ -353,28 +418,11 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
                 }
                 pstmt.setString(3, order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
                 pstmt.setString(4, order.getOrderStatus().name());
-                pstmt.setFloat(5, order.getTotalProductPriceExclVAT());
-                pstmt.setFloat(6, order.getTotalProductPriceInclVAT());
-                pstmt.setFloat(7, order.getCalculatedDeliveryFee());
-                pstmt.setFloat(8, order.getTotalAmountPaid());
+                bindAmounts(pstmt, 5, order, minorColumns);
                 pstmt.executeUpdate();
             }
-
-            // Example: If OrderItems are also managed by this DAO's add method (less common for pure DAO)
-            // if (order.getOrderItems() != null) {
-            //     for (OrderItem item : order.getOrderItems()) {
-            //         item.setOrder(order); // Ensure back-reference
-            //         orderItemDAO.add(item); // Call OrderItemDAO
-            //     }
-            // }
-            // conn.commit(); // If managing transaction here
-        } catch (SQLException e) {
-            // if (conn != null) { try { conn.rollback(); } catch (SQLException ex) { SQLiteConnector.printSQLException(ex); } }
-            SQLiteConnector.printSQLException(e);
-            throw e;
-        } finally {
-            // if (conn != null) { try { conn.setAutoCommit(true); } catch (SQLException ex) { SQLiteConnector.printSQLException(ex); } }
-        }
+            rollups.apply(conn, order.getOrderId(), null, rollups.read(conn, order.getOrderId()));
+        });
     }
 
     @Override
@@ -382,40 +430,68 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         String sql = "UPDATE ORDER_ENTITY SET userID = ?, orderDate = ?, order_status = ?, " +
                      "totalProductPriceExclVAT = ?, totalProductPriceInclVAT = ?, " +
                      "calculatedDeliveryFee = ?, totalAmountPaid = ? WHERE orderID = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        String minorSql = "UPDATE ORDER_ENTITY SET userID = ?, orderDate = ?, order_status = ?, " +
+                          "totalProductPriceExclVAT = ?, totalProductPriceInclVAT = ?, " +
+                          "calculatedDeliveryFee = ?, totalAmountPaid = ?, " +
+                          "totalProductPriceExclVATMinor = ?, totalProductPriceInclVATMinor = ?, " +
+                          "calculatedDeliveryFeeMinor = ?, totalAmountPaidMinor = ? WHERE orderID = ?";
+        writeWithRollups(conn -> {
+            ReportRollups.OrderFacts before = rollups.read(conn, order.getOrderId());
+            boolean minorColumns = MinorUnitColumns.exist(conn);
+            try (PreparedStatement pstmt = conn.prepareStatement(minorColumns ? minorSql : sql)) {
+                if (order.getUserAccount() != null) {
+                    pstmt.setString(1, order.getUserAccount().getUserId());
+                } else {
+                    pstmt.setNull(1, Types.VARCHAR);
+                }
+                pstmt.setString(2, order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setString(3, order.getOrderStatus().name());
+                int next = bindAmounts(pstmt, 4, order, minorColumns);
+                pstmt.setString(next, order.getOrderId());
+                if (pstmt.executeUpdate() == 0) {
+                    return;
+                }
+            }
+            rollups.apply(conn, order.getOrderId(), before, rollups.read(conn, order.getOrderId()));
+        });
+    }
 
-            if (order.getUserAccount() != null) {
-                pstmt.setString(1, order.getUserAccount().getUserId());
-            } else {
-                pstmt.setNull(1, Types.VARCHAR);
+    /**
+     * Binds the four amounts to the REAL columns from {@code index} on and,
+     * when {@code minorColumns}, to the minor-unit columns after them.
+     *
+     * @return the index of the next parameter
+     */
+    private static int bindAmounts(PreparedStatement pstmt, int index, OrderEntity order, boolean minorColumns) throws SQLException {
+        long[] amounts = {
+            order.getTotalProductPriceExclVATMinor(), order.getTotalProductPriceInclVATMinor(),
+            order.getCalculatedDeliveryFeeMinor(), order.getTotalAmountPaidMinor()
+        };
+        for (long amount : amounts) {
+            pstmt.setDouble(index++, Money.toDouble(amount));
+        }
+        if (minorColumns) {
+            for (long amount : amounts) {
+                pstmt.setLong(index++, amount);
             }
-            pstmt.setString(2, order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setString(3, order.getOrderStatus().name());
-            pstmt.setFloat(4, order.getTotalProductPriceExclVAT());
-            pstmt.setFloat(5, order.getTotalProductPriceInclVAT());
-            pstmt.setFloat(6, order.getCalculatedDeliveryFee());
-            pstmt.setFloat(7, order.getTotalAmountPaid());
-            pstmt.setString(8, order.getOrderId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            SQLiteConnector.printSQLException(e);
-            throw e;
         }
+        return index;
     }
 
     @Override
     public void updateStatus(String orderId, OrderStatus newStatus) throws SQLException {
         String sql = "UPDATE ORDER_ENTITY SET order_status = ? WHERE orderID = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, newStatus.name());
-            pstmt.setString(2, orderId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            SQLiteConnector.printSQLException(e);
-            throw e;
-        }
+        writeWithRollups(conn -> {
+            ReportRollups.OrderFacts before = rollups.read(conn, orderId);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, newStatus.name());
+                pstmt.setString(2, orderId);
+                if (pstmt.executeUpdate() == 0) {
+                    return;
+                }
+            }
+            rollups.apply(conn, orderId, before, before == null ? null : before.withStatus(newStatus));
+        });
     }
 
     @Override
@@ -426,13 +502,49 @@ public class OrderEntityDAOImpl implements IOrderEntityDAO {
         // PaymentTransaction has ON DELETE RESTRICT for orderID, so an order with transactions cannot be deleted easily.
         // This needs careful consideration in the service layer. This DAO just attempts to delete the order.
         String sql = "DELETE FROM ORDER_ENTITY WHERE orderID = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, orderId);
-            pstmt.executeUpdate();
+        writeWithRollups(conn -> {
+            // Taken out of the rollups first, while its items are still there
+            rollups.apply(conn, orderId, rollups.read(conn, orderId), null);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, orderId);
+                pstmt.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Runs an order write and its reporting rollup changes in one transaction.
+     */
+    private void writeWithRollups(OrderWrite write) throws SQLException {
+        Connection conn = getConnection();
+        boolean previousAutoCommit = conn.getAutoCommit();
+        if (!previousAutoCommit) {
+            // Part of the caller's transaction, which commits or rolls back both
+            write.run(conn);
+            return;
+        }
+        try {
+            conn.setAutoCommit(false);
+            write.run(conn);
+            conn.commit();
         } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                SQLiteConnector.printSQLException(ex);
+            }
             SQLiteConnector.printSQLException(e);
             throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(previousAutoCommit);
+            } catch (SQLException ex) {
+                SQLiteConnector.printSQLException(ex);
+            }
         }
     }
-}
\ No newline at end of file
+
+    private interface OrderWrite {
+        void run(Connection conn) throws SQLException;
+    }
+}
@@ -6,11 +6,15 @@ import com.aims.core.entities.Product;
 import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.dao.IOrderItemDAO;
 import com.aims.core.infrastructure.database.dao.IProductDAO; // To fetch Product details
+import com.aims.core.shared.utils.Money;
 // Assuming IOrderEntityDAO exists if we need to fetch OrderEntity details, but often not needed for OrderItem mapping
 // import com.aims.infrastructure.database.dao.IOrderEntityDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -21,6 +25,8 @@ import java.util.List;
 @Repository
 public class OrderItemDAOImpl implements IOrderItemDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderItemDAOImpl.class);
+
     private final IProductDAO productDAO; // Used to reconstruct Product objects
 
     // Constructor to inject dependencies
@@ -38,14 +44,14 @@ public class OrderItemDAOImpl implements IOrderItemDAO {
         // Read all fields from the ResultSet first before any external DAO calls
         String productId = rs.getString("productID");
         int quantity = rs.getInt("quantity");
-        float priceAtTimeOfOrder = rs.getFloat("priceAtTimeOfOrder");
+        long priceAtTimeOfOrder = MinorUnitColumns.read(rs, "priceAtTimeOfOrderMinor", "priceAtTimeOfOrder");
         boolean isEligibleForRushDelivery = rs.getInt("isEligibleForRushDelivery") == 1;
 
         // Now fetch the Product, which is an external call
         Product product = productDAO.getById(productId); 
 
         if (product == null) {
-            System.err.println("Warning: Product with ID " + productId + " not found for order item in order " + (order != null ? order.getOrderId() : "UNKNOWN_ORDER"));
+            logger.warn("Product with ID {} not found for order item in order {}", productId, order != null ? order.getOrderId() : "UNKNOWN_ORDER");
             return null; 
         }
 
@@ -53,7 +59,7 @@ public class OrderItemDAOImpl implements IOrderItemDAO {
         item.setOrderEntity(order); 
         item.setProduct(product);
         item.setQuantity(quantity);
-        item.setPriceAtTimeOfOrder(priceAtTimeOfOrder);
+        item.setPriceAtTimeOfOrderMinor(priceAtTimeOfOrder);
         item.setEligibleForRushDelivery(isEligibleForRushDelivery);
         return item;
     }
@@ -64,16 +70,23 @@ public class OrderItemDAOImpl implements IOrderItemDAO {
         // It's generally assumed an OrderItem is unique per orderId and productId.
         // If an attempt is made to add an existing combination, it might violate a PK constraint.
         // The service layer should typically ensure items are correctly added (e.g., new item or update quantity).
-        String sql = "INSERT INTO ORDER_ITEM (orderID, productID, quantity, priceAtTimeOfOrder, isEligibleForRushDelivery) " +
-                     "VALUES (?, ?, ?, ?, ?)";
+        boolean minorColumns = MinorUnitColumns.exist(getConnection());
+        String sql = minorColumns
+            ? "INSERT INTO ORDER_ITEM (orderID, productID, quantity, priceAtTimeOfOrder, isEligibleForRushDelivery, priceAtTimeOfOrderMinor) " +
+              "VALUES (?, ?, ?, ?, ?, ?)"
+            : "INSERT INTO ORDER_ITEM (orderID, productID, quantity, priceAtTimeOfOrder, isEligibleForRushDelivery) " +
+              "VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, orderItem.getOrderEntity().getOrderId()); // Changed from getOrder to getOrderEntity
             pstmt.setString(2, orderItem.getProduct().getProductId());
             pstmt.setInt(3, orderItem.getQuantity());
-            pstmt.setFloat(4, orderItem.getPriceAtTimeOfOrder());
+            pstmt.setDouble(4, Money.toDouble(orderItem.getPriceAtTimeOfOrderMinor()));
             pstmt.setInt(5, orderItem.isEligibleForRushDelivery() ? 1 : 0);
+            if (minorColumns) {
+                pstmt.setLong(6, orderItem.getPriceAtTimeOfOrderMinor());
+            }
             pstmt.executeUpdate();
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
@@ -85,15 +98,21 @@ public class OrderItemDAOImpl implements IOrderItemDAO {
     public void update(OrderItem orderItem) throws SQLException {
         // Typically, only quantity might be updated for an order item post-creation,
         // priceAtTimeOfOrder should remain fixed. Rush eligibility might change in some scenarios.
-        String sql = "UPDATE ORDER_ITEM SET quantity = ?, priceAtTimeOfOrder = ?, isEligibleForRushDelivery = ? " +
-                     "WHERE orderID = ? AND productID = ?";
+        boolean minorColumns = MinorUnitColumns.exist(getConnection());
+        String sql = "UPDATE ORDER_ITEM SET quantity = ?, priceAtTimeOfOrder = ?, isEligibleForRushDelivery = ?" +
+                     (minorColumns ? ", priceAtTimeOfOrderMinor = ?" : "") +
+                     " WHERE orderID = ? AND productID = ?";
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, orderItem.getQuantity());
-            pstmt.setFloat(2, orderItem.getPriceAtTimeOfOrder());
-            pstmt.setInt(3, orderItem.isEligibleForRushDelivery() ? 1 : 0);
-            pstmt.setString(4, orderItem.getOrderEntity().getOrderId()); // Changed from getOrder to getOrderEntity
-            pstmt.setString(5, orderItem.getProduct().getProductId());
+            int index = 1;
+            pstmt.setInt(index++, orderItem.getQuantity());
+            pstmt.setDouble(index++, Money.toDouble(orderItem.getPriceAtTimeOfOrderMinor()));
+            pstmt.setInt(index++, orderItem.isEligibleForRushDelivery() ? 1 : 0);
+            if (minorColumns) {
+                pstmt.setLong(index++, orderItem.getPriceAtTimeOfOrderMinor());
+            }
+            pstmt.setString(index++, orderItem.getOrderEntity().getOrderId()); // Changed from getOrder to getOrderEntity
+            pstmt.setString(index, orderItem.getProduct().getProductId());
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -220,4 +239,35 @@ public class OrderItemDAOImpl implements IOrderItemDAO {
         }
         return items;
     }
+
+    @Override
+    public List<OrderItem> getItemsByOrderId(String orderId, boolean includeArchived) throws SQLException {
+        List<OrderItem> items = getItemsByOrderId(orderId);
+        if (!includeArchived || !items.isEmpty()) {
+            return items;
+        }
+        OrderEntity order = new OrderEntity();
+        order.setOrderId(orderId);
+        for (Path file : OrderArchives.files(getConnection())) {
+            try (Connection archive = OrderArchives.open(file);
+                 PreparedStatement pstmt = archive.prepareStatement("SELECT * FROM ORDER_ITEM WHERE orderID = ?")) {
+                pstmt.setString(1, orderId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        OrderItem item = mapResultSetToOrderItem(rs, order);
+                        if (item != null) {
+                            items.add(item);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            }
+            if (!items.isEmpty()) {
+                break; // An order is archived in the file of its year only
+            }
+        }
+        return items;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.entities.Invoice;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.dto.PaymentSettlement;
+import com.aims.core.shared.dto.SettlementResult;
+import com.aims.core.shared.events.ProductChangeBus;
+import com.aims.core.shared.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a payment result (transaction record, stock, invoice, order status
+ * and its reporting rollups) in one database transaction, so a paid order
+ * costs one commit instead of one per write.
+ */
+@Repository
+public class PaymentSettlementDAOImpl implements IPaymentSettlementDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementDAOImpl.class);
+
+    // Appended to PaymentTransactionDAOImpl.insertSql
+    private static final String UPSERT_TRANSACTION_CONFLICT_SQL =
+        " ON CONFLICT(transactionID) DO UPDATE SET transaction_status = excluded.transaction_status, " +
+        "externalTransactionID = excluded.externalTransactionID, transactionContent = excluded.transactionContent, " +
+        "gatewayResponseData = COALESCE(excluded.gatewayResponseData, gatewayResponseData)";
+    private static final String CLAIM_ORDER_SQL =
+        "UPDATE ORDER_ENTITY SET order_status = ? WHERE orderID = ? AND order_status = '" + OrderStatus.PENDING_PAYMENT.name() + "'";
+    // The order was claimed in this transaction, so an existing invoice can only come from an earlier attempt
+    private static final String INSERT_INVOICE_SQL =
+        "INSERT INTO INVOICE (invoiceID, orderID, invoiceDate, invoicedTotalAmount) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT(orderID) DO NOTHING";
+
+    private final ProductChangeBus changeBus = ProductChangeBus.getInstance();
+    private final ReportRollups rollups = new ReportRollups();
+    private volatile Boolean versionColumnExists;
+
+    @Override
+    public SettlementResult settle(PaymentSettlement settlement) throws SQLException {
+        if (settlement == null || settlement.orderId() == null || settlement.orderStatus() == null) {
+            throw new SQLException("Payment settlement requires an order ID and a target order status");
+        }
+        if (settlement.transaction() != null) {
+            PaymentTransactionDAOImpl.validateTransaction(settlement.transaction());
+        }
+
+        // The money path: a transaction on the shared connection would pick up statements other
+        // threads run on it meanwhile, and an INSUFFICIENT_STOCK rollback would undo them
+        Connection conn = SQLiteConnector.getInstance().getDedicatedConnection("payment-settlement");
+        Map<String, long[]> stockAfter = new LinkedHashMap<>();
+        SettlementResult result;
+        synchronized (conn) {
+            if (versionColumnExists == null) {
+                versionColumnExists = ProductDAOImpl.columnExists(conn, "PRODUCT", "version");
+            }
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                result = apply(conn, settlement, stockAfter);
+                if (result.outcome() == SettlementResult.Outcome.INSUFFICIENT_STOCK) {
+                    conn.rollback();
+                } else {
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                if (SQLiteConnector.isForeignKeyViolation(e)) {
+                    PaymentTransaction transaction = settlement.transaction();
+                    throw new SQLException("Payment settlement for order " + settlement.orderId() +
+                        " refers to a missing order or payment method" +
+                        (transaction != null && transaction.getPaymentMethod() != null
+                            ? " (payment method " + transaction.getPaymentMethod().getPaymentMethodId() + ")" : ""),
+                        e.getSQLState(), e.getErrorCode(), e);
+                }
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+            }
+        }
+
+        if (result.outcome() == SettlementResult.Outcome.INSUFFICIENT_STOCK) {
+            logger.warn("Settlement of order {} rolled back: product {} is short of stock", settlement.orderId(), result.productId());
+            return result;
+        }
+        // Published only after the commit, like the other stock writers
+        for (Map.Entry<String, long[]> entry : stockAfter.entrySet()) {
+            long[] stock = entry.getValue();
+            changeBus.publishStockChange(entry.getKey(), (int) stock[0], stock[1] < 0 ? null : stock[1]);
+        }
+        logger.debug("Settled order {}: {} ({} products)", settlement.orderId(), result.outcome(), stockAfter.size());
+        return result;
+    }
+
+    private SettlementResult apply(Connection conn, PaymentSettlement settlement, Map<String, long[]> stockAfter)
+            throws SQLException {
+        if (settlement.transaction() != null) {
+            boolean minorColumns = MinorUnitColumns.exist(conn);
+            String sql = PaymentTransactionDAOImpl.insertSql(minorColumns) + UPSERT_TRANSACTION_CONFLICT_SQL;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                PaymentTransactionDAOImpl.bindInsert(pstmt, settlement.transaction(), minorColumns);
+                pstmt.executeUpdate();
+            }
+        }
+
+        ReportRollups.OrderFacts before = rollups.read(conn, settlement.orderId());
+        boolean claimed;
+        try (PreparedStatement pstmt = conn.prepareStatement(CLAIM_ORDER_SQL)) {
+            pstmt.setString(1, settlement.orderStatus().name());
+            pstmt.setString(2, settlement.orderId());
+            claimed = pstmt.executeUpdate() > 0;
+        }
+        if (!claimed) {
+            if (before == null) {
+                throw new SQLException("Payment settlement failed, no order found for ID: " + settlement.orderId());
+            }
+            // The order has moved on (paid, shipped, cancelled, failed): a late or second result
+            // is recorded with its transaction but never moves the order back
+            return new SettlementResult(SettlementResult.Outcome.ALREADY_SETTLED, null, before.status());
+        }
+
+        String shortProductId = decrementStock(conn, settlement.stockDecrements(), stockAfter);
+        if (shortProductId != null) {
+            return new SettlementResult(SettlementResult.Outcome.INSUFFICIENT_STOCK, shortProductId);
+        }
+
+        rollups.apply(conn, settlement.orderId(), before, before == null ? null : before.withStatus(settlement.orderStatus()));
+
+        Invoice invoice = settlement.invoice();
+        if (invoice != null) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_INVOICE_SQL)) {
+                pstmt.setString(1, invoice.getInvoiceId());
+                pstmt.setString(2, settlement.orderId());
+                pstmt.setString(3, invoice.getInvoiceDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                pstmt.setDouble(4, Money.toColumn(invoice.getInvoicedTotalAmount()));
+                pstmt.executeUpdate();
+            }
+        }
+        return new SettlementResult(SettlementResult.Outcome.SETTLED, null);
+    }
+
+    /**
+     * Batched conditional decrements, then the remaining stock of each product.
+     *
+     * @return the first product that was short of stock, or null when all were applied
+     */
+    private String decrementStock(Connection conn, Map<String, Integer> decrements, Map<String, long[]> stockAfter)
+            throws SQLException {
+        if (decrements.isEmpty()) {
+            return null;
+        }
+        boolean withVersion = Boolean.TRUE.equals(versionColumnExists);
+        // Bump the version too, so read-modify-write updates elsewhere detect the change
+        String updateSql = "UPDATE PRODUCT SET quantityInStock = quantityInStock - ?" +
+                           (withVersion ? ", version = version + 1" : "") +
+                           " WHERE productID = ? AND quantityInStock >= ?";
+        List<String> productIds = new ArrayList<>(decrements.keySet());
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+            for (String productId : productIds) {
+                int quantity = decrements.get(productId);
+                pstmt.setInt(1, quantity);
+                pstmt.setString(2, productId);
+                pstmt.setInt(3, quantity);
+                pstmt.addBatch();
+            }
+            int[] counts = pstmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    return productIds.get(i);
+                }
+            }
+        }
+
+        String selectSql = "SELECT quantityInStock" + (withVersion ? ", version" : "") + " FROM PRODUCT WHERE productID = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSql)) {
+            for (String productId : productIds) {
+                pstmt.setString(1, productId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        stockAfter.put(productId, new long[] { rs.getInt(1), withVersion ? rs.getLong(2) : -1 });
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
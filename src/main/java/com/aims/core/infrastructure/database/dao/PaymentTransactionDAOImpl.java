@@ -3,11 +3,14 @@ package com.aims.core.infrastructure.database.dao;
 import com.aims.core.entities.OrderEntity;
 import com.aims.core.entities.PaymentMethod;
 import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
 import com.aims.core.enums.TransactionType;
 import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.dao.IPaymentTransactionDAO;
 import com.aims.core.infrastructure.database.dao.IOrderEntityDAO; // To fetch OrderEntity details
 import com.aims.core.infrastructure.database.dao.IPaymentMethodDAO; // To fetch PaymentMethod details
+import com.aims.core.shared.dto.PaymentStatusUpdate;
+import com.aims.core.shared.utils.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
@@ -20,8 +23,13 @@ import java.util.List;
 @Repository
 public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
 
+    // Statuses of payments still waiting for a gateway result; the partial index below covers exactly these rows
+    private static final String PENDING_PAYMENT_FILTER =
+        "transactionType = 'PAYMENT' AND transaction_status IN ('PENDING', 'PENDING_GATEWAY', 'PENDING_USER_ACTION')";
+
     private final IOrderEntityDAO orderEntityDAO; // For reconstructing OrderEntity
     private final IPaymentMethodDAO paymentMethodDAO; // For reconstructing PaymentMethod
+    private volatile boolean pendingIndexEnsured;
 
     // Helper class to store raw transaction data
     private static class RawTransactionData {
@@ -32,7 +40,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
         String externalTransactionId;
         String transactionStatus;
         String dateTimeStr;
-        float amount;
+        long amount;
         String transactionContent;
         String gatewayResponseData;
     }
@@ -49,52 +57,62 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
 
     @Override
     public void add(PaymentTransaction transaction) throws SQLException {
-        // CRITICAL: Add pre-validation before database insertion
-        validateTransactionIntegrity(transaction);
+        // Foreign keys are enforced, so a missing order or payment method is
+        // reported by the INSERT itself and mapped below instead of pre-queried
+        validateTransaction(transaction);
         
-        String sql = "INSERT INTO PAYMENT_TRANSACTION (transactionID, orderID, paymentMethodID, transactionType, " +
-                     "externalTransactionID, transaction_status, transactionDateTime, amount, transactionContent, gatewayResponseData) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        boolean minorColumns = MinorUnitColumns.exist(getConnection());
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, transaction.getTransactionId());
-            pstmt.setString(2, transaction.getOrder().getOrderId());
-
-            if (transaction.getPaymentMethod() != null) {
-                pstmt.setString(3, transaction.getPaymentMethod().getPaymentMethodId());
-            } else {
-                pstmt.setNull(3, Types.VARCHAR); // Payment method might be null if transaction failed early
-            }
+             PreparedStatement pstmt = conn.prepareStatement(insertSql(minorColumns))) {
 
-            pstmt.setString(4, transaction.getTransactionType().name());
-            pstmt.setString(5, transaction.getExternalTransactionId());
-            pstmt.setString(6, transaction.getTransactionStatus());
-            pstmt.setString(7, transaction.getTransactionDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            pstmt.setFloat(8, transaction.getAmount());
-            pstmt.setString(9, transaction.getTransactionContent());
-            pstmt.setString(10, transaction.getGatewayResponseData());
+            bindInsert(pstmt, transaction, minorColumns);
             pstmt.executeUpdate();
             
         } catch (SQLException e) {
-            // Enhanced error handling for foreign key constraint violations
-            if (e.getErrorCode() == 19) { // SQLite constraint error
-                if (e.getMessage().contains("FOREIGN KEY constraint failed")) {
-                    handleForeignKeyConstraintError(transaction, e);
-                } else if (e.getMessage().contains("UNIQUE constraint failed")) {
-                    throw new SQLException("Payment transaction with ID " + transaction.getTransactionId() + 
-                                         " already exists. Cannot create duplicate transaction.", e);
-                }
-            }
-            SQLiteConnector.printSQLException(e);
-            throw e;
+            throw mapInsertError(transaction, e);
+        }
+    }
+
+    /**
+     * The INSERT of a transaction row, with the amount in minor units as well
+     * when {@code minorColumns}. Shared with the settlement DAO, which writes
+     * the same row inside its own transaction.
+     */
+    static String insertSql(boolean minorColumns) {
+        return "INSERT INTO PAYMENT_TRANSACTION (transactionID, orderID, paymentMethodID, transactionType, " +
+               "externalTransactionID, transaction_status, transactionDateTime, amount, transactionContent, gatewayResponseData" +
+               (minorColumns ? ", amountMinor) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" : ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    /**
+     * Binds the columns of {@link #insertSql(boolean)} in order.
+     */
+    static void bindInsert(PreparedStatement pstmt, PaymentTransaction transaction, boolean minorColumns) throws SQLException {
+        pstmt.setString(1, transaction.getTransactionId());
+        pstmt.setString(2, transaction.getOrder().getOrderId());
+
+        if (transaction.getPaymentMethod() != null) {
+            pstmt.setString(3, transaction.getPaymentMethod().getPaymentMethodId());
+        } else {
+            pstmt.setNull(3, Types.VARCHAR); // Payment method might be null if transaction failed early
+        }
+
+        pstmt.setString(4, transaction.getTransactionType().name());
+        pstmt.setString(5, transaction.getExternalTransactionId());
+        pstmt.setString(6, transaction.getTransactionStatus());
+        pstmt.setString(7, transaction.getTransactionDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        pstmt.setDouble(8, Money.toDouble(transaction.getAmountMinor()));
+        pstmt.setString(9, transaction.getTransactionContent());
+        pstmt.setString(10, transaction.getGatewayResponseData());
+        if (minorColumns) {
+            pstmt.setLong(11, transaction.getAmountMinor());
         }
     }
 
     /**
-     * Validate transaction integrity before database insertion
+     * Validate the fields the INSERT needs; no database access
      */
-    private void validateTransactionIntegrity(PaymentTransaction transaction) throws SQLException {
+    static void validateTransaction(PaymentTransaction transaction) throws SQLException {
         if (transaction == null) {
             throw new SQLException("Payment transaction cannot be null");
         }
@@ -106,45 +124,27 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
         if (transaction.getOrder() == null || transaction.getOrder().getOrderId() == null) {
             throw new SQLException("Payment transaction must be associated with a valid order");
         }
-        
-        // CRITICAL: Verify order exists in database before creating payment transaction
-        String orderValidationSql = "SELECT COUNT(*) FROM ORDER_ENTITY WHERE orderID = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(orderValidationSql)) {
-            
-            pstmt.setString(1, transaction.getOrder().getOrderId());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next() && rs.getInt(1) == 0) {
-                    throw new SQLException("Order " + transaction.getOrder().getOrderId() + 
-                                         " does not exist in ORDER_ENTITY table. Cannot create payment transaction.");
-                }
-            }
+    }
+
+    /**
+     * Maps constraint errors of the INSERT to a descriptive exception
+     */
+    private SQLException mapInsertError(PaymentTransaction transaction, SQLException e) {
+        SQLiteConnector.printSQLException(e);
+        if (SQLiteConnector.isForeignKeyViolation(e)) {
+            return foreignKeyConstraintError(transaction, e);
         }
-        
-        // Validate payment method if provided
-        if (transaction.getPaymentMethod() != null && 
-            transaction.getPaymentMethod().getPaymentMethodId() != null &&
-            !transaction.getPaymentMethod().getPaymentMethodId().startsWith("VNPAY_TEMP_")) {
-            
-            String pmValidationSql = "SELECT COUNT(*) FROM PAYMENT_METHOD WHERE paymentMethodID = ?";
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(pmValidationSql)) {
-                
-                pstmt.setString(1, transaction.getPaymentMethod().getPaymentMethodId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    if (rs.next() && rs.getInt(1) == 0) {
-                        throw new SQLException("Payment method " + transaction.getPaymentMethod().getPaymentMethodId() + 
-                                             " does not exist in PAYMENT_METHOD table.");
-                    }
-                }
-            }
+        if (e.getErrorCode() == 19 && e.getMessage() != null && e.getMessage().contains("UNIQUE constraint failed")) {
+            return new SQLException("Payment transaction with ID " + transaction.getTransactionId() + 
+                                   " already exists. Cannot create duplicate transaction.", e);
         }
+        return e;
     }
 
     /**
-     * Handle foreign key constraint errors with detailed diagnostics
+     * Foreign key violation with diagnostics; only runs once the INSERT has already failed
      */
-    private void handleForeignKeyConstraintError(PaymentTransaction transaction, SQLException originalException) throws SQLException {
+    private SQLException foreignKeyConstraintError(PaymentTransaction transaction, SQLException originalException) {
         StringBuilder diagnosticMessage = new StringBuilder();
         diagnosticMessage.append("Foreign Key Constraint Violation in Payment Transaction Creation:\n");
         
@@ -199,7 +199,8 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
         
         diagnosticMessage.append("Original Error: ").append(originalException.getMessage());
         
-        throw new SQLException(diagnosticMessage.toString(), originalException);
+        return new SQLException(diagnosticMessage.toString(), originalException.getSQLState(),
+                                originalException.getErrorCode(), originalException);
     }
 
     @Override
@@ -224,7 +225,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
                 transaction.setTransactionType(TransactionType.valueOf(rs.getString("transactionType")));
                 transaction.setExternalTransactionId(rs.getString("externalTransactionID"));
                 transaction.setTransactionStatus(rs.getString("transaction_status"));
-                transaction.setAmount(rs.getFloat("amount"));
+                transaction.setAmountMinor(MinorUnitColumns.read(rs, "amountMinor", "amount"));
                 transaction.setTransactionContent(rs.getString("transactionContent"));
                 transaction.setGatewayResponseData(rs.getString("gatewayResponseData"));
                 
@@ -274,7 +275,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
                 rawData.externalTransactionId = rs.getString("externalTransactionID");
                 rawData.transactionStatus = rs.getString("transaction_status");
                 rawData.dateTimeStr = rs.getString("transactionDateTime");
-                rawData.amount = rs.getFloat("amount");
+                rawData.amount = MinorUnitColumns.read(rs, "amountMinor", "amount");
                 rawData.transactionContent = rs.getString("transactionContent");
                 rawData.gatewayResponseData = rs.getString("gatewayResponseData");
                 rawDataList.add(rawData);
@@ -291,7 +292,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
             transaction.setTransactionType(TransactionType.valueOf(rawData.transactionType));
             transaction.setExternalTransactionId(rawData.externalTransactionId);
             transaction.setTransactionStatus(rawData.transactionStatus);
-            transaction.setAmount(rawData.amount);
+            transaction.setAmountMinor(rawData.amount);
             transaction.setTransactionContent(rawData.transactionContent);
             transaction.setGatewayResponseData(rawData.gatewayResponseData);
             
@@ -334,7 +335,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
                 rawData.externalTransactionId = rs.getString("externalTransactionID");
                 rawData.transactionStatus = rs.getString("transaction_status");
                 rawData.dateTimeStr = rs.getString("transactionDateTime");
-                rawData.amount = rs.getFloat("amount");
+                rawData.amount = MinorUnitColumns.read(rs, "amountMinor", "amount");
                 rawData.transactionContent = rs.getString("transactionContent");
                 rawData.gatewayResponseData = rs.getString("gatewayResponseData");
                 rawDataList.add(rawData);
@@ -351,7 +352,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
             transaction.setTransactionType(TransactionType.valueOf(rawData.transactionType));
             transaction.setExternalTransactionId(rawData.externalTransactionId);
             transaction.setTransactionStatus(rawData.transactionStatus);
-            transaction.setAmount(rawData.amount);
+            transaction.setAmountMinor(rawData.amount);
             transaction.setTransactionContent(rawData.transactionContent);
             
             if (rawData.dateTimeStr != null) {
@@ -394,7 +395,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
                 rawData.externalTransactionId = rs.getString("externalTransactionID");
                 rawData.transactionStatus = rs.getString("transaction_status");
                 rawData.dateTimeStr = rs.getString("transactionDateTime");
-                rawData.amount = rs.getFloat("amount");
+                rawData.amount = MinorUnitColumns.read(rs, "amountMinor", "amount");
                 rawData.transactionContent = rs.getString("transactionContent");
                 rawDataList.add(rawData);
             }
@@ -410,7 +411,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
             transaction.setTransactionType(TransactionType.valueOf(rawData.transactionType));
             transaction.setExternalTransactionId(rawData.externalTransactionId);
             transaction.setTransactionStatus(rawData.transactionStatus);
-            transaction.setAmount(rawData.amount);
+            transaction.setAmountMinor(rawData.amount);
             transaction.setTransactionContent(rawData.transactionContent);
             
             if (rawData.dateTimeStr != null) {
@@ -455,7 +456,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
                 rawData.externalTransactionId = rs.getString("externalTransactionID");
                 rawData.transactionStatus = rs.getString("transaction_status");
                 rawData.dateTimeStr = rs.getString("transactionDateTime");
-                rawData.amount = rs.getFloat("amount");
+                rawData.amount = MinorUnitColumns.read(rs, "amountMinor", "amount");
                 rawData.transactionContent = rs.getString("transactionContent");
                 rawDataList.add(rawData);
             }
@@ -471,7 +472,7 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
             transaction.setTransactionType(TransactionType.valueOf(rawData.transactionType));
             transaction.setExternalTransactionId(rawData.externalTransactionId);
             transaction.setTransactionStatus(rawData.transactionStatus);
-            transaction.setAmount(rawData.amount);
+            transaction.setAmountMinor(rawData.amount);
             transaction.setTransactionContent(rawData.transactionContent);
             
             if (rawData.dateTimeStr != null) {
@@ -534,4 +535,136 @@ public class PaymentTransactionDAOImpl implements IPaymentTransactionDAO {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public int updateStatusAndGatewayData(List<PaymentStatusUpdate> updates) throws SQLException {
+        if (updates == null || updates.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE PAYMENT_TRANSACTION SET transaction_status = ?, " +
+                     "externalTransactionID = COALESCE(?, externalTransactionID), gatewayResponseData = ? " +
+                     "WHERE transactionID = ?";
+        // Its own connection: the batch is one transaction, which on the shared connection
+        // would pick up statements other threads run on it meanwhile
+        Connection conn = SQLiteConnector.getInstance().getDedicatedConnection("payment-status-writer");
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                int updated = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (PaymentStatusUpdate update : updates) {
+                        pstmt.setString(1, update.status());
+                        pstmt.setString(2, update.externalTransactionId());
+                        pstmt.setString(3, update.gatewayResponseData());
+                        pstmt.setString(4, update.transactionId());
+                        pstmt.addBatch();
+                    }
+                    for (int count : pstmt.executeBatch()) {
+                        updated += Math.max(count, 0);
+                    }
+                }
+                conn.commit();
+                return updated;
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<PaymentTransaction> getStalePendingPayments(LocalDateTime createdBefore, String afterTransactionId, int limit)
+            throws SQLException {
+        Connection conn = getConnection();
+        String sql = "SELECT t.*, o.order_status, o.totalAmountPaid" +
+                     (MinorUnitColumns.exist(conn) ? ", o.totalAmountPaidMinor" : "") + " FROM PAYMENT_TRANSACTION t " +
+                     "JOIN ORDER_ENTITY o ON o.orderID = t.orderID " +
+                     "WHERE " + PENDING_PAYMENT_FILTER + " AND t.transactionID > ? AND t.transactionDateTime < ? " +
+                     "ORDER BY t.transactionID LIMIT ?";
+        ensurePendingIndex(conn);
+        List<PaymentTransaction> transactions = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, afterTransactionId != null ? afterTransactionId : "");
+            pstmt.setString(2, createdBefore.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    PaymentTransaction transaction = new PaymentTransaction();
+                    transaction.setTransactionId(rs.getString("transactionID"));
+                    transaction.setTransactionType(TransactionType.valueOf(rs.getString("transactionType")));
+                    transaction.setExternalTransactionId(rs.getString("externalTransactionID"));
+                    transaction.setTransactionStatus(rs.getString("transaction_status"));
+                    transaction.setTransactionDateTime(LocalDateTime.parse(rs.getString("transactionDateTime"), DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                    transaction.setAmountMinor(MinorUnitColumns.read(rs, "amountMinor", "amount"));
+                    transaction.setTransactionContent(rs.getString("transactionContent"));
+                    transaction.setGatewayResponseData(rs.getString("gatewayResponseData"));
+
+                    // Only what reconciliation needs, instead of an order and payment method lookup per row
+                    OrderEntity order = new OrderEntity();
+                    order.setOrderId(rs.getString("orderID"));
+                    String orderStatus = rs.getString("order_status");
+                    if (orderStatus != null) {
+                        order.setOrderStatus(OrderStatus.valueOf(orderStatus));
+                    }
+                    order.setTotalAmountPaidMinor(MinorUnitColumns.read(rs, "totalAmountPaidMinor", "totalAmountPaid"));
+                    transaction.setOrder(order);
+                    String paymentMethodId = rs.getString("paymentMethodID");
+                    if (paymentMethodId != null) {
+                        PaymentMethod method = new PaymentMethod();
+                        method.setPaymentMethodId(paymentMethodId);
+                        transaction.setPaymentMethod(method);
+                    }
+                    transactions.add(transaction);
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return transactions;
+    }
+
+    @Override
+    public int countStalePendingPayments(LocalDateTime createdBefore) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM PAYMENT_TRANSACTION t WHERE " + PENDING_PAYMENT_FILTER +
+                     " AND t.transactionDateTime < ?";
+        Connection conn = getConnection();
+        ensurePendingIndex(conn);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, createdBefore.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+
+    // Partial index holding only pending payments, so scans and counts stay small however many settled rows there are
+    private void ensurePendingIndex(Connection conn) {
+        if (pendingIndexEnsured) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payment_transaction_pending ON PAYMENT_TRANSACTION(transactionID) " +
+                         "WHERE " + PENDING_PAYMENT_FILTER);
+            pendingIndexEnsured = true;
+        } catch (SQLException e) {
+            // Queries still work without the index, just slower
+            SQLiteConnector.printSQLException(e);
+        }
+    }
+}
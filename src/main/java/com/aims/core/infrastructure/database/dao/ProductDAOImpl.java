@@ -8,24 +8,70 @@ import com.aims.core.entities.LP;
 import com.aims.core.enums.ProductType;
 import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.utils.DatabaseSchemaValidator;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.ProductStockSnapshot;
+import com.aims.core.shared.events.ProductChangeBus;
+import com.aims.core.shared.utils.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 public class ProductDAOImpl implements IProductDAO {
     
+    private static final Logger logger = LoggerFactory.getLogger(ProductDAOImpl.class);
+    
     // CRITICAL FIX: Cache table existence at class level to prevent repeated checks
     private static volatile boolean tableExistenceInitialized = false;
     private static boolean bookTableExists = false;
     private static boolean cdTableExists = false;
     private static boolean dvdTableExists = false;
     private static boolean lpTableExists = false;
+    private static boolean versionColumnExists = false;
+    // Search statements for the tables above, built once per search shape
+    private static ProductSearchSql searchSql;
     private static final Object initializationLock = new Object();
 
+    // SQLite's default SQLITE_MAX_VARIABLE_NUMBER is 999 on older builds
+    private static final int MAX_IN_CLAUSE_PARAMS = 500;
+
+    // Successful writes are published here for the product change feed
+    private final ProductChangeBus changeBus = ProductChangeBus.getInstance();
+
+    /**
+     * Publishes once the write is committed. A write made inside a caller's
+     * transaction is published when that transaction commits and never if it
+     * rolls back, so subscribers don't cache or stream undone changes.
+     */
+    private static void publishAfterCommit(Connection conn, Runnable publish) throws SQLException {
+        SQLiteConnector.getInstance().runAfterCommit(conn, publish);
+    }
+
+    /**
+     * Connection for the bulk writes that run a transaction of their own: on
+     * the shared connection it would pick up statements other threads run on
+     * it meanwhile, and a rollback would undo them. Callers hold its lock for
+     * the transaction and publish their events after the commit.
+     */
+    private Connection getWriterConnection() throws SQLException {
+        // Fills the table existence flags the writes depend on
+        getConnection();
+        return SQLiteConnector.getInstance().getDedicatedConnection("product-writer");
+    }
+
     private Connection getConnection() throws SQLException {
         // Ensure foreign key enforcement is on for each connection if not globally set
         Connection conn = SQLiteConnector.getInstance().getConnection();
@@ -47,11 +93,27 @@ public class ProductDAOImpl implements IProductDAO {
                     cdTableExists = DatabaseSchemaValidator.checkTableExists(conn, "CD");
                     dvdTableExists = DatabaseSchemaValidator.checkTableExists(conn, "DVD");
                     lpTableExists = DatabaseSchemaValidator.checkTableExists(conn, "LP");
+                    versionColumnExists = columnExists(conn, "PRODUCT", "version");
+                    searchSql = new ProductSearchSql(bookTableExists, cdTableExists, dvdTableExists, lpTableExists);
                     tableExistenceInitialized = true;
-                    System.out.println("ProductDAOImpl: Table existence cache initialized");
+                    logger.info("Table existence cache initialized");
+                }
+            }
+        }
+    }
+
+    static boolean columnExists(Connection conn, String table, String column) {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
                 }
             }
+        } catch (SQLException e) {
+            logger.warn("Could not inspect columns of {}: {}", table, e.getMessage());
         }
+        return false;
     }
 
     // Helper method to map ResultSet to base Product
@@ -262,24 +324,140 @@ public class ProductDAOImpl implements IProductDAO {
         return products;
     }
 
+    @Override
+    public List<Product> getByIds(Collection<String> productIds) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return products;
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Connection conn = getConnection();
+        // Chunk to stay below SQLite's bound-parameter limit
+        for (int from = 0; from < ids.size(); from += MAX_IN_CLAUSE_PARAMS) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_IN_CLAUSE_PARAMS, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT * FROM PRODUCT WHERE productID IN (" + placeholders + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        products.add(mapBaseProduct(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public Map<String, ProductStockSnapshot> getStockSnapshots(Collection<String> productIds) throws SQLException {
+        Map<String, ProductStockSnapshot> snapshots = new HashMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return snapshots;
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        String columns = "productID, title, quantityInStock, price" + (versionColumnExists ? ", version" : "");
+        Connection conn = getConnection();
+        for (int from = 0; from < ids.size(); from += MAX_IN_CLAUSE_PARAMS) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_IN_CLAUSE_PARAMS, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT " + columns + " FROM PRODUCT WHERE productID IN (" + placeholders + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        String productId = rs.getString("productID");
+                        snapshots.put(productId, new ProductStockSnapshot(
+                            productId,
+                            rs.getString("title"),
+                            rs.getInt("quantityInStock"),
+                            versionColumnExists ? rs.getLong("version") : null,
+                            rs.getFloat("price")));
+                    }
+                }
+            } catch (SQLException e) {
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            }
+        }
+        return snapshots;
+    }
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO PRODUCT (productID, title, category, value_amount, price, quantityInStock, description, imageURL, barcode, dimensions_cm, weight_kg, entryDate, productType) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOK_SQL = "INSERT INTO BOOK (productID, authors, coverType, publisher, publicationDate, numPages, language, book_genre) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CD_SQL = "INSERT INTO CD (productID, artists, recordLabel, tracklist, cd_genre, releaseDate) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DVD_SQL = "INSERT INTO DVD (productID, discType, director, runtime_minutes, studio, dvd_language, subtitles, dvd_releaseDate, dvd_genre) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LP_SQL = "INSERT INTO LP (productID, artists, recordLabel, tracklist, genre, releaseDate) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static void bindBaseProduct(PreparedStatement pstmt, Product product) throws SQLException {
+        pstmt.setString(1, product.getProductId());
+        pstmt.setString(2, product.getTitle());
+        pstmt.setString(3, product.getCategory());
+        pstmt.setDouble(4, Money.toColumn(product.getValueAmount()));
+        pstmt.setDouble(5, Money.toColumn(product.getPrice()));
+        pstmt.setInt(6, product.getQuantityInStock());
+        pstmt.setString(7, product.getDescription());
+        pstmt.setString(8, product.getImageUrl());
+        pstmt.setString(9, product.getBarcode());
+        pstmt.setString(10, product.getDimensionsCm());
+        pstmt.setFloat(11, product.getWeightKg());
+        pstmt.setString(12, product.getEntryDate() != null ? product.getEntryDate().toString() : null);
+        pstmt.setString(13, product.getProductType().name());
+    }
+
+    private static void bindBookDetails(PreparedStatement pstmt, Book book) throws SQLException {
+        pstmt.setString(1, book.getProductId());
+        pstmt.setString(2, book.getAuthors());
+        pstmt.setString(3, book.getCoverType());
+        pstmt.setString(4, book.getPublisher());
+        pstmt.setString(5, book.getPublicationDate() != null ? book.getPublicationDate().toString() : null);
+        pstmt.setInt(6, book.getNumPages());
+        pstmt.setString(7, book.getLanguage());
+        pstmt.setString(8, book.getBookGenre());
+    }
+
+    private static void bindCDDetails(PreparedStatement pstmt, CD cd) throws SQLException {
+        pstmt.setString(1, cd.getProductId());
+        pstmt.setString(2, cd.getArtists());
+        pstmt.setString(3, cd.getRecordLabel());
+        pstmt.setString(4, cd.getTracklist());
+        pstmt.setString(5, cd.getCdGenre());
+        pstmt.setString(6, cd.getReleaseDate() != null ? cd.getReleaseDate().toString() : null);
+    }
+
+    private static void bindDVDDetails(PreparedStatement pstmt, DVD dvd) throws SQLException {
+        pstmt.setString(1, dvd.getProductId());
+        pstmt.setString(2, dvd.getDiscType());
+        pstmt.setString(3, dvd.getDirector());
+        pstmt.setInt(4, dvd.getRuntimeMinutes());
+        pstmt.setString(5, dvd.getStudio());
+        pstmt.setString(6, dvd.getDvdLanguage());
+        pstmt.setString(7, dvd.getSubtitles());
+        pstmt.setString(8, dvd.getDvdReleaseDate() != null ? dvd.getDvdReleaseDate().toString() : null);
+        pstmt.setString(9, dvd.getDvdGenre());
+    }
+
+    private static void bindLPDetails(PreparedStatement pstmt, LP lp) throws SQLException {
+        pstmt.setString(1, lp.getProductId());
+        pstmt.setString(2, lp.getArtists());
+        pstmt.setString(3, lp.getRecordLabel());
+        pstmt.setString(4, lp.getTracklist());
+        pstmt.setString(5, lp.getGenre());
+        pstmt.setString(6, lp.getReleaseDate() != null ? lp.getReleaseDate().toString() : null);
+    }
+
     @Override
     public void addBaseProduct(Product product) throws SQLException {
-        String sql = "INSERT INTO PRODUCT (productID, title, category, value_amount, price, quantityInStock, description, imageURL, barcode, dimensions_cm, weight_kg, entryDate, productType) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, product.getProductId());
-            pstmt.setString(2, product.getTitle());
-            pstmt.setString(3, product.getCategory());
-            pstmt.setFloat(4, product.getValueAmount());
-            pstmt.setFloat(5, product.getPrice());
-            pstmt.setInt(6, product.getQuantityInStock());
-            pstmt.setString(7, product.getDescription());
-            pstmt.setString(8, product.getImageUrl());
-            pstmt.setString(9, product.getBarcode());
-            pstmt.setString(10, product.getDimensionsCm());
-            pstmt.setFloat(11, product.getWeightKg());
-            pstmt.setString(12, product.getEntryDate() != null ? product.getEntryDate().toString() : null);
-            pstmt.setString(13, product.getProductType().name());
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_PRODUCT_SQL)) {
+            bindBaseProduct(pstmt, product);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
@@ -290,17 +468,9 @@ public class ProductDAOImpl implements IProductDAO {
     @Override
     public void addBookDetails(Book book) throws SQLException {
         addBaseProduct(book); // First, add/ensure base product exists
-        String sql = "INSERT INTO BOOK (productID, authors, coverType, publisher, publicationDate, numPages, language, book_genre) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, book.getProductId());
-            pstmt.setString(2, book.getAuthors());
-            pstmt.setString(3, book.getCoverType());
-            pstmt.setString(4, book.getPublisher());
-            pstmt.setString(5, book.getPublicationDate() != null ? book.getPublicationDate().toString() : null);
-            pstmt.setInt(6, book.getNumPages());
-            pstmt.setString(7, book.getLanguage());
-            pstmt.setString(8, book.getBookGenre());
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_BOOK_SQL)) {
+            bindBookDetails(pstmt, book);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
@@ -312,14 +482,8 @@ public class ProductDAOImpl implements IProductDAO {
     @Override
     public void addCDDetails(CD cd) throws SQLException {
         addBaseProduct(cd);
-        String sql = "INSERT INTO CD (productID, artists, recordLabel, tracklist, cd_genre, releaseDate) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, cd.getProductId());
-            pstmt.setString(2, cd.getArtists());
-            pstmt.setString(3, cd.getRecordLabel());
-            pstmt.setString(4, cd.getTracklist());
-            pstmt.setString(5, cd.getCdGenre());
-            pstmt.setString(6, cd.getReleaseDate() != null ? cd.getReleaseDate().toString() : null);
+        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(INSERT_CD_SQL)) {
+            bindCDDetails(pstmt, cd);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
@@ -330,17 +494,8 @@ public class ProductDAOImpl implements IProductDAO {
     @Override
     public void addDVDDetails(DVD dvd) throws SQLException {
         addBaseProduct(dvd);
-        String sql = "INSERT INTO DVD (productID, discType, director, runtime_minutes, studio, dvd_language, subtitles, dvd_releaseDate, dvd_genre) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, dvd.getProductId());
-            pstmt.setString(2, dvd.getDiscType());
-            pstmt.setString(3, dvd.getDirector());
-            pstmt.setInt(4, dvd.getRuntimeMinutes());
-            pstmt.setString(5, dvd.getStudio());
-            pstmt.setString(6, dvd.getDvdLanguage());
-            pstmt.setString(7, dvd.getSubtitles());
-            pstmt.setString(8, dvd.getDvdReleaseDate() != null ? dvd.getDvdReleaseDate().toString() : null);
-            pstmt.setString(9, dvd.getDvdGenre());
+        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(INSERT_DVD_SQL)) {
+            bindDVDDetails(pstmt, dvd);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
@@ -351,14 +506,8 @@ public class ProductDAOImpl implements IProductDAO {
     @Override
     public void addLPDetails(LP lp) throws SQLException {
         addBaseProduct(lp);
-        String sql = "INSERT INTO LP (productID, artists, recordLabel, tracklist, genre, releaseDate) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, lp.getProductId());
-            pstmt.setString(2, lp.getArtists());
-            pstmt.setString(3, lp.getRecordLabel());
-            pstmt.setString(4, lp.getTracklist());
-            pstmt.setString(5, lp.getGenre());
-            pstmt.setString(6, lp.getReleaseDate() != null ? lp.getReleaseDate().toString() : null);
+        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(INSERT_LP_SQL)) {
+            bindLPDetails(pstmt, lp);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
@@ -366,6 +515,197 @@ public class ProductDAOImpl implements IProductDAO {
         }
     }
 
+    @Override
+    public int addProductsBatch(List<? extends Product> products) throws SQLException {
+        if (products == null || products.isEmpty()) {
+            return 0;
+        }
+        Connection conn = getWriterConnection();
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            // Subtype statements are prepared on first use so a missing subtype table
+            // only matters when the batch actually contains that type
+            Map<ProductType, PreparedStatement> detailStatements = new LinkedHashMap<>();
+            try (PreparedStatement psProduct = conn.prepareStatement(INSERT_PRODUCT_SQL)) {
+                conn.setAutoCommit(false);
+                for (Product product : products) {
+                    bindBaseProduct(psProduct, product);
+                    psProduct.addBatch();
+                }
+                // Base rows first: subtype rows reference them
+                psProduct.executeBatch();
+
+                for (Product product : products) {
+                    if (product instanceof Book book) {
+                        PreparedStatement ps = detailStatement(conn, detailStatements, ProductType.BOOK, INSERT_BOOK_SQL);
+                        bindBookDetails(ps, book);
+                        ps.addBatch();
+                    } else if (product instanceof CD cd) {
+                        PreparedStatement ps = detailStatement(conn, detailStatements, ProductType.CD, INSERT_CD_SQL);
+                        bindCDDetails(ps, cd);
+                        ps.addBatch();
+                    } else if (product instanceof DVD dvd) {
+                        PreparedStatement ps = detailStatement(conn, detailStatements, ProductType.DVD, INSERT_DVD_SQL);
+                        bindDVDDetails(ps, dvd);
+                        ps.addBatch();
+                    } else if (product instanceof LP lp) {
+                        PreparedStatement ps = detailStatement(conn, detailStatements, ProductType.LP, INSERT_LP_SQL);
+                        bindLPDetails(ps, lp);
+                        ps.addBatch();
+                    }
+                }
+                for (PreparedStatement ps : detailStatements.values()) {
+                    ps.executeBatch();
+                }
+                conn.commit();
+                for (Product product : products) {
+                    changeBus.publishCreate(product.getProductId(), product.getQuantityInStock(), product.getPrice());
+                }
+                return products.size();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                for (PreparedStatement ps : detailStatements.values()) {
+                    try {
+                        ps.close();
+                    } catch (SQLException ex) {
+                        SQLiteConnector.printSQLException(ex);
+                    }
+                }
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+            }
+        }
+    }
+
+    private PreparedStatement detailStatement(Connection conn, Map<ProductType, PreparedStatement> statements,
+                                              ProductType type, String sql) throws SQLException {
+        PreparedStatement ps = statements.get(type);
+        if (ps == null) {
+            ps = conn.prepareStatement(sql);
+            statements.put(type, ps);
+        }
+        return ps;
+    }
+
+    @Override
+    public int streamProducts(ProductType productType, ProductRowHandler handler) throws SQLException, IOException {
+        // One LEFT JOIN per subtype table; CD and LP share column names, so every
+        // subtype column is aliased with its table prefix
+        StringBuilder sql = new StringBuilder("SELECT p.*");
+        StringBuilder from = new StringBuilder(" FROM PRODUCT p");
+        if (bookTableExists) {
+            sql.append(", b.productID AS b_id, b.authors AS b_authors, b.coverType AS b_coverType, b.publisher AS b_publisher,")
+               .append(" b.publicationDate AS b_publicationDate, b.numPages AS b_numPages, b.language AS b_language, b.book_genre AS b_genre");
+            from.append(" LEFT JOIN BOOK b ON b.productID = p.productID");
+        }
+        if (cdTableExists) {
+            sql.append(", c.productID AS c_id, c.artists AS c_artists, c.recordLabel AS c_recordLabel, c.tracklist AS c_tracklist,")
+               .append(" c.cd_genre AS c_genre, c.releaseDate AS c_releaseDate");
+            from.append(" LEFT JOIN CD c ON c.productID = p.productID");
+        }
+        if (dvdTableExists) {
+            sql.append(", d.productID AS d_id, d.discType AS d_discType, d.director AS d_director, d.runtime_minutes AS d_runtime,")
+               .append(" d.studio AS d_studio, d.dvd_language AS d_language, d.subtitles AS d_subtitles, d.dvd_releaseDate AS d_releaseDate, d.dvd_genre AS d_genre");
+            from.append(" LEFT JOIN DVD d ON d.productID = p.productID");
+        }
+        if (lpTableExists) {
+            sql.append(", l.productID AS l_id, l.artists AS l_artists, l.recordLabel AS l_recordLabel, l.tracklist AS l_tracklist,")
+               .append(" l.genre AS l_genre, l.releaseDate AS l_releaseDate");
+            from.append(" LEFT JOIN LP l ON l.productID = p.productID");
+        }
+        sql.append(from);
+        if (productType != null) {
+            sql.append(" WHERE p.productType = ?");
+        }
+        sql.append(" ORDER BY p.productID");
+
+        Connection conn = getConnection();
+        int count = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            if (productType != null) {
+                pstmt.setString(1, productType.name());
+            }
+            pstmt.setFetchSize(MAX_IN_CLAUSE_PARAMS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(mapJoinedProduct(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return count;
+    }
+
+    // Maps one row of the streamProducts join to the matching subtype; falls back to
+    // the base product when the subtype row is missing (as getById does)
+    private Product mapJoinedProduct(ResultSet rs) throws SQLException {
+        Product base = mapBaseProduct(rs);
+        ProductType type = base.getProductType();
+        if (type == ProductType.BOOK && bookTableExists && rs.getString("b_id") != null) {
+            Book book = new Book();
+            copyBaseProductProperties(base, book);
+            book.setAuthors(rs.getString("b_authors"));
+            book.setCoverType(rs.getString("b_coverType"));
+            book.setPublisher(rs.getString("b_publisher"));
+            String pubDateStr = rs.getString("b_publicationDate");
+            if (pubDateStr != null) book.setPublicationDate(LocalDate.parse(pubDateStr));
+            book.setNumPages(rs.getInt("b_numPages"));
+            book.setLanguage(rs.getString("b_language"));
+            book.setBookGenre(rs.getString("b_genre"));
+            return book;
+        }
+        if (type == ProductType.CD && cdTableExists && rs.getString("c_id") != null) {
+            CD cd = new CD();
+            copyBaseProductProperties(base, cd);
+            cd.setArtists(rs.getString("c_artists"));
+            cd.setRecordLabel(rs.getString("c_recordLabel"));
+            cd.setTracklist(rs.getString("c_tracklist"));
+            cd.setCdGenre(rs.getString("c_genre"));
+            String relDateStr = rs.getString("c_releaseDate");
+            if (relDateStr != null) cd.setReleaseDate(LocalDate.parse(relDateStr));
+            return cd;
+        }
+        if (type == ProductType.DVD && dvdTableExists && rs.getString("d_id") != null) {
+            DVD dvd = new DVD();
+            copyBaseProductProperties(base, dvd);
+            dvd.setDiscType(rs.getString("d_discType"));
+            dvd.setDirector(rs.getString("d_director"));
+            dvd.setRuntimeMinutes(rs.getInt("d_runtime"));
+            dvd.setStudio(rs.getString("d_studio"));
+            dvd.setDvdLanguage(rs.getString("d_language"));
+            dvd.setSubtitles(rs.getString("d_subtitles"));
+            String relDateStr = rs.getString("d_releaseDate");
+            if (relDateStr != null) dvd.setDvdReleaseDate(LocalDate.parse(relDateStr));
+            dvd.setDvdGenre(rs.getString("d_genre"));
+            return dvd;
+        }
+        if (type == ProductType.LP && lpTableExists && rs.getString("l_id") != null) {
+            LP lp = new LP();
+            copyBaseProductProperties(base, lp);
+            lp.setArtists(rs.getString("l_artists"));
+            lp.setRecordLabel(rs.getString("l_recordLabel"));
+            lp.setTracklist(rs.getString("l_tracklist"));
+            lp.setGenre(rs.getString("l_genre"));
+            String relDateStr = rs.getString("l_releaseDate");
+            if (relDateStr != null) lp.setReleaseDate(LocalDate.parse(relDateStr));
+            return lp;
+        }
+        return base;
+    }
+
     @Override
     public void updateBaseProduct(Product product) throws SQLException {
         String sql = "UPDATE PRODUCT SET title = ?, category = ?, value_amount = ?, price = ?, quantityInStock = ?, description = ?, imageURL = ?, barcode = ?, dimensions_cm = ?, weight_kg = ?, entryDate = ?, productType = ? WHERE productID = ?";
@@ -373,8 +713,8 @@ public class ProductDAOImpl implements IProductDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, product.getTitle());
             pstmt.setString(2, product.getCategory());
-            pstmt.setFloat(3, product.getValueAmount());
-            pstmt.setFloat(4, product.getPrice());
+            pstmt.setDouble(3, Money.toColumn(product.getValueAmount()));
+            pstmt.setDouble(4, Money.toColumn(product.getPrice()));
             pstmt.setInt(5, product.getQuantityInStock());
             pstmt.setString(6, product.getDescription());
             pstmt.setString(7, product.getImageUrl());
@@ -384,7 +724,13 @@ public class ProductDAOImpl implements IProductDAO {
             pstmt.setString(11, product.getEntryDate() != null ? product.getEntryDate().toString() : null);
             pstmt.setString(12, product.getProductType().name());
             pstmt.setString(13, product.getProductId());
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                String productId = product.getProductId();
+                int quantity = product.getQuantityInStock();
+                float price = product.getPrice();
+                Long version = product.getVersion();
+                publishAfterCommit(conn, () -> changeBus.publishProductUpdate(productId, quantity, price, version));
+            }
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
             throw e;
@@ -477,7 +823,9 @@ public class ProductDAOImpl implements IProductDAO {
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, productId);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                publishAfterCommit(conn, () -> changeBus.publishDelete(productId));
+            }
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
             throw e;
@@ -522,6 +870,73 @@ public class ProductDAOImpl implements IProductDAO {
         return products;
     }
     
+    @Override
+    public List<Product> findPage(String titleKeyword, String category, String priceOrder, int page, int pageSize) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM PRODUCT");
+        appendPageFilter(sql, parameters, titleKeyword, category);
+        
+        // rowid keeps the insertion order of getAll() and makes ties stable across pages
+        if ("ASC".equalsIgnoreCase(priceOrder)) {
+            sql.append(" ORDER BY price ASC, rowid");
+        } else if ("DESC".equalsIgnoreCase(priceOrder)) {
+            sql.append(" ORDER BY price DESC, rowid");
+        } else {
+            sql.append(" ORDER BY rowid");
+        }
+        sql.append(" LIMIT ? OFFSET ?");
+        parameters.add(pageSize);
+        parameters.add((Math.max(page, 1) - 1) * pageSize);
+        
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapBaseProduct(rs));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return products;
+    }
+
+    @Override
+    public int countPage(String titleKeyword, String category) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM PRODUCT");
+        appendPageFilter(sql, parameters, titleKeyword, category);
+        
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+    
+    private static void appendPageFilter(StringBuilder sql, List<Object> parameters, String titleKeyword, String category) {
+        String separator = " WHERE ";
+        if (category != null && !category.trim().isEmpty()) {
+            sql.append(separator).append("category = ?");
+            parameters.add(category);
+            separator = " AND ";
+        }
+        if (titleKeyword != null && !titleKeyword.trim().isEmpty()) {
+            sql.append(separator).append("title LIKE ?");
+            parameters.add("%" + titleKeyword + "%");
+        }
+    }
+    
     @Override
     public void updateStock(String productId, int newQuantity) throws SQLException {
         String sql = "UPDATE PRODUCT SET quantityInStock = ? WHERE productID = ?";
@@ -529,7 +944,9 @@ public class ProductDAOImpl implements IProductDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, newQuantity);
             pstmt.setString(2, productId);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                publishAfterCommit(conn, () -> changeBus.publishStockChange(productId, newQuantity, null));
+            }
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
             throw e;
@@ -550,6 +967,8 @@ public class ProductDAOImpl implements IProductDAO {
                 // No rows were updated, indicating version mismatch (optimistic lock conflict)
                 throw new SQLException("Optimistic lock conflict: Product version has changed. Expected version: " + expectedVersion);
             }
+            long newVersion = (expectedVersion != null ? expectedVersion : 0L) + 1;
+            publishAfterCommit(conn, () -> changeBus.publishStockChange(productId, newQuantity, newVersion));
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
             throw e;
@@ -557,233 +976,189 @@ public class ProductDAOImpl implements IProductDAO {
     }
 
     @Override
-    public List<Product> searchProducts(String keyword, String category, String sortBy, String sortOrder, int page, int pageSize) throws SQLException {
-        List<Product> products = new ArrayList<>();
-        
+    public Integer decrementStockIfAvailable(String productId, int quantity) throws SQLException {
         Connection conn = getConnection();
-        
-        // CRITICAL FIX: Use cached table existence instead of repeated database calls
-        // Table existence is now cached at class initialization, preventing infinite loops
-        
-        // Build base query with conditional joins based on table existence
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT DISTINCT p.* FROM PRODUCT p ");
-        
-        if (bookTableExists) sql.append("LEFT JOIN BOOK b ON p.productID = b.productID ");
-        if (cdTableExists) sql.append("LEFT JOIN CD c ON p.productID = c.productID ");
-        if (dvdTableExists) sql.append("LEFT JOIN DVD d ON p.productID = d.productID ");
-        if (lpTableExists) sql.append("LEFT JOIN LP l ON p.productID = l.productID ");
-        
-        sql.append("WHERE p.quantityInStock > 0 ");
-        
-        List<String> conditions = new ArrayList<>();
-        List<Object> parameters = new ArrayList<>();
-        
-        // Enhanced keyword search with conditional fields
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String keywordPattern = "%" + keyword.trim() + "%";
-            StringBuilder keywordCondition = new StringBuilder();
-            keywordCondition.append("(p.title LIKE ? OR p.description LIKE ? OR p.category LIKE ?");
-            
-            // Add 3 basic parameters
-            parameters.add(keywordPattern);
-            parameters.add(keywordPattern);
-            parameters.add(keywordPattern);
-            
-            // Add conditional search fields
-            if (bookTableExists) {
-                keywordCondition.append(" OR b.authors LIKE ? OR b.publisher LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
-            }
-            if (cdTableExists) {
-                keywordCondition.append(" OR c.artists LIKE ? OR c.recordLabel LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
-            }
-            if (dvdTableExists) {
-                keywordCondition.append(" OR d.director LIKE ? OR d.studio LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
-            }
-            if (lpTableExists) {
-                keywordCondition.append(" OR l.artists LIKE ? OR l.recordLabel LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
+        // Bump the version too, so read-modify-write updates elsewhere detect the change
+        String sql = "UPDATE PRODUCT SET quantityInStock = quantityInStock - ?" +
+                     (versionColumnExists ? ", version = version + 1" : "") +
+                     " WHERE productID = ? AND quantityInStock >= ?" +
+                     " RETURNING quantityInStock" + (versionColumnExists ? ", version" : "");
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, quantity);
+            pstmt.setString(2, productId);
+            pstmt.setInt(3, quantity);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                int remaining = rs.getInt("quantityInStock");
+                Long version = versionColumnExists ? rs.getLong("version") : null;
+                publishAfterCommit(conn, () -> changeBus.publishStockChange(productId, remaining, version));
+                return remaining;
             }
-            
-            keywordCondition.append(")");
-            conditions.add(keywordCondition.toString());
-        }
-        
-        // Category filter
-        if (category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category)) {
-            conditions.add("p.category = ?");
-            parameters.add(category);
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
         }
-        
-        // Apply conditions
-        for (String condition : conditions) {
-            sql.append(" AND ").append(condition);
+    }
+
+    @Override
+    public Map<String, int[]> decrementStockGrouped(Map<String, List<Integer>> requestedQuantities) throws SQLException {
+        Map<String, int[]> outcomes = new HashMap<>();
+        if (requestedQuantities == null || requestedQuantities.isEmpty()) {
+            return outcomes;
         }
-        
-        // Add sorting with validation
-        if (sortBy != null && !sortBy.trim().isEmpty()) {
-            String validatedSortBy = validateSortColumn(sortBy);
-            sql.append(" ORDER BY ").append(validatedSortBy);
-            if (sortOrder != null && sortOrder.equalsIgnoreCase("DESC")) {
-                sql.append(" DESC");
-            } else {
-                sql.append(" ASC");
+
+        String selectSql = "SELECT quantityInStock FROM PRODUCT WHERE productID = ?";
+        String updateSql = "UPDATE PRODUCT SET quantityInStock = quantityInStock - ?" +
+                           (versionColumnExists ? ", version = version + 1" : "") +
+                           " WHERE productID = ? AND quantityInStock >= ?";
+        Map<String, Integer> remainingByProduct = new LinkedHashMap<>();
+
+        // Called from the group-commit writer thread: a transaction on the shared
+        // connection would pick up statements other threads run on it meanwhile
+        Connection conn = SQLiteConnector.getInstance().getDedicatedConnection("stock-group-commit");
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (PreparedStatement selectPstmt = conn.prepareStatement(selectSql);
+                     PreparedStatement updatePstmt = conn.prepareStatement(updateSql)) {
+                    for (Map.Entry<String, List<Integer>> entry : requestedQuantities.entrySet()) {
+                        String productId = entry.getKey();
+                        selectPstmt.setString(1, productId);
+                        int stock;
+                        try (ResultSet rs = selectPstmt.executeQuery()) {
+                            if (!rs.next()) {
+                                continue;
+                            }
+                            stock = rs.getInt("quantityInStock");
+                        }
+
+                        List<Integer> requests = entry.getValue();
+                        int[] outcome = new int[requests.size()];
+                        int remaining = stock;
+                        for (int i = 0; i < requests.size(); i++) {
+                            int quantity = requests.get(i);
+                            if (quantity > 0 && quantity <= remaining) {
+                                remaining -= quantity;
+                                outcome[i] = remaining;
+                            } else {
+                                outcome[i] = -1;
+                            }
+                        }
+
+                        int granted = stock - remaining;
+                        if (granted > 0) {
+                            updatePstmt.setInt(1, granted);
+                            updatePstmt.setString(2, productId);
+                            updatePstmt.setInt(3, granted);
+                            if (updatePstmt.executeUpdate() == 0) {
+                                // The read and the update share one transaction on this connection, so
+                                // no other writer can change the row in between; guards the count anyway
+                                throw new SQLException("Stock changed concurrently during grouped decrement for product " + productId);
+                            }
+                            remainingByProduct.put(productId, remaining);
+                        }
+                        outcomes.put(productId, outcome);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
             }
-        } else {
-            sql.append(" ORDER BY p.title ASC"); // Default sorting
         }
+
+        for (Map.Entry<String, Integer> entry : remainingByProduct.entrySet()) {
+            changeBus.publishStockChange(entry.getKey(), entry.getValue(), null);
+        }
+        return outcomes;
+    }
+
+    @Override
+    public List<Product> searchProducts(String keyword, String category, String sortBy, String sortOrder, int page, int pageSize) throws SQLException {
+        List<Product> products = new ArrayList<>();
         
-        // Add pagination
-        sql.append(" LIMIT ? OFFSET ?");
-        parameters.add(pageSize);
-        parameters.add((page - 1) * pageSize);
+        Connection conn = getConnection();
         
-        PreparedStatement ps = null;
-        ResultSet rs = null;
+        // One canonical statement per search shape, so repeated searches reuse the cached prepared statement
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        boolean hasCategory = category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category);
+        ProductSearchSql.Template template = searchSql.search(hasKeyword, hasCategory, sortBy, sortOrder);
         
-        try {
-            ps = conn.prepareStatement(sql.toString());
-            
-            // Set parameters
-            for (int i = 0; i < parameters.size(); i++) {
-                ps.setObject(i + 1, parameters.get(i));
+        try (PreparedStatement ps = conn.prepareStatement(template.sql())) {
+            int index = bindKeyword(ps, 1, template, keyword);
+            if (hasCategory) {
+                ps.setString(index++, category);
             }
+            ps.setInt(index++, pageSize);
+            ps.setInt(index, (page - 1) * pageSize);
             
-            rs = ps.executeQuery();
-            while (rs.next()) {
-                // Get full product with subtype details
-                Product fullProduct = getById(rs.getString("productID"));
-                if (fullProduct != null) {
-                    products.add(fullProduct);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // Get full product with subtype details
+                    Product fullProduct = getById(rs.getString("productID"));
+                    if (fullProduct != null) {
+                        products.add(fullProduct);
+                    }
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error in searchProducts: " + e.getMessage());
-            // Log the SQL that failed for debugging
-            System.err.println("Failed SQL: " + sql.toString());
+            logger.error("Error in searchProducts: {}", e.getMessage());
+            // The statement (not its parameters) only at DEBUG, rendered only if enabled
+            logger.debug("Failed SQL: {}", template.sql());
             throw e;
-        } finally {
-            if (rs != null) rs.close();
-            if (ps != null) ps.close();
         }
         
         return products;
     }
     
-    // Helper method to validate sort columns and prevent SQL injection
-    private String validateSortColumn(String sortBy) {
-        switch (sortBy.toLowerCase()) {
-            case "title":
-                return "p.title";
-            case "price":
-                return "p.price";
-            case "category":
-                return "p.category";
-            case "entrydate":
-                return "p.entryDate";
-            case "quantity":
-                return "p.quantityInStock";
-            default:
-                return "p.title"; // Default safe sorting
+    // Binds the keyword pattern once per keyword placeholder; returns the next parameter index
+    private static int bindKeyword(PreparedStatement ps, int index, ProductSearchSql.Template template, String keyword) throws SQLException {
+        if (template.keywordParams() > 0) {
+            String keywordPattern = "%" + keyword.trim() + "%";
+            for (int i = 0; i < template.keywordParams(); i++) {
+                ps.setString(index++, keywordPattern);
+            }
         }
+        return index;
     }
-
+    
     @Override
     public int getSearchResultsCount(String keyword, String category) throws SQLException {
         Connection conn = getConnection();
         
-        // CRITICAL FIX: Use cached table existence instead of repeated database calls
-        
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT COUNT(DISTINCT p.productID) FROM PRODUCT p ");
-        
-        if (bookTableExists) sql.append("LEFT JOIN BOOK b ON p.productID = b.productID ");
-        if (cdTableExists) sql.append("LEFT JOIN CD c ON p.productID = c.productID ");
-        if (dvdTableExists) sql.append("LEFT JOIN DVD d ON p.productID = d.productID ");
-        if (lpTableExists) sql.append("LEFT JOIN LP l ON p.productID = l.productID ");
-        
-        sql.append("WHERE p.quantityInStock > 0 ");
-        
-        List<String> conditions = new ArrayList<>();
-        List<Object> parameters = new ArrayList<>();
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        boolean hasCategory = category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category);
+        ProductSearchSql.Template template = searchSql.searchCount(hasKeyword, hasCategory);
         
-        // Enhanced keyword search with conditional fields
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String keywordPattern = "%" + keyword.trim() + "%";
-            StringBuilder keywordCondition = new StringBuilder();
-            keywordCondition.append("(p.title LIKE ? OR p.description LIKE ? OR p.category LIKE ?");
-            
-            // Add 3 basic parameters
-            parameters.add(keywordPattern);
-            parameters.add(keywordPattern);
-            parameters.add(keywordPattern);
-            
-            // Add conditional search fields
-            if (bookTableExists) {
-                keywordCondition.append(" OR b.authors LIKE ? OR b.publisher LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
-            }
-            if (cdTableExists) {
-                keywordCondition.append(" OR c.artists LIKE ? OR c.recordLabel LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
-            }
-            if (dvdTableExists) {
-                keywordCondition.append(" OR d.director LIKE ? OR d.studio LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
-            }
-            if (lpTableExists) {
-                keywordCondition.append(" OR l.artists LIKE ? OR l.recordLabel LIKE ?");
-                parameters.add(keywordPattern);
-                parameters.add(keywordPattern);
+        try (PreparedStatement ps = conn.prepareStatement(template.sql())) {
+            int index = bindKeyword(ps, 1, template, keyword);
+            if (hasCategory) {
+                ps.setString(index, category);
             }
             
-            keywordCondition.append(")");
-            conditions.add(keywordCondition.toString());
-        }
-        
-        // Category filter
-        if (category != null && !category.trim().isEmpty() && !"All".equalsIgnoreCase(category)) {
-            conditions.add("p.category = ?");
-            parameters.add(category);
-        }
-        
-        // Apply conditions
-        for (String condition : conditions) {
-            sql.append(" AND ").append(condition);
-        }
-        
-        PreparedStatement ps = null;
-        ResultSet rs = null;
-        
-        try {
-            ps = conn.prepareStatement(sql.toString());
-            
-            // Set parameters
-            for (int i = 0; i < parameters.size(); i++) {
-                ps.setObject(i + 1, parameters.get(i));
-            }
-            
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error in getSearchResultsCount: " + e.getMessage());
-            System.err.println("Failed SQL: " + sql.toString());
+            logger.error("Error in getSearchResultsCount: {}", e.getMessage());
+            logger.debug("Failed SQL: {}", template.sql());
             throw e;
-        } finally {
-            if (rs != null) rs.close();
-            if (ps != null) ps.close();
         }
         
         return 0;
@@ -836,225 +1211,381 @@ public class ProductDAOImpl implements IProductDAO {
         
         Connection conn = getConnection();
         
-        // CRITICAL FIX: Use cached table existence instead of repeated database calls
-        
-        // Build base query with conditional joins based on table existence
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT DISTINCT p.* FROM PRODUCT p ");
-        
-        if (bookTableExists) sql.append("LEFT JOIN BOOK b ON p.productID = b.productID ");
-        if (cdTableExists) sql.append("LEFT JOIN CD c ON p.productID = c.productID ");
-        if (dvdTableExists) sql.append("LEFT JOIN DVD d ON p.productID = d.productID ");
-        if (lpTableExists) sql.append("LEFT JOIN LP l ON p.productID = l.productID ");
+        // Same as searchProducts, filtered by product type instead of category
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        ProductSearchSql.Template template = searchSql.searchByType(hasKeyword, productType, sortBy, sortOrder);
         
-        sql.append("WHERE p.quantityInStock > 0 ");
-        
-        List<String> conditions = new ArrayList<>();
-        List<Object> parameters = new ArrayList<>();
-        
-        // Product type filter (main difference from searchProducts)
-        if (productType != null) {
-            conditions.add("p.productType = ?");
-            parameters.add(productType.name());
-        }
-        
-        // Enhanced keyword search with conditional fields
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String keywordPattern = "%" + keyword.trim() + "%";
-            StringBuilder keywordCondition = new StringBuilder();
-            keywordCondition.append("(p.title LIKE ? OR p.description LIKE ?");
-            
-            // Add 2 basic parameters (removed category from keyword search since we're filtering by productType)
-            parameters.add(keywordPattern);
-            parameters.add(keywordPattern);
-            
-            // Add conditional search fields based on product type
-            if (productType == null || productType == ProductType.BOOK) {
-                if (bookTableExists) {
-                    keywordCondition.append(" OR b.authors LIKE ? OR b.publisher LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
-                }
+        try (PreparedStatement ps = conn.prepareStatement(template.sql())) {
+            int index = 1;
+            if (productType != null) {
+                ps.setString(index++, productType.name());
             }
-            if (productType == null || productType == ProductType.CD) {
-                if (cdTableExists) {
-                    keywordCondition.append(" OR c.artists LIKE ? OR c.recordLabel LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
+            index = bindKeyword(ps, index, template, keyword);
+            ps.setInt(index++, pageSize);
+            ps.setInt(index, (page - 1) * pageSize);
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // Get full product with subtype details
+                    Product fullProduct = getById(rs.getString("productID"));
+                    if (fullProduct != null) {
+                        products.add(fullProduct);
+                    }
                 }
             }
-            if (productType == null || productType == ProductType.DVD) {
-                if (dvdTableExists) {
-                    keywordCondition.append(" OR d.director LIKE ? OR d.studio LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
-                }
+        } catch (SQLException e) {
+            logger.error("Error in searchProductsByType: {}", e.getMessage());
+            // The statement (not its parameters) only at DEBUG, rendered only if enabled
+            logger.debug("Failed SQL: {}", template.sql());
+            throw e;
+        }
+        
+        return products;
+    }
+
+    @Override
+    public int getSearchResultsCountByType(String keyword, ProductType productType) throws SQLException {
+        Connection conn = getConnection();
+        
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        ProductSearchSql.Template template = searchSql.searchByTypeCount(hasKeyword, productType);
+        
+        try (PreparedStatement ps = conn.prepareStatement(template.sql())) {
+            int index = 1;
+            if (productType != null) {
+                ps.setString(index++, productType.name());
             }
-            if (productType == null || productType == ProductType.LP) {
-                if (lpTableExists) {
-                    keywordCondition.append(" OR l.artists LIKE ? OR l.recordLabel LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
+            bindKeyword(ps, index, template, keyword);
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
                 }
             }
-            
-            keywordCondition.append(")");
-            conditions.add(keywordCondition.toString());
+        } catch (SQLException e) {
+            logger.error("Error in getSearchResultsCountByType: {}", e.getMessage());
+            logger.debug("Failed SQL: {}", template.sql());
+            throw e;
         }
         
-        // Apply conditions
-        for (String condition : conditions) {
-            sql.append(" AND ").append(condition);
+        return 0;
+    }
+
+    @Override
+    public List<FacetCount> getSearchFacetCounts(String keyword, double priceFactor, double[] priceBounds) throws SQLException {
+        List<FacetCount> cells = new ArrayList<>();
+        Connection conn = getConnection();
+        List<Object> parameters = new ArrayList<>();
+        
+        StringBuilder sql = new StringBuilder();
+        sql.append("SELECT p.category AS category, p.productType AS productType, ");
+        
+        // Price bucket: index of the first bound the (VAT-inclusive) price is below
+        sql.append("CASE");
+        for (int i = 0; i < priceBounds.length; i++) {
+            sql.append(" WHEN p.price * ? < ? THEN ").append(i);
+            parameters.add(priceFactor);
+            parameters.add(priceBounds[i]);
         }
+        sql.append(" ELSE ").append(priceBounds.length).append(" END AS priceBucket, ");
+        sql.append("CASE WHEN p.quantityInStock > 0 THEN 1 ELSE 0 END AS inStock, ");
         
-        // Add sorting with validation
-        if (sortBy != null && !sortBy.trim().isEmpty()) {
-            String validatedSortBy = validateSortColumn(sortBy);
-            sql.append(" ORDER BY ").append(validatedSortBy);
-            if (sortOrder != null && sortOrder.equalsIgnoreCase("DESC")) {
-                sql.append(" DESC");
-            } else {
-                sql.append(" ASC");
-            }
+        String keywordPattern = keyword != null && !keyword.trim().isEmpty() ? "%" + keyword.trim() + "%" : null;
+        if (keywordPattern != null) {
+            sql.append("CASE WHEN ");
+            appendKeywordCondition(sql, parameters, keywordPattern, false);
+            sql.append(" THEN 1 ELSE 0 END AS strictMatch, ");
         } else {
-            sql.append(" ORDER BY p.title ASC"); // Default sorting
+            sql.append("1 AS strictMatch, ");
         }
+        sql.append("COUNT(DISTINCT p.productID) AS productCount FROM PRODUCT p ");
         
-        // Add pagination
-        sql.append(" LIMIT ? OFFSET ?");
-        parameters.add(pageSize);
-        parameters.add((page - 1) * pageSize);
+        if (bookTableExists) sql.append("LEFT JOIN BOOK b ON p.productID = b.productID ");
+        if (cdTableExists) sql.append("LEFT JOIN CD c ON p.productID = c.productID ");
+        if (dvdTableExists) sql.append("LEFT JOIN DVD d ON p.productID = d.productID ");
+        if (lpTableExists) sql.append("LEFT JOIN LP l ON p.productID = l.productID ");
+        
+        if (keywordPattern != null) {
+            sql.append("WHERE ");
+            appendKeywordCondition(sql, parameters, keywordPattern, true);
+        }
+        sql.append(" GROUP BY category, productType, priceBucket, inStock, strictMatch");
         
         PreparedStatement ps = null;
         ResultSet rs = null;
         
         try {
             ps = conn.prepareStatement(sql.toString());
-            
-            // Set parameters
             for (int i = 0; i < parameters.size(); i++) {
                 ps.setObject(i + 1, parameters.get(i));
             }
             
             rs = ps.executeQuery();
             while (rs.next()) {
-                // Get full product with subtype details
-                Product fullProduct = getById(rs.getString("productID"));
-                if (fullProduct != null) {
-                    products.add(fullProduct);
+                String typeName = rs.getString("productType");
+                ProductType type;
+                try {
+                    type = typeName != null ? ProductType.valueOf(typeName) : ProductType.OTHER;
+                } catch (IllegalArgumentException e) {
+                    type = ProductType.OTHER;
                 }
+                cells.add(new FacetCount(rs.getString("category"), type, rs.getInt("priceBucket"),
+                    rs.getInt("inStock") == 1, rs.getInt("strictMatch") == 1, rs.getLong("productCount")));
             }
         } catch (SQLException e) {
-            System.err.println("Error in searchProductsByType: " + e.getMessage());
-            // Log the SQL that failed for debugging
-            System.err.println("Failed SQL: " + sql.toString());
+            logger.error("Error in getSearchFacetCounts: {}", e.getMessage());
+            logger.debug("Failed SQL: {}", sql);
             throw e;
         } finally {
             if (rs != null) rs.close();
             if (ps != null) ps.close();
         }
         
-        return products;
+        return cells;
     }
-
-    @Override
-    public int getSearchResultsCountByType(String keyword, ProductType productType) throws SQLException {
-        Connection conn = getConnection();
-        
-        // CRITICAL FIX: Use cached table existence instead of repeated database calls
-        
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT COUNT(DISTINCT p.productID) FROM PRODUCT p ");
-        
-        if (bookTableExists) sql.append("LEFT JOIN BOOK b ON p.productID = b.productID ");
-        if (cdTableExists) sql.append("LEFT JOIN CD c ON p.productID = c.productID ");
-        if (dvdTableExists) sql.append("LEFT JOIN DVD d ON p.productID = d.productID ");
-        if (lpTableExists) sql.append("LEFT JOIN LP l ON p.productID = l.productID ");
-        
-        sql.append("WHERE p.quantityInStock > 0 ");
-        
-        List<String> conditions = new ArrayList<>();
-        List<Object> parameters = new ArrayList<>();
-        
-        // Product type filter
-        if (productType != null) {
-            conditions.add("p.productType = ?");
-            parameters.add(productType.name());
+    
+    // Keyword match used by searchProducts; without the category column it is the searchProductsByType match
+    private void appendKeywordCondition(StringBuilder sql, List<Object> parameters, String keywordPattern, boolean includeCategory) {
+        sql.append("(p.title LIKE ? OR p.description LIKE ?");
+        parameters.add(keywordPattern);
+        parameters.add(keywordPattern);
+        if (includeCategory) {
+            sql.append(" OR p.category LIKE ?");
+            parameters.add(keywordPattern);
         }
-        
-        // Enhanced keyword search with conditional fields
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String keywordPattern = "%" + keyword.trim() + "%";
-            StringBuilder keywordCondition = new StringBuilder();
-            keywordCondition.append("(p.title LIKE ? OR p.description LIKE ?");
-            
-            // Add 2 basic parameters
+        if (bookTableExists) {
+            sql.append(" OR b.authors LIKE ? OR b.publisher LIKE ?");
             parameters.add(keywordPattern);
             parameters.add(keywordPattern);
-            
-            // Add conditional search fields based on product type
-            if (productType == null || productType == ProductType.BOOK) {
-                if (bookTableExists) {
-                    keywordCondition.append(" OR b.authors LIKE ? OR b.publisher LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
+        }
+        if (cdTableExists) {
+            sql.append(" OR c.artists LIKE ? OR c.recordLabel LIKE ?");
+            parameters.add(keywordPattern);
+            parameters.add(keywordPattern);
+        }
+        if (dvdTableExists) {
+            sql.append(" OR d.director LIKE ? OR d.studio LIKE ?");
+            parameters.add(keywordPattern);
+            parameters.add(keywordPattern);
+        }
+        if (lpTableExists) {
+            sql.append(" OR l.artists LIKE ? OR l.recordLabel LIKE ?");
+            parameters.add(keywordPattern);
+            parameters.add(keywordPattern);
+        }
+        sql.append(")");
+    }
+
+    @Override
+    public Set<String> findProductIdsInOrders(Collection<String> productIds) throws SQLException {
+        Set<String> referenced = new LinkedHashSet<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return referenced;
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Connection conn = getConnection();
+        for (int from = 0; from < ids.size(); from += MAX_IN_CLAUSE_PARAMS) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_IN_CLAUSE_PARAMS, ids.size()));
+            String sql = "SELECT DISTINCT productID FROM ORDER_ITEM WHERE productID IN (" +
+                         String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
                 }
-            }
-            if (productType == null || productType == ProductType.CD) {
-                if (cdTableExists) {
-                    keywordCondition.append(" OR c.artists LIKE ? OR c.recordLabel LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        referenced.add(rs.getString(1));
+                    }
                 }
+            } catch (SQLException e) {
+                SQLiteConnector.printSQLException(e);
+                throw e;
             }
-            if (productType == null || productType == ProductType.DVD) {
-                if (dvdTableExists) {
-                    keywordCondition.append(" OR d.director LIKE ? OR d.studio LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
+        }
+        return referenced;
+    }
+
+    @Override
+    public Set<String> deleteByIds(Collection<String> productIds) throws SQLException {
+        return deleteByIds(productIds, Map.of());
+    }
+
+    @Override
+    public Set<String> deleteByIds(Collection<String> productIds, Map<String, AuditLogRecord> auditRecords) throws SQLException {
+        Set<String> deletedIds = new LinkedHashSet<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return deletedIds;
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        // Subtype rows cascade when foreign keys are enforced; delete them explicitly so
+        // the result does not depend on the connection's foreign_keys setting
+        List<String> tables = new ArrayList<>();
+        if (bookTableExists) tables.add("BOOK");
+        if (cdTableExists) tables.add("CD");
+        if (dvdTableExists) tables.add("DVD");
+        if (lpTableExists) tables.add("LP");
+        tables.add("PRODUCT");
+
+        Connection conn = getWriterConnection();
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                for (int from = 0; from < ids.size(); from += MAX_IN_CLAUSE_PARAMS) {
+                    List<String> chunk = ids.subList(from, Math.min(from + MAX_IN_CLAUSE_PARAMS, ids.size()));
+                    String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                    for (String table : tables) {
+                        String sql = "DELETE FROM " + table + " WHERE productID IN (" + placeholders + ")" +
+                                     ("PRODUCT".equals(table) ? " RETURNING productID" : "");
+                        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                            for (int i = 0; i < chunk.size(); i++) {
+                                pstmt.setString(i + 1, chunk.get(i));
+                            }
+                            if ("PRODUCT".equals(table)) {
+                                try (ResultSet rs = pstmt.executeQuery()) {
+                                    while (rs.next()) {
+                                        deletedIds.add(rs.getString(1));
+                                    }
+                                }
+                            } else {
+                                pstmt.executeUpdate();
+                            }
+                        }
+                    }
                 }
-            }
-            if (productType == null || productType == ProductType.LP) {
-                if (lpTableExists) {
-                    keywordCondition.append(" OR l.artists LIKE ? OR l.recordLabel LIKE ?");
-                    parameters.add(keywordPattern);
-                    parameters.add(keywordPattern);
+                List<AuditLogRecord> auditRows = new ArrayList<>();
+                for (String productId : deletedIds) {
+                    AuditLogRecord record = auditRecords.get(productId);
+                    if (record != null) {
+                        auditRows.add(record);
+                    }
+                }
+                if (!auditRows.isEmpty()) {
+                    ProductManagerAuditDAOImpl.insertAuditRecords(conn, auditRows);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
                 }
             }
-            
-            keywordCondition.append(")");
-            conditions.add(keywordCondition.toString());
         }
-        
-        // Apply conditions
-        for (String condition : conditions) {
-            sql.append(" AND ").append(condition);
+
+        deletedIds.forEach(changeBus::publishDelete);
+        return deletedIds;
+    }
+
+    @Override
+    public Set<String> updatePrices(Map<String, Float> newPrices) throws SQLException {
+        Set<String> updated = new LinkedHashSet<>();
+        if (newPrices == null || newPrices.isEmpty()) {
+            return updated;
         }
-        
-        PreparedStatement ps = null;
-        ResultSet rs = null;
-        
-        try {
-            ps = conn.prepareStatement(sql.toString());
-            
-            // Set parameters
-            for (int i = 0; i < parameters.size(); i++) {
-                ps.setObject(i + 1, parameters.get(i));
+        String sql = "UPDATE PRODUCT SET price = ?" + (versionColumnExists ? ", version = version + 1" : "") +
+                     " WHERE productID = ? RETURNING quantityInStock" + (versionColumnExists ? ", version" : "");
+        List<Runnable> events = new ArrayList<>();
+
+        Connection conn = getWriterConnection();
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (Map.Entry<String, Float> entry : newPrices.entrySet()) {
+                        String productId = entry.getKey();
+                        float price = entry.getValue();
+                        pstmt.setDouble(1, Money.toColumn(price));
+                        pstmt.setString(2, productId);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            if (rs.next()) {
+                                int quantity = rs.getInt("quantityInStock");
+                                Long version = versionColumnExists ? rs.getLong("version") : null;
+                                updated.add(productId);
+                                events.add(() -> changeBus.publishProductUpdate(productId, quantity, price, version));
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
             }
-            
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
+        }
+
+        events.forEach(Runnable::run);
+        return updated;
+    }
+
+    @Override
+    public Map<String, Integer> adjustStock(Map<String, Integer> quantityChanges) throws SQLException {
+        Map<String, Integer> applied = new LinkedHashMap<>();
+        if (quantityChanges == null || quantityChanges.isEmpty()) {
+            return applied;
+        }
+        String sql = "UPDATE PRODUCT SET quantityInStock = quantityInStock + ?" +
+                     (versionColumnExists ? ", version = version + 1" : "") +
+                     " WHERE productID = ? AND quantityInStock + ? >= 0 RETURNING quantityInStock";
+
+        Connection conn = getWriterConnection();
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (Map.Entry<String, Integer> entry : quantityChanges.entrySet()) {
+                        pstmt.setInt(1, entry.getValue());
+                        pstmt.setString(2, entry.getKey());
+                        pstmt.setInt(3, entry.getValue());
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            if (rs.next()) {
+                                applied.put(entry.getKey(), rs.getInt(1));
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error in getSearchResultsCountByType: " + e.getMessage());
-            System.err.println("Failed SQL: " + sql.toString());
-            throw e;
-        } finally {
-            if (rs != null) rs.close();
-            if (ps != null) ps.close();
         }
-        
-        return 0;
+
+        for (Map.Entry<String, Integer> entry : applied.entrySet()) {
+            changeBus.publishStockChange(entry.getKey(), entry.getValue(), null);
+        }
+        return applied;
     }
-}
\ No newline at end of file
+}
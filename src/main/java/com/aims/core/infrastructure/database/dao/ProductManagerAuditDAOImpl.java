@@ -1,15 +1,28 @@
 package com.aims.core.infrastructure.database.dao;
 
 import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.ProductAuditEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Repository
 public class ProductManagerAuditDAOImpl implements IProductManagerAuditDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductManagerAuditDAOImpl.class);
+
     private Connection getConnection() throws SQLException {
         return SQLiteConnector.getInstance().getConnection();
     }
@@ -35,6 +48,128 @@ public class ProductManagerAuditDAOImpl implements IProductManagerAuditDAO {
         }
     }
 
+    @Override
+    public void logOperations(String managerId, List<ProductAuditEntry> entries) throws SQLException {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO PRODUCT_MANAGER_AUDIT_LOG (auditLogID, managerId, operationType, productId, operationDateTime, details) VALUES (?, ?, ?, ?, ?, ?)";
+        String timestamp = LocalDateTime.now().toString();
+        String idPrefix = generateAuditLogId();
+
+        Connection conn = getConnection();
+        boolean previousAutoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < entries.size(); i++) {
+                    ProductAuditEntry entry = entries.get(i);
+                    // One timestamp for the batch, so IDs need a per-entry suffix
+                    pstmt.setString(1, idPrefix + "_" + i);
+                    pstmt.setString(2, managerId);
+                    pstmt.setString(3, entry.operationType());
+                    pstmt.setString(4, entry.productId());
+                    pstmt.setString(5, timestamp);
+                    pstmt.setString(6, entry.details());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                SQLiteConnector.printSQLException(ex);
+            }
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(previousAutoCommit);
+            } catch (SQLException ex) {
+                SQLiteConnector.printSQLException(ex);
+            }
+        }
+    }
+
+    @Override
+    public void insertAuditRecords(List<AuditLogRecord> records) throws SQLException {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        // Called from the audit writer thread: a transaction on the shared
+        // connection would pick up statements other threads run on it meanwhile
+        Connection conn = SQLiteConnector.getInstance().getDedicatedConnection("audit-log-writer");
+        synchronized (conn) {
+            boolean previousAutoCommit = conn.getAutoCommit();
+            try {
+                conn.setAutoCommit(false);
+                insertAuditRecords(conn, records);
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(previousAutoCommit);
+                } catch (SQLException ex) {
+                    SQLiteConnector.printSQLException(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts audit rows with one batch on {@code conn}, inside whatever
+     * transaction the caller has open there. Lets other DAOs store the audit
+     * rows of a change in the change's own transaction.
+     */
+    static void insertAuditRecords(Connection conn, List<AuditLogRecord> records) throws SQLException {
+        String sql = "INSERT INTO PRODUCT_MANAGER_AUDIT_LOG (auditLogID, managerId, operationType, productId, operationDateTime, details) VALUES (?, ?, ?, ?, ?, ?)";
+        String idPrefix = generateAuditLogId();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < records.size(); i++) {
+                AuditLogRecord record = records.get(i);
+                pstmt.setString(1, idPrefix + "_" + i);
+                pstmt.setString(2, record.managerId());
+                pstmt.setString(3, record.operationType());
+                pstmt.setString(4, record.productId());
+                pstmt.setString(5, record.operationDateTime().toString());
+                pstmt.setString(6, record.details());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    @Override
+    public List<AuditLogRecord> getOperationsOn(LocalDate date) throws SQLException {
+        String sql = "SELECT managerId, operationType, productId, operationDateTime, details FROM PRODUCT_MANAGER_AUDIT_LOG WHERE DATE(operationDateTime) = ?";
+        List<AuditLogRecord> records = new ArrayList<>();
+
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, date.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // Rows written by SQL scripts use 'YYYY-MM-DD HH:MM:SS'
+                    String dateTime = rs.getString("operationDateTime").replace(' ', 'T');
+                    records.add(new AuditLogRecord(rs.getString("managerId"), rs.getString("operationType"),
+                        rs.getString("productId"), LocalDateTime.parse(dateTime), rs.getString("details")));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return records;
+    }
+
     @Override
     public int getOperationCount(String managerId, LocalDate date) throws SQLException {
         // Count UPDATE and DELETE operations only (ADD operations are unlimited)
@@ -81,6 +216,35 @@ public class ProductManagerAuditDAOImpl implements IProductManagerAuditDAO {
         return 0;
     }
 
+    @Override
+    public Map<String, Integer> getPriceUpdateCounts(String managerId, Collection<String> productIds, LocalDate date) throws SQLException {
+        Map<String, Integer> counts = new HashMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return counts;
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT productId, COUNT(*) FROM PRODUCT_MANAGER_AUDIT_LOG WHERE managerId = ? AND DATE(operationDateTime) = ? " +
+                     "AND operationType = 'PRICE_UPDATE' AND productId IN (" + placeholders + ") GROUP BY productId";
+
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, managerId);
+            pstmt.setString(2, date.toString());
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setString(i + 3, ids.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return counts;
+    }
+
     @Override
     public java.util.List<String> getManagerOperations(String managerId, LocalDate date) throws SQLException {
         String sql = "SELECT details FROM PRODUCT_MANAGER_AUDIT_LOG WHERE managerId = ? AND DATE(operationDateTime) = ?";
@@ -113,14 +277,14 @@ public class ProductManagerAuditDAOImpl implements IProductManagerAuditDAO {
             
             pstmt.setInt(1, daysToKeep);
             int deletedRows = pstmt.executeUpdate();
-            System.out.println("Cleaned up " + deletedRows + " old audit records");
+            logger.info("Cleaned up {} old audit records", deletedRows);
         } catch (SQLException e) {
             SQLiteConnector.printSQLException(e);
             throw e;
         }
     }
 
-    private String generateAuditLogId() {
+    private static String generateAuditLogId() {
         return "AUDIT_" + System.currentTimeMillis() + "_" + (int)(Math.random() * 1000);
     }
 }
\ No newline at end of file
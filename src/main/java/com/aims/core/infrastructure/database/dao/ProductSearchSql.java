@@ -0,0 +1,150 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.enums.ProductType;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical SQL for the product search shapes (keyword x category or type x sort).
+ *
+ * Each shape is built once and reused, so every search of the same shape sends
+ * the same SQL text and hits the connection's statement cache. Parameters are
+ * bound in the order: product type, keyword pattern ({@link Template#keywordParams()} times),
+ * category, then LIMIT and OFFSET for the paged searches.
+ */
+final class ProductSearchSql {
+
+    /**
+     * @param sql           The statement text
+     * @param keywordParams How many times the keyword pattern is bound (0 without a keyword)
+     */
+    record Template(String sql, int keywordParams) {
+    }
+
+    private static final String[] SORT_COLUMNS = {"p.title", "p.price", "p.category", "p.entryDate", "p.quantityInStock"};
+
+    private final boolean bookTable;
+    private final boolean cdTable;
+    private final boolean dvdTable;
+    private final boolean lpTable;
+    private final String joins;
+    private final ConcurrentHashMap<Integer, Template> templates = new ConcurrentHashMap<>();
+
+    ProductSearchSql(boolean bookTable, boolean cdTable, boolean dvdTable, boolean lpTable) {
+        this.bookTable = bookTable;
+        this.cdTable = cdTable;
+        this.dvdTable = dvdTable;
+        this.lpTable = lpTable;
+        StringBuilder sql = new StringBuilder();
+        if (bookTable) sql.append("LEFT JOIN BOOK b ON p.productID = b.productID ");
+        if (cdTable) sql.append("LEFT JOIN CD c ON p.productID = c.productID ");
+        if (dvdTable) sql.append("LEFT JOIN DVD d ON p.productID = d.productID ");
+        if (lpTable) sql.append("LEFT JOIN LP l ON p.productID = l.productID ");
+        this.joins = sql.toString();
+    }
+
+    /**
+     * Paged search by keyword (title, description, category and subtype fields) and category.
+     */
+    Template search(boolean keyword, boolean category, String sortBy, String sortOrder) {
+        return template(false, false, keyword, category, null, sortBy, sortOrder);
+    }
+
+    Template searchCount(boolean keyword, boolean category) {
+        return template(true, false, keyword, category, null, null, null);
+    }
+
+    /**
+     * Paged search by keyword (title, description and the type's subtype fields) within a product type.
+     */
+    Template searchByType(boolean keyword, ProductType type, String sortBy, String sortOrder) {
+        return template(false, true, keyword, false, type, sortBy, sortOrder);
+    }
+
+    Template searchByTypeCount(boolean keyword, ProductType type) {
+        return template(true, true, keyword, false, type, null, null);
+    }
+
+    /**
+     * Maps a requested sort column to its column, p.title for unknown ones.
+     */
+    static int sortColumn(String sortBy) {
+        if (sortBy == null) {
+            return 0;
+        }
+        switch (sortBy.trim().toLowerCase()) {
+            case "price":
+                return 1;
+            case "category":
+                return 2;
+            case "entrydate":
+                return 3;
+            case "quantity":
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    private Template template(boolean count, boolean byType, boolean keyword, boolean category, ProductType type,
+                              String sortBy, String sortOrder) {
+        int column = count ? 0 : sortColumn(sortBy);
+        boolean descending = !count && sortBy != null && !sortBy.trim().isEmpty() && "DESC".equalsIgnoreCase(sortOrder);
+        int typeKey = type != null ? type.ordinal() + 1 : 0;
+        int key = (count ? 1 : 0)
+                | (byType ? 1 : 0) << 1
+                | (keyword ? 1 : 0) << 2
+                | (category ? 1 : 0) << 3
+                | (descending ? 1 : 0) << 4
+                | column << 5
+                | typeKey << 8;
+        return templates.computeIfAbsent(key, k -> build(count, byType, keyword, category, type, column, descending));
+    }
+
+    private Template build(boolean count, boolean byType, boolean keyword, boolean category, ProductType type,
+                           int column, boolean descending) {
+        StringBuilder sql = new StringBuilder();
+        sql.append(count ? "SELECT COUNT(DISTINCT p.productID) FROM PRODUCT p " : "SELECT DISTINCT p.* FROM PRODUCT p ");
+        sql.append(joins);
+        sql.append("WHERE p.quantityInStock > 0 ");
+
+        if (byType && type != null) {
+            sql.append(" AND p.productType = ?");
+        }
+        int keywordParams = 0;
+        if (keyword) {
+            // searchByType leaves out p.category: the type filter already narrows it
+            sql.append(byType ? " AND (p.title LIKE ? OR p.description LIKE ?" : " AND (p.title LIKE ? OR p.description LIKE ? OR p.category LIKE ?");
+            keywordParams = byType ? 2 : 3;
+            if (bookTable && matches(byType, type, ProductType.BOOK)) {
+                sql.append(" OR b.authors LIKE ? OR b.publisher LIKE ?");
+                keywordParams += 2;
+            }
+            if (cdTable && matches(byType, type, ProductType.CD)) {
+                sql.append(" OR c.artists LIKE ? OR c.recordLabel LIKE ?");
+                keywordParams += 2;
+            }
+            if (dvdTable && matches(byType, type, ProductType.DVD)) {
+                sql.append(" OR d.director LIKE ? OR d.studio LIKE ?");
+                keywordParams += 2;
+            }
+            if (lpTable && matches(byType, type, ProductType.LP)) {
+                sql.append(" OR l.artists LIKE ? OR l.recordLabel LIKE ?");
+                keywordParams += 2;
+            }
+            sql.append(")");
+        }
+        if (category) {
+            sql.append(" AND p.category = ?");
+        }
+        if (!count) {
+            sql.append(" ORDER BY ").append(SORT_COLUMNS[column]).append(descending ? " DESC" : " ASC");
+            sql.append(" LIMIT ? OFFSET ?");
+        }
+        return new Template(sql.toString(), keywordParams);
+    }
+
+    private static boolean matches(boolean byType, ProductType type, ProductType subtype) {
+        return !byType || type == null || type == subtype;
+    }
+}
@@ -0,0 +1,266 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.enums.OrderStatus;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the daily reporting rollups from the order writers.
+ *
+ * Three tables are kept, keyed by the order day ({@code YYYY-MM-DD} of
+ * {@code orderDate}):
+ * <ul>
+ *   <li>REPORT_DAILY_STATUS: orders and amount paid per status, for every order</li>
+ *   <li>REPORT_DAILY_PRODUCT: units, item revenue and orders per product, for sold orders</li>
+ *   <li>REPORT_DAILY_CATEGORY: the same per product category</li>
+ * </ul>
+ * An order counts as sold from the moment its payment settles until it is
+ * rejected, cancelled or refunded (see {@link #SOLD_STATUSES}).
+ *
+ * The writers call {@link #apply} with the order before and after the change,
+ * on the connection and in the transaction of the change itself, so the
+ * rollups never disagree with ORDER_ENTITY. Item changes on an order that is
+ * already sold are not tracked; {@link #rebuild} recomputes a range of days
+ * from the orders, and is also how bulk loaders that write ORDER_ENTITY
+ * directly fill the rollups.
+ */
+public final class ReportRollups {
+
+    static final Set<OrderStatus> SOLD_STATUSES = EnumSet.of(
+        OrderStatus.PENDING_PROCESSING, OrderStatus.APPROVED, OrderStatus.SHIPPING, OrderStatus.DELIVERED);
+
+    static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    private static final String SELECT_ORDER_SQL =
+        "SELECT substr(orderDate, 1, 10), order_status, totalAmountPaid FROM ORDER_ENTITY WHERE orderID = ?";
+    private static final String STATUS_DELTA_SQL =
+        "INSERT INTO REPORT_DAILY_STATUS (day, status, orders, amount) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT(day, status) DO UPDATE SET orders = orders + excluded.orders, amount = amount + excluded.amount";
+    private static final String PRODUCT_DELTA_SQL =
+        "INSERT INTO REPORT_DAILY_PRODUCT (day, productID, units, revenue, orders) " +
+        "SELECT ?, oi.productID, ? * oi.quantity, ? * oi.quantity * oi.priceAtTimeOfOrder, ? " +
+        "FROM ORDER_ITEM oi WHERE oi.orderID = ? " +
+        "ON CONFLICT(day, productID) DO UPDATE SET units = units + excluded.units, " +
+        "revenue = revenue + excluded.revenue, orders = orders + excluded.orders";
+    private static final String CATEGORY_DELTA_SQL =
+        "INSERT INTO REPORT_DAILY_CATEGORY (day, category, units, revenue, orders) " +
+        "SELECT ?, COALESCE(p.category, '" + UNCATEGORIZED + "'), ? * SUM(oi.quantity), " +
+        "? * SUM(oi.quantity * oi.priceAtTimeOfOrder), ? " +
+        "FROM ORDER_ITEM oi JOIN PRODUCT p ON p.productID = oi.productID WHERE oi.orderID = ? " +
+        "GROUP BY COALESCE(p.category, '" + UNCATEGORIZED + "') " +
+        "ON CONFLICT(day, category) DO UPDATE SET units = units + excluded.units, " +
+        "revenue = revenue + excluded.revenue, orders = orders + excluded.orders";
+
+    /**
+     * The fields of an order the rollups depend on.
+     *
+     * @param day    Order day, YYYY-MM-DD
+     * @param status Order status
+     * @param amount Total amount paid
+     */
+    record OrderFacts(String day, OrderStatus status, double amount) {
+
+        OrderFacts withStatus(OrderStatus newStatus) {
+            return new OrderFacts(day, newStatus, amount);
+        }
+    }
+
+    private volatile boolean tablesEnsured;
+
+    /**
+     * @return the order's current facts, or null when there is no such order
+     */
+    OrderFacts read(Connection conn, String orderId) throws SQLException {
+        ensureTables(conn);
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_ORDER_SQL)) {
+            pstmt.setString(1, orderId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getString(1) == null || rs.getString(2) == null) {
+                    return null;
+                }
+                return new OrderFacts(rs.getString(1), OrderStatus.valueOf(rs.getString(2)), rs.getDouble(3));
+            }
+        }
+    }
+
+    /**
+     * Moves an order's contribution from {@code before} to {@code after}. Either
+     * may be null for an order being inserted or deleted. Must run while the
+     * order's items are still in ORDER_ITEM.
+     */
+    void apply(Connection conn, String orderId, OrderFacts before, OrderFacts after) throws SQLException {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        ensureTables(conn);
+        if (before != null) {
+            addStatus(conn, before, -1);
+        }
+        if (after != null) {
+            addStatus(conn, after, 1);
+        }
+
+        boolean soldBefore = before != null && SOLD_STATUSES.contains(before.status());
+        boolean soldAfter = after != null && SOLD_STATUSES.contains(after.status());
+        boolean sameDay = before != null && after != null && before.day().equals(after.day());
+        if (soldBefore && (!soldAfter || !sameDay)) {
+            addItems(conn, orderId, before.day(), -1);
+        }
+        if (soldAfter && (!soldBefore || !sameDay)) {
+            addItems(conn, orderId, after.day(), 1);
+        }
+    }
+
+    /**
+     * Recomputes the rollups of the days {@code from} to {@code to} (inclusive)
+     * from ORDER_ENTITY and ORDER_ITEM. Runs in the caller's transaction.
+     *
+     * Refuses ranges reaching into an archived year: its archived orders are
+     * no longer in ORDER_ENTITY, so their sales only live on in the rollups.
+     *
+     * @return the number of orders in the range
+     * @throws SQLException if the range starts before {@link #firstRebuildableDay}
+     */
+    public int rebuild(Connection conn, LocalDate from, LocalDate to) throws SQLException {
+        LocalDate firstRebuildable = firstRebuildableDay(conn);
+        if (firstRebuildable != null && from.isBefore(firstRebuildable)) {
+            throw new SQLException("Orders before " + firstRebuildable + " are archived; their rollups can't be rebuilt");
+        }
+        ensureTables(conn);
+        String fromDay = from.toString();
+        String toDay = to.toString();
+        // orderDate is ISO text, so the day range is a prefix range on the orderDate index
+        String nextDay = to.plusDays(1).toString();
+        String soldIn = soldStatusList();
+
+        for (String table : new String[] { "REPORT_DAILY_STATUS", "REPORT_DAILY_PRODUCT", "REPORT_DAILY_CATEGORY" }) {
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + table + " WHERE day BETWEEN ? AND ?")) {
+                pstmt.setString(1, fromDay);
+                pstmt.setString(2, toDay);
+                pstmt.executeUpdate();
+            }
+        }
+
+        int orders;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO REPORT_DAILY_STATUS (day, status, orders, amount) " +
+                "SELECT substr(orderDate, 1, 10), order_status, COUNT(*), SUM(totalAmountPaid) FROM ORDER_ENTITY " +
+                "WHERE orderDate >= ? AND orderDate < ? GROUP BY substr(orderDate, 1, 10), order_status")) {
+            pstmt.setString(1, fromDay);
+            pstmt.setString(2, nextDay);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT COALESCE(SUM(orders), 0) FROM REPORT_DAILY_STATUS WHERE day BETWEEN ? AND ?")) {
+            pstmt.setString(1, fromDay);
+            pstmt.setString(2, toDay);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                orders = rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO REPORT_DAILY_PRODUCT (day, productID, units, revenue, orders) " +
+                "SELECT substr(o.orderDate, 1, 10), oi.productID, SUM(oi.quantity), " +
+                "SUM(oi.quantity * oi.priceAtTimeOfOrder), COUNT(*) " +
+                "FROM ORDER_ENTITY o JOIN ORDER_ITEM oi ON oi.orderID = o.orderID " +
+                "WHERE o.orderDate >= ? AND o.orderDate < ? AND o.order_status IN " + soldIn + " " +
+                "GROUP BY substr(o.orderDate, 1, 10), oi.productID")) {
+            pstmt.setString(1, fromDay);
+            pstmt.setString(2, nextDay);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO REPORT_DAILY_CATEGORY (day, category, units, revenue, orders) " +
+                "SELECT substr(o.orderDate, 1, 10), COALESCE(p.category, '" + UNCATEGORIZED + "'), SUM(oi.quantity), " +
+                "SUM(oi.quantity * oi.priceAtTimeOfOrder), COUNT(DISTINCT o.orderID) " +
+                "FROM ORDER_ENTITY o JOIN ORDER_ITEM oi ON oi.orderID = o.orderID " +
+                "JOIN PRODUCT p ON p.productID = oi.productID " +
+                "WHERE o.orderDate >= ? AND o.orderDate < ? AND o.order_status IN " + soldIn + " " +
+                "GROUP BY substr(o.orderDate, 1, 10), COALESCE(p.category, '" + UNCATEGORIZED + "')")) {
+            pstmt.setString(1, fromDay);
+            pstmt.setString(2, nextDay);
+            pstmt.executeUpdate();
+        }
+        return orders;
+    }
+
+    /**
+     * @return the day after the newest archived year, or null when no orders are archived
+     */
+    static LocalDate firstRebuildableDay(Connection conn) throws SQLException {
+        List<Path> files = OrderArchives.files(conn);
+        if (files.isEmpty()) {
+            return null;
+        }
+        // Newest year first, named orders_<year>.db
+        String name = files.get(0).getFileName().toString();
+        int year = Integer.parseInt(name.substring("orders_".length(), name.length() - ".db".length()));
+        return LocalDate.of(year + 1, 1, 1);
+    }
+
+    void ensureTables(Connection conn) throws SQLException {
+        if (tablesEnsured) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS REPORT_DAILY_STATUS (" +
+                         "day TEXT NOT NULL, status TEXT NOT NULL, orders INTEGER NOT NULL DEFAULT 0, " +
+                         "amount REAL NOT NULL DEFAULT 0, PRIMARY KEY (day, status)) WITHOUT ROWID");
+            stmt.execute("CREATE TABLE IF NOT EXISTS REPORT_DAILY_PRODUCT (" +
+                         "day TEXT NOT NULL, productID TEXT NOT NULL, units INTEGER NOT NULL DEFAULT 0, " +
+                         "revenue REAL NOT NULL DEFAULT 0, orders INTEGER NOT NULL DEFAULT 0, " +
+                         "PRIMARY KEY (day, productID)) WITHOUT ROWID");
+            stmt.execute("CREATE TABLE IF NOT EXISTS REPORT_DAILY_CATEGORY (" +
+                         "day TEXT NOT NULL, category TEXT NOT NULL, units INTEGER NOT NULL DEFAULT 0, " +
+                         "revenue REAL NOT NULL DEFAULT 0, orders INTEGER NOT NULL DEFAULT 0, " +
+                         "PRIMARY KEY (day, category)) WITHOUT ROWID");
+            // For the backfill's day ranges
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_entity_order_date ON ORDER_ENTITY(orderDate)");
+            tablesEnsured = true;
+        }
+    }
+
+    private static void addStatus(Connection conn, OrderFacts facts, int sign) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(STATUS_DELTA_SQL)) {
+            pstmt.setString(1, facts.day());
+            pstmt.setString(2, facts.status().name());
+            pstmt.setInt(3, sign);
+            pstmt.setDouble(4, sign * facts.amount());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void addItems(Connection conn, String orderId, String day, int sign) throws SQLException {
+        for (String sql : new String[] { PRODUCT_DELTA_SQL, CATEGORY_DELTA_SQL }) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, day);
+                pstmt.setInt(2, sign);
+                pstmt.setInt(3, sign);
+                pstmt.setInt(4, sign);
+                pstmt.setString(5, orderId);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    private static String soldStatusList() {
+        StringBuilder list = new StringBuilder("(");
+        for (OrderStatus status : SOLD_STATUSES) {
+            if (list.length() > 1) {
+                list.append(", ");
+            }
+            list.append('\'').append(status.name()).append('\'');
+        }
+        return list.append(')').toString();
+    }
+}
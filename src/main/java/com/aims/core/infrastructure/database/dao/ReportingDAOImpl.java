@@ -0,0 +1,211 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.dto.CategorySales;
+import com.aims.core.shared.dto.DailyRevenue;
+import com.aims.core.shared.dto.OrderStatusCount;
+import com.aims.core.shared.dto.ProductSales;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+public class ReportingDAOImpl implements IReportingDAO {
+
+    private final ReportRollups rollups = new ReportRollups();
+
+    private Connection getConnection() throws SQLException {
+        Connection conn = SQLiteConnector.getInstance().getConnection();
+        rollups.ensureTables(conn);
+        return conn;
+    }
+
+    @Override
+    public List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) throws SQLException {
+        String itemsSql = "SELECT day, SUM(units), SUM(revenue) FROM REPORT_DAILY_PRODUCT " +
+                          "WHERE day BETWEEN ? AND ? GROUP BY day";
+        String ordersSql = "SELECT day, SUM(orders), SUM(amount) FROM REPORT_DAILY_STATUS " +
+                           "WHERE day BETWEEN ? AND ? AND status IN " + soldStatusPlaceholders() + " GROUP BY day";
+        // day -> {units, itemRevenue, orders, amountPaid}
+        Map<String, double[]> days = new TreeMap<>();
+        try {
+            Connection conn = getConnection();
+            try (PreparedStatement pstmt = conn.prepareStatement(itemsSql)) {
+                bindRange(pstmt, from, to);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        double[] day = days.computeIfAbsent(rs.getString(1), d -> new double[4]);
+                        day[0] = rs.getLong(2);
+                        day[1] = rs.getDouble(3);
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(ordersSql)) {
+                bindRange(pstmt, from, to);
+                int index = 3;
+                for (OrderStatus status : ReportRollups.SOLD_STATUSES) {
+                    pstmt.setString(index++, status.name());
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        double[] day = days.computeIfAbsent(rs.getString(1), d -> new double[4]);
+                        day[2] = rs.getInt(2);
+                        day[3] = rs.getDouble(3);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+
+        List<DailyRevenue> revenue = new ArrayList<>(days.size());
+        for (Map.Entry<String, double[]> entry : days.entrySet()) {
+            double[] day = entry.getValue();
+            if (day[0] == 0 && day[2] == 0) {
+                continue; // Every order of the day was cancelled
+            }
+            revenue.add(new DailyRevenue(LocalDate.parse(entry.getKey()), (int) day[2], (long) day[0], day[1], day[3]));
+        }
+        return revenue;
+    }
+
+    @Override
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) throws SQLException {
+        String sql = "SELECT r.productID, p.title, r.units, r.revenue, r.orders FROM (" +
+                     "SELECT productID, SUM(units) AS units, SUM(revenue) AS revenue, SUM(orders) AS orders " +
+                     "FROM REPORT_DAILY_PRODUCT WHERE day BETWEEN ? AND ? GROUP BY productID HAVING SUM(units) > 0 " +
+                     "ORDER BY revenue DESC, productID LIMIT ?) r " +
+                     "LEFT JOIN PRODUCT p ON p.productID = r.productID ORDER BY r.revenue DESC, r.productID";
+        List<ProductSales> products = new ArrayList<>();
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            bindRange(pstmt, from, to);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(new ProductSales(rs.getString(1), rs.getString(2), rs.getLong(3), rs.getDouble(4), rs.getInt(5)));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return products;
+    }
+
+    @Override
+    public List<CategorySales> getCategorySales(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT category, SUM(units), SUM(revenue), SUM(orders) FROM REPORT_DAILY_CATEGORY " +
+                     "WHERE day BETWEEN ? AND ? GROUP BY category HAVING SUM(units) > 0 ORDER BY SUM(revenue) DESC, category";
+        List<String> categories = new ArrayList<>();
+        List<double[]> totals = new ArrayList<>();
+        double totalRevenue = 0;
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            bindRange(pstmt, from, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    categories.add(rs.getString(1));
+                    totals.add(new double[] { rs.getLong(2), rs.getDouble(3), rs.getInt(4) });
+                    totalRevenue += rs.getDouble(3);
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+
+        List<CategorySales> sales = new ArrayList<>(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            double[] total = totals.get(i);
+            double share = totalRevenue > 0 ? total[1] / totalRevenue : 0;
+            sales.add(new CategorySales(categories.get(i), (long) total[0], total[1], (int) total[2], share));
+        }
+        return sales;
+    }
+
+    @Override
+    public List<OrderStatusCount> getStatusCounts(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT status, SUM(orders), SUM(amount) FROM REPORT_DAILY_STATUS " +
+                     "WHERE day BETWEEN ? AND ? GROUP BY status HAVING SUM(orders) > 0 ORDER BY status";
+        List<OrderStatusCount> counts = new ArrayList<>();
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
+            bindRange(pstmt, from, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.add(new OrderStatusCount(OrderStatus.valueOf(rs.getString(1)), rs.getInt(2), rs.getDouble(3)));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+        return counts;
+    }
+
+    @Override
+    public int rebuildRollups(LocalDate from, LocalDate to) throws SQLException {
+        Connection conn = getConnection();
+        boolean previousAutoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false);
+            int orders = rollups.rebuild(conn, from, to);
+            conn.commit();
+            return orders;
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                SQLiteConnector.printSQLException(ex);
+            }
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(previousAutoCommit);
+            } catch (SQLException ex) {
+                SQLiteConnector.printSQLException(ex);
+            }
+        }
+    }
+
+    @Override
+    public LocalDate getFirstRebuildableDay() throws SQLException {
+        try {
+            return ReportRollups.firstRebuildableDay(getConnection());
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public LocalDate getFirstOrderDay() throws SQLException {
+        String sql = "SELECT substr(MIN(orderDate), 1, 10) FROM ORDER_ENTITY";
+        try (PreparedStatement pstmt = getConnection().prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() && rs.getString(1) != null ? LocalDate.parse(rs.getString(1)) : null;
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+
+    private static void bindRange(PreparedStatement pstmt, LocalDate from, LocalDate to) throws SQLException {
+        pstmt.setString(1, from.toString());
+        pstmt.setString(2, to.toString());
+    }
+
+    private static String soldStatusPlaceholders() {
+        return "(" + String.join(", ", Collections.nCopies(ReportRollups.SOLD_STATUSES.size(), "?")) + ")";
+    }
+}
@@ -4,16 +4,32 @@ import com.aims.core.entities.UserAccount;
 import com.aims.core.enums.UserStatus;
 import com.aims.core.infrastructure.database.SQLiteConnector;
 import com.aims.core.infrastructure.database.dao.IUserAccountDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Repository
 public class UserAccountDAOImpl implements IUserAccountDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserAccountDAOImpl.class);
+
+    // SQLite's default host-parameter limit is 999; stay well below it
+    private static final int MAX_IN_CLAUSE_PARAMS = 500;
+
+    // Indexes backing the admin filters are created once per process
+    private static volatile boolean adminIndexesEnsured = false;
+
     private Connection getConnection() throws SQLException {
         Connection conn = SQLiteConnector.getInstance().getConnection();
         if (conn == null || conn.isClosed()) {
@@ -103,6 +119,170 @@ public class UserAccountDAOImpl implements IUserAccountDAO {
         return users;
     }
 
+    @Override
+    public List<UserAccount> searchUsers(String keyword, UserStatus status, String roleId,
+                                         String sortBy, String sortOrder, int page, int pageSize) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT u.* FROM USER_ACCOUNT u");
+        appendUserFilters(sql, parameters, keyword, status, roleId);
+
+        // userID tie-breaker keeps paging stable when the sort column has duplicates
+        String direction = "DESC".equalsIgnoreCase(sortOrder) ? " DESC" : " ASC";
+        sql.append(" ORDER BY ").append(validateUserSortColumn(sortBy)).append(direction)
+           .append(", u.userID").append(direction);
+        sql.append(" LIMIT ? OFFSET ?");
+        parameters.add(Math.max(1, pageSize));
+        parameters.add((Math.max(1, page) - 1) * Math.max(1, pageSize));
+
+        List<UserAccount> users = new ArrayList<>();
+        Connection conn = getConnection();
+        ensureAdminIndexes(conn);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(mapResultSetToUserAccount(rs));
+                }
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+
+        if (!users.isEmpty()) {
+            List<String> userIds = new ArrayList<>(users.size());
+            for (UserAccount user : users) {
+                userIds.add(user.getUserId());
+            }
+            Map<String, Set<com.aims.core.entities.Role>> rolesByUser = getRolesForUsers(userIds);
+            for (UserAccount user : users) {
+                for (com.aims.core.entities.Role role : rolesByUser.getOrDefault(user.getUserId(), Set.of())) {
+                    user.addRole(role);
+                }
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public int countUsers(String keyword, UserStatus status, String roleId) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM USER_ACCOUNT u");
+        appendUserFilters(sql, parameters, keyword, status, roleId);
+
+        Connection conn = getConnection();
+        ensureAdminIndexes(conn);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            SQLiteConnector.printSQLException(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Set<com.aims.core.entities.Role>> getRolesForUsers(Collection<String> userIds) throws SQLException {
+        Map<String, Set<com.aims.core.entities.Role>> rolesByUser = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return rolesByUser;
+        }
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        for (String userId : uniqueIds) {
+            rolesByUser.put(userId, new HashSet<>());
+        }
+
+        Connection conn = getConnection();
+        for (int start = 0; start < uniqueIds.size(); start += MAX_IN_CLAUSE_PARAMS) {
+            List<String> chunk = uniqueIds.subList(start, Math.min(start + MAX_IN_CLAUSE_PARAMS, uniqueIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT ura.userID, r.roleID, r.roleName FROM USER_ROLE_ASSIGNMENT ura " +
+                         "JOIN ROLE r ON r.roleID = ura.roleID WHERE ura.userID IN (" + placeholders + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        com.aims.core.entities.Role role = new com.aims.core.entities.Role();
+                        role.setRoleId(rs.getString("roleID"));
+                        role.setRoleName(rs.getString("roleName"));
+                        rolesByUser.get(rs.getString("userID")).add(role);
+                    }
+                }
+            } catch (SQLException e) {
+                SQLiteConnector.printSQLException(e);
+                throw e;
+            }
+        }
+        return rolesByUser;
+    }
+
+    private void appendUserFilters(StringBuilder sql, List<Object> parameters,
+                                   String keyword, UserStatus status, String roleId) {
+        List<String> conditions = new ArrayList<>();
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            // SQLite LIKE is case-insensitive for ASCII; escape wildcards typed by the admin
+            String pattern = "%" + escapeLike(keyword.trim()) + "%";
+            conditions.add("(u.username LIKE ? ESCAPE '\\' OR u.email LIKE ? ESCAPE '\\')");
+            parameters.add(pattern);
+            parameters.add(pattern);
+        }
+        if (status != null) {
+            conditions.add("u.user_status = ?");
+            parameters.add(status.name());
+        }
+        if (roleId != null && !roleId.trim().isEmpty()) {
+            conditions.add("EXISTS (SELECT 1 FROM USER_ROLE_ASSIGNMENT ura WHERE ura.userID = u.userID AND ura.roleID = ?)");
+            parameters.add(roleId.trim());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Helper method to validate sort columns and prevent SQL injection
+    private String validateUserSortColumn(String sortBy) {
+        if (sortBy == null) {
+            return "u.username";
+        }
+        switch (sortBy.toLowerCase()) {
+            case "email":
+                return "u.email";
+            case "status":
+                return "u.user_status";
+            case "userid":
+                return "u.userID";
+            case "username":
+            default:
+                return "u.username";
+        }
+    }
+
+    private void ensureAdminIndexes(Connection conn) {
+        if (adminIndexesEnsured) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_account_status ON USER_ACCOUNT(user_status)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_role_assignment_role ON USER_ROLE_ASSIGNMENT(roleID, userID)");
+            adminIndexesEnsured = true;
+        } catch (SQLException e) {
+            // Queries still work without the indexes, just slower
+            logger.warn("Could not create admin indexes: {}", e.getMessage());
+        }
+    }
+
     @Override
     public void add(UserAccount user) throws SQLException {
         String sql = "INSERT INTO USER_ACCOUNT (userID, username, password_hash, email, user_status) VALUES (?, ?, ?, ?, ?)";
@@ -0,0 +1,14 @@
+-- V3__add_minor_unit_amounts.sql
+-- Migration script to add INTEGER minor-unit (hundredths of a dong) amount columns
+
+-- Orders, order items and payment transactions are read and written in minor units.
+-- The REAL columns are still written with the same amounts for SQL readers such as the report rollups.
+ALTER TABLE ORDER_ENTITY ADD COLUMN totalProductPriceExclVATMinor INTEGER;
+ALTER TABLE ORDER_ENTITY ADD COLUMN totalProductPriceInclVATMinor INTEGER;
+ALTER TABLE ORDER_ENTITY ADD COLUMN calculatedDeliveryFeeMinor INTEGER;
+ALTER TABLE ORDER_ENTITY ADD COLUMN totalAmountPaidMinor INTEGER;
+ALTER TABLE ORDER_ITEM ADD COLUMN priceAtTimeOfOrderMinor INTEGER;
+ALTER TABLE PAYMENT_TRANSACTION ADD COLUMN amountMinor INTEGER;
+
+-- Existing rows keep NULL here until DatabaseMigrationUtility.runMinorUnitMigration fills them in
+-- from the REAL columns, rounding as Money does; the DAOs read the REAL column while it is NULL
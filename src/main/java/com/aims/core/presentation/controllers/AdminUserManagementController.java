@@ -5,9 +5,15 @@ import com.aims.core.entities.UserAccount;
 import com.aims.core.entities.Role;
 import com.aims.core.enums.UserStatus;
 import com.aims.core.enums.UserRole; // For default roles or role checking
-// import com.aims.presentation.utils.AlertHelper;
+import com.aims.core.entities.UserRoleAssignment;
+import com.aims.core.presentation.utils.AlertHelper;
+import com.aims.core.presentation.utils.UIRefreshScheduler;
+import com.aims.core.shared.ServiceFactory;
+import com.aims.core.shared.utils.SearchResult;
 // import com.aims.presentation.utils.FXMLSceneManager;
-// import com.aims.common.utils.SearchResult; // If service returns paginated results
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -20,7 +26,11 @@ import javafx.scene.layout.HBox;
 import javafx.util.Callback;
 
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -68,23 +78,46 @@ public class AdminUserManagementController {
     private int totalUserPages = 1;
     private String currentAdminId; // ID of the logged-in admin
 
+    // Pages are fetched on demand; the next page is prefetched in the background.
+    // The cache only holds pages for the current filter and is dropped when it changes.
+    private static final int MAX_CACHED_USER_PAGES = 5;
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+    private static final String SEARCH_DEBOUNCE_KEY = "admin-user-search";
+    private final Map<Integer, SearchResult<UserAccount>> userPageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, SearchResult<UserAccount>> eldest) {
+            return size() > MAX_CACHED_USER_PAGES;
+        }
+    };
+    private final Map<String, String> roleIdsByName = new HashMap<>();
+    private String cachedFilterKey;
+    private long userLoadGeneration = 0;
+
     public AdminUserManagementController() {
         // userAccountService = new UserAccountServiceImpl(...); // DI
     }
 
     // public void setMainLayoutController(MainLayoutController mainLayoutController) { this.mainLayoutController = mainLayoutController; }
     // public void setSceneManager(FXMLSceneManager sceneManager) { this.sceneManager = sceneManager; }
-    // public void setUserAccountService(IUserAccountService userAccountService) { this.userAccountService = userAccountService; }
-    // public void setCurrentAdminId(String adminId) { this.currentAdminId = adminId; }
+    public void setUserAccountService(IUserAccountService userAccountService) { this.userAccountService = userAccountService; }
+    public void setCurrentAdminId(String adminId) { this.currentAdminId = adminId; }
 
 
     public void initialize() {
         // sceneManager = FXMLSceneManager.getInstance();
         setupUserTableColumns();
         statusFilterComboBox.setItems(FXCollections.observableArrayList(UserStatus.values()));
-        // TODO: Load role names/IDs into roleFilterComboBox from userAccountService.getAllRoles()
-        // List<Role> roles = userAccountService.getAllRoles(currentAdminId);
-        // roleFilterComboBox.setItems(FXCollections.observableArrayList(roles.stream().map(Role::getRoleName).collect(Collectors.toList())));
+        loadRoleFilterOptions();
+
+        // Search as the admin types, once typing pauses
+        searchUserField.textProperty().addListener((obs, oldText, newText) ->
+            UIRefreshScheduler.getInstance().scheduleDebounced(SEARCH_DEBOUNCE_KEY,
+                () -> Platform.runLater(() -> {
+                    currentUsersPage = 1;
+                    loadUsers();
+                }), SEARCH_DEBOUNCE_MS));
+        statusFilterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> handleSearchUserAction(null));
+        roleFilterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> handleSearchUserAction(null));
 
         loadUsers();
     }
@@ -96,15 +129,13 @@ public class AdminUserManagementController {
         rolesColumn.setCellValueFactory(cellData -> {
             UserAccount user = cellData.getValue();
             if (user != null && user.getRoleAssignments() != null && !user.getRoleAssignments().isEmpty()) {
-                // In a real app, user.getRoleAssignments() would be populated by the service/DAO
-                // For now, let's assume it's a Set<Role> or can be fetched
-                try {
-                    // Set<Role> roles = userAccountService.getUserRoles(user.getUserId()); // Fetch roles
-                    // return new SimpleStringProperty(roles.stream().map(Role::getRoleName).collect(Collectors.joining(", ")));
-                    return new SimpleStringProperty("Roles (Fetch Needed)"); // Placeholder
-                } catch (Exception e) {
-                    return new SimpleStringProperty("Error fetching roles");
-                }
+                // Role assignments are populated for the whole page by the search query
+                return new SimpleStringProperty(user.getRoleAssignments().stream()
+                        .map(UserRoleAssignment::getRole)
+                        .filter(Objects::nonNull)
+                        .map(Role::getRoleName)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
             }
             return new SimpleStringProperty("");
         });
@@ -183,59 +214,125 @@ public class AdminUserManagementController {
     }
 
     private void loadUsers() {
-        // if (userAccountService == null) {
-        //     AlertHelper.showErrorAlert("Service Error", "User account service is not available.");
-        //     return;
-        // }
-        // String searchTerm = searchUserField.getText();
-        // String roleFilter = roleFilterComboBox.getValue(); // This would be roleName or roleId
-        // UserStatus statusFilter = statusFilterComboBox.getValue();
-        //
-        // try {
-        //     // TODO: IUserAccountService needs a method like:
-        //     // SearchResult<UserAccount> searchUsers(String searchTerm, String roleFilter, UserStatus statusFilter, int page, int size, String adminId);
-        //     // For now, using getAll and filtering client-side (not efficient for large data)
-        //     List<UserAccount> allUsers = userAccountService.getAllUsers(currentAdminId);
-        //
-        //     // Client-side filtering (replace with server-side/DAO-level filtering)
-        //     List<UserAccount> filteredUsers = allUsers.stream()
-        //             .filter(user -> searchTerm == null || searchTerm.isEmpty() ||
-        //                              user.getUsername().toLowerCase().contains(searchTerm.toLowerCase()) ||
-        //                              user.getEmail().toLowerCase().contains(searchTerm.toLowerCase()))
-        //             .filter(user -> statusFilter == null || user.getUserStatus() == statusFilter)
-        //             // .filter(user -> roleFilter == null || roleFilter.isEmpty() ||
-        //             //                  userAccountService.getUserRoles(user.getUserId()).stream() // Inefficient to call service here per user
-        //             //                      .anyMatch(role -> role.getRoleName().equals(roleFilter)))
-        //             .collect(Collectors.toList());
-        //
-        //     // Manual pagination for client-side filtered list
-        //     int totalItems = filteredUsers.size();
-        //     this.totalUserPages = (int) Math.ceil((double) totalItems / USERS_PAGE_SIZE);
-        //     if (this.totalUserPages == 0) this.totalUserPages = 1;
-        //     if (this.currentUsersPage > this.totalUserPages) this.currentUsersPage = this.totalUserPages;
-        //
-        //     int fromIndex = (this.currentUsersPage - 1) * USERS_PAGE_SIZE;
-        //     int toIndex = Math.min(fromIndex + USERS_PAGE_SIZE, totalItems);
-        //     if (fromIndex > toIndex) fromIndex = Math.max(0, toIndex - USERS_PAGE_SIZE);
+        IUserAccountService service = resolveUserAccountService();
+        if (service == null) {
+            AlertHelper.showErrorDialog("Service Error", null, "User account service is not available.");
+            return;
+        }
 
+        String searchTerm = searchUserField.getText();
+        String roleName = roleFilterComboBox.getValue();
+        String roleId = roleName != null ? roleIdsByName.getOrDefault(roleName, roleName) : null;
+        UserStatus statusFilter = statusFilterComboBox.getValue();
 
-        //     userObservableList.setAll( (fromIndex <= toIndex) ? filteredUsers.subList(fromIndex, toIndex) : FXCollections.emptyObservableList());
-        //     updateUserPaginationControls(this.currentUsersPage, this.totalUserPages, totalItems);
-        //
-        //     if(userObservableList.isEmpty() && this.currentUsersPage == 1) {
-        //         usersTableView.setPlaceholder(new Label("No users found matching your criteria."));
-        //     }
-        //
-        // } catch (SQLException | AuthorizationException e) {
-        //     e.printStackTrace();
-        //     AlertHelper.showErrorAlert("Database Error", "Failed to load users: " + e.getMessage());
-        // }
-        System.out.println("loadUsers called - implement with actual service call, filtering, and pagination.");
-         // Dummy data for UI testing
-        // UserAccount u1 = new UserAccount("ADM001", "admin", "hash", "admin@aims.com", UserStatus.ACTIVE);
-        // UserAccount u2 = new UserAccount("PM001", "prodmanager", "hash", "pm@aims.com", UserStatus.ACTIVE);
-        // userObservableList.setAll(u1, u2);
-        // updateUserPaginationControls(1,1, userObservableList.size());
+        String filterKey = String.join("|", String.valueOf(searchTerm), String.valueOf(roleId), String.valueOf(statusFilter));
+        if (!filterKey.equals(cachedFilterKey)) {
+            userPageCache.clear();
+            cachedFilterKey = filterKey;
+        }
+
+        int page = currentUsersPage;
+        SearchResult<UserAccount> cached = userPageCache.get(page);
+        if (cached != null) {
+            showUserPage(cached);
+            prefetchUserPage(service, filterKey, searchTerm, statusFilter, roleId, page + 1, cached.totalPages());
+            return;
+        }
+
+        long generation = ++userLoadGeneration;
+        usersTableView.setPlaceholder(new Label("Loading users..."));
+        Task<SearchResult<UserAccount>> loadTask = new Task<>() {
+            @Override
+            protected SearchResult<UserAccount> call() throws Exception {
+                return service.searchUsers(currentAdminId, searchTerm, statusFilter, roleId,
+                        "username", "ASC", page, USERS_PAGE_SIZE);
+            }
+        };
+        loadTask.setOnSucceeded(e -> {
+            if (generation != userLoadGeneration) {
+                return; // superseded by a newer request
+            }
+            SearchResult<UserAccount> result = loadTask.getValue();
+            if (filterKey.equals(cachedFilterKey)) {
+                userPageCache.put(page, result);
+            }
+            showUserPage(result);
+            prefetchUserPage(service, filterKey, searchTerm, statusFilter, roleId, page + 1, result.totalPages());
+        });
+        loadTask.setOnFailed(e -> {
+            if (generation != userLoadGeneration) {
+                return;
+            }
+            Throwable error = loadTask.getException();
+            usersTableView.setPlaceholder(new Label("Failed to load users."));
+            AlertHelper.showErrorDialog("Database Error", null, "Failed to load users: " + (error != null ? error.getMessage() : "unknown error"));
+        });
+        startBackgroundTask(loadTask, "admin-user-page-loader");
+    }
+
+    private void showUserPage(SearchResult<UserAccount> result) {
+        int totalPages = Math.max(1, result.totalPages());
+        userObservableList.setAll(result.results());
+        updateUserPaginationControls(Math.min(result.currentPage(), totalPages), totalPages, result.totalResults());
+        if (userObservableList.isEmpty()) {
+            usersTableView.setPlaceholder(new Label("No users found matching your criteria."));
+        }
+    }
+
+    private void prefetchUserPage(IUserAccountService service, String filterKey, String searchTerm,
+                                  UserStatus statusFilter, String roleId, int page, int totalPages) {
+        if (page > totalPages || userPageCache.containsKey(page)) {
+            return;
+        }
+        Task<SearchResult<UserAccount>> prefetchTask = new Task<>() {
+            @Override
+            protected SearchResult<UserAccount> call() throws Exception {
+                return service.searchUsers(currentAdminId, searchTerm, statusFilter, roleId,
+                        "username", "ASC", page, USERS_PAGE_SIZE);
+            }
+        };
+        prefetchTask.setOnSucceeded(e -> {
+            if (filterKey.equals(cachedFilterKey)) {
+                userPageCache.putIfAbsent(page, prefetchTask.getValue());
+            }
+        });
+        startBackgroundTask(prefetchTask, "admin-user-page-prefetch");
+    }
+
+    private void loadRoleFilterOptions() {
+        IUserAccountService service = resolveUserAccountService();
+        if (service == null) {
+            return;
+        }
+        Task<List<Role>> rolesTask = new Task<>() {
+            @Override
+            protected List<Role> call() throws Exception {
+                return service.getAllRoles(currentAdminId);
+            }
+        };
+        rolesTask.setOnSucceeded(e -> {
+            roleIdsByName.clear();
+            for (Role role : rolesTask.getValue()) {
+                roleIdsByName.put(role.getRoleName(), role.getRoleId());
+            }
+            roleFilterComboBox.setItems(FXCollections.observableArrayList(
+                    rolesTask.getValue().stream().map(Role::getRoleName).sorted().collect(Collectors.toList())));
+        });
+        rolesTask.setOnFailed(e -> System.err.println("AdminUserManagementController: Failed to load roles: " + rolesTask.getException()));
+        startBackgroundTask(rolesTask, "admin-role-loader");
+    }
+
+    private IUserAccountService resolveUserAccountService() {
+        if (userAccountService == null) {
+            userAccountService = ServiceFactory.getUserAccountService();
+        }
+        return userAccountService;
+    }
+
+    private void startBackgroundTask(Task<?> task, String threadName) {
+        Thread thread = new Thread(task, threadName);
+        thread.setDaemon(true);
+        thread.start();
     }
 
     private void updateUserPaginationControls(int current, int total, long totalItems) {
@@ -384,6 +481,7 @@ public class AdminUserManagementController {
      * Public method to allow child controllers (e.g., Add/Edit User forms) to trigger a refresh.
      */
     public void refreshUserList() {
+        userPageCache.clear();
         loadUsers();
     }
 }
\ No newline at end of file
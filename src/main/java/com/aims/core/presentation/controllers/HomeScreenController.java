@@ -4,6 +4,7 @@ import com.aims.core.application.services.IProductService;
 import com.aims.core.application.services.ICartService;
 import com.aims.core.entities.Product;
 import com.aims.core.shared.utils.SearchResult;
+import com.aims.core.presentation.utils.VirtualProductGrid;
 // import com.aims.presentation.utils.AlertHelper;
 // import com.aims.presentation.utils.FXMLSceneManager; // For navigation
 // import com.aims.MainLayoutController; // If this controller needs to interact with the main layout
@@ -11,8 +12,6 @@ import com.aims.core.shared.utils.SearchResult;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
@@ -26,7 +25,6 @@ import javafx.scene.text.TextAlignment;
 import javafx.concurrent.Task;
 import javafx.application.Platform;
 
-import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -65,6 +63,12 @@ public class HomeScreenController implements MainLayoutController.IChildControll
     private int currentPage = 1;
     private final int PAGE_SIZE = 20; // As per requirement for home/search
     private int totalPages = 1;
+    private boolean loadingNextPage = false;
+    // Bumped by every load that replaces the results; completions of older loads are dropped
+    private int loadGeneration = 0;
+
+    // Virtualized card grid hosted inside productFlowPane
+    private VirtualProductGrid productGrid;
 
     // Current filter/search state
     private String currentSearchTerm = "";
@@ -105,6 +109,11 @@ public class HomeScreenController implements MainLayoutController.IChildControll
         categoryComboBox.setOnAction(event -> handleFilterOrSortChange());
         sortByPriceComboBox.setOnAction(event -> handleFilterOrSortChange());
 
+        // Only visible cards are materialized; further pages are appended on scroll
+        productGrid = new VirtualProductGrid(scrollPane, this::bindProductCard);
+        productGrid.setCardSizeConstraints(280, 350, 1.3);
+        productGrid.setOnNearEnd(this::loadNextPage);
+
         // Debug layout - Check sizes after UI is rendered
         javafx.application.Platform.runLater(() -> {
             if (productFlowPane != null && productFlowPane.getScene() != null) {
@@ -162,7 +171,23 @@ public class HomeScreenController implements MainLayoutController.IChildControll
     }
 
     private void loadProducts() {
-        System.out.println("HomeScreenController.loadProducts: Starting with page=" + currentPage);
+        loadProducts(false);
+    }
+
+    /**
+     * Appends the next page to the grid when the user scrolls near the end
+     * of the loaded results.
+     */
+    private void loadNextPage() {
+        if (loadingNextPage || currentPage >= totalPages || productGrid.getItemCount() == 0) {
+            return;
+        }
+        loadProducts(true);
+    }
+
+    private void loadProducts(boolean append) {
+        final int page = append ? currentPage + 1 : currentPage;
+        System.out.println("HomeScreenController.loadProducts: Starting with page=" + page + (append ? " (append)" : ""));
         
         if (productService == null) {
             System.err.println("ProductService is null - attempting recovery");
@@ -174,11 +199,16 @@ public class HomeScreenController implements MainLayoutController.IChildControll
         }
         
         try {
-            // Clear existing products and show loading
-            Platform.runLater(() -> {
-                productFlowPane.getChildren().clear();
-                showLoadingIndicator();
-            });
+            if (append) {
+                loadingNextPage = true;
+            } else {
+                // A page append still in flight belongs to the old results
+                loadGeneration++;
+                loadingNextPage = false;
+                // Clear existing products and show loading
+                Platform.runLater(this::showLoadingIndicator);
+            }
+            final int generation = loadGeneration;
             
             // Load products asynchronously
             Task<SearchResult<Product>> loadTask = new Task<SearchResult<Product>>() {
@@ -212,26 +242,42 @@ public class HomeScreenController implements MainLayoutController.IChildControll
                     }
                     
                     return productService.advancedSearchProducts(
-                        keyword, category, sortBy, sortOrder, currentPage, PAGE_SIZE);
+                        keyword, category, sortBy, sortOrder, page, PAGE_SIZE);
                 }
                 
                 @Override
                 protected void succeeded() {
                     Platform.runLater(() -> {
+                        if (generation != loadGeneration) {
+                            return; // Filters changed while loading
+                        }
                         SearchResult<Product> result = getValue();
-                        hideLoadingIndicator();
-                        populateProductCards(result.results());
+                        if (append) {
+                            loadingNextPage = false;
+                            productGrid.appendItems(result.results());
+                        } else {
+                            hideLoadingIndicator();
+                            populateProductCards(result.results());
+                        }
                         totalPages = result.totalPages();
-                        updatePaginationControls(currentPage, totalPages, (int) result.totalResults());
+                        updatePaginationControls(page, totalPages, (int) result.totalResults());
                     });
                 }
                 
                 @Override
                 protected void failed() {
                     Platform.runLater(() -> {
-                        hideLoadingIndicator();
                         System.err.println("Task failed: " + getException().getMessage());
                         getException().printStackTrace();
+                        if (generation != loadGeneration) {
+                            return;
+                        }
+                        if (append) {
+                            // Keep what is already shown; scrolling again will retry
+                            loadingNextPage = false;
+                            return;
+                        }
+                        hideLoadingIndicator();
                         // Fallback to direct database access
                         loadProductsDirectly();
                     });
@@ -241,6 +287,7 @@ public class HomeScreenController implements MainLayoutController.IChildControll
             new Thread(loadTask).start();
             
         } catch (Exception e) {
+            loadingNextPage = false;
             System.err.println("Error in loadProducts: " + e.getMessage());
             e.printStackTrace();
             showError("Error loading products. Please try again.");
@@ -286,36 +333,9 @@ public class HomeScreenController implements MainLayoutController.IChildControll
             return;
         }
         
-        for (Product product : products) {
-            try {
-                // Load product card FXML
-                FXMLLoader cardLoader = new FXMLLoader(getClass().getResource("/com/aims/presentation/views/partials/product_card.fxml"));
-                Parent cardNode = cardLoader.load();
-                
-                // Get controller and set data
-                ProductCardController cardController = cardLoader.getController();
-                cardController.setData(product);
-                
-                if (cartService != null) {
-                    cardController.setCartService(cartService);
-                }
-                if (productService != null) {
-                    cardController.setProductService(productService);
-                }
-                if (mainLayoutController != null) {
-                    cardController.setMainLayoutController(mainLayoutController);
-                }
-                
-                // Apply dynamic sizing based on screen dimensions
-                applyDynamicCardSizing(cardNode);
-                
-                // Add to flow pane
-                productFlowPane.getChildren().add(cardNode);
-                
-            } catch (Exception e) {
-                System.err.println("Error loading product card for: " + product.getTitle() + " - " + e.getMessage());
-            }
-        }
+        // Cards are created lazily by the grid for the visible rows only
+        productFlowPane.getChildren().setAll(productGrid);
+        productGrid.setItems(products);
         
         // Apply responsive layout after all cards are loaded
         javafx.application.Platform.runLater(() -> {
@@ -324,7 +344,24 @@ public class HomeScreenController implements MainLayoutController.IChildControll
             }
         });
         
-        System.out.println("HomeScreenController.populateProductCards: Successfully loaded " + productFlowPane.getChildren().size() + " product cards");
+        System.out.println("HomeScreenController.populateProductCards: Grid showing " + productGrid.getActiveCardCount() + " of " + products.size() + " product cards");
+    }
+    
+    /**
+     * Binds a product to a new or recycled card from the grid.
+     */
+    private void bindProductCard(ProductCardController cardController, Product product) {
+        cardController.setData(product);
+        
+        if (cartService != null) {
+            cardController.setCartService(cartService);
+        }
+        if (productService != null) {
+            cardController.setProductService(productService);
+        }
+        if (mainLayoutController != null) {
+            cardController.setMainLayoutController(mainLayoutController);
+        }
     }
     
     // Add visual feedback methods
@@ -401,31 +438,8 @@ public class HomeScreenController implements MainLayoutController.IChildControll
             // Calculate total pages
             totalPages = (int) Math.ceil((double) products.size() / PAGE_SIZE);
             
-            for (Product product : pageProducts) {
-                try {
-                    FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/aims/presentation/views/partials/product_card.fxml"));
-                    Parent productCardNode = loader.load();
-                    ProductCardController cardController = loader.getController();
-                    
-                    // Set data for the product card
-                    cardController.setData(product);
-                    // Set service references
-                    if (cartService != null) {
-                        cardController.setCartService(cartService);
-                    }
-                    if (productService != null) {
-                        cardController.setProductService(productService);
-                    }
-                    if (mainLayoutController != null) {
-                        cardController.setMainLayoutController(mainLayoutController);
-                    }
-                    productFlowPane.getChildren().add(productCardNode);
-                    
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    System.err.println("Error loading product card: " + e.getMessage());
-                }
-            }
+            productFlowPane.getChildren().setAll(productGrid);
+            productGrid.setItems(pageProducts);
             
             updatePaginationControls(currentPage, totalPages, products.size());
             
@@ -754,6 +768,11 @@ public class HomeScreenController implements MainLayoutController.IChildControll
             productFlowPane.setHgap(gap);
             productFlowPane.setVgap(gap);
             
+            // The grid resizes only the cards currently materialized
+            if (productGrid != null) {
+                productGrid.setLayoutMetrics(columns, gap);
+            }
+            
             System.out.println("HomeScreenController.updateProductCardSizes: Set " + columns + " columns with card width " + cardWidth + " and gap " + gap);
             
         } catch (Exception e) {
@@ -797,46 +816,4 @@ public class HomeScreenController implements MainLayoutController.IChildControll
             return "responsive-ultrawide";
         }
     }
-    
-    /**
-     * Apply dynamic sizing to product cards based on screen dimensions
-     */
-    private void applyDynamicCardSizing(Parent productCardNode) {
-        if (productFlowPane == null || productFlowPane.getScene() == null) {
-            return;
-        }
-        
-        try {
-            double containerWidth = productFlowPane.getWidth();
-            if (containerWidth <= 0 && productFlowPane.getScene() != null) {
-                containerWidth = productFlowPane.getScene().getWidth() - 100; // Account for margins
-            }
-            
-            if (containerWidth <= 0) {
-                containerWidth = 1200; // Default fallback width
-            }
-            
-            // Calculate optimal card dimensions using the existing method
-            int columns = calculateOptimalColumns(containerWidth);
-            double availableWidth = containerWidth - 20; // Account for padding
-            double cardWidth = Math.max(280, (availableWidth - (columns - 1) * 10) / columns); // Account for gaps
-            
-            // Set preferred card dimensions
-            if (productCardNode instanceof javafx.scene.layout.VBox) {
-                javafx.scene.layout.VBox cardVBox = (javafx.scene.layout.VBox) productCardNode;
-                cardVBox.setPrefWidth(cardWidth);
-                cardVBox.setMaxWidth(cardWidth + 100); // Allow some flexibility
-                
-                // Scale card height proportionally
-                double cardHeight = Math.max(350, cardWidth * 1.3);
-                cardVBox.setPrefHeight(cardHeight);
-                cardVBox.setMaxHeight(cardHeight + 50);
-                
-                System.out.println("HomeScreenController: Applied card size " + cardWidth + "x" + cardHeight + " for " + columns + " columns");
-            }
-            
-        } catch (Exception e) {
-            System.err.println("HomeScreenController.applyDynamicCardSizing: Error applying dynamic sizing: " + e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+}
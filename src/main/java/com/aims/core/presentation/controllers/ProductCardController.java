@@ -3,8 +3,10 @@ package com.aims.core.presentation.controllers;
 import com.aims.core.entities.Product;
 import com.aims.core.application.services.ICartService;
 import com.aims.core.presentation.utils.CartSessionManager;
+import com.aims.core.presentation.utils.DebouncedProductRefresh;
 import com.aims.core.presentation.utils.ProductStateManager;
 import com.aims.core.presentation.utils.StockLimitDialog;
+import com.aims.core.presentation.utils.UIRefreshScheduler;
 import com.aims.core.entities.Cart;
 import com.aims.core.entities.CartItem;
 // import com.aims.presentation.utils.AlertHelper;
@@ -123,12 +125,8 @@ public class ProductCardController implements ProductStateManager.ProductStateLi
      * Initialize method called by JavaFX after FXML loading
      */
     public void initialize() {
-        // Register for product state updates
-        if (!isStateListenerRegistered) {
-            ProductStateManager.addListener(this);
-            isStateListenerRegistered = true;
-            System.out.println("ProductCardController.initialize: Registered with ProductStateManager");
-        }
+        // Registration with ProductStateManager is deferred to setData() so that
+        // pre-built (pooled) cards that never receive a product hold no listener
     }
 
     /**
@@ -160,6 +158,13 @@ public class ProductCardController implements ProductStateManager.ProductStateLi
         // Set up responsive image sizing after card is fully initialized
         javafx.application.Platform.runLater(() -> updateImageSizeForCard());
 
+        // Register for product state updates once the card is bound to a product
+        if (!isStateListenerRegistered) {
+            ProductStateManager.addListener(this);
+            isStateListenerRegistered = true;
+            System.out.println("ProductCardController.setData: Registered with ProductStateManager");
+        }
+
         // CRITICAL FIX: Update product state cache for consistency
         if (product != null) {
             ProductStateManager.updateProduct(product);
@@ -405,38 +410,14 @@ public class ProductCardController implements ProductStateManager.ProductStateLi
     /**
      * Refreshes product data from database to ensure consistency across UI components.
      * This method prevents stock inconsistency issues between different views.
+     * The request is coalesced with other refreshes due in the same window; the fresh
+     * product arrives through ProductStateManager (see onProductUpdated).
      */
     private void refreshProductFromDatabase() {
         if (product == null || product.getProductId() == null) {
             return;
         }
-        
-        // Validate and initialize services if needed
-        validateAndInitializeServices();
-        
-        if (productService == null) {
-            System.err.println("ProductCardController.refreshProductFromDatabase: ProductService unavailable, cannot refresh");
-            return;
-        }
-        
-        try {
-            // Fetch fresh product data from database
-            Product refreshedProduct = productService.getProductById(product.getProductId());
-            if (refreshedProduct != null) {
-                System.out.println("ProductCardController.refreshProductFromDatabase: Refreshed " + refreshedProduct.getTitle() +
-                                 " - Stock: " + refreshedProduct.getQuantityInStock());
-                // Update UI with fresh data
-                setData(refreshedProduct);
-            } else {
-                System.err.println("ProductCardController.refreshProductFromDatabase: Product not found: " + product.getProductId());
-            }
-        } catch (SQLException e) {
-            System.err.println("ProductCardController.refreshProductFromDatabase: Database error: " + e.getMessage());
-            // Continue with existing data on error
-        } catch (Exception e) {
-            System.err.println("ProductCardController.refreshProductFromDatabase: Unexpected error: " + e.getMessage());
-            // Continue with existing data on error
-        }
+        DebouncedProductRefresh.requestRefresh(product.getProductId());
     }
 
     private void updateOutOfStockState() {
@@ -460,22 +441,10 @@ public class ProductCardController implements ProductStateManager.ProductStateLi
         addToCartButton.setText("Added!");
         
         // Reset after 1 second
-        javafx.concurrent.Task<Void> resetTask = new javafx.concurrent.Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                Thread.sleep(1000);
-                return null;
-            }
-            
-            @Override
-            protected void succeeded() {
-                javafx.application.Platform.runLater(() -> {
-                    addToCartButton.setStyle(originalStyle);
-                    updateAddToCartButtonState();
-                });
-            }
-        };
-        new Thread(resetTask).start();
+        UIRefreshScheduler.getInstance().runLaterOnFxThread(() -> {
+            addToCartButton.setStyle(originalStyle);
+            updateAddToCartButtonState();
+        }, 1000);
     }
 
     private void handleInventoryException(InventoryException e) {
@@ -529,24 +498,12 @@ public class ProductCardController implements ProductStateManager.ProductStateLi
         productAvailabilityLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
         
         // Reset after 2 seconds
-        javafx.concurrent.Task<Void> resetTask = new javafx.concurrent.Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                Thread.sleep(2000);
-                return null;
-            }
-            
-            @Override
-            protected void succeeded() {
-                javafx.application.Platform.runLater(() -> {
-                    addToCartButton.setStyle(originalStyle);
-                    productAvailabilityLabel.setText(originalAvailabilityText);
-                    productAvailabilityLabel.setStyle(originalAvailabilityStyle);
-                    updateAddToCartButtonState();
-                });
-            }
-        };
-        new Thread(resetTask).start();
+        UIRefreshScheduler.getInstance().runLaterOnFxThread(() -> {
+            addToCartButton.setStyle(originalStyle);
+            productAvailabilityLabel.setText(originalAvailabilityText);
+            productAvailabilityLabel.setStyle(originalAvailabilityStyle);
+            updateAddToCartButtonState();
+        }, 2000);
     }
 
     @FXML
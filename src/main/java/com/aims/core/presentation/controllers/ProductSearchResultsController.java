@@ -9,8 +9,6 @@ import com.aims.core.shared.utils.SearchResult;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
@@ -19,11 +17,11 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 
 import com.aims.core.presentation.utils.FXMLSceneManager; // Added for navigation
+import com.aims.core.presentation.utils.VirtualProductGrid;
 import com.aims.core.shared.constants.FXMLPaths; // Added for FXML paths
 
 public class ProductSearchResultsController {
@@ -64,6 +62,9 @@ public class ProductSearchResultsController {
     private String initialSearchTerm;
     private String initialCategory;
 
+    // Virtualized card grid hosted inside productFlowPane
+    private VirtualProductGrid productGrid;
+
     public ProductSearchResultsController() {
         // Constructor for FXML loading
     }
@@ -106,6 +107,10 @@ public class ProductSearchResultsController {
         // Add listeners for filter changes
         categoryComboBox.setOnAction(event -> handleFilterChange());
         sortByPriceComboBox.setOnAction(event -> handleFilterChange());
+
+        // Only the visible cards of the result page are materialized
+        productGrid = new VirtualProductGrid(scrollPane, this::bindProductCard);
+        productGrid.setCardSizeConstraints(280, 350, 1.3);
     }
 
     /**
@@ -183,32 +188,9 @@ public class ProductSearchResultsController {
                 return;
             }
 
-            // Create product cards with dynamic sizing
-            for (Product product : products) {
-                try {
-                    FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/aims/presentation/views/partials/product_card.fxml"));
-                    Parent productCardNode = loader.load();
-                    ProductCardController cardController = loader.getController();
-
-                    // Set data for the product card
-                    cardController.setData(product);
-                    if (cartService != null) {
-                        cardController.setCartService(cartService);
-                    }
-                    // Pass this controller to the card controller for navigation purposes
-                    cardController.setProductSearchResultsController(this);
-                    cardController.setMainLayoutController(mainLayoutController); // Ensure card has main layout for fallback
-
-                    // Apply dynamic sizing based on screen dimensions
-                    applyDynamicCardSizing(productCardNode);
-
-                    productFlowPane.getChildren().add(productCardNode);
-
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    System.err.println("Error loading product card: " + e.getMessage());
-                }
-            }
+            // Cards are created lazily by the grid for the visible rows only
+            productFlowPane.getChildren().setAll(productGrid);
+            productGrid.setItems(products);
             
             // Apply responsive layout after all cards are loaded
             javafx.application.Platform.runLater(() -> updateResponsiveLayout());
@@ -222,6 +204,19 @@ public class ProductSearchResultsController {
         }
     }
 
+    /**
+     * Binds a product to a new or recycled card from the grid.
+     */
+    private void bindProductCard(ProductCardController cardController, Product product) {
+        cardController.setData(product);
+        if (cartService != null) {
+            cardController.setCartService(cartService);
+        }
+        // Pass this controller to the card controller for navigation purposes
+        cardController.setProductSearchResultsController(this);
+        cardController.setMainLayoutController(mainLayoutController); // Ensure card has main layout for fallback
+    }
+
     private void updatePaginationControls(int total, int totalResults) {
         this.totalPages = total;
         if (totalResults == 0) {
@@ -365,48 +360,6 @@ public class ProductSearchResultsController {
         loadSearchedProducts();
     }
 
-    /**
-     * Apply dynamic sizing to product cards based on screen dimensions
-     */
-    private void applyDynamicCardSizing(Parent productCardNode) {
-        if (productFlowPane == null || productFlowPane.getScene() == null) {
-            return;
-        }
-        
-        try {
-            double containerWidth = productFlowPane.getWidth();
-            if (containerWidth <= 0 && productFlowPane.getScene() != null) {
-                containerWidth = productFlowPane.getScene().getWidth() - 100; // Account for margins
-            }
-            
-            if (containerWidth <= 0) {
-                containerWidth = 1200; // Default fallback width
-            }
-            
-            // Calculate optimal card dimensions
-            int columns = calculateOptimalColumns(containerWidth);
-            double availableWidth = containerWidth - 20; // Account for padding
-            double cardWidth = Math.max(280, (availableWidth - (columns - 1) * 10) / columns); // Account for gaps
-            
-            // Set preferred card dimensions
-            if (productCardNode instanceof javafx.scene.layout.VBox) {
-                javafx.scene.layout.VBox cardVBox = (javafx.scene.layout.VBox) productCardNode;
-                cardVBox.setPrefWidth(cardWidth);
-                cardVBox.setMaxWidth(cardWidth + 100); // Allow some flexibility
-                
-                // Scale card height proportionally
-                double cardHeight = Math.max(350, cardWidth * 1.3);
-                cardVBox.setPrefHeight(cardHeight);
-                cardVBox.setMaxHeight(cardHeight + 50);
-                
-                System.out.println("ProductSearchResultsController: Applied card size " + cardWidth + "x" + cardHeight + " for " + columns + " columns");
-            }
-            
-        } catch (Exception e) {
-            System.err.println("ProductSearchResultsController.applyDynamicCardSizing: Error applying dynamic sizing: " + e.getMessage());
-        }
-    }
-    
     /**
      * Update responsive layout for the entire product grid
      */
@@ -433,11 +386,9 @@ public class ProductSearchResultsController {
             // Update responsive style classes
             updateResponsiveStyleClasses(containerWidth);
             
-            // Re-apply sizing to all existing cards
-            for (javafx.scene.Node child : productFlowPane.getChildren()) {
-                if (child instanceof Parent) {
-                    applyDynamicCardSizing((Parent) child);
-                }
+            // Resize only the cards currently materialized by the grid
+            if (productGrid != null) {
+                productGrid.setLayoutMetrics(calculateOptimalColumns(containerWidth), gap);
             }
             
             System.out.println("ProductSearchResultsController.updateResponsiveLayout: Applied gap " + gap + "px for width " + containerWidth);
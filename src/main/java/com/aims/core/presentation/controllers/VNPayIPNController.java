@@ -16,6 +16,10 @@ import com.aims.core.infrastructure.database.dao.IOrderItemDAO;
 import com.aims.core.infrastructure.database.dao.OrderItemDAOImpl;
 import com.aims.core.infrastructure.database.dao.ICardDetailsDAO;
 import com.aims.core.infrastructure.database.dao.CardDetailsDAOImpl;
+import com.aims.core.infrastructure.database.dao.PaymentSettlementDAOImpl;
+import com.aims.core.application.impl.PaymentSettlementServiceImpl;
+import com.aims.core.application.services.IPaymentSettlementService;
+import com.aims.core.shared.dto.SettlementResult;
 import com.aims.core.entities.PaymentTransaction;
 import com.aims.core.entities.OrderEntity;
 import com.aims.core.enums.OrderStatus;
@@ -42,6 +46,7 @@ public class VNPayIPNController {
     private final IPaymentGatewayAdapter paymentGatewayAdapter;
     private final IPaymentTransactionDAO paymentTransactionDAO;
     private final IOrderEntityDAO orderDAO;
+    private final IPaymentSettlementService paymentSettlementService;
      public VNPayIPNController() {
         this.paymentGatewayAdapter = new VNPayGatewayAdapter();
         
@@ -58,6 +63,7 @@ public class VNPayIPNController {
             this.orderDAO,
             paymentMethodDAO
         );
+        this.paymentSettlementService = new PaymentSettlementServiceImpl(new PaymentSettlementDAOImpl(), orderItemDAO);
     }
     
     /**
@@ -161,8 +167,8 @@ public class VNPayIPNController {
             
             // Step 5: Validate amount with enhanced error handling
             try {
-                int expectedAmount = (int)(transaction.getAmount() * 100); // Convert to VNPay format
-                int receivedAmount = Integer.parseInt(vnpAmount);
+                long expectedAmount = transaction.getAmountMinor(); // VNPay sends VND x 100, i.e. minor units
+                long receivedAmount = Long.parseLong(vnpAmount);
                 if (expectedAmount != receivedAmount) {
                     logger.log(Level.SEVERE, "VNPay IPN: Amount mismatch for transaction: " + vnpTxnRef +
                               ". Expected: " + expectedAmount + ", Received: " + receivedAmount);
@@ -178,30 +184,30 @@ public class VNPayIPNController {
                 return response;
             }
             
-            // Step 6: Update transaction status based on VNPay response with enhanced error handling
-            try {
-                updateTransactionStatus(transaction, vnpResponseCode, vnpTransactionNo, vnpBankCode, vnpPayDate);
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "VNPay IPN: Error updating transaction status for: " + vnpTxnRef, e);
-                response.put("RspCode", "99");
-                response.put("Message", "Database error");
-                return response;
-            }
-            
-            // Step 7: Update order status if payment successful with enhanced error handling
+            // Step 6: Settle the payment result - transaction record, stock, invoice and
+            // order status are committed together, so VNPay's retry finds either all or none of them
             try {
+                applyTransactionResult(transaction, vnpResponseCode, vnpTransactionNo, vnpBankCode, vnpPayDate);
                 if ("00".equals(vnpResponseCode)) {
-                    updateOrderStatus(transaction.getOrder(), OrderStatus.APPROVED);
-                    logger.log(Level.INFO, "VNPay IPN: Payment successful for order: " + transaction.getOrder().getOrderId());
+                    SettlementResult settlement = paymentSettlementService.settlePaidOrder(
+                        transaction.getOrder(), transaction, OrderStatus.APPROVED);
+                    if (settlement.outcome() == SettlementResult.Outcome.INSUFFICIENT_STOCK) {
+                        logger.log(Level.SEVERE, "VNPay IPN: Payment succeeded but product " + settlement.productId() +
+                                  " is short of stock; order " + transaction.getOrder().getOrderId() + " marked PAYMENT_FAILED for refund");
+                    } else {
+                        logger.log(Level.INFO, "VNPay IPN: Payment successful for order: " + transaction.getOrder().getOrderId() +
+                                  " (" + settlement.outcome() + ")");
+                    }
                 } else {
-                    updateOrderStatus(transaction.getOrder(), OrderStatus.PAYMENT_FAILED);
+                    paymentSettlementService.recordFailedPayment(transaction, OrderStatus.PAYMENT_FAILED);
                     logger.log(Level.WARNING, "VNPay IPN: Payment failed for order: " + transaction.getOrder().getOrderId() +
                                              " with code: " + vnpResponseCode);
                 }
             } catch (Exception e) {
-                logger.log(Level.SEVERE, "VNPay IPN: Error updating order status for: " + vnpTxnRef, e);
-                // Continue processing even if order status update fails
-                // The transaction status update is more critical
+                logger.log(Level.SEVERE, "VNPay IPN: Error settling payment for: " + vnpTxnRef, e);
+                response.put("RspCode", "99");
+                response.put("Message", "Database error");
+                return response;
             }
             
             // Step 8: Send success response to VNPay
@@ -270,55 +276,27 @@ public class VNPayIPNController {
     }
     
     /**
-     * Update payment transaction status with VNPay response data
-     */
-    private void updateTransactionStatus(PaymentTransaction transaction, String responseCode,
-                                       String vnpTransactionNo, String bankCode, String payDate) throws SQLException {
-        try {
-            // Map VNPay response code to internal status with detailed logging
-            String newStatus;
-            if ("00".equals(responseCode)) {
-                newStatus = "SUCCESS";
-                logger.log(Level.INFO, "VNPay IPN: Marking transaction as successful: " + transaction.getTransactionId());
-            } else {
-                newStatus = "FAILED";
-                logger.log(Level.WARNING, "VNPay IPN: Marking transaction as failed: " + transaction.getTransactionId() +
-                          " with VNPay code: " + responseCode);
-            }
-            
-            transaction.setTransactionStatus(newStatus);
-            transaction.setExternalTransactionId(vnpTransactionNo);
-            
-            // Enhanced transaction content with more details
-            String content = String.format("IPN processed - VNPay Code: %s, Bank: %s, PayDate: %s, ExternalTxnId: %s",
-                                          responseCode, bankCode, payDate, vnpTransactionNo);
-            transaction.setTransactionContent(content);
-            
-            paymentTransactionDAO.updateStatus(transaction.getTransactionId(), transaction.getTransactionStatus(), transaction.getExternalTransactionId());
-            
-            logger.log(Level.INFO, "VNPay IPN: Successfully updated transaction status: " + transaction.getTransactionId() + " -> " + newStatus);
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "VNPay IPN: Database error updating transaction status for: " + transaction.getTransactionId(), e);
-            throw e; // Re-throw to be handled by caller
-        }
-    }
-    
-    /**
-     * Update order status based on payment result
+     * Apply the VNPay response to the transaction; it is written by the settlement
      */
-    private void updateOrderStatus(OrderEntity order, OrderStatus status) throws SQLException {
-        try {
-            OrderStatus previousStatus = order.getOrderStatus();
-            order.setOrderStatus(status);
-            orderDAO.updateStatus(order.getOrderId(), status);
-            
-            logger.log(Level.INFO, "VNPay IPN: Successfully updated order status for: " + order.getOrderId() +
-                      " from " + previousStatus + " to " + status);
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "VNPay IPN: Database error updating order status for: " + order.getOrderId(), e);
-            throw e; // Re-throw to be handled by caller
+    private void applyTransactionResult(PaymentTransaction transaction, String responseCode,
+                                        String vnpTransactionNo, String bankCode, String payDate) {
+        // Map VNPay response code to internal status with detailed logging
+        String newStatus;
+        if ("00".equals(responseCode)) {
+            newStatus = "SUCCESS";
+            logger.log(Level.INFO, "VNPay IPN: Marking transaction as successful: " + transaction.getTransactionId());
+        } else {
+            newStatus = "FAILED";
+            logger.log(Level.WARNING, "VNPay IPN: Marking transaction as failed: " + transaction.getTransactionId() +
+                      " with VNPay code: " + responseCode);
         }
+        
+        transaction.setTransactionStatus(newStatus);
+        transaction.setExternalTransactionId(vnpTransactionNo);
+        
+        // Enhanced transaction content with more details
+        String content = String.format("IPN processed - VNPay Code: %s, Bank: %s, PayDate: %s, ExternalTxnId: %s",
+                                      responseCode, bankCode, payDate, vnpTransactionNo);
+        transaction.setTransactionContent(content);
     }
 }
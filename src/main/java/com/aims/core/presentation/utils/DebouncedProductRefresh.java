@@ -1,21 +1,29 @@
 package com.aims.core.presentation.utils;
 
-import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Utility class to debounce product refresh operations and prevent excessive database calls.
  * Useful when multiple UI components might trigger product refreshes simultaneously.
  * 
  * This addresses performance concerns in the stock availability persistence fix by
  * preventing rapid-fire database queries when multiple components request updates.
+ * 
+ * All scheduling is delegated to the shared {@link UIRefreshScheduler}, so no thread
+ * is created per product. Prefer {@link #requestRefresh(String)}, which batches all
+ * products due in the same window into one bulk fetch.
  */
 public class DebouncedProductRefresh {
     
-    private static final Map<String, Timer> refreshTimers = new ConcurrentHashMap<>();
     private static final int REFRESH_DELAY_MS = 300; // 300ms delay to batch requests
+    private static final String KEY_PREFIX = "product-refresh:";
+    
+    /**
+     * Request a coalesced reload of a product from the database. The fresh state is
+     * published through ProductStateManager.
+     * @param productId The product ID to refresh
+     */
+    public static void requestRefresh(String productId) {
+        UIRefreshScheduler.getInstance().requestProductRefresh(productId);
+    }
     
     /**
      * Schedule a debounced refresh for a specific product
@@ -23,36 +31,7 @@ public class DebouncedProductRefresh {
      * @param refreshAction The action to execute after the delay
      */
     public static void scheduleRefresh(String productId, Runnable refreshAction) {
-        if (productId == null || refreshAction == null) {
-            return;
-        }
-        
-        // Cancel any existing timer for this product
-        Timer existingTimer = refreshTimers.get(productId);
-        if (existingTimer != null) {
-            existingTimer.cancel();
-            System.out.println("DebouncedProductRefresh.scheduleRefresh: Cancelled existing timer for " + productId);
-        }
-        
-        // Schedule new refresh
-        Timer newTimer = new Timer();
-        newTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    System.out.println("DebouncedProductRefresh: Executing refresh for " + productId);
-                    refreshAction.run();
-                } catch (Exception e) {
-                    System.err.println("Error in debounced product refresh for " + productId + ": " + e.getMessage());
-                    e.printStackTrace();
-                } finally {
-                    refreshTimers.remove(productId);
-                }
-            }
-        }, REFRESH_DELAY_MS);
-        
-        refreshTimers.put(productId, newTimer);
-        System.out.println("DebouncedProductRefresh.scheduleRefresh: Scheduled refresh for " + productId + " in " + REFRESH_DELAY_MS + "ms");
+        scheduleRefresh(productId, refreshAction, REFRESH_DELAY_MS);
     }
     
     /**
@@ -65,29 +44,8 @@ public class DebouncedProductRefresh {
         if (productId == null || refreshAction == null) {
             return;
         }
-        
-        // Cancel any existing timer for this product
-        Timer existingTimer = refreshTimers.get(productId);
-        if (existingTimer != null) {
-            existingTimer.cancel();
-        }
-        
-        // Schedule new refresh with custom delay
-        Timer newTimer = new Timer();
-        newTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    refreshAction.run();
-                } catch (Exception e) {
-                    System.err.println("Error in debounced product refresh for " + productId + ": " + e.getMessage());
-                } finally {
-                    refreshTimers.remove(productId);
-                }
-            }
-        }, delayMs);
-        
-        refreshTimers.put(productId, newTimer);
+        // Replaces (and cancels) any pending refresh for the same product
+        UIRefreshScheduler.getInstance().scheduleDebounced(KEY_PREFIX + productId, refreshAction, delayMs);
     }
     
     /**
@@ -95,9 +53,7 @@ public class DebouncedProductRefresh {
      * @param productId The product ID
      */
     public static void cancelRefresh(String productId) {
-        Timer timer = refreshTimers.remove(productId);
-        if (timer != null) {
-            timer.cancel();
+        if (productId != null && UIRefreshScheduler.getInstance().cancelDebounced(KEY_PREFIX + productId)) {
             System.out.println("DebouncedProductRefresh.cancelRefresh: Cancelled refresh for " + productId);
         }
     }
@@ -106,11 +62,7 @@ public class DebouncedProductRefresh {
      * Cancel all pending refreshes
      */
     public static void cancelAllRefreshes() {
-        for (Map.Entry<String, Timer> entry : refreshTimers.entrySet()) {
-            entry.getValue().cancel();
-        }
-        int cancelled = refreshTimers.size();
-        refreshTimers.clear();
+        int cancelled = UIRefreshScheduler.getInstance().cancelAllDebounced();
         System.out.println("DebouncedProductRefresh.cancelAllRefreshes: Cancelled " + cancelled + " pending refreshes");
     }
     
@@ -120,7 +72,7 @@ public class DebouncedProductRefresh {
      * @return true if a refresh is pending, false otherwise
      */
     public static boolean isPendingRefresh(String productId) {
-        return refreshTimers.containsKey(productId);
+        return productId != null && UIRefreshScheduler.getInstance().isDebouncedPending(KEY_PREFIX + productId);
     }
     
     /**
@@ -128,7 +80,8 @@ public class DebouncedProductRefresh {
      * @return Number of pending refreshes
      */
     public static int getPendingRefreshCount() {
-        return refreshTimers.size();
+        UIRefreshScheduler scheduler = UIRefreshScheduler.getInstance();
+        return scheduler.getPendingDebouncedCount() + scheduler.getPendingProductRefreshCount();
     }
     
     /**
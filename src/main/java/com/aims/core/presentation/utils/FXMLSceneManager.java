@@ -94,9 +94,10 @@ public class FXMLSceneManager {
                 throw new IOException("FXML resource not found: " + fxmlPath);
             }
             
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Node root = loader.load();
-            T controller = loader.getController();
+            // Templates are cached and common views come from a pre-built pool
+            LoadedFXML<T> loaded = FXMLViewFactory.getInstance().load(fxmlPath);
+            Node root = loaded.getRoot();
+            T controller = loaded.getController();
             
             logger.info("FXMLSceneManager.loadFXMLWithController: FXML loaded successfully - Controller: " +
                 (controller != null ? controller.getClass().getSimpleName() : "null"));
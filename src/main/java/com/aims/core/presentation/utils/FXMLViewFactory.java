@@ -0,0 +1,339 @@
+package com.aims.core.presentation.utils;
+
+import com.aims.core.shared.constants.FXMLPaths;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Central factory for instantiating FXML views.
+ *
+ * Parsing an FXML document is dominated by resource lookup, XML reading and
+ * controller reflection. This factory removes the repeated part of that work:
+ * - FXML templates (resolved URL plus raw bytes) are read once and cached
+ * - Views registered with a prototype pool are instantiated ahead of time on
+ *   the FX thread during idle pulses and handed out on request
+ * - Pools are topped up again in the background after being drained
+ * - Per-view instantiation times and pool hit/miss counts are recorded
+ *
+ * Only views whose FXML/initialize() do not depend on injected services or
+ * per-use state may be pooled, since a pooled instance is created before the
+ * caller knows what it will be used for.
+ */
+public class FXMLViewFactory {
+
+    private static final Logger logger = Logger.getLogger(FXMLViewFactory.class.getName());
+
+    private static FXMLViewFactory instance;
+
+    // Number of pooled instances built per FX pulse while refilling
+    private static final int REFILL_BATCH_SIZE = 5;
+
+    // Product grids show up to a page of cards at once
+    private static final int PRODUCT_CARD_POOL_SIZE = 40;
+
+    private final Map<String, FXMLTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentLinkedDeque<FXMLSceneManager.LoadedFXML<?>>> pools = new ConcurrentHashMap<>();
+    private final Map<String, Integer> poolTargets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicBoolean> refillScheduled = new ConcurrentHashMap<>();
+    private final Map<String, ViewLoadStats> statistics = new ConcurrentHashMap<>();
+
+    private final ExecutorService backgroundExecutor;
+    private volatile boolean shutdown = false;
+
+    /**
+     * Cached, already-resolved FXML document.
+     */
+    private static final class FXMLTemplate {
+        final URL location;
+        final byte[] content;
+
+        FXMLTemplate(URL location, byte[] content) {
+            this.location = location;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Load statistics for a single FXML path.
+     */
+    public static class ViewLoadStats {
+        private final AtomicLong instantiations = new AtomicLong();
+        private final AtomicLong totalInstantiationNanos = new AtomicLong();
+        private final AtomicLong maxInstantiationNanos = new AtomicLong();
+        private final AtomicLong poolHits = new AtomicLong();
+        private final AtomicLong poolMisses = new AtomicLong();
+        private volatile long templateReadNanos = 0;
+
+        void recordInstantiation(long nanos) {
+            instantiations.incrementAndGet();
+            totalInstantiationNanos.addAndGet(nanos);
+            maxInstantiationNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getInstantiations() {
+            return instantiations.get();
+        }
+
+        public double getAverageInstantiationMillis() {
+            long count = instantiations.get();
+            return count == 0 ? 0.0 : totalInstantiationNanos.get() / (double) count / 1_000_000.0;
+        }
+
+        public double getMaxInstantiationMillis() {
+            return maxInstantiationNanos.get() / 1_000_000.0;
+        }
+
+        public double getTemplateReadMillis() {
+            return templateReadNanos / 1_000_000.0;
+        }
+
+        public long getPoolHits() {
+            return poolHits.get();
+        }
+
+        public long getPoolMisses() {
+            return poolMisses.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("instantiations=%d, avg=%.2fms, max=%.2fms, templateRead=%.2fms, poolHits=%d, poolMisses=%d",
+                getInstantiations(), getAverageInstantiationMillis(), getMaxInstantiationMillis(),
+                getTemplateReadMillis(), getPoolHits(), getPoolMisses());
+        }
+    }
+
+    private FXMLViewFactory() {
+        this.backgroundExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "fxml-view-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        registerPool(FXMLPaths.PRODUCT_CARD, PRODUCT_CARD_POOL_SIZE);
+        registerPool(FXMLPaths.HOME_SCREEN, 1);
+        registerPool(FXMLPaths.PRODUCT_SEARCH_RESULTS_SCREEN, 1);
+        registerPool(FXMLPaths.PRODUCT_DETAIL_SCREEN, 1);
+    }
+
+    public static synchronized FXMLViewFactory getInstance() {
+        if (instance == null) {
+            instance = new FXMLViewFactory();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a prototype pool for the given FXML path.
+     *
+     * @param fxmlPath   classpath location of the FXML document
+     * @param targetSize number of ready instances to keep around
+     */
+    public void registerPool(String fxmlPath, int targetSize) {
+        if (targetSize <= 0) {
+            pools.remove(fxmlPath);
+            poolTargets.remove(fxmlPath);
+            return;
+        }
+        poolTargets.put(fxmlPath, targetSize);
+        pools.computeIfAbsent(fxmlPath, k -> new ConcurrentLinkedDeque<>());
+        refillScheduled.computeIfAbsent(fxmlPath, k -> new AtomicBoolean(false));
+    }
+
+    /**
+     * Returns a freshly loaded view for the given path, taking a pre-built
+     * instance from the prototype pool when one is available.
+     * Must be called on the JavaFX application thread.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> FXMLSceneManager.LoadedFXML<T> load(String fxmlPath) throws IOException {
+        ViewLoadStats stats = statsFor(fxmlPath);
+        ConcurrentLinkedDeque<FXMLSceneManager.LoadedFXML<?>> pool = pools.get(fxmlPath);
+
+        if (pool != null) {
+            FXMLSceneManager.LoadedFXML<?> pooled = pool.pollFirst();
+            scheduleRefill(fxmlPath);
+            if (pooled != null) {
+                stats.poolHits.incrementAndGet();
+                return (FXMLSceneManager.LoadedFXML<T>) pooled;
+            }
+            stats.poolMisses.incrementAndGet();
+        }
+
+        return instantiate(fxmlPath);
+    }
+
+    /**
+     * Reads the templates of the main screens and fills the prototype pools
+     * without blocking the caller. Intended to run right after the primary
+     * stage is shown.
+     */
+    public void preWarmInBackground() {
+        if (shutdown) {
+            return;
+        }
+        String[] warmPaths = {
+            FXMLPaths.HOME_SCREEN,
+            FXMLPaths.PRODUCT_SEARCH_RESULTS_SCREEN,
+            FXMLPaths.PRODUCT_DETAIL_SCREEN,
+            FXMLPaths.PRODUCT_CARD,
+            FXMLPaths.CART_SCREEN,
+            FXMLPaths.CART_ITEM_ROW,
+            FXMLPaths.ORDER_ITEM_ROW
+        };
+        backgroundExecutor.submit(() -> {
+            long start = System.nanoTime();
+            for (String path : warmPaths) {
+                try {
+                    getTemplate(path);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "FXMLViewFactory.preWarmInBackground: Could not read template " + path, e);
+                }
+            }
+            logger.info(String.format("FXMLViewFactory.preWarmInBackground: %d templates cached in %.2fms",
+                templates.size(), (System.nanoTime() - start) / 1_000_000.0));
+            for (String path : poolTargets.keySet()) {
+                scheduleRefill(path);
+            }
+        });
+    }
+
+    /**
+     * Returns a snapshot of per-view load statistics, keyed by FXML path.
+     */
+    public Map<String, ViewLoadStats> getLoadStatistics() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(statistics));
+    }
+
+    /**
+     * Returns the number of ready instances currently pooled for a path.
+     */
+    public int getPooledCount(String fxmlPath) {
+        ConcurrentLinkedDeque<FXMLSceneManager.LoadedFXML<?>> pool = pools.get(fxmlPath);
+        return pool != null ? pool.size() : 0;
+    }
+
+    public void logLoadStatistics() {
+        statistics.forEach((path, stats) -> logger.info("FXMLViewFactory stats [" + path + "]: " + stats));
+    }
+
+    /**
+     * Stops background pre-warming and drops pooled instances.
+     */
+    public void shutdown() {
+        shutdown = true;
+        backgroundExecutor.shutdownNow();
+        try {
+            backgroundExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pools.values().forEach(ConcurrentLinkedDeque::clear);
+        logLoadStatistics();
+    }
+
+    private <T> FXMLSceneManager.LoadedFXML<T> instantiate(String fxmlPath) throws IOException {
+        FXMLTemplate template = getTemplate(fxmlPath);
+        long start = System.nanoTime();
+
+        FXMLLoader loader = new FXMLLoader();
+        loader.setLocation(template.location);
+        Node root;
+        try (InputStream in = new ByteArrayInputStream(template.content)) {
+            root = loader.load(in);
+        }
+        T controller = loader.getController();
+
+        statsFor(fxmlPath).recordInstantiation(System.nanoTime() - start);
+        return new FXMLSceneManager.LoadedFXML<>(controller, root);
+    }
+
+    private FXMLTemplate getTemplate(String fxmlPath) throws IOException {
+        FXMLTemplate template = templates.get(fxmlPath);
+        if (template != null) {
+            return template;
+        }
+
+        long start = System.nanoTime();
+        URL location = FXMLViewFactory.class.getResource(fxmlPath);
+        if (location == null) {
+            throw new IOException("FXML resource not found: " + fxmlPath);
+        }
+        byte[] content;
+        try (InputStream in = location.openStream()) {
+            content = in.readAllBytes();
+        }
+        template = new FXMLTemplate(location, content);
+        FXMLTemplate existing = templates.putIfAbsent(fxmlPath, template);
+        statsFor(fxmlPath).templateReadNanos = System.nanoTime() - start;
+        return existing != null ? existing : template;
+    }
+
+    private ViewLoadStats statsFor(String fxmlPath) {
+        return statistics.computeIfAbsent(fxmlPath, k -> new ViewLoadStats());
+    }
+
+    /**
+     * Schedules pool instances to be built on the FX thread, a small batch
+     * per pulse, until the pool reaches its target size.
+     */
+    private void scheduleRefill(String fxmlPath) {
+        AtomicBoolean scheduled = refillScheduled.get(fxmlPath);
+        if (shutdown || scheduled == null || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Platform.runLater(() -> refillBatch(fxmlPath));
+        } catch (IllegalStateException e) {
+            // FX toolkit not running (e.g. headless tests) - pools stay empty
+            scheduled.set(false);
+        }
+    }
+
+    private void refillBatch(String fxmlPath) {
+        AtomicBoolean scheduled = refillScheduled.get(fxmlPath);
+        ConcurrentLinkedDeque<FXMLSceneManager.LoadedFXML<?>> pool = pools.get(fxmlPath);
+        Integer target = poolTargets.get(fxmlPath);
+        if (shutdown || pool == null || target == null) {
+            if (scheduled != null) scheduled.set(false);
+            return;
+        }
+
+        int built = 0;
+        try {
+            while (pool.size() < target && built < REFILL_BATCH_SIZE) {
+                pool.addLast(instantiate(fxmlPath));
+                built++;
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "FXMLViewFactory.refillBatch: Failed to pre-build " + fxmlPath
+                + ", disabling its pool", e);
+            registerPool(fxmlPath, 0);
+            scheduled.set(false);
+            return;
+        }
+
+        scheduled.set(false);
+        if (pool.size() < target) {
+            scheduleRefill(fxmlPath);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.aims.core.shared.exceptions.PaymentException;
 import com.aims.core.shared.exceptions.ValidationException;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,8 +15,9 @@ import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.UUID;
-import java.io.StringWriter;
-import java.io.PrintWriter;
+import com.aims.core.shared.logging.LogSampler;
+import com.aims.core.shared.logging.StructuredLogEvent;
+import com.aims.core.shared.logging.StructuredLogWriter;
 
 /**
  * PaymentFlowLogger
@@ -38,6 +38,13 @@ import java.io.PrintWriter;
  * Log Structure:
  * All logs follow a structured format: [TIMESTAMP] [LEVEL] [CATEGORY] [SESSION] [ORDER] MESSAGE
  * This enables easy parsing by log analysis tools and monitoring systems.
+ * With -Daims.log.format=JSON each entry is written as one compact JSON object instead.
+ *
+ * Entries are captured on the caller's thread and formatted by a StructuredLogWriter
+ * on its own thread (-Daims.log.async=false formats them inline). Nothing is built
+ * for entries below the logger's level, and high-rate categories are sampled below
+ * WARNING: 1 in 10 validation, button state and user action entries by default,
+ * overridden per category code with -Daims.log.sample.<CODE>=N (e.g. aims.log.sample.NAV=5).
  */
 public class PaymentFlowLogger {
     
@@ -51,9 +58,16 @@ public class PaymentFlowLogger {
     private final ConcurrentHashMap<String, PaymentFlowSession> activeSessions;
     private final AtomicLong sessionIdGenerator;
     
-    // Log formatting
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
-    private static final String LOG_DELIMITER = " | ";
+    // Log output
+    private final StructuredLogWriter output;
+    private final LogSampler sampler;
+    
+    // Default 1-in-N sampling of high-rate categories, by category code
+    private static final Map<String, Integer> DEFAULT_SAMPLE_RATES = Map.of(
+        "VAL", 10,
+        "BTN", 10,
+        "USR", 10
+    );
     
     /**
      * Payment flow session tracking
@@ -167,10 +181,19 @@ public class PaymentFlowLogger {
      * Private constructor for singleton
      */
     private PaymentFlowLogger() {
+        this(StructuredLogWriter.fromSystemProperties(logger), LogSampler.fromSystemProperties(DEFAULT_SAMPLE_RATES));
+    }
+    
+    /**
+     * Creates a logger with its own output, e.g. for benchmarks; the application uses getInstance()
+     */
+    public PaymentFlowLogger(StructuredLogWriter output, LogSampler sampler) {
         this.activeSessions = new ConcurrentHashMap<>();
         this.sessionIdGenerator = new AtomicLong(1);
+        this.output = output;
+        this.sampler = sampler;
         
-        logger.info("PaymentFlowLogger initialized successfully");
+        logger.info("PaymentFlowLogger initialized successfully (" + output.getStatisticsSummary() + ")");
     }
     
     /**
@@ -196,9 +219,11 @@ public class PaymentFlowLogger {
         
         activeSessions.put(sessionId, session);
         
-        logStructured(LogCategory.SYSTEM, LogSeverity.INFO, sessionId, orderId,
-            "Payment flow session started",
-            Map.of("session_id", sessionId, "order_id", orderId, "start_time", session.getStartTime()));
+        if (isEnabled(LogCategory.SYSTEM, LogSeverity.INFO)) {
+            logStructured(LogCategory.SYSTEM, LogSeverity.INFO, sessionId, orderId,
+                "Payment flow session started",
+                Map.of("session_id", sessionId, "order_id", orderId, "start_time", session.getStartTime()));
+        }
         
         return sessionId;
     }
@@ -208,7 +233,7 @@ public class PaymentFlowLogger {
      */
     public void endPaymentFlowSession(String sessionId, String reason) {
         PaymentFlowSession session = activeSessions.remove(sessionId);
-        if (session != null) {
+        if (session != null && isEnabled(LogCategory.SYSTEM, LogSeverity.INFO)) {
             Duration totalDuration = session.getTotalSessionDuration();
             
             logStructured(LogCategory.SYSTEM, LogSeverity.INFO, sessionId, session.getOrderId(),
@@ -217,7 +242,8 @@ public class PaymentFlowLogger {
                     "session_id", sessionId,
                     "reason", reason,
                     "total_duration_ms", totalDuration.toMillis(),
-                    "screen_durations", session.getScreenDurations()
+                    // Copied: the entry may be written after the session changes
+                    "screen_durations", new java.util.HashMap<>(session.getScreenDurations())
                 ));
         }
     }
@@ -230,6 +256,9 @@ public class PaymentFlowLogger {
         PaymentFlowSession session = activeSessions.get(sessionId);
         if (session != null) {
             session.navigateToScreen(toScreen);
+            if (!isEnabled(LogCategory.NAVIGATION, LogSeverity.INFO)) {
+                return;
+            }
             
             Duration navigationTime = Duration.ofMillis(System.currentTimeMillis() - 
                 session.getLastActivity().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
@@ -244,8 +273,8 @@ public class PaymentFlowLogger {
                 logData.putAll(navigationData);
             }
             
-            logStructured(LogCategory.NAVIGATION, LogSeverity.INFO, sessionId, session.getOrderId(),
-                String.format("Navigation: %s -> %s", fromScreen, toScreen), logData);
+            logStructured(LogCategory.NAVIGATION, LogSeverity.INFO, sessionId, session.getOrderId(), logData,
+                "Navigation: %s -> %s", fromScreen, toScreen);
         }
     }
     
@@ -260,18 +289,20 @@ public class PaymentFlowLogger {
         LogSeverity severity = passed ? LogSeverity.INFO : LogSeverity.WARNING;
         String result = passed ? "PASS" : "FAIL";
         
-        Map<String, Object> logData = new java.util.HashMap<>();
-        logData.put("validation_step", validationStep);
-        logData.put("result", result);
-        logData.put("details", details);
-        
-        if (validationData != null) {
-            logData.putAll(validationData);
+        if (isEnabled(LogCategory.VALIDATION, severity)) {
+            Map<String, Object> logData = new java.util.HashMap<>();
+            logData.put("validation_step", validationStep);
+            logData.put("result", result);
+            logData.put("details", details);
+            
+            if (validationData != null) {
+                logData.putAll(validationData);
+            }
+            
+            logStructured(LogCategory.VALIDATION, severity, sessionId, orderId, logData,
+                "Validation %s: %s - %s", result, validationStep, details);
         }
         
-        logStructured(LogCategory.VALIDATION, severity, sessionId, orderId,
-            String.format("Validation %s: %s - %s", result, validationStep, details), logData);
-        
         // Track validation metrics
         if (session != null) {
             session.getSessionData().put("last_validation_" + validationStep, result);
@@ -284,6 +315,9 @@ public class PaymentFlowLogger {
      */
     public void logButtonStateChange(String sessionId, String buttonId, String oldState, 
                                    String newState, String reason) {
+        if (!isEnabled(LogCategory.BUTTON_STATE, LogSeverity.DEBUG)) {
+            return;
+        }
         PaymentFlowSession session = activeSessions.get(sessionId);
         String orderId = session != null ? session.getOrderId() : "UNKNOWN";
         
@@ -295,9 +329,8 @@ public class PaymentFlowLogger {
             "timestamp", LocalDateTime.now()
         );
         
-        logStructured(LogCategory.BUTTON_STATE, LogSeverity.DEBUG, sessionId, orderId,
-            String.format("Button state change: %s (%s -> %s) - %s", buttonId, oldState, newState, reason),
-            logData);
+        logStructured(LogCategory.BUTTON_STATE, LogSeverity.DEBUG, sessionId, orderId, logData,
+            "Button state change: %s (%s -> %s) - %s", buttonId, oldState, newState, reason);
     }
     
     /**
@@ -305,7 +338,9 @@ public class PaymentFlowLogger {
      */
     public void logOrderStateTransition(String sessionId, OrderEntity orderBefore, OrderEntity orderAfter, 
                                       String transitionReason) {
-        PaymentFlowSession session = activeSessions.get(sessionId);
+        if (!isEnabled(LogCategory.ORDER_STATE, LogSeverity.INFO)) {
+            return;
+        }
         String orderId = orderAfter != null ? orderAfter.getOrderId() : 
                         (orderBefore != null ? orderBefore.getOrderId() : "UNKNOWN");
         
@@ -325,12 +360,13 @@ public class PaymentFlowLogger {
             logData.put("items_count", orderAfter.getOrderItems() != null ? orderAfter.getOrderItems().size() : 0);
         }
         
-        String message = String.format("Order state transition: %s", transitionReason);
         if (orderBefore != null && orderAfter != null) {
-            message += String.format(" (%s -> %s)", orderBefore.getOrderStatus(), orderAfter.getOrderStatus());
+            logStructured(LogCategory.ORDER_STATE, LogSeverity.INFO, sessionId, orderId, logData,
+                "Order state transition: %s (%s -> %s)", transitionReason, orderBefore.getOrderStatus(), orderAfter.getOrderStatus());
+        } else {
+            logStructured(LogCategory.ORDER_STATE, LogSeverity.INFO, sessionId, orderId, logData,
+                "Order state transition: %s", transitionReason);
         }
-        
-        logStructured(LogCategory.ORDER_STATE, LogSeverity.INFO, sessionId, orderId, message, logData);
     }
     
     /**
@@ -345,7 +381,7 @@ public class PaymentFlowLogger {
         logData.put("error_type", errorType);
         logData.put("error_class", error.getClass().getSimpleName());
         logData.put("error_message", error.getMessage());
-        logData.put("stack_trace", getStackTrace(error));
+        logData.put("stack_trace", error); // Rendered as the stack trace when written
         logData.put("timestamp", LocalDateTime.now());
         
         if (session != null) {
@@ -358,8 +394,8 @@ public class PaymentFlowLogger {
             logData.putAll(errorContext);
         }
         
-        logStructured(LogCategory.ERROR, LogSeverity.CRITICAL, sessionId, orderId,
-            String.format("CRITICAL ERROR: %s - %s", errorType, error.getMessage()), logData);
+        logStructured(LogCategory.ERROR, LogSeverity.CRITICAL, sessionId, orderId, logData,
+            "CRITICAL ERROR: %s - %s", errorType, error.getMessage());
         
         // For critical errors, also log to standard error output for immediate visibility
         System.err.println(String.format("[CRITICAL PAYMENT ERROR] Session: %s, Order: %s, Error: %s - %s",
@@ -371,6 +407,10 @@ public class PaymentFlowLogger {
      */
     public void logPaymentProcessing(String sessionId, String paymentMethod, String gatewayResponse, 
                                    boolean success, Map<String, Object> paymentData) {
+        LogSeverity severity = success ? LogSeverity.INFO : LogSeverity.ERROR;
+        if (!isEnabled(LogCategory.SYSTEM, severity)) {
+            return;
+        }
         PaymentFlowSession session = activeSessions.get(sessionId);
         String orderId = session != null ? session.getOrderId() : "UNKNOWN";
         
@@ -384,11 +424,8 @@ public class PaymentFlowLogger {
             logData.putAll(paymentData);
         }
         
-        LogSeverity severity = success ? LogSeverity.INFO : LogSeverity.ERROR;
-        String message = String.format("Payment processing %s: %s via %s", 
-            success ? "SUCCESS" : "FAILED", orderId, paymentMethod);
-        
-        logStructured(LogCategory.SYSTEM, severity, sessionId, orderId, message, logData);
+        logStructured(LogCategory.SYSTEM, severity, sessionId, orderId, logData,
+            "Payment processing %s: %s via %s", success ? "SUCCESS" : "FAILED", orderId, paymentMethod);
     }
     
     /**
@@ -396,6 +433,11 @@ public class PaymentFlowLogger {
      */
     public void logPerformanceMetrics(String sessionId, String operation, Duration duration, 
                                     Map<String, Object> metrics) {
+        // Flag slow operations
+        LogSeverity severity = duration.toMillis() > 5000 ? LogSeverity.WARNING : LogSeverity.DEBUG;
+        if (!isEnabled(LogCategory.PERFORMANCE, severity)) {
+            return;
+        }
         PaymentFlowSession session = activeSessions.get(sessionId);
         String orderId = session != null ? session.getOrderId() : "UNKNOWN";
         
@@ -408,11 +450,8 @@ public class PaymentFlowLogger {
             logData.putAll(metrics);
         }
         
-        // Flag slow operations
-        LogSeverity severity = duration.toMillis() > 5000 ? LogSeverity.WARNING : LogSeverity.DEBUG;
-        String message = String.format("Performance: %s completed in %dms", operation, duration.toMillis());
-        
-        logStructured(LogCategory.PERFORMANCE, severity, sessionId, orderId, message, logData);
+        logStructured(LogCategory.PERFORMANCE, severity, sessionId, orderId, logData,
+            "Performance: %s completed in %dms", operation, duration.toMillis());
     }
     
     /**
@@ -432,8 +471,8 @@ public class PaymentFlowLogger {
             logData.putAll(securityContext);
         }
         
-        logStructured(LogCategory.SECURITY, LogSeverity.WARNING, sessionId, orderId,
-            String.format("SECURITY EVENT: %s - %s", eventType, description), logData);
+        logStructured(LogCategory.SECURITY, LogSeverity.WARNING, sessionId, orderId, logData,
+            "SECURITY EVENT: %s - %s", eventType, description);
         
         // Security events also get immediate visibility
         System.out.println(String.format("[SECURITY] Session: %s, Order: %s, Event: %s - %s",
@@ -445,6 +484,12 @@ public class PaymentFlowLogger {
      */
     public void logUserAction(String sessionId, String action, Map<String, Object> actionContext) {
         PaymentFlowSession session = activeSessions.get(sessionId);
+        if (!isEnabled(LogCategory.USER_ACTION, LogSeverity.DEBUG)) {
+            if (session != null) {
+                session.updateActivity();
+            }
+            return;
+        }
         String orderId = session != null ? session.getOrderId() : "UNKNOWN";
         
         Map<String, Object> logData = new java.util.HashMap<>();
@@ -460,8 +505,19 @@ public class PaymentFlowLogger {
             logData.putAll(actionContext);
         }
         
-        logStructured(LogCategory.USER_ACTION, LogSeverity.DEBUG, sessionId, orderId,
-            String.format("User action: %s", action), logData);
+        logStructured(LogCategory.USER_ACTION, LogSeverity.DEBUG, sessionId, orderId, logData,
+            "User action: %s", action);
+    }
+    
+    /**
+     * Whether an entry of this category and severity would be written; entries
+     * below WARNING of sampled categories are kept 1 in N
+     */
+    private boolean isEnabled(LogCategory category, LogSeverity severity) {
+        if (!output.isLoggable(severity.getJavaLevel())) {
+            return false;
+        }
+        return severity.getJavaLevel().intValue() >= Level.WARNING.intValue() || sampler.sample(category.getCode());
     }
     
     /**
@@ -469,67 +525,33 @@ public class PaymentFlowLogger {
      */
     private void logStructured(LogCategory category, LogSeverity severity, String sessionId, 
                               String orderId, String message, Map<String, Object> data) {
+        logStructured(category, severity, sessionId, orderId, data, message);
+    }
+    
+    /**
+     * Core structured logging method with a lazily formatted message
+     */
+    private void logStructured(LogCategory category, LogSeverity severity, String sessionId, 
+                              String orderId, Map<String, Object> data, String messageFormat, Object... messageArgs) {
         try {
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            
-            StringBuilder logEntry = new StringBuilder();
-            logEntry.append("[").append(timestamp).append("]");
-            logEntry.append(LOG_DELIMITER).append("[").append(severity.name()).append("]");
-            logEntry.append(LOG_DELIMITER).append("[").append(category.getCode()).append("]");
-            logEntry.append(LOG_DELIMITER).append("[S:").append(sessionId != null ? sessionId : "NO_SESSION").append("]");
-            logEntry.append(LOG_DELIMITER).append("[O:").append(orderId != null ? orderId : "NO_ORDER").append("]");
-            logEntry.append(LOG_DELIMITER).append(message);
-            
-            if (data != null && !data.isEmpty()) {
-                logEntry.append(LOG_DELIMITER).append("DATA: ").append(formatLogData(data));
-            }
-            
-            logger.log(severity.getJavaLevel(), logEntry.toString());
-            
+            output.write(new StructuredLogEvent(System.currentTimeMillis(), severity.getJavaLevel(), severity.name(),
+                category.getCode(), sessionId, orderId, messageFormat, messageArgs, data));
         } catch (Exception e) {
             // Fallback logging if structured logging fails
             logger.log(Level.SEVERE, "PaymentFlowLogger internal error: " + e.getMessage(), e);
-            logger.log(severity.getJavaLevel(), String.format("[FALLBACK] %s: %s", category, message));
+            logger.log(severity.getJavaLevel(), String.format("[FALLBACK] %s: %s", category, messageFormat));
         }
     }
     
     /**
-     * Format log data for structured output
+     * Writes pending entries and stops the background writer
      */
-    private String formatLogData(Map<String, Object> data) {
-        StringBuilder formatted = new StringBuilder("{");
-        boolean first = true;
-        
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            if (!first) {
-                formatted.append(", ");
-            }
-            formatted.append(entry.getKey()).append("=");
-            
-            Object value = entry.getValue();
-            if (value instanceof String) {
-                formatted.append("\"").append(value).append("\"");
-            } else if (value instanceof LocalDateTime) {
-                formatted.append("\"").append(((LocalDateTime) value).format(TIMESTAMP_FORMAT)).append("\"");
-            } else {
-                formatted.append(value);
-            }
-            
-            first = false;
-        }
-        
-        formatted.append("}");
-        return formatted.toString();
+    public void shutdown() {
+        output.shutdown();
     }
     
-    /**
-     * Get stack trace as string
-     */
-    private String getStackTrace(Throwable throwable) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        throwable.printStackTrace(pw);
-        return sw.toString();
+    public StructuredLogWriter getOutput() {
+        return output;
     }
     
     /**
@@ -0,0 +1,247 @@
+package com.aims.core.presentation.utils;
+
+import com.aims.core.shared.events.ProductChangeBus;
+import com.aims.core.shared.events.ProductChangeEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Applies product change events to ProductStateManager on the desktop client.
+ *
+ * Two sources are consumed:
+ * - the in-process ProductChangeBus, for writes made by this application
+ * - the REST API's Server-Sent Events feed, for writes made by the web
+ *   storefront/admin (a separate process sharing the database)
+ *
+ * Stock changes are applied directly to the cached product; other updates go
+ * through UIRefreshScheduler's coalesced bulk reload (event prices exclude
+ * VAT, so the cache is not patched with them). When the remote feed cannot
+ * resume from the last seen position, every cached product is reloaded.
+ *
+ * The remote feed URL is taken from the {@code aims.productFeed.url} system
+ * property; set it to {@code none} to disable the remote feed.
+ */
+public class ProductChangeFeedClient {
+
+    private static final Logger logger = Logger.getLogger(ProductChangeFeedClient.class.getName());
+
+    public static final String FEED_URL_PROPERTY = "aims.productFeed.url";
+    public static final String DEFAULT_FEED_URL = "http://localhost:8080/api/products/changes";
+
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private static ProductChangeFeedClient instance;
+
+    private final Gson gson = new Gson();
+    private final String feedUrl;
+
+    private ProductChangeBus.Subscription localSubscription;
+    private Thread remoteThread;
+    private volatile boolean running = false;
+    // The feed's id as sent (<epoch>:<sequence>), so a restarted server can tell it is not its own
+    private volatile String lastRemoteEventId;
+    private volatile long lastRemoteSequence = -1;
+
+    ProductChangeFeedClient(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+
+    public static synchronized ProductChangeFeedClient getInstance() {
+        if (instance == null) {
+            instance = new ProductChangeFeedClient(System.getProperty(FEED_URL_PROPERTY, DEFAULT_FEED_URL));
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribes to the local bus and starts streaming the remote feed on a
+     * daemon thread. Calling start twice has no effect.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        localSubscription = ProductChangeBus.getInstance().subscribe(this::apply);
+
+        if (feedUrl != null && !feedUrl.isBlank() && !"none".equalsIgnoreCase(feedUrl)) {
+            remoteThread = new Thread(this::runRemoteFeed, "product-change-feed");
+            remoteThread.setDaemon(true);
+            remoteThread.start();
+        }
+        logger.info("ProductChangeFeedClient started (remote feed: " + (remoteThread != null ? feedUrl : "disabled") + ")");
+    }
+
+    /**
+     * Stops both sources.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (localSubscription != null) {
+            localSubscription.close();
+            localSubscription = null;
+        }
+        if (remoteThread != null) {
+            remoteThread.interrupt();
+            remoteThread = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the id of the last remote event applied, or -1 before the first
+     */
+    long getLastRemoteSequence() {
+        return lastRemoteSequence;
+    }
+
+    /**
+     * Applies one change to the client-side product state.
+     */
+    void apply(ProductChangeEvent event) {
+        if (event == null || event.productId() == null || event.type() == null) {
+            return;
+        }
+        switch (event.type()) {
+            case CREATE -> {
+                // Nothing cached yet; the product is loaded when first displayed
+            }
+            case STOCK -> {
+                if (event.quantityInStock() != null) {
+                    ProductStateManager.applyStockChange(event.productId(), event.quantityInStock());
+                }
+            }
+            case UPDATE -> {
+                if (ProductStateManager.isProductCached(event.productId())) {
+                    UIRefreshScheduler.getInstance().requestProductRefresh(event.productId());
+                }
+            }
+            case DELETE -> ProductStateManager.invalidateProduct(event.productId());
+        }
+    }
+
+    private void resyncAll() {
+        List<String> cachedIds = ProductStateManager.getCachedProductIds();
+        logger.info("ProductChangeFeedClient: Feed position lost, reloading " + cachedIds.size() + " cached products");
+        UIRefreshScheduler scheduler = UIRefreshScheduler.getInstance();
+        cachedIds.forEach(scheduler::requestProductRefresh);
+    }
+
+    private void runRemoteFeed() {
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        long backoffMs = INITIAL_BACKOFF_MS;
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(feedUrl))
+                    .header("Accept", "text/event-stream")
+                    .GET();
+                if (lastRemoteEventId != null) {
+                    request.header("Last-Event-ID", lastRemoteEventId);
+                }
+
+                HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+                if (response.statusCode() != 200) {
+                    response.body().close();
+                    throw new IOException("Unexpected status " + response.statusCode());
+                }
+                backoffMs = INITIAL_BACKOFF_MS;
+                try (Stream<String> lines = response.body()) {
+                    SseParser parser = new SseParser();
+                    lines.takeWhile(line -> running).forEach(parser::accept);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.log(Level.FINE, "ProductChangeFeedClient: Remote feed unavailable, retrying in " + backoffMs + "ms", e);
+            }
+
+            if (!running) {
+                return;
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+        }
+    }
+
+    /**
+     * Minimal text/event-stream parser: accumulates id/event/data fields and
+     * dispatches on each blank line.
+     */
+    private final class SseParser {
+        private String id;
+        private String eventName;
+        private final StringBuilder data = new StringBuilder();
+
+        void accept(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+                return;
+            }
+            if (line.startsWith(":")) {
+                return; // comment / keep-alive
+            }
+            int colon = line.indexOf(':');
+            String field = colon >= 0 ? line.substring(0, colon) : line;
+            String value = colon >= 0 ? line.substring(colon + 1) : "";
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "id" -> id = value;
+                case "event" -> eventName = value;
+                case "data" -> {
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(value);
+                }
+                default -> { }
+            }
+        }
+
+        private void dispatch() {
+            try {
+                if ("resync".equals(eventName)) {
+                    resyncAll();
+                } else if (!"ready".equals(eventName) && data.length() > 0) {
+                    apply(gson.fromJson(data.toString(), ProductChangeEvent.class));
+                }
+                if (id != null) {
+                    lastRemoteSequence = Long.parseLong(id.substring(id.lastIndexOf(':') + 1));
+                    lastRemoteEventId = id;
+                }
+            } catch (JsonParseException | NumberFormatException e) {
+                logger.log(Level.WARNING, "ProductChangeFeedClient: Ignoring malformed event " + id, e);
+            } finally {
+                id = null;
+                eventName = null;
+                data.setLength(0);
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.aims.core.presentation.utils;
 import com.aims.core.entities.Product;
 import javafx.application.Platform;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -61,11 +63,114 @@ public class ProductStateManager {
                 System.out.println("ProductStateManager.updateProduct: State changed for " + product.getTitle() + 
                                  " - Stock: " + product.getQuantityInStock() + 
                                  " (was: " + (oldProduct != null ? oldProduct.getQuantityInStock() : "null") + ")");
-                notifyListeners(product);
+                notifyListeners(List.of(product));
             }
         }
     }
     
+    /**
+     * Update several products at once. Listeners for all changed products are
+     * notified in a single JavaFX pulse.
+     */
+    public static void updateProducts(Collection<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return;
+        }
+        
+        List<Product> changed = new ArrayList<>();
+        synchronized (LOCK) {
+            for (Product product : products) {
+                if (product == null || product.getProductId() == null) {
+                    continue;
+                }
+                Product oldProduct = productCache.put(product.getProductId(), product);
+                if (oldProduct == null || !isSameState(oldProduct, product)) {
+                    changed.add(product);
+                }
+            }
+        }
+        
+        if (!changed.isEmpty()) {
+            System.out.println("ProductStateManager.updateProducts: State changed for " + changed.size() + " of " + products.size() + " products");
+            notifyListeners(changed);
+        }
+    }
+    
+    /**
+     * Apply reloaded stock and price to the cached products. Fresh products
+     * from bulk refreshes carry only the base PRODUCT columns, so they are
+     * merged into the cached instances instead of replacing them; a cached
+     * Book, CD, DVD or LP keeps its subtype fields. Uncached products are
+     * ignored since no component is displaying them.
+     *
+     * The cached instances are the ones the views display, so the merge itself
+     * runs on the JavaFX Application Thread, followed by the notification.
+     *
+     * @return the number of cached products that differ and are merged
+     */
+    public static int mergeStockAndPrice(Collection<Product> freshProducts) {
+        if (freshProducts == null || freshProducts.isEmpty()) {
+            return 0;
+        }
+        
+        List<Product> stale = new ArrayList<>();
+        synchronized (LOCK) {
+            for (Product fresh : freshProducts) {
+                if (fresh == null || fresh.getProductId() == null) {
+                    continue;
+                }
+                Product cached = productCache.get(fresh.getProductId());
+                if (cached != null && !isSameStockAndPrice(cached, fresh)) {
+                    stale.add(fresh);
+                }
+            }
+        }
+        
+        if (!stale.isEmpty()) {
+            Platform.runLater(() -> {
+                List<Product> changed = new ArrayList<>();
+                synchronized (LOCK) {
+                    for (Product fresh : stale) {
+                        // Looked up again: the product may have been replaced or invalidated meanwhile
+                        Product cached = productCache.get(fresh.getProductId());
+                        if (cached != null && !isSameStockAndPrice(cached, fresh)) {
+                            cached.setQuantityInStock(fresh.getQuantityInStock());
+                            cached.setPrice(fresh.getPrice());
+                            changed.add(cached);
+                        }
+                    }
+                }
+                deliver(changed);
+            });
+        }
+        return stale.size();
+    }
+    
+    /**
+     * Apply a stock change pushed from the product change feed. The cached
+     * product (if any) is updated in place and listeners are notified only
+     * when the quantity actually changed. Uncached products are ignored since
+     * no component is displaying them.
+     *
+     * @return true if a cached product changed
+     */
+    public static boolean applyStockChange(String productId, int quantityInStock) {
+        if (productId == null) {
+            return false;
+        }
+        
+        Product product;
+        synchronized (LOCK) {
+            product = productCache.get(productId);
+            if (product == null || product.getQuantityInStock() == quantityInStock) {
+                return false;
+            }
+            product.setQuantityInStock(quantityInStock);
+        }
+        notifyListeners(List.of(product));
+        return true;
+    }
+    
     /**
      * Add a product state listener
      */
@@ -112,21 +217,27 @@ public class ProductStateManager {
     }
     
     /**
-     * Notify listeners about product updates
+     * Notify listeners about product updates in one JavaFX Application Thread pulse
+     */
+    private static void notifyListeners(List<Product> products) {
+        Platform.runLater(() -> deliver(products));
+    }
+    
+    /**
+     * Notify listeners about product updates; runs on the JavaFX Application Thread
      */
-    private static void notifyListeners(Product product) {
-        for (ProductStateListener listener : listeners) {
-            String interestedId = listener.getInterestedProductId();
-            if (interestedId == null || interestedId.equals(product.getProductId())) {
-                // Ensure UI updates happen on JavaFX Application Thread
-                Platform.runLater(() -> {
+    private static void deliver(List<Product> products) {
+        for (Product product : products) {
+            for (ProductStateListener listener : listeners) {
+                String interestedId = listener.getInterestedProductId();
+                if (interestedId == null || interestedId.equals(product.getProductId())) {
                     try {
                         listener.onProductUpdated(product);
                     } catch (Exception e) {
                         System.err.println("Error notifying product state listener: " + e.getMessage());
                         e.printStackTrace();
                     }
-                });
+                }
             }
         }
     }
@@ -140,6 +251,14 @@ public class ProductStateManager {
                oldProduct.getTitle().equals(newProduct.getTitle());
     }
     
+    /**
+     * Check if two products have the same stock and price
+     */
+    private static boolean isSameStockAndPrice(Product cached, Product fresh) {
+        return cached.getQuantityInStock() == fresh.getQuantityInStock() &&
+               Float.compare(cached.getPrice(), fresh.getPrice()) == 0;
+    }
+    
     /**
      * Force refresh of a specific product (triggers re-fetch from database)
      */
@@ -152,6 +271,13 @@ public class ProductStateManager {
         }
     }
     
+    /**
+     * Snapshot of the cached product IDs (e.g. to reload after a missed feed)
+     */
+    public static List<String> getCachedProductIds() {
+        return new ArrayList<>(productCache.keySet());
+    }
+    
     /**
      * Check if a product is currently cached
      */
@@ -0,0 +1,240 @@
+package com.aims.core.presentation.utils;
+
+import com.aims.core.entities.Product;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.ServiceFactory;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single scheduler for deferred UI work on the desktop client.
+ *
+ * Replaces ad-hoc timers and sleeping threads with one daemon scheduled
+ * executor:
+ * - Product refreshes are coalesced: every product ID requested within a
+ *   window is fetched with one bulk DAO query; the fresh stock and price are
+ *   merged into ProductStateManager's cached products in one Platform.runLater pulse
+ * - Keyed debounced actions (see DebouncedProductRefresh) replace any pending
+ *   action with the same key
+ * - Delayed UI actions (e.g. resetting button feedback) run on the FX thread
+ *
+ * Queued/coalesced/executed counters are kept for monitoring.
+ */
+public class UIRefreshScheduler {
+
+    private static final Logger logger = Logger.getLogger(UIRefreshScheduler.class.getName());
+
+    private static UIRefreshScheduler instance;
+
+    // Window over which product refresh requests are batched
+    public static final long DEFAULT_REFRESH_WINDOW_MS = 300;
+
+    private final ScheduledExecutorService executor;
+    private final long refreshWindowMs;
+
+    private final Set<String> pendingProductIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Map<String, ScheduledFuture<?>> keyedActions = new ConcurrentHashMap<>();
+
+    private volatile IProductDAO productDAO;
+
+    // Metrics
+    private final AtomicLong queuedRefreshes = new AtomicLong();
+    private final AtomicLong coalescedRefreshes = new AtomicLong();
+    private final AtomicLong executedRefreshes = new AtomicLong();
+    private final AtomicLong bulkFetches = new AtomicLong();
+    private final AtomicLong failedFetches = new AtomicLong();
+
+    private UIRefreshScheduler(long refreshWindowMs) {
+        this.refreshWindowMs = refreshWindowMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ui-refresh-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized UIRefreshScheduler getInstance() {
+        if (instance == null) {
+            instance = new UIRefreshScheduler(DEFAULT_REFRESH_WINDOW_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Overrides the DAO used for bulk refresh fetches (defaults to the
+     * ServiceFactory product DAO).
+     */
+    public void setProductDAO(IProductDAO productDAO) {
+        this.productDAO = productDAO;
+    }
+
+    /**
+     * Requests a reload of a product from the database. All requests received
+     * within the refresh window are served by a single bulk fetch; the fresh
+     * stock and price are merged into the products cached by
+     * ProductStateManager, which notifies cards and detail screens.
+     *
+     * @param productId The product to refresh
+     */
+    public void requestProductRefresh(String productId) {
+        if (productId == null) {
+            return;
+        }
+        if (pendingProductIds.add(productId)) {
+            queuedRefreshes.incrementAndGet();
+        } else {
+            coalescedRefreshes.incrementAndGet();
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::flushProductRefreshes, refreshWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schedules an action keyed by {@code key}; a pending action with the same
+     * key is cancelled and replaced. The action runs on the scheduler thread.
+     */
+    public void scheduleDebounced(String key, Runnable action, long delayMs) {
+        if (key == null || action == null) {
+            return;
+        }
+        queuedRefreshes.incrementAndGet();
+        ScheduledFuture<?>[] holder = new ScheduledFuture<?>[1];
+        holder[0] = executor.schedule(() -> {
+            try {
+                action.run();
+                executedRefreshes.incrementAndGet();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "UIRefreshScheduler: Debounced action failed for " + key, e);
+            } finally {
+                keyedActions.remove(key, holder[0]);
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+
+        ScheduledFuture<?> previous = keyedActions.put(key, holder[0]);
+        if (previous != null && previous.cancel(false)) {
+            coalescedRefreshes.incrementAndGet();
+        }
+        if (holder[0].isDone()) {
+            // Ran before it was registered (zero delay)
+            keyedActions.remove(key, holder[0]);
+        }
+    }
+
+    /**
+     * Cancels a pending keyed action.
+     *
+     * @return true if an action was pending
+     */
+    public boolean cancelDebounced(String key) {
+        ScheduledFuture<?> future = key != null ? keyedActions.remove(key) : null;
+        return future != null && future.cancel(false);
+    }
+
+    public boolean isDebouncedPending(String key) {
+        return key != null && keyedActions.containsKey(key);
+    }
+
+    public int getPendingDebouncedCount() {
+        return keyedActions.size();
+    }
+
+    /**
+     * Cancels all pending keyed actions.
+     *
+     * @return the number of actions cancelled
+     */
+    public int cancelAllDebounced() {
+        int cancelled = 0;
+        for (String key : keyedActions.keySet()) {
+            if (cancelDebounced(key)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Runs {@code uiAction} on the JavaFX application thread after a delay.
+     */
+    public ScheduledFuture<?> runLaterOnFxThread(Runnable uiAction, long delayMs) {
+        return executor.schedule(() -> Platform.runLater(uiAction), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public long getQueuedRefreshCount() {
+        return queuedRefreshes.get();
+    }
+
+    public long getCoalescedRefreshCount() {
+        return coalescedRefreshes.get();
+    }
+
+    public long getExecutedRefreshCount() {
+        return executedRefreshes.get();
+    }
+
+    public long getBulkFetchCount() {
+        return bulkFetches.get();
+    }
+
+    public long getFailedFetchCount() {
+        return failedFetches.get();
+    }
+
+    public int getPendingProductRefreshCount() {
+        return pendingProductIds.size();
+    }
+
+    public String getMetricsSummary() {
+        return String.format("queued=%d, coalesced=%d, executed=%d, bulkFetches=%d, failedFetches=%d, pending=%d",
+            getQueuedRefreshCount(), getCoalescedRefreshCount(), getExecutedRefreshCount(),
+            getBulkFetchCount(), getFailedFetchCount(), getPendingProductRefreshCount() + getPendingDebouncedCount());
+    }
+
+    /**
+     * Stops the scheduler thread; pending work is dropped.
+     */
+    public void shutdown() {
+        logger.info("UIRefreshScheduler shutting down: " + getMetricsSummary());
+        executor.shutdownNow();
+        keyedActions.clear();
+        pendingProductIds.clear();
+    }
+
+    private void flushProductRefreshes() {
+        // Clear the flag first so requests arriving during the fetch open a new window
+        flushScheduled.set(false);
+
+        List<String> batch = new ArrayList<>(pendingProductIds);
+        if (batch.isEmpty()) {
+            return;
+        }
+        pendingProductIds.removeAll(batch);
+
+        IProductDAO dao = productDAO != null ? productDAO : ServiceFactory.getProductDAO();
+        try {
+            List<Product> products = dao.getByIds(batch);
+            bulkFetches.incrementAndGet();
+            executedRefreshes.addAndGet(batch.size());
+            // Base columns only: merge into the cached (possibly subtype) instances
+            ProductStateManager.mergeStockAndPrice(products);
+        } catch (Exception e) {
+            failedFetches.incrementAndGet();
+            logger.log(Level.WARNING, "UIRefreshScheduler: Bulk refresh of " + batch.size() + " products failed", e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.aims.core.presentation.utils;
+
+import com.aims.core.entities.Product;
+import com.aims.core.presentation.controllers.ProductCardController;
+import com.aims.core.shared.constants.FXMLPaths;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Region;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Virtualized grid of product cards.
+ *
+ * Only the cards intersecting the enclosing ScrollPane's viewport (plus a
+ * small row buffer above and below) exist in the scene graph. Cards that
+ * scroll out of range are detached, their ProductStateManager listener is
+ * removed via {@link ProductCardController#cleanup()}, and the node/controller
+ * pair is kept for reuse by the next card scrolling into view. The grid
+ * reports a preferred height covering every item so the ScrollPane scrollbar
+ * reflects the full result set.
+ *
+ * Layout cost is proportional to the number of visible cards, independent of
+ * the number of items, so results can be appended page by page ("infinite
+ * scroll") without growing the scene graph or the listener list.
+ *
+ * All methods must be called on the JavaFX application thread.
+ */
+public class VirtualProductGrid extends Region {
+
+    private static final Logger logger = Logger.getLogger(VirtualProductGrid.class.getName());
+
+    // Extra rows kept materialized above and below the viewport
+    private static final int BUFFER_ROWS = 1;
+
+    // Fire the near-end callback when this many rows remain below the viewport
+    private static final int NEAR_END_ROWS = 2;
+
+    private static final double DEFAULT_MIN_CARD_WIDTH = 180;
+    private static final double DEFAULT_MIN_CARD_HEIGHT = 350;
+    private static final double DEFAULT_CARD_HEIGHT_RATIO = 1.3;
+
+    /**
+     * A materialized card: its root node and controller.
+     */
+    private static final class Cell {
+        final Node node;
+        final ProductCardController controller;
+        int index = -1;
+
+        Cell(Node node, ProductCardController controller) {
+            this.node = node;
+            this.controller = controller;
+        }
+    }
+
+    private final ScrollPane scrollPane;
+    private final BiConsumer<ProductCardController, Product> cardBinder;
+
+    private final List<Product> items = new ArrayList<>();
+    private final Map<Integer, Cell> activeCells = new HashMap<>();
+    private final Deque<Cell> recycledCells = new ArrayDeque<>();
+
+    private int columns = 1;
+    private double gap = 10;
+    private double minCardWidth = DEFAULT_MIN_CARD_WIDTH;
+    private double minCardHeight = DEFAULT_MIN_CARD_HEIGHT;
+    private double cardHeightRatio = DEFAULT_CARD_HEIGHT_RATIO;
+
+    private Runnable onNearEnd;
+    private boolean nearEndFired = false;
+
+    /**
+     * @param scrollPane the ScrollPane whose viewport determines visibility
+     * @param cardBinder binds a product to a (new or recycled) card controller
+     */
+    public VirtualProductGrid(ScrollPane scrollPane, BiConsumer<ProductCardController, Product> cardBinder) {
+        this.scrollPane = scrollPane;
+        this.cardBinder = cardBinder;
+        getStyleClass().add("virtual-product-grid");
+
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> requestLayout());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldVal, newVal) -> updatePrefWidth());
+        parentProperty().addListener((obs, oldParent, newParent) -> updatePrefWidth());
+
+        // Release every card (and its state listener) when the grid leaves the scene,
+        // e.g. replaced by a loading/empty state or the screen navigated away
+        sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                recycleAll();
+            }
+        });
+    }
+
+    /**
+     * Replaces all items and scrolls back to the top.
+     */
+    public void setItems(List<Product> products) {
+        recycleAll();
+        items.clear();
+        if (products != null) {
+            items.addAll(products);
+        }
+        nearEndFired = false;
+        scrollPane.setVvalue(0);
+        requestLayout();
+    }
+
+    /**
+     * Appends items after the current ones, keeping the scroll position.
+     */
+    public void appendItems(Collection<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return;
+        }
+        items.addAll(products);
+        nearEndFired = false;
+        requestLayout();
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Sets column count and gap. Cards are sized to fill the row; the card
+     * height follows the width by the configured ratio.
+     */
+    public void setLayoutMetrics(int columns, double gap) {
+        int newColumns = Math.max(1, columns);
+        if (newColumns != this.columns || gap != this.gap) {
+            this.columns = newColumns;
+            this.gap = gap;
+            requestLayout();
+        }
+    }
+
+    public void setCardSizeConstraints(double minCardWidth, double minCardHeight, double cardHeightRatio) {
+        this.minCardWidth = minCardWidth;
+        this.minCardHeight = minCardHeight;
+        this.cardHeightRatio = cardHeightRatio;
+        requestLayout();
+    }
+
+    /**
+     * Callback invoked (once per append) when the user scrolls close to the
+     * last loaded row. Used to fetch the next page.
+     */
+    public void setOnNearEnd(Runnable onNearEnd) {
+        this.onNearEnd = onNearEnd;
+    }
+
+    public int getActiveCardCount() {
+        return activeCells.size();
+    }
+
+    public int getRecycledCardCount() {
+        return recycledCells.size();
+    }
+
+    /**
+     * Detaches all cards and unregisters their listeners. Items are kept.
+     */
+    public void recycleAll() {
+        for (Cell cell : activeCells.values()) {
+            release(cell);
+        }
+        activeCells.clear();
+        getChildren().clear();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        double totalWidth = width > 0 ? width : (getWidth() > 0 ? getWidth() : getPrefWidth());
+        double contentWidth = Math.max(0, totalWidth - snappedLeftInset() - snappedRightInset());
+        int cols = effectiveColumns(contentWidth);
+        int rows = rowCount(cols);
+        double rowHeight = cardHeight(cardWidth(contentWidth, cols)) + gap;
+        return snappedTopInset() + snappedBottomInset() + Math.max(0, rows * rowHeight - gap);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double contentWidth = getWidth() - snappedLeftInset() - snappedRightInset();
+        if (items.isEmpty() || contentWidth <= 0 || getScene() == null) {
+            recycleAll();
+            return;
+        }
+
+        int cols = effectiveColumns(contentWidth);
+        double cardWidth = cardWidth(contentWidth, cols);
+        double cardHeight = cardHeight(cardWidth);
+        double rowHeight = cardHeight + gap;
+        int rows = rowCount(cols);
+
+        // Work out which rows intersect the viewport
+        double[] visible = visibleRange();
+        int firstRow = Math.max(0, (int) Math.floor((visible[0] - snappedTopInset()) / rowHeight) - BUFFER_ROWS);
+        int lastRow = Math.min(rows - 1, (int) Math.floor((visible[1] - snappedTopInset()) / rowHeight) + BUFFER_ROWS);
+        int firstIndex = firstRow * cols;
+        int lastIndex = Math.min(items.size() - 1, (lastRow + 1) * cols - 1);
+
+        // Release cells that moved out of range
+        Iterator<Map.Entry<Integer, Cell>> it = activeCells.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Cell> entry = it.next();
+            int index = entry.getKey();
+            if (index < firstIndex || index > lastIndex) {
+                release(entry.getValue());
+                getChildren().remove(entry.getValue().node);
+                it.remove();
+            }
+        }
+
+        // Materialize and position visible cells
+        for (int index = firstIndex; index <= lastIndex; index++) {
+            Cell cell = activeCells.get(index);
+            if (cell == null) {
+                cell = acquire(index);
+                if (cell == null) {
+                    continue;
+                }
+                activeCells.put(index, cell);
+                getChildren().add(cell.node);
+            }
+            int row = index / cols;
+            int col = index % cols;
+            double x = snappedLeftInset() + col * (cardWidth + gap);
+            double y = snappedTopInset() + row * rowHeight;
+            cell.node.resizeRelocate(snapPositionX(x), snapPositionY(y), snapSizeX(cardWidth), snapSizeY(cardHeight));
+        }
+
+        if (onNearEnd != null && !nearEndFired && lastRow >= rows - 1 - NEAR_END_ROWS) {
+            nearEndFired = true;
+            Platform.runLater(onNearEnd);
+        }
+    }
+
+    private Cell acquire(int index) {
+        Cell cell = recycledCells.pollFirst();
+        if (cell == null) {
+            try {
+                FXMLSceneManager.LoadedFXML<ProductCardController> loaded =
+                    FXMLViewFactory.getInstance().load(FXMLPaths.PRODUCT_CARD);
+                cell = new Cell(loaded.getRoot(), loaded.getController());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "VirtualProductGrid.acquire: Failed to load product card", e);
+                return null;
+            }
+        }
+
+        // Prefer the latest known state in case the product changed while off-screen
+        Product product = items.get(index);
+        Product latest = ProductStateManager.getProduct(product.getProductId());
+        if (latest != null && latest != product) {
+            product = latest;
+            items.set(index, latest);
+        }
+
+        cell.index = index;
+        cardBinder.accept(cell.controller, product);
+        return cell;
+    }
+
+    private void release(Cell cell) {
+        cell.controller.cleanup();
+        cell.index = -1;
+        recycledCells.addFirst(cell);
+    }
+
+    private double[] visibleRange() {
+        Bounds viewport = scrollPane.getViewportBounds();
+        Point2D scrollPaneOrigin = scrollPane.localToScene(0, 0);
+        Point2D gridOrigin = localToScene(0, 0);
+        if (viewport == null || scrollPaneOrigin == null || gridOrigin == null) {
+            return new double[] {0, getHeight()};
+        }
+        double top = scrollPaneOrigin.getY() - gridOrigin.getY();
+        return new double[] {top, top + viewport.getHeight()};
+    }
+
+    private int effectiveColumns(double contentWidth) {
+        int cols = columns;
+        while (cols > 1 && cardWidth(contentWidth, cols) < minCardWidth) {
+            cols--;
+        }
+        return cols;
+    }
+
+    private double cardWidth(double contentWidth, int cols) {
+        return Math.max(0, (contentWidth - (cols - 1) * gap) / cols);
+    }
+
+    private double cardHeight(double cardWidth) {
+        return Math.max(minCardHeight, cardWidth * cardHeightRatio);
+    }
+
+    private int rowCount(int cols) {
+        return (items.size() + cols - 1) / cols;
+    }
+
+    /**
+     * Tracks the viewport width so the grid fills the row inside its host pane.
+     */
+    private void updatePrefWidth() {
+        Bounds viewport = scrollPane.getViewportBounds();
+        if (viewport == null || viewport.getWidth() <= 0) {
+            return;
+        }
+        double hostInsets = 0;
+        if (getParent() instanceof Region host) {
+            hostInsets = host.snappedLeftInset() + host.snappedRightInset();
+        }
+        setPrefWidth(Math.max(0, viewport.getWidth() - hostInsets));
+        requestLayout();
+    }
+}
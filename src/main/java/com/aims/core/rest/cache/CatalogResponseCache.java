@@ -0,0 +1,224 @@
+package com.aims.core.rest.cache;
+
+import com.aims.core.config.WebConfig;
+import com.aims.core.shared.events.ProductChangeBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side cache of serialized catalogue responses (product listings,
+ * product detail, categories, types) together with their HTTP validators.
+ *
+ * Every entry is stamped with the ProductChangeBus position it was built at:
+ * catalogue-wide entries with the latest sequence, product detail entries with
+ * the sequence of that product's last change. An entry is only served while
+ * its stamp is still current, so a product write published by the DAO makes
+ * the affected responses stale immediately. The stamp is read before the
+ * response is loaded, so a write that races with a load can only cause an
+ * extra miss, never a stale hit.
+ *
+ * Writes made by another process sharing the database (the desktop client)
+ * are not published on this bus, so entries also expire after a TTL, set
+ * with the {@code aims.catalogCache.ttlSeconds} system property.
+ *
+ * ETags are strong validators: a digest of the serialized body, prefixed for
+ * product detail with the product ID and version. A rebuilt entry whose body
+ * did not change keeps its ETag and Last-Modified, so clients still get 304.
+ */
+public class CatalogResponseCache {
+
+    public static final String TTL_PROPERTY = "aims.catalogCache.ttlSeconds";
+    private static final long DEFAULT_TTL_SECONDS = 30;
+    private static final int MAX_ENTRIES = 1024;
+
+    private static CatalogResponseCache instance;
+
+    /**
+     * Produces the response body on a cache miss.
+     */
+    @FunctionalInterface
+    public interface ResponseLoader {
+        /**
+         * @return the body to serialize, or null if the response must not be
+         *         cached (e.g. not found)
+         */
+        Loaded load() throws Exception;
+    }
+
+    /**
+     * A freshly loaded body and the prefix to put in front of its digest in the ETag.
+     */
+    public record Loaded(Object body, String etagPrefix) {
+        public static Loaded of(Object body) {
+            return new Loaded(body, null);
+        }
+    }
+
+    /**
+     * A cached, serialized response.
+     */
+    public static final class Entry {
+        private final long stamp;
+        private final byte[] body;
+        private final String etag;
+        private final long lastModified;
+        private final long expiresAt;
+
+        Entry(long stamp, byte[] body, String etag, long lastModified, long expiresAt) {
+            this.stamp = stamp;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+        public long getLastModified() { return lastModified; }
+    }
+
+    /**
+     * Result of a lookup: the entry and whether it was served from the cache.
+     */
+    public record Lookup(Entry entry, boolean hit) {
+    }
+
+    private final ProductChangeBus changeBus;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    CatalogResponseCache(ProductChangeBus changeBus, ObjectMapper objectMapper, long ttlMillis) {
+        this.changeBus = changeBus;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static synchronized CatalogResponseCache getInstance() {
+        if (instance == null) {
+            long ttlSeconds = Long.getLong(TTL_PROPERTY, DEFAULT_TTL_SECONDS);
+            instance = new CatalogResponseCache(ProductChangeBus.getInstance(), WebConfig.createObjectMapper(),
+                ttlSeconds * 1000L);
+        }
+        return instance;
+    }
+
+    /**
+     * Looks up a response that depends on the whole catalogue (listings,
+     * categories, types).
+     *
+     * @param key Normalized request key, see {@link #key(String, Object...)}
+     * @return the lookup, or null if the loader returned null
+     */
+    public Lookup getCatalogResponse(String key, ResponseLoader loader) throws Exception {
+        return getOrLoad(key, changeBus.getLatestSequence(), loader);
+    }
+
+    /**
+     * Looks up the detail response of one product; only changes to that
+     * product make it stale.
+     *
+     * @return the lookup, or null if the loader returned null
+     */
+    public Lookup getProductResponse(String productId, ResponseLoader loader) throws Exception {
+        return getOrLoad("product:" + productId, changeBus.getLastSequenceFor(productId), loader);
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public String getStatisticsSummary() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return String.format("entries=%d, hits=%d, misses=%d, hitRate=%.1f%%",
+            size, hitCount, total - hitCount, total > 0 ? hitCount * 100.0 / total : 0.0);
+    }
+
+    /**
+     * Builds a cache key from request parameters. Parameters are sorted by
+     * name and null or blank values are dropped, so equivalent requests share
+     * an entry regardless of parameter order or omitted defaults.
+     *
+     * @param endpoint Logical endpoint name
+     * @param nameValuePairs Alternating parameter names and values
+     */
+    public static String key(String endpoint, Object... nameValuePairs) {
+        Map<String, String> params = new TreeMap<>();
+        for (int i = 0; i + 1 < nameValuePairs.length; i += 2) {
+            Object value = nameValuePairs[i + 1];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString().trim();
+            if (!text.isEmpty()) {
+                params.put(String.valueOf(nameValuePairs[i]), text);
+            }
+        }
+        StringBuilder key = new StringBuilder(endpoint);
+        char separator = '?';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    private Lookup getOrLoad(String key, long stamp, ResponseLoader loader) throws Exception {
+        long now = System.currentTimeMillis();
+        Entry previous;
+        synchronized (entries) {
+            previous = entries.get(key);
+        }
+        if (previous != null && previous.stamp == stamp && previous.expiresAt > now) {
+            hits.incrementAndGet();
+            return new Lookup(previous, true);
+        }
+
+        misses.incrementAndGet();
+        Loaded loaded = loader.load();
+        if (loaded == null) {
+            return null;
+        }
+        byte[] body = objectMapper.writeValueAsBytes(loaded.body());
+        String etag = etag(loaded.etagPrefix(), body);
+        // Unchanged content keeps its validators, so clients holding it still get 304
+        long lastModified = previous != null && previous.etag.equals(etag) ? previous.lastModified : now;
+        Entry entry = new Entry(stamp, body, etag, lastModified, now + ttlMillis);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return new Lookup(entry, false);
+    }
+
+    private static String etag(String prefix, byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String hash = Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+            return "\"" + (prefix != null ? prefix + "-" : "") + hash + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.aims.core.rest.controllers;
 
+import com.aims.core.application.services.IProductImportExportService;
 import com.aims.core.application.services.IProductService;
 import com.aims.core.entities.Product;
 import com.aims.core.entities.Book;
 import com.aims.core.entities.CD;
 import com.aims.core.entities.DVD;
 import com.aims.core.entities.LP;
+import com.aims.core.enums.ProductType;
 import com.aims.core.shared.ServiceFactory;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
@@ -14,7 +16,12 @@ import com.aims.core.shared.utils.SearchResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
@@ -30,9 +37,11 @@ import java.util.HashMap;
 public class AdminProductController extends BaseController {
 
     private final IProductService productService;
+    private final IProductImportExportService importExportService;
 
     public AdminProductController() {
         this.productService = ServiceFactory.getProductService();
+        this.importExportService = ServiceFactory.getProductImportExportService();
     }
 
     /**
@@ -249,13 +258,13 @@ public class AdminProductController extends BaseController {
     }
 
     /**
-     * Delete multiple products (up to 10)
+     * Delete multiple products (up to 10) in one transaction, with a per-item report
      */
     @PostMapping("/bulk-delete")
-    public ResponseEntity<ApiResponse<String>> deleteProducts(@RequestBody BulkDeleteRequest request) {
+    public ResponseEntity<ApiResponse<IProductService.BulkOperationResult>> deleteProducts(@RequestBody BulkDeleteRequest request) {
         try {
-            productService.deleteProducts(request.getProductIds(), request.getManagerId());
-            return success("Products deleted", "Products deleted successfully");
+            IProductService.BulkOperationResult result = productService.bulkDeleteProducts(request.getProductIds(), request.getManagerId());
+            return success(result, bulkMessage("deleted", result));
         } catch (ValidationException e) {
             Map<String, String> errors = new HashMap<>();
             errors.put("validation", e.getMessage());
@@ -267,6 +276,125 @@ public class AdminProductController extends BaseController {
         }
     }
 
+    /**
+     * Update the prices of multiple products in one transaction, with a per-item report
+     */
+    @PostMapping("/bulk-price")
+    public ResponseEntity<ApiResponse<IProductService.BulkOperationResult>> updateProductPrices(@RequestBody BulkPriceUpdateRequest request) {
+        try {
+            IProductService.BulkOperationResult result = productService.bulkUpdatePrices(request.getPrices(), request.getManagerId());
+            return success(result, bulkMessage("repriced", result));
+        } catch (ValidationException e) {
+            Map<String, String> errors = new HashMap<>();
+            errors.put("validation", e.getMessage());
+            return validationError("Bulk price update failed", errors);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return error("An error occurred while updating prices: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Adjust the stock of multiple products in one transaction, with a per-item report
+     */
+    @PostMapping("/bulk-stock")
+    public ResponseEntity<ApiResponse<IProductService.BulkOperationResult>> adjustProductStock(@RequestBody BulkStockAdjustmentRequest request) {
+        try {
+            IProductService.BulkOperationResult result = productService.bulkAdjustStock(request.getQuantityChanges(), request.getManagerId());
+            return success(result, bulkMessage("adjusted", result));
+        } catch (ValidationException e) {
+            Map<String, String> errors = new HashMap<>();
+            errors.put("validation", e.getMessage());
+            return validationError("Bulk stock adjustment failed", errors);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return error("An error occurred while adjusting stock: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Import products from a CSV or JSONL request body (streamed, validated in
+     * parallel and written in chunked transactions), with a report of rejected rows
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ApiResponse<IProductImportExportService.ImportReport>> importProducts(
+            InputStream body,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String managerId,
+            @RequestParam(required = false) String importId) {
+        try {
+            IProductImportExportService.ImportReport report = importExportService.importProducts(
+                body, IProductImportExportService.Format.fromString(format), managerId, importId);
+            String message = report.getRowsImported() + " of " + report.getRowsRead() + " products imported" +
+                (report.getRowsRejected() > 0 ? "; " + report.getRowsRejected() + " rows rejected" : "");
+            return success(report, message);
+        } catch (ValidationException e) {
+            Map<String, String> errors = new HashMap<>();
+            errors.put("validation", e.getMessage());
+            return validationError("Product import failed", errors);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return error("An error occurred while importing products: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Progress of a running import, or the report of a recently finished one
+     */
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ApiResponse<IProductImportExportService.ImportReport>> getImportStatus(@PathVariable String importId) {
+        IProductImportExportService.ImportReport report = importExportService.getImportStatus(importId);
+        if (report == null) {
+            return error("Import not found: " + importId, HttpStatus.NOT_FOUND);
+        }
+        return success(report, "Import " + report.getStatus().name().toLowerCase());
+    }
+
+    /**
+     * Export products as CSV or JSONL, written straight from the database cursor
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String type) {
+        IProductImportExportService.Format exportFormat;
+        ProductType productType = null;
+        try {
+            exportFormat = IProductImportExportService.Format.fromString(format);
+            if (type != null && !type.isBlank()) {
+                productType = ProductType.valueOf(type.trim().toUpperCase());
+            }
+        } catch (ValidationException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ProductType exportType = productType;
+        StreamingResponseBody body = output -> {
+            try {
+                importExportService.exportProducts(output, exportFormat, exportType);
+            } catch (SQLException e) {
+                // Headers are already sent; abort the response so the client sees a truncated download
+                throw new IOException("Product export failed: " + e.getMessage(), e);
+            }
+        };
+        boolean csv = exportFormat == IProductImportExportService.Format.CSV;
+        return ResponseEntity.ok()
+            .contentType(csv ? MediaType.parseMediaType("text/csv; charset=UTF-8") : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + (csv ? "csv" : "jsonl") + "\"")
+            .body(body);
+    }
+
+    private String bulkMessage(String verb, IProductService.BulkOperationResult result) {
+        if (result.isAllSucceeded()) {
+            return "All " + result.getTotalItems() + " products " + verb + " successfully";
+        }
+        return result.getSucceededCount() + " of " + result.getTotalItems() + " products " + verb +
+               "; " + result.getFailedCount() + " failed";
+    }
+
     /**
      * Update product price
      */
@@ -418,6 +546,28 @@ public class AdminProductController extends BaseController {
         public void setManagerId(String managerId) { this.managerId = managerId; }
     }
 
+    public static class BulkPriceUpdateRequest {
+        private Map<String, Float> prices;
+        private String managerId;
+
+        public Map<String, Float> getPrices() { return prices; }
+        public void setPrices(Map<String, Float> prices) { this.prices = prices; }
+
+        public String getManagerId() { return managerId; }
+        public void setManagerId(String managerId) { this.managerId = managerId; }
+    }
+
+    public static class BulkStockAdjustmentRequest {
+        private Map<String, Integer> quantityChanges;
+        private String managerId;
+
+        public Map<String, Integer> getQuantityChanges() { return quantityChanges; }
+        public void setQuantityChanges(Map<String, Integer> quantityChanges) { this.quantityChanges = quantityChanges; }
+
+        public String getManagerId() { return managerId; }
+        public void setManagerId(String managerId) { this.managerId = managerId; }
+    }
+
     public static class UpdatePriceRequest {
         private float newPrice;
         private String managerId;
@@ -1,7 +1,16 @@
 package com.aims.core.rest.controllers;
 
+import com.aims.core.config.WebConfig;
+import com.aims.core.rest.cache.CatalogResponseCache;
+import com.aims.core.shared.utils.FacetedSearchResult;
+import com.aims.core.shared.utils.SearchFacets;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.WebRequest;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,6 +18,8 @@ import java.util.Map;
  * Base controller providing common functionality for all REST controllers
  */
 public abstract class BaseController {
+
+    private static final ObjectMapper ERROR_MAPPER = WebConfig.createObjectMapper();
     
     /**
      * Create a success response with data
@@ -21,11 +32,18 @@ public abstract class BaseController {
      * Create a success response with data and message
      */
     protected <T> ResponseEntity<ApiResponse<T>> success(T data, String message) {
+        return ResponseEntity.ok(successBody(data, message));
+    }
+
+    /**
+     * Create the body of a success response, for callers that serialize it themselves
+     */
+    protected <T> ApiResponse<T> successBody(T data, String message) {
         ApiResponse<T> response = new ApiResponse<>();
         response.setSuccess(true);
         response.setData(data);
         response.setMessage(message);
-        return ResponseEntity.ok(response);
+        return response;
     }
     
     /**
@@ -57,6 +75,17 @@ public abstract class BaseController {
             int page, 
             int limit, 
             long total) {
+        return ResponseEntity.ok(paginatedBody(items, page, limit, total));
+    }
+
+    /**
+     * Create the body of a paginated response, for callers that serialize it themselves
+     */
+    protected <T> PaginatedApiResponse<T> paginatedBody(
+            java.util.List<T> items, 
+            int page, 
+            int limit, 
+            long total) {
         
         PaginatedApiResponse<T> response = new PaginatedApiResponse<>();
         response.setSuccess(true);
@@ -73,7 +102,59 @@ public abstract class BaseController {
         
         response.setPagination(pagination);
         
-        return ResponseEntity.ok(response);
+        return response;
+    }
+
+    /**
+     * Create the body of a paginated response that also carries search facet counts
+     */
+    protected <T> FacetedApiResponse<T> facetedBody(FacetedSearchResult<T> result, int page, int limit) {
+        PaginatedApiResponse<T> paginated = paginatedBody(result.page().results(), page, limit, result.page().totalResults());
+        
+        FacetedApiResponse<T> response = new FacetedApiResponse<>();
+        response.setSuccess(true);
+        response.setMessage(paginated.getMessage());
+        response.setItems(paginated.getItems());
+        response.setPagination(paginated.getPagination());
+        response.setFacets(result.facets());
+        
+        return response;
+    }
+
+    /**
+     * Create a response from a cached, pre-serialized JSON body, or a 304 Not
+     * Modified when the request's If-None-Match / If-Modified-Since still match.
+     * Clients must revalidate on every use (Cache-Control: no-cache).
+     */
+    protected ResponseEntity<byte[]> cachedJson(WebRequest request, CatalogResponseCache.Lookup lookup) {
+        CatalogResponseCache.Entry entry = lookup.entry();
+        if (request.checkNotModified(entry.getEtag(), entry.getLastModified())) {
+            // Status and validators have been set on the response
+            return null;
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.noCache())
+            .eTag(entry.getEtag())
+            .lastModified(entry.getLastModified())
+            .header("X-Cache", lookup.hit() ? "HIT" : "MISS")
+            .body(entry.getBody());
+    }
+    
+    /**
+     * Create an error response for endpoints that return pre-serialized JSON
+     */
+    protected ResponseEntity<byte[]> jsonError(String message, HttpStatus status) {
+        ApiResponse<Object> response = new ApiResponse<>();
+        response.setSuccess(false);
+        response.setMessage(message);
+        try {
+            return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ERROR_MAPPER.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(status).build();
+        }
     }
     
     // Inner classes for API responses
@@ -117,6 +198,13 @@ public abstract class BaseController {
         public void setMessage(String message) { this.message = message; }
     }
     
+    public static class FacetedApiResponse<T> extends PaginatedApiResponse<T> {
+        private SearchFacets facets;
+        
+        public SearchFacets getFacets() { return facets; }
+        public void setFacets(SearchFacets facets) { this.facets = facets; }
+    }
+    
     public static class PaginationInfo {
         private int page;
         private int limit;
@@ -1,12 +1,11 @@
 package com.aims.core.rest.controllers;
 
 import com.aims.core.application.services.IProductService;
+import com.aims.core.rest.cache.CatalogResponseCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.sql.SQLException;
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST Controller for categories endpoints
@@ -18,18 +17,22 @@ public class CategoryController extends BaseController {
     
     @Autowired
     private IProductService productService;
+
+    private final CatalogResponseCache responseCache = CatalogResponseCache.getInstance();
     
     /**
      * Get all product categories
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<String>>> getAllCategories() {
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
         try {
-            List<String> categories = productService.getAllCategories();
-            return success(categories, "Categories retrieved successfully");
+            // Shares its cache entry with GET /api/products/categories
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse("categories", () ->
+                CatalogResponseCache.Loaded.of(successBody(productService.getAllCategories(), "Categories retrieved successfully")));
+            return cachedJson(request, lookup);
             
-        } catch (SQLException e) {
-            return error("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return jsonError("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 }
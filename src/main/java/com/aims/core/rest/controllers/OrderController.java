@@ -1,10 +1,12 @@
 package com.aims.core.rest.controllers;
 
+import com.aims.core.application.services.IOrderArchiveService;
 import com.aims.core.application.services.IOrderService;
 import com.aims.core.entities.OrderEntity;
 import com.aims.core.entities.DeliveryInfo;
 import com.aims.core.enums.OrderStatus;
 import com.aims.core.shared.ServiceFactory;
+import com.aims.core.shared.dto.OrderArchiveMetrics;
 import com.aims.core.shared.dto.SearchResult;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
@@ -27,9 +29,11 @@ import java.util.HashMap;
 public class OrderController extends BaseController {
 
     private final IOrderService orderService;
+    private final IOrderArchiveService archiveService;
 
     public OrderController() {
         this.orderService = ServiceFactory.getOrderService();
+        this.archiveService = ServiceFactory.getOrderArchiveService();
     }
 
     /**
@@ -65,12 +69,14 @@ public class OrderController extends BaseController {
     }
 
     /**
-     * Get orders for a user
+     * Get orders for a user; includeArchived adds the orders moved to the archives (full order history)
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<OrderEntity>>> getOrdersByUserId(@PathVariable String userId) {
+    public ResponseEntity<ApiResponse<List<OrderEntity>>> getOrdersByUserId(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
-            List<OrderEntity> orders = orderService.getOrdersByUserId(userId);
+            List<OrderEntity> orders = orderService.getOrdersByUserId(userId, includeArchived);
             return success(orders, "Orders retrieved successfully");
         } catch (ResourceNotFoundException e) {
             return error("User or orders not found: " + e.getMessage(), HttpStatus.NOT_FOUND);
@@ -335,6 +341,27 @@ public class OrderController extends BaseController {
         }
     }
 
+    /**
+     * Counters of the order archiver
+     */
+    @GetMapping("/archive/metrics")
+    public ResponseEntity<ApiResponse<OrderArchiveMetrics>> getArchiveMetrics() {
+        return success(archiveService.getMetrics(), "Archive metrics retrieved successfully");
+    }
+
+    /**
+     * Archive finished orders now instead of waiting for the next scheduled pass
+     */
+    @PostMapping("/archive/run")
+    public ResponseEntity<ApiResponse<OrderArchiveMetrics>> runArchive() {
+        try {
+            int archived = archiveService.archiveOrders();
+            return success(archiveService.getMetrics(), "Archived " + archived + " orders");
+        } catch (Exception e) {
+            return error("An error occurred while archiving orders: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Request and Response DTOs
     public static class CreateOrderRequest {
         private String cartSessionId;
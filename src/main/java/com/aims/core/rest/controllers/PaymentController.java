@@ -1,11 +1,13 @@
 package com.aims.core.rest.controllers;
 
+import com.aims.core.application.services.IPaymentReconciliationService;
 import com.aims.core.application.services.IPaymentService;
 import com.aims.core.application.services.IOrderService;
 import com.aims.core.entities.OrderEntity;
 import com.aims.core.entities.PaymentMethod;
 import com.aims.core.entities.PaymentTransaction;
 import com.aims.core.shared.ServiceFactory;
+import com.aims.core.shared.dto.PaymentReconciliationMetrics;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.exceptions.PaymentException;
@@ -26,10 +28,12 @@ public class PaymentController extends BaseController {
 
     private final IPaymentService paymentService;
     private final IOrderService orderService;
+    private final IPaymentReconciliationService reconciliationService;
 
     public PaymentController() {
         this.paymentService = ServiceFactory.getPaymentService();
         this.orderService = ServiceFactory.getOrderService();
+        this.reconciliationService = ServiceFactory.getPaymentReconciliationService();
     }
 
     /**
@@ -262,6 +266,27 @@ public class PaymentController extends BaseController {
         }
     }
 
+    /**
+     * Backlog and latency of the pending payment reconciler
+     */
+    @GetMapping("/reconciliation/metrics")
+    public ResponseEntity<ApiResponse<PaymentReconciliationMetrics>> getReconciliationMetrics() {
+        return success(reconciliationService.getMetrics(), "Reconciliation metrics retrieved successfully");
+    }
+
+    /**
+     * Run a reconciliation pass now instead of waiting for the next scheduled one
+     */
+    @PostMapping("/reconciliation/run")
+    public ResponseEntity<ApiResponse<PaymentReconciliationMetrics>> runReconciliation() {
+        try {
+            int resolved = reconciliationService.reconcilePendingPayments();
+            return success(reconciliationService.getMetrics(), "Reconciliation resolved " + resolved + " pending payments");
+        } catch (Exception e) {
+            return error("An error occurred during reconciliation: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Request DTOs
     public static class ProcessPaymentRequest {
         private String orderId;
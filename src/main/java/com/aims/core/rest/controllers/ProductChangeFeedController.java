@@ -0,0 +1,152 @@
+package com.aims.core.rest.controllers;
+
+import com.aims.core.shared.events.ProductChangeBus;
+import com.aims.core.shared.events.ProductChangeEvent;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-Sent Events feed of product changes (create, stock, update, delete).
+ *
+ * Each event carries {@code <epoch>:<sequence>} as the SSE id, so a client
+ * that reconnects with {@code Last-Event-ID} (or {@code ?since=}) receives the
+ * events it missed. Sequences restart with the server, and the bus epoch tells
+ * the processes apart: when the position is no longer retained - or its epoch
+ * is not the current one - a {@code resync} event tells the client to reload.
+ * A bare sequence is taken to be from the current process.
+ */
+@RestController
+@RequestMapping("/api/products/changes")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
+public class ProductChangeFeedController extends BaseController {
+
+    // Clients are expected to reconnect (with Last-Event-ID) after the timeout
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final ProductChangeBus changeBus = ProductChangeBus.getInstance();
+
+    /**
+     * Opens the change stream.
+     * GET /api/products/changes
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        AtomicReference<ProductChangeBus.Subscription> subscription = new AtomicReference<>();
+
+        Position resumeFrom = parsePosition(lastEventId);
+        if (resumeFrom == null) {
+            resumeFrom = parsePosition(since);
+        }
+
+        ProductChangeBus.Listener listener = new ProductChangeBus.Listener() {
+            @Override
+            public void onEvent(ProductChangeEvent event) {
+                send(emitter, subscription, SseEmitter.event()
+                    .id(eventId(event.sequence()))
+                    .name(event.type().name().toLowerCase())
+                    .data(event, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void onResyncRequired(long latestSequence) {
+                send(emitter, subscription, SseEmitter.event()
+                    .id(eventId(latestSequence))
+                    .name("resync")
+                    .data(Map.of("epoch", changeBus.getEpoch(), "latestSequence", latestSequence),
+                        MediaType.APPLICATION_JSON));
+            }
+        };
+
+        // A fresh client starts at the current position; replaying from it
+        // yields nothing but closes the gap between "ready" and the first event
+        long latest = changeBus.getLatestSequence();
+        if (resumeFrom == null) {
+            resumeFrom = new Position(changeBus.getEpoch(), latest);
+        }
+        try {
+            emitter.send(SseEmitter.event()
+                .name("ready")
+                .data(Map.of("epoch", changeBus.getEpoch(), "latestSequence", latest), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        subscription.set(changeBus.subscribeFrom(resumeFrom.epoch(), resumeFrom.sequence(), listener));
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        return emitter;
+    }
+
+    /**
+     * Current feed position and subscriber count.
+     * GET /api/products/changes/status
+     */
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getFeedStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("epoch", changeBus.getEpoch());
+        status.put("latestSequence", changeBus.getLatestSequence());
+        status.put("subscribers", changeBus.getSubscriberCount());
+        return success(status, "Product change feed status");
+    }
+
+    private void send(SseEmitter emitter, AtomicReference<ProductChangeBus.Subscription> subscription,
+                      SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; stop delivering to this emitter
+            unsubscribe(subscription);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(AtomicReference<ProductChangeBus.Subscription> subscription) {
+        ProductChangeBus.Subscription current = subscription.getAndSet(null);
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private String eventId(long sequence) {
+        return changeBus.getEpoch() + ":" + sequence;
+    }
+
+    /**
+     * A resume position: the bus epoch it was recorded under and the last
+     * sequence seen.
+     */
+    private record Position(String epoch, long sequence) {
+    }
+
+    /**
+     * Parses {@code <epoch>:<sequence>}, or a bare sequence of the current
+     * epoch; null if absent or malformed.
+     */
+    private Position parsePosition(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        int colon = trimmed.lastIndexOf(':');
+        String epoch = colon >= 0 ? trimmed.substring(0, colon) : changeBus.getEpoch();
+        try {
+            return new Position(epoch, Long.parseLong(trimmed.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
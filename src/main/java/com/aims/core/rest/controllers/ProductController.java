@@ -2,15 +2,18 @@ package com.aims.core.rest.controllers;
 
 import com.aims.core.application.services.IProductService;
 import com.aims.core.entities.Product;
+import com.aims.core.rest.cache.CatalogResponseCache;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.FacetedSearchResult;
 import com.aims.core.shared.utils.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.sql.SQLException;
-import java.util.List;
 
 /**
  * REST Controller for product endpoints
@@ -22,68 +25,114 @@ public class ProductController extends BaseController {
     
     @Autowired
     private IProductService productService;
+
+    private final CatalogResponseCache responseCache = CatalogResponseCache.getInstance();
     
     /**
      * Get products with pagination and filtering
      */
     @GetMapping
-    public ResponseEntity<PaginatedApiResponse<Product>> getProducts(
+    public ResponseEntity<byte[]> getProducts(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int pageSize,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String productType,
             @RequestParam(defaultValue = "entryDate") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortOrder) {
+            @RequestParam(defaultValue = "DESC") String sortOrder,
+            WebRequest request) {
         
-        try {
-            SearchResult<Product> result = productService.searchProducts(
-                keyword, category, productType, sortBy, sortOrder, page, pageSize);
-            
-            return paginatedSuccess(result.results(), page, pageSize, (int) result.totalResults());
-            
-        } catch (SQLException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return cachedProductPage(keyword, category, productType, sortBy, sortOrder, page, pageSize, request);
     }
     
     /**
      * Get product by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable String id) {
+    public ResponseEntity<byte[]> getProductById(@PathVariable String id, WebRequest request) {
         try {
-            Product product = productService.getProductById(id);
-            if (product == null) {
-                return error("Product not found", org.springframework.http.HttpStatus.NOT_FOUND);
+            CatalogResponseCache.Lookup lookup = responseCache.getProductResponse(id, () -> {
+                Product product = productService.getProductById(id);
+                if (product == null) {
+                    return null;
+                }
+                // Strong ETag: product ID and version, plus a digest for schemas without a version column
+                return new CatalogResponseCache.Loaded(successBody(product, "Product retrieved successfully"),
+                    product.getProductId() + "-v" + product.getVersion());
+            });
+            if (lookup == null) {
+                return jsonError("Product not found", HttpStatus.NOT_FOUND);
             }
-            return success(product, "Product retrieved successfully");
+            return cachedJson(request, lookup);
             
         } catch (SQLException e) {
-            return error("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
+            return jsonError("Database error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return jsonError("An error occurred while retrieving the product", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     
     /**
-     * Search products
+     * Search products. The response also carries facet counts (categories,
+     * product types, price ranges, stock) for the whole query.
      */
     @GetMapping("/search")
-    public ResponseEntity<PaginatedApiResponse<Product>> searchProducts(
+    public ResponseEntity<byte[]> searchProducts(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String productType,
             @RequestParam(defaultValue = "entryDate") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortOrder,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int pageSize) {
+            @RequestParam(defaultValue = "20") int pageSize,
+            WebRequest request) {
         
+        String key = CatalogResponseCache.key("products/search", productPageParams(
+            keyword, category, productType, sortBy, sortOrder, page, pageSize));
         try {
-            SearchResult<Product> result = productService.searchProducts(
-                keyword, category, productType, sortBy, sortOrder, page, pageSize);
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse(key, () -> {
+                FacetedSearchResult<Product> result = productService.searchProductsWithFacets(
+                    keyword, category, productType, sortBy, sortOrder, page, pageSize);
+                return CatalogResponseCache.Loaded.of(facetedBody(result, page, pageSize));
+            });
+            return cachedJson(request, lookup);
             
-            return paginatedSuccess(result.results(), page, pageSize, (int) result.totalResults());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Browse products by VAT-inclusive price range, stock, type and category,
+     * filtered and sorted in memory by the catalogue index
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<byte[]> browseProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String productType,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "true") boolean inStock,
+            @RequestParam(defaultValue = "entryDate") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortOrder,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int pageSize,
+            WebRequest request) {
+        
+        String key = CatalogResponseCache.key("products/browse", new Object[] {
+            "category", category, "productType", productType, "minPrice", minPrice, "maxPrice", maxPrice,
+            "inStock", inStock, "sortBy", sortBy, "sortOrder", sortOrder != null ? sortOrder.trim().toUpperCase() : null,
+            "page", page, "pageSize", pageSize
+        });
+        try {
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse(key, () -> {
+                SearchResult<Product> result = productService.browseProducts(
+                    category, productType, minPrice, maxPrice, inStock, sortBy, sortOrder, page, pageSize);
+                return CatalogResponseCache.Loaded.of(paginatedBody(result.results(), page, pageSize, (int) result.totalResults()));
+            });
+            return cachedJson(request, lookup);
             
-        } catch (SQLException e) {
+        } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -120,37 +169,31 @@ public class ProductController extends BaseController {
      * Search products by type
      */
     @GetMapping("/by-type")
-    public ResponseEntity<PaginatedApiResponse<Product>> searchByProductType(
+    public ResponseEntity<byte[]> searchByProductType(
             @RequestParam String productType,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "entryDate") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortOrder,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int pageSize) {
+            @RequestParam(defaultValue = "20") int pageSize,
+            WebRequest request) {
         
-        try {
-            SearchResult<Product> result = productService.searchProducts(
-                keyword, category, productType, sortBy, sortOrder, page, pageSize);
-            
-            return paginatedSuccess(result.results(), page, pageSize, (int) result.totalResults());
-            
-        } catch (SQLException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return cachedProductPage(keyword, category, productType, sortBy, sortOrder, page, pageSize, request);
     }
     
     /**
      * Get product categories
      */
     @GetMapping("/categories")
-    public ResponseEntity<ApiResponse<List<String>>> getCategories() {
+    public ResponseEntity<byte[]> getCategories(WebRequest request) {
         try {
-            List<String> categories = productService.getAllCategories();
-            return success(categories, "Categories retrieved successfully");
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse("categories", () ->
+                CatalogResponseCache.Loaded.of(successBody(productService.getAllCategories(), "Categories retrieved successfully")));
+            return cachedJson(request, lookup);
             
-        } catch (SQLException e) {
-            return error("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return jsonError("Database error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     
@@ -158,16 +201,48 @@ public class ProductController extends BaseController {
      * Get product types
      */
     @GetMapping("/types")
-    public ResponseEntity<ApiResponse<List<String>>> getProductTypes() {
+    public ResponseEntity<byte[]> getProductTypes(WebRequest request) {
         try {
-            List<String> types = productService.getAllProductTypes();
-            return success(types, "Product types retrieved successfully");
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse("types", () ->
+                CatalogResponseCache.Loaded.of(successBody(productService.getAllProductTypes(), "Product types retrieved successfully")));
+            return cachedJson(request, lookup);
             
-        } catch (SQLException e) {
-            return error("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return jsonError("Database error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     
+    /**
+     * Listing and by-type requests run the same query, so they share
+     * cache entries keyed by their normalized parameters
+     */
+    private ResponseEntity<byte[]> cachedProductPage(String keyword, String category, String productType,
+                                                     String sortBy, String sortOrder, int page, int pageSize,
+                                                     WebRequest request) {
+        String key = CatalogResponseCache.key("products", productPageParams(
+            keyword, category, productType, sortBy, sortOrder, page, pageSize));
+        try {
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse(key, () -> {
+                SearchResult<Product> result = productService.searchProducts(
+                    keyword, category, productType, sortBy, sortOrder, page, pageSize);
+                return CatalogResponseCache.Loaded.of(paginatedBody(result.results(), page, pageSize, (int) result.totalResults()));
+            });
+            return cachedJson(request, lookup);
+            
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    private static Object[] productPageParams(String keyword, String category, String productType,
+                                              String sortBy, String sortOrder, int page, int pageSize) {
+        return new Object[] {
+            "keyword", keyword, "category", category, "productType", productType,
+            "sortBy", sortBy, "sortOrder", sortOrder != null ? sortOrder.trim().toUpperCase() : null,
+            "page", page, "pageSize", pageSize
+        };
+    }
+    
     // Request DTOs
     public static class AdvancedSearchRequest {
         private String keyword;
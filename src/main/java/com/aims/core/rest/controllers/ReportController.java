@@ -0,0 +1,144 @@
+package com.aims.core.rest.controllers;
+
+import com.aims.core.application.services.IReportingService;
+import com.aims.core.shared.ServiceFactory;
+import com.aims.core.shared.dto.CategorySales;
+import com.aims.core.shared.dto.DailyRevenue;
+import com.aims.core.shared.dto.OrderStatusCount;
+import com.aims.core.shared.dto.ProductSales;
+import com.aims.core.shared.exceptions.ValidationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for sales and operations reports. Dates are ISO days
+ * (YYYY-MM-DD), both ends inclusive; without them a report covers the last
+ * {@value #DEFAULT_RANGE_DAYS} days.
+ */
+@RestController
+@RequestMapping("/api/admin/reports")
+public class ReportController extends BaseController {
+
+    static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final IReportingService reportingService;
+
+    public ReportController() {
+        this.reportingService = ServiceFactory.getReportingService();
+    }
+
+    /**
+     * Revenue, sold orders and units per day
+     */
+    @GetMapping("/revenue")
+    public ResponseEntity<ApiResponse<List<DailyRevenue>>> getDailyRevenue(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            LocalDate end = parseDay(to, LocalDate.now());
+            LocalDate start = parseDay(from, end.minusDays(DEFAULT_RANGE_DAYS - 1));
+            return success(reportingService.getDailyRevenue(start, end), "Daily revenue retrieved successfully");
+        } catch (ValidationException e) {
+            return reportValidationError(e);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Best-selling products by revenue
+     */
+    @GetMapping("/top-products")
+    public ResponseEntity<ApiResponse<List<ProductSales>>> getTopProducts(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            LocalDate end = parseDay(to, LocalDate.now());
+            LocalDate start = parseDay(from, end.minusDays(DEFAULT_RANGE_DAYS - 1));
+            return success(reportingService.getTopProducts(start, end, limit), "Top products retrieved successfully");
+        } catch (ValidationException e) {
+            return reportValidationError(e);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Sales per category with each category's share of revenue
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<ApiResponse<List<CategorySales>>> getCategorySales(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            LocalDate end = parseDay(to, LocalDate.now());
+            LocalDate start = parseDay(from, end.minusDays(DEFAULT_RANGE_DAYS - 1));
+            return success(reportingService.getCategorySales(start, end), "Category sales retrieved successfully");
+        } catch (ValidationException e) {
+            return reportValidationError(e);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Orders placed in the range per current status
+     */
+    @GetMapping("/statuses")
+    public ResponseEntity<ApiResponse<List<OrderStatusCount>>> getStatusCounts(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            LocalDate end = parseDay(to, LocalDate.now());
+            LocalDate start = parseDay(from, end.minusDays(DEFAULT_RANGE_DAYS - 1));
+            return success(reportingService.getStatusCounts(start, end), "Order status counts retrieved successfully");
+        } catch (ValidationException e) {
+            return reportValidationError(e);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Rebuild the report rollups from the orders; without dates, from the first order not yet archived to today
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<ApiResponse<Integer>> backfill(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            int orders = reportingService.backfill(parseDay(from, null), parseDay(to, null));
+            return success(orders, "Report rollups rebuilt from " + orders + " orders");
+        } catch (ValidationException e) {
+            return reportValidationError(e);
+        } catch (SQLException e) {
+            return error("Database error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static LocalDate parseDay(String value, LocalDate defaultValue) throws ValidationException {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid date '" + value + "', expected YYYY-MM-DD");
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> reportValidationError(ValidationException e) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("validation", e.getMessage());
+        return validationError("Invalid report request", errors);
+    }
+}
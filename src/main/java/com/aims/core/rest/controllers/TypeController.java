@@ -1,12 +1,11 @@
 package com.aims.core.rest.controllers;
 
 import com.aims.core.application.services.IProductService;
+import com.aims.core.rest.cache.CatalogResponseCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.sql.SQLException;
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST Controller for product types endpoints
@@ -18,18 +17,22 @@ public class TypeController extends BaseController {
     
     @Autowired
     private IProductService productService;
+
+    private final CatalogResponseCache responseCache = CatalogResponseCache.getInstance();
     
     /**
      * Get all product types
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<String>>> getAllProductTypes() {
+    public ResponseEntity<byte[]> getAllProductTypes(WebRequest request) {
         try {
-            List<String> types = productService.getAllProductTypes();
-            return success(types, "Product types retrieved successfully");
+            // Shares its cache entry with GET /api/products/types
+            CatalogResponseCache.Lookup lookup = responseCache.getCatalogResponse("types", () ->
+                CatalogResponseCache.Loaded.of(successBody(productService.getAllProductTypes(), "Product types retrieved successfully")));
+            return cachedJson(request, lookup);
             
-        } catch (SQLException e) {
-            return error("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (Exception e) {
+            return jsonError("Database error occurred", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 }
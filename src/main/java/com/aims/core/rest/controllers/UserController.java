@@ -3,16 +3,20 @@ package com.aims.core.rest.controllers;
 import com.aims.core.application.services.IUserAccountService;
 import com.aims.core.entities.UserAccount;
 import com.aims.core.entities.Role;
+import com.aims.core.entities.UserRoleAssignment;
+import com.aims.core.enums.UserStatus;
 import com.aims.core.shared.ServiceFactory;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.exceptions.AuthenticationException;
 import com.aims.core.shared.exceptions.AuthorizationException;
+import com.aims.core.shared.utils.SearchResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
@@ -86,6 +90,35 @@ public class UserController extends BaseController {
         }
     }
 
+    /**
+     * Search users with server-side filtering and paging (admin only)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PaginatedApiResponse<UserSummary>> searchUsers(
+            @RequestParam String adminId,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) String roleId,
+            @RequestParam(defaultValue = "username") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortOrder,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int pageSize) {
+        try {
+            SearchResult<UserAccount> result = userAccountService.searchUsers(
+                adminId, keyword, status, roleId, sortBy, sortOrder, page, pageSize);
+
+            List<UserSummary> items = new ArrayList<>(result.results().size());
+            for (UserAccount user : result.results()) {
+                items.add(UserSummary.from(user));
+            }
+            return paginatedSuccess(items, result.currentPage(), pageSize, result.totalResults());
+        } catch (AuthorizationException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (SQLException e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Create new user (admin only)
      */
@@ -364,6 +397,41 @@ public class UserController extends BaseController {
         }
     }
 
+    // Response DTOs
+
+    /**
+     * Row of the admin user list: account fields and role list, without the
+     * password hash or the back-references held by role assignments.
+     */
+    public static class UserSummary {
+        private String userId;
+        private String username;
+        private String email;
+        private UserStatus userStatus;
+        private List<Role> roles;
+
+        static UserSummary from(UserAccount user) {
+            UserSummary summary = new UserSummary();
+            summary.userId = user.getUserId();
+            summary.username = user.getUsername();
+            summary.email = user.getEmail();
+            summary.userStatus = user.getUserStatus();
+            summary.roles = new ArrayList<>();
+            if (user.getRoleAssignments() != null) {
+                for (UserRoleAssignment assignment : user.getRoleAssignments()) {
+                    summary.roles.add(assignment.getRole());
+                }
+            }
+            return summary;
+        }
+
+        public String getUserId() { return userId; }
+        public String getUsername() { return username; }
+        public String getEmail() { return email; }
+        public UserStatus getUserStatus() { return userStatus; }
+        public List<Role> getRoles() { return roles; }
+    }
+
     // Request DTOs
     public static class CreateUserRequest {
         private UserAccount userAccount;
@@ -7,8 +7,15 @@ import com.aims.core.infrastructure.adapters.external.email.IEmailSenderAdapter;
 import com.aims.core.infrastructure.adapters.external.email.StubEmailSenderAdapter;
 import com.aims.core.infrastructure.adapters.external.payment_gateway.IPaymentGatewayAdapter;
 import com.aims.core.infrastructure.adapters.external.payment_gateway.StubPaymentGatewayAdapter;
+import com.aims.core.shared.events.ProductChangeBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
 
 public class ServiceFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceFactory.class);
     
     // Singleton instance
     private static ServiceFactory instance;
@@ -28,6 +35,10 @@ public class ServiceFactory {
     private IPaymentTransactionDAO paymentTransactionDAO;
     private ICardDetailsDAO cardDetailsDAO;
     private IProductManagerAuditDAO productManagerAuditDAO;
+    private IPaymentSettlementDAO paymentSettlementDAO;
+    private IJobCheckpointDAO jobCheckpointDAO;
+    private IReportingDAO reportingDAO;
+    private IOrderArchiveDAO orderArchiveDAO;
     
     // External Service Adapters
     private IPaymentGatewayAdapter paymentGatewayAdapter;
@@ -53,7 +64,13 @@ public class ServiceFactory {
     private IRushOrderService rushOrderService;
     private IStockValidationService stockValidationService;
     private IStockReservationService stockReservationService;
+    private IStockDecrementService stockDecrementService;
+    private IProductImportExportService productImportExportService;
     private IOrderStateManagementService orderStateManagementService;
+    private IPaymentSettlementService paymentSettlementService;
+    private IPaymentReconciliationService paymentReconciliationService;
+    private IReportingService reportingService;
+    private IOrderArchiveService orderArchiveService;
     
     // Payment Flow Monitoring Utilities
     private com.aims.core.presentation.utils.OrderValidationStateManager orderValidationStateManager;
@@ -88,17 +105,28 @@ public class ServiceFactory {
         orderEntityDAO = new OrderEntityDAOImpl(orderItemDAO, userAccountDAO);
         paymentMethodDAO = new PaymentMethodDAOImpl(userAccountDAO, cardDetailsDAO);
         paymentTransactionDAO = new PaymentTransactionDAOImpl(orderEntityDAO, paymentMethodDAO);
+        paymentSettlementDAO = new PaymentSettlementDAOImpl();
+        jobCheckpointDAO = new JobCheckpointDAOImpl();
+        reportingDAO = new ReportingDAOImpl();
+        orderArchiveDAO = new OrderArchiveDAOImpl();
         
         // External Service Adapters (using stub implementation for testing)
         paymentGatewayAdapter = new StubPaymentGatewayAdapter();
         emailSenderAdapter = new StubEmailSenderAdapter();
         
         // Initialize audit service before ProductService
-        productManagerAuditService = new ProductManagerAuditServiceImpl(productManagerAuditDAO);
+        // Audit rows are batched in the background; aims.audit.durability = SYNC | SYNC_DELETES (default) | ASYNC
+        productManagerAuditService = new ProductManagerAuditServiceImpl(productManagerAuditDAO,
+            AuditLogWriter.Durability.fromString(System.getProperty("aims.audit.durability")));
+        // Stores queued audit rows if the JVM exits without the application's own shutdown
+        Runtime.getRuntime().addShutdownHook(new Thread(productManagerAuditService::shutdown, "audit-log-shutdown"));
         
         // Initialize Phase 2 stock services before ProductService (ProductService depends on StockValidationService)
         stockReservationService = new StockReservationServiceImpl(productDAO);
         stockValidationService = new StockValidationServiceImpl(productDAO, stockReservationService);
+        // Group commit batches concurrent decrements of hot products into shared transactions
+        stockDecrementService = new StockDecrementServiceImpl(productDAO,
+            Boolean.getBoolean("aims.stock.groupCommit") ? IStockDecrementService.Mode.GROUP_COMMIT : IStockDecrementService.Mode.DIRECT);
         
         // Initialize order validation service (needed by PaymentService)
         orderValidationService = new OrderValidationServiceImpl(
@@ -112,13 +140,58 @@ public class ServiceFactory {
         );
         
         // Services (ProductService needs audit service and stock validation service)
-        productService = new ProductServiceImpl(productDAO, productManagerAuditService, stockValidationService);
+        ProductServiceImpl productServiceImpl = new ProductServiceImpl(productDAO, productManagerAuditService, stockValidationService, stockDecrementService);
+        // Listings without a keyword filter and sort in memory; -Daims.catalog.index=false keeps them in SQLite
+        if (!"false".equalsIgnoreCase(System.getProperty("aims.catalog.index"))) {
+            ProductCatalogIndex catalogIndex = new ProductCatalogIndex(productDAO, ProductChangeBus.getInstance());
+            try {
+                catalogIndex.start();
+            } catch (SQLException e) {
+                // Loaded by the first query instead
+                logger.error("Product catalogue index not loaded at startup", e);
+            }
+            productServiceImpl.setCatalogIndex(catalogIndex);
+        }
+        productService = productServiceImpl;
+        productImportExportService = new ProductImportExportServiceImpl(productDAO, productManagerAuditService);
         authenticationService = new AuthenticationServiceImpl(userAccountDAO, userRoleAssignmentDAO);
         deliveryCalculationService = new DeliveryCalculationServiceImpl();
         
         // External services with stub adapters
         notificationService = new NotificationServiceImpl(emailSenderAdapter);
-        paymentService = new PaymentServiceImpl(paymentTransactionDAO, paymentMethodDAO, cardDetailsDAO, paymentGatewayAdapter, orderValidationService);
+        // Payment results (transaction record, stock, invoice, order status) are committed together
+        paymentSettlementService = new PaymentSettlementServiceImpl(paymentSettlementDAO, orderItemDAO);
+        PaymentServiceImpl paymentServiceImpl = new PaymentServiceImpl(paymentTransactionDAO, paymentMethodDAO, cardDetailsDAO, paymentGatewayAdapter, orderValidationService);
+        paymentServiceImpl.setPaymentSettlementService(paymentSettlementService);
+        paymentService = paymentServiceImpl;
+        // Queries the gateway for payments left pending (lost callbacks); runs in the background with -Daims.payment.reconcile=true
+        paymentReconciliationService = new PaymentReconciliationServiceImpl(paymentTransactionDAO, jobCheckpointDAO,
+            paymentGatewayAdapter, paymentSettlementService, PaymentReconciliationServiceImpl.Settings.fromSystemProperties());
+        if (Boolean.getBoolean("aims.payment.reconcile")) {
+            paymentReconciliationService.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(paymentReconciliationService::shutdown, "payment-reconciler-shutdown"));
+        }
+
+        // Reports read daily rollups kept by the order DAOs; -Daims.reports.backfill=true rebuilds them at startup from the orders not yet archived
+        reportingService = new ReportingServiceImpl(reportingDAO);
+        if (Boolean.getBoolean("aims.reports.backfill")) {
+            Thread backfill = new Thread(() -> {
+                try {
+                    reportingService.backfill(null, null);
+                } catch (Exception e) {
+                    logger.error("Report backfill failed", e);
+                }
+            }, "report-backfill");
+            backfill.setDaemon(true);
+            backfill.start();
+        }
+
+        // Moves finished orders past -Daims.archive.afterDays into per-year archive files; runs in the background with -Daims.archive=true
+        orderArchiveService = new OrderArchiveServiceImpl(orderArchiveDAO, OrderArchiveServiceImpl.Settings.fromSystemProperties());
+        if (Boolean.getBoolean("aims.archive")) {
+            orderArchiveService.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(orderArchiveService::shutdown, "order-archiver-shutdown"));
+        }
         
         // Initialize order data loader service first
         orderDataLoaderService = new OrderDataLoaderServiceImpl(
@@ -149,8 +222,11 @@ public class ServiceFactory {
 // Initialize remaining Phase 2 services
 rushOrderService = new RushOrderServiceImpl();
 
-// Initialize CartService with StockValidationService dependency
-cartService = new CartServiceImpl(cartDAO, cartItemDAO, productDAO, userAccountDAO, stockValidationService);
+// Initialize CartService with StockValidationService dependency.
+// Every cart change is written through; -Daims.cart.writeBehind=true keeps carts in memory and stores them in coalesced batches
+cartService = new CartServiceImpl(cartDAO, cartItemDAO, productDAO, userAccountDAO, stockValidationService,
+    new CartWriteBehindStore(cartDAO, Boolean.getBoolean("aims.cart.writeBehind")));
+Runtime.getRuntime().addShutdownHook(new Thread(cartService::shutdown, "cart-store-shutdown"));
 
 // Initialize order state management service
 orderStateManagementService = new OrderStateManagementServiceImpl(
@@ -163,7 +239,7 @@ orderStateManagementService = new OrderStateManagementServiceImpl(
         
         // Services with many dependencies
         userAccountService = new UserAccountServiceImpl(userAccountDAO, roleDAO, userRoleAssignmentDAO, notificationService);
-        orderService = new OrderServiceImpl(
+        OrderServiceImpl orderServiceImpl = new OrderServiceImpl(
             orderEntityDAO,
             orderItemDAO,
             deliveryInfoDAO,
@@ -179,6 +255,8 @@ orderStateManagementService = new OrderStateManagementServiceImpl(
             stockValidationService,
             orderStateManagementService
         );
+        orderServiceImpl.setPaymentSettlementService(paymentSettlementService);
+        orderService = orderServiceImpl;
         
         // Initialize payment flow monitoring utilities
         orderValidationStateManager = com.aims.core.presentation.utils.OrderValidationStateManager.getInstance();
@@ -294,6 +372,14 @@ orderStateManagementService = new OrderStateManagementServiceImpl(
         return getInstance().stockValidationService;
     }
     
+    public static IStockDecrementService getStockDecrementService() {
+        return getInstance().stockDecrementService;
+    }
+    
+    public static IProductImportExportService getProductImportExportService() {
+        return getInstance().productImportExportService;
+    }
+    
     public static IStockReservationService getStockReservationService() {
         return getInstance().stockReservationService;
     }
@@ -302,6 +388,22 @@ orderStateManagementService = new OrderStateManagementServiceImpl(
         return getInstance().orderStateManagementService;
     }
     
+    public static IPaymentSettlementService getPaymentSettlementService() {
+        return getInstance().paymentSettlementService;
+    }
+    
+    public static IPaymentReconciliationService getPaymentReconciliationService() {
+        return getInstance().paymentReconciliationService;
+    }
+    
+    public static IReportingService getReportingService() {
+        return getInstance().reportingService;
+    }
+    
+    public static IOrderArchiveService getOrderArchiveService() {
+        return getInstance().orderArchiveService;
+    }
+    
     public static com.aims.core.presentation.utils.OrderValidationStateManager getOrderValidationStateManager() {
         return getInstance().orderValidationStateManager;
     }
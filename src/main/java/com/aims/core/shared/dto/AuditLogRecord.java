@@ -0,0 +1,17 @@
+package com.aims.core.shared.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A complete Product Manager audit log row, as queued by the audit writer and
+ * read back to seed the daily quota counters.
+ *
+ * @param managerId         Manager who performed the operation
+ * @param operationType     ADD, UPDATE, DELETE, PRICE_UPDATE, ... (first token of an operation key)
+ * @param productId         Affected product, or null
+ * @param operationDateTime When the operation was performed (not when the row was written)
+ * @param details           Operation key or human-readable description of the change
+ */
+public record AuditLogRecord(String managerId, String operationType, String productId,
+                             LocalDateTime operationDateTime, String details) {
+}
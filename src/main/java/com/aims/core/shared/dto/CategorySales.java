@@ -0,0 +1,13 @@
+package com.aims.core.shared.dto;
+
+/**
+ * Sales of one product category over a reporting range.
+ *
+ * @param category     The category, or UNCATEGORIZED for products without one
+ * @param units        Units sold
+ * @param revenue      Sum of quantity × price at time of order
+ * @param orders       Orders containing products of the category
+ * @param revenueShare Fraction of the range's item revenue, 0 to 1
+ */
+public record CategorySales(String category, long units, double revenue, int orders, double revenueShare) {
+}
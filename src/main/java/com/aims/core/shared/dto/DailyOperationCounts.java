@@ -0,0 +1,76 @@
+package com.aims.core.shared.dto;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Snapshot of one manager's operations on one day, classified by operation key
+ * prefix (ADD_, EDIT_, DELETE_, PRICE_UPDATE_) as recorded by the operation
+ * constraint service.
+ *
+ * @param date                 The day counted
+ * @param additions            ADD_ operations (not limited)
+ * @param edits                EDIT_ operations
+ * @param deletions            DELETE_ operations
+ * @param priceUpdates         PRICE_UPDATE_ operations
+ * @param priceUpdatesByProduct PRICE_UPDATE_ operations per product
+ */
+public record DailyOperationCounts(LocalDate date, int additions, int edits, int deletions, int priceUpdates,
+                                   Map<String, Integer> priceUpdatesByProduct) {
+
+    // PRICE_UPDATE_<productId>_<yyyy-MM-dd>_<old>_TO_<new>
+    private static final Pattern PRICE_UPDATE_KEY = Pattern.compile("^PRICE_UPDATE_(.+?)_\\d{4}-\\d{2}-\\d{2}(_.*)?$");
+
+    /**
+     * @return operations that count towards the daily limit
+     */
+    public int limitedOperations() {
+        return edits + deletions + priceUpdates;
+    }
+
+    public int priceUpdatesFor(String productId) {
+        return priceUpdatesByProduct.getOrDefault(productId, 0);
+    }
+
+    /**
+     * Counts a list of operation keys.
+     */
+    public static DailyOperationCounts fromOperationKeys(List<String> operationKeys, LocalDate date) {
+        int additions = 0;
+        int edits = 0;
+        int deletions = 0;
+        int priceUpdates = 0;
+        Map<String, Integer> byProduct = new HashMap<>();
+        for (String key : operationKeys) {
+            if (key == null) {
+                continue;
+            }
+            if (key.startsWith("ADD_")) {
+                additions++;
+            } else if (key.startsWith("EDIT_")) {
+                edits++;
+            } else if (key.startsWith("DELETE_")) {
+                deletions++;
+            } else if (key.startsWith("PRICE_UPDATE_")) {
+                priceUpdates++;
+                String productId = priceUpdateProductId(key);
+                if (productId != null) {
+                    byProduct.merge(productId, 1, Integer::sum);
+                }
+            }
+        }
+        return new DailyOperationCounts(date, additions, edits, deletions, priceUpdates, byProduct);
+    }
+
+    /**
+     * @return the product of a PRICE_UPDATE_ operation key, or null if the key has another form
+     */
+    public static String priceUpdateProductId(String operationKey) {
+        Matcher matcher = PRICE_UPDATE_KEY.matcher(operationKey);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.aims.core.shared.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Sales of one day, counting orders whose payment settled and that were not
+ * later rejected, cancelled or refunded.
+ *
+ * @param date        The order day
+ * @param orders      Sold orders placed that day
+ * @param units       Units sold
+ * @param itemRevenue Sum of quantity × price at time of order
+ * @param amountPaid  Sum of the orders' total amount paid (VAT and delivery included)
+ */
+public record DailyRevenue(LocalDate date, int orders, long units, double itemRevenue, double amountPaid) {
+}
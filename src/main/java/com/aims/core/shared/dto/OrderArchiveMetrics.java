@@ -0,0 +1,17 @@
+package com.aims.core.shared.dto;
+
+/**
+ * Snapshot of the order archiver's counters.
+ *
+ * @param runs            Runs so far
+ * @param ordersArchived  Orders moved to the archives
+ * @param batches         Batches committed
+ * @param errors          Runs stopped by an error; their remaining orders are moved by the next run
+ * @param lastRunOrders   Orders moved by the last run
+ * @param lastRunMillis   Duration of the last run
+ * @param maxBatchMillis  Slowest batch, i.e. the longest the main database was locked for writing
+ * @param archiveFiles    Archive files in the archive directory, or -1 if they can't be listed
+ */
+public record OrderArchiveMetrics(long runs, long ordersArchived, long batches, long errors, int lastRunOrders,
+                                  long lastRunMillis, long maxBatchMillis, int archiveFiles) {
+}
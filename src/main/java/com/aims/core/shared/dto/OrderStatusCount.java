@@ -0,0 +1,13 @@
+package com.aims.core.shared.dto;
+
+import com.aims.core.enums.OrderStatus;
+
+/**
+ * Orders placed over a reporting range that are currently in one status.
+ *
+ * @param status The order status
+ * @param orders Number of orders
+ * @param amount Sum of their total amount paid
+ */
+public record OrderStatusCount(OrderStatus status, int orders, double amount) {
+}
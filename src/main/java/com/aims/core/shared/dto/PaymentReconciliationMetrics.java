@@ -0,0 +1,23 @@
+package com.aims.core.shared.dto;
+
+/**
+ * Snapshot of the payment reconciler's counters.
+ *
+ * @param backlog               Stale pending payments at the start of the last pass
+ * @param passes                Passes run so far
+ * @param queried               Gateway status queries made
+ * @param settled               Payments found paid and settled
+ * @param failed                Payments found failed, cancelled or expired
+ * @param stillPending          Query results that left the payment pending
+ * @param errors                Queries or updates that failed and will be retried
+ * @param averageQueryMillis    Average gateway query latency
+ * @param maxQueryMillis        Slowest gateway query
+ * @param lastPassMillis        Duration of the last pass
+ * @param maxResolutionLagMillis Longest time from payment creation to reconciliation
+ * @param checkpoint            Last transaction ID processed in the current pass, or null at the start
+ */
+public record PaymentReconciliationMetrics(int backlog, long passes, long queried, long settled, long failed,
+                                           long stillPending, long errors, double averageQueryMillis,
+                                           long maxQueryMillis, long lastPassMillis, long maxResolutionLagMillis,
+                                           String checkpoint) {
+}
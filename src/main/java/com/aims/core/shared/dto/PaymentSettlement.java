@@ -0,0 +1,28 @@
+package com.aims.core.shared.dto;
+
+import com.aims.core.entities.Invoice;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Everything a payment result writes, applied by the settlement DAO in one
+ * database transaction.
+ *
+ * @param transaction     Payment record to insert, or to update when it already exists
+ * @param orderId         Order being paid
+ * @param orderStatus     Status the order moves to
+ * @param stockDecrements Units to take per product; only applied when the order is still PENDING_PAYMENT
+ * @param invoice         Invoice to create with the stock, or null
+ */
+public record PaymentSettlement(PaymentTransaction transaction, String orderId, OrderStatus orderStatus,
+                                Map<String, Integer> stockDecrements, Invoice invoice) {
+
+    public PaymentSettlement {
+        // Keeps the caller's order, so products are always decremented in the same order
+        stockDecrements = stockDecrements == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(stockDecrements));
+    }
+}
@@ -0,0 +1,14 @@
+package com.aims.core.shared.dto;
+
+/**
+ * New status and gateway data for one payment transaction, applied with
+ * other updates in one batch.
+ *
+ * @param transactionId         Transaction to update
+ * @param status                New transaction status
+ * @param externalTransactionId Gateway transaction ID (kept as is when null)
+ * @param gatewayResponseData   Gateway response as JSON
+ */
+public record PaymentStatusUpdate(String transactionId, String status, String externalTransactionId,
+                                  String gatewayResponseData) {
+}
@@ -0,0 +1,11 @@
+package com.aims.core.shared.dto;
+
+/**
+ * One Product Manager audit log row, used for batched audit inserts.
+ *
+ * @param operationType ADD, UPDATE, DELETE, PRICE_UPDATE or STOCK_UPDATE
+ * @param productId     Affected product, or null when the product no longer exists
+ * @param details       Human-readable description of the change
+ */
+public record ProductAuditEntry(String operationType, String productId, String details) {
+}
@@ -0,0 +1,13 @@
+package com.aims.core.shared.dto;
+
+/**
+ * Sales of one product over a reporting range.
+ *
+ * @param productId The product
+ * @param title     Current product title, or null if the product was deleted
+ * @param units     Units sold
+ * @param revenue   Sum of quantity × price at time of order
+ * @param orders    Orders containing the product
+ */
+public record ProductSales(String productId, String title, long units, double revenue, int orders) {
+}
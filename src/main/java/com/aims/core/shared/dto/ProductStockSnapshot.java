@@ -0,0 +1,14 @@
+package com.aims.core.shared.dto;
+
+/**
+ * Narrow read of the stock-related columns of a product, used where loading
+ * the full product (and its subtype row) would be wasted work.
+ *
+ * @param productId       Product identifier
+ * @param title           Product title, for validation messages
+ * @param quantityInStock Physical stock (not net of reservations)
+ * @param version         Optimistic-lock version, or null if the schema has no version column
+ * @param price           Price excluding VAT
+ */
+public record ProductStockSnapshot(String productId, String title, int quantityInStock, Long version, float price) {
+}
@@ -0,0 +1,30 @@
+package com.aims.core.shared.dto;
+
+import com.aims.core.enums.OrderStatus;
+
+/**
+ * Outcome of applying a {@link PaymentSettlement}.
+ *
+ * @param outcome     What was written
+ * @param productId   Product that was short of stock (INSUFFICIENT_STOCK only), otherwise null
+ * @param orderStatus The order's status, which was left as it was (ALREADY_SETTLED only), otherwise null
+ */
+public record SettlementResult(Outcome outcome, String productId, OrderStatus orderStatus) {
+
+    public enum Outcome {
+        /** Transaction record, stock, invoice and order status were committed together */
+        SETTLED,
+        /** The order was no longer pending payment: only the transaction record was written, the order kept its status */
+        ALREADY_SETTLED,
+        /** A product was short of stock: nothing was written */
+        INSUFFICIENT_STOCK
+    }
+
+    public SettlementResult(Outcome outcome, String productId) {
+        this(outcome, productId, null);
+    }
+
+    public boolean isSettled() {
+        return outcome == Outcome.SETTLED;
+    }
+}
@@ -0,0 +1,242 @@
+package com.aims.core.shared.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process bus for product change events.
+ *
+ * Product write paths publish here; subscribers (the SSE feed endpoint, the
+ * desktop client's state manager) receive events in sequence order on a
+ * single dispatcher thread, so publishers never block on slow consumers.
+ *
+ * A bounded history of recent events is kept so that a subscriber can resume
+ * from the last sequence it saw. Sequences restart with every process, so
+ * each bus also has a random epoch that callers keep with their position. If
+ * the requested position has already been evicted, or carries the epoch of a
+ * previous process, the subscriber is told to resynchronise instead.
+ */
+public class ProductChangeBus {
+
+    private static final Logger logger = Logger.getLogger(ProductChangeBus.class.getName());
+
+    private static final int DEFAULT_HISTORY_SIZE = 4096;
+
+    private static ProductChangeBus instance;
+
+    /**
+     * Handle returned by subscribe; closing it stops delivery.
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Receives events from the bus.
+     */
+    public interface Listener {
+        void onEvent(ProductChangeEvent event);
+
+        /**
+         * Called instead of a replay when the requested resume position is no
+         * longer available; the subscriber should reload its state.
+         */
+        default void onResyncRequired(long latestSequence) {
+        }
+    }
+
+    private final Object lock = new Object();
+    private final Deque<ProductChangeEvent> history = new ArrayDeque<>();
+    private final int historySize;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Not bounded by the history: one entry per product changed since startup
+    private final Map<String, Long> lastSequenceByProduct = new HashMap<>();
+    private final ExecutorService dispatcher;
+    private final String epoch;
+    private long sequence = 0;
+
+    ProductChangeBus(int historySize) {
+        this.historySize = historySize;
+        this.epoch = Long.toString(System.currentTimeMillis(), 36) + "-"
+            + Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        this.dispatcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "product-change-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized ProductChangeBus getInstance() {
+        if (instance == null) {
+            instance = new ProductChangeBus(DEFAULT_HISTORY_SIZE);
+        }
+        return instance;
+    }
+
+    public void publishCreate(String productId, int quantityInStock, float price) {
+        publish(new ProductChangeEvent(0, productId, ProductChangeEvent.ChangeType.CREATE,
+            quantityInStock, price, null, System.currentTimeMillis()));
+    }
+
+    public void publishStockChange(String productId, int quantityInStock, Long productVersion) {
+        publish(new ProductChangeEvent(0, productId, ProductChangeEvent.ChangeType.STOCK,
+            quantityInStock, null, productVersion, System.currentTimeMillis()));
+    }
+
+    public void publishProductUpdate(String productId, int quantityInStock, float price, Long productVersion) {
+        publish(new ProductChangeEvent(0, productId, ProductChangeEvent.ChangeType.UPDATE,
+            quantityInStock, price, productVersion, System.currentTimeMillis()));
+    }
+
+    public void publishDelete(String productId) {
+        publish(new ProductChangeEvent(0, productId, ProductChangeEvent.ChangeType.DELETE,
+            null, null, null, System.currentTimeMillis()));
+    }
+
+    /**
+     * Subscribes to events published from now on.
+     */
+    public Subscription subscribe(Listener listener) {
+        synchronized (lock) {
+            listeners.add(listener);
+        }
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Subscribes and first replays every retained event after
+     * {@code lastSeenSequence}. If that position is not available the
+     * listener's {@link Listener#onResyncRequired(long)} is called instead of
+     * the replay, followed by live events.
+     */
+    public Subscription subscribeFrom(long lastSeenSequence, Listener listener) {
+        return subscribeFrom(epoch, lastSeenSequence, listener);
+    }
+
+    /**
+     * Like {@link #subscribeFrom(long, Listener)} for a position recorded
+     * with {@code lastSeenEpoch}; a position from another epoch always
+     * requires a resync, whatever its sequence.
+     */
+    public Subscription subscribeFrom(String lastSeenEpoch, long lastSeenSequence, Listener listener) {
+        synchronized (lock) {
+            List<ProductChangeEvent> replay = epoch.equals(lastSeenEpoch) ? eventsSinceLocked(lastSeenSequence) : null;
+            long latest = sequence;
+            // Enqueued under the lock: ordered after earlier dispatches and before later ones
+            dispatcher.execute(() -> {
+                if (replay == null) {
+                    safeResync(listener, latest);
+                } else {
+                    replay.forEach(event -> safeDeliver(listener, event));
+                }
+            });
+            listeners.add(listener);
+        }
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * @return the retained events after {@code lastSeenSequence}, or null if
+     *         the position has been evicted or is ahead of this process
+     */
+    public List<ProductChangeEvent> getEventsSince(long lastSeenSequence) {
+        synchronized (lock) {
+            return eventsSinceLocked(lastSeenSequence);
+        }
+    }
+
+    /**
+     * @return the identity of this bus's sequence numbering, different in
+     *         every process
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getLatestSequence() {
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    /**
+     * @return the sequence of the latest event for a product, or 0 if it has
+     *         not changed since this process started
+     */
+    public long getLastSequenceFor(String productId) {
+        synchronized (lock) {
+            return lastSequenceByProduct.getOrDefault(productId, 0L);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return listeners.size();
+    }
+
+    private void publish(ProductChangeEvent unsequenced) {
+        if (unsequenced.productId() == null) {
+            return;
+        }
+        synchronized (lock) {
+            ProductChangeEvent event = unsequenced.withSequence(++sequence);
+            lastSequenceByProduct.put(event.productId(), event.sequence());
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            // Snapshot receivers now so late subscribers get this event via replay only
+            List<Listener> receivers = new ArrayList<>(listeners);
+            if (!receivers.isEmpty()) {
+                dispatcher.execute(() -> receivers.forEach(listener -> safeDeliver(listener, event)));
+            }
+        }
+    }
+
+    private List<ProductChangeEvent> eventsSinceLocked(long lastSeenSequence) {
+        if (lastSeenSequence > sequence) {
+            return null; // position from a previous process
+        }
+        if (lastSeenSequence == sequence) {
+            return new ArrayList<>();
+        }
+        ProductChangeEvent oldest = history.peekFirst();
+        if (oldest == null || oldest.sequence() > lastSeenSequence + 1) {
+            return null; // evicted
+        }
+        List<ProductChangeEvent> result = new ArrayList<>();
+        for (ProductChangeEvent event : history) {
+            if (event.sequence() > lastSeenSequence) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    private void safeDeliver(Listener listener, ProductChangeEvent event) {
+        try {
+            listener.onEvent(event);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "ProductChangeBus: Listener failed for event " + event.sequence(), e);
+        }
+    }
+
+    private void safeResync(Listener listener, long latest) {
+        try {
+            listener.onResyncRequired(latest);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "ProductChangeBus: Listener failed handling resync", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.aims.core.shared.events;
+
+/**
+ * A change to a product's persisted state, as published by the product DAO.
+ *
+ * {@code sequence} is assigned by {@link ProductChangeBus} and increases
+ * monotonically within one process; clients use it to resume a feed.
+ * Fields that do not apply to the change type are null.
+ *
+ * @param sequence        Feed position assigned by the bus
+ * @param productId       The affected product
+ * @param type            Kind of change
+ * @param quantityInStock New stock level (CREATE, STOCK and UPDATE)
+ * @param price           New base price, excluding VAT (CREATE and UPDATE)
+ * @param productVersion  Optimistic-lock version after the change, if known
+ * @param timestamp       Epoch millis when the change was published
+ */
+public record ProductChangeEvent(
+        long sequence,
+        String productId,
+        ChangeType type,
+        Integer quantityInStock,
+        Float price,
+        Long productVersion,
+        long timestamp) {
+
+    public enum ChangeType {
+        CREATE,
+        STOCK,
+        UPDATE,
+        DELETE
+    }
+
+    ProductChangeEvent withSequence(long newSequence) {
+        return new ProductChangeEvent(newSequence, productId, type, quantityInStock, price, productVersion, timestamp);
+    }
+}
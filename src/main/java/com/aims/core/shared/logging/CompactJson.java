@@ -0,0 +1,107 @@
+package com.aims.core.shared.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Map;
+
+/**
+ * Minimal JSON writer for log lines: one object per line, no whitespace, no
+ * reflection. Values are written by type; durations as milliseconds,
+ * throwables as their stack trace and anything unknown as its toString().
+ */
+public final class CompactJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private CompactJson() {
+    }
+
+    public static void appendField(StringBuilder out, String name, Object value) {
+        if (out.length() > 0 && out.charAt(out.length() - 1) != '{') {
+            out.append(',');
+        }
+        appendString(out, name);
+        out.append(':');
+        appendValue(out, value);
+    }
+
+    public static void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String string) {
+            appendString(out, string);
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            out.append(value);
+        } else if (value instanceof Number number) {
+            double d = number.doubleValue();
+            if (Double.isFinite(d)) {
+                out.append(value);
+            } else {
+                appendString(out, value.toString());
+            }
+        } else if (value instanceof Duration duration) {
+            out.append(duration.toMillis());
+        } else if (value instanceof TemporalAccessor || value instanceof Enum<?>) {
+            appendString(out, value.toString());
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                appendString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                appendValue(out, entry.getValue());
+                first = false;
+            }
+            out.append('}');
+        } else if (value instanceof Iterable<?> iterable) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : iterable) {
+                if (!first) {
+                    out.append(',');
+                }
+                appendValue(out, element);
+                first = false;
+            }
+            out.append(']');
+        } else if (value instanceof Throwable throwable) {
+            appendString(out, stackTrace(throwable));
+        } else {
+            appendString(out, value.toString());
+        }
+    }
+
+    public static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    static String stackTrace(Throwable throwable) {
+        StringWriter sw = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+}
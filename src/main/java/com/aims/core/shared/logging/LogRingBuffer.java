@@ -0,0 +1,89 @@
+package com.aims.core.shared.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer for log events: many producer threads, one
+ * consumer thread.
+ *
+ * Each slot carries a sequence number telling producers when it is free and
+ * the consumer when it is filled, so neither side takes a lock and a full
+ * buffer is reported to the producer instead of blocking it.
+ */
+final class LogRingBuffer<T> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next position to fill
+    private final AtomicLong head = new AtomicLong(); // next position to consume
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.items = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Adds an item; returns false without waiting if the buffer is full.
+     */
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = item;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next item, or returns null if none is ready. Consumer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T item = (T) items[index];
+        items[index] = null;
+        sequences.set(index, position + mask + 1);
+        head.set(position + 1);
+        return item;
+    }
+
+    /** Positions handed out to producers so far */
+    long published() {
+        return tail.get();
+    }
+
+    /** Positions consumed so far */
+    long consumed() {
+        return head.get();
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
@@ -0,0 +1,63 @@
+package com.aims.core.shared.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-category 1-in-N sampling for high-rate log events.
+ *
+ * A rate of N keeps the first event of a category and every N-th after it;
+ * categories without a rate (or with a rate of 1) are always kept. Rates come
+ * from defaults overridden by {@code -Daims.log.sample.<CATEGORY>=N}.
+ */
+public final class LogSampler {
+
+    public static final String PROPERTY_PREFIX = "aims.log.sample.";
+
+    private final Map<String, Integer> rates;
+    private final Map<String, AtomicLong> seen = new ConcurrentHashMap<>();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(Map<String, Integer> rates) {
+        this.rates = Map.copyOf(rates);
+    }
+
+    public static LogSampler fromSystemProperties(Map<String, Integer> defaults) {
+        Map<String, Integer> rates = new HashMap<>(defaults);
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PROPERTY_PREFIX)) {
+                try {
+                    rates.put(name.substring(PROPERTY_PREFIX.length()), Integer.parseInt(System.getProperty(name).trim()));
+                } catch (NumberFormatException ignored) {
+                    // Leave the default for a malformed rate
+                }
+            }
+        }
+        return new LogSampler(rates);
+    }
+
+    /**
+     * @return true if this event of the category should be logged
+     */
+    public boolean sample(String category) {
+        Integer rate = rates.get(category);
+        if (rate == null || rate <= 1) {
+            return true;
+        }
+        boolean keep = seen.computeIfAbsent(category, key -> new AtomicLong()).getAndIncrement() % rate == 0;
+        if (!keep) {
+            suppressed.incrementAndGet();
+        }
+        return keep;
+    }
+
+    public int getRate(String category) {
+        return Math.max(1, rates.getOrDefault(category, 1));
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+}
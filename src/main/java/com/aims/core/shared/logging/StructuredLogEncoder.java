@@ -0,0 +1,52 @@
+package com.aims.core.shared.logging;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Logback encoder writing either the configured pattern (format TEXT) or one
+ * compact JSON object per line (format JSON), so one appender definition
+ * serves both modes:
+ *
+ * <pre>{"ts":1700000000000,"lvl":"INFO","thr":"main","log":"com.aims...","msg":"...","mdc":{..},"err":"..."}</pre>
+ *
+ * Behind an AsyncAppender the message is still formatted on the caller's
+ * thread: the appender calls prepareForDeferredProcessing before queueing the
+ * event. Only the JSON encoding and the write happen on its worker thread.
+ */
+public class StructuredLogEncoder extends PatternLayoutEncoder {
+
+    private boolean json;
+
+    public void setFormat(String format) {
+        this.json = StructuredLogWriter.Format.fromString(format) == StructuredLogWriter.Format.JSON;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        if (!json) {
+            return super.encode(event);
+        }
+        StringBuilder line = new StringBuilder(192).append('{');
+        CompactJson.appendField(line, "ts", event.getTimeStamp());
+        CompactJson.appendField(line, "lvl", event.getLevel().toString());
+        CompactJson.appendField(line, "thr", event.getThreadName());
+        CompactJson.appendField(line, "log", event.getLoggerName());
+        CompactJson.appendField(line, "msg", event.getFormattedMessage());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            CompactJson.appendField(line, "mdc", mdc);
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            CompactJson.appendField(line, "err", ThrowableProxyUtil.asString(throwable));
+        }
+        line.append('}').append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package com.aims.core.shared.logging;
+
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * A structured log event as captured on the caller's thread. The message is
+ * kept as a format string and arguments and only formatted when written.
+ *
+ * @param timestampMillis Capture time (epoch milliseconds)
+ * @param level           Log level
+ * @param severity        Severity label written in the line (e.g. CRITICAL), or null to derive it from the level
+ * @param category        Short category code (e.g. NAV, VAL)
+ * @param sessionId       Flow session, or null
+ * @param orderId         Order, or null
+ * @param messageFormat   {@link String#format} pattern, used as-is when there are no arguments
+ * @param messageArgs     Arguments of the pattern, may be empty
+ * @param data            Structured fields, may be null
+ */
+public record StructuredLogEvent(long timestampMillis, Level level, String severity, String category, String sessionId, String orderId,
+                                 String messageFormat, Object[] messageArgs, Map<String, Object> data) {
+
+    public String message() {
+        if (messageArgs == null || messageArgs.length == 0) {
+            return messageFormat;
+        }
+        return String.format(messageFormat, messageArgs);
+    }
+}
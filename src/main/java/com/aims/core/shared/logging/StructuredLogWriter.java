@@ -0,0 +1,274 @@
+package com.aims.core.shared.logging;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes structured log events to a java.util.logging logger, formatting them
+ * off the caller's thread.
+ *
+ * In async mode events go into a ring buffer drained by one daemon thread,
+ * which formats each line (text or compact JSON) and hands it to the target
+ * logger. When the buffer is full, events below WARNING are dropped and
+ * counted; WARNING and above are written on the caller's thread instead.
+ *
+ * Configured with {@code -Daims.log.format=TEXT|JSON} (default TEXT),
+ * {@code -Daims.log.async=true|false} (default true) and
+ * {@code -Daims.log.bufferSize} (default 8192).
+ */
+public class StructuredLogWriter {
+
+    private static final Logger logger = Logger.getLogger(StructuredLogWriter.class.getName());
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final String LOG_DELIMITER = " | ";
+
+    /**
+     * Line format of written events.
+     */
+    public enum Format {
+        /** [TIMESTAMP] | [LEVEL] | [CATEGORY] | [S:session] | [O:order] | message | DATA: {k=v} */
+        TEXT,
+        /** {"ts":epochMillis,"lvl":..,"cat":..,"sid":..,"oid":..,"msg":..,"data":{..}} */
+        JSON;
+
+        public static Format fromString(String value) {
+            return value != null && "JSON".equalsIgnoreCase(value.trim()) ? JSON : TEXT;
+        }
+    }
+
+    private final Logger target;
+    private final Format format;
+    private final LogRingBuffer<StructuredLogEvent> buffer;
+    private final Thread consumer;
+    private volatile boolean running;
+
+    // Statistics
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+
+    public StructuredLogWriter(Logger target, Format format, boolean async, int bufferSize) {
+        this.target = target;
+        this.format = format != null ? format : Format.TEXT;
+        if (async) {
+            this.buffer = new LogRingBuffer<>(bufferSize);
+            this.running = true;
+            this.consumer = new Thread(this::drainLoop, "structured-log-writer");
+            this.consumer.setDaemon(true);
+            this.consumer.start();
+        } else {
+            this.buffer = null;
+            this.consumer = null;
+        }
+    }
+
+    public static StructuredLogWriter fromSystemProperties(Logger target) {
+        return new StructuredLogWriter(target,
+            Format.fromString(System.getProperty("aims.log.format")),
+            !"false".equalsIgnoreCase(System.getProperty("aims.log.async")),
+            Integer.getInteger("aims.log.bufferSize", DEFAULT_BUFFER_SIZE));
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public boolean isAsync() {
+        return consumer != null;
+    }
+
+    /**
+     * Cheap level check, so callers can skip building an event nobody will see.
+     */
+    public boolean isLoggable(Level level) {
+        return target.isLoggable(level);
+    }
+
+    public void write(StructuredLogEvent event) {
+        if (consumer == null || !running) {
+            emit(event);
+            return;
+        }
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (event.level().intValue() >= Level.WARNING.intValue()) {
+            callerWrites.incrementAndGet();
+            emit(event);
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until every event buffered before this call is written.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean flush(long timeoutMillis) {
+        if (consumer == null) {
+            return true;
+        }
+        long upTo = buffer.published();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (buffer.consumed() < upTo) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        return true;
+    }
+
+    /**
+     * Writes the buffered events and stops the consumer thread. Events
+     * written afterwards are formatted on the caller's thread.
+     */
+    public void shutdown() {
+        if (consumer == null || !running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!consumer.isAlive()) {
+            // Events that raced with the consumer's last check
+            StructuredLogEvent event;
+            while ((event = buffer.poll()) != null) {
+                emit(event);
+            }
+        }
+    }
+
+    public String getStatisticsSummary() {
+        return String.format("format=%s, async=%s, written=%d, dropped=%d, callerWrites=%d, buffered=%d",
+            format, consumer != null, written.get(), dropped.get(), callerWrites.get(),
+            buffer != null ? buffer.size() : 0);
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Formats an event as one line in the configured format.
+     */
+    public String render(StructuredLogEvent event) {
+        return format == Format.JSON ? renderJson(event) : renderText(event);
+    }
+
+    private void drainLoop() {
+        long parkNanos = 1_000;
+        while (running || buffer.size() > 0) {
+            StructuredLogEvent event = buffer.poll();
+            if (event == null) {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+            parkNanos = 1_000;
+            emit(event);
+        }
+    }
+
+    private void emit(StructuredLogEvent event) {
+        try {
+            target.log(event.level(), render(event));
+            written.incrementAndGet();
+        } catch (RuntimeException e) {
+            // A bad event must not stop the writer thread
+            logger.log(Level.SEVERE, "Structured log event could not be written: " + e.getMessage(), e);
+        }
+    }
+
+    private String renderText(StructuredLogEvent event) {
+        StringBuilder line = new StringBuilder(192);
+        line.append('[').append(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestampMillis()), ZoneId.systemDefault())
+            .format(TIMESTAMP_FORMAT)).append(']');
+        line.append(LOG_DELIMITER).append('[').append(severity(event)).append(']');
+        line.append(LOG_DELIMITER).append('[').append(event.category()).append(']');
+        line.append(LOG_DELIMITER).append("[S:").append(event.sessionId() != null ? event.sessionId() : "NO_SESSION").append(']');
+        line.append(LOG_DELIMITER).append("[O:").append(event.orderId() != null ? event.orderId() : "NO_ORDER").append(']');
+        line.append(LOG_DELIMITER).append(event.message());
+
+        Map<String, Object> data = event.data();
+        if (data != null && !data.isEmpty()) {
+            line.append(LOG_DELIMITER).append("DATA: {");
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                if (!first) {
+                    line.append(", ");
+                }
+                line.append(entry.getKey()).append('=');
+                Object value = entry.getValue();
+                if (value instanceof String) {
+                    line.append('"').append(value).append('"');
+                } else if (value instanceof LocalDateTime dateTime) {
+                    line.append('"').append(dateTime.format(TIMESTAMP_FORMAT)).append('"');
+                } else if (value instanceof Throwable throwable) {
+                    line.append(CompactJson.stackTrace(throwable));
+                } else {
+                    line.append(value);
+                }
+                first = false;
+            }
+            line.append('}');
+        }
+        return line.toString();
+    }
+
+    private String renderJson(StructuredLogEvent event) {
+        StringBuilder line = new StringBuilder(192).append('{');
+        CompactJson.appendField(line, "ts", event.timestampMillis());
+        CompactJson.appendField(line, "lvl", severity(event));
+        CompactJson.appendField(line, "cat", event.category());
+        if (event.sessionId() != null) {
+            CompactJson.appendField(line, "sid", event.sessionId());
+        }
+        if (event.orderId() != null) {
+            CompactJson.appendField(line, "oid", event.orderId());
+        }
+        CompactJson.appendField(line, "msg", event.message());
+        if (event.data() != null && !event.data().isEmpty()) {
+            CompactJson.appendField(line, "data", event.data());
+        }
+        return line.append('}').toString();
+    }
+
+    private static String severity(StructuredLogEvent event) {
+        if (event.severity() != null) {
+            return event.severity();
+        }
+        int value = event.level().intValue();
+        if (value >= Level.SEVERE.intValue()) {
+            return "ERROR";
+        }
+        if (value >= Level.WARNING.intValue()) {
+            return "WARNING";
+        }
+        if (value >= Level.INFO.intValue()) {
+            return "INFO";
+        }
+        return "DEBUG";
+    }
+}
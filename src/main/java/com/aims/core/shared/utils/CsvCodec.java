@@ -0,0 +1,151 @@
+package com.aims.core.shared.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 CSV reading and writing.
+ *
+ * {@link #readRecord()} pulls one record at a time from the underlying reader,
+ * so a file of any size is parsed in constant memory. Quoted fields may contain
+ * commas, doubled quotes and line breaks.
+ */
+public class CsvCodec {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+    private long lineNumber = 1;
+    private long recordStartLine = 1;
+
+    public CsvCodec(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or null at end of input
+     * @throws IOException if reading fails or a quoted field is not terminated
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        // Skip blank lines between records
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') lineNumber++;
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordStartLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordStartLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(finishField(field, fieldWasQuoted));
+                fieldWasQuoted = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread();
+                    }
+                }
+                if (c != -1) lineNumber++;
+                fields.add(finishField(field, fieldWasQuoted));
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return the line number on which the last record returned by {@link #readRecord()} started
+     */
+    public long getRecordStartLine() {
+        return recordStartLine;
+    }
+
+    private String finishField(StringBuilder field, boolean wasQuoted) {
+        String value = field.toString();
+        field.setLength(0);
+        // An unquoted empty field is a missing value; a quoted one ("") is an empty string
+        return value.isEmpty() && !wasQuoted ? null : value;
+    }
+
+    private int read() throws IOException {
+        if (position >= limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void unread() {
+        if (position > 0) {
+            position--;
+        }
+    }
+
+    /**
+     * Writes one record, quoting fields that need it, followed by CRLF.
+     */
+    public static void writeRecord(Appendable out, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(escape(fields.get(i)));
+        }
+        out.append("\r\n");
+    }
+
+    /**
+     * Quotes a field value if it contains a comma, quote or line break.
+     * Null is written as an empty field.
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = value.isEmpty();
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
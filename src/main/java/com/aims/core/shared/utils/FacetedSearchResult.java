@@ -0,0 +1,11 @@
+package com.aims.core.shared.utils;
+
+/**
+ * A page of search results together with the facet counts of the whole query.
+ * @param <T> The type of the items in the results list.
+ */
+public record FacetedSearchResult<T>(
+    SearchResult<T> page,
+    SearchFacets facets
+) {
+}
@@ -0,0 +1,161 @@
+package com.aims.core.shared.utils;
+
+/**
+ * Fixed-point money arithmetic on {@code long} minor units.
+ *
+ * A minor unit is a hundredth of a dong, the two-decimal precision prices
+ * have always been rounded to. Entities and DTOs keep their {@code float}
+ * amounts; pricing code converts them once with {@link #fromFloat}, adds and
+ * multiplies in minor units, and converts back with {@link #toFloat}. Sums are
+ * exact, and rates are applied in basis points with a single half-up rounding,
+ * so totals need no re-rounding and can be compared for equality.
+ *
+ * Every method works on primitives, so pricing loops allocate nothing.
+ */
+public final class Money {
+
+    /** Minor units per dong. */
+    public static final long SCALE = 100;
+
+    /** Basis points in a whole (100%). */
+    public static final int BASIS_POINTS = 10_000;
+
+    /** The 10% VAT rate, in basis points. */
+    public static final int VAT_BASIS_POINTS = 1_000;
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount to minor units, rounding half up (away from zero) on
+     * the decimal value the float stands for: {@code 2.675f} becomes 268 even
+     * though the nearest float is slightly below 2.675.
+     *
+     * @return the amount in minor units, or 0 for NaN and infinities
+     */
+    public static long fromFloat(float amount) {
+        if (Float.isNaN(amount) || Float.isInfinite(amount)) {
+            return 0;
+        }
+        float magnitude = Math.abs(amount);
+        double scaled = (double) magnitude * SCALE;
+        long floor = (long) Math.floor(scaled);
+        long minor;
+        // A float that is the closest float to a half-cent, and is closer to it
+        // than to any other three-decimal amount or to a whole cent, stands for
+        // that half-cent, which rounds up
+        if (Math.abs(scaled - (floor + 0.5)) < 0.05
+                && (float) ((floor + 0.5) / SCALE) == magnitude
+                && (float) ((double) floor / SCALE) != magnitude
+                && (float) ((double) (floor + 1) / SCALE) != magnitude) {
+            minor = floor + 1;
+        } else {
+            minor = Math.round(scaled);
+        }
+        return amount < 0 ? -minor : minor;
+    }
+
+    /**
+     * Converts an amount to minor units, rounding half up (away from zero).
+     *
+     * @return the amount in minor units, or 0 for NaN and infinities
+     */
+    public static long fromDouble(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            return 0;
+        }
+        double magnitude = Math.abs(amount);
+        double scaled = magnitude * SCALE;
+        long floor = (long) Math.floor(scaled);
+        long minor;
+        if ((floor + 0.5) / SCALE == magnitude) {
+            minor = floor + 1;
+        } else {
+            minor = Math.round(scaled);
+        }
+        return amount < 0 ? -minor : minor;
+    }
+
+    public static float toFloat(long minor) {
+        return (float) toDouble(minor);
+    }
+
+    public static double toDouble(long minor) {
+        return (double) minor / SCALE;
+    }
+
+    /**
+     * Rounds an amount to two decimals, half up.
+     */
+    public static float round(float amount) {
+        return toFloat(fromFloat(amount));
+    }
+
+    /**
+     * The amount rounded to two decimals as the closest double, for binding to
+     * REAL columns. Binding the float itself stores its binary expansion
+     * ({@code 0.1f} is stored as 0.10000000149011612).
+     */
+    public static double toColumn(float amount) {
+        return toDouble(fromFloat(amount));
+    }
+
+    /**
+     * Reads an amount stored in a REAL column: values written from floats
+     * round as the float they were, anything else as a double.
+     */
+    public static long fromColumn(double stored) {
+        return (double) (float) stored == stored ? fromFloat((float) stored) : fromDouble(stored);
+    }
+
+    /**
+     * @throws ArithmeticException if the result overflows a long
+     */
+    public static long times(long minor, int quantity) {
+        return Math.multiplyExact(minor, (long) quantity);
+    }
+
+    /**
+     * The given share of an amount, rounded half up (away from zero) to a
+     * minor unit.
+     *
+     * @param basisPoints The share, in hundredths of a percent
+     */
+    public static long percent(long minor, int basisPoints) {
+        return divideHalfUp(Math.multiplyExact(minor, (long) basisPoints), BASIS_POINTS);
+    }
+
+    /**
+     * Multiplies an amount by a rate such as a regional fee multiplier. The
+     * rate is taken to four decimals.
+     */
+    public static long scale(long minor, float rate) {
+        return percent(minor, Math.round(rate * BASIS_POINTS));
+    }
+
+    /**
+     * @return the VAT on a VAT-exclusive amount
+     */
+    public static long vat(long baseMinor) {
+        return percent(baseMinor, VAT_BASIS_POINTS);
+    }
+
+    /**
+     * @return the VAT-inclusive amount, always {@code base + vat(base)}
+     */
+    public static long withVat(long baseMinor) {
+        return baseMinor + vat(baseMinor);
+    }
+
+    /**
+     * @return the VAT-exclusive amount of a VAT-inclusive one, rounded half up
+     */
+    public static long withoutVat(long inclusiveMinor) {
+        return divideHalfUp(Math.multiplyExact(inclusiveMinor, (long) BASIS_POINTS), BASIS_POINTS + VAT_BASIS_POINTS);
+    }
+
+    private static long divideHalfUp(long numerator, long denominator) {
+        long quotient = (Math.abs(numerator) + denominator / 2) / denominator;
+        return numerator < 0 ? -quotient : quotient;
+    }
+}
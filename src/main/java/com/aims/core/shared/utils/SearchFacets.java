@@ -0,0 +1,35 @@
+package com.aims.core.shared.utils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a product search, used to render filter badges.
+ *
+ * Each count is the number of products matching the keyword and the other
+ * active filters, so the counts of one facet stay meaningful while a value of
+ * that same facet is selected.
+ *
+ * @param categories Number of listed products per category, by category name.
+ * @param productTypes Number of listed products per product type, by display name.
+ * @param priceRanges Number of listed products per VAT-inclusive price range, in ascending order.
+ * @param inStock Number of products matching the query that are in stock (and therefore listed).
+ * @param outOfStock Number of products matching the query that are hidden because they are sold out.
+ */
+public record SearchFacets(
+    Map<String, Long> categories,
+    Map<String, Long> productTypes,
+    List<PriceRange> priceRanges,
+    long inStock,
+    long outOfStock
+) {
+    /**
+     * One price bucket: {@code min <= price < max}.
+     *
+     * @param min Lower bound (inclusive), 0 for the first bucket.
+     * @param max Upper bound (exclusive), null for the last bucket.
+     * @param count Number of products in the bucket.
+     */
+    public record PriceRange(double min, Double max, long count) {
+    }
+}
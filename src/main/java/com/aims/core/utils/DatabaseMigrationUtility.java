@@ -1,10 +1,14 @@
 package com.aims.core.utils;
 
 import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.utils.Money;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -15,6 +19,33 @@ import java.io.IOException;
  */
 public class DatabaseMigrationUtility {
 
+    /**
+     * Money columns per table. Amounts used to be bound as floats, so these REAL
+     * columns hold binary expansions such as 0.10000000149011612.
+     */
+    private static final String[][] MONEY_COLUMNS = {
+        {"PRODUCT", "value_amount", "price"},
+        {"ORDER_ENTITY", "totalProductPriceExclVAT", "totalProductPriceInclVAT", "calculatedDeliveryFee", "totalAmountPaid"},
+        {"ORDER_ITEM", "priceAtTimeOfOrder"},
+        {"INVOICE", "invoicedTotalAmount"},
+        {"PAYMENT_TRANSACTION", "amount"}
+    };
+
+    /**
+     * INTEGER minor-unit columns added by V3 and the REAL column each is filled from.
+     */
+    private static final String[][] MINOR_UNIT_COLUMNS = {
+        {"ORDER_ENTITY", "totalProductPriceExclVATMinor", "totalProductPriceExclVAT"},
+        {"ORDER_ENTITY", "totalProductPriceInclVATMinor", "totalProductPriceInclVAT"},
+        {"ORDER_ENTITY", "calculatedDeliveryFeeMinor", "calculatedDeliveryFee"},
+        {"ORDER_ENTITY", "totalAmountPaidMinor", "totalAmountPaid"},
+        {"ORDER_ITEM", "priceAtTimeOfOrderMinor", "priceAtTimeOfOrder"},
+        {"PAYMENT_TRANSACTION", "amountMinor", "amount"}
+    };
+
+    private static final String MINOR_UNIT_SCRIPT =
+        "src/main/java/com/aims/core/infrastructure/database/scripts/V3__add_minor_unit_amounts.sql";
+
     public static void main(String[] args) {
         System.out.println("Running database migration to add gatewayResponseData column...");
         
@@ -25,6 +56,165 @@ public class DatabaseMigrationUtility {
             System.err.println("Migration failed: " + e.getMessage());
             e.printStackTrace();
         }
+
+        System.out.println("Running database migration to round money columns to minor units...");
+        try {
+            int rows = runMoneyMigration();
+            System.out.println("Migration completed successfully! Rows rounded: " + rows);
+        } catch (Exception e) {
+            System.err.println("Migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        System.out.println("Running database migration to add INTEGER minor-unit amount columns...");
+        try {
+            int rows = runMinorUnitMigration();
+            System.out.println("Migration completed successfully! Rows filled in: " + rows);
+        } catch (Exception e) {
+            System.err.println("Migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rounds every stored money amount to whole minor units (two decimals), the
+     * same way {@link Money#fromFloat} rounds the amounts pricing reads, and
+     * stores the closest double, as the DAOs now bind them. The columns stay
+     * REAL: a double holds every two-decimal amount the float entities can
+     * carry, and the rows round-trip through {@link Money} unchanged.
+     *
+     * Runs in one transaction and is idempotent.
+     *
+     * @return the number of rows changed
+     */
+    public static int runMoneyMigration() throws SQLException {
+        Connection conn = SQLiteConnector.getInstance().getConnection();
+        boolean previousAutoCommit = conn.getAutoCommit();
+        int rows = 0;
+        try {
+            conn.setAutoCommit(false);
+            for (String[] table : MONEY_COLUMNS) {
+                rows += roundMoneyColumns(conn, table);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(previousAutoCommit);
+        }
+        return rows;
+    }
+
+    private static int roundMoneyColumns(Connection conn, String[] table) throws SQLException {
+        int columns = table.length - 1;
+        StringBuilder select = new StringBuilder("SELECT rowid");
+        StringBuilder update = new StringBuilder("UPDATE ").append(table[0]).append(" SET ");
+        for (int i = 1; i <= columns; i++) {
+            select.append(", ").append(table[i]);
+            update.append(i > 1 ? ", " : "").append(table[i]).append(" = ?");
+        }
+        select.append(" FROM ").append(table[0]);
+        update.append(" WHERE rowid = ?");
+
+        int rows = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(select.toString());
+             PreparedStatement pstmt = conn.prepareStatement(update.toString())) {
+            while (rs.next()) {
+                boolean changed = false;
+                for (int i = 1; i <= columns; i++) {
+                    double stored = rs.getDouble(i + 1);
+                    if (rs.wasNull()) {
+                        pstmt.setNull(i, Types.REAL);
+                        continue;
+                    }
+                    double rounded = Money.toDouble(Money.fromColumn(stored));
+                    changed |= rounded != stored;
+                    pstmt.setDouble(i, rounded);
+                }
+                if (changed) {
+                    pstmt.setLong(columns + 1, rs.getLong(1));
+                    pstmt.addBatch();
+                    rows++;
+                }
+            }
+            if (rows > 0) {
+                pstmt.executeBatch();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Adds the INTEGER minor-unit amount columns of orders, order items and
+     * payment transactions (V3) where they are missing, and fills in every
+     * row that has none yet from its REAL column, rounding as
+     * {@link #runMoneyMigration()} does.
+     *
+     * Runs in one transaction and is idempotent.
+     *
+     * @return the number of rows filled in
+     */
+    public static int runMinorUnitMigration() throws SQLException, IOException {
+        Connection conn = SQLiteConnector.getInstance().getConnection();
+        boolean previousAutoCommit = conn.getAutoCommit();
+        int rows = 0;
+        try {
+            conn.setAutoCommit(false);
+            if (!columnExists(conn, "PAYMENT_TRANSACTION", "amountMinor")) {
+                try (Statement stmt = conn.createStatement()) {
+                    String script = Files.readString(Paths.get(MINOR_UNIT_SCRIPT)).replaceAll("(?m)^--.*$", "");
+                    for (String statement : script.split(";")) {
+                        String sql = statement.trim();
+                        if (!sql.isEmpty()) {
+                            stmt.execute(sql);
+                        }
+                    }
+                }
+            }
+            for (String[] column : MINOR_UNIT_COLUMNS) {
+                rows += fillMinorUnitColumn(conn, column[0], column[1], column[2]);
+            }
+            conn.commit();
+        } catch (SQLException | IOException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(previousAutoCommit);
+        }
+        return rows;
+    }
+
+    private static int fillMinorUnitColumn(Connection conn, String table, String minorColumn, String realColumn) throws SQLException {
+        int rows = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT rowid, " + realColumn + " FROM " + table +
+                                              " WHERE " + minorColumn + " IS NULL AND " + realColumn + " IS NOT NULL");
+             PreparedStatement pstmt = conn.prepareStatement("UPDATE " + table + " SET " + minorColumn + " = ? WHERE rowid = ?")) {
+            while (rs.next()) {
+                pstmt.setLong(1, Money.fromColumn(rs.getDouble(2)));
+                pstmt.setLong(2, rs.getLong(1));
+                pstmt.addBatch();
+                rows++;
+            }
+            if (rows > 0) {
+                pstmt.executeBatch();
+            }
+        }
+        return rows;
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     public static void runMigration() throws SQLException, IOException {
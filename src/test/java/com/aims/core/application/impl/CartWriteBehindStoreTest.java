@@ -0,0 +1,214 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.entities.Cart;
+import com.aims.core.entities.CartItem;
+import com.aims.core.entities.Product;
+import com.aims.core.infrastructure.database.dao.ICartDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartWriteBehindStoreTest {
+
+    // Long enough that only the test triggers flushes
+    private static final long MANUAL_FLUSH_WINDOW_MILLIS = 60_000;
+
+    @Mock
+    private ICartDAO cartDAO;
+
+    private CartWriteBehindStore store;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        store = new CartWriteBehindStore(cartDAO, true, MANUAL_FLUSH_WINDOW_MILLIS, CartWriteBehindStore.DEFAULT_IDLE_EVICTION_MILLIS);
+        product = new Product();
+        product.setProductId("P001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    private Cart storedCart(String cartSessionId, int quantity) {
+        Cart cart = new Cart(cartSessionId, null, LocalDateTime.now());
+        cart.getItems().add(new CartItem(cart, product, quantity));
+        return cart;
+    }
+
+    private void setQuantity(String cartSessionId, int quantity) throws SQLException {
+        try (CartWriteBehindStore.Lease lease = store.lease(cartSessionId)) {
+            lease.cart().getItems().get(0).setQuantity(quantity);
+            lease.changed();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Collection<Cart>> savedBatches(int expectedCalls) throws SQLException {
+        ArgumentCaptor<Collection<Cart>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(cartDAO, times(expectedCalls)).saveCarts(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void flushAll_RepeatedChangesToOneCart_StoresFinalStateOnce() throws SQLException {
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+
+        for (int quantity = 2; quantity <= 50; quantity++) {
+            setQuantity("S1", quantity);
+        }
+        assertEquals(1, store.getPendingCount());
+        store.flushAll();
+
+        Collection<Cart> batch = savedBatches(1).get(0);
+        assertEquals(1, batch.size());
+        assertEquals(50, batch.iterator().next().getItems().get(0).getQuantity());
+        assertEquals(0, store.getPendingCount());
+        verify(cartDAO, times(1)).getBySessionId("S1");
+    }
+
+    @Test
+    void flushAll_ChangesToSeveralCarts_StoredInOneBatch() throws SQLException {
+        when(cartDAO.getBySessionId(any())).thenAnswer(inv -> storedCart(inv.getArgument(0), 1));
+
+        setQuantity("S1", 2);
+        setQuantity("S2", 3);
+        setQuantity("S3", 4);
+        store.flushAll();
+
+        assertEquals(3, savedBatches(1).get(0).size());
+    }
+
+    @Test
+    void flushAll_NothingChanged_DoesNotWrite() throws SQLException {
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+        try (CartWriteBehindStore.Lease lease = store.lease("S1")) {
+            assertNotNull(lease.cart());
+        }
+
+        store.flushAll();
+
+        verify(cartDAO, never()).saveCarts(anyCollection());
+    }
+
+    @Test
+    void flush_StoresOnlyThatCart() throws SQLException {
+        when(cartDAO.getBySessionId(any())).thenAnswer(inv -> storedCart(inv.getArgument(0), 1));
+        setQuantity("S1", 2);
+        setQuantity("S2", 3);
+
+        store.flush("S1");
+
+        Collection<Cart> batch = savedBatches(1).get(0);
+        assertEquals("S1", batch.iterator().next().getCartSessionId());
+        assertEquals(1, store.getPendingCount(), "The other cart is still pending");
+    }
+
+    @Test
+    void flush_WriteFails_ThrowsAndKeepsCartPending() throws SQLException {
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+        doThrow(new SQLException("database is locked")).doNothing().when(cartDAO).saveCarts(anyCollection());
+        setQuantity("S1", 5);
+
+        assertThrows(SQLException.class, () -> store.flush("S1"));
+        assertEquals(1, store.getPendingCount());
+
+        store.flush("S1");
+        assertEquals(0, store.getPendingCount());
+        assertEquals(5, savedBatches(2).get(1).iterator().next().getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void flushAll_OneCartFails_OtherCartsAreStillStored() throws SQLException {
+        when(cartDAO.getBySessionId(any())).thenAnswer(inv -> storedCart(inv.getArgument(0), 1));
+        List<String> stored = new ArrayList<>();
+        doAnswer(inv -> {
+            Collection<Cart> carts = inv.getArgument(0);
+            if (carts.stream().anyMatch(c -> c.getCartSessionId().equals("BAD"))) {
+                throw new SQLException("FOREIGN KEY constraint failed");
+            }
+            carts.forEach(c -> stored.add(c.getCartSessionId()));
+            return null;
+        }).when(cartDAO).saveCarts(anyCollection());
+        setQuantity("GOOD", 2);
+        setQuantity("BAD", 2);
+
+        store.flushAll();
+
+        assertEquals(List.of("GOOD"), stored);
+        assertEquals(1, store.getPendingCount(), "The failed cart is retried with the next flush");
+    }
+
+    @Test
+    void flushAll_CartKeepsFailing_IsEvictedAndReloaded() throws SQLException {
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+        doThrow(new SQLException("disk I/O error")).when(cartDAO).saveCarts(anyCollection());
+        setQuantity("S1", 9);
+
+        for (int attempt = 0; attempt < 4; attempt++) {
+            store.flushAll();
+        }
+        assertEquals(0, store.getDiscardedCount(), "Still retried after four failures");
+        store.flushAll();
+        assertEquals(0, store.getPendingCount());
+        assertEquals(1, store.getDiscardedCount());
+
+        try (CartWriteBehindStore.Lease lease = store.lease("S1")) {
+            assertEquals(1, lease.cart().getItems().get(0).getQuantity(), "The database copy is authoritative again");
+        }
+        verify(cartDAO, times(2)).getBySessionId("S1");
+    }
+
+    @Test
+    void shutdown_StoresPendingChanges() throws SQLException {
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+        setQuantity("S1", 4);
+
+        store.shutdown();
+
+        assertEquals(4, savedBatches(1).get(0).iterator().next().getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void backgroundFlush_StoresChangesWithinTheWindow() throws Exception {
+        store.shutdown();
+        store = new CartWriteBehindStore(cartDAO, true, 20, CartWriteBehindStore.DEFAULT_IDLE_EVICTION_MILLIS);
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+
+        setQuantity("S1", 3);
+
+        verify(cartDAO, timeout(2_000)).saveCarts(anyCollection());
+        assertEquals(0, store.getPendingCount());
+    }
+
+    @Test
+    void writeThrough_LeaseReadsDatabaseAndFlushDoesNothing() throws SQLException {
+        store.shutdown();
+        store = new CartWriteBehindStore(cartDAO, false);
+        when(cartDAO.getBySessionId("S1")).thenReturn(storedCart("S1", 1));
+
+        setQuantity("S1", 2);
+        setQuantity("S1", 3);
+        store.flush("S1");
+
+        verify(cartDAO, times(2)).getBySessionId("S1");
+        verify(cartDAO, never()).saveCarts(anyCollection());
+    }
+}
@@ -2,6 +2,7 @@ package com.aims.core.application.impl;
 
 import com.aims.core.application.services.IOperationConstraintService;
 import com.aims.core.application.services.IProductManagerAuditService;
+import com.aims.core.shared.dto.DailyOperationCounts;
 import com.aims.core.shared.exceptions.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -56,12 +57,12 @@ class OperationConstraintServiceImplTest {
             "EDIT_product1_2024-01-01",
             "DELETE_product2_2024-01-01"
         ); // 2 operations, under limit of 30
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = operationConstraintService.canEditProduct(testManagerId, testProductId);
         
         assertTrue(result);
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
@@ -71,7 +72,7 @@ class OperationConstraintServiceImplTest {
             operationConstraintService.startEditSession(testManagerId, "otherProduct"));
         
         List<String> operations = Arrays.asList(); // Empty, under daily limit
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = operationConstraintService.canEditProduct(testManagerId, testProductId);
         
@@ -83,12 +84,12 @@ class OperationConstraintServiceImplTest {
         // Mock: 5 products to delete (under limit of 10), under daily operations limit
         List<String> productIds = Arrays.asList("p1", "p2", "p3", "p4", "p5");
         List<String> operations = Arrays.asList("EDIT_product1_2024-01-01"); // 1 operation, under limit
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = operationConstraintService.canDeleteProducts(testManagerId, productIds);
         
         assertTrue(result);
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
@@ -102,7 +103,7 @@ class OperationConstraintServiceImplTest {
         
         assertFalse(result);
         // Should not even check daily operations if bulk limit is exceeded
-        verify(auditService, never()).getManagerOperations(anyString(), anyString());
+        verify(auditService, never()).getDailyOperationCounts(anyString(), any());
     }
 
     @Test
@@ -113,24 +114,24 @@ class OperationConstraintServiceImplTest {
             operations = Arrays.asList(operations.toArray(new String[0]));
             operations.add("EDIT_product" + i + "_2024-01-01");
         }
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = operationConstraintService.canDeleteProducts(testManagerId, testProductIds);
         
         assertFalse(result);
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
     void canUpdatePrice_underDailyLimit_returnsTrue() throws SQLException {
         // Mock: Under daily operations limit
         List<String> operations = Arrays.asList("EDIT_product1_2024-01-01"); // 1 operation
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = operationConstraintService.canUpdatePrice(testManagerId, testProductId);
         
         assertTrue(result);
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
@@ -143,7 +144,7 @@ class OperationConstraintServiceImplTest {
             "DELETE_product4_2024-01-01",
             "PRICE_UPDATE_product5_2024-01-01_100.00_TO_120.00"
         );
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         IOperationConstraintService.OperationQuotaStatus status = 
             operationConstraintService.getQuotaStatus(testManagerId, testDate);
@@ -157,7 +158,7 @@ class OperationConstraintServiceImplTest {
         assertEquals(1, status.getDeletionsToday());
         assertEquals(1, status.getPriceUpdatesTotal());
         assertFalse(status.hasActiveEditSession());
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
@@ -264,13 +265,13 @@ class OperationConstraintServiceImplTest {
             "PRICE_UPDATE_" + testProductId + "_2024-01-01_100.00_TO_120.00",
             "PRICE_UPDATE_otherProduct_2024-01-01_200.00_TO_220.00" // Different product
         );
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = ((OperationConstraintServiceImpl) operationConstraintService)
             .canUpdatePriceForProduct(testManagerId, testProductId);
         
         assertTrue(result);
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
@@ -280,13 +281,13 @@ class OperationConstraintServiceImplTest {
             "PRICE_UPDATE_" + testProductId + "_2024-01-01_100.00_TO_120.00",
             "PRICE_UPDATE_" + testProductId + "_2024-01-01_120.00_TO_140.00"
         );
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         boolean result = ((OperationConstraintServiceImpl) operationConstraintService)
             .canUpdatePriceForProduct(testManagerId, testProductId);
         
         assertFalse(result);
-        verify(auditService).getManagerOperations(testManagerId, testDate.toString());
+        verify(auditService).getDailyOperationCounts(testManagerId, testDate);
     }
 
     @Test
@@ -309,7 +310,7 @@ class OperationConstraintServiceImplTest {
             "EDIT_product1_2024-01-01",
             "DELETE_product2_2024-01-01"
         ); // 2 operations used
-        when(auditService.getManagerOperations(testManagerId, testDate.toString())).thenReturn(operations);
+        when(auditService.getDailyOperationCounts(testManagerId, testDate)).thenReturn(DailyOperationCounts.fromOperationKeys(operations, testDate));
         
         IOperationConstraintService.OperationQuotaStatus status = 
             operationConstraintService.getQuotaStatus(testManagerId, testDate);
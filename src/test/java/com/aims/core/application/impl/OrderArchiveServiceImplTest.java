@@ -0,0 +1,85 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.infrastructure.database.dao.IOrderArchiveDAO;
+import com.aims.core.shared.dto.OrderArchiveMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderArchiveServiceImplTest {
+
+    private IOrderArchiveDAO archiveDAO;
+    private OrderArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveDAO = mock(IOrderArchiveDAO.class);
+        archiveService = new OrderArchiveServiceImpl(archiveDAO,
+            new OrderArchiveServiceImpl.Settings(Duration.ofDays(365), Duration.ofHours(24), 2, Duration.ZERO));
+    }
+
+    @Test
+    void archiveOrders_MovesEachYearInBatchesUntilShortBatch() throws SQLException {
+        when(archiveDAO.findArchivableYears(any(LocalDateTime.class), eq(OrderArchiveServiceImpl.ARCHIVABLE_STATUSES)))
+            .thenReturn(List.of("2023", "2024"));
+        when(archiveDAO.archiveBatch(eq("2023"), any(LocalDateTime.class), any(), eq(2))).thenReturn(2, 2, 1);
+        when(archiveDAO.archiveBatch(eq("2024"), any(LocalDateTime.class), any(), eq(2))).thenReturn(2, 0);
+        when(archiveDAO.getArchiveFiles()).thenReturn(List.of(Path.of("orders_2024.db"), Path.of("orders_2023.db")));
+
+        assertEquals(7, archiveService.archiveOrders());
+
+        verify(archiveDAO, times(3)).archiveBatch(eq("2023"), any(LocalDateTime.class), any(), eq(2));
+        verify(archiveDAO, times(2)).archiveBatch(eq("2024"), any(LocalDateTime.class), any(), eq(2));
+        OrderArchiveMetrics metrics = archiveService.getMetrics();
+        assertEquals(1, metrics.runs());
+        assertEquals(7, metrics.ordersArchived());
+        assertEquals(4, metrics.batches());
+        assertEquals(7, metrics.lastRunOrders());
+        assertEquals(2, metrics.archiveFiles());
+    }
+
+    @Test
+    void archiveOrders_UsesCutoffFromSettings() throws SQLException {
+        when(archiveDAO.findArchivableYears(any(LocalDateTime.class), any())).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now().minusDays(365);
+        archiveService.archiveOrders();
+        LocalDateTime after = LocalDateTime.now().minusDays(365);
+
+        verify(archiveDAO).findArchivableYears(argThat(cutoff -> !cutoff.isBefore(before) && !cutoff.isAfter(after)), any());
+    }
+
+    @Test
+    void archiveOrders_ErrorStopsRunAndKeepsArchivedCount() throws SQLException {
+        when(archiveDAO.findArchivableYears(any(LocalDateTime.class), any())).thenReturn(List.of("2023"));
+        when(archiveDAO.archiveBatch(eq("2023"), any(LocalDateTime.class), any(), eq(2)))
+            .thenReturn(2)
+            .thenThrow(new SQLException("database is locked"));
+
+        assertEquals(2, archiveService.archiveOrders());
+
+        OrderArchiveMetrics metrics = archiveService.getMetrics();
+        assertEquals(1, metrics.errors());
+        assertEquals(2, metrics.ordersArchived());
+    }
+
+    @Test
+    void archiveOrders_AfterShutdown_MovesNothing() throws SQLException {
+        when(archiveDAO.findArchivableYears(any(LocalDateTime.class), any())).thenReturn(List.of("2023"));
+        archiveService.shutdown();
+
+        assertEquals(0, archiveService.archiveOrders());
+
+        verify(archiveDAO, never()).archiveBatch(any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,235 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.entities.OrderItem;
+import com.aims.core.entities.Product;
+import com.aims.core.infrastructure.adapters.external.payment_gateway.StubVNPayServer;
+import com.aims.core.infrastructure.adapters.external.payment_gateway.VNPayGatewayAdapter;
+import com.aims.core.infrastructure.adapters.external.payment_gateway.VNPayHttpClient;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.infrastructure.database.dao.IJobCheckpointDAO;
+import com.aims.core.infrastructure.database.dao.IOrderEntityDAO;
+import com.aims.core.infrastructure.database.dao.IOrderItemDAO;
+import com.aims.core.infrastructure.database.dao.IPaymentMethodDAO;
+import com.aims.core.infrastructure.database.dao.JobCheckpointDAOImpl;
+import com.aims.core.infrastructure.database.dao.PaymentSettlementDAOImpl;
+import com.aims.core.infrastructure.database.dao.PaymentTransactionDAOImpl;
+import com.aims.core.shared.dto.PaymentReconciliationMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the reconciler against a temporary database and a local stub of the
+ * VNPay merchant API.
+ */
+class PaymentReconciliationServiceImplTest {
+
+    private static final String SCRIPTS = "src/main/java/com/aims/core/infrastructure/database/scripts/";
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private StubVNPayServer gateway;
+    private VNPayHttpClient httpClient;
+    private IJobCheckpointDAO checkpointDAO;
+    private IOrderItemDAO orderItemDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_reconciliation_test.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("PRAGMA foreign_keys = ON;");
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V1__create_tables.sql")));
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V2__add_gateway_response_data.sql")));
+            stmt.executeUpdate("INSERT INTO PRODUCT (productID, title, category, value_amount, price, quantityInStock, productType) " +
+                               "VALUES ('P1', 'Book', 'Books', 10, 12, 10, 'BOOK')");
+            stmt.executeUpdate("INSERT INTO PAYMENT_METHOD (paymentMethodID, methodType, isDefault) VALUES ('PM1', 'CREDIT_CARD', 0)");
+        }
+        SQLiteConnector.getInstance().setConnection(connection);
+
+        gateway = new StubVNPayServer();
+        httpClient = new VNPayHttpClient(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        checkpointDAO = new JobCheckpointDAOImpl();
+        orderItemDAO = mock(IOrderItemDAO.class);
+        when(orderItemDAO.getItemsByOrderId(anyString())).thenAnswer(invocation -> {
+            Product product = new Product();
+            product.setProductId("P1");
+            return List.of(new OrderItem(null, product, 2, 12f, false));
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        httpClient.shutdown();
+        gateway.close();
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    private PaymentReconciliationServiceImpl reconciler(int batchSize, int maxConcurrency) {
+        PaymentTransactionDAOImpl transactionDAO = new PaymentTransactionDAOImpl(mock(IOrderEntityDAO.class), mock(IPaymentMethodDAO.class));
+        PaymentSettlementServiceImpl settlementService = new PaymentSettlementServiceImpl(new PaymentSettlementDAOImpl(), orderItemDAO);
+        PaymentReconciliationServiceImpl.Settings settings = new PaymentReconciliationServiceImpl.Settings(
+            Duration.ofMinutes(20), Duration.ofHours(1), Duration.ofMinutes(1), batchSize, maxConcurrency, 0);
+        return new PaymentReconciliationServiceImpl(transactionDAO, checkpointDAO,
+            new VNPayGatewayAdapter(httpClient, gateway.getApiUrl()), settlementService, settings);
+    }
+
+    /**
+     * Inserts an order awaiting payment and its pending VNPay transaction, created {@code minutesAgo}.
+     */
+    private void pendingPayment(String id, long minutesAgo) throws SQLException {
+        String created = LocalDateTime.now().minusMinutes(minutesAgo).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO ORDER_ENTITY (orderID, orderDate, order_status, totalAmountPaid) " +
+                               "VALUES ('O" + id + "', '" + created + "', 'PENDING_PAYMENT', 100000.0)");
+            stmt.executeUpdate("INSERT INTO PAYMENT_TRANSACTION (transactionID, orderID, paymentMethodID, transactionType, " +
+                               "externalTransactionID, transaction_status, transactionDateTime, amount, gatewayResponseData) " +
+                               "VALUES ('TX" + id + "', 'O" + id + "', 'PM1', 'PAYMENT', 'REF" + id + "', 'PENDING_USER_ACTION', '" +
+                               created + "', 100000.0, '{\"paymentUrl\":\"https://pay\"}')");
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private String transactionStatus(String id) throws SQLException {
+        return queryString("SELECT transaction_status FROM PAYMENT_TRANSACTION WHERE transactionID = 'TX" + id + "'");
+    }
+
+    private String orderStatus(String id) throws SQLException {
+        return queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O" + id + "'");
+    }
+
+    @Test
+    void reconcile_AppliesEachGatewayResult() throws SQLException {
+        pendingPayment("1", 30);   // paid
+        pendingPayment("2", 30);   // failed at the gateway
+        pendingPayment("3", 30);   // not completed, still within the expiry age
+        pendingPayment("4", 120);  // not completed, expired
+        pendingPayment("5", 5);    // too recent to query
+        gateway.setTransactionStatus("REF2", "02");
+        gateway.setTransactionStatus("REF3", "01");
+        gateway.setTransactionStatus("REF4", "01");
+
+        int resolved = reconciler(100, 4).reconcilePendingPayments();
+
+        assertEquals(3, resolved);
+        assertEquals("SUCCESS", transactionStatus("1"));
+        assertEquals("PENDING_PROCESSING", orderStatus("1"));
+        assertEquals("8", queryString("SELECT quantityInStock FROM PRODUCT WHERE productID = 'P1'"));
+        assertEquals("INV-O1", queryString("SELECT invoiceID FROM INVOICE WHERE orderID = 'O1'"));
+        assertEquals("FAILED", transactionStatus("2"));
+        assertEquals("PENDING_PAYMENT", orderStatus("2"), "The customer can still pay a failed order");
+        assertEquals("PENDING_USER_ACTION", transactionStatus("3"));
+        assertEquals("FAILED", transactionStatus("4"));
+        assertTrue(queryString("SELECT gatewayResponseData FROM PAYMENT_TRANSACTION WHERE transactionID = 'TX4'").contains("EXPIRED"));
+        assertEquals("PENDING_USER_ACTION", transactionStatus("5"));
+        assertEquals(4, gateway.getRequestCount(), "Only stale payments are queried");
+    }
+
+    @Test
+    void reconcile_ReportsBacklogAndLatency() throws SQLException {
+        pendingPayment("1", 30);
+        pendingPayment("2", 30);
+        pendingPayment("3", 5);
+        gateway.setTransactionStatus("REF2", "02");
+        PaymentReconciliationServiceImpl service = reconciler(100, 4);
+
+        service.reconcilePendingPayments();
+
+        PaymentReconciliationMetrics metrics = service.getMetrics();
+        assertEquals(2, metrics.backlog());
+        assertEquals(1, metrics.passes());
+        assertEquals(2, metrics.queried());
+        assertEquals(1, metrics.settled());
+        assertEquals(1, metrics.failed());
+        assertEquals(0, metrics.errors());
+        assertTrue(metrics.averageQueryMillis() > 0);
+        assertTrue(metrics.maxResolutionLagMillis() >= Duration.ofMinutes(30).toMillis());
+        assertNull(metrics.checkpoint(), "A completed pass starts over next time");
+    }
+
+    @Test
+    void reconcile_ResumesFromSavedCheckpoint() throws SQLException {
+        for (int i = 1; i <= 5; i++) {
+            pendingPayment(String.valueOf(i), 30);
+        }
+        // A previous run stopped after TX2
+        checkpointDAO.savePosition(PaymentReconciliationServiceImpl.JOB_NAME, "TX2");
+
+        int resolved = reconciler(2, 2).reconcilePendingPayments();
+
+        assertEquals(3, resolved);
+        assertEquals("PENDING_USER_ACTION", transactionStatus("1"));
+        assertEquals("PENDING_USER_ACTION", transactionStatus("2"));
+        assertEquals("SUCCESS", transactionStatus("3"));
+        assertEquals("SUCCESS", transactionStatus("5"));
+        assertNull(checkpointDAO.getPosition(PaymentReconciliationServiceImpl.JOB_NAME));
+    }
+
+    @Test
+    void reconcile_GatewayError_LeavesPaymentsPendingForNextPass() throws SQLException {
+        pendingPayment("1", 30);
+        gateway.setResponseCode("99");
+        PaymentReconciliationServiceImpl service = reconciler(100, 4);
+
+        assertEquals(0, service.reconcilePendingPayments());
+        assertEquals("PENDING_USER_ACTION", transactionStatus("1"));
+        assertEquals(1, service.getMetrics().errors());
+
+        gateway.setResponseCode("00");
+        assertEquals(1, service.reconcilePendingPayments());
+        assertEquals("SUCCESS", transactionStatus("1"));
+    }
+
+    @Test
+    void reconcile_AmountMismatch_NeverSettles() throws SQLException {
+        pendingPayment("1", 30);
+        connection.createStatement().executeUpdate("UPDATE PAYMENT_TRANSACTION SET amount = 5.0 WHERE transactionID = 'TX1'");
+
+        assertEquals(0, reconciler(100, 4).reconcilePendingPayments());
+        assertEquals("PENDING_USER_ACTION", transactionStatus("1"));
+        assertEquals("PENDING_PAYMENT", orderStatus("1"));
+    }
+
+    @Test
+    void reconcile_BoundsGatewayQueriesInFlight() throws SQLException {
+        for (int i = 1; i <= 8; i++) {
+            pendingPayment(String.valueOf(i), 30);
+        }
+        connection.createStatement().executeUpdate("UPDATE PRODUCT SET quantityInStock = 100");
+        gateway.setLatencyMillis(100);
+
+        assertEquals(8, reconciler(100, 3).reconcilePendingPayments());
+        assertTrue(gateway.getMaxConcurrentRequests() <= 3, "max in flight: " + gateway.getMaxConcurrentRequests());
+        assertTrue(gateway.getMaxConcurrentRequests() > 1, "queries overlap");
+    }
+}
@@ -0,0 +1,145 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.entities.OrderItem;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.enums.TransactionType;
+import com.aims.core.infrastructure.database.dao.IOrderItemDAO;
+import com.aims.core.infrastructure.database.dao.IPaymentSettlementDAO;
+import com.aims.core.shared.dto.PaymentSettlement;
+import com.aims.core.shared.dto.SettlementResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentSettlementServiceImplTest {
+
+    @Mock
+    private IPaymentSettlementDAO settlementDAO;
+    @Mock
+    private IOrderItemDAO orderItemDAO;
+
+    private PaymentSettlementServiceImpl settlementService;
+    private OrderEntity order;
+    private PaymentTransaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        settlementService = new PaymentSettlementServiceImpl(settlementDAO, orderItemDAO);
+        order = new OrderEntity("O1", null, LocalDateTime.now(), OrderStatus.PENDING_PAYMENT, 30f, 33f, 0f, 33f);
+        transaction = new PaymentTransaction("TX1", order, null, TransactionType.PAYMENT, "EXT1", "SUCCESS",
+            LocalDateTime.now(), 33f, "charge");
+    }
+
+    private OrderItem item(String productId, int quantity) {
+        Product product = new Product();
+        product.setProductId(productId);
+        return new OrderItem(order, product, quantity, 10f, false);
+    }
+
+    private List<PaymentSettlement> settlements(int expectedCalls) throws SQLException {
+        ArgumentCaptor<PaymentSettlement> captor = ArgumentCaptor.forClass(PaymentSettlement.class);
+        verify(settlementDAO, times(expectedCalls)).settle(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void settlePaidOrder_BuildsOneSettlementWithStockInvoiceAndStatus() throws SQLException {
+        order.setOrderItems(new ArrayList<>(List.of(item("P1", 2), item("P2", 1), item("P1", 3))));
+        when(settlementDAO.settle(any())).thenReturn(new SettlementResult(SettlementResult.Outcome.SETTLED, null));
+
+        SettlementResult result = settlementService.settlePaidOrder(order, transaction, OrderStatus.PENDING_PROCESSING);
+
+        assertTrue(result.isSettled());
+        PaymentSettlement settlement = settlements(1).get(0);
+        assertSame(transaction, settlement.transaction());
+        assertEquals(OrderStatus.PENDING_PROCESSING, settlement.orderStatus());
+        assertEquals(Map.of("P1", 5, "P2", 1), settlement.stockDecrements());
+        assertEquals("INV-O1", settlement.invoice().getInvoiceId());
+        assertEquals(33f, settlement.invoice().getInvoicedTotalAmount());
+        assertEquals(OrderStatus.PENDING_PROCESSING, order.getOrderStatus());
+        assertSame(settlement.invoice(), order.getInvoice());
+        verifyNoInteractions(orderItemDAO);
+    }
+
+    @Test
+    void settlePaidOrder_OrderWithoutItems_LoadsThem() throws SQLException {
+        when(orderItemDAO.getItemsByOrderId("O1")).thenReturn(List.of(item("P1", 4)));
+        when(settlementDAO.settle(any())).thenReturn(new SettlementResult(SettlementResult.Outcome.SETTLED, null));
+
+        settlementService.settlePaidOrder(order, transaction, OrderStatus.APPROVED);
+
+        assertEquals(Map.of("P1", 4), settlements(1).get(0).stockDecrements());
+    }
+
+    @Test
+    void settlePaidOrder_ShortOfStock_RecordsTransactionWithOrderPaymentFailed() throws SQLException {
+        order.setOrderItems(new ArrayList<>(List.of(item("P1", 2))));
+        when(settlementDAO.settle(any()))
+            .thenReturn(new SettlementResult(SettlementResult.Outcome.INSUFFICIENT_STOCK, "P1"))
+            .thenReturn(new SettlementResult(SettlementResult.Outcome.SETTLED, null));
+
+        SettlementResult result = settlementService.settlePaidOrder(order, transaction, OrderStatus.PENDING_PROCESSING);
+
+        assertEquals(SettlementResult.Outcome.INSUFFICIENT_STOCK, result.outcome());
+        PaymentSettlement fallback = settlements(2).get(1);
+        assertSame(transaction, fallback.transaction());
+        assertEquals(OrderStatus.PAYMENT_FAILED, fallback.orderStatus());
+        assertTrue(fallback.stockDecrements().isEmpty());
+        assertNull(fallback.invoice());
+        assertEquals(OrderStatus.PAYMENT_FAILED, order.getOrderStatus());
+    }
+
+    @Test
+    void recordFailedPayment_WritesTransactionAndStatusOnly() throws SQLException {
+        transaction.setTransactionStatus("FAILED");
+        when(settlementDAO.settle(any())).thenReturn(new SettlementResult(SettlementResult.Outcome.SETTLED, null));
+
+        settlementService.recordFailedPayment(transaction, OrderStatus.PAYMENT_FAILED);
+
+        PaymentSettlement settlement = settlements(1).get(0);
+        assertEquals("O1", settlement.orderId());
+        assertEquals(OrderStatus.PAYMENT_FAILED, settlement.orderStatus());
+        assertTrue(settlement.stockDecrements().isEmpty());
+        assertNull(settlement.invoice());
+    }
+
+    @Test
+    void settlePaidOrder_AlreadySettled_TakesTheStoredStatus() throws SQLException {
+        order.setOrderItems(new ArrayList<>(List.of(item("P1", 2))));
+        when(settlementDAO.settle(any()))
+            .thenReturn(new SettlementResult(SettlementResult.Outcome.ALREADY_SETTLED, null, OrderStatus.DELIVERED));
+
+        settlementService.settlePaidOrder(order, transaction, OrderStatus.PENDING_PROCESSING);
+
+        assertEquals(OrderStatus.DELIVERED, order.getOrderStatus());
+        assertNull(order.getInvoice());
+    }
+
+    @Test
+    void recordFailedPayment_OrderAlreadyPaid_KeepsItsStatus() throws SQLException {
+        transaction.setTransactionStatus("FAILED");
+        when(settlementDAO.settle(any()))
+            .thenReturn(new SettlementResult(SettlementResult.Outcome.ALREADY_SETTLED, null, OrderStatus.APPROVED));
+
+        settlementService.recordFailedPayment(transaction, OrderStatus.PAYMENT_FAILED);
+
+        assertEquals(OrderStatus.APPROVED, order.getOrderStatus());
+    }
+}
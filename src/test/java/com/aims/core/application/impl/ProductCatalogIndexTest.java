@@ -0,0 +1,190 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.impl.ProductCatalogIndex.Page;
+import com.aims.core.application.impl.ProductCatalogIndex.Query;
+import com.aims.core.application.impl.ProductCatalogIndex.SortKey;
+import com.aims.core.entities.Book;
+import com.aims.core.entities.CD;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.events.ProductChangeBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogIndexTest {
+
+    private final Map<String, Product> table = new LinkedHashMap<>();
+    private IProductDAO productDAO;
+    private ProductCatalogIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        table.put("P1", book("P1", "Banana", "Books", 12f, 3, LocalDate.of(2024, 1, 5)));
+        table.put("P2", cd("P2", "Apple", "Music", 9f, 0, LocalDate.of(2024, 1, 1)));
+        table.put("P3", book("P3", "Cherry", "Books", 30f, 5, null));
+        table.put("P4", cd("P4", "Date", null, 12f, 1, LocalDate.of(2023, 1, 1)));
+
+        productDAO = mock(IProductDAO.class);
+        when(productDAO.getAll()).thenAnswer(invocation -> new ArrayList<>(table.values()));
+        when(productDAO.getByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            List<Product> found = new ArrayList<>();
+            for (String id : ids) {
+                if (table.containsKey(id)) {
+                    found.add(table.get(id));
+                }
+            }
+            return found;
+        });
+        index = new ProductCatalogIndex(productDAO, ProductChangeBus.getInstance());
+        index.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    private static Book book(String id, String title, String category, float price, int stock, LocalDate entryDate) {
+        Book book = new Book();
+        fill(book, id, title, category, price, stock, entryDate);
+        return book;
+    }
+
+    private static CD cd(String id, String title, String category, float price, int stock, LocalDate entryDate) {
+        CD cd = new CD();
+        fill(cd, id, title, category, price, stock, entryDate);
+        return cd;
+    }
+
+    private static void fill(Product product, String id, String title, String category, float price, int stock,
+                             LocalDate entryDate) {
+        product.setProductId(id);
+        product.setTitle(title);
+        product.setCategory(category);
+        product.setPrice(price);
+        product.setQuantityInStock(stock);
+        product.setEntryDate(entryDate);
+    }
+
+    private static Query sortedBy(SortKey sortKey, boolean descending) {
+        return new Query(null, null, false, null, null, sortKey, descending, 0, 10);
+    }
+
+    @Test
+    void query_SortsByEachKey() throws SQLException {
+        assertEquals(List.of("P2", "P1", "P3", "P4"), index.query(sortedBy(SortKey.TITLE, false)).productIds());
+        assertEquals(List.of("P4", "P3", "P1", "P2"), index.query(sortedBy(SortKey.TITLE, true)).productIds());
+        assertEquals(List.of("P2", "P1", "P4", "P3"), index.query(sortedBy(SortKey.PRICE, false)).productIds());
+        assertEquals(List.of("P2", "P4", "P1", "P3"), index.query(sortedBy(SortKey.QUANTITY, false)).productIds());
+        assertEquals(List.of("P3", "P4", "P2", "P1"), index.query(sortedBy(SortKey.ENTRY_DATE, false)).productIds(),
+            "Products without an entry date sort first");
+    }
+
+    @Test
+    void query_CombinesFilters() throws SQLException {
+        Page inStockBooks = index.query(new Query(null, null, true, ProductType.BOOK, "Books", SortKey.PRICE, true, 0, 10));
+        assertEquals(List.of("P3", "P1"), inStockBooks.productIds());
+        assertEquals(2, inStockBooks.totalMatches());
+
+        Page priced = index.query(new Query(1000L, 1200L, false, null, null, SortKey.TITLE, false, 0, 10));
+        assertEquals(List.of("P1", "P4"), priced.productIds());
+
+        assertEquals(0, index.query(new Query(null, null, false, null, "Nope", SortKey.TITLE, false, 0, 10)).totalMatches());
+    }
+
+    @Test
+    void query_PagesThroughMatches() throws SQLException {
+        Page page = index.query(new Query(null, null, false, null, null, SortKey.QUANTITY, false, 1, 2));
+
+        assertEquals(List.of("P4", "P1"), page.productIds());
+        assertEquals(4, page.totalMatches());
+    }
+
+    @Test
+    void query_FollowsProductChanges() throws SQLException {
+        ProductChangeBus bus = ProductChangeBus.getInstance();
+
+        table.get("P2").setQuantityInStock(7);
+        bus.publishStockChange("P2", 7, null);
+        table.remove("P3");
+        bus.publishDelete("P3");
+        table.put("P5", cd("P5", "Elder", "Music", 5f, 2, LocalDate.of(2024, 2, 1)));
+        bus.publishCreate("P5", 2, 5f);
+        table.get("P1").setPrice(50f);
+        bus.publishProductUpdate("P1", 3, 50f, null);
+
+        Page inStock = index.query(new Query(null, null, true, null, null, SortKey.PRICE, false, 0, 10));
+        assertEquals(List.of("P5", "P2", "P4", "P1"), inStock.productIds());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void catchUp_RereadsProductsWithoutHoldingTheIndex() throws Exception {
+        ProductChangeBus bus = ProductChangeBus.getInstance();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            reading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return List.of(table.get("P1"));
+        }).when(productDAO).getByIds(anyCollection());
+
+        table.remove("P3");
+        bus.publishDelete("P3");
+        table.get("P1").setPrice(50f);
+        bus.publishProductUpdate("P1", 3, 50f, null);
+
+        try {
+            assertTrue(reading.await(5, TimeUnit.SECONDS), "The bus thread re-reads the updated product");
+            assertEquals(3, index.size(), "The index serves the applied delete while the re-read is still running");
+        } finally {
+            release.countDown();
+        }
+        Page byPrice = index.query(sortedBy(SortKey.PRICE, true));
+        assertEquals("P1", byPrice.productIds().get(0));
+    }
+
+    @Test
+    void of_MatchesFilteringTheList() throws SQLException {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            products.add(i % 2 == 0
+                ? book("B" + i, "Title " + (i * 37 % 500), i % 3 == 0 ? "Books" : "Other", (i * 13 % 97) + 0.5f, i % 4,
+                    LocalDate.of(2024, 1, 1).plusDays(i * 7 % 60))
+                : cd("C" + i, "Title " + (i * 37 % 500), "Music", (i * 13 % 97) + 0.5f, i % 4,
+                    LocalDate.of(2024, 1, 1).plusDays(i * 7 % 60)));
+        }
+        ProductCatalogIndex fixed = ProductCatalogIndex.of(products);
+
+        Page page = fixed.query(new Query(1000L, 6000L, true, ProductType.BOOK, null, SortKey.PRICE, false, 5, 10));
+
+        List<Product> expected = products.stream()
+            .filter(p -> p.getProductType() == ProductType.BOOK && p.getQuantityInStock() > 0)
+            .filter(p -> p.getPrice() >= 10f && p.getPrice() <= 60f)
+            .sorted((a, b) -> Float.compare(a.getPrice(), b.getPrice()))
+            .toList();
+        assertEquals(expected.size(), page.totalMatches());
+        assertEquals(expected.stream().skip(5).limit(10).map(Product::getPrice).toList(),
+            page.productIds().stream().map(id -> products.stream()
+                .filter(p -> p.getProductId().equals(id)).findFirst().orElseThrow().getPrice()).toList());
+    }
+}
@@ -0,0 +1,140 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.application.services.IProductImportExportService;
+import com.aims.core.application.services.IProductImportExportService.ImportReport;
+import com.aims.core.application.services.IProductManagerAuditService;
+import com.aims.core.entities.Book;
+import com.aims.core.entities.Product;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.exceptions.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductImportExportServiceImpl
+ * Tests streaming import (validation, chunked writes, rejected rows) and export
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductImportExportServiceImplTest {
+
+    @Mock
+    private IProductDAO productDAO;
+
+    @Mock
+    private IProductManagerAuditService auditService;
+
+    private IProductImportExportService service;
+
+    @BeforeEach
+    void setUp() {
+        // Small chunks so that a handful of rows exercises several transactions
+        service = new ProductImportExportServiceImpl(productDAO, auditService, 2, 2);
+    }
+
+    private static ByteArrayInputStream utf8(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importCsv_writesValidRowsInOrderAndReportsRejectedRows() throws Exception {
+        String csv = "productType,productId,title,valueAmount,price,quantityInStock,authors,genre\r\n" +
+                     "BOOK,B001,\"Clean Code, 2nd Edition\",100,120,5,Robert Martin,Software\r\n" +
+                     "CD,C001,Greatest Hits,50,60,3,,Pop\r\n" +
+                     "BOOK,B002,Overpriced,100,500,1,,\r\n" +
+                     "OTHER,P001,Gadget,80,90,7,,\r\n" +
+                     "VINYL,X001,Unknown Type,10,10,1,,\r\n";
+        List<String> writtenIds = new ArrayList<>();
+        when(productDAO.addProductsBatch(anyList())).thenAnswer(invocation -> {
+            List<? extends Product> batch = invocation.getArgument(0);
+            batch.forEach(product -> writtenIds.add(product.getProductId()));
+            return batch.size();
+        });
+
+        ImportReport report = service.importProducts(utf8(csv), IProductImportExportService.Format.CSV, "PM001", "IMP-TEST");
+
+        assertEquals(ImportReport.Status.COMPLETED, report.getStatus());
+        assertEquals(5, report.getRowsRead());
+        assertEquals(3, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(List.of("B001", "C001", "P001"), writtenIds);
+        assertEquals(List.of(4L, 6L), report.getRejectedRows().stream()
+            .map(IProductImportExportService.RejectedRow::getLineNumber).collect(Collectors.toList()));
+        assertTrue(report.getRejectedRows().get(1).getReason().contains("Unknown productType"));
+        verify(auditService, atLeastOnce()).logOperations(eq("PM001"), anyList());
+        assertSame(report, service.getImportStatus("IMP-TEST"));
+    }
+
+    @Test
+    void importJsonl_retriesRejectedChunkRowByRow() throws Exception {
+        String jsonl = "{\"productType\":\"OTHER\",\"productId\":\"P010\",\"title\":\"Fresh\",\"valueAmount\":10,\"price\":12}\n" +
+                       "\n" +
+                       "{\"productType\":\"OTHER\",\"productId\":\"P011\",\"title\":\"Duplicate\",\"valueAmount\":10,\"price\":12}\n";
+        when(productDAO.addProductsBatch(anyList())).thenAnswer(invocation -> {
+            List<? extends Product> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(product -> "P011".equals(product.getProductId()))) {
+                throw new SQLException("UNIQUE constraint failed: PRODUCT.productID", null, 19);
+            }
+            return batch.size();
+        });
+
+        ImportReport report = service.importProducts(utf8(jsonl), IProductImportExportService.Format.JSONL, null, null);
+
+        assertEquals(2, report.getRowsRead());
+        assertEquals(1, report.getRowsImported());
+        assertEquals(1, report.getRowsRejected());
+        assertEquals("P011", report.getRejectedRows().get(0).getProductId());
+        assertEquals(3L, report.getRejectedRows().get(0).getLineNumber());
+        // One attempt for the chunk, then one per row
+        verify(productDAO, times(3)).addProductsBatch(anyList());
+    }
+
+    @Test
+    void importCsv_missingHeaderColumns_fails() {
+        assertThrows(ValidationException.class, () ->
+            service.importProducts(utf8("id,name\r\n1,x\r\n"), IProductImportExportService.Format.CSV, "PM001", null));
+        verifyNoInteractions(productDAO);
+    }
+
+    @Test
+    void exportCsv_writesHeaderAndOneRecordPerProduct() throws Exception {
+        Book book = new Book();
+        book.setProductId("B001");
+        book.setTitle("Refactoring, Improved");
+        book.setValueAmount(100f);
+        book.setPrice(120f);
+        book.setAuthors("Martin Fowler");
+        when(productDAO.streamProducts(isNull(), any())).thenAnswer(invocation -> {
+            IProductDAO.ProductRowHandler handler = invocation.getArgument(1);
+            handler.handle(book);
+            return 1;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = service.exportProducts(out, IProductImportExportService.Format.CSV, null);
+
+        assertEquals(1, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals(String.join(",", ProductRecordMapper.COLUMNS), lines[0]);
+        assertTrue(lines[1].startsWith("BOOK,B001,\"Refactoring, Improved\","));
+        assertTrue(lines[1].contains("Martin Fowler"));
+    }
+}
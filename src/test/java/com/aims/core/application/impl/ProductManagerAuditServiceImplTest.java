@@ -0,0 +1,202 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.infrastructure.database.dao.IProductManagerAuditDAO;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.DailyOperationCounts;
+import com.aims.core.shared.dto.ProductAuditEntry;
+import com.aims.core.shared.exceptions.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductManagerAuditServiceImpl
+ * Tests in-memory daily counters, day rollover and the audit writer durability modes
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductManagerAuditServiceImplTest {
+
+    private static final String MANAGER = "manager1";
+
+    @Mock
+    private IProductManagerAuditDAO auditDAO;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-03-10T09:00:00Z"));
+    private AuditLogWriter writer;
+    private ProductManagerAuditServiceImpl auditService;
+
+    private ProductManagerAuditServiceImpl service(AuditLogWriter.Durability durability) {
+        // Long flush interval: rows are only written when a caller waits for them
+        writer = new AuditLogWriter(auditDAO, durability, 64, 64, 10_000);
+        auditService = new ProductManagerAuditServiceImpl(auditDAO, writer, clock);
+        return auditService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private AuditLogRecord stored(String operationType, String productId, String details) {
+        return new AuditLogRecord(MANAGER, operationType, productId, today().atTime(8, 0), details);
+    }
+
+    @Test
+    void checkDailyOperationLimit_usesCountersSeededOnceFromStoredRows() throws Exception {
+        when(auditDAO.getOperationsOn(today())).thenReturn(List.of(
+            stored("UPDATE", "P1", "EDIT_P1"),
+            stored("DELETE", "P2", "DELETE_P2"),
+            stored("ADD", "P3", "ADD_P3")
+        ));
+        service(AuditLogWriter.Durability.SYNC);
+
+        assertDoesNotThrow(() -> auditService.checkDailyOperationLimit(MANAGER, 28));
+        assertThrows(ValidationException.class, () -> auditService.checkDailyOperationLimit(MANAGER, 29));
+        assertEquals(0, auditService.getOperationCount("otherManager", today()));
+
+        verify(auditDAO, times(1)).getOperationsOn(today());
+        verify(auditDAO, never()).getOperationCount(anyString(), any());
+    }
+
+    @Test
+    void logOperation_countsTowardsLimitsWithoutQuerying() throws Exception {
+        service(AuditLogWriter.Durability.SYNC);
+
+        auditService.logOperation(MANAGER, "PRICE_UPDATE", "P1", "Price 10 -> 12");
+        auditService.logOperation(MANAGER, "PRICE_UPDATE", "P1", "Price 12 -> 14");
+        auditService.logOperation(MANAGER, "UPDATE", "P2", "Edited");
+
+        assertEquals(2, auditService.getPriceUpdateCount(MANAGER, "P1", today()));
+        assertEquals(1, auditService.getOperationCount(MANAGER, today()));
+        assertThrows(ValidationException.class, () -> auditService.checkPriceUpdateLimit(MANAGER, "P1"));
+        assertEquals(Set.of("P1"), auditService.getProductsAtPriceUpdateLimit(MANAGER, List.of("P1", "P2")));
+
+        verify(auditDAO, times(3)).insertAuditRecords(anyList());
+        verify(auditDAO, never()).getPriceUpdateCount(anyString(), anyString(), any());
+    }
+
+    @Test
+    void countStoredOperations_countsRowsTheCallerStoredWithoutWritingThem() throws Exception {
+        service(AuditLogWriter.Durability.SYNC);
+
+        List<AuditLogRecord> records = auditService.prepareOperations(MANAGER, List.of(
+            new ProductAuditEntry("DELETE", null, "Deleted product P1"),
+            new ProductAuditEntry("DELETE", null, "Deleted product P2")));
+        assertEquals(0, auditService.getOperationCount(MANAGER, today()), "Prepared rows count only once stored");
+
+        auditService.countStoredOperations(records);
+
+        assertEquals(2, auditService.getOperationCount(MANAGER, today()));
+        verify(auditDAO, never()).insertAuditRecords(anyList());
+    }
+
+    @Test
+    void getDailyOperationCounts_matchesPriceUpdateKeysByExactProduct() throws Exception {
+        service(AuditLogWriter.Durability.SYNC);
+
+        auditService.recordOperation(MANAGER, "PRICE_UPDATE_P1_2025-03-10_10.00_TO_12.00");
+        auditService.recordOperation(MANAGER, "PRICE_UPDATE_P10_2025-03-10_10.00_TO_12.00");
+        auditService.recordOperation(MANAGER, "EDIT_P1_2025-03-10");
+
+        DailyOperationCounts counts = auditService.getDailyOperationCounts(MANAGER, today());
+
+        assertEquals(1, counts.priceUpdatesFor("P1"));
+        assertEquals(1, counts.priceUpdatesFor("P10"));
+        assertEquals(1, counts.edits());
+        assertEquals(3, counts.limitedOperations());
+    }
+
+    @Test
+    void syncDeletes_writesDeletesBeforeReturningAndQueuesOtherRows() throws Exception {
+        service(AuditLogWriter.Durability.SYNC_DELETES);
+
+        auditService.logOperation(MANAGER, "DELETE", "P1", "Deleted");
+        verify(auditDAO, times(1)).insertAuditRecords(anyList());
+
+        auditService.logOperation(MANAGER, "UPDATE", "P2", "Edited");
+        verify(auditDAO, times(1)).insertAuditRecords(anyList());
+
+        auditService.flush();
+        verify(auditDAO, times(2)).insertAuditRecords(anyList());
+    }
+
+    @Test
+    void async_flushWritesQueuedRowsInOneBatch() throws Exception {
+        service(AuditLogWriter.Durability.ASYNC);
+
+        for (int i = 0; i < 5; i++) {
+            auditService.logOperation(MANAGER, "DELETE", "P" + i, "Deleted");
+        }
+        auditService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditLogRecord>> batch = ArgumentCaptor.forClass(List.class);
+        verify(auditDAO, times(1)).insertAuditRecords(batch.capture());
+        assertEquals(5, batch.getValue().size());
+        assertEquals(5, auditService.getOperationCount(MANAGER, today()));
+    }
+
+    @Test
+    void newDay_reseedsCountersAndOtherDaysAreReadFromTheDatabase() throws Exception {
+        service(AuditLogWriter.Durability.SYNC);
+        LocalDate firstDay = today();
+        auditService.logOperation(MANAGER, "UPDATE", "P1", "Edited");
+        assertEquals(1, auditService.getOperationCount(MANAGER, firstDay));
+
+        clock.advanceDays(1);
+        when(auditDAO.getOperationCount(MANAGER, firstDay)).thenReturn(1);
+
+        assertEquals(0, auditService.getOperationCount(MANAGER, today()));
+        assertEquals(1, auditService.getOperationCount(MANAGER, firstDay));
+        verify(auditDAO).getOperationsOn(today());
+        verify(auditDAO).getOperationCount(MANAGER, firstDay);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advanceDays(int days) {
+            instant = instant.plusSeconds(days * 86_400L);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
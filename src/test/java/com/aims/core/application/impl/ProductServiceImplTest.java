@@ -1,12 +1,19 @@
 package com.aims.core.application.impl;
 
+import com.aims.core.application.services.IProductManagerAuditService;
+import com.aims.core.application.services.IProductService.BulkOperationResult;
 import com.aims.core.entities.Book;
 import com.aims.core.entities.CD;
 import com.aims.core.entities.DVD;
 import com.aims.core.entities.Product;
 import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.dto.AuditLogRecord;
+import com.aims.core.shared.dto.ProductStockSnapshot;
+import com.aims.core.shared.events.ProductChangeBus;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
+import com.aims.core.shared.utils.FacetedSearchResult;
+import com.aims.core.shared.utils.SearchFacets;
 import com.aims.core.shared.utils.SearchResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,14 +23,23 @@ import org.mockito.MockitoAnnotations;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ProductServiceImplTest {
@@ -31,6 +47,9 @@ class ProductServiceImplTest {
     @Mock
     private IProductDAO productDAO;
 
+    @Mock
+    private IProductManagerAuditService auditService;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -98,6 +117,29 @@ class ProductServiceImplTest {
         verify(productDAO, times(1)).addBookDetails(sampleBook);
     }
 
+    @Test
+    void addBook_publishesCreateOnlyOnceTheDetailRowsAreStored() throws SQLException, ValidationException {
+        ProductChangeBus bus = ProductChangeBus.getInstance();
+        String productId = sampleBook.getProductId();
+        doAnswer(invocation -> {
+            assertEquals(0, bus.getLastSequenceFor(productId), "Announced before the BOOK row was stored");
+            return null;
+        }).when(productDAO).addBookDetails(any(Book.class));
+        when(productDAO.getById(productId)).thenReturn(sampleBook);
+
+        productService.addBook(sampleBook);
+
+        assertTrue(bus.getLastSequenceFor(productId) > 0);
+    }
+
+    @Test
+    void addBook_detailInsertFails_publishesNothing() throws SQLException {
+        doThrow(new SQLException("BOOK insert failed")).when(productDAO).addBookDetails(any(Book.class));
+
+        assertThrows(SQLException.class, () -> productService.addBook(sampleBook));
+        assertEquals(0, ProductChangeBus.getInstance().getLastSequenceFor(sampleBook.getProductId()));
+    }
+
     @Test
     void addCD_success() throws SQLException, ValidationException {
         doNothing().when(productDAO).addCDDetails(any(CD.class));
@@ -178,14 +220,76 @@ class ProductServiceImplTest {
     @Test
     void deleteProducts_batchSuccess() throws SQLException, ValidationException {
         List<String> productIds = Arrays.asList(sampleBook.getProductId(), sampleCD.getProductId());
-        when(productDAO.getById(sampleBook.getProductId())).thenReturn(sampleBook);
-        when(productDAO.getById(sampleCD.getProductId())).thenReturn(sampleCD);
-        doNothing().when(productDAO).delete(anyString());
+        when(productDAO.getByIds(productIds)).thenReturn(Arrays.asList(sampleBook, sampleCD));
+        when(productDAO.findProductIdsInOrders(anyCollection())).thenReturn(Set.of());
+        List<AuditLogRecord> auditRecords = List.of(
+            new AuditLogRecord(managerId, "DELETE", null, LocalDateTime.now(), "Deleted product " + sampleBook.getProductId()),
+            new AuditLogRecord(managerId, "DELETE", null, LocalDateTime.now(), "Deleted product " + sampleCD.getProductId()));
+        when(auditService.prepareOperations(eq(managerId), anyList())).thenReturn(auditRecords);
+        when(productDAO.deleteByIds(eq(productIds), anyMap())).thenReturn(new java.util.LinkedHashSet<>(productIds));
 
         productService.deleteProducts(productIds, managerId);
 
-        verify(productDAO, times(1)).delete(sampleBook.getProductId());
-        verify(productDAO, times(1)).delete(sampleCD.getProductId());
+        // One set-based delete that also stores the audit rows, and one quota check, for the whole batch
+        verify(productDAO, times(1)).deleteByIds(productIds, Map.of(
+            sampleBook.getProductId(), auditRecords.get(0), sampleCD.getProductId(), auditRecords.get(1)));
+        verify(productDAO, never()).delete(anyString());
+        verify(auditService, times(1)).checkDailyOperationLimit(managerId, 2);
+        verify(auditService, never()).logOperations(anyString(), anyList());
+        verify(auditService, times(1)).countStoredOperations(auditRecords);
+    }
+
+    @Test
+    void bulkDeleteProducts_reportsMissingAndInUseProducts() throws SQLException, ValidationException {
+        List<String> productIds = Arrays.asList(sampleBook.getProductId(), sampleCD.getProductId(), "MISSING");
+        when(productDAO.getByIds(productIds)).thenReturn(Arrays.asList(sampleBook, sampleCD));
+        when(productDAO.findProductIdsInOrders(anyCollection())).thenReturn(Set.of(sampleCD.getProductId()));
+        AuditLogRecord auditRecord = new AuditLogRecord(managerId, "DELETE", null, LocalDateTime.now(), "Deleted product");
+        when(auditService.prepareOperations(eq(managerId), anyList())).thenReturn(List.of(auditRecord));
+        when(productDAO.deleteByIds(eq(List.of(sampleBook.getProductId())), anyMap())).thenReturn(Set.of(sampleBook.getProductId()));
+
+        BulkOperationResult result = productService.bulkDeleteProducts(productIds, managerId);
+
+        assertEquals(3, result.getTotalItems());
+        assertEquals(1, result.getSucceededCount());
+        assertEquals(BulkOperationResult.ItemStatus.SUCCESS, result.getItems().get(0).getStatus());
+        assertEquals(BulkOperationResult.ItemStatus.IN_USE, result.getItems().get(1).getStatus());
+        assertEquals(BulkOperationResult.ItemStatus.NOT_FOUND, result.getItems().get(2).getStatus());
+        verify(auditService).checkDailyOperationLimit(managerId, 1);
+        verify(auditService).countStoredOperations(List.of(auditRecord));
+    }
+
+    @Test
+    void bulkUpdatePrices_appliesValidPricesAndReportsOthers() throws SQLException, ValidationException {
+        Map<String, Float> newPrices = new LinkedHashMap<>();
+        newPrices.put(sampleBook.getProductId(), 100.0f); // within 30%-150% of 90
+        newPrices.put(sampleCD.getProductId(), 500.0f);   // above 150% of 40
+        when(productDAO.getByIds(anyCollection())).thenReturn(Arrays.asList(sampleBook, sampleCD));
+        when(auditService.getProductsAtPriceUpdateLimit(eq(managerId), anyCollection())).thenReturn(Set.of());
+        when(productDAO.updatePrices(Map.of(sampleBook.getProductId(), 100.0f))).thenReturn(Set.of(sampleBook.getProductId()));
+
+        BulkOperationResult result = productService.bulkUpdatePrices(newPrices, managerId);
+
+        assertEquals(1, result.getSucceededCount());
+        assertEquals(BulkOperationResult.ItemStatus.INVALID, result.getItems().get(1).getStatus());
+        verify(productDAO, times(1)).updatePrices(Map.of(sampleBook.getProductId(), 100.0f));
+        verify(auditService, never()).checkPriceUpdateLimit(anyString(), anyString());
+    }
+
+    @Test
+    void bulkAdjustStock_reportsInsufficientStock() throws SQLException, ValidationException {
+        Map<String, Integer> changes = new LinkedHashMap<>();
+        changes.put(sampleBook.getProductId(), 5);
+        changes.put(sampleCD.getProductId(), -20);
+        when(productDAO.adjustStock(changes)).thenReturn(Map.of(sampleBook.getProductId(), 15));
+        when(productDAO.getStockSnapshots(List.of(sampleCD.getProductId()))).thenReturn(Map.of(sampleCD.getProductId(),
+            new ProductStockSnapshot(sampleCD.getProductId(), sampleCD.getTitle(), 5, null, sampleCD.getPrice())));
+
+        BulkOperationResult result = productService.bulkAdjustStock(changes, managerId);
+
+        assertEquals(1, result.getSucceededCount());
+        assertEquals(BulkOperationResult.ItemStatus.INSUFFICIENT_STOCK, result.getItems().get(1).getStatus());
+        verify(productDAO, times(1)).adjustStock(changes);
     }
 
     @Test
@@ -254,7 +358,8 @@ class ProductServiceImplTest {
     @Test
     void getProductsForDisplay_success_appliesVAT() throws SQLException {
         List<Product> products = Arrays.asList(sampleBook, sampleCD);
-        when(productDAO.getAll()).thenReturn(products);
+        when(productDAO.countPage(null, null)).thenReturn(2);
+        when(productDAO.findPage(null, null, null, 1, 10)).thenReturn(products);
 
         SearchResult<Product> result = productService.getProductsForDisplay(1, 10);
 
@@ -264,6 +369,20 @@ class ProductServiceImplTest {
         // Check VAT application (10%)
         assertEquals(100.0f * 1.1f, result.results().get(0).getPrice(), 0.01f);
         assertEquals(50.0f * 1.1f, result.results().get(1).getPrice(), 0.01f);
+        // Paging is done by the database, the catalogue is never loaded as a whole
+        verify(productDAO, never()).getAll();
+    }
+
+    @Test
+    void getProductsForDisplay_pageBeyondEnd_skipsPageQueryButKeepsTotals() throws SQLException {
+        when(productDAO.countPage(null, null)).thenReturn(15);
+
+        SearchResult<Product> result = productService.getProductsForDisplay(3, 10);
+
+        assertTrue(result.results().isEmpty());
+        assertEquals(15, result.totalResults());
+        assertEquals(2, result.totalPages());
+        verify(productDAO, never()).findPage(any(), any(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -280,7 +399,9 @@ class ProductServiceImplTest {
         ((Book)booksInCategory.get(1)).setValueAmount(100f);
 
 
-        when(productDAO.findByCategory("Book")).thenReturn(booksInCategory);
+        // Filtering and price ordering happen in the database
+        when(productDAO.countPage("Alpha", "Book")).thenReturn(2);
+        when(productDAO.findPage("Alpha", "Book", "ASC", 1, 10)).thenReturn(booksInCategory);
 
         // Search for "Alpha" in "Book" category, sort by price ASC
         SearchResult<Product> result = productService.searchProducts("Alpha", "Book", 1, 10, "ASC");
@@ -307,4 +428,34 @@ class ProductServiceImplTest {
         assertEquals(sampleDVD.getProductId(), product.getProductId());
         assertEquals(75.0f * 1.1f, product.getPrice(), 0.01f); // Check VAT
     }
+
+    @Test
+    void searchProductsWithFacets_derivesTotalAndFacetsFromOneAggregateQuery() throws SQLException {
+        when(productDAO.searchProductsByType("test", com.aims.core.enums.ProductType.BOOK, "title", "ASC", 1, 10))
+            .thenReturn(List.of(sampleBook));
+        when(productDAO.getSearchFacetCounts(eq("test"), anyDouble(), any(double[].class))).thenReturn(List.of(
+            new IProductDAO.FacetCount("Novels", com.aims.core.enums.ProductType.BOOK, 0, true, true, 3),
+            new IProductDAO.FacetCount("Poetry", com.aims.core.enums.ProductType.BOOK, 2, true, true, 1),
+            new IProductDAO.FacetCount("Poetry", com.aims.core.enums.ProductType.BOOK, 2, false, true, 2),
+            // Matches only through its category name, so the type search does not list it
+            new IProductDAO.FacetCount("Test Books", com.aims.core.enums.ProductType.BOOK, 0, true, false, 5),
+            new IProductDAO.FacetCount("Music", com.aims.core.enums.ProductType.CD, 1, true, true, 4)));
+
+        FacetedSearchResult<Product> result = productService.searchProductsWithFacets(
+            "test", "Music", "Books", "title", "ASC", 1, 10);
+
+        assertEquals(4, result.page().totalResults());
+        assertEquals(100.0f * 1.1f, result.page().results().get(0).getPrice(), 0.01f);
+        SearchFacets facets = result.facets();
+        assertEquals(Map.of("Novels", 3L, "Poetry", 1L), facets.categories());
+        assertEquals(4L, facets.productTypes().get("Books"));
+        assertEquals(4L, facets.productTypes().get("CDs"));
+        assertEquals(0L, facets.productTypes().get("DVDs"));
+        assertEquals(3, facets.priceRanges().get(0).count());
+        assertEquals(1, facets.priceRanges().get(2).count());
+        assertNull(facets.priceRanges().get(facets.priceRanges().size() - 1).max());
+        assertEquals(4, facets.inStock());
+        assertEquals(2, facets.outOfStock());
+        verify(productDAO, never()).getSearchResultsCountByType(any(), any());
+    }
 }
@@ -0,0 +1,111 @@
+package com.aims.core.application.impl;
+
+import com.aims.core.infrastructure.database.dao.IReportingDAO;
+import com.aims.core.shared.exceptions.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportingServiceImplTest {
+
+    @Mock
+    private IReportingDAO reportingDAO;
+
+    private ReportingServiceImpl reportingService;
+
+    @BeforeEach
+    void setUp() {
+        reportingService = new ReportingServiceImpl(reportingDAO, 31);
+    }
+
+    @Test
+    void backfill_RebuildsRangeInChunks() throws Exception {
+        when(reportingDAO.rebuildRollups(any(), any())).thenReturn(10);
+
+        int orders = reportingService.backfill(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 5));
+
+        assertEquals(30, orders);
+        InOrder inOrder = inOrder(reportingDAO);
+        inOrder.verify(reportingDAO).getFirstRebuildableDay();
+        inOrder.verify(reportingDAO).rebuildRollups(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        inOrder.verify(reportingDAO).rebuildRollups(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 2));
+        inOrder.verify(reportingDAO).rebuildRollups(LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 5));
+        verifyNoMoreInteractions(reportingDAO);
+    }
+
+    @Test
+    void backfill_WithoutStart_BeginsAtFirstOrder() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(reportingDAO.getFirstOrderDay()).thenReturn(today.minusDays(3));
+        when(reportingDAO.rebuildRollups(today.minusDays(3), today)).thenReturn(7);
+
+        assertEquals(7, reportingService.backfill(null, null));
+    }
+
+    @Test
+    void backfill_NoOrders_DoesNothing() throws Exception {
+        when(reportingDAO.getFirstOrderDay()).thenReturn(null);
+
+        assertEquals(0, reportingService.backfill(null, null));
+        verify(reportingDAO, never()).rebuildRollups(any(), any());
+    }
+
+    @Test
+    void backfill_WithoutStart_BeginsAfterTheArchivedYears() throws Exception {
+        when(reportingDAO.getFirstOrderDay()).thenReturn(LocalDate.of(2023, 5, 1));
+        when(reportingDAO.getFirstRebuildableDay()).thenReturn(LocalDate.of(2024, 1, 1));
+        when(reportingDAO.rebuildRollups(any(), any())).thenReturn(4);
+
+        assertEquals(4, reportingService.backfill(null, LocalDate.of(2024, 1, 20)));
+        verify(reportingDAO).rebuildRollups(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 20));
+    }
+
+    @Test
+    void backfill_RangeIntoArchivedYear_ThrowsValidationException() throws Exception {
+        when(reportingDAO.getFirstRebuildableDay()).thenReturn(LocalDate.of(2024, 1, 1));
+
+        assertThrows(ValidationException.class,
+            () -> reportingService.backfill(LocalDate.of(2023, 12, 1), LocalDate.of(2024, 1, 31)));
+        verify(reportingDAO, never()).rebuildRollups(any(), any());
+    }
+
+    @Test
+    void backfill_StartAfterEnd_ThrowsValidationException() {
+        assertThrows(ValidationException.class,
+            () -> reportingService.backfill(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void reports_InvalidRangeOrLimit_ThrowValidationException() throws SQLException {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+
+        assertThrows(ValidationException.class, () -> reportingService.getDailyRevenue(day.plusDays(1), day));
+        assertThrows(ValidationException.class, () -> reportingService.getCategorySales(null, day));
+        assertThrows(ValidationException.class, () -> reportingService.getStatusCounts(day, day.plusYears(20)));
+        assertThrows(ValidationException.class, () -> reportingService.getTopProducts(day, day, 0));
+        assertThrows(ValidationException.class,
+            () -> reportingService.getTopProducts(day, day, ReportingServiceImpl.MAX_TOP_PRODUCTS + 1));
+        verifyNoInteractions(reportingDAO);
+    }
+
+    @Test
+    void getTopProducts_DelegatesToRollups() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+
+        reportingService.getTopProducts(from, to, 5);
+
+        verify(reportingDAO).getTopProducts(from, to, 5);
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -135,6 +136,21 @@ class StockReservationServiceImplTest {
         verify(productDAO).getById("PROD001");
     }
     
+    @Test
+    void getReservedQuantities_SumsActiveReservationsPerProduct() throws SQLException, ResourceNotFoundException, ValidationException {
+        // Arrange
+        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
+        assertTrue(stockReservationService.reserveStock("PROD001", 8, "RES001", 15));
+        assertTrue(stockReservationService.reserveStock("PROD001", 4, "RES002", 15));
+        
+        // Act
+        Map<String, Integer> reserved = stockReservationService.getReservedQuantities(Arrays.asList("PROD001", "PROD002"));
+        
+        // Assert
+        assertEquals(12, reserved.get("PROD001"));
+        assertEquals(0, reserved.get("PROD002"));
+    }
+    
     @Test
     void reserveStock_NullProductId_ThrowsValidationException() {
         // Act & Assert
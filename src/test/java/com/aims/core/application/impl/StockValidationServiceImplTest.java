@@ -8,6 +8,7 @@ import com.aims.core.entities.CartItem;
 import com.aims.core.entities.OrderItem;
 import com.aims.core.entities.Product;
 import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.shared.dto.ProductStockSnapshot;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +22,7 @@ import java.sql.SQLException;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -79,6 +81,15 @@ class StockValidationServiceImplTest {
         testCart.setItems(Arrays.asList(testCartItem1, testCartItem2));
     }
     
+    private void stubStockSnapshots(Product... products) throws SQLException {
+        Map<String, ProductStockSnapshot> snapshots = new HashMap<>();
+        for (Product product : products) {
+            snapshots.put(product.getProductId(), new ProductStockSnapshot(
+                product.getProductId(), product.getTitle(), product.getQuantityInStock(), null, product.getPrice()));
+        }
+        when(productDAO.getStockSnapshots(anyCollection())).thenReturn(snapshots);
+    }
+    
     @Test
     void validateProductStock_ValidRequest_ReturnsValidResult() throws SQLException, ResourceNotFoundException {
         // Arrange
@@ -175,10 +186,9 @@ class StockValidationServiceImplTest {
     @Test
     void validateBulkStock_AllItemsValid_ReturnsValidResult() throws SQLException, ResourceNotFoundException {
         // Arrange
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("PROD002")).thenReturn(testProduct2);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15);
-        when(stockReservationService.getAvailableStock("PROD002")).thenReturn(5);
+        stubStockSnapshots(testProduct1, testProduct2);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "PROD002", 0));
         
         List<CartItem> items = Arrays.asList(testCartItem1, testCartItem2);
         
@@ -193,15 +203,16 @@ class StockValidationServiceImplTest {
         assertTrue(result.getFailedValidations().isEmpty());
         assertFalse(result.hasFailures());
         assertEquals("All items passed stock validation", result.getOverallMessage());
+        verify(productDAO, times(1)).getStockSnapshots(anyCollection());
+        verify(productDAO, never()).getById(anyString());
     }
     
     @Test
     void validateBulkStock_SomeItemsInvalid_ReturnsPartiallyValidResult() throws SQLException, ResourceNotFoundException {
         // Arrange
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("PROD002")).thenReturn(testProduct2);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15); // Valid: 3 requested, 15 available
-        when(stockReservationService.getAvailableStock("PROD002")).thenReturn(1);  // Invalid: 2 requested, 1 available
+        stubStockSnapshots(testProduct1, testProduct2);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "PROD002", 4)); // PROD001: 15 available for 3, PROD002: 1 available for 2
         
         List<CartItem> items = Arrays.asList(testCartItem1, testCartItem2);
         
@@ -257,10 +268,9 @@ class StockValidationServiceImplTest {
     @Test
     void validateCartStock_ValidCart_ReturnsValidResult() throws SQLException, ValidationException, ResourceNotFoundException {
         // Arrange
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("PROD002")).thenReturn(testProduct2);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15);
-        when(stockReservationService.getAvailableStock("PROD002")).thenReturn(5);
+        stubStockSnapshots(testProduct1, testProduct2);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "PROD002", 0));
         
         // Act
         CartStockValidationResult result = stockValidationService.validateCartStock(testCart);
@@ -277,10 +287,9 @@ class StockValidationServiceImplTest {
     @Test
     void validateCartStock_InvalidCart_ReturnsInvalidResult() throws SQLException, ValidationException, ResourceNotFoundException {
         // Arrange
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("PROD002")).thenReturn(testProduct2);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15);
-        when(stockReservationService.getAvailableStock("PROD002")).thenReturn(1); // Insufficient for 2 requested
+        stubStockSnapshots(testProduct1, testProduct2);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "PROD002", 4)); // PROD002: 1 available, insufficient for 2 requested
         
         // Act
         CartStockValidationResult result = stockValidationService.validateCartStock(testCart);
@@ -316,10 +325,9 @@ class StockValidationServiceImplTest {
         
         List<OrderItem> orderItems = Arrays.asList(orderItem1, orderItem2);
         
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("PROD002")).thenReturn(testProduct2);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15);
-        when(stockReservationService.getAvailableStock("PROD002")).thenReturn(5);
+        stubStockSnapshots(testProduct1, testProduct2);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "PROD002", 0));
         
         // Act
         BulkStockValidationResult result = stockValidationService.validateOrderItemsStock(orderItems);
@@ -387,10 +395,9 @@ class StockValidationServiceImplTest {
     void getBulkStockInfo_ValidProductIds_ReturnsStockInfoMap() throws SQLException, ResourceNotFoundException {
         // Arrange
         List<String> productIds = Arrays.asList("PROD001", "PROD002");
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("PROD002")).thenReturn(testProduct2);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15);
-        when(stockReservationService.getAvailableStock("PROD002")).thenReturn(3);
+        stubStockSnapshots(testProduct1, testProduct2);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "PROD002", 2));
         
         // Act
         Map<String, StockInfo> stockInfoMap = stockValidationService.getBulkStockInfo(productIds);
@@ -413,9 +420,9 @@ class StockValidationServiceImplTest {
     void getBulkStockInfo_ProductNotFound_ReturnsEmptyStockInfo() throws SQLException, ResourceNotFoundException {
         // Arrange
         List<String> productIds = Arrays.asList("PROD001", "INVALID_PROD");
-        when(productDAO.getById("PROD001")).thenReturn(testProduct1);
-        when(productDAO.getById("INVALID_PROD")).thenReturn(null);
-        when(stockReservationService.getAvailableStock("PROD001")).thenReturn(15);
+        stubStockSnapshots(testProduct1);
+        when(stockReservationService.getReservedQuantities(anyCollection()))
+            .thenReturn(Map.of("PROD001", 5, "INVALID_PROD", 0));
         
         // Act
         Map<String, StockInfo> stockInfoMap = stockValidationService.getBulkStockInfo(productIds);
@@ -13,6 +13,7 @@ import com.aims.core.shared.exceptions.AuthorizationException;
 import com.aims.core.shared.exceptions.ResourceNotFoundException;
 import com.aims.core.shared.exceptions.ValidationException;
 import com.aims.core.shared.utils.PasswordUtils;
+import com.aims.core.shared.utils.SearchResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -22,11 +23,13 @@ import org.mockito.MockitoAnnotations;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -357,4 +360,48 @@ class UserAccountServiceImplTest {
                 userAccountService.login("testuser", "password123")
         );
     }
+
+    private void givenAdmin() throws SQLException {
+        Role adminRole = new Role();
+        adminRole.setRoleId(UserRole.ADMIN.name());
+        adminRole.setRoleName("Admin");
+        when(userRoleAssignmentDAO.getRolesByUserId(adminId)).thenReturn(new HashSet<>(Set.of(adminRole)));
+    }
+
+    @Test
+    void searchUsers_returnsPageWithTotals() throws SQLException, AuthorizationException {
+        givenAdmin();
+        when(userAccountDAO.countUsers("test", UserStatus.ACTIVE, null)).thenReturn(45);
+        when(userAccountDAO.searchUsers("test", UserStatus.ACTIVE, null, "username", "ASC", 2, 20))
+                .thenReturn(List.of(sampleUser));
+
+        SearchResult<UserAccount> result = userAccountService.searchUsers(adminId, "test", UserStatus.ACTIVE, null, "username", "ASC", 2, 20);
+
+        assertEquals(1, result.results().size());
+        assertEquals(2, result.currentPage());
+        assertEquals(3, result.totalPages());
+        assertEquals(45, result.totalResults());
+    }
+
+    @Test
+    void searchUsers_pageBeyondEnd_skipsPageQuery() throws SQLException, AuthorizationException {
+        givenAdmin();
+        when(userAccountDAO.countUsers(null, null, null)).thenReturn(5);
+
+        SearchResult<UserAccount> result = userAccountService.searchUsers(adminId, null, null, null, "username", "ASC", 3, 20);
+
+        assertTrue(result.results().isEmpty());
+        assertEquals(5, result.totalResults());
+        verify(userAccountDAO, never()).searchUsers(any(), any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchUsers_callerNotAdmin_throwsAuthorizationException() throws SQLException {
+        when(userRoleAssignmentDAO.getRolesByUserId(adminId)).thenReturn(new HashSet<>(Set.of(sampleRole)));
+
+        assertThrows(AuthorizationException.class, () ->
+                userAccountService.searchUsers(adminId, null, null, null, "username", "ASC", 1, 20)
+        );
+        verify(userAccountDAO, never()).countUsers(any(), any(), any());
+    }
 }
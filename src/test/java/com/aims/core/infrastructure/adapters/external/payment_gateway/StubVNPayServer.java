@@ -0,0 +1,143 @@
+package com.aims.core.infrastructure.adapters.external.payment_gateway;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the VNPay merchant API, for adapter tests and benchmarks.
+ *
+ * Answers every POST with a flat JSON object that echoes the request's
+ * {@code vnp_RequestId}, {@code vnp_TxnRef} and {@code vnp_OrderInfo}, using the
+ * configured response code, a per-reference transaction status (default 00,
+ * paid) and an optional artificial latency. Request bodies
+ * are kept as received (decoded as UTF-8) so tests can check what went over the
+ * wire, and client ports are recorded to count connections.
+ */
+public class StubVNPayServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Gson gson = new Gson();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> transactionStatuses = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+    private volatile String responseCode = "00";
+    private volatile long latencyMillis;
+
+    public StubVNPayServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(64);
+        server.setExecutor(executor);
+        server.createContext("/merchant_webapi/api/transaction", this::handle);
+        server.start();
+    }
+
+    public String getApiUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/merchant_webapi/api/transaction";
+    }
+
+    public void setResponseCode(String responseCode) {
+        this.responseCode = responseCode;
+    }
+
+    /**
+     * Sets the {@code vnp_TransactionStatus} reported for a transaction reference
+     * (00 paid, 01 not completed, 02 failed).
+     */
+    public void setTransactionStatus(String txnRef, String transactionStatus) {
+        transactionStatuses.put(txnRef, transactionStatus);
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public List<String> getRequestBodies() {
+        return requestBodies;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Highest number of requests handled at the same time.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxActiveRequests.get();
+    }
+
+    /**
+     * Number of distinct client connections seen so far (by remote port).
+     */
+    public int getConnectionCount() {
+        return clientPorts.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requestBodies.add(body);
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            requestCount.incrementAndGet();
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            Map<String, String> request = gson.fromJson(body, new TypeToken<Map<String, String>>(){}.getType());
+            Map<String, Object> response = new HashMap<>();
+            response.put("vnp_ResponseId", "STUB_" + requestCount.get());
+            response.put("vnp_ResponseCode", responseCode);
+            response.put("vnp_Message", "00".equals(responseCode) ? "Thành công" : "Giao dịch thất bại");
+            response.put("vnp_TmnCode", request.get("vnp_TmnCode"));
+            response.put("vnp_RequestId", request.get("vnp_RequestId"));
+            response.put("vnp_TxnRef", request.get("vnp_TxnRef"));
+            response.put("vnp_OrderInfo", request.get("vnp_OrderInfo"));
+            response.put("vnp_Amount", 10_000_000L);
+            response.put("vnp_TransactionStatus", transactionStatuses.getOrDefault(request.get("vnp_TxnRef"), "00"));
+
+            byte[] bytes = gson.toJson(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
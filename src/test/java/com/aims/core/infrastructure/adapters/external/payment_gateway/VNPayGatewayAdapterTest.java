@@ -0,0 +1,142 @@
+package com.aims.core.infrastructure.adapters.external.payment_gateway;
+
+import com.aims.core.shared.exceptions.PaymentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VNPayGatewayAdapterTest {
+
+    private StubVNPayServer stub;
+    private VNPayHttpClient httpClient;
+    private VNPayGatewayAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubVNPayServer();
+        httpClient = new VNPayHttpClient(Duration.ofSeconds(2), Duration.ofSeconds(2));
+        adapter = new VNPayGatewayAdapter(httpClient, stub.getApiUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.shutdown();
+        stub.close();
+    }
+
+    private Map<String, Object> refundParams(String orderInfo) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("vnp_RequestId", "REFUND_O1_1");
+        params.put("vnp_Command", "refund");
+        params.put("vnp_TxnRef", "O1");
+        params.put("vnp_Amount", 10_000_000L);
+        params.put("vnp_OrderInfo", orderInfo);
+        params.put("vnp_TransactionNo", null);
+        return params;
+    }
+
+    @Test
+    void processRefund_Success_ReturnsResponseWithGatewayType() throws PaymentException {
+        Map<String, String> response = adapter.processRefund(refundParams("Hoan tien don hang O1"));
+
+        assertEquals("00", response.get("vnp_ResponseCode"));
+        assertEquals("O1", response.get("vnp_TxnRef"));
+        assertEquals("10000000", response.get("vnp_Amount"), "Numbers are read as strings");
+        assertEquals("VNPAY", response.get("gateway_type"));
+        assertFalse(stub.getRequestBodies().get(0).contains("vnp_TransactionNo"), "Null parameters are not sent");
+    }
+
+    @Test
+    void processRefund_NonAsciiText_SentAndReadAsUtf8() throws PaymentException {
+        String orderInfo = "Hoàn tiền đơn hàng O1. Lý do: khách đổi ý";
+
+        Map<String, String> response = adapter.processRefund(refundParams(orderInfo));
+
+        assertTrue(stub.getRequestBodies().get(0).contains(orderInfo), stub.getRequestBodies().get(0));
+        assertEquals(orderInfo, response.get("vnp_OrderInfo"));
+        assertEquals("Thành công", response.get("vnp_Message"));
+    }
+
+    @Test
+    void processRefund_ErrorCode_ThrowsPaymentException() {
+        stub.setResponseCode("94");
+
+        PaymentException e = assertThrows(PaymentException.class, () -> adapter.processRefund(refundParams("refund")));
+
+        assertTrue(e.getMessage().contains("Code: 94"), e.getMessage());
+        assertTrue(e.getMessage().contains("TxnRef: O1"), e.getMessage());
+    }
+
+    @Test
+    void queryTransactionStatusAsync_Success_CompletesWithResponse() throws Exception {
+        CompletableFuture<Map<String, String>> call =
+            adapter.queryTransactionStatusAsync("O1_123", "O1", LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        Map<String, String> response = call.get(5, TimeUnit.SECONDS);
+
+        assertEquals("O1_123", response.get("vnp_TxnRef"));
+        assertEquals("00", response.get("vnp_TransactionStatus"));
+        assertEquals("VNPAY", response.get("gateway_type"));
+        assertTrue(stub.getRequestBodies().get(0).contains("\"vnp_Command\":\"querydr\""));
+    }
+
+    @Test
+    void queryTransactionStatusAsync_ErrorCode_CompletesExceptionallyWithPaymentException() {
+        stub.setResponseCode("91");
+
+        CompletableFuture<Map<String, String>> call =
+            adapter.queryTransactionStatusAsync("O1_123", "O1", LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PaymentException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("Code: 91"), e.getCause().getMessage());
+    }
+
+    @Test
+    void queryTransactionStatus_SlowServer_TimesOutWithPaymentException() {
+        stub.setLatencyMillis(3_000);
+        VNPayHttpClient impatient = new VNPayHttpClient(Duration.ofSeconds(2), Duration.ofMillis(200));
+        try {
+            VNPayGatewayAdapter slowAdapter = new VNPayGatewayAdapter(impatient, stub.getApiUrl());
+
+            PaymentException e = assertThrows(PaymentException.class,
+                () -> slowAdapter.queryTransactionStatus("O1_123", "O1", LocalDateTime.now()));
+
+            assertTrue(e.getMessage().contains("IOException"), e.getMessage());
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    void processRefund_NothingListening_ThrowsPaymentException() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        VNPayGatewayAdapter unreachable = new VNPayGatewayAdapter(httpClient, "http://127.0.0.1:" + port + "/api");
+
+        assertThrows(PaymentException.class, () -> unreachable.processRefund(refundParams("refund")));
+    }
+
+    @Test
+    void sequentialCalls_ReuseOneConnection() throws PaymentException {
+        for (int i = 0; i < 20; i++) {
+            adapter.queryTransactionStatus("O1_" + i, "O1", LocalDateTime.now());
+        }
+
+        assertEquals(20, stub.getRequestCount());
+        assertEquals(1, stub.getConnectionCount(), "Keep-alive connection is reused");
+    }
+}
@@ -0,0 +1,149 @@
+package com.aims.core.infrastructure.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+
+    private Connection physical;
+    private StatementCache cache;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        physical = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = physical.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE ITEM (id INTEGER PRIMARY KEY, name TEXT)");
+            stmt.executeUpdate("INSERT INTO ITEM (id, name) VALUES (1, 'one'), (2, 'two'), (3, 'three')");
+        }
+        cache = new StatementCache(physical, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        cache.close();
+    }
+
+    private String nameOf(Connection conn, int id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT name FROM ITEM WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    @Test
+    void prepareStatement_SameSql_ReusesTheStatement() throws SQLException {
+        Connection conn = cache.getConnection();
+
+        assertEquals("one", nameOf(conn, 1));
+        assertEquals("two", nameOf(conn, 2));
+        assertEquals("three", nameOf(conn, 3));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void closingTheConnectionView_KeepsThePhysicalConnectionOpen() throws SQLException {
+        try (Connection conn = cache.getConnection()) {
+            assertEquals("one", nameOf(conn, 1));
+        }
+
+        assertFalse(physical.isClosed());
+        assertEquals("two", nameOf(cache.getConnection(), 2));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void statementInUse_IsNotHandedOutTwice() throws SQLException {
+        Connection conn = cache.getConnection();
+        try (PreparedStatement outer = conn.prepareStatement("SELECT name FROM ITEM WHERE id = ?")) {
+            outer.setInt(1, 1);
+            try (ResultSet rs = outer.executeQuery()) {
+                assertTrue(rs.next());
+                // Same SQL while the first statement is still open
+                assertEquals("two", nameOf(conn, 2));
+                assertEquals("one", rs.getString(1));
+            }
+        }
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void closedStatement_RejectsFurtherUse() throws SQLException {
+        PreparedStatement ps = cache.getConnection().prepareStatement("SELECT name FROM ITEM WHERE id = ?");
+        ps.close();
+
+        assertTrue(ps.isClosed());
+        assertThrows(SQLException.class, () -> ps.setInt(1, 1));
+    }
+
+    @Test
+    void overCapacity_EvictsLeastRecentlyUsed() throws SQLException {
+        Connection conn = cache.getConnection();
+        conn.prepareStatement("SELECT 1").close();
+        conn.prepareStatement("SELECT 2").close();
+        conn.prepareStatement("SELECT 1").close(); // SELECT 2 is now the least recently used
+        conn.prepareStatement("SELECT 3").close();
+
+        assertEquals(2, cache.size());
+        conn.prepareStatement("SELECT 1").close();
+        assertEquals(2, cache.getHitCount(), "SELECT 1 stayed cached");
+        conn.prepareStatement("SELECT 2").close();
+        assertEquals(2, cache.getHitCount(), "SELECT 2 was evicted");
+    }
+
+    @Test
+    void zeroCapacity_PreparesEveryTime() throws SQLException {
+        StatementCache uncached = new StatementCache(physical, 0);
+
+        assertEquals("one", nameOf(uncached.getConnection(), 1));
+        assertEquals("one", nameOf(uncached.getConnection(), 1));
+
+        assertEquals(0, uncached.getHitCount());
+        assertEquals(2, uncached.getMissCount());
+        assertEquals(0, uncached.size());
+    }
+
+    @Test
+    void runAfterCommit_InAutoCommitMode_RunsAtOnce() throws SQLException {
+        List<String> ran = new ArrayList<>();
+        cache.runAfterCommit(() -> ran.add("now"));
+
+        assertEquals(List.of("now"), ran);
+    }
+
+    @Test
+    void runAfterCommit_InTransaction_RunsOnCommitOnly() throws SQLException {
+        Connection conn = cache.getConnection();
+        List<String> ran = new ArrayList<>();
+
+        conn.setAutoCommit(false);
+        cache.runAfterCommit(() -> ran.add("rolled back"));
+        conn.rollback();
+        cache.runAfterCommit(() -> ran.add("committed"));
+        assertTrue(ran.isEmpty());
+        conn.commit();
+        assertEquals(List.of("committed"), ran);
+
+        // Turning auto-commit back on commits too
+        cache.runAfterCommit(() -> ran.add("auto-commit"));
+        conn.setAutoCommit(true);
+        assertEquals(List.of("committed", "auto-commit"), ran);
+    }
+}
@@ -283,4 +283,42 @@ public class CartDAOImplTest {
         cartDAO.clearCart(sessionId);
         verify(mockCartItemDAO).deleteByCartSessionId(sessionId);
     }
+
+    @Test
+    void testSaveCarts_UpsertsCartsAndReplacesItems() throws SQLException {
+        Product book = setupTestProduct("P_SaveCarts1", "Batch Book");
+        Product other = setupTestProduct("P_SaveCarts2", "Batch Other");
+        Cart existing = new Cart("saveCartsExisting", null, LocalDateTime.now());
+        cartDAO.saveOrUpdate(existing);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO CART_ITEM (cartSessionID, productID, quantity) VALUES ('saveCartsExisting', 'P_SaveCarts1', 7)");
+        }
+
+        existing.getItems().add(new CartItem(existing, other, 2));
+        Cart created = new Cart("saveCartsNew", null, LocalDateTime.now());
+        created.getItems().add(new CartItem(created, book, 1));
+        created.getItems().add(new CartItem(created, other, 3));
+
+        cartDAO.saveCarts(java.util.List.of(existing, created));
+
+        try (Statement stmt = connection.createStatement();
+             java.sql.ResultSet rs = stmt.executeQuery(
+                 "SELECT cartSessionID, productID, quantity FROM CART_ITEM ORDER BY cartSessionID, productID")) {
+            assertTrue(rs.next());
+            assertEquals("saveCartsExisting", rs.getString(1));
+            assertEquals("P_SaveCarts2", rs.getString(2), "Items stored before the save are replaced");
+            assertEquals(2, rs.getInt(3));
+            assertTrue(rs.next());
+            assertEquals("saveCartsNew", rs.getString(1));
+            assertEquals("P_SaveCarts1", rs.getString(2));
+            assertTrue(rs.next());
+            assertEquals("P_SaveCarts2", rs.getString(2));
+            assertEquals(3, rs.getInt(3));
+            assertFalse(rs.next());
+        }
+        try (Statement stmt = connection.createStatement();
+             java.sql.ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM CART")) {
+            assertEquals(2, rs.getInt(1), "The new cart row is inserted, the existing one updated");
+        }
+    }
 }
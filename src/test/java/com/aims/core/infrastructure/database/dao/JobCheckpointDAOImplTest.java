@@ -0,0 +1,71 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobCheckpointDAOImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private IJobCheckpointDAO checkpointDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_checkpoint_test.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        SQLiteConnector.getInstance().setConnection(connection);
+        checkpointDAO = new JobCheckpointDAOImpl();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void getPosition_UnknownJob_ReturnsNullAndCreatesTable() throws SQLException {
+        assertNull(checkpointDAO.getPosition("job"));
+    }
+
+    @Test
+    void savePosition_ReplacesPreviousPositionPerJob() throws SQLException {
+        checkpointDAO.savePosition("job", "TX1");
+        checkpointDAO.savePosition("job", "TX9");
+        checkpointDAO.savePosition("other", "A");
+
+        assertEquals("TX9", checkpointDAO.getPosition("job"));
+        assertEquals("A", checkpointDAO.getPosition("other"));
+    }
+
+    @Test
+    void savePosition_Null_StartsOver() throws SQLException {
+        checkpointDAO.savePosition("job", "TX1");
+        checkpointDAO.savePosition("job", null);
+
+        assertNull(checkpointDAO.getPosition("job"));
+    }
+
+    @Test
+    void savePosition_SurvivesNewDaoInstance() throws SQLException {
+        checkpointDAO.savePosition("job", "TX5");
+
+        assertEquals("TX5", new JobCheckpointDAOImpl().getPosition("job"));
+    }
+}
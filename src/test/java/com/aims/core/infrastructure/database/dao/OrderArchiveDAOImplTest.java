@@ -0,0 +1,217 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.entities.OrderItem;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderArchiveDAOImplTest {
+
+    private static final String SCRIPTS = "src/main/java/com/aims/core/infrastructure/database/scripts/";
+    private static final Set<OrderStatus> FINISHED = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.REJECTED);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] TABLES = { "ORDER_ENTITY", "ORDER_ITEM", "DELIVERY_INFO", "INVOICE", "PAYMENT_TRANSACTION" };
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private IOrderArchiveDAO archiveDAO;
+    private IOrderEntityDAO orderEntityDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_archive_test.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("PRAGMA foreign_keys = ON;");
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V1__create_tables.sql")));
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V2__add_gateway_response_data.sql")));
+            stmt.executeUpdate("INSERT INTO PRODUCT (productID, title, category, value_amount, price, quantityInStock, productType) " +
+                               "VALUES ('P1', 'Book', 'Books', 10, 12, 10, 'BOOK')");
+            stmt.executeUpdate("INSERT INTO USER_ACCOUNT (userID, username, password_hash, email, user_status) " +
+                               "VALUES ('U1', 'customer', 'x', 'customer@example.com', 'ACTIVE')");
+            stmt.executeUpdate("INSERT INTO PAYMENT_METHOD (paymentMethodID, methodType, isDefault) VALUES ('PM1', 'CREDIT_CARD', 0)");
+        }
+        SQLiteConnector.getInstance().setConnection(connection);
+
+        IProductDAO productDAO = mock(IProductDAO.class);
+        when(productDAO.getById(anyString())).thenAnswer(invocation -> {
+            Product product = new Product();
+            product.setProductId(invocation.getArgument(0));
+            return product;
+        });
+        archiveDAO = new OrderArchiveDAOImpl();
+        orderEntityDAO = new OrderEntityDAOImpl(new OrderItemDAOImpl(productDAO), mock(IUserAccountDAO.class));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Inserts an order with an item, delivery info, invoice and payment.
+     */
+    private void insertOrder(String orderId, String orderDate, OrderStatus status) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO ORDER_ENTITY (orderID, userID, orderDate, order_status, totalAmountPaid) " +
+                               "VALUES ('" + orderId + "', 'U1', '" + orderDate + "', '" + status.name() + "', 24)");
+            stmt.executeUpdate("INSERT INTO ORDER_ITEM (orderID, productID, quantity, priceAtTimeOfOrder) " +
+                               "VALUES ('" + orderId + "', 'P1', 2, 12)");
+            stmt.executeUpdate("INSERT INTO DELIVERY_INFO (deliveryInfoID, orderID, recipientName, phoneNumber, " +
+                               "deliveryProvinceCity, deliveryAddress) VALUES ('D-" + orderId + "', '" + orderId + "', " +
+                               "'Customer', '0900000000', 'Hanoi', '1 Le Loi')");
+            stmt.executeUpdate("INSERT INTO INVOICE (invoiceID, orderID, invoiceDate, invoicedTotalAmount) " +
+                               "VALUES ('I-" + orderId + "', '" + orderId + "', '" + orderDate + "', 24)");
+            stmt.executeUpdate("INSERT INTO PAYMENT_TRANSACTION (transactionID, orderID, paymentMethodID, transactionType, " +
+                               "transaction_status, transactionDateTime, amount) VALUES ('T-" + orderId + "', '" + orderId + "', " +
+                               "'PM1', 'PAYMENT', 'SUCCESS', '" + orderDate + "', 24)");
+        }
+    }
+
+    private static int count(Connection conn, String table, String orderId) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table + " WHERE orderID = '" + orderId + "'")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Test
+    void findArchivableYears_OnlyFinishedOrdersBeforeCutoff() throws SQLException {
+        insertOrder("O1", "2023-03-01T10:00:00", OrderStatus.DELIVERED);
+        insertOrder("O2", "2022-05-01T10:00:00", OrderStatus.PENDING_PROCESSING);
+        insertOrder("O3", "2024-07-01T10:00:00", OrderStatus.REJECTED);
+        insertOrder("O4", "2025-02-01T10:00:00", OrderStatus.CANCELLED);
+
+        assertEquals(List.of("2023", "2024"), archiveDAO.findArchivableYears(CUTOFF, FINISHED));
+    }
+
+    @Test
+    void archiveBatch_MovesOrderWithRelatedRowsIntoYearFile() throws SQLException {
+        insertOrder("O1", "2023-03-01T10:00:00", OrderStatus.DELIVERED);
+        insertOrder("O2", "2023-06-01T10:00:00", OrderStatus.SHIPPING);
+
+        assertEquals(1, archiveDAO.archiveBatch("2023", CUTOFF, FINISHED, 10));
+        assertEquals(0, archiveDAO.archiveBatch("2023", CUTOFF, FINISHED, 10));
+
+        Path file = tempDir.resolve("archive").resolve("orders_2023.db");
+        assertTrue(Files.exists(file));
+        List<Path> files = archiveDAO.getArchiveFiles();
+        assertEquals(1, files.size());
+        assertEquals(file.getFileName(), files.get(0).getFileName());
+        try (Connection archive = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath())) {
+            for (String table : TABLES) {
+                assertEquals(0, count(connection, table, "O1"), table);
+                assertEquals(1, count(archive, table, "O1"), table);
+                assertEquals(0, count(archive, table, "O2"), table);
+            }
+        }
+        assertEquals(1, count(connection, "ORDER_ENTITY", "O2"));
+        // The mover detaches the archive again
+        Connection archiver = SQLiteConnector.getInstance().getDedicatedConnection(OrderArchiveDAOImpl.ARCHIVER_CONNECTION);
+        try (Statement stmt = archiver.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pragma_database_list WHERE name = 'order_archive'")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void archiveBatch_OldestFirstUpToLimitAndCutoff() throws SQLException {
+        insertOrder("O1", "2023-09-01T10:00:00", OrderStatus.DELIVERED);
+        insertOrder("O2", "2023-02-01T10:00:00", OrderStatus.CANCELLED);
+        insertOrder("O3", "2023-11-01T10:00:00", OrderStatus.DELIVERED);
+
+        LocalDateTime cutoff = LocalDateTime.of(2023, 10, 1, 0, 0);
+        assertEquals(1, archiveDAO.archiveBatch("2023", cutoff, FINISHED, 1));
+        assertEquals(0, count(connection, "ORDER_ENTITY", "O2"));
+        assertEquals(1, archiveDAO.archiveBatch("2023", cutoff, FINISHED, 1));
+        assertEquals(0, archiveDAO.archiveBatch("2023", cutoff, FINISHED, 1));
+        assertEquals(1, count(connection, "ORDER_ENTITY", "O3"));
+    }
+
+    @Test
+    void archiveBatch_DoesNotJoinTheSharedConnectionsTransaction() throws SQLException {
+        insertOrder("O1", "2023-03-01T10:00:00", OrderStatus.DELIVERED);
+        Connection conn = SQLiteConnector.getInstance().getConnection();
+        conn.setAutoCommit(false);
+        try {
+            assertEquals(1, archiveDAO.archiveBatch("2023", CUTOFF, FINISHED, 10));
+        } finally {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+
+        assertEquals(0, count(connection, "ORDER_ENTITY", "O1"), "Rolling back the shared connection does not undo the move");
+        assertNotNull(orderEntityDAO.getById("O1", true));
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pragma_database_list WHERE name = 'order_archive'")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1), "The archive was never attached to the shared connection");
+        }
+    }
+
+    @Test
+    void orderReads_FallThroughToArchivesOnlyWhenAsked() throws SQLException {
+        insertOrder("O1", "2023-03-01T10:00:00", OrderStatus.DELIVERED);
+        insertOrder("O2", "2024-03-01T10:00:00", OrderStatus.DELIVERED);
+        insertOrder("O3", "2026-01-01T10:00:00", OrderStatus.PENDING_PROCESSING);
+        archiveDAO.archiveBatch("2023", CUTOFF, FINISHED, 10);
+        archiveDAO.archiveBatch("2024", CUTOFF, FINISHED, 10);
+
+        assertEquals(List.of("O3"), orderEntityDAO.getByUserId("U1").stream().map(OrderEntity::getOrderId).toList());
+        assertEquals(List.of("O3", "O2", "O1"),
+            orderEntityDAO.getByUserId("U1", true).stream().map(OrderEntity::getOrderId).toList());
+
+        assertNull(orderEntityDAO.getById("O1"));
+        assertNull(orderEntityDAO.getById("O1", false));
+        OrderEntity archived = orderEntityDAO.getById("O1", true);
+        assertNotNull(archived);
+        assertEquals(OrderStatus.DELIVERED, archived.getOrderStatus());
+        List<OrderItem> items = archived.getOrderItems();
+        assertEquals(1, items.size());
+        assertEquals("P1", items.get(0).getProduct().getProductId());
+        assertEquals(2, items.get(0).getQuantity());
+    }
+
+    @Test
+    void archiveBatch_AddsColumnsAddedToMainTables() throws SQLException {
+        insertOrder("O1", "2023-03-01T10:00:00", OrderStatus.DELIVERED);
+        archiveDAO.archiveBatch("2023", CUTOFF, FINISHED, 10);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE ORDER_ENTITY ADD COLUMN channel TEXT");
+        }
+        insertOrder("O2", "2023-04-01T10:00:00", OrderStatus.DELIVERED);
+
+        assertEquals(1, archiveDAO.archiveBatch("2023", CUTOFF, FINISHED, 10));
+        assertEquals(2, orderEntityDAO.getByUserId("U1", true).size());
+    }
+}
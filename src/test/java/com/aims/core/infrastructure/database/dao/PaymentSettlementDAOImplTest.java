@@ -0,0 +1,211 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.entities.Invoice;
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.entities.PaymentMethod;
+import com.aims.core.entities.PaymentTransaction;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.enums.PaymentMethodType;
+import com.aims.core.enums.TransactionType;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.dto.PaymentSettlement;
+import com.aims.core.shared.dto.SettlementResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PaymentSettlementDAOImplTest {
+
+    private static final String SCRIPTS = "src/main/java/com/aims/core/infrastructure/database/scripts/";
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private IPaymentSettlementDAO settlementDAO;
+    private OrderEntity order;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_settlement_test.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("PRAGMA foreign_keys = ON;");
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V1__create_tables.sql")));
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V2__add_gateway_response_data.sql")));
+            stmt.executeUpdate("INSERT INTO PRODUCT (productID, title, category, value_amount, price, quantityInStock, productType) " +
+                               "VALUES ('P1', 'Book', 'Books', 10, 12, 10, 'BOOK'), ('P2', 'CD', 'Music', 8, 9, 5, 'CD')");
+            stmt.executeUpdate("INSERT INTO ORDER_ENTITY (orderID, orderDate, order_status, totalAmountPaid) " +
+                               "VALUES ('O1', '2024-01-01T10:00:00', 'PENDING_PAYMENT', 33.0)");
+            stmt.executeUpdate("INSERT INTO PAYMENT_METHOD (paymentMethodID, methodType, isDefault) VALUES ('PM1', 'CREDIT_CARD', 0)");
+        }
+        SQLiteConnector.getInstance().setConnection(connection);
+        settlementDAO = new PaymentSettlementDAOImpl();
+
+        order = new OrderEntity();
+        order.setOrderId("O1");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    private PaymentTransaction transaction(String status, String paymentMethodId) {
+        return transaction("TX1", status, paymentMethodId);
+    }
+
+    private PaymentTransaction transaction(String transactionId, String status, String paymentMethodId) {
+        PaymentMethod method = new PaymentMethod(paymentMethodId, PaymentMethodType.CREDIT_CARD, null, false);
+        return new PaymentTransaction(transactionId, order, method, TransactionType.PAYMENT, "EXT1", status,
+            LocalDateTime.of(2024, 1, 1, 10, 5), 33.0f, "charge");
+    }
+
+    private PaymentSettlement paidSettlement(PaymentTransaction transaction, OrderStatus status, Map<String, Integer> stock) {
+        Invoice invoice = new Invoice("INV-O1", order, LocalDateTime.of(2024, 1, 1, 10, 6), 33.0f);
+        return new PaymentSettlement(transaction, "O1", status, stock, invoice);
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private void setOrderStatus(OrderStatus status) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("UPDATE ORDER_ENTITY SET order_status = '" + status.name() + "' WHERE orderID = 'O1'");
+        }
+    }
+
+    private int stockOf(String productId) throws SQLException {
+        return Integer.parseInt(queryString("SELECT quantityInStock FROM PRODUCT WHERE productID = '" + productId + "'"));
+    }
+
+    @Test
+    void settle_PendingOrder_WritesTransactionStockInvoiceAndStatus() throws SQLException {
+        SettlementResult result = settlementDAO.settle(
+            paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.PENDING_PROCESSING, Map.of("P1", 2, "P2", 1)));
+
+        assertEquals(SettlementResult.Outcome.SETTLED, result.outcome());
+        assertEquals("SUCCESS", queryString("SELECT transaction_status FROM PAYMENT_TRANSACTION WHERE transactionID = 'TX1'"));
+        assertEquals(8, stockOf("P1"));
+        assertEquals(4, stockOf("P2"));
+        assertEquals("INV-O1", queryString("SELECT invoiceID FROM INVOICE WHERE orderID = 'O1'"));
+        assertEquals("PENDING_PROCESSING", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+        assertTrue(connection.getAutoCommit(), "Auto-commit is restored");
+    }
+
+    @Test
+    void settle_SecondNotification_RecordsTransactionWithoutTakingStockAgain() throws SQLException {
+        settlementDAO.settle(paidSettlement(transaction("PENDING_USER_ACTION", "PM1"), OrderStatus.PENDING_PROCESSING, Map.of("P1", 2)));
+
+        SettlementResult result = settlementDAO.settle(
+            paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.APPROVED, Map.of("P1", 2)));
+
+        assertEquals(SettlementResult.Outcome.ALREADY_SETTLED, result.outcome());
+        assertEquals(OrderStatus.PENDING_PROCESSING, result.orderStatus());
+        assertEquals(8, stockOf("P1"));
+        assertEquals("SUCCESS", queryString("SELECT transaction_status FROM PAYMENT_TRANSACTION WHERE transactionID = 'TX1'"));
+        assertEquals("PENDING_PROCESSING", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+        assertEquals("1", queryString("SELECT COUNT(*) FROM INVOICE WHERE orderID = 'O1'"));
+    }
+
+    @Test
+    void settle_LateCallbackAfterShipping_KeepsOrderStatus() throws SQLException {
+        settlementDAO.settle(paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.APPROVED, Map.of("P1", 2)));
+        setOrderStatus(OrderStatus.SHIPPING);
+
+        SettlementResult result = settlementDAO.settle(
+            paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.PENDING_PROCESSING, Map.of("P1", 2)));
+
+        assertEquals(SettlementResult.Outcome.ALREADY_SETTLED, result.outcome());
+        assertEquals(OrderStatus.SHIPPING, result.orderStatus());
+        assertEquals("SHIPPING", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+        assertEquals(8, stockOf("P1"));
+    }
+
+    @Test
+    void settle_FailedResultForPaidOrder_RecordsTransactionAndKeepsOrderPaid() throws SQLException {
+        settlementDAO.settle(paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.APPROVED, Map.of("P1", 2)));
+
+        SettlementResult result = settlementDAO.settle(
+            new PaymentSettlement(transaction("TX2", "FAILED", "PM1"), "O1", OrderStatus.PAYMENT_FAILED, Map.of(), null));
+
+        assertEquals(SettlementResult.Outcome.ALREADY_SETTLED, result.outcome());
+        assertEquals(OrderStatus.APPROVED, result.orderStatus());
+        assertEquals("FAILED", queryString("SELECT transaction_status FROM PAYMENT_TRANSACTION WHERE transactionID = 'TX2'"));
+        assertEquals("APPROVED", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+        assertEquals(8, stockOf("P1"));
+    }
+
+    @Test
+    void settle_ReconciledPaymentOfCancelledOrder_DoesNotReviveIt() throws SQLException {
+        setOrderStatus(OrderStatus.CANCELLED);
+
+        SettlementResult result = settlementDAO.settle(
+            paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.PENDING_PROCESSING, Map.of("P1", 2)));
+
+        assertEquals(SettlementResult.Outcome.ALREADY_SETTLED, result.outcome());
+        assertEquals(OrderStatus.CANCELLED, result.orderStatus());
+        assertEquals("CANCELLED", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+        assertEquals("SUCCESS", queryString("SELECT transaction_status FROM PAYMENT_TRANSACTION WHERE transactionID = 'TX1'"));
+        assertEquals(10, stockOf("P1"));
+        assertEquals("0", queryString("SELECT COUNT(*) FROM INVOICE WHERE orderID = 'O1'"));
+    }
+
+    @Test
+    void settle_ProductShortOfStock_WritesNothing() throws SQLException {
+        SettlementResult result = settlementDAO.settle(
+            paidSettlement(transaction("SUCCESS", "PM1"), OrderStatus.PENDING_PROCESSING, Map.of("P2", 1, "P1", 11)));
+
+        assertEquals(SettlementResult.Outcome.INSUFFICIENT_STOCK, result.outcome());
+        assertEquals("P1", result.productId());
+        assertEquals(10, stockOf("P1"));
+        assertEquals(5, stockOf("P2"));
+        assertEquals("0", queryString("SELECT COUNT(*) FROM PAYMENT_TRANSACTION"));
+        assertEquals("0", queryString("SELECT COUNT(*) FROM INVOICE"));
+        assertEquals("PENDING_PAYMENT", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+    }
+
+    @Test
+    void settle_UnknownPaymentMethod_MapsForeignKeyErrorAndWritesNothing() {
+        SQLException e = assertThrows(SQLException.class, () -> settlementDAO.settle(
+            paidSettlement(transaction("SUCCESS", "PM_MISSING"), OrderStatus.PENDING_PROCESSING, Map.of("P1", 2))));
+
+        assertTrue(e.getMessage().contains("missing order or payment method"), e.getMessage());
+        assertDoesNotThrow(() -> {
+            assertEquals(10, stockOf("P1"));
+            assertEquals("PENDING_PAYMENT", queryString("SELECT order_status FROM ORDER_ENTITY WHERE orderID = 'O1'"));
+        });
+    }
+
+    @Test
+    void transactionAdd_UnknownOrder_MapsForeignKeyErrorWithoutPreQueries() {
+        IPaymentTransactionDAO transactionDAO = new PaymentTransactionDAOImpl(mock(IOrderEntityDAO.class), mock(IPaymentMethodDAO.class));
+        order.setOrderId("O_MISSING");
+
+        SQLException e = assertThrows(SQLException.class, () -> transactionDAO.add(transaction("PENDING", "PM1")));
+
+        assertTrue(e.getMessage().contains("ROOT CAUSE: Order does not exist"), e.getMessage());
+    }
+}
@@ -4,6 +4,7 @@ import com.aims.core.entities.Product;
 import com.aims.core.entities.Book;
 import com.aims.core.enums.ProductType;
 import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.dto.AuditLogRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
@@ -215,6 +217,249 @@ public class ProductDAOImplTest {
         assertTrue(foundB004, "Book B004 not found in getAll()");
     }
     
+    @Test
+    void testGetByIds_ReturnsRequestedProductsInOneCall() throws SQLException {
+        Product product1 = new Product("P010", "Bulk Product 1", "Electronics", 100f, 120f, 5, null, null, null, null, 0, null, ProductType.OTHER);
+        Product product2 = new Product("P011", "Bulk Product 2", "Electronics", 200f, 220f, 7, null, null, null, null, 0, null, ProductType.OTHER);
+        Product product3 = new Product("P012", "Bulk Product 3", "Electronics", 300f, 320f, 9, null, null, null, null, 0, null, ProductType.OTHER);
+        productDAO.addBaseProduct(product1);
+        productDAO.addBaseProduct(product2);
+        productDAO.addBaseProduct(product3);
+
+        java.util.List<Product> products = productDAO.getByIds(java.util.List.of("P010", "P012", "P012", "UNKNOWN"));
+
+        assertEquals(2, products.size(), "Duplicates and unknown IDs should not produce extra rows");
+        java.util.Map<String, Product> byId = new java.util.HashMap<>();
+        for (Product p : products) {
+            byId.put(p.getProductId(), p);
+        }
+        assertEquals(5, byId.get("P010").getQuantityInStock());
+        assertEquals(9, byId.get("P012").getQuantityInStock());
+        assertFalse(byId.containsKey("P011"));
+
+        assertTrue(productDAO.getByIds(java.util.List.of()).isEmpty());
+    }
+    
+    @Test
+    void testGetStockSnapshots_ReadsStockColumnsInOneCall() throws SQLException {
+        productDAO.addBaseProduct(new Product("P030", "Snapshot 1", "Electronics", 100f, 120f, 4, null, null, null, null, 0, null, ProductType.OTHER));
+        productDAO.addBaseProduct(new Product("P031", "Snapshot 2", "Electronics", 200f, 220f, 0, null, null, null, null, 0, null, ProductType.OTHER));
+
+        java.util.Map<String, com.aims.core.shared.dto.ProductStockSnapshot> snapshots =
+            productDAO.getStockSnapshots(java.util.List.of("P030", "P031", "UNKNOWN"));
+
+        assertEquals(2, snapshots.size());
+        assertEquals(4, snapshots.get("P030").quantityInStock());
+        assertEquals("Snapshot 1", snapshots.get("P030").title());
+        assertEquals(220f, snapshots.get("P031").price(), 0.001f);
+        assertFalse(snapshots.containsKey("UNKNOWN"));
+    }
+
+    @Test
+    void testDecrementStockIfAvailable_OnlyAppliesWhenStockSuffices() throws SQLException {
+        Product product = new Product("P020", "Hot Product", "Electronics", 100f, 120f, 5, null, null, null, null, 0, null, ProductType.OTHER);
+        productDAO.addBaseProduct(product);
+
+        assertEquals(Integer.valueOf(2), productDAO.decrementStockIfAvailable("P020", 3));
+        assertNull(productDAO.decrementStockIfAvailable("P020", 3), "Decrement beyond stock must not apply");
+        assertEquals(Integer.valueOf(0), productDAO.decrementStockIfAvailable("P020", 2));
+        assertNull(productDAO.decrementStockIfAvailable("UNKNOWN", 1));
+        assertEquals(0, productDAO.getById("P020").getQuantityInStock());
+    }
+
+    @Test
+    void testStockChange_IsPublishedOnlyWhenTheTransactionCommits() throws SQLException {
+        productDAO.addBaseProduct(new Product("P022", "Feed Product", "Electronics", 100f, 120f, 5, null, null, null, null, 0, null, ProductType.OTHER));
+        com.aims.core.shared.events.ProductChangeBus bus = com.aims.core.shared.events.ProductChangeBus.getInstance();
+        Connection shared = SQLiteConnector.getInstance().getConnection();
+
+        long beforeRollback = bus.getLastSequenceFor("P022");
+        shared.setAutoCommit(false);
+        productDAO.updateStock("P022", 1);
+        assertEquals(beforeRollback, bus.getLastSequenceFor("P022"), "Uncommitted change must not be published");
+        shared.rollback();
+        shared.setAutoCommit(true);
+        assertEquals(beforeRollback, bus.getLastSequenceFor("P022"), "Rolled-back change must not be published");
+
+        shared.setAutoCommit(false);
+        productDAO.updateStock("P022", 2);
+        shared.commit();
+        shared.setAutoCommit(true);
+        long afterCommit = bus.getLastSequenceFor("P022");
+        assertTrue(afterCommit > beforeRollback);
+        assertEquals(Integer.valueOf(2), bus.getEventsSince(afterCommit - 1).get(0).quantityInStock());
+    }
+
+    @Test
+    void testDecrementStockGrouped_AllocatesInRequestOrder() throws SQLException {
+        Product product = new Product("P021", "Hot Product", "Electronics", 100f, 120f, 10, null, null, null, null, 0, null, ProductType.OTHER);
+        productDAO.addBaseProduct(product);
+
+        java.util.Map<String, java.util.List<Integer>> requests = new java.util.LinkedHashMap<>();
+        requests.put("P021", java.util.List.of(4, 7, 5, 1));
+        requests.put("UNKNOWN", java.util.List.of(1));
+
+        java.util.Map<String, int[]> outcomes = productDAO.decrementStockGrouped(requests);
+
+        assertArrayEquals(new int[]{6, -1, 1, 0}, outcomes.get("P021"));
+        assertFalse(outcomes.containsKey("UNKNOWN"));
+        assertEquals(0, productDAO.getById("P021").getQuantityInStock());
+        assertTrue(connection.getAutoCommit(), "Auto-commit must be restored after the grouped transaction");
+    }
+    
+    @Test
+    void testDeleteByIds_DeletesAllInOneTransaction() throws SQLException {
+        productDAO.addBaseProduct(new Product("P040", "Bulk Delete 1", "Electronics", 100f, 120f, 1, null, null, null, null, 0, null, ProductType.OTHER));
+        productDAO.addBaseProduct(new Product("P041", "Bulk Delete 2", "Electronics", 100f, 120f, 1, null, null, null, null, 0, null, ProductType.OTHER));
+
+        java.util.Set<String> deleted = productDAO.deleteByIds(java.util.List.of("P040", "P041", "UNKNOWN"));
+
+        assertEquals(java.util.Set.of("P040", "P041"), deleted);
+        assertNull(productDAO.getById("P040"));
+        assertNull(productDAO.getById("P041"));
+        assertTrue(productDAO.findProductIdsInOrders(java.util.List.of("P040")).isEmpty());
+    }
+
+    @Test
+    void testDeleteByIds_WritesAuditRowsInTheDeleteTransaction() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO USER_ACCOUNT (userID, username, password_hash, email, user_status) " +
+                               "VALUES ('PM1', 'manager', 'x', 'pm@example.com', 'ACTIVE')");
+        }
+        productDAO.addBaseProduct(new Product("P042", "Audited Delete", "Electronics", 100f, 120f, 1, null, null, null, null, 0, null, ProductType.OTHER));
+        productDAO.addBaseProduct(new Product("P043", "Rolled Back Delete", "Electronics", 100f, 120f, 1, null, null, null, null, 0, null, ProductType.OTHER));
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+
+        productDAO.deleteByIds(java.util.List.of("P042", "UNKNOWN"), java.util.Map.of(
+            "P042", new AuditLogRecord("PM1", "DELETE", null, now, "Deleted product P042"),
+            "UNKNOWN", new AuditLogRecord("PM1", "DELETE", null, now, "Deleted product UNKNOWN")));
+
+        assertNull(productDAO.getById("P042"));
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT details FROM PRODUCT_MANAGER_AUDIT_LOG")) {
+            assertTrue(rs.next());
+            assertEquals("Deleted product P042", rs.getString(1));
+            assertFalse(rs.next(), "Only deleted products are audited");
+        }
+
+        // An audit row that cannot be stored undoes the deletion
+        assertThrows(SQLException.class, () -> productDAO.deleteByIds(java.util.List.of("P043"), java.util.Map.of(
+            "P043", new AuditLogRecord("NO_SUCH_MANAGER", "DELETE", null, now, "Deleted product P043"))));
+        assertNotNull(productDAO.getById("P043"));
+    }
+
+    @Test
+    void testAdjustStock_SkipsAdjustmentsThatWouldGoNegative() throws SQLException {
+        productDAO.addBaseProduct(new Product("P050", "Adjust 1", "Electronics", 100f, 120f, 5, null, null, null, null, 0, null, ProductType.OTHER));
+        productDAO.addBaseProduct(new Product("P051", "Adjust 2", "Electronics", 100f, 120f, 5, null, null, null, null, 0, null, ProductType.OTHER));
+
+        java.util.Map<String, Integer> changes = new java.util.LinkedHashMap<>();
+        changes.put("P050", 3);
+        changes.put("P051", -6);
+        java.util.Map<String, Integer> applied = productDAO.adjustStock(changes);
+
+        assertEquals(java.util.Map.of("P050", 8), applied);
+        assertEquals(8, productDAO.getById("P050").getQuantityInStock());
+        assertEquals(5, productDAO.getById("P051").getQuantityInStock());
+    }
+
+    @Test
+    void testAddProductsBatch_InsertsAllOrNothing() throws SQLException {
+        Book book = new Book();
+        book.setProductId("B060");
+        book.setTitle("Batch Book");
+        book.setValueAmount(100f);
+        book.setPrice(120f);
+        book.setAuthors("Batch Author");
+        book.setNumPages(320);
+        Product other = new Product("P061", "Batch Other", "Electronics", 50f, 60f, 4, null, null, null, null, 0, null, ProductType.OTHER);
+
+        assertEquals(2, productDAO.addProductsBatch(java.util.List.of(book, other)));
+        Product fetched = productDAO.getById("B060");
+        assertTrue(fetched instanceof Book);
+        assertEquals("Batch Author", ((Book) fetched).getAuthors());
+        assertEquals(320, ((Book) fetched).getNumPages());
+
+        // A duplicate ID rolls back the whole batch
+        Product fresh = new Product("P062", "Fresh", "Electronics", 50f, 60f, 1, null, null, null, null, 0, null, ProductType.OTHER);
+        assertThrows(SQLException.class, () -> productDAO.addProductsBatch(java.util.List.of(fresh, other)));
+        assertNull(productDAO.getById("P062"));
+    }
+
+    @Test
+    void testStreamProducts_StreamsSubtypeDetailsInIdOrder() throws Exception {
+        Book book = new Book();
+        book.setProductId("B071");
+        book.setTitle("Streamed Book");
+        book.setValueAmount(100f);
+        book.setPrice(120f);
+        book.setPublisher("Stream Press");
+        productDAO.addProductsBatch(java.util.List.of(book,
+            new Product("A070", "Streamed Other", "Electronics", 50f, 60f, 2, null, null, null, null, 0, null, ProductType.OTHER)));
+
+        java.util.List<Product> streamed = new java.util.ArrayList<>();
+        assertEquals(2, productDAO.streamProducts(null, streamed::add));
+        assertEquals("A070", streamed.get(0).getProductId());
+        assertTrue(streamed.get(1) instanceof Book);
+        assertEquals("Stream Press", ((Book) streamed.get(1)).getPublisher());
+
+        streamed.clear();
+        assertEquals(1, productDAO.streamProducts(ProductType.BOOK, streamed::add));
+        assertEquals("B071", streamed.get(0).getProductId());
+    }
+
+    @Test
+    void testGetSearchFacetCounts_GroupsMatchesByEveryDimension() throws SQLException {
+        Book book = new Book();
+        book.setProductId("B080");
+        book.setTitle("Facet Guide");
+        book.setCategory("Reference");
+        book.setValueAmount(100f);
+        book.setPrice(150f);
+        book.setQuantityInStock(3);
+        book.setAuthors("Facet Author");
+        productDAO.addProductsBatch(java.util.List.of(book,
+            new Product("P081", "Facet Lamp", "Home", 40f, 50f, 0, null, null, null, null, 0, null, ProductType.OTHER),
+            new Product("P082", "Unrelated", "Facets", 40f, 50f, 2, null, null, null, null, 0, null, ProductType.OTHER),
+            new Product("P083", "Nothing Here", "Home", 40f, 50f, 2, null, null, null, null, 0, null, ProductType.OTHER)));
+
+        java.util.List<IProductDAO.FacetCount> cells = productDAO.getSearchFacetCounts("facet", 1.1, new double[] {100, 200});
+
+        java.util.Map<String, IProductDAO.FacetCount> byCategory = new java.util.HashMap<>();
+        cells.forEach(cell -> byCategory.put(cell.category(), cell));
+        assertEquals(java.util.Set.of("Reference", "Home", "Facets"), byCategory.keySet());
+        // 150 * 1.1 = 165 falls in the second bucket, 50 * 1.1 = 55 in the first
+        assertEquals(ProductType.BOOK, byCategory.get("Reference").productType());
+        assertEquals(1, byCategory.get("Reference").priceBucket());
+        assertTrue(byCategory.get("Reference").inStock());
+        assertEquals(0, byCategory.get("Home").priceBucket());
+        assertFalse(byCategory.get("Home").inStock());
+        // "Facets" matches only through its category name
+        assertFalse(byCategory.get("Facets").strictKeywordMatch());
+        assertTrue(byCategory.get("Reference").strictKeywordMatch());
+        assertEquals(3, cells.stream().mapToLong(IProductDAO.FacetCount::count).sum());
+    }
+
+    @Test
+    void testFindPage_FiltersSortsAndPagesInTheDatabase() throws SQLException {
+        productDAO.addProductsBatch(java.util.List.of(
+            new Product("P090", "Paged Gamma", "Paged", 100f, 300f, 1, null, null, null, null, 0, null, ProductType.OTHER),
+            new Product("P091", "Paged Alpha", "Paged", 100f, 100f, 1, null, null, null, null, 0, null, ProductType.OTHER),
+            new Product("P092", "Paged Beta", "Paged", 100f, 200f, 1, null, null, null, null, 0, null, ProductType.OTHER),
+            new Product("P093", "Paged Other", "Elsewhere", 100f, 50f, 1, null, null, null, null, 0, null, ProductType.OTHER)));
+
+        assertEquals(3, productDAO.countPage("paged", "Paged"));
+        java.util.List<Product> firstPage = productDAO.findPage("paged", "Paged", "ASC", 1, 2);
+        assertEquals(java.util.List.of("P091", "P092"), firstPage.stream().map(Product::getProductId).toList());
+        java.util.List<Product> secondPage = productDAO.findPage("paged", "Paged", "ASC", 2, 2);
+        assertEquals(java.util.List.of("P090"), secondPage.stream().map(Product::getProductId).toList());
+
+        // Without a price order, pages follow insertion order like getAll()
+        assertEquals(4, productDAO.countPage(null, null));
+        assertEquals("P090", productDAO.findPage(null, null, null, 1, 1).get(0).getProductId());
+        assertEquals("P093", productDAO.findPage(null, null, "DESC", 2, 3).get(0).getProductId());
+    }
+
     // Add more tests for CD, DVD, findByTitle, findByCategory, updateStock etc.
     // Remember to handle the specific fields for CD and DVD entities.
 }
@@ -0,0 +1,258 @@
+package com.aims.core.infrastructure.database.dao;
+
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.shared.dto.CategorySales;
+import com.aims.core.shared.dto.DailyRevenue;
+import com.aims.core.shared.dto.OrderStatusCount;
+import com.aims.core.shared.dto.PaymentSettlement;
+import com.aims.core.shared.dto.ProductSales;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReportingDAOImplTest {
+
+    private static final String SCRIPTS = "src/main/java/com/aims/core/infrastructure/database/scripts/";
+    private static final LocalDate DAY1 = LocalDate.of(2024, 3, 20);
+    private static final LocalDate DAY2 = LocalDate.of(2024, 3, 21);
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private IReportingDAO reportingDAO;
+    private IOrderEntityDAO orderEntityDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_reporting_test.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("PRAGMA foreign_keys = ON;");
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V1__create_tables.sql")));
+            stmt.executeUpdate("INSERT INTO PRODUCT (productID, title, category, value_amount, price, quantityInStock, productType) " +
+                               "VALUES ('P1', 'Book', 'Books', 10, 12, 100, 'BOOK'), ('P2', 'CD', 'Music', 8, 9, 100, 'CD'), " +
+                               "('P3', 'Misc', NULL, 2, 3, 100, 'OTHER')");
+        }
+        SQLiteConnector.getInstance().setConnection(connection);
+        reportingDAO = new ReportingDAOImpl();
+        orderEntityDAO = new OrderEntityDAOImpl(mock(IOrderItemDAO.class), mock(IUserAccountDAO.class));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Places an order through the DAO, then inserts its items (as the order service does).
+     */
+    private void placeOrder(String orderId, LocalDate day, OrderStatus status, float amountPaid, String items) throws SQLException {
+        OrderEntity order = new OrderEntity();
+        order.setOrderId(orderId);
+        order.setOrderDate(day.atTime(10, 30));
+        order.setOrderStatus(OrderStatus.PENDING_PAYMENT);
+        order.setTotalAmountPaid(amountPaid);
+        orderEntityDAO.add(order);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO ORDER_ITEM (orderID, productID, quantity, priceAtTimeOfOrder) VALUES " + items);
+        }
+        if (status != OrderStatus.PENDING_PAYMENT) {
+            orderEntityDAO.updateStatus(orderId, status);
+        }
+    }
+
+    private void placeSampleOrders() throws SQLException {
+        placeOrder("O1", DAY1, OrderStatus.DELIVERED, 40f, "('O1', 'P1', 2, 12), ('O1', 'P2', 1, 9)");
+        placeOrder("O2", DAY1, OrderStatus.PENDING_PROCESSING, 15f, "('O2', 'P1', 1, 12), ('O2', 'P3', 1, 3)");
+        placeOrder("O3", DAY1, OrderStatus.PENDING_PAYMENT, 9f, "('O3', 'P2', 1, 9)");
+        placeOrder("O4", DAY2, OrderStatus.APPROVED, 10f, "('O4', 'P2', 1, 9)");
+    }
+
+    private static <T> T find(List<T> rows, Predicate<T> match) {
+        return rows.stream().filter(match).findFirst().orElseThrow(() -> new AssertionError("No matching row in " + rows));
+    }
+
+    @Test
+    void getDailyRevenue_CountsOnlySoldOrders() throws SQLException {
+        placeSampleOrders();
+
+        List<DailyRevenue> revenue = reportingDAO.getDailyRevenue(DAY1, DAY2);
+
+        assertEquals(2, revenue.size());
+        DailyRevenue day1 = revenue.get(0);
+        assertEquals(DAY1, day1.date());
+        assertEquals(2, day1.orders());
+        assertEquals(5, day1.units());
+        assertEquals(48.0, day1.itemRevenue(), 0.001);
+        assertEquals(55.0, day1.amountPaid(), 0.001);
+        assertEquals(DAY2, revenue.get(1).date());
+        assertEquals(1, revenue.get(1).orders());
+    }
+
+    @Test
+    void getTopProducts_RanksByRevenueWithinRange() throws SQLException {
+        placeSampleOrders();
+
+        List<ProductSales> top = reportingDAO.getTopProducts(DAY1, DAY2, 2);
+
+        assertEquals(2, top.size());
+        assertEquals("P1", top.get(0).productId());
+        assertEquals("Book", top.get(0).title());
+        assertEquals(3, top.get(0).units());
+        assertEquals(36.0, top.get(0).revenue(), 0.001);
+        assertEquals(2, top.get(0).orders());
+        assertEquals("P2", top.get(1).productId());
+        assertEquals(2, top.get(1).units(), "The unpaid order O3 is not a sale");
+
+        assertEquals(1, reportingDAO.getTopProducts(DAY2, DAY2, 10).size());
+    }
+
+    @Test
+    void getCategorySales_GroupsProductsWithoutCategory() throws SQLException {
+        placeSampleOrders();
+
+        List<CategorySales> categories = reportingDAO.getCategorySales(DAY1, DAY2);
+
+        assertEquals(List.of("Books", "Music", ReportRollups.UNCATEGORIZED),
+            categories.stream().map(CategorySales::category).toList());
+        assertEquals(36.0 / 57.0, categories.get(0).revenueShare(), 0.0001);
+        assertEquals(1.0, categories.stream().mapToDouble(CategorySales::revenueShare).sum(), 0.0001);
+    }
+
+    @Test
+    void updateStatus_Cancellation_RemovesSaleAndMovesStatus() throws SQLException {
+        placeSampleOrders();
+
+        orderEntityDAO.updateStatus("O1", OrderStatus.CANCELLED);
+
+        DailyRevenue day1 = reportingDAO.getDailyRevenue(DAY1, DAY1).get(0);
+        assertEquals(1, day1.orders());
+        assertEquals(2, day1.units());
+        List<OrderStatusCount> statuses = reportingDAO.getStatusCounts(DAY1, DAY1);
+        assertEquals(1, find(statuses, s -> s.status() == OrderStatus.CANCELLED).orders());
+        assertTrue(statuses.stream().noneMatch(s -> s.status() == OrderStatus.DELIVERED));
+        assertEquals(3, statuses.stream().mapToInt(OrderStatusCount::orders).sum());
+    }
+
+    @Test
+    void updateStatus_BetweenSoldStatuses_CountsSaleOnce() throws SQLException {
+        placeSampleOrders();
+
+        orderEntityDAO.updateStatus("O2", OrderStatus.APPROVED);
+        orderEntityDAO.updateStatus("O2", OrderStatus.SHIPPING);
+
+        assertEquals(5, reportingDAO.getDailyRevenue(DAY1, DAY1).get(0).units());
+        assertEquals(1, find(reportingDAO.getStatusCounts(DAY1, DAY1), s -> s.status() == OrderStatus.SHIPPING).orders());
+    }
+
+    @Test
+    void updateStatus_UnknownOrder_LeavesRollupsUnchanged() throws SQLException {
+        orderEntityDAO.updateStatus("MISSING", OrderStatus.DELIVERED);
+
+        assertTrue(reportingDAO.getStatusCounts(DAY1, DAY2).isEmpty());
+    }
+
+    @Test
+    void delete_SoldOrder_RemovesItsSales() throws SQLException {
+        placeSampleOrders();
+
+        orderEntityDAO.delete("O4");
+
+        assertTrue(reportingDAO.getDailyRevenue(DAY2, DAY2).isEmpty());
+        assertTrue(reportingDAO.getStatusCounts(DAY2, DAY2).isEmpty());
+    }
+
+    @Test
+    void settle_PaidOrder_AddsSale() throws SQLException {
+        placeOrder("O5", DAY2, OrderStatus.PENDING_PAYMENT, 24f, "('O5', 'P1', 2, 12)");
+
+        new PaymentSettlementDAOImpl().settle(
+            new PaymentSettlement(null, "O5", OrderStatus.PENDING_PROCESSING, Map.of("P1", 2), null));
+
+        List<ProductSales> top = reportingDAO.getTopProducts(DAY2, DAY2, 10);
+        assertEquals(1, top.size());
+        assertEquals(2, top.get(0).units());
+        assertEquals(24.0, reportingDAO.getDailyRevenue(DAY2, DAY2).get(0).amountPaid(), 0.001);
+    }
+
+    @Test
+    void rebuildRollups_MatchesIncrementalRollupsAndRepairsRawWrites() throws SQLException {
+        placeSampleOrders();
+        List<DailyRevenue> incremental = reportingDAO.getDailyRevenue(DAY1, DAY2);
+        List<ProductSales> incrementalTop = reportingDAO.getTopProducts(DAY1, DAY2, 10);
+        List<CategorySales> incrementalCategories = reportingDAO.getCategorySales(DAY1, DAY2);
+        // Written behind the DAOs' back, as the seed scripts and old data are
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM REPORT_DAILY_PRODUCT");
+            stmt.executeUpdate("DELETE FROM REPORT_DAILY_CATEGORY");
+            stmt.executeUpdate("UPDATE REPORT_DAILY_STATUS SET orders = 99");
+        }
+
+        assertEquals(4, reportingDAO.rebuildRollups(DAY1, DAY2));
+
+        assertEquals(incremental, reportingDAO.getDailyRevenue(DAY1, DAY2));
+        assertEquals(incrementalTop, reportingDAO.getTopProducts(DAY1, DAY2, 10));
+        assertEquals(incrementalCategories, reportingDAO.getCategorySales(DAY1, DAY2));
+        assertEquals(4, reportingDAO.getStatusCounts(DAY1, DAY2).stream().mapToInt(OrderStatusCount::orders).sum());
+        assertTrue(connection.getAutoCommit(), "Auto-commit is restored");
+    }
+
+    @Test
+    void rebuildRollups_OnlyTouchesRange() throws SQLException {
+        placeSampleOrders();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM REPORT_DAILY_PRODUCT");
+        }
+
+        reportingDAO.rebuildRollups(DAY2, DAY2);
+
+        assertTrue(reportingDAO.getTopProducts(DAY1, DAY1, 10).isEmpty());
+        assertEquals(1, reportingDAO.getTopProducts(DAY2, DAY2, 10).size());
+    }
+
+    @Test
+    void rebuildRollups_RangeIntoArchivedYear_IsRefused() throws Exception {
+        placeSampleOrders();
+        List<DailyRevenue> before = reportingDAO.getDailyRevenue(DAY1, DAY2);
+        assertNull(reportingDAO.getFirstRebuildableDay());
+        Files.createDirectories(tempDir.resolve("archive"));
+        Files.createFile(tempDir.resolve("archive").resolve("orders_2024.db"));
+
+        assertEquals(LocalDate.of(2025, 1, 1), reportingDAO.getFirstRebuildableDay());
+        assertThrows(SQLException.class, () -> reportingDAO.rebuildRollups(DAY1, DAY2));
+        assertEquals(before, reportingDAO.getDailyRevenue(DAY1, DAY2), "The archived year keeps its rollups");
+        assertEquals(0, reportingDAO.rebuildRollups(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+    }
+
+    @Test
+    void getFirstOrderDay_ReturnsEarliestOrNull() throws SQLException {
+        assertNull(reportingDAO.getFirstOrderDay());
+
+        placeSampleOrders();
+
+        assertEquals(DAY1, reportingDAO.getFirstOrderDay());
+    }
+}
@@ -225,4 +225,56 @@ public class UserAccountDAOImplTest {
             userAccountDAO.addUserRole("U012", "R001");
         }, "Adding a duplicate role assignment should throw SQLException due to UNIQUE constraint.");
     }
+
+    @Test
+    void testSearchUsers_FiltersSortsPagesAndLoadsRoles() throws SQLException {
+        userAccountDAO.add(createTestUser("U020", "charlie_admin", "charlie@example.com"));
+        userAccountDAO.add(createTestUser("U021", "alice_admin", "alice@example.com"));
+        userAccountDAO.add(createTestUser("U022", "bob_customer", "bob@example.com"));
+        UserAccount suspended = createTestUser("U023", "dave_admin", "dave@example.com");
+        suspended.setUserStatus(UserStatus.SUSPENDED);
+        userAccountDAO.add(suspended);
+        userAccountDAO.addUserRole("U020", "R002");
+        userAccountDAO.addUserRole("U021", "R002");
+        userAccountDAO.addUserRole("U021", "R001");
+        userAccountDAO.addUserRole("U022", "R001");
+        userAccountDAO.addUserRole("U023", "R002");
+
+        assertEquals(3, userAccountDAO.countUsers("ADMIN", null, null), "Keyword match should be case-insensitive");
+        assertEquals(2, userAccountDAO.countUsers("admin", UserStatus.ACTIVE, "R002"));
+
+        List<UserAccount> firstPage = userAccountDAO.searchUsers("admin", UserStatus.ACTIVE, "R002", "username", "ASC", 1, 1);
+        assertEquals(1, firstPage.size());
+        assertEquals("alice_admin", firstPage.get(0).getUsername());
+        assertEquals(2, firstPage.get(0).getRoleAssignments().size(), "Roles should be populated for the page");
+
+        List<UserAccount> secondPage = userAccountDAO.searchUsers("admin", UserStatus.ACTIVE, "R002", "username", "ASC", 2, 1);
+        assertEquals(1, secondPage.size());
+        assertEquals("charlie_admin", secondPage.get(0).getUsername());
+
+        List<UserAccount> descending = userAccountDAO.searchUsers(null, null, null, "email", "DESC", 1, 10);
+        assertEquals(4, descending.size());
+        assertEquals("dave@example.com", descending.get(0).getEmail());
+    }
+
+    @Test
+    void testSearchUsers_TreatsLikeWildcardsLiterally() throws SQLException {
+        userAccountDAO.add(createTestUser("U024", "under_score", "under@example.com"));
+        userAccountDAO.add(createTestUser("U025", "underXscore", "underx@example.com"));
+
+        assertEquals(1, userAccountDAO.countUsers("under_", null, null));
+        assertEquals(0, userAccountDAO.countUsers("%", null, null));
+    }
+
+    @Test
+    void testGetRolesForUsers_ReturnsRolesForEveryRequestedUser() throws SQLException {
+        userAccountDAO.add(createTestUser("U026", "roles_a", "roles_a@example.com"));
+        userAccountDAO.add(createTestUser("U027", "roles_b", "roles_b@example.com"));
+        userAccountDAO.addUserRole("U026", "R001");
+        userAccountDAO.addUserRole("U026", "R002");
+
+        java.util.Map<String, Set<Role>> roles = userAccountDAO.getRolesForUsers(List.of("U026", "U027"));
+        assertEquals(2, roles.get("U026").size());
+        assertTrue(roles.get("U027").isEmpty(), "Users without roles should map to an empty set");
+    }
 }
@@ -0,0 +1,82 @@
+package com.aims.core.presentation.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the desktop client resumes the remote SSE feed from the last
+ * event it applied after the connection drops.
+ */
+class ProductChangeFeedClientTest {
+
+    private HttpServer server;
+    private ProductChangeFeedClient client;
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/products/changes", exchange -> {
+            lastEventIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+            String events = lastEventIds.size() == 1
+                ? "event: ready\ndata: {\"latestSequence\":40}\n\n"
+                  + ": keep-alive\n\n"
+                  + "id: E1:41\nevent: stock\ndata: {\"sequence\":41,\"productId\":\"FEED-CLIENT-1\",\"type\":\"STOCK\","
+                  + "\"quantityInStock\":3,\"timestamp\":1}\n\n"
+                : "id: E1:50\nevent: resync\ndata: {\"latestSequence\":50}\n\n";
+            byte[] body = events.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, body.length);
+            // Closing the body ends the stream, as a dropped connection would
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new ProductChangeFeedClient("http://127.0.0.1:" + server.getAddress().getPort() + "/api/products/changes");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+        server.stop(0);
+    }
+
+    private void awaitCondition(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean(), "Timed out; requests seen: " + lastEventIds);
+    }
+
+    @Test
+    void reconnect_SendsTheLastAppliedEventIdAsLastEventId() throws InterruptedException {
+        client.start();
+
+        awaitCondition(() -> lastEventIds.size() >= 2);
+
+        assertEquals("null", lastEventIds.get(0), "First connection starts without a position");
+        assertEquals("E1:41", lastEventIds.get(1), "Reconnect resumes after the last applied event, epoch included");
+    }
+
+    @Test
+    void resyncEvent_MovesThePositionToTheLatestSequence() throws InterruptedException {
+        client.start();
+
+        awaitCondition(() -> client.getLastRemoteSequence() == 50);
+
+        assertEquals(List.of("null", "E1:41"), lastEventIds.subList(0, 2));
+    }
+}
@@ -0,0 +1,81 @@
+package com.aims.core.rest.cache;
+
+import com.aims.core.config.WebConfig;
+import com.aims.core.shared.events.ProductChangeBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CatalogResponseCache
+ * Tests hits, invalidation by product change events and ETag stability
+ */
+class CatalogResponseCacheTest {
+
+    private final ProductChangeBus bus = ProductChangeBus.getInstance();
+    private CatalogResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(bus, WebConfig.createObjectMapper(), 60_000L);
+        loads = new AtomicInteger();
+    }
+
+    private CatalogResponseCache.Loaded load(Object body) {
+        loads.incrementAndGet();
+        return CatalogResponseCache.Loaded.of(body);
+    }
+
+    @Test
+    void catalogResponse_isServedFromCacheUntilAProductChanges() throws Exception {
+        CatalogResponseCache.Lookup first = cache.getCatalogResponse("categories", () -> load(Map.of("a", 1)));
+        CatalogResponseCache.Lookup second = cache.getCatalogResponse("categories", () -> load(Map.of("a", 1)));
+
+        assertFalse(first.hit());
+        assertTrue(second.hit());
+        assertEquals(1, loads.get());
+
+        bus.publishDelete("CACHE-TEST-1");
+        CatalogResponseCache.Lookup third = cache.getCatalogResponse("categories", () -> load(Map.of("a", 1)));
+
+        assertFalse(third.hit());
+        assertEquals(2, loads.get());
+        // Same content after the rebuild: validators are unchanged, so clients still get 304
+        assertEquals(first.entry().getEtag(), third.entry().getEtag());
+        assertEquals(first.entry().getLastModified(), third.entry().getLastModified());
+    }
+
+    @Test
+    void productResponse_isOnlyInvalidatedByThatProduct() throws Exception {
+        cache.getProductResponse("CACHE-TEST-2", () -> new CatalogResponseCache.Loaded(Map.of("q", 1), "CACHE-TEST-2-v0"));
+
+        bus.publishStockChange("CACHE-TEST-OTHER", 5, null);
+        CatalogResponseCache.Lookup unaffected = cache.getProductResponse("CACHE-TEST-2",
+            () -> new CatalogResponseCache.Loaded(Map.of("q", 1), "CACHE-TEST-2-v0"));
+        assertTrue(unaffected.hit());
+        assertTrue(unaffected.entry().getEtag().startsWith("\"CACHE-TEST-2-v0-"));
+
+        bus.publishStockChange("CACHE-TEST-2", 4, null);
+        CatalogResponseCache.Lookup changed = cache.getProductResponse("CACHE-TEST-2",
+            () -> new CatalogResponseCache.Loaded(Map.of("q", 4), "CACHE-TEST-2-v0"));
+        assertFalse(changed.hit());
+        assertNotEquals(unaffected.entry().getEtag(), changed.entry().getEtag());
+    }
+
+    @Test
+    void productResponse_notFoundIsNotCached() throws Exception {
+        assertNull(cache.getProductResponse("CACHE-TEST-MISSING", () -> null));
+        assertNull(cache.getProductResponse("CACHE-TEST-MISSING", () -> null));
+    }
+
+    @Test
+    void key_isIndependentOfParameterOrderAndBlankValues() {
+        assertEquals(CatalogResponseCache.key("products", "page", 1, "keyword", "book", "category", ""),
+                     CatalogResponseCache.key("products", "keyword", " book ", "category", null, "page", 1));
+    }
+}
@@ -0,0 +1,114 @@
+package com.aims.core.rest.controllers;
+
+import com.aims.core.shared.events.ProductChangeBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests the SSE product change feed: resuming from Last-Event-ID or ?since=,
+ * and the resync event for positions the bus no longer has.
+ */
+class ProductChangeFeedControllerTest {
+
+    private final ProductChangeBus bus = ProductChangeBus.getInstance();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProductChangeFeedController()).build();
+    }
+
+    /**
+     * Waits for the emitter to have written {@code expected} to the response.
+     */
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Feed never sent " + expected + ", got: " + content);
+        return content;
+    }
+
+    @Test
+    void lastEventId_ReplaysTheEventsMissedSinceThatPosition() throws Exception {
+        bus.publishStockChange("FEED-TEST-SKIPPED", 1, null);
+        long lastSeen = bus.getLatestSequence();
+        bus.publishStockChange("FEED-TEST-1", 4, null);
+        bus.publishDelete("FEED-TEST-2");
+
+        MvcResult result = mockMvc.perform(get("/api/products/changes").header("Last-Event-ID", bus.getEpoch() + ":" + lastSeen))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String content = awaitContent(result, "FEED-TEST-2");
+        assertTrue(content.contains("event:ready"));
+        assertTrue(content.contains("id:" + bus.getEpoch() + ":" + (lastSeen + 1)));
+        assertTrue(content.contains("event:stock"));
+        assertTrue(content.contains("id:" + bus.getEpoch() + ":" + (lastSeen + 2)));
+        assertTrue(content.contains("event:delete"));
+        assertFalse(content.contains("FEED-TEST-SKIPPED"), "Events up to Last-Event-ID are not resent");
+    }
+
+    @Test
+    void sinceParameter_ResumesLikeLastEventId() throws Exception {
+        long since = bus.getLatestSequence();
+        bus.publishStockChange("FEED-TEST-3", 7, null);
+
+        MvcResult result = mockMvc.perform(get("/api/products/changes").param("since", String.valueOf(since)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String content = awaitContent(result, "FEED-TEST-3");
+        assertTrue(content.contains("id:" + bus.getEpoch() + ":" + (since + 1)));
+    }
+
+    @Test
+    void newClient_GetsOnlyLiveEvents() throws Exception {
+        bus.publishStockChange("FEED-TEST-OLD", 2, null);
+
+        MvcResult result = mockMvc.perform(get("/api/products/changes"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        awaitContent(result, "event:ready");
+        bus.publishStockChange("FEED-TEST-LIVE", 3, null);
+
+        String content = awaitContent(result, "FEED-TEST-LIVE");
+        assertFalse(content.contains("FEED-TEST-OLD"));
+    }
+
+    @Test
+    void positionFromAnotherProcess_SendsResync() throws Exception {
+        long ahead = bus.getLatestSequence() + 1_000;
+
+        MvcResult result = mockMvc.perform(get("/api/products/changes").header("Last-Event-ID", ahead))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String content = awaitContent(result, "event:resync");
+        assertTrue(content.contains("latestSequence"));
+    }
+
+    @Test
+    void positionFromPreviousEpoch_SendsResyncEvenIfTheSequenceIsRetained() throws Exception {
+        bus.publishStockChange("FEED-TEST-4", 1, null);
+        long retained = bus.getLatestSequence() - 1;
+
+        MvcResult result = mockMvc.perform(get("/api/products/changes").header("Last-Event-ID", "previous-epoch:" + retained))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String content = awaitContent(result, "event:resync");
+        assertTrue(content.contains("id:" + bus.getEpoch() + ":"), "The resync carries the current epoch");
+        assertFalse(content.contains("FEED-TEST-4"), "Nothing is replayed from another epoch");
+    }
+}
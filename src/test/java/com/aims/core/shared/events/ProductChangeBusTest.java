@@ -0,0 +1,174 @@
+package com.aims.core.shared.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductChangeBus
+ * Tests sequencing, replay from a resume position and listener isolation
+ */
+class ProductChangeBusTest {
+
+    private ProductChangeBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new ProductChangeBus(3);
+    }
+
+    /**
+     * Collects delivered events and resync requests.
+     */
+    private static class RecordingListener implements ProductChangeBus.Listener {
+        final List<Long> sequences = new CopyOnWriteArrayList<>();
+        final List<Long> resyncs = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvent(ProductChangeEvent event) {
+            sequences.add(event.sequence());
+        }
+
+        @Override
+        public void onResyncRequired(long latestSequence) {
+            resyncs.add(latestSequence);
+        }
+    }
+
+    /**
+     * Waits until every task queued on the dispatcher so far has run: a
+     * subscription from a position ahead of the bus queues a resync callback
+     * behind them.
+     */
+    private void drain() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        bus.subscribeFrom(Long.MAX_VALUE, new ProductChangeBus.Listener() {
+            @Override
+            public void onEvent(ProductChangeEvent event) {
+            }
+
+            @Override
+            public void onResyncRequired(long latestSequence) {
+                done.countDown();
+            }
+        }).close();
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Dispatcher did not drain");
+    }
+
+    @Test
+    void publish_AssignsIncreasingSequences() {
+        bus.publishStockChange("P1", 5, null);
+        bus.publishProductUpdate("P2", 3, 10f, 2L);
+        bus.publishStockChange("P1", 4, null);
+
+        assertEquals(3, bus.getLatestSequence());
+        assertEquals(3, bus.getLastSequenceFor("P1"));
+        assertEquals(2, bus.getLastSequenceFor("P2"));
+        assertEquals(0, bus.getLastSequenceFor("P3"));
+    }
+
+    @Test
+    void getEventsSince_ReturnsRetainedEventsAfterThePosition() {
+        bus.publishStockChange("P1", 5, null);
+        bus.publishStockChange("P2", 6, null);
+        bus.publishDelete("P3");
+
+        List<ProductChangeEvent> events = bus.getEventsSince(1);
+
+        assertEquals(List.of(2L, 3L), events.stream().map(ProductChangeEvent::sequence).toList());
+        assertEquals(ProductChangeEvent.ChangeType.DELETE, events.get(1).type());
+        assertTrue(bus.getEventsSince(3).isEmpty());
+    }
+
+    @Test
+    void getEventsSince_EvictedOrForeignPosition_ReturnsNull() {
+        for (int i = 0; i < 5; i++) {
+            bus.publishStockChange("P1", i, null);
+        }
+
+        assertNull(bus.getEventsSince(0), "Events 1 and 2 were evicted");
+        assertNotNull(bus.getEventsSince(2));
+        assertNull(bus.getEventsSince(99), "Position from a previous process");
+    }
+
+    @Test
+    void subscribeFrom_ReplaysMissedEventsThenDeliversLiveOnes() throws InterruptedException {
+        bus.publishStockChange("P1", 5, null);
+        bus.publishStockChange("P1", 4, null);
+        RecordingListener listener = new RecordingListener();
+
+        try (ProductChangeBus.Subscription ignored = bus.subscribeFrom(1, listener)) {
+            bus.publishStockChange("P1", 3, null);
+            drain();
+        }
+
+        assertEquals(List.of(2L, 3L), listener.sequences);
+        assertTrue(listener.resyncs.isEmpty());
+    }
+
+    @Test
+    void subscribeFrom_EvictedPosition_RequestsResyncInsteadOfReplay() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            bus.publishStockChange("P1", i, null);
+        }
+        RecordingListener listener = new RecordingListener();
+
+        try (ProductChangeBus.Subscription ignored = bus.subscribeFrom(0, listener)) {
+            bus.publishStockChange("P1", 9, null);
+            drain();
+        }
+
+        assertEquals(List.of(5L), listener.resyncs);
+        assertEquals(List.of(6L), listener.sequences, "Live events follow the resync");
+    }
+
+    @Test
+    void subscribeFrom_OtherEpoch_RequestsResyncEvenForARetainedPosition() throws InterruptedException {
+        bus.publishStockChange("P1", 5, null);
+        bus.publishStockChange("P1", 4, null);
+        RecordingListener listener = new RecordingListener();
+
+        try (ProductChangeBus.Subscription ignored = bus.subscribeFrom("previous-epoch", 1, listener)) {
+            drain();
+        }
+
+        assertEquals(List.of(2L), listener.resyncs);
+        assertTrue(listener.sequences.isEmpty());
+        assertNotEquals(bus.getEpoch(), new ProductChangeBus(3).getEpoch(), "Every bus has its own epoch");
+    }
+
+    @Test
+    void failingListener_DoesNotStopDeliveryToOthers() throws InterruptedException {
+        RecordingListener healthy = new RecordingListener();
+        bus.subscribe(event -> {
+            throw new IllegalStateException("listener bug");
+        });
+        bus.subscribe(healthy);
+
+        bus.publishStockChange("P1", 5, null);
+        bus.publishStockChange("P1", 4, null);
+        drain();
+
+        assertEquals(List.of(1L, 2L), healthy.sequences);
+    }
+
+    @Test
+    void closedSubscription_ReceivesNoFurtherEvents() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        ProductChangeBus.Subscription subscription = bus.subscribe(listener);
+
+        bus.publishStockChange("P1", 5, null);
+        subscription.close();
+        bus.publishStockChange("P1", 4, null);
+        drain();
+
+        assertEquals(List.of(1L), listener.sequences);
+        assertEquals(0, bus.getSubscriberCount());
+    }
+}
@@ -0,0 +1,79 @@
+package com.aims.core.shared.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void fromFloat_RoundsHalfUpOnTheDecimalValue() {
+        assertEquals(268, Money.fromFloat(2.675f));
+        assertEquals(101, Money.fromFloat(1.005f));
+        assertEquals(-13, Money.fromFloat(-0.125f));
+        assertEquals(10, Money.fromFloat(0.1f));
+        assertEquals(11_000_000, Money.fromFloat(110000f));
+        assertEquals(0, Money.fromFloat(Float.NaN));
+        assertEquals(0, Money.fromFloat(Float.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void fromFloat_MatchesDecimalRoundingOfTheFloatString() {
+        Random random = new Random(47);
+        for (int i = 0; i < 200_000; i++) {
+            float amount = (random.nextInt(13_107_200) + (i % 2 == 0 ? 0.5f : 0f)) / (i % 2 == 0 ? 1000f : 100_000f);
+            long expected = new BigDecimal(Float.toString(amount)).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+            assertEquals(expected, Money.fromFloat(amount), "Rounding " + amount);
+        }
+    }
+
+    @Test
+    void fromDouble_RoundsHalfUpAwayFromZero() {
+        assertEquals(13, Money.fromDouble(0.125));
+        assertEquals(-13, Money.fromDouble(-0.125));
+        assertEquals(12, Money.fromDouble(0.1249));
+    }
+
+    @Test
+    void vat_IsTenPercentRoundedOnceAndInclusiveIsExact() {
+        assertEquals(333, Money.vat(3333));
+        assertEquals(3666, Money.withVat(3333));
+        assertEquals(1, Money.vat(5));
+        assertEquals(0, Money.vat(4));
+        assertEquals(-1, Money.vat(-5));
+        for (long base = 0; base < 10_000; base++) {
+            assertEquals(base + Money.vat(base), Money.withVat(base));
+        }
+    }
+
+    @Test
+    void withoutVat_InvertsWithVat() {
+        assertEquals(10_000_000, Money.withoutVat(11_000_000));
+        for (long base = 0; base < 10_000; base++) {
+            assertEquals(base, Money.withoutVat(Money.withVat(base)), "Base " + base);
+        }
+    }
+
+    @Test
+    void scale_AppliesRateToFourDecimals() {
+        assertEquals(2_530_000, Money.scale(2_200_000, 1.15f));
+        assertEquals(330_000, Money.scale(2_200_000, 0.15000001f));
+    }
+
+    @Test
+    void times_FailsOnOverflow() {
+        assertEquals(600, Money.times(200, 3));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+
+    @Test
+    void toColumn_StoresTheTwoDecimalAmount() {
+        assertEquals(0.1, Money.toColumn(0.1f));
+        assertEquals(2.68, Money.toColumn(2.675f));
+        assertEquals(0.1f, Money.round(0.1f));
+    }
+}
@@ -0,0 +1,105 @@
+package com.aims.core.utils;
+
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseMigrationUtilityTest {
+
+    private static final String SCRIPTS = "src/main/java/com/aims/core/infrastructure/database/scripts/";
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_migration_test.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(Files.readString(Path.of(SCRIPTS + "V1__create_tables.sql")));
+        }
+        SQLiteConnector.getInstance().setConnection(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void runMoneyMigration_RoundsFloatBoundAmountsToMinorUnits() throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO PRODUCT (productID, title, value_amount, price, quantityInStock, productType) VALUES (?, 'T', ?, ?, 1, 'BOOK')")) {
+            // As the DAOs used to bind them: setFloat stores the float's binary expansion
+            pstmt.setString(1, "P1");
+            pstmt.setFloat(2, 0.1f);
+            pstmt.setFloat(3, 2.675f);
+            pstmt.executeUpdate();
+            pstmt.setString(1, "P2");
+            pstmt.setNull(2, Types.REAL);
+            pstmt.setDouble(3, 100000.0);
+            pstmt.executeUpdate();
+        }
+
+        assertEquals(1, DatabaseMigrationUtility.runMoneyMigration());
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT productID, value_amount, price FROM PRODUCT ORDER BY productID")) {
+            assertTrue(rs.next());
+            assertEquals(0.1, rs.getDouble("value_amount"));
+            assertEquals(2.68, rs.getDouble("price"));
+            assertTrue(rs.next());
+            assertNull(rs.getObject("value_amount"), "NULL amounts stay NULL");
+            assertEquals(100000.0, rs.getDouble("price"));
+        }
+        assertEquals(0, DatabaseMigrationUtility.runMoneyMigration(), "The migration is idempotent");
+        assertTrue(connection.getAutoCommit(), "Auto-commit is restored");
+    }
+
+    @Test
+    void runMinorUnitMigration_AddsIntegerColumnsFilledFromRealAmounts() throws Exception {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO ORDER_ENTITY (orderID, orderDate, order_status, totalAmountPaid) VALUES ('O1', '2025-01-01T10:00:00', 'DELIVERED', ?)")) {
+            pstmt.setFloat(1, 2.675f);
+            pstmt.executeUpdate();
+        }
+
+        // The four amounts of the one order
+        assertEquals(4, DatabaseMigrationUtility.runMinorUnitMigration());
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT totalAmountPaid, totalAmountPaidMinor, calculatedDeliveryFeeMinor FROM ORDER_ENTITY")) {
+            assertTrue(rs.next());
+            assertEquals(2.675f, rs.getFloat("totalAmountPaid"), "The REAL column is left as it was");
+            assertEquals(268, rs.getLong("totalAmountPaidMinor"));
+            assertEquals(0, rs.getLong("calculatedDeliveryFeeMinor"));
+        }
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT amountMinor, priceAtTimeOfOrderMinor FROM PAYMENT_TRANSACTION, ORDER_ITEM")) {
+            assertFalse(rs.next(), "Both tables have the new column");
+        }
+        assertEquals(0, DatabaseMigrationUtility.runMinorUnitMigration(), "The migration is idempotent");
+        assertTrue(connection.getAutoCommit(), "Auto-commit is restored");
+    }
+}
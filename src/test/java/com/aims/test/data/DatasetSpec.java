@@ -0,0 +1,76 @@
+package com.aims.test.data;
+
+import java.time.LocalDate;
+
+/**
+ * The size and seed of a synthetic dataset.
+ *
+ * Two generations from equal specs produce identical databases, so a spec
+ * also names a cached dataset file (see {@link #key()}).
+ *
+ * @param seed            Seed for every random choice the generator makes
+ * @param products        Catalogue size, spread across BOOK, CD, DVD and LP
+ * @param users           Customer accounts
+ * @param orders          Orders, each with items, delivery info and payment rows
+ * @param maxItemsPerOrder Upper bound on distinct products per order
+ * @param firstOrderDay   Day of the oldest order
+ * @param days            Number of days orders are spread over
+ */
+public record DatasetSpec(long seed, int products, int users, int orders, int maxItemsPerOrder,
+                          LocalDate firstOrderDay, int days) {
+
+    public static final long DEFAULT_SEED = 48L;
+    public static final int DEFAULT_MAX_ITEMS_PER_ORDER = 6;
+    public static final LocalDate DEFAULT_FIRST_ORDER_DAY = LocalDate.of(2023, 1, 1);
+    public static final int DEFAULT_DAYS = 730;
+
+    /** Enough rows for unit tests to exercise every table in well under a second. */
+    public static final DatasetSpec SMALL = of(2_000, 500, 5_000);
+
+    /** Enough rows for pagination and search plans to diverge from the seed data. */
+    public static final DatasetSpec MEDIUM = of(100_000, 10_000, 500_000);
+
+    /** Production scale: 1M products, 100k users, 5M orders. */
+    public static final DatasetSpec PRODUCTION = of(1_000_000, 100_000, 5_000_000);
+
+    public DatasetSpec {
+        if (products < 1 || users < 1 || orders < 0) {
+            throw new IllegalArgumentException("A dataset needs at least one product and one user, and no negative counts");
+        }
+        if (maxItemsPerOrder < 1 || days < 1) {
+            throw new IllegalArgumentException("maxItemsPerOrder and days must be positive");
+        }
+        if (firstOrderDay == null) {
+            throw new IllegalArgumentException("firstOrderDay is required");
+        }
+    }
+
+    public static DatasetSpec of(int products, int users, int orders) {
+        return new DatasetSpec(DEFAULT_SEED, products, users, orders, DEFAULT_MAX_ITEMS_PER_ORDER,
+            DEFAULT_FIRST_ORDER_DAY, DEFAULT_DAYS);
+    }
+
+    /**
+     * Looks up a named preset: {@code small}, {@code medium} or {@code production}.
+     */
+    public static DatasetSpec preset(String name) {
+        return switch (name.toLowerCase()) {
+            case "small" -> SMALL;
+            case "medium" -> MEDIUM;
+            case "production" -> PRODUCTION;
+            default -> throw new IllegalArgumentException("Unknown dataset preset: " + name);
+        };
+    }
+
+    public DatasetSpec withSeed(long newSeed) {
+        return new DatasetSpec(newSeed, products, users, orders, maxItemsPerOrder, firstOrderDay, days);
+    }
+
+    /**
+     * A file-name-safe key that differs whenever the generated data would.
+     */
+    public String key() {
+        return "s" + seed + "-p" + products + "-u" + users + "-o" + orders + "-i" + maxItemsPerOrder
+            + "-d" + firstOrderDay.toString().replace("-", "") + "x" + days + "-v" + SyntheticDataGenerator.FORMAT_VERSION;
+    }
+}
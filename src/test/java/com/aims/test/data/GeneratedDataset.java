@@ -0,0 +1,46 @@
+package com.aims.test.data;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test class against a synthetic dataset of the requested size.
+ *
+ * The dataset is generated once per spec and cached under
+ * {@code target/datasets} (override with {@code -Daims.dataset.dir}); each
+ * class gets its own copy, wired in through {@code TEST_DB_URL} and
+ * {@code SQLiteConnector}, so DAOs and services read it directly. Test
+ * methods and constructors can take a {@link GeneratedDatasetExtension.Dataset}
+ * parameter.
+ *
+ * <pre>
+ * &#64;GeneratedDataset(products = 1_000_000, users = 100_000, orders = 5_000_000)
+ * class ProductSearchBenchmarkTest { ... }
+ * </pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(GeneratedDatasetExtension.class)
+public @interface GeneratedDataset {
+
+    /** {@code small}, {@code medium} or {@code production}; explicit counts override it. */
+    String preset() default "small";
+
+    int products() default -1;
+
+    int users() default -1;
+
+    int orders() default -1;
+
+    long seed() default DatasetSpec.DEFAULT_SEED;
+
+    /**
+     * Work on a per-class copy of the cached dataset. Read-only benchmarks
+     * can set this to false to skip the copy.
+     */
+    boolean copy() default true;
+}
@@ -0,0 +1,117 @@
+package com.aims.test.data;
+
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * JUnit 5 extension behind {@link GeneratedDataset}.
+ *
+ * Before the class runs it generates the requested dataset if no cached copy
+ * exists (into a temporary file, renamed when complete, so an interrupted run
+ * never leaves a half-written cache), copies it for the class, and points
+ * {@code TEST_DB_URL} and {@code SQLiteConnector} at the copy. After the class
+ * it restores the connector and deletes the copy.
+ */
+public class GeneratedDatasetExtension implements BeforeAllCallback, AfterAllCallback, ParameterResolver {
+
+    public static final String DATASET_DIR_PROPERTY = "aims.dataset.dir";
+    private static final String DEFAULT_DATASET_DIR = "target/datasets";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(GeneratedDatasetExtension.class);
+    private static final Object CACHE_LOCK = new Object();
+
+    /**
+     * The dataset a test class runs against.
+     *
+     * @param file       The database file the class works on
+     * @param connection The open connection installed in {@code SQLiteConnector}
+     */
+    public record Dataset(DatasetSpec spec, Path file, Connection connection, boolean copied) {
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        GeneratedDataset annotation = AnnotationSupport.findAnnotation(context.getRequiredTestClass(), GeneratedDataset.class)
+            .orElseThrow(() -> new IllegalStateException("@GeneratedDataset is missing on " + context.getRequiredTestClass()));
+        DatasetSpec spec = specOf(annotation);
+        Path cached = cachedDataset(spec);
+
+        Path file = cached;
+        if (annotation.copy()) {
+            file = Files.createTempFile(cached.getParent(), "aims-" + context.getRequiredTestClass().getSimpleName() + "-", ".db");
+            Files.copy(cached, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        String dbUrl = "jdbc:sqlite:" + file.toAbsolutePath();
+        Connection connection = DriverManager.getConnection(dbUrl);
+        System.setProperty("TEST_DB_URL", dbUrl);
+        SQLiteConnector.getInstance().setConnection(connection);
+        context.getStore(NAMESPACE).put(Dataset.class, new Dataset(spec, file, connection, annotation.copy()));
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws SQLException, IOException {
+        Dataset dataset = context.getStore(NAMESPACE).remove(Dataset.class, Dataset.class);
+        if (dataset == null) {
+            return;
+        }
+        SQLiteConnector.getInstance().setConnection(null);
+        System.clearProperty("TEST_DB_URL");
+        try {
+            dataset.connection().close();
+        } finally {
+            if (dataset.copied()) {
+                Files.deleteIfExists(dataset.file());
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == Dataset.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(Dataset.class, Dataset.class);
+    }
+
+    static DatasetSpec specOf(GeneratedDataset annotation) {
+        DatasetSpec base = DatasetSpec.preset(annotation.preset());
+        return new DatasetSpec(annotation.seed(),
+            annotation.products() >= 0 ? annotation.products() : base.products(),
+            annotation.users() >= 0 ? annotation.users() : base.users(),
+            annotation.orders() >= 0 ? annotation.orders() : base.orders(),
+            base.maxItemsPerOrder(), base.firstOrderDay(), base.days());
+    }
+
+    /**
+     * @return the cached dataset file for the spec, generating it first if needed
+     */
+    static Path cachedDataset(DatasetSpec spec) throws SQLException, IOException {
+        Path dir = Path.of(System.getProperty(DATASET_DIR_PROPERTY, DEFAULT_DATASET_DIR));
+        Path cached = dir.resolve("aims-" + spec.key() + ".db");
+        synchronized (CACHE_LOCK) {
+            if (!Files.exists(cached)) {
+                Path partial = dir.resolve("aims-" + spec.key() + ".db.partial");
+                Files.deleteIfExists(partial);
+                System.out.println("Generating dataset " + spec.key() + " into " + cached);
+                SyntheticDataGenerator.generate(spec, partial, System.out);
+                Files.move(partial, cached, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        return cached;
+    }
+}
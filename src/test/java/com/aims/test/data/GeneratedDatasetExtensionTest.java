@@ -0,0 +1,39 @@
+package com.aims.test.data;
+
+import com.aims.core.entities.Product;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.infrastructure.database.dao.ProductDAOImpl;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@GeneratedDataset(products = 200, users = 20, orders = 300)
+class GeneratedDatasetExtensionTest {
+
+    @Test
+    void datasetIsInstalledForTheClass(GeneratedDatasetExtension.Dataset dataset) throws Exception {
+        assertEquals(200, dataset.spec().products());
+        assertTrue(dataset.copied());
+        assertTrue(Files.exists(dataset.file()));
+        assertTrue(System.getProperty("TEST_DB_URL").endsWith(dataset.file().toAbsolutePath().toString()));
+
+        try (Statement stmt = SQLiteConnector.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM ORDER_ENTITY")) {
+            assertTrue(rs.next());
+            assertEquals(300, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void daosReadGeneratedRows() throws Exception {
+        Product product = new ProductDAOImpl().getById(SyntheticDataGenerator.productId(0));
+
+        assertNotNull(product);
+        assertNotNull(product.getTitle());
+        assertTrue(product.getPrice() > 0);
+    }
+}
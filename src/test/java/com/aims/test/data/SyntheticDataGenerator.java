@@ -0,0 +1,885 @@
+package com.aims.test.data;
+
+import com.aims.core.infrastructure.database.dao.ReportRollups;
+import com.aims.core.shared.utils.Money;
+import com.aims.core.shared.utils.PasswordUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic Data Generator
+ *
+ * Fills an empty SQLite database with a production-shaped AIMS dataset: a
+ * catalogue across BOOK, CD, DVD and LP with subtype rows and generated
+ * titles, descriptions and credits; customer accounts with roles and a saved
+ * payment method; and orders with their items, delivery info, invoices and
+ * payment/refund transactions. Popular products and frequent customers are
+ * skewed the way real traffic is, and order volume grows over the date range.
+ * The daily report rollups are rebuilt from the generated orders at the end.
+ *
+ * Generation is deterministic: every table draws from its own random stream
+ * derived from {@link DatasetSpec#seed()}, so equal specs produce identical
+ * databases. Rows are written with batched prepared statements inside large
+ * transactions, with the bulk-load pragmas applied for the duration.
+ *
+ * Usage: {@code SyntheticDataGenerator --db target/aims-prod.db --preset production}
+ * (see {@link #main}), or {@link GeneratedDataset} on a benchmark class.
+ */
+public class SyntheticDataGenerator {
+
+    /** Bumped whenever a change alters the generated rows, so cached datasets are regenerated. */
+    static final int FORMAT_VERSION = 2;
+
+    /** Password of every generated customer. */
+    public static final String DEFAULT_PASSWORD = "password123";
+
+    static final String SCHEMA_DIR = "src/main/java/com/aims/core/infrastructure/database/scripts/";
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int ROWS_PER_TRANSACTION = 250_000;
+    private static final int PROGRESS_EVERY = 250_000;
+    private static final String ID_PREFIX = "SYN-";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    // Stream ids, mixed into the seed so each table draws independently
+    private static final long PRODUCT_STREAM = 0x50524F44L;
+    private static final long USER_STREAM = 0x55534552L;
+    private static final long ORDER_STREAM = 0x4F524452L;
+
+    private static final String[] ADJECTIVES = {"Silent", "Golden", "Last", "Hidden", "Broken", "Endless", "Little",
+        "Midnight", "Distant", "Secret", "Wild", "Forgotten", "Crimson", "Quiet", "Bright", "Lost", "Winter", "Summer",
+        "Burning", "Gentle", "Final", "Northern", "Paper", "Electric", "Velvet", "Hollow", "Radiant", "Restless",
+        "Ancient", "Modern", "Practical", "Essential", "Complete", "Curious", "Invisible", "Savage", "Tender"};
+    private static final String[] NOUNS = {"River", "Garden", "City", "Kingdom", "Storm", "Heart", "Road", "House",
+        "Island", "Mountain", "Letter", "Dream", "Shadow", "Promise", "Mirror", "Journey", "Harbor", "Forest", "Song",
+        "Empire", "Lantern", "Machine", "Season", "Ocean", "Window", "Memory", "Horizon", "Signal", "Bridge", "Orchard",
+        "Algorithm", "Language", "History", "Guide", "Kitchen", "Century", "Revolution", "Universe", "Mind", "Market"};
+    private static final String[] PLACES = {"Hanoi", "Saigon", "Hue", "the North", "the Sea", "Tomorrow", "the Valley",
+        "Paris", "the Delta", "Ha Long Bay", "the Highlands", "Da Nang", "the Old Quarter", "the Mekong"};
+    private static final String[] FIRST_NAMES = {"An", "Binh", "Chi", "Dung", "Giang", "Ha", "Hai", "Hoa", "Hung",
+        "Huong", "Khanh", "Lan", "Linh", "Long", "Mai", "Minh", "Nam", "Ngoc", "Phong", "Phuong", "Quang", "Quynh",
+        "Son", "Thao", "Thu", "Trang", "Trung", "Tuan", "Van", "Vy", "Emma", "Liam", "Olivia", "Noah", "Sophia", "James",
+        "Mia", "Lucas", "Grace", "Daniel"};
+    private static final String[] LAST_NAMES = {"Nguyen", "Tran", "Le", "Pham", "Hoang", "Huynh", "Phan", "Vu", "Vo",
+        "Dang", "Bui", "Do", "Ho", "Ngo", "Duong", "Ly", "Smith", "Johnson", "Brown", "Garcia", "Miller", "Davis",
+        "Wilson", "Taylor", "Clark", "Walker"};
+    private static final String[] BOOK_GENRES = {"Fiction", "Mystery", "Science Fiction", "Fantasy", "Romance",
+        "History", "Biography", "Science", "Technology", "Business", "Self-Help", "Children", "Poetry", "Travel",
+        "Cooking"};
+    private static final String[] MUSIC_GENRES = {"Pop", "Rock", "Jazz", "Classical", "Hip Hop", "Electronic",
+        "Folk", "Blues", "R&B", "Country", "Indie", "Soundtrack", "Bolero", "V-Pop"};
+    private static final String[] FILM_GENRES = {"Action", "Drama", "Comedy", "Thriller", "Horror", "Animation",
+        "Documentary", "Romance", "Science Fiction", "Adventure", "Family", "War"};
+    private static final String[] PUBLISHERS = {"Kim Dong", "Tre Publishing", "Nha Nam", "Penguin", "HarperCollins",
+        "Vintage", "O'Reilly", "Simon & Schuster", "Alpha Books", "Macmillan", "Scholastic", "Hachette"};
+    private static final String[] LABELS = {"Blue Note", "Columbia", "Sony Music", "Universal", "Warner", "EMI",
+        "Decca", "Deutsche Grammophon", "Sub Pop", "Rough Trade", "Phuong Nam Film", "Hoa Sen"};
+    private static final String[] STUDIOS = {"Galaxy Studio", "BHD", "Warner Bros.", "Paramount", "Universal Pictures",
+        "Studio Ghibli", "A24", "Lionsgate", "CJ Entertainment", "HK Film", "Pixar", "Focus Features"};
+    private static final String[] LANGUAGES = {"Vietnamese", "English", "French", "Japanese", "Korean", "Chinese"};
+    private static final String[] COVER_TYPES = {"PAPERBACK", "HARDCOVER"};
+    private static final String[] DISC_TYPES = {"DVD", "BLU_RAY", "HD_DVD"};
+    private static final String[] SENTENCE_OPENERS = {"A sweeping story of", "An unflinching look at",
+        "The definitive collection of", "A celebrated tale of", "An intimate portrait of", "A bold new take on",
+        "The remastered edition of", "A timeless classic about", "A thrilling account of", "A practical introduction to"};
+    private static final String[] SENTENCE_CLOSERS = {"Loved by readers and critics alike.",
+        "Includes previously unreleased material.", "A must-have for every collection.",
+        "Winner of several international awards.", "Now available in a limited edition.",
+        "Perfect as a gift.", "Newly translated and annotated.", "Recorded live in front of a sold-out audience."};
+    private static final String[] PROVINCES = {"Hanoi", "Ho Chi Minh City", "Da Nang", "Hai Phong", "Can Tho",
+        "Hue", "Nha Trang", "Quang Ninh", "Bac Ninh", "Dong Nai", "Binh Duong", "Lam Dong"};
+    private static final String[] HANOI_DISTRICTS = {"Ba Dinh", "Hoan Kiem", "Tay Ho", "Long Bien", "Cau Giay",
+        "Dong Da", "Hai Ba Trung", "Hoang Mai", "Thanh Xuan"};
+    private static final String[] STREETS = {"Le Loi", "Tran Hung Dao", "Nguyen Hue", "Hai Ba Trung", "Ly Thuong Kiet",
+        "Le Duan", "Pham Ngu Lao", "Nguyen Trai", "Dien Bien Phu", "Vo Van Tan", "Kim Ma", "Xuan Thuy"};
+    private static final String[] INSTRUCTIONS = {"Call before delivery", "Leave with the building guard",
+        "Deliver after 6pm", "Do not ring the bell", "Office hours only"};
+
+    // Cumulative order status weights, in percent; open statuses only occur in the last OPEN_DAYS
+    private static final String[] STATUSES = {"DELIVERED", "SHIPPING", "APPROVED", "PENDING_PROCESSING",
+        "PENDING_PAYMENT", "PAYMENT_FAILED", "PENDING_DELIVERY_INFO", "CANCELLED", "REJECTED", "REFUNDED"};
+    private static final int[] STATUS_WEIGHTS = {62, 66, 70, 76, 80, 82, 83, 91, 94, 100};
+    private static final int OPEN_DAYS = 14;
+
+    private static final long INNER_CITY_FEE = Money.SCALE * 22_000;
+    private static final long OUTER_FEE = Money.SCALE * 30_000;
+    private static final long EXTRA_ITEM_FEE = Money.SCALE * 2_500;
+    private static final long RUSH_ITEM_FEE = Money.SCALE * 10_000;
+    private static final long FREE_SHIPPING_THRESHOLD = Money.SCALE * 100_000;
+    private static final long FREE_SHIPPING_CAP = Money.SCALE * 25_000;
+
+    /**
+     * Row counts of a finished generation.
+     */
+    public record Report(DatasetSpec spec, long products, long users, long orders, long orderItems,
+                         long deliveryInfos, long invoices, long transactions, long elapsedMillis) {
+
+        public long totalRows() {
+            return products * 2 + users * 3 + orders + orderItems + deliveryInfos + invoices + transactions;
+        }
+    }
+
+    private final DatasetSpec spec;
+    private final PrintStream progress;
+
+    // Per-product state the order pass needs, indexed like productId(i)
+    private long[] productPriceMinor;
+    private boolean[] productRushEligible;
+
+    public SyntheticDataGenerator(DatasetSpec spec) {
+        this(spec, null);
+    }
+
+    /**
+     * @param progress Where to print progress lines, or null for none
+     */
+    public SyntheticDataGenerator(DatasetSpec spec, PrintStream progress) {
+        this.spec = spec;
+        this.progress = progress;
+    }
+
+    public static String productId(int index) {
+        return id("P", index, 7);
+    }
+
+    public static String userId(int index) {
+        return id("U", index, 6);
+    }
+
+    public static String orderId(int index) {
+        return id("O", index, 8);
+    }
+
+    /**
+     * Nouns that appear in generated titles, for realistic search keywords.
+     */
+    public static List<String> titleWords() {
+        return List.of(NOUNS);
+    }
+
+    public static String username(int index) {
+        return "customer" + (index + 1);
+    }
+
+    private static String id(String kind, int index, int width) {
+        String digits = Integer.toString(index + 1);
+        StringBuilder sb = new StringBuilder(ID_PREFIX.length() + kind.length() + Math.max(width, digits.length()));
+        sb.append(ID_PREFIX).append(kind);
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    /**
+     * Generates the dataset into a new database file.
+     *
+     * @throws IllegalStateException if the file already exists
+     */
+    public static Report generate(DatasetSpec spec, Path dbFile, PrintStream progress) throws SQLException, IOException {
+        if (Files.exists(dbFile)) {
+            throw new IllegalStateException("Refusing to overwrite " + dbFile);
+        }
+        Path parent = dbFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile.toAbsolutePath())) {
+            return new SyntheticDataGenerator(spec, progress).generate(conn);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(dbFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the schema if it is missing and writes the dataset.
+     *
+     * @throws IllegalStateException if the database already holds products or orders
+     */
+    public Report generate(Connection conn) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        ensureSchema(conn);
+
+        boolean autoCommit = conn.getAutoCommit();
+        boolean foreignKeys = pragmaEnabled(conn, "foreign_keys");
+        try (Statement stmt = conn.createStatement()) {
+            // Bulk-load settings: parents are written before children, and the tests check integrity afterwards
+            stmt.execute("PRAGMA foreign_keys = OFF");
+            stmt.execute("PRAGMA synchronous = OFF");
+            stmt.execute("PRAGMA cache_size = -262144");
+            stmt.execute("PRAGMA temp_store = MEMORY");
+        }
+        conn.setAutoCommit(false);
+        try (Loader loader = new Loader(conn)) {
+            long products = writeProducts(loader);
+            long users = writeUsers(loader);
+            long[] orderCounts = writeOrders(loader);
+            loader.commit();
+            // The reports read the daily rollups, which the order writers would have kept up to date
+            int rolledUp = new ReportRollups().rebuild(conn, spec.firstOrderDay(), spec.firstOrderDay().plusDays(spec.days() - 1));
+            log("Rebuilt report rollups for " + rolledUp + " orders");
+            writeDatasetInfo(conn);
+            conn.commit();
+
+            Report report = new Report(spec, products, users, spec.orders(), orderCounts[0], orderCounts[1],
+                orderCounts[2], orderCounts[3], System.currentTimeMillis() - start);
+            log("Generated " + report.totalRows() + " rows in " + report.elapsedMillis() + " ms");
+            return report;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            productPriceMinor = null;
+            productRushEligible = null;
+            conn.setAutoCommit(autoCommit);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA synchronous = FULL");
+                stmt.execute("PRAGMA foreign_keys = " + (foreignKeys ? "ON" : "OFF"));
+            }
+        }
+    }
+
+    private void ensureSchema(Connection conn) throws SQLException, IOException {
+        boolean hasSchema;
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, "PRODUCT", null)) {
+            hasSchema = rs.next();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            if (!hasSchema) {
+                stmt.executeUpdate(Files.readString(Path.of(SCHEMA_DIR + "V1__create_tables.sql")));
+                stmt.executeUpdate(Files.readString(Path.of(SCHEMA_DIR + "V2__add_gateway_response_data.sql")));
+                return;
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT (SELECT COUNT(*) FROM PRODUCT) + (SELECT COUNT(*) FROM ORDER_ENTITY)")) {
+                if (rs.next() && rs.getLong(1) > 0) {
+                    throw new IllegalStateException("The database already holds products or orders");
+                }
+            }
+        }
+    }
+
+    private static boolean pragmaEnabled(Connection conn, String pragma) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private void writeDatasetInfo(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS DATASET_INFO (infoKey TEXT PRIMARY KEY, infoValue TEXT NOT NULL)");
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT OR REPLACE INTO DATASET_INFO (infoKey, infoValue) VALUES (?, ?)")) {
+            pstmt.setString(1, "spec");
+            pstmt.setString(2, spec.key());
+            pstmt.executeUpdate();
+        }
+    }
+
+    // ---------------------------------------------------------------- products
+
+    private long writeProducts(Loader loader) throws SQLException {
+        int count = spec.products();
+        productPriceMinor = new long[count];
+        productRushEligible = new boolean[count];
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ PRODUCT_STREAM);
+
+        Loader.Table product = loader.table("INSERT INTO PRODUCT (productID, title, category, value_amount, price, "
+            + "quantityInStock, description, imageURL, barcode, dimensions_cm, weight_kg, entryDate, productType) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        Loader.Table book = loader.table("INSERT INTO BOOK (productID, authors, coverType, publisher, publicationDate, "
+            + "numPages, language, book_genre) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Loader.Table cd = loader.table("INSERT INTO CD (productID, artists, recordLabel, tracklist, cd_genre, releaseDate) "
+            + "VALUES (?, ?, ?, ?, ?, ?)");
+        Loader.Table dvd = loader.table("INSERT INTO DVD (productID, discType, director, runtime_minutes, studio, "
+            + "dvd_language, subtitles, dvd_releaseDate, dvd_genre) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        Loader.Table lp = loader.table("INSERT INTO LP (productID, artists, recordLabel, tracklist, genre, releaseDate) "
+            + "VALUES (?, ?, ?, ?, ?, ?)");
+
+        LocalDate catalogueStart = spec.firstOrderDay().minusYears(3);
+        for (int i = 0; i < count; i++) {
+            String id = productId(i);
+            int typeRoll = random.nextInt(100);
+            String type = typeRoll < 40 ? "BOOK" : typeRoll < 65 ? "CD" : typeRoll < 85 ? "DVD" : "LP";
+            String genre = switch (type) {
+                case "BOOK" -> skewed(random, BOOK_GENRES);
+                case "DVD" -> skewed(random, FILM_GENRES);
+                default -> skewed(random, MUSIC_GENRES);
+            };
+            String title = title(random, type);
+
+            // Whole thousands of dong; the price sits within the allowed 30%-150% of value
+            int valueThousands = switch (type) {
+                case "BOOK" -> 40 + random.nextInt(460);
+                case "CD" -> 80 + random.nextInt(320);
+                case "DVD" -> 60 + random.nextInt(290);
+                default -> 200 + random.nextInt(1300);
+            };
+            long valueMinor = Money.SCALE * 1_000 * valueThousands;
+            long priceMinor = Money.percent(valueMinor, 10_000 + 500 * random.nextInt(9)) / (Money.SCALE * 1_000)
+                * (Money.SCALE * 1_000);
+            productPriceMinor[i] = priceMinor;
+            productRushEligible[i] = random.nextInt(4) != 0;
+
+            PreparedStatement p = product.statement();
+            p.setString(1, id);
+            p.setString(2, title);
+            p.setString(3, genre);
+            p.setDouble(4, Money.toDouble(valueMinor));
+            p.setDouble(5, Money.toDouble(priceMinor));
+            p.setInt(6, random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(200));
+            p.setString(7, description(random, title, genre));
+            p.setString(8, "https://images.aims.example/products/" + id + ".jpg");
+            p.setString(9, barcode(i));
+            p.setString(10, dimensions(random, type));
+            p.setFloat(11, weight(random, type));
+            p.setString(12, catalogueStart.plusDays(random.nextInt(365 * 3 + spec.days())).toString());
+            p.setString(13, type);
+            product.add();
+
+            LocalDate released = LocalDate.of(1960, 1, 1).plusDays(random.nextInt(365 * 64));
+            switch (type) {
+                case "BOOK" -> {
+                    PreparedStatement b = book.statement();
+                    b.setString(1, id);
+                    b.setString(2, personName(random) + (random.nextInt(5) == 0 ? ", " + personName(random) : ""));
+                    b.setString(3, COVER_TYPES[random.nextInt(COVER_TYPES.length)]);
+                    b.setString(4, skewed(random, PUBLISHERS));
+                    b.setString(5, released.toString());
+                    b.setInt(6, 80 + random.nextInt(900));
+                    b.setString(7, skewed(random, LANGUAGES));
+                    b.setString(8, genre);
+                    book.add();
+                }
+                case "DVD" -> {
+                    PreparedStatement d = dvd.statement();
+                    d.setString(1, id);
+                    d.setString(2, DISC_TYPES[random.nextInt(DISC_TYPES.length)]);
+                    d.setString(3, personName(random));
+                    d.setInt(4, 75 + random.nextInt(110));
+                    d.setString(5, skewed(random, STUDIOS));
+                    d.setString(6, skewed(random, LANGUAGES));
+                    d.setString(7, "Vietnamese, English");
+                    d.setString(8, released.toString());
+                    d.setString(9, genre);
+                    dvd.add();
+                }
+                default -> {
+                    Loader.Table music = type.equals("CD") ? cd : lp;
+                    PreparedStatement m = music.statement();
+                    m.setString(1, id);
+                    m.setString(2, personName(random));
+                    m.setString(3, skewed(random, LABELS));
+                    m.setString(4, tracklist(random, type.equals("CD") ? 8 + random.nextInt(10) : 6 + random.nextInt(8)));
+                    m.setString(5, genre);
+                    m.setString(6, released.toString());
+                    music.add();
+                }
+            }
+            logEvery(i + 1, count, "products");
+        }
+        return count;
+    }
+
+    private static String title(SplittableRandom random, String type) {
+        return switch (random.nextInt(5)) {
+            case 0 -> "The " + skewed(random, ADJECTIVES) + " " + skewed(random, NOUNS);
+            case 1 -> skewed(random, NOUNS) + " of " + skewed(random, PLACES);
+            case 2 -> type.equals("BOOK")
+                ? "A " + skewed(random, ADJECTIVES) + " History of the " + skewed(random, NOUNS)
+                : skewed(random, ADJECTIVES) + " " + skewed(random, NOUNS) + " (Live)";
+            case 3 -> skewed(random, ADJECTIVES) + " " + skewed(random, NOUNS) + " " + (2 + random.nextInt(4));
+            default -> "The " + skewed(random, NOUNS) + " and the " + skewed(random, NOUNS);
+        };
+    }
+
+    private static String description(SplittableRandom random, String title, String genre) {
+        return skewed(random, SENTENCE_OPENERS) + " the " + skewed(random, ADJECTIVES).toLowerCase() + " "
+            + skewed(random, NOUNS).toLowerCase() + " and the " + skewed(random, NOUNS).toLowerCase() + ", \""
+            + title + "\" is a standout of " + genre.toLowerCase() + ". " + skewed(random, SENTENCE_CLOSERS);
+    }
+
+    private static String tracklist(SplittableRandom random, int tracks) {
+        StringBuilder sb = new StringBuilder(tracks * 20);
+        for (int t = 1; t <= tracks; t++) {
+            if (t > 1) {
+                sb.append("; ");
+            }
+            sb.append(t).append(". ").append(skewed(random, ADJECTIVES)).append(' ').append(skewed(random, NOUNS));
+        }
+        return sb.toString();
+    }
+
+    private static String dimensions(SplittableRandom random, String type) {
+        return switch (type) {
+            case "BOOK" -> (18 + random.nextInt(8)) + "x" + (12 + random.nextInt(6)) + "x" + (1 + random.nextInt(5));
+            case "LP" -> "31x31x1";
+            default -> "19x14x1";
+        };
+    }
+
+    private static float weight(SplittableRandom random, String type) {
+        return switch (type) {
+            case "BOOK" -> 0.2f + random.nextInt(140) / 100f;
+            case "LP" -> 0.2f + random.nextInt(10) / 100f;
+            default -> 0.1f + random.nextInt(10) / 100f;
+        };
+    }
+
+    /**
+     * An EAN-13 with the Vietnamese 893 prefix; the index makes it unique.
+     */
+    private static String barcode(int index) {
+        String body = "893" + String.format("%09d", index);
+        int sum = 0;
+        for (int d = 0; d < 12; d++) {
+            sum += (body.charAt(d) - '0') * (d % 2 == 0 ? 1 : 3);
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+
+    // ------------------------------------------------------------------- users
+
+    private long writeUsers(Loader loader) throws SQLException {
+        int count = spec.users();
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ USER_STREAM);
+        String passwordHash = PasswordUtils.hashPassword(DEFAULT_PASSWORD);
+
+        Loader.Table role = loader.table("INSERT OR IGNORE INTO ROLE (roleID, roleName) VALUES (?, ?)");
+        for (String[] r : new String[][] {{"ADMIN", "Administrator"}, {"PRODUCT_MANAGER", "Product Manager"},
+                {"CUSTOMER", "Customer"}}) {
+            role.statement().setString(1, r[0]);
+            role.statement().setString(2, r[1]);
+            role.add();
+        }
+
+        Loader.Table user = loader.table("INSERT INTO USER_ACCOUNT (userID, username, password_hash, email, user_status) "
+            + "VALUES (?, ?, ?, ?, ?)");
+        Loader.Table assignment = loader.table("INSERT INTO USER_ROLE_ASSIGNMENT (userID, roleID) VALUES (?, 'CUSTOMER')");
+        Loader.Table method = loader.table("INSERT INTO PAYMENT_METHOD (paymentMethodID, methodType, userID, isDefault) "
+            + "VALUES (?, ?, ?, 1)");
+        for (int i = 0; i < count; i++) {
+            String id = userId(i);
+            String name = username(i);
+            PreparedStatement u = user.statement();
+            u.setString(1, id);
+            u.setString(2, name);
+            u.setString(3, passwordHash);
+            u.setString(4, skewed(random, FIRST_NAMES).toLowerCase() + "." + skewed(random, LAST_NAMES).toLowerCase()
+                + "." + name + "@example.com");
+            int statusRoll = random.nextInt(100);
+            u.setString(5, statusRoll < 94 ? "ACTIVE" : statusRoll < 97 ? "INACTIVE" : "SUSPENDED");
+            user.add();
+
+            assignment.statement().setString(1, id);
+            assignment.add();
+
+            PreparedStatement m = method.statement();
+            m.setString(1, paymentMethodId(i));
+            m.setString(2, random.nextInt(3) == 0 ? "DOMESTIC_DEBIT_CARD" : "CREDIT_CARD");
+            m.setString(3, id);
+            method.add();
+            logEvery(i + 1, count, "users");
+        }
+        return count;
+    }
+
+    private static String paymentMethodId(int userIndex) {
+        return id("M", userIndex, 6);
+    }
+
+    // ------------------------------------------------------------------ orders
+
+    /**
+     * @return order items, delivery infos, invoices and transactions written
+     */
+    private long[] writeOrders(Loader loader) throws SQLException {
+        int count = spec.orders();
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ ORDER_STREAM);
+
+        Loader.Table order = loader.table("INSERT INTO ORDER_ENTITY (orderID, userID, orderDate, order_status, "
+            + "totalProductPriceExclVAT, totalProductPriceInclVAT, calculatedDeliveryFee, totalAmountPaid) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Loader.Table item = loader.table("INSERT INTO ORDER_ITEM (orderID, productID, quantity, priceAtTimeOfOrder, "
+            + "isEligibleForRushDelivery) VALUES (?, ?, ?, ?, ?)");
+        Loader.Table delivery = loader.table("INSERT INTO DELIVERY_INFO (deliveryInfoID, orderID, recipientName, email, "
+            + "phoneNumber, deliveryProvinceCity, deliveryAddress, deliveryInstructions, deliveryMethodChosen, "
+            + "requestedRushDeliveryTime) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        Loader.Table invoice = loader.table("INSERT INTO INVOICE (invoiceID, orderID, invoiceDate, invoicedTotalAmount) "
+            + "VALUES (?, ?, ?, ?)");
+        Loader.Table transaction = loader.table("INSERT INTO PAYMENT_TRANSACTION (transactionID, orderID, paymentMethodID, "
+            + "transactionType, externalTransactionID, transaction_status, transactionDateTime, amount, transactionContent) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+        int products = spec.products();
+        int[] chosen = new int[spec.maxItemsPerOrder()];
+        int[] quantities = new int[spec.maxItemsPerOrder()];
+        boolean[] rush = new boolean[spec.maxItemsPerOrder()];
+        long transactions = 0;
+
+        for (int i = 0; i < count; i++) {
+            String id = orderId(i);
+            // Order volume grows over the range: density is linear in time, so the day is sqrt-distributed
+            int day = Math.min(spec.days() - 1, (int) (spec.days() * Math.sqrt((i + random.nextDouble()) / count)));
+            LocalDateTime placedAt = spec.firstOrderDay().plusDays(day).atTime(7, 0)
+                .plusSeconds(random.nextInt(16 * 3600));
+            boolean guest = random.nextInt(10) == 0;
+            int userIndex = guest ? -1 : popular(random, spec.users());
+            String status = status(random, day >= spec.days() - OPEN_DAYS);
+
+            String province = skewed(random, PROVINCES);
+            boolean innerCity = (province.equals("Hanoi") || province.equals("Ho Chi Minh City")) && random.nextInt(3) != 0;
+            boolean rushOrder = province.equals("Hanoi") && innerCity && random.nextInt(5) == 0;
+
+            int lines = 1 + (int) (spec.maxItemsPerOrder() * Math.pow(random.nextDouble(), 2));
+            lines = Math.min(lines, Math.min(spec.maxItemsPerOrder(), products));
+            long subtotalMinor = 0;
+            int rushItems = 0;
+            int units = 0;
+            for (int l = 0; l < lines; l++) {
+                int productIndex = popular(random, products);
+                for (int attempt = 0; contains(chosen, l, productIndex) && attempt < 8; attempt++) {
+                    productIndex = popular(random, products);
+                }
+                while (contains(chosen, l, productIndex)) {
+                    productIndex = (productIndex + 1) % products;
+                }
+                chosen[l] = productIndex;
+                int quantityRoll = random.nextInt(10);
+                quantities[l] = quantityRoll < 7 ? 1 : quantityRoll < 9 ? 2 : 3 + random.nextInt(3);
+                rush[l] = rushOrder && productRushEligible[productIndex];
+                subtotalMinor += Money.times(productPriceMinor[productIndex], quantities[l]);
+                units += quantities[l];
+                rushItems += rush[l] ? 1 : 0;
+            }
+
+            long feeMinor = (innerCity ? INNER_CITY_FEE : OUTER_FEE) + EXTRA_ITEM_FEE * Math.max(0, units - 3);
+            if (subtotalMinor > FREE_SHIPPING_THRESHOLD) {
+                feeMinor -= Math.min(feeMinor, FREE_SHIPPING_CAP);
+            }
+            feeMinor += RUSH_ITEM_FEE * rushItems;
+            long inclVatMinor = Money.withVat(subtotalMinor);
+            long paidMinor = inclVatMinor + feeMinor;
+
+            PreparedStatement o = order.statement();
+            o.setString(1, id);
+            if (guest) {
+                o.setNull(2, Types.VARCHAR);
+            } else {
+                o.setString(2, userId(userIndex));
+            }
+            o.setString(3, placedAt.format(TIMESTAMP));
+            o.setString(4, status);
+            o.setDouble(5, Money.toDouble(subtotalMinor));
+            o.setDouble(6, Money.toDouble(inclVatMinor));
+            o.setDouble(7, Money.toDouble(feeMinor));
+            o.setDouble(8, Money.toDouble(paidMinor));
+            order.add();
+
+            for (int l = 0; l < lines; l++) {
+                PreparedStatement it = item.statement();
+                it.setString(1, id);
+                it.setString(2, productId(chosen[l]));
+                it.setInt(3, quantities[l]);
+                it.setDouble(4, Money.toDouble(productPriceMinor[chosen[l]]));
+                it.setInt(5, rush[l] ? 1 : 0);
+                item.add();
+            }
+
+            if (status.equals("PENDING_DELIVERY_INFO")) {
+                logEvery(i + 1, count, "orders");
+                continue;
+            }
+            String recipient = personName(random);
+            PreparedStatement d = delivery.statement();
+            d.setString(1, id("D", i, 8));
+            d.setString(2, id);
+            d.setString(3, recipient);
+            d.setString(4, recipient.toLowerCase().replace(' ', '.') + (i % 1000) + "@example.com");
+            d.setString(5, "09" + (10_000_000 + random.nextInt(90_000_000)));
+            d.setString(6, province);
+            d.setString(7, (1 + random.nextInt(300)) + " " + skewed(random, STREETS) + " Street, "
+                + (province.equals("Hanoi") && innerCity ? skewed(random, HANOI_DISTRICTS) : "Ward " + (1 + random.nextInt(20)))
+                + " District");
+            d.setString(8, random.nextInt(4) == 0 ? skewed(random, INSTRUCTIONS) : null);
+            d.setString(9, rushItems > 0 ? "RUSH" : "STANDARD");
+            d.setString(10, rushItems > 0 ? placedAt.plusHours(2).format(TIMESTAMP) : null);
+            delivery.add();
+
+            String paymentStatus = switch (status) {
+                case "PENDING_PAYMENT" -> "PENDING";
+                case "PAYMENT_FAILED" -> "FAILED";
+                default -> "SUCCESS";
+            };
+            LocalDateTime paidAt = placedAt.plusMinutes(1 + random.nextInt(30));
+            String methodId = guest ? null : paymentMethodId(userIndex);
+            writeTransaction(transaction, id("T", i, 8) + "-P", id, methodId, "PAYMENT", paymentStatus, paidAt,
+                paidMinor, "Payment for order " + id);
+            transactions++;
+            if (!paymentStatus.equals("SUCCESS")) {
+                logEvery(i + 1, count, "orders");
+                continue;
+            }
+
+            PreparedStatement inv = invoice.statement();
+            inv.setString(1, id("I", i, 8));
+            inv.setString(2, id);
+            inv.setString(3, paidAt.format(TIMESTAMP));
+            inv.setDouble(4, Money.toDouble(paidMinor));
+            invoice.add();
+
+            if (status.equals("CANCELLED") || status.equals("REJECTED") || status.equals("REFUNDED")) {
+                writeTransaction(transaction, id("T", i, 8) + "-R", id, methodId, "REFUND", "SUCCESS",
+                    paidAt.plusHours(1 + random.nextInt(72)), paidMinor, "Refund for order " + id);
+                transactions++;
+            }
+            logEvery(i + 1, count, "orders");
+        }
+        return new long[] {item.rows(), delivery.rows(), invoice.rows(), transactions};
+    }
+
+    private static void writeTransaction(Loader.Table table, String transactionId, String orderId, String methodId,
+                                         String type, String status, LocalDateTime at, long amountMinor,
+                                         String content) throws SQLException {
+        PreparedStatement t = table.statement();
+        t.setString(1, transactionId);
+        t.setString(2, orderId);
+        if (methodId == null) {
+            t.setNull(3, Types.VARCHAR);
+        } else {
+            t.setString(3, methodId);
+        }
+        t.setString(4, type);
+        t.setString(5, status.equals("PENDING") ? null : "VNP" + transactionId.substring(ID_PREFIX.length() + 1));
+        t.setString(6, status);
+        t.setString(7, at.format(TIMESTAMP));
+        t.setDouble(8, Money.toDouble(amountMinor));
+        t.setString(9, content);
+        table.add();
+    }
+
+    private static String status(SplittableRandom random, boolean recent) {
+        int roll = random.nextInt(100);
+        int s = 0;
+        while (roll >= STATUS_WEIGHTS[s]) {
+            s++;
+        }
+        String status = STATUSES[s];
+        // Older orders have all reached a final status
+        if (!recent && s >= 1 && s <= 6) {
+            return s >= 4 ? "CANCELLED" : "DELIVERED";
+        }
+        return status;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int k = 0; k < length; k++) {
+            if (values[k] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ----------------------------------------------------------------- helpers
+
+    /**
+     * Picks an index with a heavy head: the most popular tenth of the range
+     * takes about a third of the picks. Ranks are scattered across the range,
+     * so popular rows are not clustered at the low ids.
+     */
+    private static int popular(SplittableRandom random, int size) {
+        double u = random.nextDouble();
+        long rank = (long) (size * u * u);
+        long scatter = size % 1_000_003 == 0 ? 1 : 1_000_003;
+        return (int) (rank * scatter % size);
+    }
+
+    /**
+     * Picks from a word list with a skew towards its head, so word frequencies
+     * in generated text are uneven the way natural text is.
+     */
+    private static String skewed(SplittableRandom random, String[] words) {
+        double u = random.nextDouble();
+        return words[(int) (words.length * u * u)];
+    }
+
+    private static String personName(SplittableRandom random) {
+        return skewed(random, FIRST_NAMES) + " " + skewed(random, LAST_NAMES);
+    }
+
+    private void logEvery(int done, int total, String what) {
+        if (progress != null && (done % PROGRESS_EVERY == 0 || done == total)) {
+            progress.printf("  %,d / %,d %s%n", done, total, what);
+        }
+    }
+
+    private void log(String message) {
+        if (progress != null) {
+            progress.println(message);
+        }
+    }
+
+    /**
+     * Batches inserts per statement and commits every ROWS_PER_TRANSACTION rows.
+     */
+    private static final class Loader implements AutoCloseable {
+
+        private final Connection conn;
+        private final List<Table> tables = new ArrayList<>();
+        private int rowsSinceCommit;
+
+        Loader(Connection conn) {
+            this.conn = conn;
+        }
+
+        Table table(String sql) throws SQLException {
+            Table table = new Table(conn.prepareStatement(sql));
+            tables.add(table);
+            return table;
+        }
+
+        void commit() throws SQLException {
+            for (Table table : tables) {
+                table.flush();
+            }
+            conn.commit();
+            rowsSinceCommit = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (Table table : tables) {
+                table.statement.close();
+            }
+        }
+
+        final class Table {
+
+            private final PreparedStatement statement;
+            private int pending;
+            private long rows;
+
+            private Table(PreparedStatement statement) {
+                this.statement = statement;
+            }
+
+            PreparedStatement statement() {
+                return statement;
+            }
+
+            long rows() {
+                return rows;
+            }
+
+            /** Adds the row bound on {@link #statement()} to the batch. */
+            void add() throws SQLException {
+                statement.addBatch();
+                rows++;
+                if (++pending >= BATCH_SIZE) {
+                    flush();
+                }
+                if (++rowsSinceCommit >= ROWS_PER_TRANSACTION) {
+                    commit();
+                }
+            }
+
+            private void flush() throws SQLException {
+                if (pending > 0) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+        }
+    }
+
+    // --------------------------------------------------------------------- CLI
+
+    /**
+     * Command line entry point.
+     *
+     * <pre>
+     * SyntheticDataGenerator --db &lt;file&gt; [--preset small|medium|production]
+     *     [--products N] [--users N] [--orders N] [--seed N] [--max-items N] [--days N] [--force]
+     * </pre>
+     *
+     * Explicit counts override the preset (default {@code small}).
+     */
+    public static void main(String[] args) {
+        Path db = null;
+        DatasetSpec base = DatasetSpec.SMALL;
+        Long seed = null;
+        Integer products = null;
+        Integer users = null;
+        Integer orders = null;
+        Integer maxItems = null;
+        Integer days = null;
+        boolean force = false;
+        try {
+            for (int a = 0; a < args.length; a++) {
+                String arg = args[a];
+                switch (arg) {
+                    case "--db" -> db = Path.of(value(args, ++a, arg));
+                    case "--preset" -> base = DatasetSpec.preset(value(args, ++a, arg));
+                    case "--seed" -> seed = Long.parseLong(value(args, ++a, arg));
+                    case "--products" -> products = Integer.parseInt(value(args, ++a, arg).replace("_", ""));
+                    case "--users" -> users = Integer.parseInt(value(args, ++a, arg).replace("_", ""));
+                    case "--orders" -> orders = Integer.parseInt(value(args, ++a, arg).replace("_", ""));
+                    case "--max-items" -> maxItems = Integer.parseInt(value(args, ++a, arg));
+                    case "--days" -> days = Integer.parseInt(value(args, ++a, arg));
+                    case "--force" -> force = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (db == null) {
+                throw new IllegalArgumentException("--db is required");
+            }
+            DatasetSpec spec = new DatasetSpec(seed != null ? seed : base.seed(),
+                products != null ? products : base.products(), users != null ? users : base.users(),
+                orders != null ? orders : base.orders(), maxItems != null ? maxItems : base.maxItemsPerOrder(),
+                base.firstOrderDay(), days != null ? days : base.days());
+
+            if (force) {
+                Files.deleteIfExists(db);
+            }
+            System.out.println("Generating " + spec + " into " + db.toAbsolutePath());
+            Report report = generate(spec, db, System.out);
+            System.out.printf("Done: %,d products, %,d users, %,d orders, %,d order items, %,d invoices, "
+                    + "%,d transactions in %.1f s%n", report.products(), report.users(), report.orders(),
+                report.orderItems(), report.invoices(), report.transactions(), report.elapsedMillis() / 1000.0);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SyntheticDataGenerator --db <file> [--preset small|medium|production] "
+                + "[--products N] [--users N] [--orders N] [--seed N] [--max-items N] [--days N] [--force]");
+            System.exit(2);
+        } catch (Exception e) {
+            System.err.println("Dataset generation failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[index];
+    }
+}
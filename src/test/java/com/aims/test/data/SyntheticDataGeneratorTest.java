@@ -0,0 +1,110 @@
+package com.aims.test.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+
+    private static final DatasetSpec SPEC = new DatasetSpec(7L, 300, 50, 800, 4, LocalDate.of(2024, 1, 1), 60);
+    private static final String[] TABLES = {"PRODUCT", "BOOK", "CD", "DVD", "LP", "USER_ACCOUNT", "USER_ROLE_ASSIGNMENT",
+        "PAYMENT_METHOD", "ORDER_ENTITY", "ORDER_ITEM", "DELIVERY_INFO", "INVOICE", "PAYMENT_TRANSACTION"};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generate_WritesConsistentDataset() throws Exception {
+        Path db = tempDir.resolve("dataset.db");
+        SyntheticDataGenerator.Report report = SyntheticDataGenerator.generate(SPEC, db, null);
+
+        assertEquals(300, report.products());
+        assertEquals(800, report.orders());
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db);
+             Statement stmt = conn.createStatement()) {
+            assertEquals(300, count(stmt, "SELECT COUNT(*) FROM PRODUCT"));
+            assertEquals(300, count(stmt, "SELECT (SELECT COUNT(*) FROM BOOK) + (SELECT COUNT(*) FROM CD) "
+                + "+ (SELECT COUNT(*) FROM DVD) + (SELECT COUNT(*) FROM LP)"), "One subtype row per product");
+            assertEquals(4, count(stmt, "SELECT COUNT(DISTINCT productType) FROM PRODUCT"));
+            assertEquals(50, count(stmt, "SELECT COUNT(*) FROM USER_ACCOUNT"));
+            assertEquals(800, count(stmt, "SELECT COUNT(*) FROM ORDER_ENTITY"));
+            assertEquals(report.orderItems(), count(stmt, "SELECT COUNT(*) FROM ORDER_ITEM"));
+            assertEquals(report.invoices(), count(stmt, "SELECT COUNT(*) FROM INVOICE"));
+            assertEquals(report.transactions(), count(stmt, "SELECT COUNT(*) FROM PAYMENT_TRANSACTION"));
+            assertTrue(report.orderItems() >= 800 && report.orderItems() <= 800 * 4);
+
+            try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+                assertFalse(rs.next(), "Every reference resolves");
+            }
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM ORDER_ENTITY o WHERE CAST(ROUND(o.totalProductPriceExclVAT * 100) AS INTEGER) "
+                + "<> (SELECT CAST(ROUND(SUM(i.quantity * i.priceAtTimeOfOrder) * 100) AS INTEGER) FROM ORDER_ITEM i WHERE i.orderID = o.orderID)"),
+                "Order subtotals are the sum of their items");
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM ORDER_ENTITY WHERE CAST(ROUND(totalAmountPaid * 100) AS INTEGER) "
+                + "<> CAST(ROUND(totalProductPriceInclVAT * 100) AS INTEGER) + CAST(ROUND(calculatedDeliveryFee * 100) AS INTEGER)"));
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM INVOICE v JOIN ORDER_ENTITY o ON o.orderID = v.orderID "
+                + "WHERE o.order_status IN ('PENDING_PAYMENT', 'PAYMENT_FAILED', 'PENDING_DELIVERY_INFO')"), "Only paid orders are invoiced");
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM ORDER_ENTITY WHERE orderDate < '2024-01-01' OR orderDate >= '2024-03-01'"));
+            assertEquals(800, count(stmt, "SELECT SUM(orders) FROM REPORT_DAILY_STATUS"), "The report rollups cover every order");
+            assertEquals(0, count(stmt, "SELECT COUNT(*) FROM (SELECT productID, SUM(quantity) AS units FROM ORDER_ITEM i "
+                + "JOIN ORDER_ENTITY o ON o.orderID = i.orderID WHERE o.order_status IN ('PENDING_PROCESSING', 'APPROVED', 'SHIPPING', 'DELIVERED') "
+                + "GROUP BY productID) s WHERE s.units <> (SELECT SUM(units) FROM REPORT_DAILY_PRODUCT r WHERE r.productID = s.productID)"));
+        }
+    }
+
+    @Test
+    void generate_IsDeterministicForASeed() throws Exception {
+        SyntheticDataGenerator.generate(SPEC, tempDir.resolve("a.db"), null);
+        SyntheticDataGenerator.generate(SPEC, tempDir.resolve("b.db"), null);
+        SyntheticDataGenerator.generate(SPEC.withSeed(8L), tempDir.resolve("c.db"), null);
+
+        String first = fingerprint(tempDir.resolve("a.db"));
+        assertEquals(first, fingerprint(tempDir.resolve("b.db")));
+        assertNotEquals(first, fingerprint(tempDir.resolve("c.db")));
+    }
+
+    @Test
+    void generate_RefusesToOverwriteAFile() throws Exception {
+        Path db = tempDir.resolve("dataset.db");
+        SyntheticDataGenerator.generate(SPEC, db, null);
+
+        assertThrows(IllegalStateException.class, () -> SyntheticDataGenerator.generate(SPEC, db, null));
+    }
+
+    private static long count(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private static String fingerprint(Path db) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db);
+             Statement stmt = conn.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " ORDER BY rowid")) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    while (rs.next()) {
+                        for (int c = 1; c <= meta.getColumnCount(); c++) {
+                            digest.update(String.valueOf(rs.getObject(c)).getBytes(StandardCharsets.UTF_8));
+                            digest.update((byte) 0);
+                        }
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
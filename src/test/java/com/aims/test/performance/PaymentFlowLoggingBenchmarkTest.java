@@ -0,0 +1,156 @@
+package com.aims.test.performance;
+
+import com.aims.core.entities.OrderEntity;
+import com.aims.core.enums.OrderStatus;
+import com.aims.core.presentation.utils.PaymentFlowLogger;
+import com.aims.core.shared.logging.LogSampler;
+import com.aims.core.shared.logging.StructuredLogWriter;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Checkout Logging Overhead Benchmark
+ *
+ * Runs the payment flow logging of a checkout (session, navigation, validation
+ * keystrokes, button states, order transition, payment result) around a small
+ * order total computation, and reports the caller-side latency per checkout
+ * with logging off, with the legacy synchronous text format and with the
+ * asynchronous sampled JSON writer. Every entry that was not sampled out must
+ * reach the log file (or be counted as dropped).
+ *
+ * The checkout itself is synthetic: a few float operations stand in for the
+ * order total, with no services, database or gateway involved. The numbers
+ * show the logging cost against a near-empty checkout, not the share of a
+ * real checkout's latency.
+ */
+public class PaymentFlowLoggingBenchmarkTest {
+
+    private static final int WARMUP_CHECKOUTS = 2_000;
+    private static final int MEASURED_CHECKOUTS = 5_000;
+    private static final int VALIDATION_KEYSTROKES = 20;
+    private static final int BUTTON_CHANGES = 6;
+    private static final String[] SCREENS = {"cart", "delivery_info", "order_summary", "payment_method", "payment_result"};
+    // start + navigations + keystrokes + buttons + transition + payment + performance + end
+    private static final int ENTRIES_PER_CHECKOUT = 1 + (SCREENS.length - 1) + VALIDATION_KEYSTROKES + BUTTON_CHANGES + 4;
+
+    @TempDir
+    Path tempDir;
+
+    private enum Mode { OFF, SYNC_TEXT, ASYNC_JSON_SAMPLED }
+
+    @Test
+    @DisplayName("Checkout latency with payment flow logging off")
+    void testLoggingOff() throws Exception {
+        run(Mode.OFF);
+    }
+
+    @Test
+    @DisplayName("Checkout latency with synchronous text logging (every entry)")
+    void testSyncTextLogging() throws Exception {
+        run(Mode.SYNC_TEXT);
+    }
+
+    @Test
+    @DisplayName("Checkout latency with asynchronous sampled JSON logging")
+    void testAsyncJsonSampledLogging() throws Exception {
+        run(Mode.ASYNC_JSON_SAMPLED);
+    }
+
+    private void run(Mode mode) throws Exception {
+        System.out.println("=== Checkout logging benchmark: " + mode + " ===");
+        Logger target = Logger.getLogger("com.aims.test.performance.checkout." + mode);
+        target.setUseParentHandlers(false);
+        FileHandler file = new FileHandler(tempDir.resolve("checkout-" + mode + ".log").toString());
+        file.setFormatter(new SimpleFormatter());
+        file.setLevel(Level.ALL);
+        target.addHandler(file);
+        target.setLevel(mode == Mode.OFF ? Level.OFF : Level.ALL);
+
+        StructuredLogWriter writer = new StructuredLogWriter(target,
+            mode == Mode.ASYNC_JSON_SAMPLED ? StructuredLogWriter.Format.JSON : StructuredLogWriter.Format.TEXT,
+            mode == Mode.ASYNC_JSON_SAMPLED, StructuredLogWriter.DEFAULT_BUFFER_SIZE);
+        LogSampler sampler = new LogSampler(mode == Mode.ASYNC_JSON_SAMPLED
+            ? Map.of("VAL", 10, "BTN", 10, "USR", 10) : Map.of());
+        PaymentFlowLogger flowLogger = new PaymentFlowLogger(writer, sampler);
+
+        try {
+            for (int i = 0; i < WARMUP_CHECKOUTS; i++) {
+                checkout(flowLogger, "WARM-" + i);
+            }
+            long[] latencies = new long[MEASURED_CHECKOUTS];
+            for (int i = 0; i < MEASURED_CHECKOUTS; i++) {
+                long start = System.nanoTime();
+                checkout(flowLogger, "ORD-" + i);
+                latencies[i] = System.nanoTime() - start;
+            }
+            assertTrue(writer.flush(30_000), "Buffered entries must be written");
+
+            int checkouts = WARMUP_CHECKOUTS + MEASURED_CHECKOUTS;
+            if (mode == Mode.OFF) {
+                assertEquals(0, writer.getWrittenCount(), "Nothing is written with logging off");
+                assertEquals(0, sampler.getSuppressedCount(), "Disabled entries are not even sampled");
+            } else {
+                long expected = (long) checkouts * ENTRIES_PER_CHECKOUT - sampler.getSuppressedCount();
+                assertEquals(expected, writer.getWrittenCount() + writer.getDroppedCount(),
+                    "Every entry kept by the sampler is written or counted as dropped");
+            }
+
+            Arrays.sort(latencies);
+            double meanMicros = Arrays.stream(latencies).average().orElse(0) / 1_000.0;
+            System.out.printf("%d checkouts: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                MEASURED_CHECKOUTS, meanMicros,
+                latencies[MEASURED_CHECKOUTS / 2] / 1_000.0,
+                latencies[(int) (MEASURED_CHECKOUTS * 0.99)] / 1_000.0,
+                latencies[MEASURED_CHECKOUTS - 1] / 1_000.0);
+            System.out.println(writer.getStatisticsSummary() + ", sampledOut=" + sampler.getSuppressedCount());
+        } finally {
+            flowLogger.shutdown();
+            target.removeHandler(file);
+            file.close();
+        }
+    }
+
+    private void checkout(PaymentFlowLogger flowLogger, String orderId) {
+        String sessionId = flowLogger.startPaymentFlowSession(orderId);
+
+        OrderEntity before = new OrderEntity(orderId, null, LocalDateTime.now(), OrderStatus.PENDING_PAYMENT, 0f, 0f, 0f, 0f);
+        for (int s = 1; s < SCREENS.length; s++) {
+            flowLogger.logNavigationStep(sessionId, SCREENS[s - 1], SCREENS[s], Map.of("items", 3));
+        }
+        StringBuilder typed = new StringBuilder();
+        for (int k = 0; k < VALIDATION_KEYSTROKES; k++) {
+            typed.append((char) ('a' + k % 26));
+            flowLogger.logValidationStep(sessionId, "recipient_name", true, "length " + typed.length(), null);
+        }
+        for (int b = 0; b < BUTTON_CHANGES; b++) {
+            flowLogger.logButtonStateChange(sessionId, "payButton", b % 2 == 0 ? "DISABLED" : "ENABLED",
+                b % 2 == 0 ? "ENABLED" : "DISABLED", "form validity changed");
+        }
+
+        // Synthetic stand-in for the checkout's own work: order totals with VAT and delivery fee
+        float exclVat = 0f;
+        for (int item = 1; item <= 3; item++) {
+            exclVat += item * 125_000f;
+        }
+        float inclVat = exclVat * 1.1f;
+        OrderEntity after = new OrderEntity(orderId, null, before.getOrderDate(), OrderStatus.PENDING_PROCESSING,
+            exclVat, inclVat, 30_000f, inclVat + 30_000f);
+
+        flowLogger.logOrderStateTransition(sessionId, before, after, "payment completed");
+        flowLogger.logPaymentProcessing(sessionId, "CREDIT_CARD", "00", true, Map.of("amount", after.getTotalAmountPaid()));
+        flowLogger.logPerformanceMetrics(sessionId, "checkout", Duration.ofMillis(12), null);
+        flowLogger.endPaymentFlowSession(sessionId, "completed");
+    }
+}
@@ -0,0 +1,119 @@
+package com.aims.test.performance;
+
+import com.aims.core.application.impl.ProductCatalogIndex;
+import com.aims.core.application.impl.ProductCatalogIndex.Page;
+import com.aims.core.application.impl.ProductCatalogIndex.Query;
+import com.aims.core.application.impl.ProductCatalogIndex.SortKey;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Catalogue Index Benchmark
+ *
+ * Runs the same filtered, sorted page queries (price range x stock x type x
+ * category x sort key) over a large catalogue as a stream over
+ * {@code List<Product>} and through the catalogue index, checks both return
+ * the same page, and prints the per-query latency of each.
+ */
+public class ProductCatalogIndexBenchmarkTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int QUERIES = 500;
+    private static final String[] CATEGORIES = {"Books", "Music", "Movies", "Electronics", "Kids"};
+    private static final ProductType[] TYPES = {ProductType.BOOK, ProductType.CD, ProductType.DVD, ProductType.OTHER};
+
+    @Test
+    void indexedQueriesMatchListFilteringAndAreFaster() throws Exception {
+        Random random = new Random(46);
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product("P" + i, "Product " + random.nextInt(PRODUCTS), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                0f, 1f + random.nextInt(50_000) / 100f, random.nextInt(5), null, null, null, null, 0.5f,
+                LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2_000)), TYPES[random.nextInt(TYPES.length)]);
+            products.add(product);
+        }
+
+        long buildStart = System.nanoTime();
+        ProductCatalogIndex index = ProductCatalogIndex.of(products);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        List<Query> queries = new ArrayList<>(QUERIES);
+        SortKey[] sortKeys = {SortKey.PRICE, SortKey.ENTRY_DATE, SortKey.QUANTITY};
+        for (int i = 0; i < QUERIES; i++) {
+            long min = 100L * random.nextInt(200);
+            queries.add(new Query(min, min + 100L * (50 + random.nextInt(200)), i % 2 == 0,
+                i % 3 == 0 ? null : TYPES[i % TYPES.length], i % 4 == 0 ? null : CATEGORIES[i % CATEGORIES.length],
+                sortKeys[i % sortKeys.length], i % 5 == 0, 20 * (i % 3), 20));
+        }
+
+        // Warm up both paths and check they agree
+        for (Query query : queries) {
+            Page page = index.query(query);
+            List<Product> expected = filter(products, query);
+            assertEquals(expected.size(), page.totalMatches(), "Match count for " + query);
+            assertEquals(expected.stream().skip(query.offset()).limit(query.limit()).map(p -> sortValue(p, query.sortKey())).toList(),
+                page.productIds().stream().map(id -> sortValue(products.get(Integer.parseInt(id.substring(1))), query.sortKey())).toList(),
+                "Page for " + query);
+        }
+
+        long listStart = System.nanoTime();
+        int listMatches = 0;
+        for (Query query : queries) {
+            List<Product> matches = filter(products, query);
+            listMatches += matches.stream().skip(query.offset()).limit(query.limit()).toList().size();
+        }
+        long listNanos = System.nanoTime() - listStart;
+
+        long indexStart = System.nanoTime();
+        int indexMatches = 0;
+        for (Query query : queries) {
+            indexMatches += index.query(query).productIds().size();
+        }
+        long indexNanos = System.nanoTime() - indexStart;
+
+        System.out.println("=== Catalogue Index Benchmark (" + PRODUCTS + " products, " + QUERIES + " queries) ===");
+        System.out.printf("Index build:         %.1f ms%n", buildNanos / 1e6);
+        System.out.printf("List<Product> scan:  %.1f us/query%n", listNanos / 1e3 / QUERIES);
+        System.out.printf("Catalogue index:     %.1f us/query%n", indexNanos / 1e3 / QUERIES);
+
+        assertEquals(listMatches, indexMatches);
+        assertTrue(indexNanos < listNanos, "The index should answer faster than scanning the list");
+    }
+
+    private static List<Product> filter(List<Product> products, Query query) {
+        Comparator<Product> order = switch (query.sortKey()) {
+            case PRICE -> Comparator.comparingLong(p -> minor(p.getPrice()));
+            case ENTRY_DATE -> Comparator.comparing(Product::getEntryDate);
+            default -> Comparator.comparingInt(Product::getQuantityInStock);
+        };
+        return products.stream()
+            .filter(p -> !query.inStockOnly() || p.getQuantityInStock() > 0)
+            .filter(p -> query.type() == null || p.getProductType() == query.type())
+            .filter(p -> query.category() == null || query.category().equals(p.getCategory()))
+            .filter(p -> query.minPriceMinor() == null || minor(p.getPrice()) >= query.minPriceMinor())
+            .filter(p -> query.maxPriceMinor() == null || minor(p.getPrice()) <= query.maxPriceMinor())
+            .sorted(query.descending() ? order.reversed() : order)
+            .toList();
+    }
+
+    private static Object sortValue(Product product, SortKey sortKey) {
+        return switch (sortKey) {
+            case PRICE -> minor(product.getPrice());
+            case ENTRY_DATE -> product.getEntryDate();
+            default -> product.getQuantityInStock();
+        };
+    }
+
+    private static long minor(float price) {
+        return Math.round(price * 100.0);
+    }
+}
@@ -0,0 +1,124 @@
+package com.aims.test.performance;
+
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.infrastructure.database.StatementCache;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.infrastructure.database.dao.ProductDAOImpl;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepared Statement Cache Benchmark
+ *
+ * Runs product lookups by ID and catalogue searches of rotating shapes
+ * (keyword x category x sort) against the same database with the statement
+ * cache disabled and enabled, checks both return the same results, and prints
+ * throughput and the cache hit rate.
+ */
+public class StatementCacheBenchmarkTest {
+
+    private static final int PRODUCTS = 2_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int SEARCHES = 2_000;
+    private static final String[] CATEGORIES = {"Books", "Music", "Movies", "Electronics"};
+    private static final String[] KEYWORDS = {null, "Product 1", "Product 2", "Special"};
+    private static final String[] SORTS = {"title", "price", "entryDate"};
+
+    @TempDir
+    Path tempDir;
+
+    private String dbUrl;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbUrl = "jdbc:sqlite:" + tempDir.resolve("aims_statement_cache_bench.db").toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        String schemaSql = Files.readString(Path.of("src/main/java/com/aims/core/infrastructure/database/scripts/V1__create_tables.sql"));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(schemaSql);
+        }
+        SQLiteConnector.getInstance().setConnection(connection);
+
+        IProductDAO productDAO = new ProductDAOImpl();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String title = (i % 10 == 0 ? "Special " : "") + "Product " + i;
+            productDAO.addBaseProduct(new Product("P" + i, title, CATEGORIES[i % CATEGORIES.length], 50f + i % 97, 60f + i % 97,
+                1 + i % 20, "Description " + i, null, null, null, 0.5f, null, ProductType.OTHER));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+        System.clearProperty("TEST_DB_URL");
+        System.clearProperty("aims.db.statementCacheSize");
+        SQLiteConnector.getInstance().setConnection(null);
+    }
+
+    @Test
+    @DisplayName("getById and search throughput with the statement cache off and on")
+    void testStatementCacheOffVersusOn() throws Exception {
+        List<String> uncachedResults = run(0);
+        List<String> cachedResults = run(StatementCache.DEFAULT_CAPACITY);
+
+        assertEquals(uncachedResults, cachedResults, "Caching must not change any result");
+        StatementCache cache = SQLiteConnector.getInstance().getStatementCache();
+        assertTrue(cache.getHitRate() > 0.95, "Repeated statements should be served from the cache: " + cache.getStatisticsSummary());
+    }
+
+    private List<String> run(int cacheSize) throws Exception {
+        System.out.println("=== Statement cache benchmark: capacity " + cacheSize + " ===");
+        System.setProperty("aims.db.statementCacheSize", String.valueOf(cacheSize));
+        // A fresh physical connection picks up the capacity
+        SQLiteConnector.getInstance().setConnection(DriverManager.getConnection(dbUrl));
+        IProductDAO productDAO = new ProductDAOImpl();
+        List<String> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            Product product = productDAO.getById("P" + (i * 7919 % PRODUCTS));
+            assertNotNull(product);
+            if (i % 1_000 == 0) {
+                results.add(product.getProductId() + ":" + product.getTitle());
+            }
+        }
+        long lookupNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            String keyword = KEYWORDS[i % KEYWORDS.length];
+            String category = i % 3 == 0 ? null : CATEGORIES[i % CATEGORIES.length];
+            String sort = SORTS[i % SORTS.length];
+            String order = i % 2 == 0 ? "ASC" : "DESC";
+            int count = productDAO.getSearchResultsCount(keyword, category);
+            List<Product> page = productDAO.searchProducts(keyword, category, sort, order, 1 + i % 3, 20);
+            if (i % 100 == 0) {
+                results.add(count + ":" + page.size() + ":" + (page.isEmpty() ? "-" : page.get(0).getProductId()));
+            }
+        }
+        long searchNanos = System.nanoTime() - start;
+
+        System.out.printf("getById: %d lookups in %d ms (%.0f ops/s)%n", LOOKUPS, lookupNanos / 1_000_000,
+            LOOKUPS * 1e9 / lookupNanos);
+        System.out.printf("search:  %d count+page searches in %d ms (%.0f ops/s)%n", SEARCHES, searchNanos / 1_000_000,
+            SEARCHES * 1e9 / searchNanos);
+        System.out.println(SQLiteConnector.getInstance().getStatementCache().getStatisticsSummary());
+        return results;
+    }
+}
@@ -0,0 +1,132 @@
+package com.aims.test.performance;
+
+import com.aims.core.application.impl.StockDecrementServiceImpl;
+import com.aims.core.application.services.IStockDecrementService;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+import com.aims.core.infrastructure.database.SQLiteConnector;
+import com.aims.core.infrastructure.database.dao.IProductDAO;
+import com.aims.core.infrastructure.database.dao.ProductDAOImpl;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hot-SKU Stock Decrement Benchmark
+ *
+ * Many concurrent buyers decrement the stock of a single product. Both
+ * decrement modes must sell exactly the available stock (no oversell, no lost
+ * updates); throughput and commit counts are printed for comparison.
+ */
+public class StockDecrementContentionBenchmarkTest {
+
+    private static final String PRODUCT_ID = "HOT-SKU";
+    private static final int INITIAL_STOCK = 800;
+    private static final int BUYER_THREADS = 200;
+    private static final int DECREMENTS_PER_BUYER = 5;
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private IProductDAO productDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dbFile = tempDir.resolve("aims_stock_bench.db");
+        String dbUrl = "jdbc:sqlite:" + dbFile.toAbsolutePath();
+        System.setProperty("TEST_DB_URL", dbUrl);
+        connection = DriverManager.getConnection(dbUrl);
+        SQLiteConnector.getInstance().setConnection(connection);
+
+        String schemaSql = Files.readString(Path.of("src/main/java/com/aims/core/infrastructure/database/scripts/V1__create_tables.sql"));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(schemaSql);
+        }
+
+        productDAO = new ProductDAOImpl();
+        productDAO.addBaseProduct(new Product(PRODUCT_ID, "Hot Product", "Electronics", 100f, 120f,
+            INITIAL_STOCK, null, null, null, null, 0, null, ProductType.OTHER));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+        System.clearProperty("TEST_DB_URL");
+        SQLiteConnector.getInstance().setConnection(null);
+    }
+
+    @Test
+    @DisplayName("Direct conditional decrements never oversell a hot product")
+    void testDirectMode_NoOversell() throws Exception {
+        runContention(IStockDecrementService.Mode.DIRECT);
+    }
+
+    @Test
+    @DisplayName("Group-commit decrements never oversell a hot product")
+    void testGroupCommitMode_NoOversell() throws Exception {
+        runContention(IStockDecrementService.Mode.GROUP_COMMIT);
+    }
+
+    private void runContention(IStockDecrementService.Mode mode) throws Exception {
+        System.out.println("=== Hot-SKU decrement benchmark: " + mode + " ===");
+        IStockDecrementService service = new StockDecrementServiceImpl(productDAO, mode);
+        ExecutorService buyers = Executors.newFixedThreadPool(BUYER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < BUYER_THREADS; t++) {
+                futures.add(buyers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DECREMENTS_PER_BUYER; i++) {
+                        IStockDecrementService.DecrementResult result = service.decrementStock(PRODUCT_ID, 1);
+                        if (result.isApplied()) {
+                            applied.incrementAndGet();
+                        } else {
+                            assertEquals(IStockDecrementService.DecrementResult.Status.INSUFFICIENT_STOCK, result.getStatus());
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            int totalRequests = BUYER_THREADS * DECREMENTS_PER_BUYER;
+            int expectedApplied = Math.min(INITIAL_STOCK, totalRequests);
+            assertEquals(expectedApplied, applied.get(), "Granted units must equal available stock");
+            assertEquals(totalRequests - expectedApplied, rejected.get());
+            assertEquals(INITIAL_STOCK - expectedApplied, productDAO.getById(PRODUCT_ID).getQuantityInStock(),
+                "Final stock must reflect exactly the granted units");
+
+            System.out.printf("%d requests in %d ms (%.0f req/s)%n", totalRequests, elapsedMs,
+                totalRequests * 1000.0 / Math.max(1, elapsedMs));
+            System.out.println(service.getStatisticsSummary());
+        } finally {
+            buyers.shutdownNow();
+            service.shutdown();
+        }
+    }
+}
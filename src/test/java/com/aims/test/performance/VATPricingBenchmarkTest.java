@@ -0,0 +1,163 @@
+package com.aims.test.performance;
+
+import com.aims.core.application.impl.VATCalculationServiceImpl;
+import com.aims.core.application.services.IVATCalculationService.ItemPriceBreakdown;
+import com.aims.core.application.services.IVATCalculationService.OrderPriceBreakdown;
+import com.aims.core.entities.OrderItem;
+import com.aims.core.entities.Product;
+import com.aims.core.enums.ProductType;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Order Pricing Benchmark
+ *
+ * Prices 100-line orders with calculateOrderPricingWithDelivery, and with the
+ * float implementation it replaced (float sums, each rounded through
+ * BigDecimal), checks both agree to the cent, and prints the time and heap
+ * allocation per order of each. The timings are reported, not asserted.
+ */
+public class VATPricingBenchmarkTest {
+
+    private static final int ORDERS = 200;
+    private static final int LINES = 100;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void minorUnitPricingMatchesFloatPricing() {
+        Random random = new Random(47);
+        List<List<OrderItem>> orders = new ArrayList<>(ORDERS);
+        for (int o = 0; o < ORDERS; o++) {
+            List<OrderItem> items = new ArrayList<>(LINES);
+            for (int i = 0; i < LINES; i++) {
+                // Whole-dong prices, as the catalogue holds them, with a few odd amounts
+                float price = i % 10 == 0 ? 1000 + random.nextInt(100_000) / 100f : 1000 * (1 + random.nextInt(500));
+                Product product = new Product("P" + o + "-" + i, "Product " + i, "Books", price, price, 10, null, null,
+                    null, null, 0.5f, null, ProductType.BOOK);
+                items.add(new OrderItem(null, product, 1 + random.nextInt(3), price, false));
+            }
+            orders.add(items);
+        }
+        VATCalculationServiceImpl service = new VATCalculationServiceImpl();
+        float deliveryFee = 22000f;
+
+        for (List<OrderItem> items : orders) {
+            OrderPriceBreakdown breakdown = service.calculateOrderPricingWithDelivery(items, deliveryFee);
+            LegacyTotals legacy = legacyPricing(items, deliveryFee);
+            assertEquals(exactTotal(items, deliveryFee).floatValue(), breakdown.getTotalAmount(), "Exact to the cent");
+            // Float sums drift by a few ulps over 100 lines
+            assertEquals(legacy.totalAmount, breakdown.getTotalAmount(), Math.ulp(breakdown.getTotalAmount()) * LINES);
+            assertTrue(service.validateOrderVATCalculations(breakdown));
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runLegacy(orders, deliveryFee);
+            runMinorUnits(service, orders, deliveryFee);
+        }
+
+        long legacyBytes = allocatedBytes();
+        long legacyStart = System.nanoTime();
+        double legacySink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            legacySink += runLegacy(orders, deliveryFee);
+        }
+        long legacyNanos = System.nanoTime() - legacyStart;
+        legacyBytes = allocatedBytes() - legacyBytes;
+
+        long minorBytes = allocatedBytes();
+        long minorStart = System.nanoTime();
+        double minorSink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            minorSink += runMinorUnits(service, orders, deliveryFee);
+        }
+        long minorNanos = System.nanoTime() - minorStart;
+        minorBytes = allocatedBytes() - minorBytes;
+
+        int priced = ORDERS * ROUNDS;
+        System.out.println("=== Order Pricing Benchmark (" + LINES + "-line orders, " + priced + " orders) ===");
+        System.out.printf("Float + BigDecimal rounding: %.1f us/order, %d bytes/order%n",
+            legacyNanos / 1e3 / priced, legacyBytes / priced);
+        System.out.printf("Long minor units:            %.1f us/order, %d bytes/order%n",
+            minorNanos / 1e3 / priced, minorBytes / priced);
+        System.out.println("Checksums: " + legacySink + " / " + minorSink);
+    }
+
+    private static double runMinorUnits(VATCalculationServiceImpl service, List<List<OrderItem>> orders, float deliveryFee) {
+        double sink = 0;
+        for (List<OrderItem> items : orders) {
+            sink += service.calculateOrderPricingWithDelivery(items, deliveryFee).getTotalAmount();
+        }
+        return sink;
+    }
+
+    private static double runLegacy(List<List<OrderItem>> orders, float deliveryFee) {
+        double sink = 0;
+        for (List<OrderItem> items : orders) {
+            sink += legacyPricing(items, deliveryFee).totalAmount;
+        }
+        return sink;
+    }
+
+    private record LegacyTotals(float subtotalExclVAT, float totalAmount, List<ItemPriceBreakdown> items) {
+    }
+
+    /**
+     * The float implementation of calculateOrderPricingWithDelivery, kept as the baseline.
+     */
+    private static LegacyTotals legacyPricing(List<OrderItem> items, float deliveryFee) {
+        List<ItemPriceBreakdown> itemBreakdowns = new ArrayList<>();
+        float subtotalExclVAT = 0;
+        float totalVATAmount = 0;
+        for (OrderItem item : items) {
+            int quantity = item.getQuantity();
+            float unitPriceExclVAT = item.getProduct().getPrice();
+            float unitVATAmount = legacyRound(unitPriceExclVAT * 0.10f);
+            float unitPriceInclVAT = legacyRound(unitPriceExclVAT * 1.10f);
+            float totalPriceExclVAT = legacyRound(unitPriceExclVAT * quantity);
+            float totalVATForItem = legacyRound(unitVATAmount * quantity);
+            float totalPriceInclVAT = legacyRound(unitPriceInclVAT * quantity);
+            itemBreakdowns.add(new ItemPriceBreakdown(item.getProduct().getId(), item.getProduct().getTitle(), quantity,
+                unitPriceExclVAT, unitVATAmount, unitPriceInclVAT, totalPriceExclVAT, totalVATForItem, totalPriceInclVAT));
+            subtotalExclVAT += totalPriceExclVAT;
+            totalVATAmount += totalVATForItem;
+        }
+        subtotalExclVAT = legacyRound(subtotalExclVAT);
+        totalVATAmount = legacyRound(totalVATAmount);
+        float subtotalInclVAT = legacyRound(subtotalExclVAT + totalVATAmount);
+        float totalAmount = legacyRound(subtotalInclVAT + legacyRound(deliveryFee));
+        return new LegacyTotals(subtotalExclVAT, totalAmount, itemBreakdowns);
+    }
+
+    /**
+     * The order total in decimal arithmetic: unit prices and unit VAT rounded to the cent, sums exact.
+     */
+    private static BigDecimal exactTotal(List<OrderItem> items, float deliveryFee) {
+        BigDecimal total = new BigDecimal(Float.toString(deliveryFee)).setScale(2, RoundingMode.HALF_UP);
+        for (OrderItem item : items) {
+            BigDecimal unit = new BigDecimal(Float.toString(item.getProduct().getPrice())).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal vat = unit.multiply(new BigDecimal("0.10")).setScale(2, RoundingMode.HALF_UP);
+            total = total.add(unit.add(vat).multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
+    private static float legacyRound(float price) {
+        return new BigDecimal(Float.toString(price)).setScale(2, RoundingMode.HALF_UP).floatValue();
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.aims.test.performance;
+
+import com.aims.core.infrastructure.adapters.external.payment_gateway.StubVNPayServer;
+import com.aims.core.infrastructure.adapters.external.payment_gateway.VNPayGatewayAdapter;
+import com.aims.core.infrastructure.adapters.external.payment_gateway.VNPayHttpClient;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VNPay Gateway Call Benchmark
+ *
+ * Runs transaction status queries through {@link VNPayGatewayAdapter} against a
+ * local stub of the VNPay merchant API with a fixed server-side latency, and
+ * reports throughput and per-call latency for blocking calls made one after
+ * the other and for asynchronous calls kept in flight concurrently over the
+ * shared pooled client.
+ */
+public class VNPayHttpClientBenchmarkTest {
+
+    private static final int WARMUP_CALLS = 50;
+    private static final int MEASURED_CALLS = 400;
+    private static final int IN_FLIGHT = 32;
+    private static final long SERVER_LATENCY_MILLIS = 20;
+
+    private StubVNPayServer stub;
+    private VNPayHttpClient httpClient;
+    private VNPayGatewayAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubVNPayServer();
+        stub.setLatencyMillis(SERVER_LATENCY_MILLIS);
+        httpClient = new VNPayHttpClient(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        adapter = new VNPayGatewayAdapter(httpClient, stub.getApiUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.shutdown();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Blocking status queries, one at a time")
+    void testSequentialBlockingQueries() throws Exception {
+        System.out.println("=== VNPay gateway benchmark: sequential blocking ===");
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            adapter.queryTransactionStatus("WARM_" + i, "WARM", LocalDateTime.now());
+        }
+
+        long[] latencies = new long[MEASURED_CALLS];
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long callStart = System.nanoTime();
+            Map<String, String> response = adapter.queryTransactionStatus("ORD_" + i, "ORD", LocalDateTime.now());
+            latencies[i] = System.nanoTime() - callStart;
+            assertEquals("00", response.get("vnp_ResponseCode"));
+        }
+        report(latencies, System.nanoTime() - start);
+    }
+
+    @Test
+    @DisplayName("Asynchronous status queries, up to 32 in flight")
+    void testConcurrentAsyncQueries() throws Exception {
+        System.out.println("=== VNPay gateway benchmark: async, " + IN_FLIGHT + " in flight ===");
+        runAsync(WARMUP_CALLS, new long[WARMUP_CALLS]);
+
+        long[] latencies = new long[MEASURED_CALLS];
+        long start = System.nanoTime();
+        runAsync(MEASURED_CALLS, latencies);
+        long elapsed = System.nanoTime() - start;
+
+        report(latencies, elapsed);
+        assertTrue(stub.getConnectionCount() <= IN_FLIGHT + 1,
+            "Connections are pooled, not opened per call: " + stub.getConnectionCount());
+    }
+
+    private void runAsync(int calls, long[] latencies) throws Exception {
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        List<CompletableFuture<Map<String, String>>> futures = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            inFlight.acquire();
+            int index = i;
+            long callStart = System.nanoTime();
+            futures.add(adapter.queryTransactionStatusAsync("ORD_" + i, "ORD", LocalDateTime.now())
+                .whenComplete((response, error) -> {
+                    latencies[index] = System.nanoTime() - callStart;
+                    inFlight.release();
+                }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        for (CompletableFuture<Map<String, String>> future : futures) {
+            assertEquals("00", future.join().get("vnp_ResponseCode"));
+        }
+    }
+
+    private void report(long[] latencies, long elapsedNanos) {
+        Arrays.sort(latencies);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%d calls in %.2f s: %.0f calls/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+            latencies.length, seconds, latencies.length / seconds,
+            latencies[latencies.length / 2] / 1_000_000.0,
+            latencies[(int) (latencies.length * 0.99)] / 1_000_000.0,
+            latencies[latencies.length - 1] / 1_000_000.0);
+        System.out.println("Stub server: " + stub.getRequestCount() + " requests over " + stub.getConnectionCount() + " connections");
+    }
+}
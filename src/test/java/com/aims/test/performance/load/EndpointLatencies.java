@@ -0,0 +1,95 @@
+package com.aims.test.performance.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint HDR latency histograms and error counts, shared by all
+ * virtual users of a run.
+ *
+ * Endpoints are keyed by method and route template
+ * ({@code GET /api/products/{id}}), so one histogram covers every product.
+ * Latencies are recorded in microseconds, up to a minute, to three
+ * significant digits.
+ */
+public class EndpointLatencies {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /**
+     * Summary of one endpoint, in milliseconds.
+     */
+    public record EndpointStats(long requests, long errors, double p50Millis, double p90Millis,
+                                double p99Millis, double p999Millis, double maxMillis, double meanMillis) {
+
+        public double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    /**
+     * Records one request. Failed requests are timed too, so slow failures show in the tail.
+     */
+    public void record(String endpoint, long elapsedNanos, boolean failed) {
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)), HIGHEST_TRACKABLE_MICROS);
+        histograms.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS))
+            .recordValue(micros);
+        if (failed) {
+            errors.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * @return per-endpoint statistics, sorted by endpoint
+     */
+    public Map<String, EndpointStats> snapshot() {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        histograms.forEach((endpoint, histogram) -> {
+            Histogram copy = histogram.copy();
+            LongAdder failed = errors.get(endpoint);
+            stats.put(endpoint, new EndpointStats(copy.getTotalCount(), failed != null ? failed.sum() : 0,
+                millis(copy.getValueAtPercentile(50)), millis(copy.getValueAtPercentile(90)),
+                millis(copy.getValueAtPercentile(99)), millis(copy.getValueAtPercentile(99.9)),
+                millis(copy.getMaxValue()), copy.getMean() / 1000.0));
+        });
+        return stats;
+    }
+
+    /**
+     * Writes each endpoint's full percentile distribution, in milliseconds, as
+     * an {@code .hgrm} file that the HdrHistogram plotter reads.
+     *
+     * @return the files written, by endpoint
+     */
+    public Map<String, Path> writeDistributions(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Map<String, Path> files = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Path file = dir.resolve(entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().copy().outputPercentileDistribution(out, 1000.0);
+            }
+            files.put(entry.getKey(), file);
+        }
+        return files;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
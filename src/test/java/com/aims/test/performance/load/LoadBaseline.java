@@ -0,0 +1,94 @@
+package com.aims.test.performance.load;
+
+import com.aims.test.performance.load.EndpointLatencies.EndpointStats;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stored per-endpoint latencies and error rates a load run is held to.
+ *
+ * A baseline is only comparable with runs of the same scenario (load
+ * profile and dataset), which {@link #scenario()} records.
+ */
+public record LoadBaseline(String scenario, Map<String, Entry> endpoints) {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    public record Entry(long requests, double p50Millis, double p99Millis, double errorRate) {
+    }
+
+    /**
+     * How far a run may drift from the baseline. A latency regresses when it
+     * exceeds the baseline by more than {@code latencyRatio} and by more than
+     * {@code slackMillis}, so sub-millisecond endpoints don't fail on noise.
+     */
+    public record Tolerance(double latencyRatio, double slackMillis, double errorRateIncrease) {
+
+        /**
+         * Reads {@code aims.load.tolerance} (default 0.25), {@code aims.load.slackMillis} (5)
+         * and {@code aims.load.errorRateIncrease} (0.01).
+         */
+        public static Tolerance fromSystemProperties() {
+            return new Tolerance(Double.parseDouble(System.getProperty("aims.load.tolerance", "0.25")),
+                Double.parseDouble(System.getProperty("aims.load.slackMillis", "5")),
+                Double.parseDouble(System.getProperty("aims.load.errorRateIncrease", "0.01")));
+        }
+    }
+
+    public static LoadBaseline of(String scenario, Map<String, EndpointStats> stats) {
+        Map<String, Entry> endpoints = new TreeMap<>();
+        stats.forEach((endpoint, s) -> endpoints.put(endpoint,
+            new Entry(s.requests(), s.p50Millis(), s.p99Millis(), s.errorRate())));
+        return new LoadBaseline(scenario, endpoints);
+    }
+
+    public static LoadBaseline read(Path file) throws IOException {
+        return GSON.fromJson(Files.readString(file, StandardCharsets.UTF_8), LoadBaseline.class);
+    }
+
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, GSON.toJson(this) + System.lineSeparator(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return one line per regression; empty if the run is within tolerance
+     */
+    public List<String> regressions(Map<String, EndpointStats> current, Tolerance tolerance) {
+        List<String> regressions = new ArrayList<>();
+        endpoints.forEach((endpoint, expected) -> {
+            EndpointStats actual = current.get(endpoint);
+            if (actual == null || actual.requests() == 0) {
+                regressions.add(endpoint + ": no requests recorded (baseline had " + expected.requests() + ")");
+                return;
+            }
+            checkLatency(regressions, endpoint, "p50", expected.p50Millis(), actual.p50Millis(), tolerance);
+            checkLatency(regressions, endpoint, "p99", expected.p99Millis(), actual.p99Millis(), tolerance);
+            if (actual.errorRate() > expected.errorRate() + tolerance.errorRateIncrease()) {
+                regressions.add(String.format("%s: error rate %.2f%% > baseline %.2f%% + %.2f%%", endpoint,
+                    actual.errorRate() * 100, expected.errorRate() * 100, tolerance.errorRateIncrease() * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String endpoint, String percentile, double expected,
+                                     double actual, Tolerance tolerance) {
+        if (actual > expected * (1 + tolerance.latencyRatio()) && actual - expected > tolerance.slackMillis()) {
+            regressions.add(String.format("%s: %s %.2f ms > baseline %.2f ms + %.0f%%", endpoint, percentile, actual,
+                expected, tolerance.latencyRatio() * 100));
+        }
+    }
+}
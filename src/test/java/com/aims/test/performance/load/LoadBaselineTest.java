@@ -0,0 +1,56 @@
+package com.aims.test.performance.load;
+
+import com.aims.test.performance.load.EndpointLatencies.EndpointStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBaselineTest {
+
+    private static final LoadBaseline.Tolerance TOLERANCE = new LoadBaseline.Tolerance(0.25, 5, 0.01);
+
+    private static EndpointStats stats(long requests, long errors, double p50, double p99) {
+        return new EndpointStats(requests, errors, p50, p50, p99, p99, p99, p50);
+    }
+
+    @Test
+    void roundTripsThroughJson(@TempDir Path dir) throws Exception {
+        LoadBaseline baseline = LoadBaseline.of("small", Map.of(UserJourney.BROWSE, stats(100, 1, 12.5, 80)));
+        Path file = dir.resolve("baseline.json");
+        baseline.write(file);
+
+        assertEquals(baseline, LoadBaseline.read(file));
+    }
+
+    @Test
+    void flagsOnlyDriftBeyondTolerance() {
+        LoadBaseline baseline = LoadBaseline.of("small", Map.of(
+            UserJourney.BROWSE, stats(100, 0, 20, 100),
+            UserJourney.SEARCH, stats(100, 0, 1, 2),
+            UserJourney.PAY, stats(100, 0, 30, 60)));
+
+        List<String> regressions = baseline.regressions(Map.of(
+            UserJourney.BROWSE, stats(100, 0, 24, 140),   // p99 40% slower
+            UserJourney.SEARCH, stats(100, 0, 2, 4),      // doubled, but within the slack
+            UserJourney.PAY, stats(100, 5, 30, 60)), TOLERANCE);
+
+        assertEquals(2, regressions.size(), regressions.toString());
+        assertTrue(regressions.get(0).startsWith(UserJourney.BROWSE + ": p99"));
+        assertTrue(regressions.get(1).startsWith(UserJourney.PAY + ": error rate"));
+    }
+
+    @Test
+    void flagsEndpointsWithoutRequests() {
+        LoadBaseline baseline = LoadBaseline.of("small", Map.of(UserJourney.PAYMENT_CALLBACK, stats(50, 0, 5, 10)));
+
+        List<String> regressions = baseline.regressions(Map.of(), TOLERANCE);
+
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).contains("no requests"));
+    }
+}
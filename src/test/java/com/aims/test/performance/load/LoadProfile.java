@@ -0,0 +1,47 @@
+package com.aims.test.performance.load;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load run: how many virtual users, how fast they arrive, how
+ * long they keep replaying journeys and how long they pause between steps.
+ *
+ * Every field can be set with a system property (see {@link #fromSystemProperties()}).
+ *
+ * @param virtualUsers  Concurrent users, each replaying journeys back to back
+ * @param rampUp        Time over which the users start, evenly spaced
+ * @param duration      Measured time after the ramp; journeys in flight at the end finish
+ * @param thinkTimeMin  Lower bound of the pause after each step
+ * @param thinkTimeMax  Upper bound of the pause after each step
+ * @param seed          Seed for each user's choices (user n uses seed + n)
+ */
+public record LoadProfile(int virtualUsers, Duration rampUp, Duration duration,
+                          Duration thinkTimeMin, Duration thinkTimeMax, long seed) {
+
+    public LoadProfile {
+        if (virtualUsers < 1) {
+            throw new IllegalArgumentException("At least one virtual user is required");
+        }
+        if (rampUp.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("rampUp must not be negative and duration must be positive");
+        }
+        if (thinkTimeMin.isNegative() || thinkTimeMax.compareTo(thinkTimeMin) < 0) {
+            throw new IllegalArgumentException("Think time bounds must satisfy 0 <= min <= max");
+        }
+    }
+
+    /**
+     * Reads {@code aims.load.users} (default 50), {@code aims.load.rampSeconds} (10),
+     * {@code aims.load.durationSeconds} (60), {@code aims.load.thinkMillisMin} (100),
+     * {@code aims.load.thinkMillisMax} (500) and {@code aims.load.seed} (49).
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+            Integer.getInteger("aims.load.users", 50),
+            Duration.ofSeconds(Long.getLong("aims.load.rampSeconds", 10)),
+            Duration.ofSeconds(Long.getLong("aims.load.durationSeconds", 60)),
+            Duration.ofMillis(Long.getLong("aims.load.thinkMillisMin", 100)),
+            Duration.ofMillis(Long.getLong("aims.load.thinkMillisMax", 500)),
+            Long.getLong("aims.load.seed", 49));
+    }
+}
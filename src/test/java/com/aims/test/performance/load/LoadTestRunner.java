@@ -0,0 +1,187 @@
+package com.aims.test.performance.load;
+
+import com.aims.test.data.SyntheticDataGenerator;
+import com.aims.test.performance.load.EndpointLatencies.EndpointStats;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless REST load runner
+ *
+ * Starts {@link LoadProfile#virtualUsers()} virtual users, evenly spaced over
+ * the ramp, and has each replay {@link UserJourney guest checkouts} until the
+ * measured window ends. Requests made during the ramp warm the server up and
+ * are not recorded; journeys in flight when the window closes run to the end.
+ *
+ * Usage against a running server:
+ * {@code LoadTestRunner --target http://localhost:8080 [--baseline file] [--out dir]},
+ * with the profile set through the {@code aims.load.*} system properties.
+ * {@code RestApiLoadTest} boots the API on a generated dataset instead.
+ */
+public class LoadTestRunner {
+
+    /**
+     * Outcome of a run.
+     *
+     * @param endpoints Per-endpoint statistics over the measured window
+     * @param elapsed   Length of the measured window, including journeys finishing after it
+     */
+    public record Result(LoadProfile profile, Map<String, EndpointStats> endpoints, long journeysStarted,
+                         long journeysCompleted, Duration elapsed) {
+
+        public long requests() {
+            return endpoints.values().stream().mapToLong(EndpointStats::requests).sum();
+        }
+
+        public long errors() {
+            return endpoints.values().stream().mapToLong(EndpointStats::errors).sum();
+        }
+
+        public double requestsPerSecond() {
+            return requests() / Math.max(0.001, elapsed.toMillis() / 1000.0);
+        }
+    }
+
+    private final String baseUrl;
+    private final LoadProfile profile;
+    private final List<String> keywords;
+
+    public LoadTestRunner(String baseUrl, LoadProfile profile, List<String> keywords) {
+        this.baseUrl = baseUrl;
+        this.profile = profile;
+        this.keywords = List.copyOf(keywords);
+    }
+
+    /**
+     * Runs the profile and records into {@code latencies}.
+     */
+    public Result run(EndpointLatencies latencies) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        EndpointLatencies warmup = new EndpointLatencies();
+        AtomicLong started = new AtomicLong();
+        AtomicLong completed = new AtomicLong();
+
+        long runStart = System.nanoTime();
+        long measureStart = runStart + profile.rampUp().toNanos();
+        long measureEnd = measureStart + profile.duration().toNanos();
+        int users = profile.virtualUsers();
+
+        ExecutorService pool = Executors.newFixedThreadPool(users, runnable -> {
+            Thread thread = new Thread(runnable, "load-user");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> running = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            int virtualUser = u;
+            long startAt = runStart + profile.rampUp().toNanos() * u / users;
+            running.add(pool.submit(() -> {
+                UserJourney journey = new UserJourney(client, baseUrl, profile, keywords, virtualUser);
+                try {
+                    sleepUntil(startAt);
+                    for (long now = System.nanoTime(); now < measureEnd; now = System.nanoTime()) {
+                        boolean measured = now >= measureStart;
+                        if (measured) {
+                            started.incrementAndGet();
+                        }
+                        if (journey.run(measured ? latencies : warmup) && measured) {
+                            completed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        try {
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A virtual user failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        Duration elapsed = Duration.ofNanos(Math.max(0, System.nanoTime() - measureStart));
+        return new Result(profile, latencies.snapshot(), started.get(), completed.get(), elapsed);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long wait = nanoTime - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Prints the per-endpoint latency table and totals.
+     */
+    public static void printReport(Result result, PrintStream out) {
+        LoadProfile p = result.profile();
+        out.println("=== REST API Load Test (" + p.virtualUsers() + " users, " + p.rampUp().toSeconds() + "s ramp, "
+            + p.duration().toSeconds() + "s measured, " + p.thinkTimeMin().toMillis() + "-" + p.thinkTimeMax().toMillis()
+            + "ms think time) ===");
+        out.printf("%-42s %8s %7s %9s %9s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "p50 ms", "p90 ms", "p99 ms",
+            "p99.9 ms", "max ms");
+        result.endpoints().forEach((endpoint, s) -> out.printf("%-42s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            endpoint, s.requests(), s.errors(), s.p50Millis(), s.p90Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis()));
+        out.printf("Journeys: %d started, %d completed; %d requests, %d errors, %.1f requests/s%n",
+            result.journeysStarted(), result.journeysCompleted(), result.requests(), result.errors(),
+            result.requestsPerSecond());
+    }
+
+    /**
+     * Command line entry point; exits with status 1 on a baseline regression.
+     */
+    public static void main(String[] args) throws Exception {
+        String target = null;
+        Path baseline = null;
+        Path out = Path.of("target", "load-test");
+        for (int a = 0; a < args.length; a++) {
+            switch (args[a]) {
+                case "--target" -> target = args[++a];
+                case "--baseline" -> baseline = Path.of(args[++a]);
+                case "--out" -> out = Path.of(args[++a]);
+                default -> {
+                    System.err.println("Usage: LoadTestRunner --target <base URL> [--baseline file] [--out dir]");
+                    System.exit(2);
+                }
+            }
+        }
+        if (target == null) {
+            System.err.println("--target is required");
+            System.exit(2);
+        }
+
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        EndpointLatencies latencies = new EndpointLatencies();
+        Result result = new LoadTestRunner(target, profile, SyntheticDataGenerator.titleWords()).run(latencies);
+        printReport(result, System.out);
+        latencies.writeDistributions(out);
+
+        if (baseline != null) {
+            List<String> regressions = LoadBaseline.read(baseline).regressions(result.endpoints(),
+                LoadBaseline.Tolerance.fromSystemProperties());
+            regressions.forEach(System.out::println);
+            System.exit(regressions.isEmpty() ? 0 : 1);
+        }
+    }
+}
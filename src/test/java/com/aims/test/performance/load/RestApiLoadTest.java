@@ -0,0 +1,104 @@
+package com.aims.test.performance.load;
+
+import com.aims.core.AimsWebApiApplication;
+import com.aims.test.data.GeneratedDataset;
+import com.aims.test.data.GeneratedDatasetExtension;
+import com.aims.test.data.SyntheticDataGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test of the REST API: boots the web API on a generated dataset and
+ * replays guest checkouts against it with {@link LoadTestRunner}.
+ *
+ * Only runs with {@code -Daims.load.enabled=true}, which the {@code load-test}
+ * Maven profile sets: {@code mvn test -Pload-test}. Percentile distributions
+ * and the run summary are written to {@code target/load-test}.
+ *
+ * The run is compared with the baseline in {@code aims.load.baseline}
+ * (default {@code src/test/resources/load/rest-api-baseline.json}); run with
+ * {@code -Daims.load.updateBaseline=true} to record it. Without a baseline the
+ * run writes a candidate next to its results and fails.
+ */
+@GeneratedDataset(preset = "small")
+@EnabledIfSystemProperty(named = "aims.load.enabled", matches = "true")
+class RestApiLoadTest {
+
+    private static final Path OUTPUT_DIR = Path.of("target", "load-test");
+
+    private static ConfigurableApplicationContext context;
+    private static int port;
+
+    @BeforeAll
+    static void startServer(@TempDir Path jpaDir) {
+        // The JPA side recreates its schema on start, so keep it off the dataset file
+        context = new SpringApplicationBuilder(AimsWebApiApplication.class)
+            .headless(true)
+            .run("--server.port=0",
+                "--spring.datasource.url=jdbc:sqlite:" + jpaDir.resolve("jpa.db").toAbsolutePath(),
+                "--logging.level.root=WARN");
+        port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void guestCheckoutsStayWithinBaseline(GeneratedDatasetExtension.Dataset dataset) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        EndpointLatencies latencies = new EndpointLatencies();
+        LoadTestRunner.Result result = new LoadTestRunner("http://localhost:" + port, profile,
+            SyntheticDataGenerator.titleWords()).run(latencies);
+
+        LoadTestRunner.printReport(result, System.out);
+        latencies.writeDistributions(OUTPUT_DIR);
+        String scenario = scenario(profile, dataset);
+        LoadBaseline current = LoadBaseline.of(scenario, result.endpoints());
+        current.write(OUTPUT_DIR.resolve("summary.json"));
+
+        assertTrue(result.journeysCompleted() > 0, "No journey completed; see the error counts above");
+
+        Path baselineFile = Path.of(System.getProperty("aims.load.baseline",
+            "src/test/resources/load/rest-api-baseline.json"));
+        if (Boolean.getBoolean("aims.load.updateBaseline")) {
+            current.write(baselineFile);
+            System.out.println("Baseline recorded to " + baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            Path candidate = OUTPUT_DIR.resolve("baseline-candidate.json");
+            current.write(candidate);
+            // Passing here would let every run pass until someone remembers to record one
+            fail("No baseline at " + baselineFile + "; candidate written to " + candidate
+                + ". Review it and commit it there, or record one with -Daims.load.updateBaseline=true");
+        }
+
+        LoadBaseline baseline = LoadBaseline.read(baselineFile);
+        assertEquals(baseline.scenario(), scenario,
+            "Baseline was recorded for another scenario; re-record it with -Daims.load.updateBaseline=true");
+        List<String> regressions = baseline.regressions(result.endpoints(), LoadBaseline.Tolerance.fromSystemProperties());
+        assertTrue(regressions.isEmpty(), "Regressions against " + baselineFile + ":\n" + String.join("\n", regressions));
+    }
+
+    private static String scenario(LoadProfile p, GeneratedDatasetExtension.Dataset dataset) {
+        return dataset.spec().key() + "/users=" + p.virtualUsers() + ",ramp=" + p.rampUp().toSeconds()
+            + "s,duration=" + p.duration().toSeconds() + "s,think=" + p.thinkTimeMin().toMillis() + "-"
+            + p.thinkTimeMax().toMillis() + "ms,seed=" + p.seed();
+    }
+}
@@ -0,0 +1,233 @@
+package com.aims.test.performance.load;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * One virtual user's guest checkout, replayed over HTTP:
+ * browse, search, view products, create a cart and add items, create the
+ * order, add delivery info, pay through the stub gateway and deliver its
+ * payment notification.
+ *
+ * Every request is timed into an {@link EndpointLatencies}. A failed step ends
+ * the journey, since the later steps depend on its response.
+ */
+class UserJourney {
+
+    static final String BROWSE = "GET /api/products/browse";
+    static final String SEARCH = "GET /api/products/search";
+    static final String PRODUCT = "GET /api/products/{id}";
+    static final String CREATE_CART = "POST /api/cart/create";
+    static final String ADD_TO_CART = "POST /api/cart/{sessionId}/items";
+    static final String CREATE_ORDER = "POST /api/orders/from-cart";
+    static final String DELIVERY_INFO = "POST /api/orders/{orderId}/delivery";
+    static final String PAY = "POST /api/payments/process";
+    static final String PAYMENT_CALLBACK = "POST /api/payments/transactions/callback";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] PRODUCT_TYPES = {"BOOK", "CD", "DVD", "LP"};
+    private static final String[] SORT_KEYS = {"price", "title", "entryDate"};
+    private static final String[] PROVINCES = {"Hanoi", "Ho Chi Minh City", "Da Nang", "Hai Phong", "Can Tho"};
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadProfile profile;
+    private final List<String> keywords;
+    private final SplittableRandom random;
+    private final int virtualUser;
+    private final Gson gson = new Gson();
+    private EndpointLatencies latencies;
+    private int journeys;
+
+    UserJourney(HttpClient client, String baseUrl, LoadProfile profile, List<String> keywords, int virtualUser) {
+        this.client = client;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.profile = profile;
+        this.keywords = keywords;
+        this.virtualUser = virtualUser;
+        this.random = new SplittableRandom(profile.seed() + virtualUser);
+    }
+
+    /**
+     * Runs one journey.
+     *
+     * @param latencies Where to record the journey's requests
+     * @return true if every step succeeded
+     */
+    boolean run(EndpointLatencies latencies) throws InterruptedException {
+        this.latencies = latencies;
+        journeys++;
+        List<String> candidates = new ArrayList<>();
+
+        JsonObject page = get(BROWSE, "/api/products/browse?productType=" + pick(PRODUCT_TYPES)
+            + "&sortBy=" + pick(SORT_KEYS) + "&sortOrder=" + (random.nextBoolean() ? "ASC" : "DESC")
+            + "&page=" + (1 + random.nextInt(5)) + "&pageSize=20");
+        if (page == null) {
+            return false;
+        }
+        collectProductIds(page, candidates);
+        think();
+
+        JsonObject results = get(SEARCH, "/api/products/search?keyword="
+            + URLEncoder.encode(keywords.get(random.nextInt(keywords.size())), StandardCharsets.UTF_8) + "&page=1&pageSize=20");
+        if (results == null) {
+            return false;
+        }
+        collectProductIds(results, candidates);
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        think();
+
+        List<String> chosen = new ArrayList<>();
+        int items = 1 + random.nextInt(3);
+        for (int i = 0; i < items; i++) {
+            String productId = candidates.get(random.nextInt(candidates.size()));
+            if (!chosen.contains(productId)) {
+                if (get(PRODUCT, "/api/products/" + productId) == null) {
+                    return false;
+                }
+                chosen.add(productId);
+                think();
+            }
+        }
+
+        JsonObject cart = post(CREATE_CART, "/api/cart/create", Map.of());
+        String sessionId = dataString(cart, "cartSessionId");
+        if (sessionId == null) {
+            return false;
+        }
+        for (String productId : chosen) {
+            if (post(ADD_TO_CART, "/api/cart/" + sessionId + "/items", Map.of("productId", productId, "quantity", 1)) == null) {
+                return false;
+            }
+        }
+        think();
+
+        Map<String, Object> orderRequest = new LinkedHashMap<>();
+        orderRequest.put("cartSessionId", sessionId);
+        orderRequest.put("userId", null);
+        String orderId = dataString(post(CREATE_ORDER, "/api/orders/from-cart", orderRequest), "orderId");
+        if (orderId == null) {
+            return false;
+        }
+        think();
+
+        String recipient = "Load User " + virtualUser;
+        Map<String, Object> deliveryInfo = new LinkedHashMap<>();
+        deliveryInfo.put("recipientName", recipient);
+        deliveryInfo.put("email", "load.user" + virtualUser + "@example.com");
+        deliveryInfo.put("phoneNumber", "09" + (10_000_000 + random.nextInt(90_000_000)));
+        deliveryInfo.put("deliveryProvinceCity", pick(PROVINCES));
+        deliveryInfo.put("deliveryAddress", (1 + random.nextInt(300)) + " Le Loi Street, Ward " + (1 + random.nextInt(20)));
+        deliveryInfo.put("deliveryMethodChosen", "STANDARD");
+        if (post(DELIVERY_INFO, "/api/orders/" + orderId + "/delivery",
+                Map.of("deliveryInfo", deliveryInfo, "rushOrder", false)) == null) {
+            return false;
+        }
+        think();
+
+        // A per-journey VNPay method, as the web checkout creates one
+        JsonObject payment = post(PAY, "/api/payments/process",
+            Map.of("orderId", orderId, "paymentMethodId", "VNPAY_TEMP_LOAD_" + virtualUser + "_" + journeys));
+        String txnRef = dataString(payment, "externalTransactionId");
+        if (txnRef == null) {
+            return false;
+        }
+
+        // The gateway's notification once the customer has paid
+        Map<String, Object> callback = new LinkedHashMap<>();
+        callback.put("gatewayTransactionRef", txnRef);
+        callback.put("responseCode", "00");
+        callback.put("gatewayMessage", "Success");
+        callback.put("secureHash", "stub");
+        return post(PAYMENT_CALLBACK, "/api/payments/transactions/callback", callback) != null;
+    }
+
+    private JsonObject get(String endpoint, String path) throws InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build());
+    }
+
+    private JsonObject post(String endpoint, String path, Map<String, ?> body) throws InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body)))
+            .build());
+    }
+
+    /**
+     * @return the parsed response body, or null if the request failed
+     */
+    private JsonObject send(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            boolean ok = response.statusCode() >= 200 && response.statusCode() < 300;
+            JsonObject body = null;
+            if (ok) {
+                JsonElement parsed = JsonParser.parseString(response.body());
+                body = parsed.isJsonObject() ? parsed.getAsJsonObject() : null;
+                ok = body != null && (!body.has("success") || body.get("success").getAsBoolean());
+            }
+            latencies.record(endpoint, elapsed, !ok);
+            return ok ? body : null;
+        } catch (IOException | RuntimeException e) {
+            latencies.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        }
+    }
+
+    private static void collectProductIds(JsonObject page, List<String> into) {
+        JsonElement items = page.get("items");
+        if (items == null || !items.isJsonArray()) {
+            return;
+        }
+        for (JsonElement item : (JsonArray) items) {
+            JsonObject product = item.getAsJsonObject();
+            JsonElement id = product.has("productId") ? product.get("productId") : product.get("id");
+            if (id != null && !id.isJsonNull()) {
+                into.add(id.getAsString());
+            }
+        }
+    }
+
+    private static String dataString(JsonObject response, String field) {
+        if (response == null || !response.has("data") || !response.get("data").isJsonObject()) {
+            return null;
+        }
+        JsonElement value = response.getAsJsonObject("data").get(field);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private void think() throws InterruptedException {
+        long min = profile.thinkTimeMin().toMillis();
+        long max = profile.thinkTimeMax().toMillis();
+        long pause = max > min ? min + random.nextLong(max - min + 1) : min;
+        if (pause > 0) {
+            Thread.sleep(pause);
+        }
+    }
+}